@@ -23,7 +23,9 @@ import java.util.List;
 
 import org.neo4j.jmx.Description;
 import org.neo4j.jmx.ManagementInterface;
+import org.neo4j.kernel.info.ContendedLockInfo;
 import org.neo4j.kernel.info.LockInfo;
+import org.neo4j.kernel.info.LockStatisticsInfo;
 
 @ManagementInterface( name = LockManager.NAME )
 @Description( "Information about the Neo4j lock status" )
@@ -42,4 +44,13 @@ public interface LockManager
                   + "The parameter is used to get locks where threads have waited for at least the specified number "
                   + "of milliseconds, a value of 0 retrieves all contended locks." )
     List<LockInfo> getContendedLocks( long minWaitTime );
+
+    @Description( "Number of acquired locks, time spent waiting for them in microseconds, a histogram of those "
+                  + "wait times and number of detected deadlocks, per resource type. Empty unless lock profiling "
+                  + "is enabled." )
+    List<LockStatisticsInfo> getLockStatistics();
+
+    @Description( "The resources that transactions have had to wait the longest for to lock, most contended first. "
+                  + "Empty unless lock profiling is enabled." )
+    List<ContendedLockInfo> getMostContendedLocks();
 }
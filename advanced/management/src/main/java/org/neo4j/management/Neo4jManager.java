@@ -244,6 +244,11 @@ public final class Neo4jManager extends KernelProxy implements Kernel
         return getBean( MemoryMapping.class );
     }
 
+    public PageCache getPageCacheBean()
+    {
+        return getBean( PageCache.class );
+    }
+
     public Primitives getPrimitivesBean()
     {
         return getBean( Primitives.class );
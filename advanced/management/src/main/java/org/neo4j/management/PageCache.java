@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.management;
+
+import org.neo4j.jmx.Description;
+import org.neo4j.jmx.ManagementInterface;
+
+@ManagementInterface( name = PageCache.NAME )
+@Description( "Information about the Neo4j page cache" )
+public interface PageCache
+{
+    final String NAME = "Page cache";
+
+    @Description( "The number of times a page has been pinned" )
+    long getPins();
+
+    @Description( "The number of page faults, where a page had to be loaded from its file" )
+    long getFaults();
+
+    @Description( "The number of pages loaded ahead of sequential scans, which are not counted as page faults" )
+    long getPrefetches();
+
+    @Description( "The number of pins that found their page in the cache" )
+    long getHits();
+
+    @Description( "The ratio of pins that found their page in the cache, between 0 and 1" )
+    double getHitRatio();
+
+    @Description( "The number of pages that have been evicted from the cache" )
+    long getEvictions();
+
+    @Description( "The number of pages that have been flushed to their files" )
+    long getFlushes();
+
+    @Description( "The number of bytes written to the files when flushing pages" )
+    long getBytesWritten();
+
+    @Description( "Page cache information about each mapped file" )
+    PagedFileInfo[] getFiles();
+}
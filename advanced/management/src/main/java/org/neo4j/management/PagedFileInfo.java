@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.management;
+
+import java.beans.ConstructorProperties;
+import java.io.Serializable;
+
+public final class PagedFileInfo implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+    private final String fileName;
+    private final long pins;
+    private final long faults;
+    private final long hits;
+    private final double hitRatio;
+    private final long evictions;
+    private final long flushes;
+    private final long bytesWritten;
+    private final long averageFaultMicros;
+    private final long faultMicros99thPercentile;
+    private final long averageFlushMicros;
+    private final long flushMicros99thPercentile;
+
+    @ConstructorProperties( { "fileName", "pins", "faults", "hits", "hitRatio", "evictions", "flushes",
+            "bytesWritten", "averageFaultMicros", "faultMicros99thPercentile", "averageFlushMicros",
+            "flushMicros99thPercentile" } )
+    public PagedFileInfo( String fileName, long pins, long faults, long hits, double hitRatio, long evictions,
+            long flushes, long bytesWritten, long averageFaultMicros, long faultMicros99thPercentile,
+            long averageFlushMicros, long flushMicros99thPercentile )
+    {
+        this.fileName = fileName;
+        this.pins = pins;
+        this.faults = faults;
+        this.hits = hits;
+        this.hitRatio = hitRatio;
+        this.evictions = evictions;
+        this.flushes = flushes;
+        this.bytesWritten = bytesWritten;
+        this.averageFaultMicros = averageFaultMicros;
+        this.faultMicros99thPercentile = faultMicros99thPercentile;
+        this.averageFlushMicros = averageFlushMicros;
+        this.flushMicros99thPercentile = flushMicros99thPercentile;
+    }
+
+    public String getFileName()
+    {
+        return fileName;
+    }
+
+    public long getPins()
+    {
+        return pins;
+    }
+
+    public long getFaults()
+    {
+        return faults;
+    }
+
+    public long getHits()
+    {
+        return hits;
+    }
+
+    public double getHitRatio()
+    {
+        return hitRatio;
+    }
+
+    public long getEvictions()
+    {
+        return evictions;
+    }
+
+    public long getFlushes()
+    {
+        return flushes;
+    }
+
+    public long getBytesWritten()
+    {
+        return bytesWritten;
+    }
+
+    public long getAverageFaultMicros()
+    {
+        return averageFaultMicros;
+    }
+
+    public long getFaultMicros99thPercentile()
+    {
+        return faultMicros99thPercentile;
+    }
+
+    public long getAverageFlushMicros()
+    {
+        return averageFlushMicros;
+    }
+
+    public long getFlushMicros99thPercentile()
+    {
+        return flushMicros99thPercentile;
+    }
+}
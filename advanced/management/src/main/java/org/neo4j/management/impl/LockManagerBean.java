@@ -20,6 +20,7 @@
 package org.neo4j.management.impl;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.management.NotCompliantMBeanException;
@@ -28,8 +29,12 @@ import org.neo4j.helpers.Service;
 import org.neo4j.jmx.impl.ManagementBeanProvider;
 import org.neo4j.jmx.impl.ManagementData;
 import org.neo4j.jmx.impl.Neo4jMBean;
+import org.neo4j.kernel.impl.locking.LockProfiler;
 import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.locking.ProfilingLocks;
+import org.neo4j.kernel.info.ContendedLockInfo;
 import org.neo4j.kernel.info.LockInfo;
+import org.neo4j.kernel.info.LockStatisticsInfo;
 import org.neo4j.management.LockManager;
 
 @Service.Implementation( ManagementBeanProvider.class )
@@ -55,11 +60,13 @@ public final class LockManagerBean extends ManagementBeanProvider
     private static class LockManagerImpl extends Neo4jMBean implements LockManager
     {
         private final Locks lockManager;
+        private final LockProfiler lockProfiler;
 
         LockManagerImpl( ManagementData management ) throws NotCompliantMBeanException
         {
             super( management );
             this.lockManager = lockManager( management );
+            this.lockProfiler = lockProfiler( management, lockManager );
         }
 
         private Locks lockManager( ManagementData management )
@@ -76,16 +83,28 @@ public final class LockManagerBean extends ManagementBeanProvider
             }
         }
 
+        private LockProfiler lockProfiler( ManagementData management, Locks lockManager )
+        {
+            if ( !(lockManager instanceof ProfilingLocks) )
+            {
+                // Lock profiling is disabled
+                return null;
+            }
+            return management.getKernelData().graphDatabase().getDependencyResolver()
+                    .resolveDependency( LockProfiler.class );
+        }
+
         LockManagerImpl( ManagementData management, boolean mxBean )
         {
             super( management, mxBean );
             this.lockManager = lockManager( management );
+            this.lockProfiler = lockProfiler( management, lockManager );
         }
 
         @Override
         public long getNumberOfAvertedDeadlocks()
         {
-            return -1l;
+            return lockProfiler != null ? lockProfiler.deadlocks() : -1l;
         }
 
         @Override
@@ -109,5 +128,17 @@ public final class LockManagerBean extends ManagementBeanProvider
             // Contended locks can no longer be found by the new lock manager, since that knowledge is not centralized.
             return getLocks();
         }
+
+        @Override
+        public List<LockStatisticsInfo> getLockStatistics()
+        {
+            return lockProfiler != null ? lockProfiler.statistics() : Collections.<LockStatisticsInfo>emptyList();
+        }
+
+        @Override
+        public List<ContendedLockInfo> getMostContendedLocks()
+        {
+            return lockProfiler != null ? lockProfiler.mostContended() : Collections.<ContendedLockInfo>emptyList();
+        }
     }
 }
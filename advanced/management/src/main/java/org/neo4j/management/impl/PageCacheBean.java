@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.management.impl;
+
+import java.util.List;
+import javax.management.NotCompliantMBeanException;
+
+import org.neo4j.helpers.Service;
+import org.neo4j.io.pagecache.LatencyHistogram;
+import org.neo4j.io.pagecache.PageCacheCounters;
+import org.neo4j.io.pagecache.PagedFileCounters;
+import org.neo4j.jmx.impl.ManagementBeanProvider;
+import org.neo4j.jmx.impl.ManagementData;
+import org.neo4j.jmx.impl.Neo4jMBean;
+import org.neo4j.management.PageCache;
+import org.neo4j.management.PagedFileInfo;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Service.Implementation( ManagementBeanProvider.class )
+public final class PageCacheBean extends ManagementBeanProvider
+{
+    public PageCacheBean()
+    {
+        super( PageCache.class );
+    }
+
+    @Override
+    protected Neo4jMBean createMBean( ManagementData management ) throws NotCompliantMBeanException
+    {
+        return new PageCacheImpl( management );
+    }
+
+    @Override
+    protected Neo4jMBean createMXBean( ManagementData management ) throws NotCompliantMBeanException
+    {
+        return new PageCacheImpl( management, true );
+    }
+
+    private static class PageCacheImpl extends Neo4jMBean implements PageCache
+    {
+        private final PageCacheCounters counters;
+
+        PageCacheImpl( ManagementData management ) throws NotCompliantMBeanException
+        {
+            super( management );
+            this.counters = management.resolveDependency( PageCacheCounters.class );
+        }
+
+        PageCacheImpl( ManagementData management, boolean isMxBean )
+        {
+            super( management, isMxBean );
+            this.counters = management.resolveDependency( PageCacheCounters.class );
+        }
+
+        @Override
+        public long getPins()
+        {
+            return counters.getPins();
+        }
+
+        @Override
+        public long getFaults()
+        {
+            return counters.getFaults();
+        }
+
+        @Override
+        public long getPrefetches()
+        {
+            return counters.getPrefetches();
+        }
+
+        @Override
+        public long getHits()
+        {
+            return counters.getHits();
+        }
+
+        @Override
+        public double getHitRatio()
+        {
+            return counters.getHitRatio();
+        }
+
+        @Override
+        public long getEvictions()
+        {
+            return counters.getEvictions();
+        }
+
+        @Override
+        public long getFlushes()
+        {
+            return counters.getFlushes();
+        }
+
+        @Override
+        public long getBytesWritten()
+        {
+            return counters.getBytesWritten();
+        }
+
+        @Override
+        public PagedFileInfo[] getFiles()
+        {
+            List<PagedFileCounters> files = counters.getFiles();
+            PagedFileInfo[] result = new PagedFileInfo[files.size()];
+            for ( int i = 0; i < result.length; i++ )
+            {
+                PagedFileCounters file = files.get( i );
+                LatencyHistogram faultLatency = file.getFaultLatency();
+                LatencyHistogram flushLatency = file.getFlushLatency();
+                result[i] = new PagedFileInfo( file.getFileName(), file.getPins(), file.getFaults(),
+                        file.getHits(), file.getHitRatio(), file.getEvictions(), file.getFlushes(),
+                        file.getBytesWritten(),
+                        NANOSECONDS.toMicros( faultLatency.getAverageNanos() ),
+                        NANOSECONDS.toMicros( faultLatency.getPercentileNanos( 0.99 ) ),
+                        NANOSECONDS.toMicros( flushLatency.getAverageNanos() ),
+                        NANOSECONDS.toMicros( flushLatency.getPercentileNanos( 0.99 ) ) );
+            }
+            return result;
+        }
+    }
+}
@@ -123,6 +123,12 @@ public class ManagementBeansTest
         assertNotNull( getManager().getMemoryMappingBean() );
     }
 
+    @Test
+    public void canGetPageCacheBean() throws Exception
+    {
+        assertNotNull( getManager().getPageCacheBean() );
+    }
+
     @Test
     public void canGetPrimitivesBean() throws Exception
     {
@@ -146,4 +152,10 @@ public class ManagementBeansTest
     {
         assertNotNull( "MemoryPools is null", getManager().getMemoryMappingBean().getMemoryPools() );
     }
+
+    @Test
+    public void canAccessPageCacheCompositeData() throws Exception
+    {
+        assertNotNull( "Files is null", getManager().getPageCacheBean().getFiles() );
+    }
 }
@@ -36,6 +36,7 @@ import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.kernel.api.direct.BoundedIterable;
 import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexReader;
+import org.neo4j.kernel.api.index.IndexSample;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.SchemaIndexProvider.Descriptor;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
@@ -195,6 +196,19 @@ public class NodeCorrectlyIndexedCheckTest
                     return emptyIterator();
                 }
 
+                @Override
+                public PrimitiveLongIterator rangeSeek( Object lower, boolean includeLower, Object upper,
+                                                        boolean includeUpper )
+                {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public PrimitiveLongIterator prefixSeek( String prefix )
+                {
+                    throw new UnsupportedOperationException();
+                }
+
                 @Override
                 public boolean hasIndexed( long nodeId, Object propertyValue )
                 {
@@ -213,6 +227,12 @@ public class NodeCorrectlyIndexedCheckTest
                     return false;
                 }
 
+                @Override
+                public IndexSample sampleIndex()
+                {
+                    throw new UnsupportedOperationException();
+                }
+
                 @Override
                 public void close()
                 {
@@ -32,7 +32,7 @@ import org.neo4j.cypher.internal.compiler.v2_2.planner.{Planner, PlanningMonitor
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.{CachedMetricsFactory, SimpleMetricsFactory}
 import org.neo4j.cypher.internal.compiler.v2_2.planner.{Planner, PlanningMonitor}
 import org.neo4j.cypher.internal.compiler.v2_2.spi.PlanContext
-import org.neo4j.cypher.internal.{LRUCache, PlanType}
+import org.neo4j.cypher.internal.{InterpretedRuntime, LRUCache, PlanType, RuntimeName}
 import org.neo4j.graphdb.GraphDatabaseService
 import org.neo4j.kernel.monitoring.{Monitors => KernelMonitors}
 
@@ -105,16 +105,17 @@ case class CypherCompiler(parser: CypherParser,
                           cacheMonitor: CypherCacheFlushingMonitor[CacheAccessor[PreparedQuery, ExecutionPlan]],
                           monitors: Monitors) {
 
-  def planQuery(queryText: String, context: PlanContext, planType: PlanType): (ExecutionPlan, Map[String, Any]) =
-    planPreparedQuery(prepareQuery(queryText, planType), context)
+  def planQuery(queryText: String, context: PlanContext, planType: PlanType,
+                runtime: RuntimeName = InterpretedRuntime): (ExecutionPlan, Map[String, Any]) =
+    planPreparedQuery(prepareQuery(queryText, planType, runtime), context)
 
-  def prepareQuery(queryText: String, planType: PlanType): PreparedQuery = {
+  def prepareQuery(queryText: String, planType: PlanType, runtime: RuntimeName = InterpretedRuntime): PreparedQuery = {
     val parsedStatement = parser.parse(queryText)
     val cleanedStatement = parsedStatement.endoRewrite(hoistExpressionsInClosingClauses)
     semanticChecker.check(queryText, cleanedStatement)
     val (rewrittenStatement, extractedParams) = astRewriter.rewrite(queryText, cleanedStatement)
     val table = semanticChecker.check(queryText, rewrittenStatement)
-    PreparedQuery(rewrittenStatement, queryText, extractedParams, planType)(table)
+    PreparedQuery(rewrittenStatement, queryText, extractedParams, planType, runtime)(table)
   }
 
   def planPreparedQuery(parsedQuery: PreparedQuery, context: PlanContext): (ExecutionPlan, Map[String, Any]) = {
@@ -20,7 +20,8 @@
 package org.neo4j.cypher.internal.compiler.v2_2
 
 import mutation.UpdateAction
-import pipes.MutableMaps
+import pipes.{MutableMaps, SlotConfiguration, SlottedRow}
+import spi.QueryContext
 import collection.{immutable, Iterator}
 import collection.mutable.{Queue, Map => MutableMap}
 
@@ -28,6 +29,8 @@ object ExecutionContext {
   def empty = new ExecutionContext()
 
   def from(x: (String, Any)*) = new ExecutionContext().newWith(x)
+
+  def slotted(slots: SlotConfiguration, query: QueryContext) = new ExecutionContext(SlottedRow.empty(slots, query))
 }
 
 case class ExecutionContext(m: MutableMap[String, Any] = MutableMaps.empty,
@@ -39,7 +42,10 @@ case class ExecutionContext(m: MutableMap[String, Any] = MutableMaps.empty,
 
   override def size = m.size
 
-  def ++(other: ExecutionContext): ExecutionContext = copy(m = m ++ other.m)
+  def ++(other: ExecutionContext): ExecutionContext = (m, other.m) match {
+    case (row: SlottedRow, otherRow: SlottedRow) => copy(m = row.copy().mergeWith(otherRow))
+    case _                                       => copy(m = m ++ other.m)
+  }
 
   override def foreach[U](f: ((String, Any)) => U) {
     m.foreach(f)
@@ -58,21 +64,31 @@ case class ExecutionContext(m: MutableMap[String, Any] = MutableMaps.empty,
   override def toMap[T, U](implicit ev: (String, Any) <:< (T, U)): immutable.Map[T, U] = m.toMap(ev)
 
   def newWith(newEntries: Seq[(String, Any)]) =
-    createWithNewMap(MutableMaps.create(this.m) ++= newEntries)
+    createWithNewMap(copyOfMap ++= newEntries)
 
   def newWith(newEntries: scala.collection.Map[String, Any]) =
-    createWithNewMap(MutableMaps.create(this.m) ++= newEntries)
+    createWithNewMap(copyOfMap ++= newEntries)
 
-  def newFrom(newEntries: Seq[(String, Any)]) =
-    createWithNewMap(MutableMaps.create(newEntries: _*))
+  def newFrom(newEntries: Seq[(String, Any)]) = m match {
+    case row: SlottedRow => createWithNewMap(row.empty ++= newEntries)
+    case _               => createWithNewMap(MutableMaps.create(newEntries: _*))
+  }
 
-  def newFrom(newEntries: scala.collection.Map[String, Any]) =
-    createWithNewMap(MutableMaps.create(newEntries))
+  def newFrom(newEntries: scala.collection.Map[String, Any]) = m match {
+    case row: SlottedRow => createWithNewMap(row.empty ++= newEntries)
+    case _               => createWithNewMap(MutableMaps.create(newEntries))
+  }
 
   def newWith(newEntry: (String, Any)) =
-    createWithNewMap(MutableMaps.create(this.m) += newEntry)
+    createWithNewMap(copyOfMap += newEntry)
+
+  // Slotted rows stay slotted, copying them is cheaper than copying a map anyway
+  private def copyOfMap: MutableMap[String, Any] = m match {
+    case row: SlottedRow => row.copy()
+    case _               => MutableMaps.create(this.m)
+  }
 
-  override def clone(): ExecutionContext = newFrom(m)
+  override def clone(): ExecutionContext = createWithNewMap(copyOfMap)
 
   protected def createWithNewMap(newMap: MutableMap[String, Any]) = {
     copy(m = newMap)
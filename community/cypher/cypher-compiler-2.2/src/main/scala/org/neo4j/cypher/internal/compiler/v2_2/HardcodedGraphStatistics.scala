@@ -34,6 +34,9 @@ class HardcodedGraphStatisticsValues extends GraphStatistics {
   val DEGREE_BY_RELATIONSHIP_TYPE_AND_DIRECTION = Multiplier(5)
   val DEGREE_BY_LABEL_RELATIONSHIP_TYPE_AND_DIRECTION = Multiplier(5)
 
+  def indexSelectivity(labelId: LabelId, propertyKeyId: PropertyKeyId): Option[Multiplier] =
+    None
+
   def degreeByLabelRelationshipTypeAndDirection(labelId: LabelId, relTypeId: RelTypeId,
                                                 direction: Direction): Multiplier =
     DEGREE_BY_LABEL_RELATIONSHIP_TYPE_AND_DIRECTION
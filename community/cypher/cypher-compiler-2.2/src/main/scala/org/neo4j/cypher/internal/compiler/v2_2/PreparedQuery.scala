@@ -19,7 +19,7 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_2
 
-import org.neo4j.cypher.internal.PlanType
+import org.neo4j.cypher.internal.{InterpretedRuntime, PlanType, RuntimeName}
 import org.neo4j.cypher.internal.compiler.v2_2.ast.Statement
 import org.neo4j.cypher.internal.compiler.v2_2.ast.convert.commands.StatementConverters
 import org.neo4j.cypher.internal.compiler.v2_2.commands.AbstractQuery
@@ -29,7 +29,8 @@ import StatementConverters._
 case class PreparedQuery(statement: Statement,
                          queryText: String,
                          extractedParams: Map[String, Any],
-                         planType: PlanType)(val semanticTable: SemanticTable) {
+                         planType: PlanType,
+                         runtime: RuntimeName = InterpretedRuntime)(val semanticTable: SemanticTable) {
 
   def abstractQuery: AbstractQuery = statement.asQuery.setQueryText(queryText)
 
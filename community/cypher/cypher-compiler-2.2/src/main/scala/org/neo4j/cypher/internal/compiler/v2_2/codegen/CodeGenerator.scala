@@ -0,0 +1,376 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.codegen
+
+import java.util.concurrent.atomic.AtomicLong
+
+import org.neo4j.cypher.internal.compiler.v2_2.ast
+import org.neo4j.cypher.internal.compiler.v2_2.functions
+import org.neo4j.cypher.internal.compiler.v2_2.pipes.{CompiledPipe, Pipe, PipeMonitor}
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans._
+import org.neo4j.graphdb.Direction
+
+import scala.collection.mutable
+
+sealed trait Kind
+case object NodeKind extends Kind
+case object RelationshipKind extends Kind
+case object ValueKind extends Kind
+
+/*
+A Java local variable of generated code. Nodes and relationships are held as long ids, all other values as Objects.
+ */
+case class Variable(name: String, kind: Kind) {
+  def isEntity = kind != ValueKind
+
+  def asObject = if (isEntity) s"Long.valueOf($name)" else name
+}
+
+case class Column(name: String, kind: Kind)
+
+case class GeneratedSource(packageName: String, className: String, source: String, columns: Seq[Column]) {
+  def qualifiedName = s"$packageName.$className"
+}
+
+object CodeGenerator {
+  val packageName = "org.neo4j.cypher.internal.compiler.v2_2.generated"
+
+  private val classCount = new AtomicLong()
+
+  /*
+  Returns a pipe running the given plan as compiled code, or None if the plan can't be compiled. The pipe falls back
+  to the pipes built for the plan whenever the compiled code can't be used.
+
+  The generated code pushes all its rows before returning, so only plans with bounded results are compiled.
+   */
+  def compile(plan: LogicalPlan, fallback: Pipe)(implicit monitor: PipeMonitor): Option[Pipe] =
+    if (!hasBoundedResult(plan)) None
+    else generate(plan).flatMap { source =>
+      InMemoryJavaCompiler.compile(source, getClass.getClassLoader).map { generatedClass =>
+        CompiledPipe(generatedClass.asSubclass(classOf[GeneratedQuery]), source.columns, fallback)
+      }
+    }
+
+  /*
+  An aggregation without grouping keys produces a single row. Anything else, grouped aggregations included, produces
+  rows in proportion to its input, which could be more than fit in memory.
+   */
+  def hasBoundedResult(plan: LogicalPlan): Boolean = plan match {
+    case Aggregation(_, groupingExpressions, _) => groupingExpressions.isEmpty
+    case Projection(left, _)                    => hasBoundedResult(left)
+    case Selection(_, left)                     => hasBoundedResult(left)
+    case _                                      => false
+  }
+
+  def generate(plan: LogicalPlan): Option[GeneratedSource] =
+    try {
+      Some(new JavaCodeGenerator(packageName, "CompiledPlan" + classCount.incrementAndGet()).generate(plan))
+    } catch {
+      case _: CantCompileQueryException => None
+    }
+}
+
+/*
+Generates the Java source of a GeneratedQuery for a logical plan. All operators of the plan are fused into a single
+method of nested loops working on node and relationship ids. It's done produce/consume style: every operator has its
+child produce rows, passing along the code consuming each of them. Aggregations break the pipeline by filling a map
+in one loop and producing their rows from it in another.
+
+Tokens are looked up once per execution, at the top of the method. Plans using operators or expressions not supported
+here are rejected by throwing CantCompileQueryException.
+ */
+class JavaCodeGenerator(packageName: String, className: String) {
+  private type Scope = Map[String, Variable]
+
+  private val declarations = mutable.ArrayBuffer[String]()
+  private val labelIds = mutable.Map[String, String]()
+  private val propertyKeyIds = mutable.Map[String, String]()
+  private var columns: Seq[Column] = Seq.empty
+  private var count = 0
+
+  def generate(plan: LogicalPlan): GeneratedSource = {
+    val body = produce(plan, produceResult(plan.availableSymbols.toSeq.map(_.name).sorted))
+    GeneratedSource(packageName, className, classSource(body), columns)
+  }
+
+  private def produceResult(output: Seq[String])(scope: Scope): String = {
+    val variables = output.map(name => scope.getOrElse(name, cantCompile(s"Missing identifier $name")))
+    columns = output.zip(variables).map {
+      case (name, variable) => Column(name, variable.kind)
+    }
+    s"visitor.visit( new Object[]{${variables.map(_.asObject).mkString(", ")}} );"
+  }
+
+  private def produce(plan: LogicalPlan, consume: Scope => String): String = plan match {
+    case AllNodesScan(IdName(id), arguments) if arguments.isEmpty =>
+      scan(id, "ops.nodesGetAll()", consume)
+
+    case NodeByLabelScan(IdName(id), label, arguments) if arguments.isEmpty =>
+      val labelId = label match {
+        case Left(name)     => labelIdFor(name)
+        case Right(labelId) => labelId.id.toString
+      }
+      scan(id, s"nodesWithLabel( ops, $labelId )", consume)
+
+    case Expand(left, IdName(from), dir, types, IdName(to), IdName(relName), SimplePatternLength) =>
+      produce(left, expand(from, dir, types, to, relName, consume))
+
+    case Selection(predicates, left) =>
+      produce(left, scope => block(s"if ( ${predicates.map(predicate(_, scope)).mkString(" && ")} )", consume(scope)))
+
+    case Projection(left, expressions) =>
+      produce(left, project(expressions, consume))
+
+    case Aggregation(left, groupingExpressions, aggregationExpressions) =>
+      aggregate(left, groupingExpressions.toSeq, aggregationExpressions.toSeq, consume)
+
+    case _ =>
+      cantCompile(s"Can't compile ${plan.getClass.getSimpleName}")
+  }
+
+  private def scan(id: String, nodeIds: String, consume: Scope => String) = {
+    val nodes = newName("nodes")
+    val node = Variable(newName("node"), NodeKind)
+    lines(
+      s"PrimitiveLongIterator $nodes = $nodeIds;",
+      block(s"while ( $nodes.hasNext() )", lines(
+        s"final long ${node.name} = $nodes.next();",
+        consume(Map(id -> node)))))
+  }
+
+  private def expand(from: String, dir: Direction, types: Seq[ast.RelTypeName], to: String, relName: String,
+                     consume: Scope => String)(scope: Scope) = {
+    val fromNode = nodeVariable(scope, from)
+    if (scope.contains(to) || scope.contains(relName))
+      cantCompile("Can't compile expanding into bound identifiers")
+
+    val relTypes = declare("types", name =>
+      s"final int[] $name = relationshipTypes( ops, new String[]{${types.map(t => javaString(t.name)).mkString(", ")}} );")
+    val endpoints = declare("endpoints", name => s"final RelationshipEndpoints $name = new RelationshipEndpoints();")
+    val relationships = newName("relationships")
+    val relationship = Variable(newName("relationship"), RelationshipKind)
+    val toNode = Variable(newName("node"), NodeKind)
+    lines(
+      s"PrimitiveLongIterator $relationships = expand( ops, ${fromNode.name}, Direction.${dir.name}, $relTypes );",
+      block(s"while ( $relationships.hasNext() )", lines(
+        s"final long ${relationship.name} = $relationships.next();",
+        s"ops.relationshipVisit( ${relationship.name}, $endpoints );",
+        s"final long ${toNode.name} = $endpoints.otherNode( ${fromNode.name} );",
+        consume(scope + (relName -> relationship) + (to -> toNode)))))
+  }
+
+  private def project(expressions: Map[String, ast.Expression], consume: Scope => String)(scope: Scope) = {
+    val statements = mutable.ArrayBuffer[String]()
+    val projected = expressions.map {
+      case (name, ast.Identifier(id)) =>
+        name -> scope.getOrElse(id, cantCompile(s"Missing identifier $id"))
+
+      case (name, expression) =>
+        val variable = Variable(newName("value"), ValueKind)
+        statements += s"final Object ${variable.name} = ${value(expression, scope)};"
+        name -> variable
+    }
+    lines(statements :+ consume(projected): _*)
+  }
+
+  private def aggregate(left: LogicalPlan, groupingExpressions: Seq[(String, ast.Expression)],
+                        aggregationExpressions: Seq[(String, ast.Expression)], consume: Scope => String) = {
+    val counted = aggregationExpressions.map {
+      case (_, ast.CountStar())                                                        => None
+      case (_, f@ast.FunctionInvocation(_, false, IndexedSeq(arg))) if f.function == Some(functions.Count) => Some(arg)
+      case (name, _)                                                                   => cantCompile(s"Can't compile aggregation $name")
+    }
+    val counts = aggregationExpressions.map {
+      case (name, _) => name -> Variable(newName("count"), ValueKind)
+    }
+
+    if (groupingExpressions.isEmpty) {
+      val counters = newName("counters")
+      lines(
+        s"final long[] $counters = new long[${counted.size}];",
+        produce(left, scope => countRow(counters, counted, scope)),
+        lines(counts.zipWithIndex.map {
+          case ((_, count), i) => s"final Object ${count.name} = Long.valueOf( $counters[$i] );"
+        }: _*),
+        consume(counts.toMap))
+    } else {
+      val groups = newName("groups")
+      var keyKinds: Seq[Kind] = Seq.empty
+      val loop = produce(left, scope => {
+        val keys = groupingExpressions.map {
+          case (_, ast.Identifier(id)) => scope.getOrElse(id, cantCompile(s"Missing identifier $id"))
+          case (_, expression)         => Variable(value(expression, scope), ValueKind)
+        }
+        keyKinds = keys.map(_.kind)
+        val key = newName("key")
+        val counters = newName("counters")
+        lines(
+          s"final Object $key = groupingKey( new Object[]{${keys.map(_.asObject).mkString(", ")}} );",
+          s"long[] $counters = $groups.get( $key );",
+          block(s"if ( $counters == null )", lines(
+            s"$counters = new long[${counted.size}];",
+            s"$groups.put( $key, $counters );")),
+          countRow(counters, counted, scope))
+      })
+
+      val group = newName("group")
+      val keyValues = newName("keyValues")
+      val keys = groupingExpressions.zip(keyKinds).map {
+        case ((name, _), kind) => name -> Variable(newName("key"), kind)
+      }
+      val declareKeys = keys.zipWithIndex.map {
+        case ((_, key), i) if key.isEntity => s"final long ${key.name} = ((Long) $keyValues[$i]).longValue();"
+        case ((_, key), i)                 => s"final Object ${key.name} = $keyValues[$i];"
+      }
+      val declareCounts = counts.zipWithIndex.map {
+        case ((_, count), i) => s"final Object ${count.name} = Long.valueOf( $group.getValue()[$i] );"
+      }
+      lines(
+        s"final java.util.Map<Object, long[]> $groups = new java.util.HashMap<>();",
+        loop,
+        block(s"for ( java.util.Map.Entry<Object, long[]> $group : $groups.entrySet() )", lines(
+          Seq(s"final Object[] $keyValues = groupingValues( $group.getKey() );") ++ declareKeys ++ declareCounts :+
+            consume((keys ++ counts).toMap): _*)))
+    }
+  }
+
+  private def countRow(counters: String, counted: Seq[Option[ast.Expression]], scope: Scope) =
+    lines(counted.zipWithIndex.map {
+      case (None, i)                                                              => s"$counters[$i]++;"
+      case (Some(ast.Identifier(id)), i) if scope.get(id).exists(_.isEntity) => s"$counters[$i]++;"
+      case (Some(expression), i)                                                  =>
+        block(s"if ( ${value(expression, scope)} != null )", s"$counters[$i]++;")
+    }: _*)
+
+  private def predicate(expression: ast.Expression, scope: Scope): String = expression match {
+    case ast.HasLabels(ast.Identifier(id), labels) =>
+      val node = nodeVariable(scope, id)
+      labels.map(label => s"hasLabel( ops, ${node.name}, ${labelIdFor(label.name)} )").mkString("(", " && ", ")")
+
+    case ast.Not(inner) if !isNullable(inner) =>
+      s"!${predicate(inner, scope)}"
+
+    case ast.And(lhs, rhs) =>
+      s"(${predicate(lhs, scope)} && ${predicate(rhs, scope)})"
+
+    case ast.Ands(predicates) =>
+      predicates.toSeq.map(predicate(_, scope)).mkString("(", " && ", ")")
+
+    case ast.Equals(ast.Identifier(lhs), ast.Identifier(rhs)) =>
+      (scope.get(lhs), scope.get(rhs)) match {
+        case (Some(l), Some(r)) if l.isEntity && l.kind == r.kind => s"(${l.name} == ${r.name})"
+        case _                                                    => cantCompile(s"Can't compile comparing $lhs and $rhs")
+      }
+
+    case ast.Equals(lhs, rhs) if isProperty(lhs) || isProperty(rhs) =>
+      s"equal( ${value(lhs, scope)}, ${value(rhs, scope)} )"
+
+    case _ =>
+      cantCompile(s"Can't compile predicate $expression")
+  }
+
+  // Predicates compile to Java booleans, with null being false. That's fine as long as they don't get negated.
+  private def isNullable(expression: ast.Expression): Boolean = expression match {
+    case _: ast.HasLabels                                 => false
+    case ast.Equals(ast.Identifier(_), ast.Identifier(_)) => false
+    case ast.Not(inner)                                   => isNullable(inner)
+    case ast.And(lhs, rhs)                                => isNullable(lhs) || isNullable(rhs)
+    case ast.Ands(predicates)                             => predicates.exists(isNullable)
+    case _                                                => true
+  }
+
+  private def isProperty(expression: ast.Expression) = expression.isInstanceOf[ast.Property]
+
+  private def value(expression: ast.Expression, scope: Scope): String = expression match {
+    case ast.Property(ast.Identifier(id), ast.PropertyKeyName(key)) => scope.get(id) match {
+      case Some(Variable(name, NodeKind))         => s"nodeProperty( ops, $name, ${propertyKeyIdFor(key)} )"
+      case Some(Variable(name, RelationshipKind)) => s"relationshipProperty( ops, $name, ${propertyKeyIdFor(key)} )"
+      case _                                      => cantCompile(s"Can't compile property of $id")
+    }
+
+    case ast.Identifier(id) => scope.get(id) match {
+      case Some(Variable(name, ValueKind)) => name
+      case _                               => cantCompile(s"Can't compile value of $id")
+    }
+
+    case ast.Parameter(name)                => s"parameter( params, ${javaString(name)} )"
+    case literal: ast.StringLiteral         => javaString(literal.value)
+    case literal: ast.SignedDecimalIntegerLiteral => s"Long.valueOf( ${literal.value}L )"
+    case _: ast.True                        => "Boolean.TRUE"
+    case _: ast.False                       => "Boolean.FALSE"
+    case _: ast.Null                        => "null"
+
+    case _ =>
+      cantCompile(s"Can't compile expression $expression")
+  }
+
+  private def nodeVariable(scope: Scope, id: String): Variable = scope.get(id) match {
+    case Some(variable@Variable(_, NodeKind)) => variable
+    case _                                    => cantCompile(s"Expected $id to be a node")
+  }
+
+  private def labelIdFor(label: String): String =
+    labelIds.getOrElseUpdate(label, declare("label", name => s"final int $name = ops.labelGetForName( ${javaString(label)} );"))
+
+  private def propertyKeyIdFor(key: String): String =
+    propertyKeyIds.getOrElseUpdate(key, declare("propertyKey", name => s"final int $name = ops.propertyKeyGetForName( ${javaString(key)} );"))
+
+  private def declare(prefix: String, declaration: String => String): String = {
+    val name = newName(prefix)
+    declarations += declaration(name)
+    name
+  }
+
+  private def newName(prefix: String): String = {
+    count += 1
+    prefix + count
+  }
+
+  private def classSource(body: String) = lines(
+    s"package $packageName;",
+    "",
+    "import org.neo4j.collection.primitive.PrimitiveLongIterator;",
+    "import org.neo4j.cypher.internal.compiler.v2_2.codegen.GeneratedQuery;",
+    "import org.neo4j.cypher.internal.compiler.v2_2.codegen.RelationshipEndpoints;",
+    "import org.neo4j.cypher.internal.compiler.v2_2.codegen.ResultRowVisitor;",
+    "import org.neo4j.graphdb.Direction;",
+    "import org.neo4j.kernel.api.ReadOperations;",
+    "import org.neo4j.kernel.api.exceptions.KernelException;",
+    "",
+    block(s"public final class $className extends GeneratedQuery", lines(
+      "@Override",
+      block("public void execute( ReadOperations ops, java.util.Map<String, Object> params, ResultRowVisitor visitor ) throws KernelException",
+        lines(declarations :+ body: _*)))))
+
+  private def block(header: String, body: String) =
+    lines(header, "{", body.split("\n").map("    " + _).mkString("\n"), "}")
+
+  private def lines(lines: String*) = lines.mkString("\n")
+
+  // Unicode escapes would be translated before the source is parsed, so control characters are escaped in octal
+  private def javaString(value: String) = value.map {
+    case '"'            => "\\\""
+    case '\\'           => "\\\\"
+    case c if c < ' '   => "\\%03o".format(c.toInt)
+    case c              => c.toString
+  }.mkString("\"", "", "\"")
+
+  private def cantCompile(message: String): Nothing = throw new CantCompileQueryException(message)
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.codegen
+
+import org.neo4j.collection.primitive.{PrimitiveLongCollections, PrimitiveLongIterator}
+import org.neo4j.cypher.internal.compiler.v2_2.pipes.NiceHasher
+import org.neo4j.cypher.internal.helpers.IsCollection
+import org.neo4j.cypher.{IncomparableValuesException, ParameterNotFoundException}
+import org.neo4j.graphdb.{Direction, PropertyContainer}
+import org.neo4j.kernel.api.exceptions.{EntityNotFoundException, KernelException}
+import org.neo4j.kernel.api.{ReadOperations, StatementConstants}
+import org.neo4j.kernel.impl.api.RelationshipVisitor
+
+/*
+Base class of the classes generated for compiled plans. Anything taking more than a line or two of Java lives here,
+which keeps the generated code small and this code testable.
+ */
+abstract class GeneratedQuery {
+  @throws(classOf[KernelException])
+  def execute(ops: ReadOperations, params: java.util.Map[String, AnyRef], visitor: ResultRowVisitor)
+
+  protected def nodesWithLabel(ops: ReadOperations, labelId: Int): PrimitiveLongIterator =
+    if (labelId == StatementConstants.NO_SUCH_LABEL) PrimitiveLongCollections.emptyIterator()
+    else ops.nodesGetForLabel(labelId)
+
+  /*
+  Returns the ids of the given relationship types, or null if none of them exists, in which case there's nothing to
+  expand. An empty array means any type.
+   */
+  protected def relationshipTypes(ops: ReadOperations, names: Array[String]): Array[Int] = {
+    val ids = names.map(ops.relationshipTypeGetForName(_)).filter(_ != StatementConstants.NO_SUCH_RELATIONSHIP_TYPE)
+    if (names.nonEmpty && ids.isEmpty) null else ids
+  }
+
+  @throws(classOf[EntityNotFoundException])
+  protected def expand(ops: ReadOperations, node: Long, direction: Direction, types: Array[Int]): PrimitiveLongIterator =
+    if (types == null) PrimitiveLongCollections.emptyIterator()
+    else if (types.isEmpty) ops.nodeGetRelationships(node, direction)
+    else ops.nodeGetRelationships(node, direction, types: _*)
+
+  @throws(classOf[EntityNotFoundException])
+  protected def hasLabel(ops: ReadOperations, node: Long, labelId: Int): Boolean =
+    labelId != StatementConstants.NO_SUCH_LABEL && ops.nodeHasLabel(node, labelId)
+
+  @throws(classOf[EntityNotFoundException])
+  protected def nodeProperty(ops: ReadOperations, node: Long, propertyKeyId: Int): AnyRef =
+    if (propertyKeyId == StatementConstants.NO_SUCH_PROPERTY_KEY) null
+    else ops.nodeGetProperty(node, propertyKeyId).value(null)
+
+  @throws(classOf[EntityNotFoundException])
+  protected def relationshipProperty(ops: ReadOperations, relationship: Long, propertyKeyId: Int): AnyRef =
+    if (propertyKeyId == StatementConstants.NO_SUCH_PROPERTY_KEY) null
+    else ops.relationshipGetProperty(relationship, propertyKeyId).value(null)
+
+  protected def parameter(params: java.util.Map[String, AnyRef], name: String): AnyRef =
+    if (params.containsKey(name)) params.get(name)
+    else throw new ParameterNotFoundException("Expected a parameter named " + name)
+
+  /*
+  Cypher equality of property values, where null means no match.
+   */
+  protected def equal(lhs: AnyRef, rhs: AnyRef): Boolean = (lhs, rhs) match {
+    case (null, _) | (_, null)                                 => false
+    case (IsCollection(l), IsCollection(r))                    => l == r
+    case (_: PropertyContainer, _) | (_, _: PropertyContainer) => throw new IncomparableValuesException(textWithType(lhs), textWithType(rhs))
+    case _                                                     => lhs == rhs
+  }
+
+  protected def groupingKey(values: Array[AnyRef]): AnyRef = new NiceHasher(values.toSeq)
+
+  protected def groupingValues(key: AnyRef): Array[AnyRef] =
+    key.asInstanceOf[NiceHasher].original.map(_.asInstanceOf[AnyRef]).toArray
+
+  private def textWithType(x: AnyRef) = s"$x (${x.getClass.getSimpleName})"
+}
+
+/*
+Receives the rows produced by a compiled plan. Nodes and relationships are passed as their ids.
+ */
+trait ResultRowVisitor {
+  def visit(row: Array[AnyRef])
+}
+
+/*
+Finds the other node of relationships when expanding. One instance is used for every relationship of an expand, the
+generated code reads the other node right after visiting.
+ */
+final class RelationshipEndpoints extends RelationshipVisitor[RuntimeException] {
+  private var startNode = -1L
+  private var endNode = -1L
+
+  def visit(relId: Long, startNode: Long, endNode: Long, relType: Int) {
+    this.startNode = startNode
+    this.endNode = endNode
+  }
+
+  def otherNode(node: Long): Long = if (node == startNode) endNode else startNode
+}
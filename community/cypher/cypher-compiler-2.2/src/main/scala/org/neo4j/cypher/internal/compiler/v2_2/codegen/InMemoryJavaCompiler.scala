@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.codegen
+
+import java.io.{ByteArrayOutputStream, File, OutputStream}
+import java.net.{URI, URLClassLoader}
+import javax.tools._
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable
+
+/*
+Compiles generated sources using the system Java compiler, keeping source and class files in memory. Every compiled
+class gets a class loader of its own, so it can be collected together with the plan using it. There is no system Java
+compiler when running on a JRE, callers are expected to fall back to interpreting plans then.
+ */
+object InMemoryJavaCompiler {
+  private lazy val compiler: Option[JavaCompiler] = Option(ToolProvider.getSystemJavaCompiler)
+
+  def compile(source: GeneratedSource, parent: ClassLoader): Option[Class[_]] = compiler.flatMap { javac =>
+    val diagnostics = new DiagnosticCollector[JavaFileObject]
+    val fileManager = new InMemoryFileManager(javac.getStandardFileManager(diagnostics, null, null))
+    try {
+      val options = Seq("-classpath", classPath(parent), "-nowarn")
+      val task = javac.getTask(null, fileManager, diagnostics, options.asJava, null, Seq(new SourceFile(source)).asJava)
+      if (task.call())
+        Some(new GeneratedClassLoader(fileManager.classes, parent).loadClass(source.qualifiedName))
+      else
+        None
+    } finally {
+      fileManager.close()
+    }
+  }
+
+  // The class path of the JVM doesn't cover containers loading Neo4j through class loaders of their own
+  private def classPath(loader: ClassLoader): String = {
+    val loaders = Iterator.iterate(loader)(_.getParent).takeWhile(_ != null)
+    val paths = loaders.flatMap {
+      case urlLoader: URLClassLoader => urlLoader.getURLs.toSeq.filter(_.getProtocol == "file").map(url => new File(url.toURI).getPath)
+      case _                         => Seq.empty[String]
+    }
+    (paths.toSeq :+ System.getProperty("java.class.path")).mkString(File.pathSeparator)
+  }
+
+  private class SourceFile(source: GeneratedSource)
+    extends SimpleJavaFileObject(URI.create("string:///" + source.qualifiedName.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension),
+                                 JavaFileObject.Kind.SOURCE) {
+    override def getCharContent(ignoreEncodingErrors: Boolean): CharSequence = source.source
+  }
+
+  private class ClassFile(className: String)
+    extends SimpleJavaFileObject(URI.create("bytes:///" + className.replace('.', '/') + JavaFileObject.Kind.CLASS.extension),
+                                 JavaFileObject.Kind.CLASS) {
+    private val bytes = new ByteArrayOutputStream()
+
+    override def openOutputStream(): OutputStream = bytes
+
+    def toByteArray: Array[Byte] = bytes.toByteArray
+  }
+
+  private class InMemoryFileManager(inner: StandardJavaFileManager)
+    extends ForwardingJavaFileManager[StandardJavaFileManager](inner) {
+    val classes = mutable.Map[String, ClassFile]()
+
+    override def getJavaFileForOutput(location: JavaFileManager.Location, className: String,
+                                      kind: JavaFileObject.Kind, sibling: FileObject): JavaFileObject = {
+      val file = new ClassFile(className)
+      classes(className) = file
+      file
+    }
+  }
+
+  private class GeneratedClassLoader(classes: collection.Map[String, ClassFile], parent: ClassLoader)
+    extends ClassLoader(parent) {
+    override def findClass(name: String): Class[_] = classes.get(name) match {
+      case Some(file) =>
+        val bytes = file.toByteArray
+        defineClass(name, bytes, 0, bytes.length)
+      case None =>
+        super.findClass(name)
+    }
+  }
+}
@@ -108,6 +108,23 @@ case class ManyQueryExpression[T](expression: T) extends QueryExpression[T] {
   def map[R](f: (T) => R) = ManyQueryExpression(f(expression))
 }
 
+case class Bound[T](value: T, inclusive: Boolean) {
+  def map[R](f: T => R) = Bound(f(value), inclusive)
+}
+
+trait SeekRange[T] {
+  def map[R](f: T => R): SeekRange[R]
+}
+
+// At least one of the bounds is always given
+case class RangeBetween[T](lower: Option[Bound[T]], upper: Option[Bound[T]]) extends SeekRange[T] {
+  def map[R](f: (T) => R) = RangeBetween(lower.map(_.map(f)), upper.map(_.map(f)))
+}
+
+case class PrefixRange[T](prefix: T) extends SeekRange[T] {
+  def map[R](f: (T) => R) = PrefixRange(f(prefix))
+}
+
 
 case class SchemaIndex(identifier: String, label: String, property: String, kind: SchemaIndexKind, query: Option[QueryExpression[Expression]])
   extends StartItem(identifier, query.map(q => Arguments.LegacyExpression(q.expression)).toSeq :+ Arguments.Index(label, property))
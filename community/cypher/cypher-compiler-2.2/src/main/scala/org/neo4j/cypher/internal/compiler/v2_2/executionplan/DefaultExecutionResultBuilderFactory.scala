@@ -58,7 +58,9 @@ case class DefaultExecutionResultBuilderFactory(pipeInfo: PipeInfo, columns: Lis
 
     def build(graph: GraphDatabaseService, queryId: AnyRef, params: Map[String, Any]): InternalExecutionResult = {
       taskCloser.addTask(queryContext.close)
-      val state = new QueryState(graph, queryContext, externalResource, params, pipeDecorator, queryId = queryId)
+      val state = new QueryState(graph, queryContext, externalResource, params, pipeDecorator, queryId = queryId,
+        slots = pipeInfo.slots, operatorMemory = queryContext.operatorMemory)
+      taskCloser.addTask(_ => state.spillFiles.close())
       try {
         try {
           createResults(state)
@@ -34,7 +34,8 @@ import org.neo4j.graphdb.GraphDatabaseService
 
 case class PipeInfo(pipe: Pipe,
                     updating: Boolean,
-                    periodicCommit: Option[PeriodicCommitInfo] = None)
+                    periodicCommit: Option[PeriodicCommitInfo] = None,
+                    slots: Option[SlotConfiguration] = None)
 
 case class PeriodicCommitInfo(size: Option[Long]) {
   def batchRowCount = size.getOrElse(/* defaultSize */ 1000L)
@@ -56,7 +57,7 @@ class ExecutionPlanBuilder(graph: GraphDatabaseService,
     val abstractQuery = inputQuery.abstractQuery
 
     val pipeInfo = pipeBuilder.producePlan(inputQuery, planContext)
-    val PipeInfo(pipe, updating, periodicCommitInfo) = pipeInfo
+    val PipeInfo(pipe, updating, periodicCommitInfo, _) = pipeInfo
 
     val columns = getQueryResultColumns(abstractQuery, pipe.symbols)
     val resultBuilderFactory = new DefaultExecutionResultBuilderFactory(pipeInfo, columns, inputQuery.planType)
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.AggregationExpression
+import org.neo4j.cypher.internal.compiler.v2_2.pipes.aggregation.AggregationFunction
+
+import scala.collection.mutable
+
+/*
+The groups of an eager aggregation. Groups are aggregated in memory until the estimated size of their first rows
+passes the operator memory of the query. From then on rows of groups already in memory are still aggregated there,
+while rows of new groups are partitioned on the hash of their grouping key into temporary files. Once the groups in
+memory are done with, every partition is aggregated on its own, partitioning further if needed.
+
+Only the rows and the number of aggregation functions are accounted for, not what the functions hold on to.
+ */
+class AggregationTable(state: QueryState, keyNames: Seq[String], aggregations: Map[String, AggregationExpression],
+                       depth: Int = 0) {
+  import AggregationTable._
+  import SpillPartitions._
+
+  private val groups = mutable.Map[NiceHasher, (ExecutionContext, Seq[AggregationFunction])]()
+  private var memory = 0L
+  private var partitions: Array[RowSpillFile] = null
+
+  def add(ctx: ExecutionContext) {
+    val groupValues = new NiceHasher(keyNames.map(ctx))
+    groups.get(groupValues) match {
+      case Some((_, functions)) =>
+        functions.foreach(func => func(ctx)(state))
+
+      case None if partitions != null =>
+        partitions(partitionOf(groupValues.hashCode, depth)).write(groupValues.hashCode, ctx)
+        state.spills.add(1)
+
+      case None =>
+        val functions: Seq[AggregationFunction] = aggregations.map(_._2.createAggregationFunction).toSeq
+        groups(groupValues) = (ctx, functions)
+        functions.foreach(func => func(ctx)(state))
+        memory += MemoryEstimator.estimate(ctx) + GROUP_OVERHEAD * (1 + functions.size)
+        if (memory > state.operatorMemory && depth < MAX_DEPTH)
+          partitions = create("aggregation", state)
+    }
+  }
+
+  def isEmpty: Boolean = groups.isEmpty && partitions == null
+
+  /*
+  The grouping key, first row and aggregation functions of every group, first those kept in memory, then those of
+  the partitions.
+   */
+  def groupsIterator: Iterator[(NiceHasher, ExecutionContext, Seq[AggregationFunction])] = {
+    val inMemory = groups.iterator.map {
+      case (key, (ctx, functions)) => (key, ctx, functions)
+    }
+
+    if (partitions == null) {
+      inMemory
+    } else {
+      inMemory ++ Iterator.range(0, COUNT).flatMap { i =>
+        val partition = new AggregationTable(state, keyNames, aggregations, depth + 1)
+        partitions(i).read(state).foreach {
+          case (_, ctx) => partition.add(ctx)
+        }
+        partition.groupsIterator
+      }
+    }
+  }
+}
+
+object AggregationTable {
+  private val GROUP_OVERHEAD = 64L
+}
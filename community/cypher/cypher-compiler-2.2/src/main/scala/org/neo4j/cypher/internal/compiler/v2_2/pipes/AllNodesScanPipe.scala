@@ -29,7 +29,7 @@ case class AllNodesScanPipe(ident: String)(implicit pipeMonitor: PipeMonitor) ex
 
   protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] =
     state.query.nodeOps.all.map(n =>
-      state.initialContext.getOrElse(ExecutionContext.empty) += (ident -> n)
+      state.initialContext.getOrElse(state.newExecutionContext()) += (ident -> n)
     )
 
   def exists(predicate: Pipe => Boolean): Boolean = predicate(this)
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.neo4j.cypher.CypherExecutionException
+import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v2_2.codegen._
+import org.neo4j.cypher.internal.compiler.v2_2.executionplan.Effects
+import org.neo4j.cypher.internal.compiler.v2_2.symbols.SymbolTable
+import org.neo4j.kernel.api.TokenNameLookup
+import org.neo4j.kernel.api.exceptions.KernelException
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable
+
+/*
+Runs a query compiled by the CodeGenerator. The pipes built for the same plan are kept around as a fallback, which is
+used whenever the query context doesn't give access to the kernel, e.g. when profiling.
+
+The generated code pushes its rows to a visitor, so they are collected before the first one is returned. The
+CodeGenerator only compiles plans with bounded results, see CodeGenerator.hasBoundedResult.
+ */
+case class CompiledPipe(generatedClass: Class[_ <: GeneratedQuery], columns: Seq[Column], fallback: Pipe)
+                       (implicit val monitor: PipeMonitor) extends Pipe {
+
+  protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] =
+    state.query.readOperations match {
+      case Some(ops) =>
+        val rows = mutable.ArrayBuffer[ExecutionContext]()
+        val visitor = new ResultRowVisitor {
+          def visit(row: Array[AnyRef]) {
+            rows += toContext(row, state)
+          }
+        }
+        try {
+          generatedClass.newInstance().execute(ops, state.params.asJava.asInstanceOf[java.util.Map[String, AnyRef]], visitor)
+        } catch {
+          case e: KernelException => throw new CypherExecutionException(e.getUserMessage(new TokenNameLookup {
+            def propertyKeyGetName(propertyKeyId: Int): String = state.query.getPropertyKeyName(propertyKeyId)
+
+            def labelGetName(labelId: Int): String = state.query.getLabelName(labelId)
+          }), e)
+        }
+        rows.iterator
+
+      case None =>
+        fallback.createResults(state)
+    }
+
+  private def toContext(row: Array[AnyRef], state: QueryState): ExecutionContext = {
+    val context = state.newExecutionContext()
+    var i = 0
+    while (i < row.length) {
+      val column = columns(i)
+      val value = column.kind match {
+        case NodeKind         => state.query.nodeOps.getById(row(i).asInstanceOf[java.lang.Long].longValue())
+        case RelationshipKind => state.query.relationshipOps.getById(row(i).asInstanceOf[java.lang.Long].longValue())
+        case ValueKind        => row(i)
+      }
+      context += (column.name -> value)
+      i += 1
+    }
+    context
+  }
+
+  def symbols: SymbolTable = fallback.symbols
+
+  def planDescription = fallback.planDescription.andThen(this, "CompiledPlan")
+
+  def sources: Seq[Pipe] = Seq(fallback)
+
+  def exists(pred: Pipe => Boolean) = pred(this) || fallback.exists(pred)
+
+  override def localEffects: Effects = fallback.effects
+
+  def dup(sources: List[Pipe]): Pipe = {
+    val (fallback :: Nil) = sources
+    copy(fallback = fallback)
+  }
+}
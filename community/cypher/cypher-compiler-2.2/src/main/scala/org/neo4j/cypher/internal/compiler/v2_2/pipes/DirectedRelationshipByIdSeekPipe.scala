@@ -33,7 +33,7 @@ case class DirectedRelationshipByIdSeekPipe(ident: String, relIdExpr: EntityById
                                            (implicit pipeMonitor: PipeMonitor) extends Pipe with CollectionSupport {
 
   protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] = {
-    val ctx = state.initialContext.getOrElse(ExecutionContext.empty)
+    val ctx = state.initialContext.getOrElse(state.newExecutionContext())
     val relIdExprs = relIdExpr.expressions(ctx, state).flatMap(Option(_))
     new IdSeekIterator[Relationship](ident, state.query.relationshipOps, relIdExprs.iterator).map {
       ctx =>
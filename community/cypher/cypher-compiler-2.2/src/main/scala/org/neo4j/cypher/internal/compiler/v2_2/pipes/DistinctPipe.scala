@@ -22,12 +22,15 @@ package org.neo4j.cypher.internal.compiler.v2_2.pipes
 import org.neo4j.cypher.internal.compiler.v2_2._
 import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.Expression
 import org.neo4j.cypher.internal.compiler.v2_2.executionplan.Effects._
+import org.neo4j.cypher.internal.compiler.v2_2.planDescription.PlanDescription.Arguments
 import org.neo4j.cypher.internal.compiler.v2_2.symbols._
 import org.neo4j.cypher.internal.helpers._
 
-import scala.collection.mutable
-
-case class DistinctPipe(source: Pipe, expressions: Map[String, Expression])
+/*
+With ordered keys, the input is expected to arrive grouped by the values of their expressions. Values are then only
+remembered until a row with other values for the ordered keys comes along.
+ */
+case class DistinctPipe(source: Pipe, expressions: Map[String, Expression], orderedKeys: Seq[String] = Seq.empty)
                        (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(source, pipeMonitor) {
 
   val keyNames: Seq[String] = expressions.keys.toSeq
@@ -42,24 +45,19 @@ case class DistinctPipe(source: Pipe, expressions: Map[String, Expression])
 
     /*
      * The filtering is done by extracting from the context the values of all return expressions, and keeping them
-     * in a set.
+     * in a set, which spills to disk when it grows too big.
      */
-    var seen = mutable.Set[NiceHasher]()
-
-    returnExpressions.filter {
-       case ctx =>
-         val values = new NiceHasher(keyNames.map(ctx).toSeq)
-
-         if (seen.contains(values)) {
-           false
-         } else {
-           seen += values
-           true
-         }
-    }
+    if (orderedKeys.isEmpty)
+      new DistinctTable(state, keyNames).filter(returnExpressions)
+    else
+      OrderedChunks(returnExpressions, orderedKeys).flatMap(chunk => new DistinctTable(state, keyNames).filter(chunk))
   }
 
-  def planDescription = source.planDescription.andThen(this, "Distinct")
+  def planDescription =
+    if (orderedKeys.isEmpty)
+      source.planDescription.andThen(this, "Distinct")
+    else
+      source.planDescription.andThen(this, "OrderedDistinct", Arguments.KeyNames(orderedKeys))
 
   def symbols: SymbolTable = {
     val identifiers = Materialized.mapValues(expressions, (e: Expression) => e.evaluateType(CTAny, source.symbols))
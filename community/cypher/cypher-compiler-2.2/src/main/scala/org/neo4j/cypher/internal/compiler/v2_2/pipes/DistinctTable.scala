@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+
+import scala.collection.mutable
+
+/*
+Filters out rows with values already seen for the given keys. The values seen are kept in memory until their
+estimated size passes the operator memory of the query. From then on rows with values not seen before are partitioned
+on the hash of their values into temporary files, and once all other rows have passed, every partition is filtered on
+its own, partitioning further if needed.
+ */
+class DistinctTable(state: QueryState, keyNames: Seq[String], depth: Int = 0) {
+  import SpillPartitions._
+
+  private val seen = mutable.Set[NiceHasher]()
+  private var memory = 0L
+  private var partitions: Array[RowSpillFile] = null
+
+  def filter(rows: Iterator[ExecutionContext]): Iterator[ExecutionContext] = {
+    val distinct = rows.filter { ctx =>
+      val values = new NiceHasher(keyNames.map(ctx))
+
+      if (seen.contains(values)) {
+        false
+      } else if (partitions != null) {
+        partitions(partitionOf(values.hashCode, depth)).write(values.hashCode, ctx)
+        state.spills.add(1)
+        false
+      } else {
+        seen += values
+        memory += MemoryEstimator.estimate(ctx)
+        if (memory > state.operatorMemory && depth < MAX_DEPTH)
+          partitions = create("distinct", state)
+        true
+      }
+    }
+
+    distinct ++ spilled
+  }
+
+  private def spilled: Iterator[ExecutionContext] =
+    if (partitions == null) {
+      Iterator.empty
+    } else {
+      Iterator.range(0, COUNT).flatMap { i =>
+        new DistinctTable(state, keyNames, depth + 1).filter(partitions(i).read(state).map(_._2))
+      }
+    }
+}
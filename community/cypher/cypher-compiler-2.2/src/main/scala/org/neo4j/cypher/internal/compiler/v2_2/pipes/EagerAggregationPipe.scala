@@ -27,8 +27,6 @@ import org.neo4j.cypher.internal.compiler.v2_2.pipes.aggregation.AggregationFunc
 import org.neo4j.cypher.internal.compiler.v2_2.planDescription.PlanDescription.Arguments
 import org.neo4j.cypher.internal.compiler.v2_2.symbols._
 
-import scala.collection.mutable.{Map => MutableMap}
-
 // Eager aggregation means that this pipe will eagerly load the whole resulting sub graphs before starting
 // to emit aggregated results.
 // Cypher is lazy until it can't - this pipe will eagerly load the full match
@@ -49,10 +47,10 @@ case class EagerAggregationPipe(source: Pipe, keyExpressions: Map[String, Expres
   }
 
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState) = {
-    // This is the temporary storage used while the aggregation is going on
-    val result = MutableMap[NiceHasher, (ExecutionContext, Seq[AggregationFunction])]()
     val keyNames: Seq[String] = keyExpressions.map(_._1).toSeq
     val aggregationNames: Seq[String] = aggregations.map(_._1).toSeq
+    // This is the temporary storage used while the aggregation is going on
+    val result = new AggregationTable(state, keyNames, aggregations)
 
     def createResults(key: NiceHasher, aggregator: scala.Seq[AggregationFunction], ctx: ExecutionContext): ExecutionContext = {
       val newMap = MutableMaps.empty
@@ -75,19 +73,14 @@ case class EagerAggregationPipe(source: Pipe, keyExpressions: Map[String, Expres
       Iterator.single(ExecutionContext(newMap))
     }
 
-    input.foreach(ctx => {
-      val groupValues: NiceHasher = new NiceHasher(keyNames.map(ctx))
-      val aggregateFunctions: Seq[AggregationFunction] = aggregations.map(_._2.createAggregationFunction).toSeq
-      val (_, functions) = result.getOrElseUpdate(groupValues, (ctx, aggregateFunctions))
-      functions.foreach(func => func(ctx)(state))
-    })
+    input.foreach(result.add)
 
     if (result.isEmpty && keyNames.isEmpty) {
       createEmptyResult(state.params)
     } else {
-      result.map {
-        case (key, (ctx, aggregator)) => createResults(key, aggregator, ctx)
-      }.toIterator
+      result.groupsIterator.map {
+        case (key, ctx, aggregator) => createResults(key, aggregator, ctx)
+      }
     }
   }
 
@@ -29,13 +29,15 @@ import org.neo4j.graphdb.{Direction, Node, Relationship}
 case class ExpandPipe(source: Pipe, from: String, relName: String, to: String, dir: Direction, types: Seq[String])
                      (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(source, pipeMonitor) {
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    val relOffset = state.longOffsetFor(relName)
+    val toOffset = state.longOffsetFor(to)
     input.flatMap {
       row =>
         getFromNode(row) match {
           case n: Node =>
             val relationships: Iterator[Relationship] = state.query.getRelationshipsFor(n, dir, types)
             relationships.map {
-              case r => row.newWith(Seq(relName -> r, to -> r.getOtherNode(n)))
+              case r => newRow(row, r, r.getOtherNode(n), relOffset, toOffset)
             }
 
           case null => None
@@ -45,6 +47,17 @@ case class ExpandPipe(source: Pipe, from: String, relName: String, to: String, d
     }
   }
 
+  private def newRow(row: ExecutionContext, r: Relationship, other: Node, relOffset: Int, toOffset: Int) = row.m match {
+    case slotted: SlottedRow if relOffset >= 0 && toOffset >= 0 =>
+      val newSlotted = slotted.copy()
+      newSlotted.setRelationshipAt(relOffset, r)
+      newSlotted.setNodeAt(toOffset, other)
+      row.copy(m = newSlotted)
+
+    case _ =>
+      row.newWith(Seq(relName -> r, to -> other))
+  }
+
   def getFromNode(row: ExecutionContext): Any =
     row.getOrElse(from, throw new InternalException(s"Expected to find a node at $from but found nothing"))
 
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import java.util.{Comparator, PriorityQueue}
+
+import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+
+import scala.collection.mutable
+
+/*
+Sorts rows within the operator memory of the query, using an external merge sort. Rows are sorted in memory until
+their estimated size passes the limit, then the sorted rows get written to a temporary file as a run. In the end all
+runs are merged, at most MAX_RUNS at a time. The sort is stable: rows comparing equal keep the order they were added
+in, which is why rows are spilled together with their sequence number.
+ */
+class ExternalSorter(state: QueryState, lessThan: (ExecutionContext, ExecutionContext) => Boolean) {
+  import ExternalSorter._
+
+  private val buffer = mutable.ArrayBuffer[(Long, ExecutionContext)]()
+  private val runs = mutable.Queue[RowSpillFile]()
+  private var memory = 0L
+  private var count = 0L
+
+  private val ordering = new Comparator[(Long, ExecutionContext)] {
+    def compare(a: (Long, ExecutionContext), b: (Long, ExecutionContext)): Int =
+      if (lessThan(a._2, b._2)) -1
+      else if (lessThan(b._2, a._2)) 1
+      else java.lang.Long.compare(a._1, b._1)
+  }
+
+  def add(row: ExecutionContext) {
+    buffer += (count -> row)
+    count += 1
+    memory += MemoryEstimator.estimate(row)
+    if (memory > state.operatorMemory)
+      spill()
+  }
+
+  def sorted: Iterator[ExecutionContext] = {
+    if (runs.isEmpty) {
+      sortBuffer().iterator.map(_._2)
+    } else {
+      if (buffer.nonEmpty)
+        spill()
+      while (runs.size > MAX_RUNS) {
+        val run = state.spillFiles.create("sort")
+        merge(Seq.fill(MAX_RUNS)(runs.dequeue())).foreach {
+          case (sequence, row) => run.write(sequence, row)
+        }
+        runs.enqueue(run)
+      }
+      merge(runs.dequeueAll(_ => true)).map(_._2)
+    }
+  }
+
+  private def sortBuffer() = buffer.sortWith((a, b) => lessThan(a._2, b._2))
+
+  private def spill() {
+    val run = state.spillFiles.create("sort")
+    sortBuffer().foreach {
+      case (sequence, row) => run.write(sequence, row)
+    }
+    runs.enqueue(run)
+    state.spills.add(buffer.size)
+    buffer.clear()
+    memory = 0
+  }
+
+  private def merge(files: Seq[RowSpillFile]): Iterator[(Long, ExecutionContext)] = {
+    val heads = new PriorityQueue[Run](files.size, new Comparator[Run] {
+      def compare(a: Run, b: Run): Int = ordering.compare(a.head, b.head)
+    })
+    files.map(file => new Run(file.read(state))).filter(_.hasHead).foreach(heads.add)
+
+    new Iterator[(Long, ExecutionContext)] {
+      def hasNext = !heads.isEmpty
+
+      def next() = {
+        if (!hasNext) Iterator.empty.next()
+        val run = heads.poll()
+        val row = run.head
+        if (run.advance())
+          heads.add(run)
+        row
+      }
+    }
+  }
+
+  private class Run(rows: Iterator[(Long, ExecutionContext)]) {
+    var head: (Long, ExecutionContext) = null
+    advance()
+
+    def hasHead = head != null
+
+    def advance(): Boolean = {
+      head = if (rows.hasNext) rows.next() else null
+      hasHead
+    }
+  }
+}
+
+object ExternalSorter {
+  val MAX_RUNS = 64
+}
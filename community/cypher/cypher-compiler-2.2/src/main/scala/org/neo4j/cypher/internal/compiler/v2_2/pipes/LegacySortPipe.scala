@@ -30,9 +30,11 @@ case class LegacySortPipe(source: Pipe, sortDescription: List[SortItem])
               (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(source, pipeMonitor) with ExecutionContextComparer {
   def symbols = source.symbols
 
-  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState) =
-    input.toList.
-      sortWith((a, b) => compareBy(a, b, sortDescription)(state)).iterator
+  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState) = {
+    val sorter = new ExternalSorter(state, (a, b) => compareBy(a, b, sortDescription)(state))
+    input.foreach(sorter.add)
+    sorter.sorted
+  }
 
   def planDescription =
     source.planDescription.andThen(this, "Sort", sortDescription.map(item => LegacyExpression(item.expression)):_*)
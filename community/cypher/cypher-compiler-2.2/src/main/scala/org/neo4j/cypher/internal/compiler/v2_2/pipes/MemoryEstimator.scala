@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+import org.neo4j.graphdb.{Path, PropertyContainer}
+
+/*
+Rough estimates of the heap used by rows, for operators holding on to rows to know when to spill them to disk. The
+numbers are in the right ballpark for a 64 bit JVM, not exact.
+ */
+object MemoryEstimator {
+  val ROW_OVERHEAD = 64L
+  val ENTRY_OVERHEAD = 48L
+  val OBJECT_OVERHEAD = 16L
+
+  def estimate(row: ExecutionContext): Long = {
+    var size = ROW_OVERHEAD
+    row.foreach {
+      case (_, value) => size += ENTRY_OVERHEAD + valueSize(value)
+    }
+    size
+  }
+
+  private def valueSize(value: Any): Long = value match {
+    case null                  => 0
+    case _: PropertyContainer  => OBJECT_OVERHEAD * 2
+    case s: String             => OBJECT_OVERHEAD * 2 + 2L * s.length
+    case p: Path               => OBJECT_OVERHEAD * 2 + OBJECT_OVERHEAD * 2 * p.length()
+    case m: collection.Map[_, _] => m.foldLeft(OBJECT_OVERHEAD * 3) {
+      case (size, (k, v)) => size + ENTRY_OVERHEAD + valueSize(k) + valueSize(v)
+    }
+    case t: Traversable[_]     => t.foldLeft(OBJECT_OVERHEAD * 2)(_ + 8 + valueSize(_))
+    case a: Array[_]           => a.foldLeft(OBJECT_OVERHEAD)(_ + 8 + valueSize(_))
+    case _                     => OBJECT_OVERHEAD
+  }
+}
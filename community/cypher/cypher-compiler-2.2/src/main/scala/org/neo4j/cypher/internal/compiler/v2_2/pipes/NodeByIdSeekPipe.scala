@@ -46,7 +46,7 @@ case class EntityByIdExprs(exprs: Seq[Expression]) extends EntityByIdRhs {
 case class NodeByIdSeekPipe(ident: String, nodeIdsExpr: EntityByIdRhs)(implicit pipeMonitor: PipeMonitor) extends Pipe with CollectionSupport {
 
   protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] = {
-    val ctx = state.initialContext.getOrElse(ExecutionContext.empty)
+    val ctx = state.initialContext.getOrElse(state.newExecutionContext())
     val nodeIds = nodeIdsExpr.expressions(ctx, state)
     new IdSeekIterator[Node](ident, state.query.nodeOps, nodeIds.iterator).map(ctx.clone() ++ _)
   }
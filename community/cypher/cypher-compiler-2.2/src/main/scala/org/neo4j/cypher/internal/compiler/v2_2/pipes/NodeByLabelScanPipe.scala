@@ -37,7 +37,7 @@ case class NodeByLabelScanPipe(ident: String, label: Either[String, LabelId])(im
       case Some(labelId) =>
         val nodes = state.query.getNodesByLabel(labelId.id)
         nodes.map(n =>
-          state.initialContext.getOrElse(ExecutionContext.empty) += (ident -> n)
+          state.initialContext.getOrElse(state.newExecutionContext()) += (ident -> n)
         )
       case None =>
         Iterator.empty
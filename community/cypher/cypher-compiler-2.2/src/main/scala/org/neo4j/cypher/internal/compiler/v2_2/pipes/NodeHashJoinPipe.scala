@@ -26,34 +26,33 @@ import org.neo4j.cypher.internal.compiler.v2_2.planDescription.{PlanDescription,
 import org.neo4j.cypher.internal.compiler.v2_2.symbols._
 import org.neo4j.graphdb.Node
 
-import scala.collection.mutable
-
 case class NodeHashJoinPipe(nodeIdentifier: String, left: Pipe, right: Pipe)
                            (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(left, pipeMonitor) {
 
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
-    val table = new mutable.HashMap[Long, mutable.MutableList[ExecutionContext]]
+    val nodeOffset = state.longOffsetFor(nodeIdentifier)
+    val table = new NodeHashTable(state)
     input.foreach { context =>
-      context(nodeIdentifier) match {
-        case n: Node =>
-          val joinKey = n.getId
-          val seq = table.getOrElseUpdate(joinKey, mutable.MutableList.empty)
-          seq += context
+      val joinKey = nodeId(context, nodeOffset)
+      if (joinKey != SlottedRow.NULL)
+        table.add(joinKey, context)
+    }
 
-        case null =>
-      }
+    val probe = right.createResults(state).flatMap { context =>
+      val joinKey = nodeId(context, nodeOffset)
+      if (joinKey != SlottedRow.NULL) Some(joinKey -> context) else None
     }
+    table.join(probe)
+  }
 
-    right.createResults(state).flatMap { context =>
-      context(nodeIdentifier) match {
-        case n: Node =>
-          val joinKey = n.getId
-          val seq = table.getOrElse(joinKey, mutable.MutableList.empty)
-          seq.map(context ++ _)
+  // Slotted rows have the id at hand, no need to look at the node
+  private def nodeId(context: ExecutionContext, nodeOffset: Int): Long = context.m match {
+    case row: SlottedRow if nodeOffset >= 0 && row.getLongAt(nodeOffset) != SlottedRow.UNSET =>
+      row.getLongAt(nodeOffset)
 
-        case null =>
-          Iterator.empty
-      }
+    case _ => context(nodeIdentifier) match {
+      case n: Node => n.getId
+      case null    => SlottedRow.NULL
     }
   }
 
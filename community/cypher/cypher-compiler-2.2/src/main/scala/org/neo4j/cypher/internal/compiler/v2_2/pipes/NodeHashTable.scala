@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.neo4j.collection.primitive.{Primitive, PrimitiveLongSet}
+import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+
+import scala.collection.mutable
+
+/*
+The build side of a hash join on node ids. Rows are kept in memory in a primitive map, until their estimated size
+passes the operator memory of the query. Then the table turns into a grace hash join: build rows get partitioned on
+their keys into temporary files, and so do the probe rows when joining. Each pair of partitions is then joined on its
+own, using a table of its own, which partitions once more if it still doesn't fit. Partitions at the maximum depth
+are kept in memory no matter what, since a single key with too many rows can't be split up anyway.
+ */
+class NodeHashTable(state: QueryState, depth: Int = 0) {
+  import NodeHashTable._
+  import SpillPartitions._
+
+  private val table = Primitive.longObjectMap[mutable.ArrayBuffer[ExecutionContext]]()
+  private var memory = 0L
+  private var partitions: Array[RowSpillFile] = null
+
+  def add(key: Long, row: ExecutionContext) {
+    if (partitions != null) {
+      partitions(partitionOf(key, depth)).write(key, row)
+      state.spills.add(1)
+    } else {
+      var rows = table.get(key)
+      if (rows == null) {
+        rows = new mutable.ArrayBuffer[ExecutionContext](1)
+        table.put(key, rows)
+        memory += KEY_OVERHEAD
+      }
+      rows += row
+      memory += MemoryEstimator.estimate(row)
+      if (memory > state.operatorMemory && depth < MAX_DEPTH)
+        spill()
+    }
+  }
+
+  def isSpilled: Boolean = partitions != null
+
+  /*
+  Joins the probe rows with the rows of this table, having the values of the latter win. Given a function for
+  unmatched rows, also produces rows for table rows whose keys never got probed, after all joined rows.
+   */
+  def join(probe: Iterator[(Long, ExecutionContext)],
+           unmatched: Option[ExecutionContext => ExecutionContext] = None): Iterator[ExecutionContext] =
+    if (partitions == null) joinInMemory(probe, unmatched)
+    else joinPartitions(probe, unmatched)
+
+  private def joinInMemory(probe: Iterator[(Long, ExecutionContext)],
+                           unmatched: Option[ExecutionContext => ExecutionContext]): Iterator[ExecutionContext] = {
+    val matched: PrimitiveLongSet = if (unmatched.isDefined) Primitive.longSet() else null
+    val joined = probe.flatMap {
+      case (key, row) =>
+        val rows = table.get(key)
+        if (rows == null) {
+          Iterator.empty
+        } else {
+          if (matched != null) matched.add(key)
+          rows.iterator.map(row ++ _)
+        }
+    }
+
+    unmatched match {
+      case Some(f) => joined ++ keys.filterNot(matched.contains).flatMap(key => table.get(key).iterator.map(f))
+      case None    => joined
+    }
+  }
+
+  private def joinPartitions(probe: Iterator[(Long, ExecutionContext)],
+                             unmatched: Option[ExecutionContext => ExecutionContext]): Iterator[ExecutionContext] = {
+    val probePartitions = create("hash-join-probe", state)
+    probe.foreach {
+      case (key, row) =>
+        probePartitions(partitionOf(key, depth)).write(key, row)
+        state.spills.add(1)
+    }
+
+    Iterator.range(0, COUNT).flatMap { i =>
+      val partition = new NodeHashTable(state, depth + 1)
+      partitions(i).read(state).foreach {
+        case (key, row) => partition.add(key, row)
+      }
+      partition.join(probePartitions(i).read(state), unmatched)
+    }
+  }
+
+  private def spill() {
+    partitions = create("hash-join", state)
+    keys.foreach { key =>
+      val file = partitions(partitionOf(key, depth))
+      val rows = table.get(key)
+      rows.foreach(file.write(key, _))
+      state.spills.add(rows.size)
+    }
+    table.clear()
+    memory = 0
+  }
+
+  private def keys: Iterator[Long] = {
+    val inner = table.iterator()
+    new Iterator[Long] {
+      def hasNext = inner.hasNext
+
+      def next() = inner.next()
+    }
+  }
+}
+
+object NodeHashTable {
+  private val KEY_OVERHEAD = 64L
+}
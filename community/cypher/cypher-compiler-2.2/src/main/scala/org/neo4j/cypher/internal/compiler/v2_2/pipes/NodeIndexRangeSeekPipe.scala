@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.neo4j.cypher.CypherTypeException
+import org.neo4j.cypher.internal.compiler.v2_2._
+import org.neo4j.cypher.internal.compiler.v2_2.ast.{LabelToken, PropertyKeyToken}
+import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.Expression
+import org.neo4j.cypher.internal.compiler.v2_2.commands.{Bound, PrefixRange, RangeBetween, SeekRange}
+import org.neo4j.cypher.internal.compiler.v2_2.executionplan.Effects
+import org.neo4j.cypher.internal.compiler.v2_2.planDescription.PlanDescription.Arguments.{Index, IntroducedIdentifier}
+import org.neo4j.cypher.internal.compiler.v2_2.planDescription.{NoChildren, PlanDescriptionImpl}
+import org.neo4j.cypher.internal.compiler.v2_2.symbols.{CTNode, SymbolTable}
+import org.neo4j.graphdb.Node
+import org.neo4j.kernel.api.index.IndexDescriptor
+
+case class NodeIndexRangeSeekPipe(ident: String,
+                                  label: LabelToken,
+                                  propertyKey: PropertyKeyToken,
+                                  range: SeekRange[Expression])
+                                 (implicit pipeMonitor: PipeMonitor) extends Pipe {
+
+  val descriptor = new IndexDescriptor(label.nameId.id, propertyKey.nameId.id)
+
+  protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] = {
+    val resultNodes = seek(state)
+    resultNodes.map(node =>
+      state.initialContext.getOrElse(state.newExecutionContext()) += (ident -> node)
+    )
+  }
+
+  private def seek(state: QueryState): Iterator[Node] = range match {
+    case RangeBetween(lower, upper) =>
+      val lowerValue = lower.map(evaluate(_, state))
+      val upperValue = upper.map(evaluate(_, state))
+      // Comparing with null is never true
+      if ((lowerValue ++ upperValue).exists(_._1 == null))
+        Iterator.empty
+      else {
+        assertComparable((lowerValue ++ upperValue).map(_._1).toSeq)
+        state.query.rangeIndexSearch(descriptor, lowerValue, upperValue)
+      }
+
+    case PrefixRange(prefixExpr) =>
+      prefixExpr(ExecutionContext.empty)(state) match {
+        case null => Iterator.empty
+        case prefix: String => state.query.prefixIndexSearch(descriptor, prefix)
+        case other => throw new CypherTypeException(s"Expected a string prefix for seeking :${label.name}(${propertyKey.name}) but got $other")
+      }
+  }
+
+  private def evaluate(bound: Bound[Expression], state: QueryState): (Any, Boolean) =
+    (bound.value(ExecutionContext.empty)(state), bound.inclusive)
+
+  private def assertComparable(values: Seq[Any]) {
+    val allNumbers = values.forall(_.isInstanceOf[Number])
+    val allStrings = values.forall(_.isInstanceOf[String])
+    if (!allNumbers && !allStrings)
+      throw new CypherTypeException(s"Expected the bounds for seeking :${label.name}(${propertyKey.name}) to be either all numbers or all strings, but got ${values.mkString(", ")}")
+  }
+
+  def exists(predicate: Pipe => Boolean): Boolean = predicate(this)
+
+  def planDescription =
+    new PlanDescriptionImpl(this, "NodeIndexRangeSeek", NoChildren, Seq(
+      IntroducedIdentifier(ident), Index(label.name, propertyKey.name))
+    )
+
+  def symbols: SymbolTable = new SymbolTable(Map(ident -> CTNode))
+
+  override def monitor = pipeMonitor
+
+  def dup(sources: List[Pipe]): Pipe = {
+    require(sources.isEmpty)
+    this
+  }
+
+  def sources: Seq[Pipe] = Seq.empty
+
+  override def localEffects = Effects.READS_NODES
+}
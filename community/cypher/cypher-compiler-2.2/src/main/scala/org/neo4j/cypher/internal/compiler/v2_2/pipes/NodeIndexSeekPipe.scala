@@ -49,7 +49,7 @@ case class NodeIndexSeekPipe(ident: String,
     val index = indexFactory(state)
     val resultNodes = indexQuery(valueExpr, ExecutionContext.empty, state, index, label.name, propertyKey.name)
     resultNodes.map(node =>
-      state.initialContext.getOrElse(ExecutionContext.empty) += (ident -> node)
+      state.initialContext.getOrElse(state.newExecutionContext()) += (ident -> node)
     )
   }
 
@@ -25,46 +25,36 @@ import org.neo4j.cypher.internal.compiler.v2_2.planDescription.{PlanDescription,
 import org.neo4j.cypher.internal.compiler.v2_2.symbols._
 import org.neo4j.graphdb.Node
 
-import scala.collection.mutable
-
 case class NodeOuterHashJoinPipe(node: String, source: Pipe, inner: Pipe, nullableIdentifiers: Set[String])
                                 (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(source, pipeMonitor) {
   val nullColumns: Map[String, Any] = nullableIdentifiers.map(_ -> null).toMap
 
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
-    val probeTable = new mutable.HashMap[Long, mutable.MutableList[ExecutionContext]]
+    val probeTable = new NodeHashTable(state)
     val nullLhsRows = input.flatMap { context =>
       context(node) match {
         case null =>
           Some(context)
 
         case node:Node =>
-          val joinKey = node.getId
-          val seq = probeTable.getOrElseUpdate(joinKey, mutable.MutableList.empty)
-          seq += context
+          probeTable.add(node.getId, context)
           None
       }
     }
 
-    val seenKeys = mutable.Set[Long]()
-    val joinedRows = inner.createResults(state).flatMap { context =>
-      context(node) match {
-        case n:Node =>
-          val joinKey = n.getId
-          seenKeys.add(joinKey)
-          val seq = probeTable.getOrElse(joinKey, mutable.MutableList.empty)
-          seq.map(context ++ _)
-
-        case _ =>
-          None
+    def joinedRows = {
+      val probe = inner.createResults(state).flatMap { context =>
+        context(node) match {
+          case n:Node => Some(n.getId -> context)
+          case _      => None
+        }
       }
+      probeTable.join(probe, Some(addNulls _))
     }
 
-    lazy val rowsWithoutRhsMatch: Iterator[ExecutionContext] = (probeTable.keySet -- seenKeys).iterator.flatMap {
-      x => probeTable(x).map(addNulls)
-    }
+    // The join must not start before all rows have been added to the table
     val rowsWithNullAsJoinKey: Iterator[ExecutionContext] = nullLhsRows.map(addNulls)
-    rowsWithNullAsJoinKey ++ joinedRows ++ rowsWithoutRhsMatch
+    rowsWithNullAsJoinKey ++ joinedRows
   }
 
   private def addNulls(in:ExecutionContext): ExecutionContext = in.newWith(nullColumns)
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.neo4j.cypher.internal.compiler.v2_2._
+import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.{AggregationExpression, Expression}
+import org.neo4j.cypher.internal.compiler.v2_2.executionplan.Effects
+import org.neo4j.cypher.internal.compiler.v2_2.executionplan.Effects._
+import org.neo4j.cypher.internal.compiler.v2_2.pipes.aggregation.AggregationFunction
+import org.neo4j.cypher.internal.compiler.v2_2.planDescription.PlanDescription.Arguments
+import org.neo4j.cypher.internal.compiler.v2_2.symbols._
+
+// Ordered aggregation relies on the input arriving grouped by the ordered keys, a non-empty subset of the grouping
+// keys. The groups of one chunk of rows with equal values for the ordered keys are emitted as soon as the chunk ends,
+// so only the groups of the current chunk are kept around - a single one when all grouping keys are ordered.
+case class OrderedAggregationPipe(source: Pipe, orderedKeys: Seq[String], keyExpressions: Map[String, Expression],
+                                  aggregations: Map[String, AggregationExpression])
+                                 (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(source, pipeMonitor) {
+
+  assert(orderedKeys.nonEmpty && orderedKeys.forall(keyExpressions.contains),
+    "Ordered keys must be grouping keys, got " + orderedKeys)
+
+  val symbols: SymbolTable = createSymbols()
+
+  private def createSymbols() = {
+    val typeExtractor: ((String, Expression)) => (String, CypherType) = {
+      case (id, exp) => id -> exp.getType(source.symbols)
+    }
+
+    val keyIdentifiers = keyExpressions.map(typeExtractor)
+    val aggrIdentifiers = aggregations.map(typeExtractor)
+
+    SymbolTable(keyIdentifiers ++ aggrIdentifiers)
+  }
+
+  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState) = {
+    val keyNames: Seq[String] = keyExpressions.map(_._1).toSeq
+    val aggregationNames: Seq[String] = aggregations.map(_._1).toSeq
+
+    def createResults(key: NiceHasher, aggregator: Seq[AggregationFunction], ctx: ExecutionContext): ExecutionContext = {
+      val newMap = MutableMaps.empty
+
+      //add key values
+      (keyNames zip key.original).foreach(newMap += _)
+
+      //add aggregated values
+      (aggregationNames zip aggregator.map(_.result)).foreach(newMap += _)
+
+      ctx.newFrom(newMap)
+    }
+
+    // There is always at least one grouping key, so no input means no groups
+    OrderedChunks(input, orderedKeys).flatMap { chunk =>
+      val groups = new AggregationTable(state, keyNames, aggregations)
+      chunk.foreach(groups.add)
+      groups.groupsIterator.map {
+        case (key, ctx, aggregator) => createResults(key, aggregator, ctx)
+      }
+    }
+  }
+
+  def planDescription = source.planDescription.andThen(this, "OrderedAggregation", Arguments.KeyNames(keyExpressions.keys.toSeq))
+
+  override def effects = Effects.NONE
+
+  def dup(sources: List[Pipe]): Pipe = {
+    val (source :: Nil) = sources
+    copy(source = source)
+  }
+
+  override def localEffects = keyExpressions.effects
+}
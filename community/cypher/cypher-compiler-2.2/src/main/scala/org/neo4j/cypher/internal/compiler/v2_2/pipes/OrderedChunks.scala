@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+
+/*
+Splits rows that arrive grouped by the given keys into chunks of consecutive rows with equal values for those keys.
+Rows are pulled lazily, so a chunk has to be used up before asking for the next one.
+ */
+object OrderedChunks {
+  def apply(rows: Iterator[ExecutionContext], keyNames: Seq[String]): Iterator[Iterator[ExecutionContext]] = {
+    val input = rows.buffered
+
+    def valuesOf(ctx: ExecutionContext) = new NiceHasher(keyNames.map(ctx))
+
+    new Iterator[Iterator[ExecutionContext]] {
+      def hasNext = input.hasNext
+
+      def next() = {
+        val values = valuesOf(input.head)
+
+        new Iterator[ExecutionContext] {
+          def hasNext = input.hasNext && valuesOf(input.head) == values
+
+          def next() = if (hasNext) input.next() else Iterator.empty.next()
+        }
+      }
+    }
+  }
+}
@@ -38,7 +38,7 @@ case class ProjectionNewPipe(source: Pipe, expressions: Map[String, Expression])
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState) =
     input.map {
       original =>
-        val projection = ExecutionContext.empty
+        val projection = state.newExecutionContext()
         expressions.foreach {
           case (name, expression) =>
             projection += name -> expression(original)(state)
@@ -26,6 +26,8 @@ import org.neo4j.graphdb.GraphDatabaseService
 import org.neo4j.kernel.GraphDatabaseAPI
 import java.util.UUID
 
+import scala.collection.mutable
+
 case class QueryState(db: GraphDatabaseService,
                       query: QueryContext,
                       resources: ExternalResource,
@@ -33,9 +35,29 @@ case class QueryState(db: GraphDatabaseService,
                       decorator: PipeDecorator,
                       timeReader: TimeReader = new TimeReader,
                       var initialContext: Option[ExecutionContext] = None,
-                      queryId: AnyRef = UUID.randomUUID().toString) {
+                      queryId: AnyRef = UUID.randomUUID().toString,
+                      slots: Option[SlotConfiguration] = None,
+                      operatorMemory: Long = Long.MaxValue,
+                      spills: SpillCounter = new SpillCounter,
+                      spillFiles: SpillFiles = new SpillFiles) {
   def readTimeStamp(): Long = timeReader.getTime
 
+  /*
+  Rows of plans having slots are slotted rows, others are plain maps.
+   */
+  def newExecutionContext(): ExecutionContext = slots match {
+    case Some(slotConfiguration) => ExecutionContext.slotted(slotConfiguration, query)
+    case None                    => ExecutionContext.empty
+  }
+
+  /*
+  Returns the long slot offset of the given identifier, or -1 if it has none.
+   */
+  def longOffsetFor(name: String): Int = slots match {
+    case Some(slotConfiguration) => slotConfiguration.longOffsetFor(name)
+    case None                    => -1
+  }
+
   def graphDatabaseAPI: GraphDatabaseAPI = db match {
     case i: GraphDatabaseAPI => i
     case _                   => throw new IllegalStateException("Graph database does not implement GraphDatabaseAPI")
@@ -55,3 +77,46 @@ class TimeReader {
   lazy val getTime = System.currentTimeMillis()
 }
 
+/*
+Counts the rows operators spill to disk, for the profiler to tell.
+ */
+class SpillCounter {
+  private var _rows = 0L
+
+  def rows: Long = _rows
+
+  def add(rows: Long) {
+    _rows += rows
+  }
+}
+
+/*
+The spill files of a query still around. Closing the query closes them, so that no temporary files are left behind
+by queries whose results aren't read to the end, or that fail.
+ */
+class SpillFiles {
+  private val open = mutable.Set[RowSpillFile]()
+
+  def create(name: String): RowSpillFile = {
+    val file = new RowSpillFile(name, this)
+    synchronized {
+      open += file
+    }
+    file
+  }
+
+  private[pipes] def closed(file: RowSpillFile) {
+    synchronized {
+      open -= file
+    }
+  }
+
+  def close() {
+    val files = synchronized {
+      val files = open.toList
+      open.clear()
+      files
+    }
+    files.foreach(_.close())
+  }
+}
@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import java.io._
+import java.util.{Map => JavaMap}
+
+import org.neo4j.cypher.InternalException
+import org.neo4j.cypher.internal.PathImpl
+import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+import org.neo4j.cypher.internal.helpers.IsCollection
+import org.neo4j.graphdb.{Node, Path, PropertyContainer, Relationship}
+
+import scala.collection.JavaConverters._
+
+/*
+A temporary file of rows, each tagged with a long key, for operators spilling rows they can't keep in memory. Rows
+are written first, then read back once, after which the file is gone. Files are created through the SpillFiles of
+the query, which deletes the ones still around when the query is closed.
+
+Nodes and relationships are written as ids and looked up again when read. Arrays and Java collections are read back
+as Scala collections.
+ */
+class RowSpillFile private[pipes](name: String, files: SpillFiles) {
+  import RowSpillFile._
+
+  private val file = File.createTempFile("neo4j-cypher-" + name, ".spill")
+  private var out = try {
+    new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE))
+  } catch {
+    case e: IOException =>
+      delete()
+      throw failed(e)
+  }
+  private var in: DataInputStream = null
+  private var count = 0L
+
+  def rows: Long = count
+
+  def write(key: Long, row: ExecutionContext) {
+    try {
+      out.writeLong(key)
+      out.writeInt(row.size)
+      row.foreach {
+        case (k, v) =>
+          out.writeUTF(k)
+          writeValue(v)
+      }
+      count += 1
+    } catch {
+      case e: IOException => throw failed(e)
+    }
+  }
+
+  /*
+  Reads back all rows written. Reading them to the end, or closing the file, deletes it.
+   */
+  def read(state: QueryState): Iterator[(Long, ExecutionContext)] = {
+    closeOutput()
+    val in = try {
+      new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE))
+    } catch {
+      case e: IOException =>
+        close()
+        throw failed(e)
+    }
+    this.in = in
+    var remaining = count
+
+    new Iterator[(Long, ExecutionContext)] {
+      if (remaining == 0) close()
+
+      def hasNext = remaining > 0
+
+      def next() = {
+        if (!hasNext) Iterator.empty.next()
+        try {
+          val key = in.readLong()
+          val row = state.newExecutionContext()
+          var entries = in.readInt()
+          while (entries > 0) {
+            row += (in.readUTF() -> readValue(in, state))
+            entries -= 1
+          }
+          remaining -= 1
+          if (remaining == 0) close()
+          (key, row)
+        } catch {
+          case e: IOException =>
+            close()
+            throw failed(e)
+        }
+      }
+    }
+  }
+
+  def close() {
+    try {
+      closeOutput()
+      if (in != null) {
+        in.close()
+        in = null
+      }
+    } finally {
+      delete()
+    }
+  }
+
+  private def delete() {
+    file.delete()
+    files.closed(this)
+  }
+
+  private def closeOutput() {
+    if (out != null) {
+      out.close()
+      out = null
+    }
+  }
+
+  private def writeValue(value: Any) {
+    value match {
+      case null            => out.writeByte(NULL)
+      case n: Node         => out.writeByte(NODE); out.writeLong(n.getId)
+      case r: Relationship => out.writeByte(RELATIONSHIP); out.writeLong(r.getId)
+      case b: Boolean      => out.writeByte(BOOLEAN); out.writeBoolean(b)
+      case b: Byte         => out.writeByte(BYTE); out.writeByte(b)
+      case s: Short        => out.writeByte(SHORT); out.writeShort(s)
+      case i: Int          => out.writeByte(INT); out.writeInt(i)
+      case l: Long         => out.writeByte(LONG); out.writeLong(l)
+      case f: Float        => out.writeByte(FLOAT); out.writeFloat(f)
+      case d: Double       => out.writeByte(DOUBLE); out.writeDouble(d)
+      case c: Char         => out.writeByte(CHAR); out.writeChar(c)
+      case s: String       =>
+        out.writeByte(STRING)
+        val bytes = s.getBytes(UTF8)
+        out.writeInt(bytes.length)
+        out.write(bytes)
+      case p: Path         =>
+        out.writeByte(PATH)
+        writeCollection(p.asScala.toSeq)
+      case m: collection.Map[_, _] =>
+        writeMap(m)
+      case m: JavaMap[_, _] =>
+        writeMap(m.asScala)
+      case IsCollection(values) =>
+        out.writeByte(COLLECTION)
+        writeCollection(values)
+      case x               =>
+        throw new InternalException(s"Can't spill a value of type ${x.getClass.getName} to disk")
+    }
+  }
+
+  private def writeMap(map: collection.Map[_, _]) {
+    out.writeByte(MAP)
+    out.writeInt(map.size)
+    map.foreach {
+      case (k, v) =>
+        out.writeUTF(k.toString)
+        writeValue(v)
+    }
+  }
+
+  private def writeCollection(values: Traversable[_]) {
+    out.writeInt(values.size)
+    values.foreach(writeValue)
+  }
+
+  private def failed(e: IOException) = new InternalException(s"Failed to spill rows to ${file.getPath}", e)
+}
+
+object RowSpillFile {
+  val BUFFER_SIZE = 64 * 1024
+
+  private val UTF8 = "UTF-8"
+
+  private val NULL: Byte = 0
+  private val NODE: Byte = 1
+  private val RELATIONSHIP: Byte = 2
+  private val BOOLEAN: Byte = 3
+  private val BYTE: Byte = 4
+  private val SHORT: Byte = 5
+  private val INT: Byte = 6
+  private val LONG: Byte = 7
+  private val FLOAT: Byte = 8
+  private val DOUBLE: Byte = 9
+  private val CHAR: Byte = 10
+  private val STRING: Byte = 11
+  private val PATH: Byte = 12
+  private val MAP: Byte = 13
+  private val COLLECTION: Byte = 14
+
+  private def readValue(in: DataInputStream, state: QueryState): Any = in.readByte() match {
+    case NULL         => null
+    case NODE         => state.query.nodeOps.getById(in.readLong())
+    case RELATIONSHIP => state.query.relationshipOps.getById(in.readLong())
+    case BOOLEAN      => in.readBoolean()
+    case BYTE         => in.readByte()
+    case SHORT        => in.readShort()
+    case INT          => in.readInt()
+    case LONG         => in.readLong()
+    case FLOAT        => in.readFloat()
+    case DOUBLE       => in.readDouble()
+    case CHAR         => in.readChar()
+    case STRING       =>
+      val bytes = new Array[Byte](in.readInt())
+      in.readFully(bytes)
+      new String(bytes, UTF8)
+    case PATH         =>
+      PathImpl(readCollection(in, state).map(_.asInstanceOf[PropertyContainer]): _*)
+    case MAP          =>
+      val size = in.readInt()
+      (0 until size).map(_ => in.readUTF() -> readValue(in, state)).toMap
+    case COLLECTION   =>
+      readCollection(in, state)
+    case tag          =>
+      throw new InternalException(s"Unknown value tag $tag in spill file")
+  }
+
+  private def readCollection(in: DataInputStream, state: QueryState): Vector[Any] = {
+    val size = in.readInt()
+    Vector.fill(size)(readValue(in, state))
+  }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.neo4j.cypher.InternalException
+
+import scala.collection.mutable
+
+sealed abstract class Slot {
+  def offset: Int
+}
+
+/*
+Holds the id of a node or relationship, or -1 for null.
+ */
+final case class LongSlot(offset: Int, isNode: Boolean) extends Slot
+
+final case class RefSlot(offset: Int) extends Slot
+
+/*
+Assigns every identifier of a query plan a fixed slot in the rows flowing between its pipes, see SlottedRow. Node and
+relationship identifiers get long slots holding their ids, all other identifiers reference slots. It's created by the
+planner when building the pipes and immutable after that, so it can be shared by all executions of the plan.
+ */
+final class SlotConfiguration private(slots: java.util.HashMap[String, Slot],
+                                      longNames: Array[String],
+                                      refNames: Array[String]) {
+  def numberOfLongs: Int = longNames.length
+
+  def numberOfReferences: Int = refNames.length
+
+  /*
+  Returns the slot of the given identifier, or null if it has none. Used for every row access by name, hence no Option.
+   */
+  def slotFor(name: String): Slot = slots.get(name)
+
+  def get(name: String): Option[Slot] = Option(slotFor(name))
+
+  /*
+  Returns the long slot offset of the given identifier, or -1 if it has no long slot.
+   */
+  def longOffsetFor(name: String): Int = slotFor(name) match {
+    case LongSlot(offset, _) => offset
+    case _                   => -1
+  }
+
+  def longOffset(name: String): Int = longOffsetFor(name) match {
+    case -1     => throw new InternalException(s"Expected $name to have a long slot")
+    case offset => offset
+  }
+
+  def referenceOffset(name: String): Int = slotFor(name) match {
+    case RefSlot(offset) => offset
+    case _               => throw new InternalException(s"Expected $name to have a reference slot")
+  }
+
+  def longName(offset: Int): String = longNames(offset)
+
+  def referenceName(offset: Int): String = refNames(offset)
+
+  override def toString = s"SlotConfiguration(longs=${longNames.mkString(",")}, references=${refNames.mkString(",")})"
+}
+
+object SlotConfiguration {
+  def empty: SlotConfiguration = new Builder().build()
+
+  class Builder {
+    private val nodes = mutable.LinkedHashSet[String]()
+    private val relationships = mutable.LinkedHashSet[String]()
+    private val references = mutable.LinkedHashSet[String]()
+
+    def newNode(name: String): Builder = {
+      nodes += name
+      this
+    }
+
+    def newRelationship(name: String): Builder = {
+      relationships += name
+      this
+    }
+
+    def newReference(name: String): Builder = {
+      references += name
+      this
+    }
+
+    /*
+    Identifiers that are said to be both nodes and relationships get a reference slot, as do all identifiers of other
+    or unknown types. Identifiers with long slots that turn out to hold other values anyway are still handled by
+    SlottedRow, just slower.
+     */
+    def build(): SlotConfiguration = {
+      val slots = new java.util.HashMap[String, Slot]()
+      val longNames = mutable.ArrayBuffer[String]()
+      val refNames = mutable.ArrayBuffer[String]()
+
+      def addLong(name: String, isNode: Boolean) {
+        if (!slots.containsKey(name)) {
+          slots.put(name, LongSlot(longNames.size, isNode))
+          longNames += name
+        }
+      }
+      def addReference(name: String) {
+        if (!slots.containsKey(name)) {
+          slots.put(name, RefSlot(refNames.size))
+          refNames += name
+        }
+      }
+
+      (nodes intersect relationships).foreach(addReference)
+      nodes.foreach(addLong(_, isNode = true))
+      relationships.foreach(addLong(_, isNode = false))
+      references.foreach(addReference)
+
+      new SlotConfiguration(slots, longNames.toArray, refNames.toArray)
+    }
+  }
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.neo4j.cypher.internal.compiler.v2_2.spi.QueryContext
+import org.neo4j.graphdb.{Node, PropertyContainer, Relationship}
+
+import scala.collection.mutable
+import scala.collection.mutable.{Map => MutableMap}
+
+object SlottedRow {
+  final val NULL = -1L
+  final val UNSET = -2L
+
+  // Marks reference slots that haven't been assigned, to tell them apart from slots holding null
+  private object Unset
+
+  def empty(slots: SlotConfiguration, query: QueryContext): SlottedRow = {
+    val longs = new Array[Long](slots.numberOfLongs)
+    java.util.Arrays.fill(longs, UNSET)
+    val refs = new Array[Any](slots.numberOfReferences)
+    var i = 0
+    while (i < refs.length) {
+      refs(i) = Unset
+      i += 1
+    }
+    new SlottedRow(slots, query, longs, new Array[PropertyContainer](slots.numberOfLongs), refs, null)
+  }
+}
+
+/*
+A row of a plan having a SlotConfiguration. Values live in arrays at the offsets of the slots of their identifiers, so
+copying a row is a matter of copying a couple of arrays and pipes aware of slots can read and write values by offset.
+
+Long slots hold ids of nodes and relationships. The entities themselves are kept alongside when known, otherwise they
+are looked up when read through the map interface, which remains for everything that isn't aware of slots, like
+expressions and the result. Values of identifiers without a slot, or not fitting their long slot, are kept in a map.
+ */
+final class SlottedRow private(val slots: SlotConfiguration,
+                               query: QueryContext,
+                               private val longs: Array[Long],
+                               private val entities: Array[PropertyContainer],
+                               private val refs: Array[Any],
+                               private var extras: MutableMap[String, Any]) extends MutableMap[String, Any] {
+
+  import SlottedRow.{NULL, UNSET, Unset}
+
+  def getLongAt(offset: Int): Long = longs(offset)
+
+  def setLongAt(offset: Int, id: Long) {
+    setEntityAt(offset, id, null)
+  }
+
+  def setNodeAt(offset: Int, node: Node) {
+    setEntityAt(offset, node.getId, node)
+  }
+
+  def setRelationshipAt(offset: Int, relationship: Relationship) {
+    setEntityAt(offset, relationship.getId, relationship)
+  }
+
+  def getRefAt(offset: Int): Any = {
+    val value = refs(offset)
+    if (isUnset(value)) null else value
+  }
+
+  def setRefAt(offset: Int, value: Any) {
+    refs(offset) = value
+  }
+
+  def copy(): SlottedRow =
+    new SlottedRow(slots, query, longs.clone(), entities.clone(), refs.clone(), if (extras == null) null else extras.clone())
+
+  /*
+  Same as ++= but copies slot by slot if both rows have the same slot configuration.
+   */
+  def mergeWith(other: SlottedRow): this.type = {
+    if (other.slots ne slots) {
+      this ++= other
+    } else {
+      var i = 0
+      while (i < longs.length) {
+        if (other.longs(i) != UNSET) {
+          setEntityAt(i, other.longs(i), other.entities(i))
+        }
+        i += 1
+      }
+      i = 0
+      while (i < refs.length) {
+        if (!isUnset(other.refs(i))) {
+          refs(i) = other.refs(i)
+        }
+        i += 1
+      }
+      if (other.extras != null) {
+        this ++= other.extras
+      }
+      this
+    }
+  }
+
+  def get(name: String): Option[Any] = slots.slotFor(name) match {
+    case LongSlot(offset, isNode) =>
+      val id = longs(offset)
+      if (id == UNSET) extra(name)
+      else if (id == NULL) Some(null)
+      else Some(entityAt(offset, isNode))
+
+    case RefSlot(offset) =>
+      val value = refs(offset)
+      if (isUnset(value)) None else Some(value)
+
+    case _ =>
+      extra(name)
+  }
+
+  def iterator: Iterator[(String, Any)] = {
+    val entries = new mutable.ArrayBuffer[(String, Any)]()
+    var i = 0
+    while (i < longs.length) {
+      if (longs(i) != UNSET) {
+        val name = slots.longName(i)
+        entries += name -> get(name).get
+      }
+      i += 1
+    }
+    i = 0
+    while (i < refs.length) {
+      if (!isUnset(refs(i))) {
+        entries += slots.referenceName(i) -> refs(i)
+      }
+      i += 1
+    }
+    if (extras != null) {
+      entries ++= extras
+    }
+    entries.iterator
+  }
+
+  def +=(kv: (String, Any)): this.type = {
+    val name = kv._1
+    val value = kv._2
+    slots.slotFor(name) match {
+      case LongSlot(offset, isNode) => value match {
+        case null                                  => setLongAt(offset, NULL)
+        case node: Node if isNode                  => setNodeAt(offset, node)
+        case relationship: Relationship if !isNode => setRelationshipAt(offset, relationship)
+        case _                                     =>
+          longs(offset) = UNSET
+          entities(offset) = null
+          if (extras == null) {
+            extras = MutableMaps.empty
+          }
+          extras += kv
+      }
+
+      case RefSlot(offset) =>
+        refs(offset) = value
+
+      case _ =>
+        if (extras == null) {
+          extras = MutableMaps.empty
+        }
+        extras += kv
+    }
+    this
+  }
+
+  def -=(name: String): this.type = {
+    slots.slotFor(name) match {
+      case LongSlot(offset, _) =>
+        longs(offset) = UNSET
+        entities(offset) = null
+
+      case RefSlot(offset) =>
+        refs(offset) = Unset
+
+      case _ =>
+    }
+    if (extras != null) {
+      extras -= name
+    }
+    this
+  }
+
+  override def empty: SlottedRow = SlottedRow.empty(slots, query)
+
+  override def clone(): SlottedRow = copy()
+
+  private def setEntityAt(offset: Int, id: Long, entity: PropertyContainer) {
+    longs(offset) = id
+    entities(offset) = entity
+    if (extras != null) {
+      extras -= slots.longName(offset)
+    }
+  }
+
+  private def entityAt(offset: Int, isNode: Boolean): PropertyContainer = {
+    var entity = entities(offset)
+    if (entity == null) {
+      val id = longs(offset)
+      entity = if (isNode) query.nodeOps.getById(id) else query.relationshipOps.getById(id)
+      entities(offset) = entity
+    }
+    entity
+  }
+
+  private def extra(name: String): Option[Any] =
+    if (extras == null) None else extras.get(name)
+
+  private def isUnset(value: Any): Boolean =
+    value.asInstanceOf[AnyRef] eq Unset
+}
@@ -31,9 +31,11 @@ case class Descending(id:String) extends SortDescription
 
 case class SortPipe(source: Pipe, orderBy: Seq[SortDescription])(implicit monitor: PipeMonitor)
   extends PipeWithSource(source, monitor) with Comparer {
-  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] =
-    input.toList.
-      sortWith((a, b) => compareBy(a, b, orderBy)(state)).iterator
+  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    val sorter = new ExternalSorter(state, (a, b) => compareBy(a, b, orderBy)(state))
+    input.foreach(sorter.add)
+    sorter.sorted
+  }
 
   def planDescription = source.planDescription.andThen(this, "Sort", KeyNames(orderBy.map(_.id)))
 
@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+/*
+Hash partitioning for operators spilling rows to disk. Rows are spread over partition files by their hash, and every
+level of partitioning uses other bits of the hash, so partitions that still don't fit can be partitioned once more.
+ */
+object SpillPartitions {
+  val BITS = 5
+  val COUNT = 1 << BITS
+  val MAX_DEPTH = 3
+
+  private val HASH_MULTIPLIER = -7046029254386353131L
+
+  def partitionOf(hash: Long, depth: Int): Int = {
+    val mixed = hash * HASH_MULTIPLIER
+    ((mixed >>> (64 - BITS * (depth + 1))) & (COUNT - 1)).toInt
+  }
+
+  def create(name: String, state: QueryState): Array[RowSpillFile] = Array.fill(COUNT)(state.spillFiles.create(name))
+}
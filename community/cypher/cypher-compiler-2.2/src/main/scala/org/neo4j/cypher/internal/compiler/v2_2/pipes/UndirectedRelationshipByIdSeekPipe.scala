@@ -34,7 +34,7 @@ case class UndirectedRelationshipByIdSeekPipe(ident: String, relIdExpr: EntityBy
                                              (implicit pipeMonitor: PipeMonitor) extends Pipe with CollectionSupport {
 
   protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] = {
-    val ctx = state.initialContext.getOrElse(ExecutionContext.empty)
+    val ctx = state.initialContext.getOrElse(state.newExecutionContext())
     val relIds = relIdExpr.expressions(ctx, state).flatMap(Option(_))
     new IdSeekIterator[Relationship](ident, state.query.relationshipOps, relIds.iterator).flatMap {
       ctx =>
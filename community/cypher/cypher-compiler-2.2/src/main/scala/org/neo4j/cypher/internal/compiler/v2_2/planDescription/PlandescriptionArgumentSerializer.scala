@@ -33,6 +33,7 @@ object PlandescriptionArgumentSerializer {
       case LabelName(label) => s":$label"
       case KeyNames(keys) => keys.mkString(SEPARATOR)
       case KeyExpressions(expressions) => expressions.mkString(SEPARATOR)
+      case SpilledRows(count) => s"spilled $count rows"
       case _ => arg.toString
     }
   }
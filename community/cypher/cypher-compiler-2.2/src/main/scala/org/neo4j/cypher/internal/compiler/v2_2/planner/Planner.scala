@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_2.planner
 
+import org.neo4j.cypher.internal.RuntimeName
 import org.neo4j.cypher.internal.compiler.v2_2.ast._
 import org.neo4j.cypher.internal.compiler.v2_2.ast.convert.plannerQuery.ExpressionConverters._
 import org.neo4j.cypher.internal.compiler.v2_2.executionplan.PipeBuilder
@@ -44,15 +45,15 @@ case class Planner(monitors: Monitors,
   val executionPlanBuilder:PipeExecutionPlanBuilder = maybeExecutionPlanBuilder.getOrElse(new PipeExecutionPlanBuilder(monitors))
 
   def producePlan(inputQuery: PreparedQuery, planContext: PlanContext): PipeInfo =
-    producePlan(inputQuery.statement, inputQuery.semanticTable, inputQuery.queryText)(planContext)
+    producePlan(inputQuery.statement, inputQuery.semanticTable, inputQuery.queryText, inputQuery.runtime)(planContext)
 
-  private def producePlan(statement: Statement, semanticTable: SemanticTable, query: String)(planContext: PlanContext): PipeInfo = {
+  private def producePlan(statement: Statement, semanticTable: SemanticTable, query: String, runtime: RuntimeName)(planContext: PlanContext): PipeInfo = {
     Planner.rewriteStatement(statement) match {
       case ast: Query =>
         monitor.startedPlanning(query)
         val (logicalPlan, pipeBuildContext) = produceQueryPlan(ast, semanticTable)(planContext)
         monitor.foundPlan(query, logicalPlan)
-        val result = executionPlanBuilder.build(logicalPlan)(pipeBuildContext)
+        val result = executionPlanBuilder.build(logicalPlan, runtime)(pipeBuildContext)
         monitor.successfulPlanning(query, result)
         result
 
@@ -19,12 +19,14 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_2.planner.execution
 
+import org.neo4j.cypher.internal.{CompiledRuntime, InterpretedRuntime, RuntimeName}
 import org.neo4j.cypher.internal.compiler.v2_2._
 import org.neo4j.cypher.internal.compiler.v2_2.ast.convert.commands.{PatternConverters, OtherConverters, ExpressionConverters}
 import ExpressionConverters._
 import OtherConverters._
 import PatternConverters._
 import org.neo4j.cypher.internal.compiler.v2_2.ast.rewriters.PatternPartToPathExpression
+import org.neo4j.cypher.internal.compiler.v2_2.codegen.CodeGenerator
 import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.{AggregationExpression, Expression => CommandExpression}
 import org.neo4j.cypher.internal.compiler.v2_2.commands.{True, Predicate => CommandPredicate}
 import org.neo4j.cypher.internal.compiler.v2_2.executionplan.PipeInfo
@@ -39,7 +41,7 @@ case class PipeExecutionBuilderContext(f: ast.PatternExpression => LogicalPlan)
 
 class PipeExecutionPlanBuilder(monitors: Monitors) {
 
-  def build(plan: LogicalPlan)(implicit context: PipeExecutionBuilderContext): PipeInfo = {
+  def build(plan: LogicalPlan, runtime: RuntimeName = InterpretedRuntime)(implicit context: PipeExecutionBuilderContext): PipeInfo = {
     val updating = false
 
     object buildPipeExpressions extends Rewriter {
@@ -97,6 +99,9 @@ class PipeExecutionPlanBuilder(monitors: Monitors) {
         case NodeIndexUniqueSeek(IdName(id), label, propertyKey, valueExpr, _) =>
           NodeIndexSeekPipe(id, label, propertyKey, valueExpr.map(buildExpression), unique = true)
 
+        case NodeIndexRangeSeek(IdName(id), label, propertyKey, range, _) =>
+          NodeIndexRangeSeekPipe(id, label, propertyKey, range.map(buildExpression))
+
         case Selection(predicates, left) =>
           FilterPipe(buildPipe(left), predicates.map(buildPredicate).reduce(_ ++ _))
 
@@ -161,12 +166,25 @@ class PipeExecutionPlanBuilder(monitors: Monitors) {
         case SortedLimit(input, exp, sortItems) =>
           TopPipe(buildPipe(input), sortItems.map(_.asCommandSortItem).toList, exp.asCommandExpression)
 
-        case Aggregation(input, groupingExpressions, aggregatingExpressions) =>
+        case aggregation@Aggregation(input, groupingExpressions, aggregatingExpressions) if aggregation.orderedGroupingKeys.isEmpty =>
           EagerAggregationPipe(
             buildPipe(input),
             groupingExpressions.mapValues(_.asCommandExpression),
             aggregatingExpressions.mapValues(_.asCommandExpression.asInstanceOf[AggregationExpression]))
 
+        case aggregation@Aggregation(input, groupingExpressions, aggregatingExpressions) if aggregatingExpressions.isEmpty =>
+          DistinctPipe(
+            buildPipe(input),
+            groupingExpressions.mapValues(_.asCommandExpression),
+            aggregation.orderedGroupingKeys)
+
+        case aggregation@Aggregation(input, groupingExpressions, aggregatingExpressions) =>
+          OrderedAggregationPipe(
+            buildPipe(input),
+            aggregation.orderedGroupingKeys,
+            groupingExpressions.mapValues(_.asCommandExpression),
+            aggregatingExpressions.mapValues(_.asCommandExpression.asInstanceOf[AggregationExpression]))
+
         case FindShortestPaths(input, shortestPath) =>
           val legacyShortestPaths = shortestPath.expr.asLegacyPatterns(shortestPath.name.map(_.name))
           val legacyShortestPath = legacyShortestPaths.head
@@ -183,8 +201,16 @@ class PipeExecutionPlanBuilder(monitors: Monitors) {
       }
     }
 
-    val topLevelPipe = buildPipe(plan)
+    val interpretedPipe = buildPipe(plan)
+
+    val topLevelPipe = runtime match {
+      case CompiledRuntime =>
+        implicit val monitor = monitors.newMonitor[PipeMonitor]()
+        CodeGenerator.compile(plan, interpretedPipe).getOrElse(interpretedPipe)
+      case InterpretedRuntime =>
+        interpretedPipe
+    }
 
-    PipeInfo(topLevelPipe, updating, None)
+    PipeInfo(topLevelPipe, updating, None, Some(SlotAllocation.allocate(plan)))
   }
 }
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.planner.execution
+
+import org.neo4j.cypher.internal.compiler.v2_2.pipes.SlotConfiguration
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans._
+
+/*
+Assigns slots to the identifiers of a logical plan. Identifiers introduced by the plans finding nodes and single
+relationships get long slots, all others reference slots. One configuration is used for the whole plan, including
+the inner plans of applies, which share rows with their outer plans.
+ */
+object SlotAllocation {
+  def allocate(plan: LogicalPlan): SlotConfiguration = {
+    val builder = new SlotConfiguration.Builder
+
+    def visit(plan: LogicalPlan) {
+      plan match {
+        case p: AllNodesScan =>
+          builder.newNode(p.idName.name)
+
+        case p: NodeByLabelScan =>
+          builder.newNode(p.idName.name)
+
+        case p: NodeByIdSeek =>
+          builder.newNode(p.idName.name)
+
+        case p: NodeIndexSeek =>
+          builder.newNode(p.idName.name)
+
+        case p: NodeIndexUniqueSeek =>
+          builder.newNode(p.idName.name)
+
+        case p: NodeIndexRangeSeek =>
+          builder.newNode(p.idName.name)
+
+        case p: DirectedRelationshipByIdSeek =>
+          builder.newRelationship(p.idName.name).newNode(p.startNode.name).newNode(p.endNode.name)
+
+        case p: UndirectedRelationshipByIdSeek =>
+          builder.newRelationship(p.idName.name).newNode(p.leftNode.name).newNode(p.rightNode.name)
+
+        case p: Expand if p.length.isSimple =>
+          builder.newRelationship(p.relName.name).newNode(p.to.name)
+
+        case p: OptionalExpand if p.length.isSimple =>
+          builder.newRelationship(p.relName.name).newNode(p.to.name)
+
+        case _ =>
+      }
+      plan.availableSymbols.foreach(id => builder.newReference(id.name))
+      plan.lhs.foreach(visit)
+      plan.rhs.foreach(visit)
+    }
+
+    visit(plan)
+    builder.build()
+  }
+}
@@ -30,6 +30,7 @@ object GuessingEstimation {
   val LABEL_NOT_FOUND_SELECTIVITY = Multiplier(0.0)
   val PREDICATE_SELECTIVITY = Multiplier(0.2)
   val INDEX_SEEK_SELECTIVITY = Multiplier(0.02)
+  val INDEX_RANGE_SEEK_SELECTIVITY = Multiplier(0.3)
   val DEFAULT_EXPAND_RELATIONSHIP_DEGREE = Multiplier(2.0)
   val DEFAULT_CONNECTIVITY_CHANCE = Multiplier(1.0)
 }
@@ -55,12 +56,18 @@ class StatisticsBackedCardinalityModel(statistics: GraphStatistics,
     case NodeByIdSeek(_, EntityByIdExprs(exprs), _) =>
       Cardinality(exprs.size)
 
-    case NodeIndexSeek(_, _, _, _, _) =>
-      statistics.nodesCardinality * INDEX_SEEK_SELECTIVITY
+    case NodeIndexSeek(_, label, propertyKey, _, _) =>
+      statistics.indexSelectivity(label.nameId, propertyKey.nameId) match {
+        case Some(selectivity) => statistics.nodesWithLabelCardinality(label.nameId) * selectivity
+        case None              => statistics.nodesCardinality * INDEX_SEEK_SELECTIVITY
+      }
 
     case NodeIndexUniqueSeek(_, _, _, _, _) =>
       Cardinality(1)
 
+    case NodeIndexRangeSeek(_, label, _, _, _) =>
+      statistics.nodesWithLabelCardinality(label.nameId) * INDEX_RANGE_SEEK_SELECTIVITY
+
     case NodeHashJoin(_, left, right) =>
       Cardinality(math.min(cardinality(left).amount, cardinality(right).amount))
 
@@ -44,6 +44,10 @@ object PlanningStrategyConfiguration {
       // MATCH n WHERE n.prop = {val} RETURN n
       indexSeekLeafPlanner,
 
+      // MATCH n WHERE n.prop > {val} RETURN n
+      // MATCH n WHERE n.prop =~ 'prefix.*' RETURN n
+      indexRangeSeekLeafPlanner,
+
       // MATCH (n:Person) RETURN n
       labelScanLeafPlanner,
 
@@ -30,4 +30,12 @@ case class Aggregation(left: LogicalPlan,
   def rhs = None
 
   val availableSymbols = groupingExpressions.keySet.map(IdName) ++ aggregationExpression.keySet.map(IdName)
+
+  /*
+  The grouping keys the input is already grouped by. When there are any, the groups are aggregated one chunk of input
+  rows with equal values for them at a time, and emitted in the order of the input.
+   */
+  lazy val orderedGroupingKeys: Seq[String] = ProvidedOrder.projected(left.providedOrder, groupingExpressions).map(_.name)
+
+  override def providedOrder = orderedGroupingKeys.map(IdName)
 }
@@ -21,4 +21,7 @@ package org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans
 
 case class AllNodesScan(idName: IdName, argumentIds: Set[IdName]) extends LogicalLeafPlan {
   def availableSymbols = argumentIds + idName
+
+  // Every node is found once, in id order
+  override def providedOrder = Seq(idName)
 }
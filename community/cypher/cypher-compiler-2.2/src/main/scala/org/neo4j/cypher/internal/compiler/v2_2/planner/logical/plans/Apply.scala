@@ -24,4 +24,7 @@ case class Apply(left: LogicalPlan, right: LogicalPlan) extends LogicalPlan {
   val rhs = Some(right)
 
   def availableSymbols = left.availableSymbols ++ right.availableSymbols
+
+  // The rows produced for one row of the left side follow each other
+  override def providedOrder = left.providedOrder
 }
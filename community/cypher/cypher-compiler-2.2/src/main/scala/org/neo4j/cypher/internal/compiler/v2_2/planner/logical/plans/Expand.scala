@@ -33,4 +33,7 @@ case class Expand(left: LogicalPlan,
   def rhs = None
 
   def availableSymbols: Set[IdName] = left.availableSymbols + relName + to
+
+  // The rows expanded from one input row follow each other
+  override def providedOrder = left.providedOrder
 }
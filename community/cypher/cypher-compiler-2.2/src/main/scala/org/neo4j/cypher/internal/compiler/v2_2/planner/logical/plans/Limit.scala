@@ -26,4 +26,6 @@ case class Limit(left: LogicalPlan, count: Expression) extends LogicalPlan {
   val rhs = None
 
   def availableSymbols = left.availableSymbols
+
+  override def providedOrder = left.providedOrder
 }
@@ -35,6 +35,29 @@ abstract class LogicalPlan extends Product with internalDocBuilder.AsPrettyToStr
   def rhs: Option[LogicalPlan]
 
   def availableSymbols: Set[IdName]
+
+  /*
+  Identifiers the rows of this plan are grouped by, in order: rows with equal values for the first n identifiers
+  always follow each other, for every n. Plans that don't know anything about the order of their rows provide none.
+   */
+  def providedOrder: Seq[IdName] = Seq.empty
+}
+
+object ProvidedOrder {
+  /*
+  The longest prefix of the order that survives the projections, renamed to what it is projected as. An identifier
+  projected under its own name keeps it.
+   */
+  def projected(order: Seq[IdName], projections: Map[String, ast.Expression]): Seq[IdName] = {
+    def projectedAs(id: IdName): Option[IdName] = {
+      val names = projections.collect { case (key, ast.Identifier(name)) if name == id.name => key }
+      if (names.isEmpty) None
+      else if (names.exists(_ == id.name)) Some(id)
+      else Some(IdName(names.head))
+    }
+
+    order.map(projectedAs).takeWhile(_.isDefined).flatten
+  }
 }
 
 abstract class LogicalLeafPlan extends LogicalPlan {
@@ -23,4 +23,7 @@ import org.neo4j.cypher.internal.compiler.v2_2.LabelId
 
 case class NodeByLabelScan(idName: IdName, label: Either[String, LabelId], argumentIds: Set[IdName]) extends LogicalLeafPlan {
   def availableSymbols: Set[IdName] = argumentIds + idName
+
+  // Every node is found once, in id order
+  override def providedOrder = Seq(idName)
 }
@@ -33,4 +33,6 @@ case class OptionalExpand(left: LogicalPlan,
   val lhs = Some(left)
   def rhs = None
   val availableSymbols = left.availableSymbols + to + relName
+
+  override def providedOrder = left.providedOrder
 }
@@ -27,4 +27,6 @@ case class Projection(left: LogicalPlan, expressions: Map[String, Expression]) e
 
   def numExpressions = expressions.size
   val availableSymbols = expressions.keySet.map(IdName)
+
+  override def providedOrder = ProvidedOrder.projected(left.providedOrder, expressions)
 }
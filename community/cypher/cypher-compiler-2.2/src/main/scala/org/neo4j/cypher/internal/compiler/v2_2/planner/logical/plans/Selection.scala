@@ -29,4 +29,6 @@ case class Selection(predicates: Seq[Expression], left: LogicalPlan) extends Log
   def numPredicates = predicates.size
 
   def availableSymbols = left.availableSymbols
+
+  override def providedOrder = left.providedOrder
 }
@@ -27,4 +27,6 @@ abstract class AbstractSemiApply(left: LogicalPlan, right: LogicalPlan) extends
   val rhs = Some(right)
 
   def availableSymbols = left.availableSymbols
+
+  override def providedOrder = left.providedOrder
 }
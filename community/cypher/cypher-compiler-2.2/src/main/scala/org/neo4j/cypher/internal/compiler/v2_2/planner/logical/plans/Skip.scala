@@ -25,4 +25,6 @@ case class Skip(left: LogicalPlan, count: Expression) extends LogicalPlan {
   val lhs = Some(left)
   val rhs = None
   def availableSymbols = left.availableSymbols
+
+  override def providedOrder = left.providedOrder
 }
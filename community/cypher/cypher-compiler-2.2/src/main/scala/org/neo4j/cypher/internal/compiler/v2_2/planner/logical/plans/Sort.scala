@@ -25,4 +25,6 @@ case class Sort(left: LogicalPlan, sortItems: Seq[SortDescription]) extends Logi
   val lhs = Some(left)
   val rhs = None
   def availableSymbols = left.availableSymbols
+
+  override def providedOrder = sortItems.map(item => IdName(item.id))
 }
@@ -21,7 +21,7 @@ package org.neo4j.cypher.internal.compiler.v2_2.planner.logical.steps
 
 import org.neo4j.cypher.internal.compiler.v2_2.InputPosition.NONE
 import org.neo4j.cypher.internal.compiler.v2_2.ast._
-import org.neo4j.cypher.internal.compiler.v2_2.commands.QueryExpression
+import org.neo4j.cypher.internal.compiler.v2_2.commands.{SeekRange, QueryExpression}
 import org.neo4j.cypher.internal.compiler.v2_2.pipes.SortDescription
 import org.neo4j.cypher.internal.compiler.v2_2.planner._
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans.{Limit => LimitPlan, Skip => SkipPlan, _}
@@ -155,6 +155,22 @@ object QueryPlanProducer {
       )
     )
 
+  def planNodeIndexRangeSeek(idName: IdName,
+                             label: ast.LabelToken,
+                             propertyKey: ast.PropertyKeyToken,
+                             range: SeekRange[Expression], solvedPredicates: Seq[Expression] = Seq.empty,
+                             solvedHint: Option[UsingIndexHint] = None,
+                             argumentIds: Set[IdName]) =
+    QueryPlan(
+      NodeIndexRangeSeek(idName, label, propertyKey, range, argumentIds),
+      PlannerQuery(graph = QueryGraph.empty
+        .addPatternNodes(idName)
+        .addPredicates(solvedPredicates: _*)
+        .addHints(solvedHint)
+        .addArgumentId(argumentIds.toSeq)
+      )
+    )
+
   def planNodeHashJoin(node: IdName, left: QueryPlan, right: QueryPlan) =
     QueryPlan(
       NodeHashJoin(node, left.plan, right.plan),
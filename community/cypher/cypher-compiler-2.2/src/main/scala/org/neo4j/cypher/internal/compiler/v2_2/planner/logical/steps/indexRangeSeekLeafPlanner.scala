@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.planner.logical.steps
+
+import org.neo4j.cypher.internal.compiler.v2_2.ast._
+import org.neo4j.cypher.internal.compiler.v2_2.commands.{Bound, PrefixRange, RangeBetween, SeekRange}
+import org.neo4j.cypher.internal.compiler.v2_2.planner.QueryGraph
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical._
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans._
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.steps.QueryPlanProducer._
+import org.neo4j.kernel.api.index.IndexDescriptor
+
+object indexRangeSeekLeafPlanner extends LeafPlanner {
+  def apply(qg: QueryGraph)(implicit context: LogicalPlanningContext) = {
+    implicit val semanticTable = context.semanticTable
+    val predicates: Seq[Expression] = qg.selections.flatPredicates
+    val labelPredicateMap: Map[IdName, Set[HasLabels]] = qg.selections.labelPredicates
+
+    def producePlanFor(name: String, propertyKeyName: PropertyKeyName, solvedPredicates: Seq[Expression], range: SeekRange[Expression]) = {
+      val idName = IdName(name)
+      for (labelPredicate <- labelPredicateMap.getOrElse(idName, Set.empty);
+           labelName <- labelPredicate.labels;
+           indexDescriptor <- findIndexFor(labelName.name, propertyKeyName.name);
+           labelId <- labelName.id)
+      yield {
+        val propertyName = propertyKeyName.name
+        val hint = qg.hints.collectFirst {
+          case hint @ UsingIndexHint(Identifier(`name`), `labelName`, Identifier(`propertyName`)) => hint
+        }
+        planNodeIndexRangeSeek(idName, LabelToken(labelName, labelId), PropertyKeyToken(propertyKeyName, propertyKeyName.id.head),
+                               range, solvedPredicates :+ labelPredicate, hint, qg.argumentIds)
+      }
+    }
+
+    val lowerBounds = predicates.collect {
+      case GreaterThan(Property(Identifier(name), key), ConstantExpression(bound)) => (name, key) -> bound
+      case GreaterThanOrEqual(Property(Identifier(name), key), ConstantExpression(bound)) => (name, key) -> bound
+      case LessThan(ConstantExpression(bound), Property(Identifier(name), key)) => (name, key) -> bound
+      case LessThanOrEqual(ConstantExpression(bound), Property(Identifier(name), key)) => (name, key) -> bound
+    }
+
+    val upperBounds = predicates.collect {
+      case LessThan(Property(Identifier(name), key), ConstantExpression(bound)) => (name, key) -> bound
+      case LessThanOrEqual(Property(Identifier(name), key), ConstantExpression(bound)) => (name, key) -> bound
+      case GreaterThan(ConstantExpression(bound), Property(Identifier(name), key)) => (name, key) -> bound
+      case GreaterThanOrEqual(ConstantExpression(bound), Property(Identifier(name), key)) => (name, key) -> bound
+    }
+
+    // The index compares numbers as doubles, so it may find values just outside of the range and, for a strict
+    // bound, miss values that are equal to the bound as doubles. The seek is therefore inclusive and only narrows
+    // down the candidates, whereas the bounds, as well as any further bounds on the same property, remain as a
+    // selection on top of it
+    val rangePlans = (lowerBounds ++ upperBounds).map(_._1).distinct.flatMap {
+      case key@(name, propertyKeyName) =>
+        val lower = lowerBounds.collectFirst { case (`key`, bound) => Bound(bound, inclusive = true) }
+        val upper = upperBounds.collectFirst { case (`key`, bound) => Bound(bound, inclusive = true) }
+        producePlanFor(name, propertyKeyName, Seq.empty, RangeBetween(lower, upper))
+    }
+
+    // Regular expressions are matched against the whole value, and '.' does not match line terminators, so the
+    // predicate is not solved by the prefix seek and remains as a selection on top of it
+    val prefixPlans = predicates.collect {
+      case RegexMatch(Property(Identifier(name), propertyKeyName), regex@StringLiteral(LiteralPrefix(prefix))) =>
+        producePlanFor(name, propertyKeyName, Seq.empty, PrefixRange(StringLiteral(prefix)(regex.position)))
+    }.flatten
+
+    CandidateList(rangePlans ++ prefixPlans)
+  }
+
+  private def findIndexFor(label: String, property: String)(implicit context: LogicalPlanningContext): Option[IndexDescriptor] =
+    context.planContext.getIndexRule(label, property) orElse context.planContext.getUniqueIndexRule(label, property)
+
+  private object LiteralPrefix {
+    private val metaCharacters = "\\.[]{}()*+?^$|"
+
+    def unapply(regex: String): Option[String] =
+      if (regex.endsWith(".*")) {
+        val prefix = regex.dropRight(2)
+        if (prefix.nonEmpty && !prefix.exists(c => metaCharacters.indexOf(c) >= 0)) Some(prefix) else None
+      } else None
+  }
+}
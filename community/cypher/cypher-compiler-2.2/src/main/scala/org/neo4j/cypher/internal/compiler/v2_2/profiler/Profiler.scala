@@ -23,9 +23,10 @@ import org.neo4j.cypher.ProfilerStatisticsNotReadyException
 import org.neo4j.cypher.internal.compiler.v2_2.planDescription.PlanDescription
 import org.neo4j.cypher.internal.compiler.v2_2.planDescription.PlanDescription.Arguments
 import org.neo4j.cypher.internal.compiler.v2_2._
-import org.neo4j.cypher.internal.compiler.v2_2.pipes.{NullPipe, Pipe, PipeDecorator, QueryState}
+import org.neo4j.cypher.internal.compiler.v2_2.pipes.{NullPipe, Pipe, PipeDecorator, QueryState, SpillCounter}
 import org.neo4j.cypher.internal.compiler.v2_2.spi.{DelegatingOperations, DelegatingQueryContext, Operations, QueryContext}
 import org.neo4j.graphdb.{Node, PropertyContainer, Relationship}
+import org.neo4j.kernel.api.ReadOperations
 
 import scala.collection.mutable
 
@@ -33,6 +34,7 @@ class Profiler extends PipeDecorator {
 
   val dbHitsStats: mutable.Map[Pipe, ProfilingQueryContext] = mutable.Map.empty
   val rowStats: mutable.Map[Pipe, ProfilingIterator] = mutable.Map.empty
+  val spillStats: mutable.Map[Pipe, SpillCounter] = mutable.Map.empty
 
 
   def decorate(pipe: Pipe, iter: Iterator[ExecutionContext]): Iterator[ExecutionContext] = decoratePipe(pipe, iter) {
@@ -48,8 +50,10 @@ class Profiler extends PipeDecorator {
       case _                        => new ProfilingQueryContext(state.query, pipe)
     }
 
+    val spills = new SpillCounter
     dbHitsStats(pipe) = decoratedContext
-    state.copy(query = decoratedContext)
+    spillStats(pipe) = spills
+    state.copy(query = decoratedContext, spills = spills)
   }
 
   private def decoratePipe[T](pipe: Pipe, default: T)(f: => T): T = pipe match {
@@ -66,10 +70,14 @@ class Profiler extends PipeDecorator {
         val pipe = input.pipe
         val rows = rowStats.get(pipe).map(_.count).getOrElse(0L)
         val dbhits = dbHitsStats.get(pipe).map(_.count).getOrElse(0L)
+        val spilled = spillStats.get(pipe).map(_.rows).getOrElse(0L)
 
-        input
+        val profiled = input
           .addArgument(Arguments.Rows(rows))
           .addArgument(Arguments.DbHits(dbhits))
+
+        // Most plans never spill, there's no point in cluttering them with it
+        if (spilled > 0) profiled.addArgument(Arguments.SpilledRows(spilled)) else profiled
     }
   }
 }
@@ -109,6 +117,9 @@ final class ProfilingQueryContext(val inner: QueryContext, val p: Pipe) extends
 
   override def nodeOps: Operations[Node] = new ProfilerOperations(inner.nodeOps)
   override def relationshipOps: Operations[Relationship] = new ProfilerOperations(inner.relationshipOps)
+
+  // Db hits of compiled plans can't be counted, so they have to run interpreted when profiled
+  override def readOperations: Option[ReadOperations] = None
 }
 
 class ProfilingIterator(inner: Iterator[ExecutionContext]) extends Iterator[ExecutionContext] with Counter {
@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.compiler.v2_2.spi
 
 import org.neo4j.graphdb.{Relationship, PropertyContainer, Direction, Node}
+import org.neo4j.kernel.api.ReadOperations
 import org.neo4j.kernel.api.index.IndexDescriptor
 
 class DelegatingQueryContext(inner: QueryContext) extends QueryContext {
@@ -75,6 +76,11 @@ class DelegatingQueryContext(inner: QueryContext) extends QueryContext {
 
   def exactIndexSearch(index: IndexDescriptor, value: Any): Iterator[Node] = manyDbHits(inner.exactIndexSearch(index, value))
 
+  def rangeIndexSearch(index: IndexDescriptor, lower: Option[(Any, Boolean)], upper: Option[(Any, Boolean)]): Iterator[Node] =
+    manyDbHits(inner.rangeIndexSearch(index, lower, upper))
+
+  def prefixIndexSearch(index: IndexDescriptor, prefix: String): Iterator[Node] = manyDbHits(inner.prefixIndexSearch(index, prefix))
+
   def getNodesByLabel(id: Int): Iterator[Node] = manyDbHits(inner.getNodesByLabel(id))
 
   def upgrade(context: QueryContext): LockingQueryContext = inner.upgrade(context)
@@ -101,6 +107,10 @@ class DelegatingQueryContext(inner: QueryContext) extends QueryContext {
 
   override def hasLocalFileAccess: Boolean = inner.hasLocalFileAccess
 
+  override def operatorMemory: Long = inner.operatorMemory
+
+  override def readOperations: Option[ReadOperations] = inner.readOperations
+
   def relationshipStartNode(rel: Relationship) = inner.relationshipStartNode(rel)
 
   def relationshipEndNode(rel: Relationship) = inner.relationshipEndNode(rel)
@@ -88,6 +88,12 @@ class ExceptionTranslatingQueryContext(inner: QueryContext) extends DelegatingQu
   override def exactIndexSearch(index: IndexDescriptor, value: Any): Iterator[Node] =
     translateException(super.exactIndexSearch(index, value))
 
+  override def rangeIndexSearch(index: IndexDescriptor, lower: Option[(Any, Boolean)], upper: Option[(Any, Boolean)]): Iterator[Node] =
+    translateException(super.rangeIndexSearch(index, lower, upper))
+
+  override def prefixIndexSearch(index: IndexDescriptor, prefix: String): Iterator[Node] =
+    translateException(super.prefixIndexSearch(index, prefix))
+
   override def getNodesByLabel(id: Int): Iterator[Node] =
     translateException(super.getNodesByLabel(id))
 
@@ -19,7 +19,7 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_2.spi
 
-import org.neo4j.cypher.internal.compiler.v2_2.{RelTypeId, LabelId}
+import org.neo4j.cypher.internal.compiler.v2_2.{PropertyKeyId, RelTypeId, LabelId}
 import org.neo4j.graphdb.Direction
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.{Multiplier, Cardinality}
 
@@ -30,4 +30,10 @@ trait GraphStatistics {
   def relationshipsWithTypeSelectivity(relTypeId: RelTypeId): Multiplier
   def degreeByRelationshipTypeAndDirection(relTypeId: RelTypeId, direction: Direction): Multiplier
   def degreeByLabelRelationshipTypeAndDirection(labelId: LabelId, relTypeId: RelTypeId, direction: Direction): Multiplier
+
+  /*
+      Fraction of the nodes with the label that a seek for a single value in the index on the label and property
+      is expected to find, or None if there is no sample of such an index
+   */
+  def indexSelectivity(labelId: LabelId, propertyKeyId: PropertyKeyId): Option[Multiplier]
 }
@@ -21,6 +21,7 @@
 package org.neo4j.cypher.internal.compiler.v2_2.spi
 
 import org.neo4j.graphdb._
+import org.neo4j.kernel.api.ReadOperations
 import org.neo4j.kernel.api.constraints.UniquenessConstraint
 import org.neo4j.kernel.api.index.IndexDescriptor
 import org.neo4j.cypher.QueryStatistics
@@ -74,6 +75,10 @@ trait QueryContext extends TokenContext {
 
   def exactUniqueIndexSearch(index: IndexDescriptor, value: Any): Option[Node]
 
+  def rangeIndexSearch(index: IndexDescriptor, lower: Option[(Any, Boolean)], upper: Option[(Any, Boolean)]): Iterator[Node]
+
+  def prefixIndexSearch(index: IndexDescriptor, prefix: String): Iterator[Node]
+
   def getNodesByLabel(id: Int): Iterator[Node]
 
   def upgradeToLockingQueryContext: LockingQueryContext = upgrade(this)
@@ -90,6 +95,17 @@ trait QueryContext extends TokenContext {
 
   def hasLocalFileAccess: Boolean = false
 
+  /**
+   * The amount of memory, in bytes, operators may use for holding rows before spilling them to disk.
+   */
+  def operatorMemory: Long = Long.MaxValue
+
+  /**
+   * Gives compiled plans direct access to the kernel. Contexts that need to see every single operation, like when
+   * profiling, must not hand these out.
+   */
+  def readOperations: Option[ReadOperations] = None
+
   /**
    * This should not be used. We'll remove sooner (or later). Don't do it.
    */
@@ -49,6 +49,12 @@ final class RepeatableReadQueryContext(inner: QueryContext, locker: Locker) exte
   override def exactIndexSearch(index: IndexDescriptor, value: Any): Iterator[Node] =
     lockAll(inner.exactIndexSearch(index, value))
 
+  override def rangeIndexSearch(index: IndexDescriptor, lower: Option[(Any, Boolean)], upper: Option[(Any, Boolean)]): Iterator[Node] =
+    lockAll(inner.rangeIndexSearch(index, lower, upper))
+
+  override def prefixIndexSearch(index: IndexDescriptor, prefix: String): Iterator[Node] =
+    lockAll(inner.prefixIndexSearch(index, prefix))
+
   override def getNodesByLabel(id: Int): Iterator[Node] = lockAll(inner.getNodesByLabel(id))
 
   val nodeOpsValue = new RepeatableReadOperations[Node](inner.nodeOps)
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.codegen
+
+import org.neo4j.cypher.internal.commons.CypherFunSuite
+import org.neo4j.cypher.internal.compiler.v2_2.ast._
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans._
+import org.neo4j.graphdb.Direction
+
+class CodeGeneratorTest extends CypherFunSuite with AstConstructionTestSupport {
+
+  test("should generate a label scan") {
+    val source = generate(NodeByLabelScan(IdName("n"), Left("Person"), Set.empty))
+
+    source.source should include("ops.labelGetForName( \"Person\" )")
+    source.source should include("nodesWithLabel( ops, ")
+    source.columns should equal(Seq(Column("n", NodeKind)))
+  }
+
+  test("should generate an expand from a bound node") {
+    val plan = Expand(AllNodesScan(IdName("a"), Set.empty), IdName("a"), Direction.OUTGOING,
+      Seq(RelTypeName("KNOWS")(pos)), IdName("b"), IdName("r"), SimplePatternLength)
+
+    val source = generate(plan)
+
+    source.source should include("new String[]{\"KNOWS\"}")
+    source.source should include("Direction.OUTGOING")
+    source.columns should equal(Seq(Column("a", NodeKind), Column("b", NodeKind), Column("r", RelationshipKind)))
+  }
+
+  test("should generate a selection on labels and property equality") {
+    val n = ident("n")
+    val plan = Selection(Seq(
+      HasLabels(n, Seq(LabelName("Person")(pos)))(pos),
+      Equals(Property(n, PropertyKeyName("name")(pos))(pos), Parameter("name")(pos))(pos)
+    ), AllNodesScan(IdName("n"), Set.empty))
+
+    val source = generate(plan)
+
+    source.source should include("hasLabel( ops, ")
+    source.source should include("ops.propertyKeyGetForName( \"name\" )")
+    source.source should include("parameter( params, \"name\" )")
+  }
+
+  test("should generate a grouped count") {
+    val plan = Aggregation(
+      Projection(AllNodesScan(IdName("n"), Set.empty), Map("n" -> Identifier("n")(pos), "name" -> Property(Identifier("n")(pos), PropertyKeyName("name")(pos))(pos))),
+      Map("name" -> Identifier("name")(pos)),
+      Map("count(*)" -> CountStar()(pos)))
+
+    val source = generate(plan)
+
+    source.source should include("groupingKey( new Object[]{")
+    source.columns should equal(Seq(Column("count(*)", ValueKind), Column("name", ValueKind)))
+  }
+
+  test("should escape string literals") {
+    val plan = Projection(AllNodesScan(IdName("n"), Set.empty), Map("s" -> StringLiteral("a\"b\\c\n")(pos)))
+
+    generate(plan).source should include("\"a\\\"b\\\\c\\012\"")
+  }
+
+  test("should not generate unsupported plans") {
+    val plan = Limit(AllNodesScan(IdName("n"), Set.empty), SignedDecimalIntegerLiteral("1")(pos))
+
+    CodeGenerator.generate(plan) should equal(None)
+  }
+
+  test("should not generate expanding into bound nodes") {
+    val plan = Expand(AllNodesScan(IdName("a"), Set.empty), IdName("a"), Direction.OUTGOING,
+      Seq.empty, IdName("a"), IdName("r"), SimplePatternLength)
+
+    CodeGenerator.generate(plan) should equal(None)
+  }
+
+  test("should only consider aggregations without grouping keys to have bounded results") {
+    val scan = AllNodesScan(IdName("n"), Set.empty)
+    val count = Aggregation(scan, Map.empty, Map("count(*)" -> CountStar()(pos)))
+    val groupedCount = Aggregation(scan, Map("n" -> Identifier("n")(pos)), Map("count(*)" -> CountStar()(pos)))
+
+    CodeGenerator.hasBoundedResult(count) should equal(true)
+    CodeGenerator.hasBoundedResult(groupedCount) should equal(false)
+    CodeGenerator.hasBoundedResult(Projection(count, Map("c" -> Identifier("count(*)")(pos)))) should equal(true)
+    CodeGenerator.hasBoundedResult(scan) should equal(false)
+    CodeGenerator.hasBoundedResult(Projection(scan, Map("n" -> Identifier("n")(pos)))) should equal(false)
+  }
+
+  private def generate(plan: LogicalPlan): GeneratedSource =
+    CodeGenerator.generate(plan).getOrElse(fail(s"Expected $plan to be compiled"))
+}
@@ -61,8 +61,35 @@ class DistinctPipeTest extends CypherFunSuite {
     result.toList should equal( List(Map("x" -> 1)))
   }
 
-  def createDistinctPipe(input: List[Map[String, Int]], expressions: Map[String, Expression] = Map("x" -> Identifier("x"))) = {
+  test("should filter rows spilled to disk") {
+    //GIVEN
+    val pipe = createDistinctPipe((0 until 1000).map(i => Map("x" -> i % 300)).toList)
+    val state = QueryStateHelper.emptyWith(operatorMemory = 1024)
+
+    //WHEN
+    val result = pipe.createResults(state).toList
+
+    //THEN
+    result should have size 300
+    result.toSet should equal((0 until 300).map(i => Map("x" -> i)).toSet)
+    state.spills.rows should be > 0L
+  }
+
+  test("should filter input ordered by the keys") {
+    //GIVEN
+    val input = List(Map("x" -> 1, "y" -> 1), Map("x" -> 1, "y" -> 2), Map("x" -> 1, "y" -> 1), Map("x" -> 2, "y" -> 1), Map("x" -> 2, "y" -> 1))
+    val pipe = createDistinctPipe(input, Map("x" -> Identifier("x"), "y" -> Identifier("y")), Seq("x"))
+
+    //WHEN
+    val result = pipe.createResults(QueryStateHelper.empty).toList
+
+    //THEN
+    result should equal(List(Map("x" -> 1, "y" -> 1), Map("x" -> 1, "y" -> 2), Map("x" -> 2, "y" -> 1)))
+  }
+
+  def createDistinctPipe(input: List[Map[String, Int]], expressions: Map[String, Expression] = Map("x" -> Identifier("x")),
+                         orderedKeys: Seq[String] = Seq.empty) = {
     val source = new FakePipe(input, "x" -> CTNumber)
-    new DistinctPipe(source, expressions)
+    new DistinctPipe(source, expressions, orderedKeys)
   }
 }
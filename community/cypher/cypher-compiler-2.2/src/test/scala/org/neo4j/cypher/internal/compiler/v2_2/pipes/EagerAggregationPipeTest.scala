@@ -102,6 +102,20 @@ class EagerAggregationPipeTest extends CypherFunSuite {
     getResults(aggregationPipe) should equal(List(Map("count(name)" -> 3)))
   }
 
+  test("should aggregate groups spilled to disk") {
+    val source = new FakePipe((0 until 1000).map(i => Map("name" -> s"name${i % 100}", "age" -> i)), createSymbolTableFor("name"))
+
+    val returnItems = createReturnItemsFor("name")
+    val grouping = Map("count(*)" -> CountStar(), "max(age)" -> Max(Identifier("age")))
+    val aggregationPipe = new EagerAggregationPipe(source, returnItems, grouping)
+    val state = QueryStateHelper.emptyWith(operatorMemory = 1024)
+
+    aggregationPipe.createResults(state).map(_.m.toMap).toSet should equal((0 until 100).map(i =>
+      Map("name" -> s"name$i", "count(*)" -> 10L, "max(age)" -> (900 + i))
+    ).toSet)
+    state.spills.rows should be > 0L
+  }
+
   private def createSymbolTableFor(name: String) = name -> CTNode
 
   private def getResults(p: Pipe) = p.createResults(QueryStateHelper.empty).map(_.m.toMap).toList
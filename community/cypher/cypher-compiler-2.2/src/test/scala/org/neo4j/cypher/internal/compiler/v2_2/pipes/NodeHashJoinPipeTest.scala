@@ -24,6 +24,7 @@ import org.mockito.Mockito
 import org.neo4j.graphdb.Node
 import org.neo4j.cypher.internal.compiler.v2_2.symbols._
 import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v2_2.spi.{Operations, QueryContext}
 
 class NodeHashJoinPipeTest extends CypherFunSuite {
 
@@ -114,6 +115,30 @@ class NodeHashJoinPipeTest extends CypherFunSuite {
     ))
   }
 
+  test("should spill to disk when the build side doesn't fit in memory") {
+    // given
+    val nodes = (0 until 5).map(newMockedNode)
+    val nodeOps = mock[Operations[Node]]
+    (0 until 5).foreach(i => when(nodeOps.getById(i)).thenReturn(nodes(i)))
+    val query = mock[QueryContext]
+    when(query.nodeOps).thenReturn(nodeOps)
+    val queryState = QueryStateHelper.emptyWith(query = query, operatorMemory = 1024)
+
+    val left = newMockedPipe(SymbolTable(Map("b" -> CTNode)))
+    when(left.createResults(queryState)).thenReturn((0 until 100).map(i => row("b" -> nodes(i % 5), "a" -> i)).iterator)
+
+    val right = newMockedPipe(SymbolTable(Map("b" -> CTNode)))
+    when(right.createResults(queryState)).thenReturn((0 until 4).map(i => row("b" -> nodes(i), "c" -> i.toString)).iterator)
+
+    // when
+    val result = NodeHashJoinPipe("b", left, right).createResults(queryState)
+
+    // then
+    result.toSet should equal((0 until 100).filter(_ % 5 != 4).map(i =>
+      Map("a" -> i, "b" -> nodes(i % 5), "c" -> (i % 5).toString)
+    ).toSet)
+  }
+
 
   private def row(values: (String, Any)*) = ExecutionContext.from(values: _*)
 
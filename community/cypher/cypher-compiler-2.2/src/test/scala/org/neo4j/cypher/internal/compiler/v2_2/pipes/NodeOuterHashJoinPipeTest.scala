@@ -25,6 +25,7 @@ import org.mockito.Matchers._
 import org.neo4j.graphdb.Node
 import org.neo4j.cypher.internal.compiler.v2_2.symbols._
 import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v2_2.spi.{Operations, QueryContext}
 
 class NodeOuterHashJoinPipeTest extends CypherFunSuite {
 
@@ -182,6 +183,33 @@ class NodeOuterHashJoinPipeTest extends CypherFunSuite {
       Map("a" -> 20, "b" -> null , "c" -> null)
     ))
   }
+  test("should produce the same rows after spilling to disk") {
+    // given
+    val nodeOps = mock[Operations[Node]]
+    when(nodeOps.getById(1)).thenReturn(node1)
+    when(nodeOps.getById(2)).thenReturn(node2)
+    val query = mock[QueryContext]
+    when(query.nodeOps).thenReturn(nodeOps)
+    val queryState = QueryStateHelper.emptyWith(query = query, operatorMemory = 1024)
+
+    val lhsRows = (0 until 60).map(i => row("b" -> Seq(node1, node2, null)(i % 3), "a" -> i))
+    val left = newMockedPipe("b", lhsRows: _*)
+
+    val right = newMockedPipe("b",
+      row("b" -> node1, "c" -> 10),
+      row("b" -> node3, "c" -> 30))
+
+    // when
+    val result = NodeOuterHashJoinPipe("b", left, right, Set("c")).createResults(queryState)
+
+    // then
+    result.toSet should equal((0 until 60).map(i => Seq(
+      Map("a" -> i, "b" -> node1, "c" -> 10),
+      Map("a" -> i, "b" -> node2, "c" -> null),
+      Map("a" -> i, "b" -> null, "c" -> null))(i % 3)
+    ).toSet)
+  }
+
 
   private def row(values: (String, Any)*) = ExecutionContext.from(values: _*)
 
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.neo4j.cypher.internal.commons.CypherFunSuite
+import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions._
+import org.neo4j.cypher.internal.compiler.v2_2.symbols._
+
+class OrderedAggregationPipeTest extends CypherFunSuite {
+
+  private implicit val monitor = mock[PipeMonitor]
+
+  test("should aggregate groups in the order of the input") {
+    val source = new FakePipe(List(
+      Map("name" -> "Andres"),
+      Map("name" -> "Andres"),
+      Map("name" -> "Michael"),
+      Map("name" -> "Peter"),
+      Map("name" -> "Peter"),
+      Map("name" -> "Peter")), "name" -> CTString)
+
+    val aggregationPipe = OrderedAggregationPipe(source, Seq("name"), Map("name" -> Identifier("name")), Map("count(*)" -> CountStar()))
+
+    getResults(aggregationPipe) should equal(List(
+      Map("name" -> "Andres", "count(*)" -> 2),
+      Map("name" -> "Michael", "count(*)" -> 1),
+      Map("name" -> "Peter", "count(*)" -> 3)
+    ))
+  }
+
+  test("should emit a group as soon as the next one starts") {
+    var pulled = 0
+    val rows = Iterator("a", "a", "b", "c", "c").map { name =>
+      pulled += 1
+      Map[String, Any]("name" -> name)
+    }
+    val source = new FakePipe(rows, "name" -> CTString)
+
+    val aggregationPipe = OrderedAggregationPipe(source, Seq("name"), Map("name" -> Identifier("name")), Map("count(*)" -> CountStar()))
+    val results = aggregationPipe.createResults(QueryStateHelper.empty)
+
+    results.next().m.toMap should equal(Map("name" -> "a", "count(*)" -> 2))
+    pulled should equal(3)
+  }
+
+  test("should aggregate keys that are not ordered within chunks of the ordered ones") {
+    val source = new FakePipe(List(
+      Map("name" -> "Andres", "age" -> 36),
+      Map("name" -> "Andres", "age" -> 37),
+      Map("name" -> "Andres", "age" -> 36),
+      Map("name" -> "Peter", "age" -> 36)), "name" -> CTString, "age" -> CTInteger)
+
+    val keys = Map("name" -> Identifier("name"), "age" -> Identifier("age"))
+    val aggregationPipe = OrderedAggregationPipe(source, Seq("name"), keys, Map("count(*)" -> CountStar()))
+    val results = getResults(aggregationPipe)
+
+    results.take(2) should contain theSameElementsAs List(
+      Map("name" -> "Andres", "age" -> 36, "count(*)" -> 2),
+      Map("name" -> "Andres", "age" -> 37, "count(*)" -> 1)
+    )
+    results.drop(2) should equal(List(Map("name" -> "Peter", "age" -> 36, "count(*)" -> 1)))
+  }
+
+  test("should return nothing for empty input") {
+    val source = new FakePipe(List(), "name" -> CTString)
+
+    val aggregationPipe = OrderedAggregationPipe(source, Seq("name"), Map("name" -> Identifier("name")), Map("count(*)" -> CountStar()))
+
+    getResults(aggregationPipe) should be(empty)
+  }
+
+  private def getResults(p: Pipe) = p.createResults(QueryStateHelper.empty).map(_.m.toMap).toList
+}
@@ -26,6 +26,8 @@ object QueryStateHelper {
   def empty: QueryState = emptyWith()
 
   def emptyWith(db: GraphDatabaseService = null, query: QueryContext = null, resources: ExternalResource = null,
-                params: Map[String, Any] = Map.empty, decorator: PipeDecorator = NullPipeDecorator) =
-    QueryState(db = db, query = query, resources = resources, params = params, decorator = decorator)
+                params: Map[String, Any] = Map.empty, decorator: PipeDecorator = NullPipeDecorator,
+                operatorMemory: Long = Long.MaxValue) =
+    QueryState(db = db, query = query, resources = resources, params = params, decorator = decorator,
+      operatorMemory = operatorMemory)
 }
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.mockito.Mockito._
+import org.neo4j.cypher.InternalException
+import org.neo4j.cypher.internal.commons.CypherFunSuite
+import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v2_2.spi.{Operations, QueryContext}
+import org.neo4j.graphdb.{Node, Relationship}
+
+class RowSpillFileTest extends CypherFunSuite {
+
+  test("should read back the rows written") {
+    // given
+    val node = mock[Node]
+    val relationship = mock[Relationship]
+    when(node.getId).thenReturn(3)
+    when(relationship.getId).thenReturn(5)
+    val nodeOps = mock[Operations[Node]]
+    when(nodeOps.getById(3)).thenReturn(node)
+    val relationshipOps = mock[Operations[Relationship]]
+    when(relationshipOps.getById(5)).thenReturn(relationship)
+    val query = mock[QueryContext]
+    when(query.nodeOps).thenReturn(nodeOps)
+    when(query.relationshipOps).thenReturn(relationshipOps)
+
+    val rows = Seq(
+      ExecutionContext.from("n" -> node, "r" -> relationship, "x" -> null),
+      ExecutionContext.from("a" -> 1, "b" -> 2L, "c" -> 1.5, "d" -> true, "e" -> "\u00e5\u00e4\u00f6"),
+      ExecutionContext.from("list" -> Seq(1, "two", Seq(3)), "map" -> Map("key" -> Seq(node)))
+    )
+    val file = new SpillFiles().create("test")
+
+    // when
+    rows.zipWithIndex.foreach {
+      case (row, i) => file.write(i, row)
+    }
+    val result = file.read(QueryStateHelper.emptyWith(query = query)).toList
+
+    // then
+    result should equal(rows.indices.map(_.toLong).zip(rows).toList)
+  }
+
+  test("should read back arrays as collections") {
+    // given
+    val file = new SpillFiles().create("test")
+    file.write(42, ExecutionContext.from("array" -> Array(1, 2, 3)))
+
+    // when
+    val result = file.read(QueryStateHelper.empty).toList
+
+    // then
+    result should equal(List(42L -> Map("array" -> Seq(1, 2, 3))))
+  }
+
+  test("should read back java collections and maps as scala collections") {
+    // given
+    val file = new SpillFiles().create("test")
+    file.write(1, ExecutionContext.from(
+      "list" -> java.util.Arrays.asList(1, 2),
+      "map" -> java.util.Collections.singletonMap("key", java.util.Arrays.asList("value"))))
+
+    // when
+    val result = file.read(QueryStateHelper.empty).toList
+
+    // then
+    result should equal(List(1L -> Map("list" -> Seq(1, 2), "map" -> Map("key" -> Seq("value")))))
+  }
+
+  test("should delete files not read to the end when closed") {
+    // given
+    val files = new SpillFiles
+    val read = files.create("test")
+    val unread = files.create("test")
+    Seq(read, unread).foreach(_.write(1, ExecutionContext.from("a" -> 1)))
+    val rows = read.read(QueryStateHelper.empty)
+
+    // when
+    files.close()
+
+    // then
+    intercept[InternalException](rows.next())
+    intercept[InternalException](unread.read(QueryStateHelper.empty))
+  }
+}
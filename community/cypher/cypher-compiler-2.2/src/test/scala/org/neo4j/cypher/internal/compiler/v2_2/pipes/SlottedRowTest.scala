@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.mockito.Mockito._
+import org.neo4j.cypher.internal.commons.CypherFunSuite
+import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v2_2.spi.{Operations, QueryContext}
+import org.neo4j.graphdb.{Node, Relationship}
+
+class SlottedRowTest extends CypherFunSuite {
+
+  val slots = new SlotConfiguration.Builder()
+    .newNode("a")
+    .newNode("b")
+    .newRelationship("r")
+    .newReference("a")
+    .newReference("x")
+    .build()
+  val query = mock[QueryContext]
+  val node1 = newMockedNode(1)
+  val node2 = newMockedNode(2)
+  val relationship = newMockedRelationship(10)
+
+  test("should give nodes and relationships long slots and everything else reference slots") {
+    slots.slotFor("a") should equal(LongSlot(0, isNode = true))
+    slots.slotFor("b") should equal(LongSlot(1, isNode = true))
+    slots.slotFor("r") should equal(LongSlot(2, isNode = false))
+    slots.slotFor("x") should equal(RefSlot(0))
+    slots.slotFor("y") should equal(null)
+  }
+
+  test("should store entities by id in their long slots") {
+    val row = SlottedRow.empty(slots, query)
+
+    row += "a" -> node1
+    row += "r" -> relationship
+
+    row.getLongAt(0) should equal(1L)
+    row.getLongAt(1) should equal(SlottedRow.UNSET)
+    row.getLongAt(2) should equal(10L)
+    row.get("a") should equal(Some(node1))
+    row.get("b") should equal(None)
+    row.get("r") should equal(Some(relationship))
+  }
+
+  test("should look up entities only known by id") {
+    val nodeOps = mock[Operations[Node]]
+    when(nodeOps.getById(2)).thenReturn(node2)
+    when(query.nodeOps).thenReturn(nodeOps)
+    val row = SlottedRow.empty(slots, query)
+
+    row.setLongAt(1, 2)
+
+    row("b") should equal(node2)
+    row("b") should equal(node2)
+    verify(nodeOps, times(1)).getById(2)
+  }
+
+  test("should tell null apart from unset") {
+    val row = SlottedRow.empty(slots, query)
+
+    row += "a" -> null
+    row += "x" -> null
+
+    row.getLongAt(0) should equal(SlottedRow.NULL)
+    row.toMap should equal(Map("a" -> null, "x" -> null))
+  }
+
+  test("should keep values not fitting their slot and identifiers without slots aside") {
+    val row = SlottedRow.empty(slots, query)
+
+    row += "a" -> 42
+    row += "y" -> "foo"
+
+    row.getLongAt(0) should equal(SlottedRow.UNSET)
+    row.toMap should equal(Map("a" -> 42, "y" -> "foo"))
+
+    row += "a" -> node1
+
+    row.toMap should equal(Map("a" -> node1, "y" -> "foo"))
+  }
+
+  test("should not change the original row when creating new rows from it") {
+    val original = ExecutionContext.slotted(slots, query).newWith("a" -> node1)
+
+    val expanded = original.newWith(Seq("r" -> relationship, "b" -> node2))
+
+    original.m.toMap should equal(Map("a" -> node1))
+    expanded.m.toMap should equal(Map("a" -> node1, "r" -> relationship, "b" -> node2))
+    expanded.m shouldBe a [SlottedRow]
+  }
+
+  test("should merge slotted rows") {
+    val left = ExecutionContext.slotted(slots, query).newWith(Seq("a" -> node1, "x" -> "foo"))
+    val right = ExecutionContext.slotted(slots, query).newWith(Seq("b" -> node2, "y" -> "bar"))
+
+    val merged = left ++ right
+
+    merged.m.toMap should equal(Map("a" -> node1, "x" -> "foo", "b" -> node2, "y" -> "bar"))
+    left.m.toMap should equal(Map("a" -> node1, "x" -> "foo"))
+  }
+
+  test("should remove values from slots") {
+    val row = SlottedRow.empty(slots, query)
+    row += "a" -> node1
+    row += "x" -> "foo"
+
+    row -= "a"
+    row -= "x"
+
+    row.toMap should equal(Map.empty)
+  }
+
+  private def newMockedNode(id: Int) = {
+    val node = mock[Node]
+    when(node.getId).thenReturn(id)
+    node
+  }
+
+  private def newMockedRelationship(id: Int) = {
+    val relationship = mock[Relationship]
+    when(relationship.getId).thenReturn(id)
+    relationship
+  }
+}
@@ -76,6 +76,18 @@ class SortPipeTest extends CypherFunSuite with MockitoSugar {
       MutableMap("x" -> "B", "y" -> 10)), sortPipe.createResults(QueryStateHelper.empty).toList)
   }
 
+  test("should sort rows spilled to disk, keeping the order of equal rows") {
+    val list: Seq[MutableMap[String, Any]] = (0 until 1000).map(i => MutableMap[String, Any]("x" -> (i * 7919) % 10, "y" -> i))
+    val source = new FakePipe(list, "x" -> CTNumber, "y" -> CTNumber)
+    val sortPipe = new SortPipe(source, List(Ascending("x")))
+    val state = QueryStateHelper.emptyWith(operatorMemory = 1024)
+
+    val result = sortPipe.createResults(state).toList
+
+    result should equal(list.sortBy(_("x").asInstanceOf[Int]))
+    state.spills.rows should be > 0L
+  }
+
   test("should handle null values") {
     val list: Seq[MutableMap[String, Any]] = List(
       MutableMap("y" -> 1),
@@ -28,7 +28,7 @@ import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans.{EntityById
 import org.neo4j.cypher.internal.compiler.v2_2.pipes._
 import org.neo4j.cypher.internal.compiler.v2_2.pipes.{EntityByIdExprs => PipeEntityByIdExprs}
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans._
-import org.neo4j.cypher.internal.compiler.v2_2.ast.{SignedDecimalIntegerLiteral, Collection, SignedIntegerLiteral}
+import org.neo4j.cypher.internal.compiler.v2_2.ast.{CountStar, SignedDecimalIntegerLiteral, Collection, SignedIntegerLiteral}
 import org.neo4j.cypher.internal.compiler.v2_2.LabelId
 import org.neo4j.graphdb.Direction
 
@@ -162,4 +162,36 @@ class PipeExecutionPlanBuilderTest extends CypherFunSuite with LogicalPlanningTe
       ExpandPipe( AllNodesScanPipe("c"), "c", "r2", "b", Direction.INCOMING, Seq() )
     ))
   }
+
+  test("aggregation grouped by the order of its input is streamed") {
+    val expand = Expand(AllNodesScan("a", Set.empty), "a", Direction.OUTGOING, Seq(), "b", "r", SimplePatternLength)
+    val logicalPlan = Aggregation(expand, Map("a" -> ident("a")), Map("count(*)" -> CountStar()(pos)))
+    val pipeInfo = planBuilder.build(logicalPlan)
+
+    pipeInfo.pipe should equal(OrderedAggregationPipe(
+      ExpandPipe(AllNodesScanPipe("a"), "a", "r", "b", Direction.OUTGOING, Seq()),
+      Seq("a"),
+      Map("a" -> legacy.Identifier("a")),
+      Map("count(*)" -> legacy.CountStar())
+    ))
+  }
+
+  test("aggregation not grouped by the order of its input is eager") {
+    val expand = Expand(AllNodesScan("a", Set.empty), "a", Direction.OUTGOING, Seq(), "b", "r", SimplePatternLength)
+    val logicalPlan = Aggregation(expand, Map("b" -> ident("b")), Map("count(*)" -> CountStar()(pos)))
+    val pipeInfo = planBuilder.build(logicalPlan)
+
+    pipeInfo.pipe should equal(EagerAggregationPipe(
+      ExpandPipe(AllNodesScanPipe("a"), "a", "r", "b", Direction.OUTGOING, Seq()),
+      Map("b" -> legacy.Identifier("b")),
+      Map("count(*)" -> legacy.CountStar())
+    ))
+  }
+
+  test("distinct over input ordered by its keys is streamed") {
+    val logicalPlan = Aggregation(AllNodesScan("a", Set.empty), Map("a" -> ident("a")), Map.empty)
+    val pipeInfo = planBuilder.build(logicalPlan)
+
+    pipeInfo.pipe should equal(DistinctPipe(AllNodesScanPipe("a"), Map("a" -> legacy.Identifier("a")), Seq("a")))
+  }
 }
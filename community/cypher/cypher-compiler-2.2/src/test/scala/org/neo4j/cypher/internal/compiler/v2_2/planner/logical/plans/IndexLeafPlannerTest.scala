@@ -22,10 +22,10 @@ package org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans
 import org.neo4j.cypher.internal.commons.CypherFunSuite
 import org.neo4j.cypher.internal.compiler.v2_2.planner._
 import org.neo4j.cypher.internal.compiler.v2_2.ast._
-import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.steps.{uniqueIndexSeekLeafPlanner, indexSeekLeafPlanner}
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.steps.{indexRangeSeekLeafPlanner, uniqueIndexSeekLeafPlanner, indexSeekLeafPlanner}
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.LogicalPlanningContext
 import org.neo4j.cypher.internal.compiler.v2_2.planner.BeLikeMatcher._
-import org.neo4j.cypher.internal.compiler.v2_2.commands.ManyQueryExpression
+import org.neo4j.cypher.internal.compiler.v2_2.commands.{Bound, ManyQueryExpression, PrefixRange, RangeBetween}
 
 class IndexLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSupport2 {
 
@@ -166,6 +166,75 @@ class IndexLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSuppor
     }
   }
 
+  test("index range seek when there is an index on the property and a lower and upper bound") {
+    new given {
+      qg = queryGraph(GreaterThan(property, lit6)_, LessThanOrEqual(property, lit42)_, hasLabels)
+
+      indexOn("Awesome", "prop")
+
+      withLogicalPlanningContext { (ctx) =>
+        // when
+        val resultPlans = indexRangeSeekLeafPlanner(qg)(ctx)
+
+        // then
+        resultPlans.plans.map(_.plan) should beLike {
+          case Seq(NodeIndexRangeSeek(`idName`, _, _, RangeBetween(Some(Bound(`lit6`, true)), Some(Bound(`lit42`, true))), _)) => ()
+        }
+
+        // the index compares numbers as doubles, so the bounds remain to be solved by a selection
+        resultPlans.plans.map(_.solved.graph.selections.flatPredicates.toSet) should equal(Seq(Set(hasLabels)))
+      }
+    }
+  }
+
+  test("does not plan index range seek when no index exist") {
+    new given {
+      qg = queryGraph(GreaterThan(property, lit6)_, hasLabels)
+
+      withLogicalPlanningContext { (ctx) =>
+        // when
+        val resultPlans = indexRangeSeekLeafPlanner(qg)(ctx)
+
+        // then
+        resultPlans.plans shouldBe empty
+      }
+    }
+  }
+
+  test("index prefix seek for a regular expression with a literal prefix") {
+    new given {
+      qg = queryGraph(RegexMatch(property, StringLiteral("ab.*")_)_, hasLabels)
+
+      indexOn("Awesome", "prop")
+
+      withLogicalPlanningContext { (ctx) =>
+        // when
+        val resultPlans = indexRangeSeekLeafPlanner(qg)(ctx)
+
+        // then
+        resultPlans.plans.map(_.plan) should beLike {
+          case Seq(NodeIndexRangeSeek(`idName`, _, _, PrefixRange(StringLiteral("ab")), _)) => ()
+        }
+      }
+    }
+  }
+
+  test("does not plan index prefix seek for a regular expression without a literal prefix") {
+    new given {
+      qg = queryGraph(RegexMatch(property, StringLiteral("a[bc].*")_)_, hasLabels)
+
+      indexOn("Awesome", "prop")
+
+      withLogicalPlanningContext { (ctx) =>
+        // when
+        val resultPlans = indexRangeSeekLeafPlanner(qg)(ctx)
+
+        // then
+        resultPlans.plans shouldBe empty
+      }
+    }
+  }
+
   private def queryGraph(predicates: Expression*) =
     QueryGraph(
       selections = Selections(predicates.map(Predicate(Set(idName), _)).toSet),
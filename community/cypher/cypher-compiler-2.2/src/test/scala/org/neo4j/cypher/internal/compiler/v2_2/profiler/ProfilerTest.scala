@@ -22,7 +22,7 @@ package org.neo4j.cypher.internal.compiler.v2_2.profiler
 import org.neo4j.cypher.internal.commons.CypherFunSuite
 import org.neo4j.cypher.internal.compiler.v2_2._
 import org.neo4j.cypher.internal.compiler.v2_2.pipes._
-import org.neo4j.cypher.internal.compiler.v2_2.planDescription.PlanDescription.Arguments.{DbHits, Rows}
+import org.neo4j.cypher.internal.compiler.v2_2.planDescription.PlanDescription.Arguments.{DbHits, Rows, SpilledRows}
 import org.neo4j.cypher.internal.compiler.v2_2.planDescription.{Argument, PlanDescription}
 import org.neo4j.cypher.internal.compiler.v2_2.spi.QueryContext
 import org.neo4j.cypher.internal.compiler.v2_2.symbols.SymbolTable
@@ -81,6 +81,24 @@ class ProfilerTest extends CypherFunSuite {
     materialize(pipes.createResults(queryState))
   }
 
+  test("should_report_spilled_rows") {
+    //GIVEN
+    val start = NullPipe()
+    val pipe1 = new ProfilerPipe(start, "foo", rows = 10, dbAccess = 0, spilled = 7)
+    val pipe2 = new ProfilerPipe(pipe1, "bar", rows = 10, dbAccess = 0)
+    val queryContext = mock[QueryContext]
+    val profiler = new Profiler
+    val queryState = QueryStateHelper.emptyWith(query = queryContext, decorator = profiler)
+
+    //WHEN
+    materialize(pipe2.createResults(queryState))
+    val decoratedResult = profiler.decorate(pipe2.planDescription, true)
+
+    //THEN
+    decoratedResult.find("foo").flatMap(_.arguments).collect { case SpilledRows(count) => count } should equal(Seq(7))
+    decoratedResult.find("bar").flatMap(_.arguments).collect { case SpilledRows(count) => count } should be(empty)
+  }
+
   private def assertRecorded(result: PlanDescription, name: String, expectedRows: Int, expectedDbHits: Int) {
     val pipeArgs: Seq[Argument] = result.find(name).flatMap(_.arguments)
 
@@ -99,13 +117,14 @@ class ProfilerTest extends CypherFunSuite {
   }
 }
 
-case class ProfilerPipe(source: Pipe, name: String, rows: Int, dbAccess: Int)
+case class ProfilerPipe(source: Pipe, name: String, rows: Int, dbAccess: Int, spilled: Int = 0)
                   (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(source, pipeMonitor) {
   def planDescription: PlanDescription = source.planDescription.andThen(this, name)
 
   protected def internalCreateResults(input:Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
     input.size
     (0 until dbAccess).foreach(x => state.query.createNode())
+    state.spills.add(spilled)
     (0 until rows).map(x => ExecutionContext.empty).toIterator
   }
 
@@ -31,7 +31,7 @@ object CypherCompiler {
   val DEFAULT_QUERY_CACHE_SIZE: Int = 128
 }
 
-case class PreParsedQuery(statement: String, version: CypherVersion, planType: PlanType)
+case class PreParsedQuery(statement: String, version: CypherVersion, planType: PlanType, runtime: RuntimeName)
 
 
 class CypherCompiler(graph: GraphDatabaseService,
@@ -52,11 +52,12 @@ class CypherCompiler(graph: GraphDatabaseService,
     val preParsedQuery: PreParsedQuery = preParse(queryWithOptions)
     val planType = preParsedQuery.planType
     val version = preParsedQuery.version
+    val runtime = preParsedQuery.runtime
     val statementAsText = preParsedQuery.statement
 
     version match {
-      case CypherVersion.experimental => compatibilityFor2_2Experimental.produceParsedQuery(statementAsText, planType)
-      case CypherVersion.v2_2 => compatibilityFor2_2Legacy.produceParsedQuery(statementAsText, planType)
+      case CypherVersion.experimental => compatibilityFor2_2Experimental.produceParsedQuery(statementAsText, planType, runtime)
+      case CypherVersion.v2_2 => compatibilityFor2_2Legacy.produceParsedQuery(statementAsText, planType, runtime)
       case CypherVersion.v2_1 => compatibilityFor2_1.parseQuery(statementAsText, planType == Profiled)
       case CypherVersion.v2_0 => compatibilityFor2_0.parseQuery(statementAsText, planType == Profiled)
       case CypherVersion.v1_9 => compatibilityFor1_9.parseQuery(statementAsText, planType == Profiled)
@@ -82,7 +83,26 @@ class CypherCompiler(graph: GraphDatabaseService,
       throw new InvalidArgumentException("EXPLAIN not supported in versions older than Neo4j v2.2")
     }
 
-    PreParsedQuery(queryWithOption.statement, cypherVersion, planType)
+    val runtime = calculateRuntime(queryWithOption.options)
+
+    if (runtime == CompiledRuntime && cypherVersion != CypherVersion.v2_2 && cypherVersion != CypherVersion.experimental) {
+      throw new InvalidArgumentException("RUNTIME COMPILED not supported in versions older than Neo4j v2.2")
+    }
+
+    PreParsedQuery(queryWithOption.statement, cypherVersion, planType, runtime)
+  }
+
+  private def calculateRuntime(options: Seq[CypherOption]) = {
+    import CollectionFrosting._
+
+    val runtimes = options.collectSingle {
+      case RuntimeOption(runtime) => runtime
+    }
+
+    runtimes match {
+      case Right(runtime) => runtime.getOrElse(InterpretedRuntime)
+      case Left(found)    => throw new SyntaxException(s"You must specify only one runtime for a query (found: $found)")
+    }
   }
 
   private def calculatePlanType(options: Seq[CypherOption]) = {
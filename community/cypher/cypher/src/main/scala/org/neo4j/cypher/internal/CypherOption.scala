@@ -24,5 +24,6 @@ sealed trait CypherOption
 final case class VersionOption(version: String) extends CypherOption
 case object ProfileOption extends CypherOption
 case object ExplainOption extends CypherOption
+final case class RuntimeOption(runtime: RuntimeName) extends CypherOption
 
 
@@ -32,7 +32,7 @@ case class CypherOptionParser(monitor: ParserMonitor[CypherQueryWithOptions]) ex
 
   def AllOptions: Rule1[Seq[CypherOption]] = zeroOrMore(AnyCypherOption, WS)
 
-  def AnyCypherOption: Rule1[CypherOption] = Version | Explain | Profile
+  def AnyCypherOption: Rule1[CypherOption] = Version | Explain | Profile | Runtime
 
   def AnySomething: Rule1[String] = rule("Query") { oneOrMore(org.parboiled.scala.ANY) ~> identity }
 
@@ -53,4 +53,13 @@ case class CypherOptionParser(monitor: ParserMonitor[CypherQueryWithOptions]) ex
   def Profile = keyword("PROFILE") ~ push(ProfileOption)
 
   def Explain = keyword("EXPLAIN") ~ push(ExplainOption)
+
+  def Runtime: Rule1[RuntimeOption] =
+    rule("RUNTIME") {
+      keyword("RUNTIME") ~ WS ~ RuntimeValue
+    }
+
+  def RuntimeValue: Rule1[RuntimeOption] =
+    keyword("COMPILED") ~ push(RuntimeOption(CompiledRuntime)) |
+    keyword("INTERPRETED") ~ push(RuntimeOption(InterpretedRuntime))
 }
@@ -44,8 +44,8 @@ trait CompatibilityFor2_2 {
 
   protected val compiler: v2_2.CypherCompiler
 
-  def produceParsedQuery(statementAsText: String, planType: PlanType) = new ParsedQuery {
-    val preparedQueryForV_2_2 = Try(compiler.prepareQuery(statementAsText, planType))
+  def produceParsedQuery(statementAsText: String, planType: PlanType, runtime: RuntimeName) = new ParsedQuery {
+    val preparedQueryForV_2_2 = Try(compiler.prepareQuery(statementAsText, planType, runtime))
 
     def isPeriodicCommit = preparedQueryForV_2_2.map(_.isPeriodicCommit).getOrElse(false)
 
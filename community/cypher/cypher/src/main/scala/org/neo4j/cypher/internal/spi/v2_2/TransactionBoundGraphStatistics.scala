@@ -20,7 +20,7 @@
 package org.neo4j.cypher.internal.spi.v2_2
 
 import org.neo4j.cypher.internal.compiler.v2_2.spi.GraphStatistics
-import org.neo4j.cypher.internal.compiler.v2_2.{RelTypeId, LabelId}
+import org.neo4j.cypher.internal.compiler.v2_2.{PropertyKeyId, RelTypeId, LabelId}
 import org.neo4j.graphdb.Direction
 import org.neo4j.kernel.api.heuristics.StatisticsData
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.{Multiplier, Cardinality}
@@ -28,19 +28,25 @@ import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.{Multiplier, Card
 class TransactionBoundGraphStatistics(statistics: StatisticsData) extends GraphStatistics {
 
   def nodesCardinality =
-    Cardinality(statistics.liveNodesRatio() * statistics.maxAddressableNodes())
+    Cardinality(statistics.nodeCount(StatisticsData.ANY))
 
   def nodesWithLabelCardinality(labelId: LabelId) =
-    nodesCardinality * nodesWithLabelSelectivity(labelId)
+    Cardinality(statistics.nodeCount(labelId.id))
 
   def nodesWithLabelSelectivity(labelId: LabelId) =
     Multiplier(statistics.labelDistribution( labelId.id ))
 
-  def relationshipsWithTypeSelectivity(relTypeId: RelTypeId) = ???
+  def relationshipsWithTypeSelectivity(relTypeId: RelTypeId) =
+    Multiplier(statistics.relationshipTypeDistribution( relTypeId.id ))
 
   def degreeByRelationshipTypeAndDirection(relTypeId: RelTypeId, direction: Direction) =
     Multiplier(statistics.degree( StatisticsData.RELATIONSHIP_DEGREE_FOR_NODE_WITHOUT_LABEL, relTypeId.id, direction ))
 
   def degreeByLabelRelationshipTypeAndDirection(labelId: LabelId, relTypeId: RelTypeId, direction: Direction) =
     Multiplier(statistics.degree( labelId.id, relTypeId.id, direction ))
+
+  def indexSelectivity(labelId: LabelId, propertyKeyId: PropertyKeyId) = {
+    val selectivity = statistics.indexSelectivity( labelId.id, propertyKeyId.id )
+    if (selectivity == StatisticsData.NOT_SAMPLED) None else Some(Multiplier(selectivity))
+  }
 }
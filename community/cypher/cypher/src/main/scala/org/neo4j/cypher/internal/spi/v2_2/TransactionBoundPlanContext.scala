@@ -84,5 +84,5 @@ final class TransactionBoundPlanContext(statement: Statement, kernelAPI: KernelA
     statement.readOperations().schemaStateGetOrCreate(key, javaCreator)
   }
 
-  def statistics: GraphStatistics = HardcodedGraphStatistics
+  def statistics: GraphStatistics = new TransactionBoundGraphStatistics(kernelAPI.heuristics())
 }
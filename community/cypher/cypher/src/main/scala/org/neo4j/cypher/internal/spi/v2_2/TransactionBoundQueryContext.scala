@@ -117,6 +117,16 @@ final class TransactionBoundQueryContext(graph: GraphDatabaseAPI,
   def exactIndexSearch(index: IndexDescriptor, value: Any) =
     mapToScala(statement.readOperations().nodesGetFromIndexLookup(index, value))(nodeOps.getById)
 
+  def rangeIndexSearch(index: IndexDescriptor, lower: Option[(Any, Boolean)], upper: Option[(Any, Boolean)]) = {
+    val (lowerValue, includeLower) = lower.getOrElse((null, false))
+    val (upperValue, includeUpper) = upper.getOrElse((null, false))
+    mapToScala(statement.readOperations().nodesGetFromIndexRangeSeek(index,
+      lowerValue, includeLower, upperValue, includeUpper))(nodeOps.getById)
+  }
+
+  def prefixIndexSearch(index: IndexDescriptor, prefix: String) =
+    mapToScala(statement.readOperations().nodesGetFromIndexPrefixSeek(index, prefix))(nodeOps.getById)
+
   def exactUniqueIndexSearch(index: IndexDescriptor, value: Any): Option[Node] = {
     val nodeId: Long = statement.readOperations().nodeGetUniqueFromIndexLookup(index, value)
     if (StatementConstants.NO_SUCH_NODE == nodeId) None else Some(nodeOps.getById(nodeId))
@@ -280,6 +290,13 @@ final class TransactionBoundQueryContext(graph: GraphDatabaseAPI,
     case _ => true
   }
 
+  override def operatorMemory: Long = graph match {
+    case iagdb: InternalAbstractGraphDatabase => iagdb.getConfig.get(GraphDatabaseSettings.cypher_operator_memory)
+    case _ => super.operatorMemory
+  }
+
+  override def readOperations: Option[ReadOperations] = Some(statement.readOperations())
+
   def relationshipStartNode(rel: Relationship) = rel.getStartNode
 
   def relationshipEndNode(rel: Relationship) = rel.getEndNode
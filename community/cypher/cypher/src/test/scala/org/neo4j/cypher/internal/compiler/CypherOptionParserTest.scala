@@ -43,9 +43,15 @@ class CypherOptionParserTest extends CypherFunSuite {
     parse("EXPLAIN THIS") should equal(CypherQueryWithOptions("THIS", Seq(ExplainOption)))
   }
 
+  test("should parse runtime") {
+    parse("RUNTIME COMPILED MATCH") should equal(CypherQueryWithOptions("MATCH", Seq(RuntimeOption(CompiledRuntime))))
+    parse("RUNTIME INTERPRETED MATCH") should equal(CypherQueryWithOptions("MATCH", Seq(RuntimeOption(InterpretedRuntime))))
+  }
+
   test("should parse multiple options") {
     parse("CYPHER 2.1.experimental PROFILE PATTERN") should equal(CypherQueryWithOptions("PATTERN", Seq(VersionOption("2.1.experimental"), ProfileOption)))
     parse("EXPLAIN CYPHER 2.1 YALL") should equal(CypherQueryWithOptions("YALL", Seq(ExplainOption, VersionOption("2.1"))))
+    parse("CYPHER 2.1.experimental RUNTIME COMPILED MATCH") should equal(CypherQueryWithOptions("MATCH", Seq(VersionOption("2.1.experimental"), RuntimeOption(CompiledRuntime))))
   }
 
   test("should require whitespace between option and query") {
@@ -118,6 +118,10 @@ class SnitchingQueryContext extends QueryContext {
 
   def exactIndexSearch(index: IndexDescriptor, value: Any): Iterator[Node] = ???
 
+  def rangeIndexSearch(index: IndexDescriptor, lower: Option[(Any, Boolean)], upper: Option[(Any, Boolean)]): Iterator[Node] = ???
+
+  def prefixIndexSearch(index: IndexDescriptor, prefix: String): Iterator[Node] = ???
+
   def getNodesByLabel(id: Int): Iterator[Node] = ???
 
   def upgrade(context: QueryContext): LockingQueryContext = ???
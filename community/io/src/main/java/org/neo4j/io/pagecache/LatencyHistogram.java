@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies, in buckets of powers of two microseconds. Bucket 0 counts the latencies below
+ * one microsecond, bucket 1 those below two microseconds, bucket 2 those below four microseconds, and so on, with
+ * the last bucket counting everything that is longer than that.
+ */
+public class LatencyHistogram
+{
+    public static final int BUCKETS = 32;
+
+    private final AtomicLongArray buckets = new AtomicLongArray( BUCKETS );
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record( long nanos )
+    {
+        if ( nanos < 0 )
+        {
+            // System.nanoTime() is not guaranteed to be monotonic on all platforms
+            nanos = 0;
+        }
+        buckets.getAndIncrement( bucket( nanos ) );
+        count.getAndIncrement();
+        totalNanos.getAndAdd( nanos );
+        long max;
+        do
+        {
+            max = maxNanos.get();
+        }
+        while ( nanos > max && !maxNanos.compareAndSet( max, nanos ) );
+    }
+
+    static int bucket( long nanos )
+    {
+        long micros = TimeUnit.NANOSECONDS.toMicros( nanos );
+        return Math.min( Long.SIZE - Long.numberOfLeadingZeros( micros ), BUCKETS - 1 );
+    }
+
+    public long getCount()
+    {
+        return count.get();
+    }
+
+    public long getTotalNanos()
+    {
+        return totalNanos.get();
+    }
+
+    public long getMaxNanos()
+    {
+        return maxNanos.get();
+    }
+
+    public long getAverageNanos()
+    {
+        long n = count.get();
+        return n == 0 ? 0 : totalNanos.get() / n;
+    }
+
+    /**
+     * @return an upper bound of the given percentile, such as 0.99, of the recorded latencies, in nanoseconds. The
+     * bound is the upper end of the bucket the percentile falls in, and never more than the longest recorded latency.
+     */
+    public long getPercentileNanos( double percentile )
+    {
+        long[] distribution = getDistribution();
+        long total = 0;
+        for ( long bucketCount : distribution )
+        {
+            total += bucketCount;
+        }
+        if ( total == 0 )
+        {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil( percentile * total );
+        long seen = 0;
+        for ( int i = 0; i < distribution.length - 1; i++ )
+        {
+            seen += distribution[i];
+            if ( seen >= rank )
+            {
+                return Math.min( TimeUnit.MICROSECONDS.toNanos( 1L << i ), maxNanos.get() );
+            }
+        }
+        return maxNanos.get();
+    }
+
+    /**
+     * @return a snapshot of the number of latencies recorded in each bucket.
+     */
+    public long[] getDistribution()
+    {
+        long[] distribution = new long[BUCKETS];
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            distribution[i] = buckets.get( i );
+        }
+        return distribution;
+    }
+}
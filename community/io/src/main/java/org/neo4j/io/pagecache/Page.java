@@ -20,6 +20,7 @@
 package org.neo4j.io.pagecache;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.neo4j.io.fs.StoreChannel;
 
@@ -143,4 +144,17 @@ public interface Page
      *                     The possible causes of an IOException is platform dependent.
      */
     void swapOut( StoreChannel channel, long offset, int length ) throws IOException;
+
+    /**
+     * Get a ByteBuffer view of the first given number of bytes of the page memory, for swapping out many pages
+     * with a single vectored write.
+     *
+     * The returned buffer has its own position and limit, and is positioned at the beginning of the page.
+     * It must only be used while the page is locked.
+     *
+     * May throw an AssertionError or a RuntimeException if the length is greater than the cache-page size.
+     *
+     * @throws IOException If a view of the page memory could not be created.
+     */
+    ByteBuffer asByteBuffer( int length ) throws IOException;
 }
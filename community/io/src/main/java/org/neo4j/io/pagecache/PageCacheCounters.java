@@ -0,0 +1,261 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link PageCacheMonitor} that counts the page cache events per mapped file, without taking any locks. The counts
+ * are what the page cache management beans and the server statistics are based on.
+ * <p>
+ * The counters of a file are resolved once, when the file gets mapped, and kept by the {@link #mappedFile(File)
+ * monitor of the file}, so counting an event is only a matter of bumping a counter. Files are told apart by their
+ * absolute path, and a file mapped again keeps counting where it left off. Events reported to this monitor directly,
+ * rather than to the monitor of a file, aren't counted.
+ * <p>
+ * Page faults, evictions and flushes are passed on to a delegate monitor, typically the one handed out by the
+ * Monitors framework. Pins and unpins are only counted, as they are far too frequent to be dispatched any further,
+ * and the pin counts are striped so that concurrent pinning threads do not contend on the counters.
+ */
+public class PageCacheCounters implements PerFilePageCacheMonitor
+{
+    private final PageCacheMonitor delegate;
+    private final ConcurrentMap<File, PagedFileCounters> files = new ConcurrentHashMap<>();
+
+    public PageCacheCounters()
+    {
+        this( PageCacheMonitor.NULL );
+    }
+
+    public PageCacheCounters( PageCacheMonitor delegate )
+    {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public PageCacheMonitor mappedFile( File file )
+    {
+        File key = file.getAbsoluteFile();
+        PagedFileCounters counters = files.get( key );
+        if ( counters == null )
+        {
+            PagedFileCounters created = new PagedFileCounters( key.getPath() );
+            counters = files.putIfAbsent( key, created );
+            if ( counters == null )
+            {
+                counters = created;
+            }
+        }
+        return new PagedFileMonitor( counters );
+    }
+
+    @Override
+    public void pageFaulted( long filePageId, PageSwapper swapper, long faultNanos )
+    {
+        delegate.pageFaulted( filePageId, swapper, faultNanos );
+    }
+
+    @Override
+    public void prefetched( long filePageId, PageSwapper swapper, long faultNanos )
+    {
+        delegate.prefetched( filePageId, swapper, faultNanos );
+    }
+
+    @Override
+    public void evicted( long filePageId, PageSwapper swapper )
+    {
+        delegate.evicted( filePageId, swapper );
+    }
+
+    @Override
+    public void pinned( boolean exclusiveLock, long filePageId, PageSwapper swapper )
+    {
+        // Only pins reported to the monitor of a mapped file are counted
+    }
+
+    @Override
+    public void unpinned( boolean exclusiveLock, long filePageId, PageSwapper swapper )
+    {
+    }
+
+    @Override
+    public void flushed( long filePageId, PageSwapper swapper, int bytesWritten, long flushNanos )
+    {
+        delegate.flushed( filePageId, swapper, bytesWritten, flushNanos );
+    }
+
+    /**
+     * @return the counters of every file that has been mapped, including files that have since been unmapped.
+     */
+    public List<PagedFileCounters> getFiles()
+    {
+        return new ArrayList<>( files.values() );
+    }
+
+    /**
+     * @return the counters of the given file, or {@code null} if the file has never been mapped.
+     */
+    public PagedFileCounters getFile( File file )
+    {
+        return files.get( file.getAbsoluteFile() );
+    }
+
+    public long getPins()
+    {
+        long sum = 0;
+        for ( PagedFileCounters file : files.values() )
+        {
+            sum += file.getPins();
+        }
+        return sum;
+    }
+
+    public long getFaults()
+    {
+        long sum = 0;
+        for ( PagedFileCounters file : files.values() )
+        {
+            sum += file.getFaults();
+        }
+        return sum;
+    }
+
+    public long getPrefetches()
+    {
+        long sum = 0;
+        for ( PagedFileCounters file : files.values() )
+        {
+            sum += file.getPrefetches();
+        }
+        return sum;
+    }
+
+    public long getHits()
+    {
+        long sum = 0;
+        for ( PagedFileCounters file : files.values() )
+        {
+            sum += file.getHits();
+        }
+        return sum;
+    }
+
+    /**
+     * @return the ratio of pins across all files that were hits, between 0 and 1, or 1 if nothing has been pinned.
+     */
+    public double getHitRatio()
+    {
+        long hits = 0;
+        long pins = 0;
+        for ( PagedFileCounters file : files.values() )
+        {
+            hits += file.getHits();
+            pins += file.getPins();
+        }
+        return PagedFileCounters.hitRatio( hits, pins );
+    }
+
+    public long getEvictions()
+    {
+        long sum = 0;
+        for ( PagedFileCounters file : files.values() )
+        {
+            sum += file.getEvictions();
+        }
+        return sum;
+    }
+
+    public long getFlushes()
+    {
+        long sum = 0;
+        for ( PagedFileCounters file : files.values() )
+        {
+            sum += file.getFlushes();
+        }
+        return sum;
+    }
+
+    public long getBytesWritten()
+    {
+        long sum = 0;
+        for ( PagedFileCounters file : files.values() )
+        {
+            sum += file.getBytesWritten();
+        }
+        return sum;
+    }
+
+    /**
+     * The monitor of a single mapped file, counting its events.
+     */
+    private class PagedFileMonitor implements PageCacheMonitor
+    {
+        private final PagedFileCounters counters;
+
+        PagedFileMonitor( PagedFileCounters counters )
+        {
+            this.counters = counters;
+        }
+
+        @Override
+        public void pageFaulted( long filePageId, PageSwapper swapper, long faultNanos )
+        {
+            counters.faulted( faultNanos );
+            delegate.pageFaulted( filePageId, swapper, faultNanos );
+        }
+
+        @Override
+        public void prefetched( long filePageId, PageSwapper swapper, long faultNanos )
+        {
+            counters.prefetched();
+            delegate.prefetched( filePageId, swapper, faultNanos );
+        }
+
+        @Override
+        public void evicted( long filePageId, PageSwapper swapper )
+        {
+            counters.evicted();
+            delegate.evicted( filePageId, swapper );
+        }
+
+        @Override
+        public void pinned( boolean exclusiveLock, long filePageId, PageSwapper swapper )
+        {
+            counters.pinned();
+        }
+
+        @Override
+        public void unpinned( boolean exclusiveLock, long filePageId, PageSwapper swapper )
+        {
+            // Every pin is unpinned, so there is nothing more to learn from counting these
+        }
+
+        @Override
+        public void flushed( long filePageId, PageSwapper swapper, int bytesWritten, long flushNanos )
+        {
+            counters.flushed( bytesWritten, flushNanos );
+            delegate.flushed( filePageId, swapper, bytesWritten, flushNanos );
+        }
+    }
+}
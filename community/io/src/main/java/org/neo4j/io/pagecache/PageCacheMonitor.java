@@ -24,7 +24,12 @@ public interface PageCacheMonitor
     public static final PageCacheMonitor NULL = new PageCacheMonitor()
     {
         @Override
-        public void pageFaulted(long filePageId, PageSwapper swapper)
+        public void pageFaulted(long filePageId, PageSwapper swapper, long faultNanos)
+        {
+        }
+
+        @Override
+        public void prefetched(long filePageId, PageSwapper swapper, long faultNanos)
         {
         }
 
@@ -44,13 +49,19 @@ public interface PageCacheMonitor
         }
 
         @Override
-        public void flushed(long filePageId, PageSwapper swapper)
+        public void flushed(long filePageId, PageSwapper swapper, int bytesWritten, long flushNanos)
         {
         }
     };
 
-    /** A page not in the cache was loaded */
-    void pageFaulted(long filePageId, PageSwapper swapper);
+    /** A page not in the cache was loaded, which took the given number of nanoseconds */
+    void pageFaulted(long filePageId, PageSwapper swapper, long faultNanos);
+
+    /**
+     * A page not in the cache was loaded ahead of a cursor scanning the file, which took the given number of
+     * nanoseconds. Unlike page faults, these loads are not caused by pins.
+     */
+    void prefetched(long filePageId, PageSwapper swapper, long faultNanos);
 
     /** A page was evicted. */
     void evicted(long filePageId, PageSwapper swapper);
@@ -61,6 +72,9 @@ public interface PageCacheMonitor
     /** A page is unpinned */
     void unpinned(boolean exclusiveLock, long filePageId, PageSwapper swapper);
 
-    /** A page is flushed to the mapped file */
-    void flushed(long filePageId, PageSwapper swapper);
+    /**
+     * A page is flushed to the mapped file, writing the given number of bytes. The time is the time it took to
+     * write the page, or the page's share of the time it took to write a run of pages with a single vectored write.
+     */
+    void flushed(long filePageId, PageSwapper swapper, int bytesWritten, long flushNanos);
 }
@@ -47,6 +47,15 @@ public interface PageSwapper
      */
     void write( long filePageId, Page page ) throws IOException;
 
+    /**
+     * Write the contents of the given number of pages from the given array, to consecutive file pages in the
+     * concrete file on the file system, starting at the location indicated by the given startFilePageId.
+     *
+     * This should be implemented using the {@link Page#asByteBuffer(int)} method, and a single vectored
+     * write where possible.
+     */
+    void write( long startFilePageId, Page[] pages, int length ) throws IOException;
+
     /**
      * Notification that a page has been evicted, used to clean up state in structures
      * outside the page table.
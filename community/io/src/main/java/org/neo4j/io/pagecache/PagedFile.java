@@ -53,13 +53,20 @@ public interface PagedFile
     public static final int PF_NO_GROW = 1 << 2;
     /**
      * Read-ahead hint for sequential forward scanning.
+     *
+     * Page cache implementations may use this to load the pages following
+     * the current page in the background, before the cursor gets to them.
+     * Implementations are free to ignore this hint.
      */
-    public static final int PF_READ_AHEAD = 1 << 3; // TBD
+    public static final int PF_READ_AHEAD = 1 << 3;
     /**
      * Do not load in the page if it is not loaded already. Only useful with
      * exclusive locking when you want to overwrite the whole page anyway.
+     *
+     * Pages that are not loaded may then appear to contain only zeros.
+     * This flag is ignored when combined with PF_SHARED_LOCK.
      */
-    public static final int PF_NO_FAULT = 1 << 4; // TBD
+    public static final int PF_NO_FAULT = 1 << 4;
     /**
      * Do not update page access statistics.
      */
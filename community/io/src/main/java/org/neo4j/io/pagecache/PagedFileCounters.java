@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The counters that {@link PageCacheCounters} keeps for a single mapped file.
+ */
+public class PagedFileCounters
+{
+    private final String fileName;
+    private final StripedCounter pins = new StripedCounter();
+    private final AtomicLong faults = new AtomicLong();
+    private final AtomicLong prefetches = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final LatencyHistogram faultLatency = new LatencyHistogram();
+    private final LatencyHistogram flushLatency = new LatencyHistogram();
+
+    PagedFileCounters( String fileName )
+    {
+        this.fileName = fileName;
+    }
+
+    void pinned()
+    {
+        pins.increment();
+    }
+
+    void faulted( long faultNanos )
+    {
+        faults.getAndIncrement();
+        faultLatency.record( faultNanos );
+    }
+
+    void prefetched()
+    {
+        prefetches.getAndIncrement();
+    }
+
+    void evicted()
+    {
+        evictions.getAndIncrement();
+    }
+
+    void flushed( int bytes, long flushNanos )
+    {
+        flushes.getAndIncrement();
+        bytesWritten.getAndAdd( bytes );
+        flushLatency.record( flushNanos );
+    }
+
+    /**
+     * @return the absolute path of the file.
+     */
+    public String getFileName()
+    {
+        return fileName;
+    }
+
+    public long getPins()
+    {
+        return pins.sum();
+    }
+
+    /**
+     * @return the number of pages loaded by pins, not counting the pages that were read ahead.
+     */
+    public long getFaults()
+    {
+        return faults.get();
+    }
+
+    /**
+     * @return the number of pages loaded ahead of a cursor scanning the file.
+     */
+    public long getPrefetches()
+    {
+        return prefetches.get();
+    }
+
+    /**
+     * @return the number of pins that found their page already in the cache. Pages that were read ahead count as
+     * hits when pinned. The counters are read one after the other, so this never goes below zero.
+     */
+    public long getHits()
+    {
+        return Math.max( 0, getPins() - getFaults() );
+    }
+
+    /**
+     * @return the ratio of pins that were hits, between 0 and 1, or 1 if nothing has been pinned yet.
+     */
+    public double getHitRatio()
+    {
+        return hitRatio( getHits(), getPins() );
+    }
+
+    public long getEvictions()
+    {
+        return evictions.get();
+    }
+
+    public long getFlushes()
+    {
+        return flushes.get();
+    }
+
+    public long getBytesWritten()
+    {
+        return bytesWritten.get();
+    }
+
+    public LatencyHistogram getFaultLatency()
+    {
+        return faultLatency;
+    }
+
+    public LatencyHistogram getFlushLatency()
+    {
+        return flushLatency;
+    }
+
+    static double hitRatio( long hits, long pins )
+    {
+        return pins == 0 ? 1.0 : Math.min( 1.0, hits / (double) pins );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PagedFileCounters[" + fileName + ": pins=" + getPins() + ", faults=" + getFaults() +
+               ", prefetches=" + getPrefetches() + ", evictions=" + getEvictions() + ", flushes=" + getFlushes() +
+               ", bytesWritten=" + getBytesWritten() + "]";
+    }
+}
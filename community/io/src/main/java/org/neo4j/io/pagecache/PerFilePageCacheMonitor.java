@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import java.io.File;
+
+/**
+ * A {@link PageCacheMonitor} that keeps state per mapped file. Page caches ask it for a monitor of its own for every
+ * file they map, and report the events of that file to it for as long as the file is mapped, so that the state of
+ * the file is looked up once, rather than on every event.
+ */
+public interface PerFilePageCacheMonitor extends PageCacheMonitor
+{
+    /**
+     * @param file the file being mapped.
+     * @return the monitor to report the events of the given file to.
+     */
+    PageCacheMonitor mappedFile( File file );
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that can be incremented by many threads concurrently without them contending on the same cache line.
+ * Each thread increments a stripe picked by its thread id, and reading the counter sums up all the stripes, so reads
+ * are more expensive than increments, and a read that races with increments is only approximately up to date.
+ */
+class StripedCounter
+{
+    // Spread the stripes 64 bytes apart, so that two stripes never share a cache line.
+    private static final int PADDING = 8;
+    private static final int STRIPES = stripesFor( Runtime.getRuntime().availableProcessors() );
+
+    private final AtomicLongArray cells = new AtomicLongArray( STRIPES * PADDING );
+
+    private static int stripesFor( int processors )
+    {
+        // Twice the number of processors, rounded up to a power of two, makes collisions between threads rare.
+        return Integer.highestOneBit( Math.max( 1, processors * 2 - 1 ) ) << 1;
+    }
+
+    public void increment()
+    {
+        int stripe = (int) (Thread.currentThread().getId() & (STRIPES - 1));
+        cells.getAndIncrement( stripe * PADDING );
+    }
+
+    public long sum()
+    {
+        long sum = 0;
+        for ( int i = 0; i < STRIPES; i++ )
+        {
+            sum += cells.get( i * PADDING );
+        }
+        return sum;
+    }
+}
@@ -21,6 +21,7 @@ package org.neo4j.io.pagecache.impl;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.io.pagecache.Page;
@@ -34,6 +35,8 @@ public class SingleFilePageSwapper implements PageSwapper
     private final StoreChannel channel;
     private final int filePageSize;
     private final PageEvictionCallback onEviction;
+    // Vectored writes go through the position of the channel, so they cannot overlap
+    private final Object positionLock = new Object();
 
     public SingleFilePageSwapper(
             File file,
@@ -64,6 +67,25 @@ public class SingleFilePageSwapper implements PageSwapper
         page.swapOut( channel, offset, filePageSize );
     }
 
+    @Override
+    public void write( long startFilePageId, Page[] pages, int length ) throws IOException
+    {
+        ByteBuffer[] buffers = new ByteBuffer[length];
+        for ( int i = 0; i < length; i++ )
+        {
+            buffers[i] = pages[i].asByteBuffer( filePageSize );
+        }
+        long bytesToWrite = (long) filePageSize * length;
+        synchronized ( positionLock )
+        {
+            channel.position( pageIdToPosition( startFilePageId ) );
+            while ( bytesToWrite > 0 )
+            {
+                bytesToWrite -= channel.write( buffers );
+            }
+        }
+    }
+
     @Override
     public void evicted( long filePageId )
     {
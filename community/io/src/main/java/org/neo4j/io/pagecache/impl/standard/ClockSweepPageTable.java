@@ -62,15 +62,13 @@ public class ClockSweepPageTable implements PageTable, Runnable
     private final AtomicReference<StandardPinnablePage> freeList;
     private final StandardPinnablePage[] pages;
     private final int pageSize;
-    private final PageCacheMonitor monitor;
 
     private volatile Thread sweeperThread;
     private volatile IOException sweeperException;
 
-    public ClockSweepPageTable( int maxPages, int pageSize, PageCacheMonitor monitor )
+    public ClockSweepPageTable( int maxPages, int pageSize )
     {
         this.pageSize = pageSize;
-        this.monitor = monitor;
         freeList = new AtomicReference<>();
         pages = new StandardPinnablePage[maxPages];
 
@@ -84,14 +82,16 @@ public class ClockSweepPageTable implements PageTable, Runnable
     }
 
     @Override
-    public PinnablePage load( PageSwapper io, long pageId, int pf_flags ) throws IOException
+    public PinnablePage load( PageSwapper io, PageCacheMonitor monitor, long pageId, int pf_flags )
+            throws IOException
     {
         StandardPinnablePage page = nextFreePage();
         if ( page.pin( null, UNBOUND_PAGE_ID, pf_flags ) )
         {
-            page.reset( io, pageId );
+            page.reset( io, monitor, pageId );
+            long startNanos = System.nanoTime();
             page.load();
-            monitor.pageFaulted(pageId, io);
+            monitor.pageFaulted( pageId, io, System.nanoTime() - startNanos );
         }
         else
         {
@@ -128,7 +128,7 @@ public class ClockSweepPageTable implements PageTable, Runnable
             page.lock(PagedFile.PF_SHARED_LOCK);
             try
             {
-                page.flush( monitor );
+                page.flush();
             }
             finally
             {
@@ -149,7 +149,7 @@ public class ClockSweepPageTable implements PageTable, Runnable
                 if( page.isBackedBy( io ) )
                 {
                     assertNoSweeperException();
-                    page.flush( monitor );
+                    page.flush();
                 }
             }
             finally
@@ -269,11 +269,12 @@ public class ClockSweepPageTable implements PageTable, Runnable
     {
         long pageId = page.pageId();
         PageSwapper swapper = page.swapper();
+        PageCacheMonitor monitor = page.monitor();
 
-        page.flush( monitor );
+        page.flush();
         page.setAllBytesToZero();
         page.evicted();
-        page.reset( null, UNBOUND_PAGE_ID );
+        page.reset( null, null, UNBOUND_PAGE_ID );
         page.loaded = false;
         do {
             page.next = freeList.get();
@@ -21,6 +21,7 @@ package org.neo4j.io.pagecache.impl.standard;
 
 import java.io.IOException;
 
+import org.neo4j.io.pagecache.PageCacheMonitor;
 import org.neo4j.io.pagecache.PageSwapper;
 
 public interface PageTable
@@ -30,9 +31,10 @@ public interface PageTable
      * pages loaded into the cache, it is up to the callee to ensure pages do not get
      * duplicated into the table.
      *
-     * The page returned is pre-locked with the lock specified in the call.
+     * The page returned is pre-locked with the lock specified in the call. The page faults, flushes and
+     * eviction of the page are reported to the given monitor, the one of the file the page belongs to.
      */
-    PinnablePage load( PageSwapper io, long pageId, int pf_flags ) throws IOException;
+    PinnablePage load( PageSwapper io, PageCacheMonitor monitor, long pageId, int pf_flags ) throws IOException;
 
     /** Flush all dirty pages. */
     void flush() throws IOException;
@@ -28,6 +28,7 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCacheMonitor;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.PerFilePageCacheMonitor;
 import org.neo4j.io.pagecache.RunnablePageCache;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 
@@ -61,7 +62,7 @@ public class StandardPageCache implements RunnablePageCache
     {
         this.swapperFactory = swapperFactory;
         this.monitor = monitor;
-        this.table = new ClockSweepPageTable( maxPages, pageSize, monitor );
+        this.table = new ClockSweepPageTable( maxPages, pageSize );
     }
 
     @Override
@@ -78,7 +79,9 @@ public class StandardPageCache implements RunnablePageCache
         StandardPagedFile pagedFile = pagedFiles.get( file );
         if ( pagedFile == null || !pagedFile.claimReference() )
         {
-            pagedFile = new StandardPagedFile( table, file, swapperFactory, filePageSize, monitor );
+            PageCacheMonitor fileMonitor = monitor instanceof PerFilePageCacheMonitor ?
+                    ((PerFilePageCacheMonitor) monitor).mappedFile( file ) : monitor;
+            pagedFile = new StandardPagedFile( table, file, swapperFactory, filePageSize, fileMonitor );
             pagedFiles.put( file, pagedFile );
         }
 
@@ -55,7 +55,7 @@ public class StandardPagedFile implements PagedFile
      *                     the cache. This value is always smaller than the page size used
      *                     by the cache. The remaining space in the page cache buffers is
      *                     left unused.
-     * @param monitor
+     * @param monitor the monitor of this file.
      */
     StandardPagedFile(
             PageTable table,
@@ -120,7 +120,7 @@ public class StandardPagedFile implements PagedFile
                 CountDownLatch latch = new CountDownLatch( 1 );
                 if ( filePages.replace( pageId, pageRef, latch ) )
                 {
-                    PinnablePage page = table.load( swapper, pageId, pf_flags );
+                    PinnablePage page = table.load( swapper, monitor, pageId, pf_flags );
                     cursor.reset( page, lock );
                     filePages.put( pageId, page );
                     latch.countDown();
@@ -42,6 +42,7 @@ public class StandardPinnablePage extends ByteBufferPage implements PinnablePage
 
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     private PageSwapper swapper;
+    private PageCacheMonitor monitor;
     private long pageId = PageCursor.UNBOUND_PAGE_ID;
     private boolean dirty;
     private int pageSize;
@@ -155,10 +156,11 @@ public class StandardPinnablePage extends ByteBufferPage implements PinnablePage
     /**
      * Must be call under lock
      */
-    void reset( PageSwapper swapper, long pageId )
+    void reset( PageSwapper swapper, PageCacheMonitor monitor, long pageId )
     {
         assertLocked();
         this.swapper = swapper;
+        this.monitor = monitor;
         this.pageId = pageId;
     }
 
@@ -178,14 +180,15 @@ public class StandardPinnablePage extends ByteBufferPage implements PinnablePage
     /**
      * Must be call under lock
      */
-    void flush( PageCacheMonitor monitor ) throws IOException
+    void flush() throws IOException
     {
         assertLocked();
         if ( dirty )
         {
             buffer();
-            monitor.flushed(pageId, swapper);
+            long startNanos = System.nanoTime();
             swapper.write( pageId, this );
+            monitor.flushed( pageId, swapper, pageSize, System.nanoTime() - startNanos );
             dirty = false;
         }
     }
@@ -228,6 +231,15 @@ public class StandardPinnablePage extends ByteBufferPage implements PinnablePage
         return swapper;
     }
 
+    /**
+     * Must be call under lock
+     */
+    PageCacheMonitor monitor()
+    {
+        assertLocked();
+        return monitor;
+    }
+
     /**
      * Must be call under lock
      */
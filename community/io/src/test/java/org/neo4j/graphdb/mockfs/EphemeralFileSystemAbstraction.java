@@ -538,7 +538,12 @@ public class EphemeralFileSystemAbstraction implements FileSystemAbstraction
         public long write( ByteBuffer[] srcs, int offset, int length ) throws IOException
         {
             checkInterrupted();
-            throw new UnsupportedOperationException();
+            long written = 0;
+            for ( int i = offset; i < offset + length; i++ )
+            {
+                written += data.write( this, srcs[i] );
+            }
+            return written;
         }
 
         @Override
@@ -24,6 +24,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class CountingPageCacheMonitor implements PageCacheMonitor
 {
     private final AtomicInteger faults = new AtomicInteger();
+    private final AtomicInteger prefetches = new AtomicInteger();
     private final AtomicInteger evictions = new AtomicInteger();
     private final AtomicInteger pins = new AtomicInteger();
     private final AtomicInteger unpins = new AtomicInteger();
@@ -34,11 +35,17 @@ public class CountingPageCacheMonitor implements PageCacheMonitor
     private final AtomicInteger flushes = new AtomicInteger();
 
     @Override
-    public void pageFaulted(long filePageId, PageSwapper swapper)
+    public void pageFaulted(long filePageId, PageSwapper swapper, long faultNanos)
     {
         faults.getAndIncrement();
     }
 
+    @Override
+    public void prefetched(long filePageId, PageSwapper swapper, long faultNanos)
+    {
+        prefetches.getAndIncrement();
+    }
+
     @Override
     public void evicted(long filePageId, PageSwapper swapper)
     {
@@ -74,7 +81,7 @@ public class CountingPageCacheMonitor implements PageCacheMonitor
     }
 
     @Override
-    public void flushed(long filePageId, PageSwapper swapper)
+    public void flushed(long filePageId, PageSwapper swapper, int bytesWritten, long flushNanos)
     {
         flushes.getAndIncrement();
     }
@@ -84,6 +91,11 @@ public class CountingPageCacheMonitor implements PageCacheMonitor
         return faults.get();
     }
 
+    public int countPrefetches()
+    {
+        return prefetches.get();
+    }
+
     public int countEvictions()
     {
         return evictions.get();
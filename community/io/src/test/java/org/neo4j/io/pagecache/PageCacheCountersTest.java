@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import java.io.File;
+
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+public class PageCacheCountersTest
+{
+    @Test
+    public void shouldCountHitsAsPinsThatDidNotFault() throws Exception
+    {
+        PageCacheCounters counters = new PageCacheCounters();
+        PageCacheMonitor monitor = counters.mappedFile( new File( "a" ) );
+        PageSwapper swapper = mock( PageSwapper.class );
+
+        monitor.pinned( false, 0, swapper );
+        monitor.pageFaulted( 0, swapper, 10 );
+        monitor.pinned( false, 0, swapper );
+        monitor.pinned( true, 0, swapper );
+        monitor.pinned( false, 1, swapper );
+        monitor.pageFaulted( 1, swapper, 10 );
+
+        assertThat( counters.getPins(), is( 4L ) );
+        assertThat( counters.getFaults(), is( 2L ) );
+        assertThat( counters.getHits(), is( 2L ) );
+        assertThat( counters.getHitRatio(), is( 0.5 ) );
+    }
+
+    @Test
+    public void shouldNotCountPrefetchesAsFaults() throws Exception
+    {
+        PageCacheCounters counters = new PageCacheCounters();
+        PageCacheMonitor monitor = counters.mappedFile( new File( "a" ) );
+        PageSwapper swapper = mock( PageSwapper.class );
+
+        monitor.pinned( false, 0, swapper );
+        monitor.pageFaulted( 0, swapper, 10 );
+        monitor.prefetched( 1, swapper, 10 );
+        monitor.prefetched( 2, swapper, 10 );
+        monitor.pinned( false, 1, swapper );
+        monitor.pinned( false, 2, swapper );
+        monitor.pinned( false, 3, swapper );
+        monitor.pageFaulted( 3, swapper, 10 );
+
+        assertThat( counters.getPins(), is( 4L ) );
+        assertThat( counters.getFaults(), is( 2L ) );
+        assertThat( counters.getPrefetches(), is( 2L ) );
+        assertThat( counters.getHits(), is( 2L ) );
+        assertThat( counters.getHitRatio(), is( 0.5 ) );
+    }
+
+    @Test
+    public void shouldKeepSeparateCountersPerFile() throws Exception
+    {
+        PageCacheCounters counters = new PageCacheCounters();
+        File fileA = new File( "a" );
+        File fileB = new File( "b" );
+        PageCacheMonitor a = counters.mappedFile( fileA );
+        PageCacheMonitor b = counters.mappedFile( fileB );
+        PageSwapper swapper = mock( PageSwapper.class );
+
+        a.pinned( false, 0, swapper );
+        b.pinned( false, 0, swapper );
+        b.pageFaulted( 0, swapper, 10 );
+        b.evicted( 0, swapper );
+        a.flushed( 0, swapper, 8192, 10 );
+        a.flushed( 1, swapper, 8192, 10 );
+
+        PagedFileCounters countersA = counters.getFile( fileA );
+        PagedFileCounters countersB = counters.getFile( fileB );
+        assertThat( countersA.getHitRatio(), is( 1.0 ) );
+        assertThat( countersA.getFlushes(), is( 2L ) );
+        assertThat( countersA.getBytesWritten(), is( 16384L ) );
+        assertThat( countersA.getEvictions(), is( 0L ) );
+        assertThat( countersB.getHitRatio(), is( 0.0 ) );
+        assertThat( countersB.getEvictions(), is( 1L ) );
+        assertThat( countersB.getFlushes(), is( 0L ) );
+        assertThat( counters.getFiles().size(), is( 2 ) );
+        assertThat( counters.getBytesWritten(), is( 16384L ) );
+    }
+
+    @Test
+    public void shouldTellFilesWithTheSameNameInDifferentDirectoriesApart() throws Exception
+    {
+        PageCacheCounters counters = new PageCacheCounters();
+        File first = new File( "first", "neostore.nodestore.db" );
+        File second = new File( "second", "neostore.nodestore.db" );
+        PageSwapper swapper = mock( PageSwapper.class );
+
+        counters.mappedFile( first ).pinned( false, 0, swapper );
+        counters.mappedFile( second ).pageFaulted( 0, swapper, 10 );
+
+        assertThat( counters.getFiles().size(), is( 2 ) );
+        assertThat( counters.getFile( first ).getFaults(), is( 0L ) );
+        assertThat( counters.getFile( second ).getFaults(), is( 1L ) );
+        assertThat( counters.getFile( first ).getFileName(), is( first.getAbsolutePath() ) );
+    }
+
+    @Test
+    public void shouldKeepCountingFilesThatAreMappedAgain() throws Exception
+    {
+        PageCacheCounters counters = new PageCacheCounters();
+        File file = new File( "a" );
+        PageSwapper swapper = mock( PageSwapper.class );
+
+        counters.mappedFile( file ).pinned( false, 0, swapper );
+        counters.mappedFile( file.getAbsoluteFile() ).pinned( false, 0, swapper );
+
+        assertThat( counters.getFiles().size(), is( 1 ) );
+        assertThat( counters.getFile( file ).getPins(), is( 2L ) );
+    }
+
+    @Test
+    public void shouldPassEventsOtherThanPinsOnToDelegate() throws Exception
+    {
+        PageCacheMonitor delegate = mock( PageCacheMonitor.class );
+        PageCacheCounters counters = new PageCacheCounters( delegate );
+        PageCacheMonitor monitor = counters.mappedFile( new File( "a" ) );
+        PageSwapper swapper = mock( PageSwapper.class );
+
+        monitor.pinned( false, 1, swapper );
+        monitor.pageFaulted( 1, swapper, 10 );
+        monitor.prefetched( 2, swapper, 10 );
+        monitor.unpinned( false, 1, swapper );
+        monitor.flushed( 1, swapper, 8192, 20 );
+        monitor.evicted( 1, swapper );
+
+        verify( delegate ).pageFaulted( 1, swapper, 10 );
+        verify( delegate ).prefetched( 2, swapper, 10 );
+        verify( delegate ).flushed( 1, swapper, 8192, 20 );
+        verify( delegate ).evicted( 1, swapper );
+        verifyNoMoreInteractions( delegate );
+    }
+
+    @Test
+    public void shouldRecordLatenciesInPowerOfTwoMicrosecondBuckets() throws Exception
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.record( 500 ); // below one microsecond
+        histogram.record( MICROSECONDS.toNanos( 3 ) );
+        histogram.record( MICROSECONDS.toNanos( 3 ) );
+        histogram.record( MILLISECONDS.toNanos( 1 ) ); // 1000 micros are in the [512, 1024) bucket
+
+        long[] distribution = histogram.getDistribution();
+        assertThat( distribution[0], is( 1L ) );
+        assertThat( distribution[2], is( 2L ) );
+        assertThat( distribution[10], is( 1L ) );
+        assertThat( histogram.getCount(), is( 4L ) );
+        assertThat( histogram.getMaxNanos(), is( MILLISECONDS.toNanos( 1 ) ) );
+        assertThat( histogram.getPercentileNanos( 0.75 ), is( MICROSECONDS.toNanos( 4 ) ) );
+        assertThat( histogram.getPercentileNanos( 0.99 ), is( MILLISECONDS.toNanos( 1 ) ) );
+    }
+}
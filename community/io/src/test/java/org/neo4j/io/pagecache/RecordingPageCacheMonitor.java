@@ -32,13 +32,21 @@ public class RecordingPageCacheMonitor implements PageCacheMonitor
     private Matcher<? extends Event> trap;
 
     @Override
-    public void pageFaulted(long filePageId, PageSwapper swapper)
+    public void pageFaulted(long filePageId, PageSwapper swapper, long faultNanos)
     {
         Fault event = new Fault( swapper, filePageId );
         record.add( event );
         trip( event );
     }
 
+    @Override
+    public void prefetched(long filePageId, PageSwapper swapper, long faultNanos)
+    {
+        Prefetch event = new Prefetch( swapper, filePageId );
+        record.add( event );
+        trip( event );
+    }
+
     @Override
     public void evicted(long filePageId, PageSwapper swapper)
     {
@@ -60,7 +68,7 @@ public class RecordingPageCacheMonitor implements PageCacheMonitor
     }
 
     @Override
-    public void flushed(long filePageId, PageSwapper swapper)
+    public void flushed(long filePageId, PageSwapper swapper, int bytesWritten, long flushNanos)
     {
         // we currently do not record these
     }
@@ -168,6 +176,14 @@ public class RecordingPageCacheMonitor implements PageCacheMonitor
         }
     }
 
+    public static class Prefetch extends Event
+    {
+        public Prefetch( PageSwapper io, long pageId )
+        {
+            super( io, pageId );
+        }
+    }
+
     public static class Evict extends Event
     {
         public Evict( PageSwapper io, long pageId )
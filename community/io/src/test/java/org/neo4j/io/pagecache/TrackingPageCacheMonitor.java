@@ -27,7 +27,7 @@ class TrackingPageCacheMonitor implements PageCacheMonitor
     Queue<String> queue = new ConcurrentLinkedQueue<>();
 
     @Override
-    public void pageFaulted(long filePageId, PageSwapper swapper)
+    public void pageFaulted(long filePageId, PageSwapper swapper, long faultNanos)
     {
         queue.offer( threadId() + "fault(" + filePageId + ", " + swapper + ")" );
     }
@@ -37,6 +37,12 @@ class TrackingPageCacheMonitor implements PageCacheMonitor
         return Thread.currentThread().getId() + ": ";
     }
 
+    @Override
+    public void prefetched(long filePageId, PageSwapper swapper, long faultNanos)
+    {
+        queue.offer( threadId() + "prefetched(" + filePageId + ", " + swapper + ")" );
+    }
+
     @Override
     public void evicted(long filePageId, PageSwapper swapper)
     {
@@ -56,7 +62,7 @@ class TrackingPageCacheMonitor implements PageCacheMonitor
     }
 
     @Override
-    public void flushed(long filePageId, PageSwapper swapper)
+    public void flushed(long filePageId, PageSwapper swapper, int bytesWritten, long flushNanos)
     {
         queue.offer( threadId() + "flushed(" + filePageId + ", " + swapper + ")" );
     }
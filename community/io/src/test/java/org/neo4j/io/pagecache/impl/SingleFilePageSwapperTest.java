@@ -30,6 +30,7 @@ import org.junit.Test;
 
 import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.Page;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.impl.standard.ByteBufferPage;
@@ -148,4 +149,47 @@ public class SingleFilePageSwapperTest
 
         assertThat( actual, byteArray( finalData ) );
     }
+
+    @Test
+    public void vectoredWriteMustWritePagesToConsecutiveFilePages() throws IOException
+    {
+        byte[] initialData = new byte[] {
+                // --- page 0:
+                1, 2, 3, 4,
+                // --- page 1:
+                5, 6, 7, 8,
+                // --- page 2:
+                9, 10, 11, 12,
+                // --- page 3:
+                13, 14
+        };
+        byte[] finalData = new byte[] {
+                // --- page 0:
+                1, 2, 3, 4,
+                // --- page 1:
+                8, 7, 6, 5,
+                // --- page 2:
+                12, 11, 10, 9,
+                // --- page 3:
+                13, 14
+        };
+        StoreChannel channel = fs.create( file );
+        channel.writeAll( ByteBuffer.wrap( initialData ) );
+        channel.close();
+
+        Page[] pages = new Page[] {
+                new ByteBufferPage( ByteBuffer.wrap( new byte[] { 8, 7, 6, 5 } ) ),
+                new ByteBufferPage( ByteBuffer.wrap( new byte[] { 12, 11, 10, 9 } ) ),
+                new ByteBufferPage( ByteBuffer.wrap( new byte[] { 0, 0, 0, 0 } ) )
+        };
+
+        PageSwapper swapper = factory.createPageSwapper( file, 4, null );
+        swapper.write( 1, pages, 2 );
+
+        InputStream stream = fs.openAsInputStream( file );
+        byte[] actual = new byte[(int) fs.getFileSize( file )];
+        stream.read( actual );
+
+        assertThat( actual, byteArray( finalData ) );
+    }
 }
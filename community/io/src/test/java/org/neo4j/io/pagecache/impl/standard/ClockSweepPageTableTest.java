@@ -62,7 +62,7 @@ public class ClockSweepPageTableTest
     public void startPageTable()
     {
         monitor = new RecordingPageCacheMonitor();
-        table = new ClockSweepPageTable( 1, TEST_PAGE_SIZE, monitor );
+        table = new ClockSweepPageTable( 1, TEST_PAGE_SIZE );
         sweeperThread = new Thread( table );
         sweeperThread.start();
     }
@@ -80,7 +80,7 @@ public class ClockSweepPageTableTest
         BufferPageSwapper io = new BufferPageSwapper( bytesA );
 
         // When
-        PinnablePage page = table.load( io, 1, PagedFile.PF_EXCLUSIVE_LOCK );
+        PinnablePage page = table.load( io, monitor, 1, PagedFile.PF_EXCLUSIVE_LOCK );
 
         // Then
         byte[] actual = new byte[bytesA.length];
@@ -96,7 +96,7 @@ public class ClockSweepPageTableTest
         ByteBuffer storageBuffer = ByteBuffer.allocate( TEST_PAGE_SIZE );
         BufferPageSwapper io = new BufferPageSwapper( storageBuffer );
 
-        PinnablePage page = table.load( io, 12, PagedFile.PF_EXCLUSIVE_LOCK );
+        PinnablePage page = table.load( io, monitor, 12, PagedFile.PF_EXCLUSIVE_LOCK );
         page.putBytes( bytesA, 0 );
         page.unpin( PagedFile.PF_EXCLUSIVE_LOCK );
 
@@ -110,7 +110,7 @@ public class ClockSweepPageTableTest
                 BufferPageSwapper io = new BufferPageSwapper( ByteBuffer.allocate( 1 ) );
                 try
                 {
-                    table.load( io, 3, PagedFile.PF_SHARED_LOCK );
+                    table.load( io, monitor, 3, PagedFile.PF_SHARED_LOCK );
                 }
                 catch ( IOException e )
                 {
@@ -133,7 +133,7 @@ public class ClockSweepPageTableTest
         BufferPageSwapper io = new BufferPageSwapper( bytesA );
 
         // When
-        PinnablePage page = table.load( io, 12, PagedFile.PF_SHARED_LOCK );
+        PinnablePage page = table.load( io, monitor, 12, PagedFile.PF_SHARED_LOCK );
 
         // Then we should be able to grab another shared lock on it
         assertTrue( page.pin( io, 12, PagedFile.PF_SHARED_LOCK ) );
@@ -146,7 +146,7 @@ public class ClockSweepPageTableTest
         final BufferPageSwapper io = new BufferPageSwapper( bytesA );
 
         // When
-        final PinnablePage page = table.load( io, 12, PagedFile.PF_SHARED_LOCK );
+        final PinnablePage page = table.load( io, monitor, 12, PagedFile.PF_SHARED_LOCK );
 
         // Then we should have to wait for the page to be unpinned if we want an
         // exclusive lock on it.
@@ -176,11 +176,11 @@ public class ClockSweepPageTableTest
     public void loading_with_exclusive_lock_stops_all_others() throws Exception
     {
         // Given
-        ClockSweepPageTable table = new ClockSweepPageTable( 1, TEST_PAGE_SIZE, PageCacheMonitor.NULL );
+        ClockSweepPageTable table = new ClockSweepPageTable( 1, TEST_PAGE_SIZE );
         final BufferPageSwapper io = new BufferPageSwapper( bytesA );
 
         // When
-        final PinnablePage page = table.load( io, 12, PagedFile.PF_EXCLUSIVE_LOCK );
+        final PinnablePage page = table.load( io, PageCacheMonitor.NULL, 12, PagedFile.PF_EXCLUSIVE_LOCK );
 
         // Then we should have to wait for the page to be unpinned if we want an
         // exclusive lock on it.
@@ -212,7 +212,7 @@ public class ClockSweepPageTableTest
         // Given
         BufferPageSwapper io = new BufferPageSwapper( bytesA );
 
-        PinnablePage page = table.load( io, 12, PagedFile.PF_SHARED_LOCK );
+        PinnablePage page = table.load( io, monitor, 12, PagedFile.PF_SHARED_LOCK );
         page.unpin( PagedFile.PF_SHARED_LOCK );
 
         // When
@@ -225,7 +225,7 @@ public class ClockSweepPageTableTest
                 BufferPageSwapper io = new BufferPageSwapper( ByteBuffer.wrap( bytesB ) );
                 try
                 {
-                    table.load( io, 3, PagedFile.PF_SHARED_LOCK ).unpin( PagedFile.PF_SHARED_LOCK );
+                    table.load( io, monitor, 3, PagedFile.PF_SHARED_LOCK ).unpin( PagedFile.PF_SHARED_LOCK );
                 }
                 catch ( IOException e )
                 {
@@ -244,7 +244,7 @@ public class ClockSweepPageTableTest
         // Given
         BufferPageSwapper io = spy(new BufferPageSwapper( bytesA ));
 
-        PinnablePage page = table.load( io, 12, PagedFile.PF_SHARED_LOCK );
+        PinnablePage page = table.load( io, monitor, 12, PagedFile.PF_SHARED_LOCK );
         page.unpin( PagedFile.PF_SHARED_LOCK );
 
         // When
@@ -257,7 +257,7 @@ public class ClockSweepPageTableTest
                 BufferPageSwapper io = new BufferPageSwapper( ByteBuffer.allocate( TEST_PAGE_SIZE ) );
                 try
                 {
-                    table.load( io, 3, PagedFile.PF_SHARED_LOCK ).unpin( PagedFile.PF_SHARED_LOCK );
+                    table.load( io, monitor, 3, PagedFile.PF_SHARED_LOCK ).unpin( PagedFile.PF_SHARED_LOCK );
                 }
                 catch ( IOException e )
                 {
@@ -277,7 +277,7 @@ public class ClockSweepPageTableTest
         // If we load a page ...
         PageSwapper io = new BufferPageSwapper( ByteBuffer.allocate( TEST_PAGE_SIZE ) );
         long pageId = 12;
-        PinnablePage page = table.load( io, pageId, PagedFile.PF_EXCLUSIVE_LOCK );
+        PinnablePage page = table.load( io, monitor, pageId, PagedFile.PF_EXCLUSIVE_LOCK );
         page.unpin( PagedFile.PF_EXCLUSIVE_LOCK );
 
         // ... then we should observe its page fault
@@ -293,7 +293,7 @@ public class ClockSweepPageTableTest
         // If we have a loaded page ...
         PageSwapper io = new BufferPageSwapper( ByteBuffer.allocate( TEST_PAGE_SIZE ) );
         long pageId = 12;
-        PinnablePage page = table.load( io, pageId, PagedFile.PF_EXCLUSIVE_LOCK );
+        PinnablePage page = table.load( io, monitor, pageId, PagedFile.PF_EXCLUSIVE_LOCK );
         monitor.observe( Fault.class );
 
         // ... a page that will take a long time to evict
@@ -327,7 +327,7 @@ public class ClockSweepPageTableTest
         PageSwapper io = new BufferPageSwapper( ByteBuffer.allocate( TEST_PAGE_SIZE ) );
         long pageId = 12;
 
-        PinnablePage page = table.load( io, pageId, PagedFile.PF_EXCLUSIVE_LOCK );
+        PinnablePage page = table.load( io, monitor, pageId, PagedFile.PF_EXCLUSIVE_LOCK );
         monitor.observe( Fault.class );
         page.unpin( PagedFile.PF_EXCLUSIVE_LOCK ); // eviction is now possible
         LockSupport.unpark( sweeperThread );
@@ -416,6 +416,15 @@ public class ClockSweepPageTableTest
             page.swapOut( channel, 0, buffer.limit() );
         }
 
+        @Override
+        public void write( long startFilePageId, Page[] pages, int length ) throws IOException
+        {
+            for ( int i = 0; i < length; i++ )
+            {
+                write( startFilePageId + i, pages[i] );
+            }
+        }
+
         @Override
         public void evicted( long pageId )
         {
@@ -68,7 +68,8 @@ public class StandardPagedFileTest
         long pageId = 12;
         swapper = new SingleFilePageSwapper( null, channel, filePageSize, null );
 
-        when( table.load( swapper, pageId, PagedFile.PF_NO_GROW | PagedFile.PF_SHARED_LOCK ) ).thenReturn( page );
+        when( table.load( swapper, PageCacheMonitor.NULL, pageId, PagedFile.PF_NO_GROW | PagedFile.PF_SHARED_LOCK ) )
+                .thenReturn( page );
         when( page.pin( swapper, pageId, PagedFile.PF_SHARED_LOCK ) ).thenReturn( true );
         when( page.pageId() ).thenReturn( pageId );
         when( channel.size() ).thenReturn( fileSize );
@@ -91,7 +92,7 @@ public class StandardPagedFileTest
     public void shouldUnpinWithCorrectLockType() throws Exception
     {
         // Given
-        when( table.load( swapper, 12, PagedFile.PF_EXCLUSIVE_LOCK ) ).thenReturn( page );
+        when( table.load( swapper, PageCacheMonitor.NULL, 12, PagedFile.PF_EXCLUSIVE_LOCK ) ).thenReturn( page );
         when( page.pin( swapper, 12, PagedFile.PF_EXCLUSIVE_LOCK ) ).thenReturn( true );
         when( page.pageId() ).thenReturn( 12L );
         when( swapper.getLastPageId() ).thenReturn( 512L );
@@ -112,7 +113,7 @@ public class StandardPagedFileTest
     public void shouldThrowIfNoLockSpecified() throws Exception
     {
         // Given
-        when( table.load( swapper, 12, PagedFile.PF_SHARED_LOCK ) ).thenReturn( page );
+        when( table.load( swapper, PageCacheMonitor.NULL, 12, PagedFile.PF_SHARED_LOCK ) ).thenReturn( page );
         when( page.pin( swapper, 12, PagedFile.PF_SHARED_LOCK ) ).thenReturn( true );
 
         StandardPagedFile file = new StandardPagedFile(table, null, swapperFactory, 512, PageCacheMonitor.NULL );
@@ -130,7 +131,7 @@ public class StandardPagedFileTest
     public void shouldThrowIfSpecifyingBothSharedAndExclusiveLock() throws IOException
     {
         // Given
-        when( table.load( swapper, 12, PagedFile.PF_SHARED_LOCK ) ).thenReturn( page );
+        when( table.load( swapper, PageCacheMonitor.NULL, 12, PagedFile.PF_SHARED_LOCK ) ).thenReturn( page );
         when( page.pin( swapper, 12, PagedFile.PF_SHARED_LOCK ) ).thenReturn( true );
 
         StandardPagedFile file = new StandardPagedFile( table, null, swapperFactory, 512, PageCacheMonitor.NULL );
@@ -37,6 +37,7 @@ import org.neo4j.kernel.impl.cache.MonitorGc;
 import static org.neo4j.helpers.Settings.ANY;
 import static org.neo4j.helpers.Settings.BOOLEAN;
 import static org.neo4j.helpers.Settings.BYTES;
+import static org.neo4j.helpers.Settings.DURATION;
 import static org.neo4j.helpers.Settings.FALSE;
 import static org.neo4j.helpers.Settings.INTEGER;
 import static org.neo4j.helpers.Settings.DirectMemoryUsage.directMemoryUsage;
@@ -103,6 +104,11 @@ public abstract class GraphDatabaseSettings
             "value to false will cause Neo4j to fail LOAD CSV queries that import data from the file system")
     public static Setting<Boolean> allow_file_urls = setting( "allow_file_urls", BOOLEAN, TRUE );
 
+    @Description("The amount of memory a single Cypher operator, like a hash join, may use for holding rows. " +
+            "Operators needing more than that spill their rows to temporary files.")
+    public static final Setting<Long> cypher_operator_memory = setting( "cypher_operator_memory", BYTES, "64M",
+            min( 1024L ) );
+
     // Store files
     @Description("The directory where the database files are located.")
     public static final Setting<File> store_dir = setting("store_dir", PATH, NO_DEFAULT );
@@ -148,6 +154,22 @@ public abstract class GraphDatabaseSettings
     @Description("Integer value that sets the maximum number of open lucene index searchers.")
     public static Setting<Integer> lucene_searcher_cache_size = setting("lucene_searcher_cache_size",INTEGER, Integer.toString( Integer.MAX_VALUE ), min( 1 ));
 
+    // Schema index settings
+    @Description( "Enable or disable background sampling of schema indexes. The samples tell the Cypher planner " +
+                  "how selective each index is." )
+    public static final Setting<Boolean> index_background_sampling_enabled =
+            setting( "index_background_sampling_enabled", BOOLEAN, TRUE );
+
+    @Description( "Percentage of the entries of a schema index that need to have been updated since it was " +
+                  "last sampled before it is sampled again in the background." )
+    public static final Setting<Integer> index_sampling_update_percentage =
+            setting( "index_sampling_update_percentage", INTEGER, "5", min( 1 ) );
+
+    @Description( "The number of threads to split the initial population of schema indexes over. Defaults to the " +
+                  "number of available processors." )
+    public static final Setting<Integer> index_population_workers =
+            setting( "index_population_workers", INTEGER, NO_DEFAULT, min( 1 ) );
+
     // NeoStore settings
     @Description("Determines whether any TransactionInterceptors loaded will intercept prepared transactions before " +
             "they reach the logical log.")
@@ -166,6 +188,17 @@ public abstract class GraphDatabaseSettings
                   "Default is 25M" )
     public static final Setting<Long> logical_log_rotation_threshold = setting( "logical_log_rotation_threshold", BYTES, "25M" );
 
+    @Description( "Maximum number of transactions that are written and forced to the logical log together " +
+                  "when many transactions commit concurrently. 1 means that every transaction forces the log " +
+                  "on its own." )
+    public static final Setting<Integer> group_commit_max_batch_size = setting( "group_commit_max_batch_size",
+            INTEGER, "64", min( 1 ) );
+
+    @Description( "Maximum time a committing transaction may wait for other transactions to join its batch " +
+                  "before writing it to the logical log. Trades commit latency for fewer forces of the log. " +
+                  "0ms means that only already waiting transactions will be part of a batch." )
+    public static final Setting<Long> group_commit_max_wait = setting( "group_commit_max_wait", DURATION, "0ms" );
+
     @Description("Use a quick approach for rebuilding the ID generators. This give quicker recovery time, " +
             "but will limit the ability to reuse the space of deleted entities.")
     public static final Setting<Boolean> rebuild_idgenerators_fast = setting("rebuild_idgenerators_fast", BOOLEAN, TRUE );
@@ -283,6 +316,15 @@ public abstract class GraphDatabaseSettings
 
     public static final Setting<Boolean> execution_guard_enabled = setting("execution_guard_enabled", BOOLEAN, FALSE );
 
+    @Description( "Record lock acquisitions, wait times, deadlocks and the most contended resources, exposed " +
+                  "through JMX and the REST management API. Cheap enough to be left enabled in production." )
+    public static final Setting<Boolean> lock_profiling_enabled = setting( "lock_profiling_enabled", BOOLEAN, TRUE );
+
+    @Description( "Minimum time a transaction must wait for a lock for its resource to be tracked as one of the " +
+                  "most contended resources by lock profiling." )
+    public static final Setting<Long> lock_profiling_contention_threshold =
+            setting( "lock_profiling_contention_threshold", DURATION, "1ms" );
+
     @Description("Amount of time in ms the GC monitor thread will wait before taking another measurement.")
     public static final Setting<Long> gc_monitor_interval = MonitorGc.Configuration.gc_monitor_wait_time;
 
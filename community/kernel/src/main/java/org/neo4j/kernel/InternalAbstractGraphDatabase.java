@@ -62,6 +62,7 @@ import org.neo4j.helpers.collection.IteratorUtil;
 import org.neo4j.helpers.collection.ResourceClosingIterator;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCacheCounters;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.kernel.api.KernelAPI;
 import org.neo4j.kernel.api.KernelTransaction;
@@ -130,8 +131,10 @@ import org.neo4j.kernel.impl.coreapi.NodeAutoIndexerImpl;
 import org.neo4j.kernel.impl.coreapi.RelationshipAutoIndexerImpl;
 import org.neo4j.kernel.impl.coreapi.schema.SchemaImpl;
 import org.neo4j.kernel.impl.index.IndexConfigStore;
+import org.neo4j.kernel.impl.locking.LockProfiler;
 import org.neo4j.kernel.impl.locking.LockService;
 import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.locking.ProfilingLocks;
 import org.neo4j.kernel.impl.locking.ResourceTypes;
 import org.neo4j.kernel.impl.locking.community.CommunityLockManger;
 import org.neo4j.kernel.impl.nioneo.store.NeoStore;
@@ -260,6 +263,7 @@ public abstract class InternalAbstractGraphDatabase
     protected KernelHealth kernelHealth;
     protected FileSystemAbstraction fileSystem;
     protected Locks lockManager;
+    protected LockProfiler lockProfiler;
     protected IdGeneratorFactory idGeneratorFactory;
     protected IndexConfigStore indexStore;
     protected TxIdGenerator txIdGenerator;
@@ -474,7 +478,14 @@ public abstract class InternalAbstractGraphDatabase
 
         txIdGenerator = life.add( createTxIdGenerator() );
 
+        lockProfiler = new LockProfiler( ResourceTypes.values(),
+                config.get( GraphDatabaseSettings.lock_profiling_contention_threshold ),
+                LockProfiler.DEFAULT_TRACKED_CONTENDED_RESOURCES );
         lockManager = createLockManager();
+        if ( config.get( GraphDatabaseSettings.lock_profiling_enabled ) )
+        {
+            lockManager = new ProfilingLocks( lockManager, lockProfiler );
+        }
 
         idGeneratorFactory = createIdGeneratorFactory();
 
@@ -1193,6 +1204,10 @@ public abstract class InternalAbstractGraphDatabase
                 // Locks used to ensure pessimistic concurrency control between transactions
                 return type.cast( lockManager );
             }
+            else if ( LockProfiler.class.isAssignableFrom( type ) )
+            {
+                return type.cast( lockProfiler );
+            }
             else if ( LockService.class.isAssignableFrom( type )
                     && type.isInstance( neoDataSource.getLockService() ) )
             {
@@ -1231,6 +1246,10 @@ public abstract class InternalAbstractGraphDatabase
             {
                 return type.cast( pageCache.unwrap() );
             }
+            else if ( PageCacheCounters.class.isAssignableFrom( type ) )
+            {
+                return type.cast( pageCache.getCounters() );
+            }
             else if ( Guard.class.isAssignableFrom( type ) && type.isInstance( guard ) )
             {
                 return type.cast( guard );
@@ -52,6 +52,26 @@ interface DataRead
     PrimitiveLongIterator nodesGetFromIndexLookup( IndexDescriptor index, Object value )
             throws IndexNotFoundKernelException;
 
+    /**
+     * Returns an iterator with the nodes that have values in the given range. The bounds must both be numbers or
+     * both be strings, and a {@code null} bound leaves that end of the range open.
+     *
+     * @throws org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException
+     *          if no such index found.
+     */
+    PrimitiveLongIterator nodesGetFromIndexRangeSeek( IndexDescriptor index, Object lower, boolean includeLower,
+                                                      Object upper, boolean includeUpper )
+            throws IndexNotFoundKernelException;
+
+    /**
+     * Returns an iterator with the nodes that have string values starting with the given prefix.
+     *
+     * @throws org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException
+     *          if no such index found.
+     */
+    PrimitiveLongIterator nodesGetFromIndexPrefixSeek( IndexDescriptor index, String prefix )
+            throws IndexNotFoundKernelException;
+
     /**
      * @return an iterator over all nodes in the database.
      */
@@ -25,6 +25,7 @@ import java.util.Set;
 import org.neo4j.collection.primitive.PrimitiveIntIterator;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.graphdb.Direction;
+import org.neo4j.helpers.Predicate;
 import org.neo4j.kernel.api.constraints.UniquenessConstraint;
 import org.neo4j.kernel.api.exceptions.legacyindex.LegacyIndexNotFoundKernelException;
 import org.neo4j.kernel.api.index.IndexDescriptor;
@@ -240,6 +241,8 @@ public interface TxState
 
     DiffSets<Long> nodesWithChangedProperty( int propertyKeyId, Object value );
 
+    DiffSets<Long> nodesWithChangedPropertyMatching( int propertyKeyId, Predicate<Object> valuePredicate );
+
     boolean relationshipIsAddedInThisTx( long relationshipId );
 
     boolean relationshipIsDeletedInThisTx( long relationshipId );
@@ -25,6 +25,12 @@ public interface StatisticsData
 {
     public static final int RELATIONSHIP_DEGREE_FOR_NODE_WITHOUT_LABEL = -1;
 
+    /** Wildcard label or relationship type for {@link #nodeCount(int)} and {@link #relationshipCount(int, int, int)} */
+    public static final int ANY = -1;
+
+    /** Returned by {@link #indexSelectivity(int, int)} when there is no sample of the index to base it on */
+    public static final double NOT_SAMPLED = -1.0d;
+
     /** Label id -> relative occurrence, value between 0 and 1. The total may be > 1, since labels may co-occur. */
     double labelDistribution(int labelId);
 
@@ -39,4 +45,19 @@ public interface StatisticsData
 
     /** Maximum number of addressable nodes */
     long maxAddressableNodes();
+
+    /** Number of nodes with the given label, or of all nodes for {@link #ANY} */
+    long nodeCount( int labelId );
+
+    /**
+     * Number of relationships of a type from nodes with a start label to nodes with an end label, where each may
+     * be {@link #ANY}. Counts are kept for at most one bound label, with both labels bound this is an estimate.
+     */
+    long relationshipCount( int startLabelId, int relType, int endLabelId );
+
+    /**
+     * Fraction of the nodes with the label that a lookup of a single value in the index on the label and property
+     * key is expected to find, value between 0 and 1, or {@link #NOT_SAMPLED}.
+     */
+    double indexSelectivity( int labelId, int propertyKeyId );
 }
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import org.neo4j.helpers.Predicate;
+
+import static java.lang.String.format;
+
+/**
+ * Predicates matching property values the same way {@link IndexReader#rangeSeek(Object, boolean, Object, boolean)}
+ * and {@link IndexReader#prefixSeek(String)} match indexed values. Used wherever values that are not (yet) in an
+ * index, e.g. those in transaction state, need to be checked against such a seek.
+ *
+ * Numbers are compared by their double value, like they are indexed. Strings are compared lexicographically, and
+ * characters are treated as single character strings. Values of other types never match.
+ */
+public class IndexQueryPredicates
+{
+    private IndexQueryPredicates()
+    {
+    }
+
+    public static Predicate<Object> range( final Object lower, final boolean includeLower,
+                                           final Object upper, final boolean includeUpper )
+    {
+        if ( isNumberOrNull( lower ) && isNumberOrNull( upper ) )
+        {
+            final Double low = lower == null ? null : ((Number) lower).doubleValue();
+            final Double high = upper == null ? null : ((Number) upper).doubleValue();
+            return new Predicate<Object>()
+            {
+                @Override
+                public boolean accept( Object value )
+                {
+                    if ( !(value instanceof Number) )
+                    {
+                        return false;
+                    }
+                    double number = ((Number) value).doubleValue();
+                    return within( Double.compare( number, low == null ? number : low ), includeLower || low == null,
+                            Double.compare( number, high == null ? number : high ), includeUpper || high == null );
+                }
+            };
+        }
+        if ( isStringOrNull( lower ) && isStringOrNull( upper ) )
+        {
+            final String low = (String) lower;
+            final String high = (String) upper;
+            return new Predicate<Object>()
+            {
+                @Override
+                public boolean accept( Object value )
+                {
+                    String string = asString( value );
+                    if ( string == null )
+                    {
+                        return false;
+                    }
+                    return within( low == null ? 0 : string.compareTo( low ), includeLower || low == null,
+                            high == null ? 0 : string.compareTo( high ), includeUpper || high == null );
+                }
+            };
+        }
+        throw new IllegalArgumentException( format(
+                "Range bounds must both be numbers or both be strings, got %s and %s", lower, upper ) );
+    }
+
+    public static Predicate<Object> prefix( final String prefix )
+    {
+        if ( prefix == null )
+        {
+            throw new IllegalArgumentException( "Prefix must not be null" );
+        }
+        return new Predicate<Object>()
+        {
+            @Override
+            public boolean accept( Object value )
+            {
+                String string = asString( value );
+                return string != null && string.startsWith( prefix );
+            }
+        };
+    }
+
+    private static boolean within( int comparedToLower, boolean includeLower,
+                                   int comparedToUpper, boolean includeUpper )
+    {
+        return (includeLower ? comparedToLower >= 0 : comparedToLower > 0) &&
+               (includeUpper ? comparedToUpper <= 0 : comparedToUpper < 0);
+    }
+
+    private static String asString( Object value )
+    {
+        if ( value instanceof String )
+        {
+            return (String) value;
+        }
+        if ( value instanceof Character )
+        {
+            return value.toString();
+        }
+        return null;
+    }
+
+    private static boolean isNumberOrNull( Object bound )
+    {
+        return bound == null || bound instanceof Number;
+    }
+
+    private static boolean isStringOrNull( Object bound )
+    {
+        return bound == null || bound instanceof String;
+    }
+}
@@ -32,6 +32,18 @@ public interface IndexReader extends Resource
 {
     PrimitiveLongIterator lookup( Object value );
 
+    /**
+     * Finds nodes with values in the given range. The bounds must both be {@link Number numbers} or both be
+     * {@link String strings}, and a {@code null} bound leaves that end of the range open.
+     * See {@link IndexQueryPredicates#range(Object, boolean, Object, boolean)} for the exact semantics.
+     */
+    PrimitiveLongIterator rangeSeek( Object lower, boolean includeLower, Object upper, boolean includeUpper );
+
+    /**
+     * Finds nodes with string values starting with the given prefix.
+     */
+    PrimitiveLongIterator prefixSeek( String prefix );
+
     IndexReader EMPTY = new IndexReader()
     {
         @Override
@@ -40,12 +52,31 @@ public interface IndexReader extends Resource
             return PrimitiveLongCollections.emptyIterator();
         }
 
+        @Override
+        public PrimitiveLongIterator rangeSeek( Object lower, boolean includeLower, Object upper,
+                                                boolean includeUpper )
+        {
+            return PrimitiveLongCollections.emptyIterator();
+        }
+
+        @Override
+        public PrimitiveLongIterator prefixSeek( String prefix )
+        {
+            return PrimitiveLongCollections.emptyIterator();
+        }
+
         @Override
         public boolean hasIndexed( long nodeId, Object propertyValue )
         {
             return false;
         }
 
+        @Override
+        public IndexSample sampleIndex()
+        {
+            return IndexSample.EMPTY;
+        }
+
         @Override
         public void close()
         {
@@ -57,4 +88,10 @@ public interface IndexReader extends Resource
      * the case. Returns false otherwise.
      */
     boolean hasIndexed( long nodeId, Object propertyValue );
+
+    /**
+     * Samples the values in the index as seen by this reader. May be expensive for large indexes, and is
+     * therefore done in the background by the {@link org.neo4j.kernel.impl.api.index.IndexingService}.
+     */
+    IndexSample sampleIndex();
 }
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import static java.lang.String.format;
+
+/**
+ * A sample of the values in an index, used to estimate how many nodes a lookup of a single value will find.
+ * The sample may cover only part of the index, in which case {@link #sampleSize()} is less than
+ * {@link #indexSize()}.
+ */
+public final class IndexSample
+{
+    public static final IndexSample EMPTY = new IndexSample( 0, 0, 0 );
+
+    private final long indexSize;
+    private final long uniqueValues;
+    private final long sampleSize;
+
+    public IndexSample( long indexSize, long uniqueValues, long sampleSize )
+    {
+        if ( indexSize < 0 || uniqueValues < 0 || sampleSize < uniqueValues )
+        {
+            throw new IllegalArgumentException(
+                    format( "Invalid sample, index size %d, unique values %d, sample size %d",
+                            indexSize, uniqueValues, sampleSize ) );
+        }
+        this.indexSize = indexSize;
+        this.uniqueValues = uniqueValues;
+        this.sampleSize = sampleSize;
+    }
+
+    /** Number of entries in the index when it was sampled */
+    public long indexSize()
+    {
+        return indexSize;
+    }
+
+    /** Number of distinct values among the sampled entries */
+    public long uniqueValues()
+    {
+        return uniqueValues;
+    }
+
+    /** Number of entries that were sampled */
+    public long sampleSize()
+    {
+        return sampleSize;
+    }
+
+    /**
+     * @return the fraction of the index entries that a lookup of a single value is expected to find,
+     * between 0 and 1, assuming the values are evenly distributed. 1 for an empty sample.
+     */
+    public double uniqueValueSelectivity()
+    {
+        return uniqueValues == 0 ? 1.0d : 1.0d / uniqueValues;
+    }
+
+    @Override
+    public boolean equals( Object obj )
+    {
+        if ( this == obj )
+        {
+            return true;
+        }
+        if ( obj != null && getClass() == obj.getClass() )
+        {
+            IndexSample that = (IndexSample) obj;
+            return indexSize == that.indexSize && uniqueValues == that.uniqueValues &&
+                    sampleSize == that.sampleSize;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = (int) (indexSize ^ (indexSize >>> 32));
+        result = 31 * result + (int) (uniqueValues ^ (uniqueValues >>> 32));
+        result = 31 * result + (int) (sampleSize ^ (sampleSize >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "IndexSample[indexSize:%d, uniqueValues:%d, sampleSize:%d]",
+                indexSize, uniqueValues, sampleSize );
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+/**
+ * An {@link IndexPopulator} which may be {@link #add(long, Object) fed} by several threads at the same time,
+ * each one of them scanning a separate range of the node store. This lifts the single thread guarantee of
+ * {@link IndexPopulator#add(long, Object)}, which lets the initial population of an index be split up over
+ * a pool of workers. All other methods are still called by one thread only, after all workers are done.
+ */
+public interface ParallelIndexPopulator extends IndexPopulator
+{
+}
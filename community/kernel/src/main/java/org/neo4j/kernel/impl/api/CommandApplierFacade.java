@@ -29,6 +29,7 @@ import org.neo4j.kernel.impl.index.IndexCommand.DeleteCommand;
 import org.neo4j.kernel.impl.index.IndexCommand.RemoveCommand;
 import org.neo4j.kernel.impl.index.IndexDefineCommand;
 import org.neo4j.kernel.impl.nioneo.xa.command.Command;
+import org.neo4j.kernel.impl.nioneo.xa.command.Command.CountsCommand;
 import org.neo4j.kernel.impl.nioneo.xa.command.Command.LabelTokenCommand;
 import org.neo4j.kernel.impl.nioneo.xa.command.Command.NeoStoreCommand;
 import org.neo4j.kernel.impl.nioneo.xa.command.Command.NodeCommand;
@@ -113,6 +114,7 @@ public class CommandApplierFacade implements NeoCommandHandler, Visitor<Command,
     @Override
     public boolean visitSchemaRuleCommand( SchemaRuleCommand command ) throws IOException
     {
+        indexApplier.visitSchemaRuleCommand( command );
         return storeApplier.visitSchemaRuleCommand( command );
     }
 
@@ -122,6 +124,12 @@ public class CommandApplierFacade implements NeoCommandHandler, Visitor<Command,
         return storeApplier.visitNeoStoreCommand( command );
     }
 
+    @Override
+    public boolean visitCountsCommand( CountsCommand command ) throws IOException
+    {
+        return storeApplier.visitCountsCommand( command );
+    }
+
     @Override
     public boolean visitLabelTokenCommand( LabelTokenCommand command ) throws IOException
     {
@@ -214,6 +214,24 @@ public class ConstraintEnforcingEntityOperations implements EntityOperations
         return entityReadOperations.nodesGetFromIndexLookup( state, index, value );
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeek( KernelStatement state, IndexDescriptor index,
+                                                             Object lower, boolean includeLower,
+                                                             Object upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        return entityReadOperations.nodesGetFromIndexRangeSeek( state, index, lower, includeLower,
+                upper, includeUpper );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexPrefixSeek( KernelStatement state, IndexDescriptor index,
+                                                              String prefix )
+            throws IndexNotFoundKernelException
+    {
+        return entityReadOperations.nodesGetFromIndexPrefixSeek( state, index, prefix );
+    }
+
     @Override
     public long nodeGetUniqueFromIndexLookup(
             KernelStatement state,
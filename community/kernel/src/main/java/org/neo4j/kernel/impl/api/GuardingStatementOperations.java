@@ -172,6 +172,25 @@ public class GuardingStatementOperations implements
         return entityReadDelegate.nodesGetFromIndexLookup( state, index, value );
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeek( KernelStatement state, IndexDescriptor index,
+                                                             Object lower, boolean includeLower,
+                                                             Object upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        guard.check();
+        return entityReadDelegate.nodesGetFromIndexRangeSeek( state, index, lower, includeLower, upper, includeUpper );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexPrefixSeek( KernelStatement state, IndexDescriptor index,
+                                                              String prefix )
+            throws IndexNotFoundKernelException
+    {
+        guard.check();
+        return entityReadDelegate.nodesGetFromIndexPrefixSeek( state, index, prefix );
+    }
+
     @Override
     public long nodeGetUniqueFromIndexLookup( KernelStatement state, IndexDescriptor index, Object value )
             throws IndexNotFoundKernelException, IndexBrokenKernelException
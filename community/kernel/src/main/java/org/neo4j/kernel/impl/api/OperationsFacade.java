@@ -166,6 +166,24 @@ public class OperationsFacade implements ReadOperations, DataWriteOperations, Sc
         return dataRead().nodesGetFromIndexLookup( statement, index, value );
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeek( IndexDescriptor index, Object lower,
+                                                             boolean includeLower, Object upper,
+                                                             boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        statement.assertOpen();
+        return dataRead().nodesGetFromIndexRangeSeek( statement, index, lower, includeLower, upper, includeUpper );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexPrefixSeek( IndexDescriptor index, String prefix )
+            throws IndexNotFoundKernelException
+    {
+        statement.assertOpen();
+        return dataRead().nodesGetFromIndexPrefixSeek( statement, index, prefix );
+    }
+
     @Override
     public long nodeGetUniqueFromIndexLookup( IndexDescriptor index, Object value )
             throws IndexNotFoundKernelException, IndexBrokenKernelException
@@ -54,6 +54,7 @@ import org.neo4j.kernel.api.exceptions.schema.IndexBrokenKernelException;
 import org.neo4j.kernel.api.exceptions.schema.SchemaRuleNotFoundException;
 import org.neo4j.kernel.api.exceptions.schema.TooManyLabelsException;
 import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexQueryPredicates;
 import org.neo4j.kernel.api.index.InternalIndexState;
 import org.neo4j.kernel.api.properties.DefinedProperty;
 import org.neo4j.kernel.api.properties.Property;
@@ -604,6 +605,29 @@ public class StateHandlingStatementOperations implements
         return changeFilteredMatches;
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeek( KernelStatement state, IndexDescriptor index,
+                                                             Object lower, boolean includeLower,
+                                                             Object upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        // Validates the bounds before going to the index
+        Predicate<Object> inRange = IndexQueryPredicates.range( lower, includeLower, upper, includeUpper );
+        PrimitiveLongIterator committed =
+                storeLayer.nodesGetFromIndexRangeSeek( state, index, lower, includeLower, upper, includeUpper );
+        return filterIndexStateChanges( state, index, inRange, committed );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexPrefixSeek( KernelStatement state, IndexDescriptor index,
+                                                              String prefix )
+            throws IndexNotFoundKernelException
+    {
+        Predicate<Object> hasPrefix = IndexQueryPredicates.prefix( prefix );
+        PrimitiveLongIterator committed = storeLayer.nodesGetFromIndexPrefixSeek( state, index, prefix );
+        return filterIndexStateChanges( state, index, hasPrefix, committed );
+    }
+
     private PrimitiveLongIterator filterExactIndexMatches(
             KernelStatement state,
             IndexDescriptor index,
@@ -659,6 +683,20 @@ public class StateHandlingStatementOperations implements
         return nodeIds;
     }
 
+    private PrimitiveLongIterator filterIndexStateChanges( KernelStatement state, IndexDescriptor index,
+            Predicate<Object> valuePredicate, PrimitiveLongIterator nodeIds )
+    {
+        if ( state.hasTxStateWithChanges() )
+        {
+            DiffSets<Long> labelPropertyChanges = nodesWithLabelAndPropertyDiffSet( state, index, valuePredicate );
+            DiffSets<Long> nodes = state.txState().addedAndRemovedNodes();
+
+            // Apply to actual index seek
+            return nodes.augmentWithRemovals( labelPropertyChanges.augment( nodeIds ) );
+        }
+        return nodeIds;
+    }
+
     @Override
     public Property nodeSetProperty( KernelStatement state, long nodeId, DefinedProperty property )
             throws EntityNotFoundException
@@ -889,20 +927,37 @@ public class StateHandlingStatementOperations implements
     }
 
     private DiffSets<Long> nodesWithLabelAndPropertyDiffSet( KernelStatement state, IndexDescriptor index, Object value )
+    {
+        int propertyKeyId = index.getPropertyKeyId();
+        return nodesWithLabelAndPropertyDiffSet( state, index,
+                state.txState().nodesWithChangedProperty( propertyKeyId, value ),
+                new HasPropertyFilter( state, propertyKeyId, value ) );
+    }
+
+    private DiffSets<Long> nodesWithLabelAndPropertyDiffSet( KernelStatement state, IndexDescriptor index,
+                                                             Predicate<Object> valuePredicate )
+    {
+        int propertyKeyId = index.getPropertyKeyId();
+        return nodesWithLabelAndPropertyDiffSet( state, index,
+                state.txState().nodesWithChangedPropertyMatching( propertyKeyId, valuePredicate ),
+                new HasPropertyMatchingFilter( state, propertyKeyId, valuePredicate ) );
+    }
+
+    private DiffSets<Long> nodesWithLabelAndPropertyDiffSet( KernelStatement state, IndexDescriptor index,
+                                                             DiffSets<Long> changedProperties,
+                                                             Predicate<Long> hasPropertyFilter )
     {
         TxState txState = state.txState();
         int labelId = index.getLabelId();
-        int propertyKeyId = index.getPropertyKeyId();
 
         // Start with nodes where the given property has changed
-        DiffSets<Long> diff = txState.nodesWithChangedProperty( propertyKeyId, value );
+        DiffSets<Long> diff = changedProperties;
 
         // Ensure remaining nodes have the correct label
         HasLabelFilter hasLabel = new HasLabelFilter( state, labelId );
         diff = diff.filter( hasLabel );
 
         // Include newly labeled nodes that already had the correct property
-        HasPropertyFilter hasPropertyFilter = new HasPropertyFilter( state, propertyKeyId, value );
         Iterator<Long> addedNodesWithLabel = txState.nodesWithLabelAdded( labelId ).iterator();
         diff.addAll( filter( hasPropertyFilter, addedNodesWithLabel ) );
 
@@ -944,6 +999,38 @@ public class StateHandlingStatementOperations implements
         }
     }
 
+    private class HasPropertyMatchingFilter implements Predicate<Long>
+    {
+        private final Predicate<Object> valuePredicate;
+        private final int propertyKeyId;
+        private final KernelStatement state;
+
+        public HasPropertyMatchingFilter( KernelStatement state, int propertyKeyId, Predicate<Object> valuePredicate )
+        {
+            this.state = state;
+            this.valuePredicate = valuePredicate;
+            this.propertyKeyId = propertyKeyId;
+        }
+
+        @Override
+        public boolean accept( Long nodeId )
+        {
+            try
+            {
+                if ( state.hasTxStateWithChanges() && state.txState().nodeIsDeletedInThisTx( nodeId ) )
+                {
+                    return false;
+                }
+                Property property = nodeGetProperty( state, nodeId, propertyKeyId );
+                return property.isDefined() && valuePredicate.accept( ((DefinedProperty) property).value() );
+            }
+            catch ( EntityNotFoundException e )
+            {
+                return false;
+            }
+        }
+    }
+
     private class HasLabelFilter implements Predicate<Long>
     {
         private final int labelId;
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.api;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.impl.api.LegacyIndexApplier.ProviderLookup;
@@ -29,8 +30,13 @@ import org.neo4j.kernel.impl.index.IndexConfigStore;
 import org.neo4j.kernel.impl.locking.LockService;
 import org.neo4j.kernel.impl.nioneo.store.NeoStore;
 import org.neo4j.kernel.impl.nioneo.xa.PropertyLoader;
+import org.neo4j.kernel.impl.nioneo.xa.command.Command.NodeCommand;
+import org.neo4j.kernel.impl.nioneo.xa.command.Command.PropertyCommand;
+import org.neo4j.kernel.impl.nioneo.xa.command.Command.SchemaRuleCommand;
+import org.neo4j.kernel.impl.nioneo.xa.command.NeoCommandHandler;
 import org.neo4j.kernel.impl.nioneo.xa.command.NeoTransactionIndexApplier;
 import org.neo4j.kernel.impl.nioneo.xa.command.NeoTransactionStoreApplier;
+import org.neo4j.kernel.impl.transaction.xaframework.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.xaframework.TransactionRepresentation;
 
 public class TransactionRepresentationStoreApplier
@@ -62,15 +68,9 @@ public class TransactionRepresentationStoreApplier
     public void apply( TransactionRepresentation representation, long transactionId, boolean applyRecovered )
             throws IOException
     {
-        NeoTransactionStoreApplier storeApplier = new NeoTransactionStoreApplier(
-                neoStore, indexingService, cacheAccess, lockService, transactionId, applyRecovered );
-        NeoTransactionIndexApplier indexApplier = new NeoTransactionIndexApplier( indexingService,
-                labelScanStore, neoStore.getNodeStore(), neoStore.getPropertyStore(), cacheAccess, propertyLoader );
-        LegacyIndexApplier legacyIndexApplier = new LegacyIndexApplier( indexConfigStore,
-                legacyIndexProviderLookup, applyRecovered );
-
         try ( CommandApplierFacade applier = new CommandApplierFacade(
-                storeApplier, indexApplier, legacyIndexApplier ) )
+                newStoreApplier( transactionId, applyRecovered ), newIndexApplier(),
+                newLegacyIndexApplier( applyRecovered ) ) )
         {
             synchronized ( this )
             {
@@ -78,4 +78,84 @@ public class TransactionRepresentationStoreApplier
             }
         }
     }
+
+    /**
+     * Applies a batch of already committed transactions, f.ex. pulled from a master or read from the log
+     * during recovery. Each transaction is applied to the store in turn, whereas the label scan store and
+     * the schema indexes are updated once for the whole batch.
+     */
+    public void apply( List<CommittedTransactionRepresentation> transactions, boolean applyRecovered )
+            throws IOException
+    {
+        try ( NeoTransactionIndexApplier indexApplier = newIndexApplier() )
+        {
+            for ( CommittedTransactionRepresentation transaction : transactions )
+            {
+                try ( CommandApplierFacade applier = new CommandApplierFacade(
+                        newStoreApplier( transaction.getCommitEntry().getTxId(), applyRecovered ),
+                        new TransactionBoundary( indexApplier ), newLegacyIndexApplier( applyRecovered ) ) )
+                {
+                    synchronized ( this )
+                    {
+                        transaction.getTransactionRepresentation().accept( applier );
+                    }
+                }
+            }
+        }
+    }
+
+    private NeoTransactionStoreApplier newStoreApplier( long transactionId, boolean applyRecovered )
+    {
+        return new NeoTransactionStoreApplier(
+                neoStore, indexingService, cacheAccess, lockService, transactionId, applyRecovered );
+    }
+
+    private NeoTransactionIndexApplier newIndexApplier()
+    {
+        return new NeoTransactionIndexApplier( indexingService,
+                labelScanStore, neoStore.getNodeStore(), neoStore.getPropertyStore(), cacheAccess, propertyLoader );
+    }
+
+    private LegacyIndexApplier newLegacyIndexApplier( boolean applyRecovered )
+    {
+        return new LegacyIndexApplier( indexConfigStore, legacyIndexProviderLookup, applyRecovered );
+    }
+
+    /**
+     * Feeds the commands of one transaction to an index applier spanning a whole batch of transactions,
+     * where closing it only marks the end of that transaction.
+     */
+    private static class TransactionBoundary extends NeoCommandHandler.Adapter
+    {
+        private final NeoTransactionIndexApplier indexApplier;
+
+        TransactionBoundary( NeoTransactionIndexApplier indexApplier )
+        {
+            this.indexApplier = indexApplier;
+        }
+
+        @Override
+        public boolean visitNodeCommand( NodeCommand command ) throws IOException
+        {
+            return indexApplier.visitNodeCommand( command );
+        }
+
+        @Override
+        public boolean visitPropertyCommand( PropertyCommand command ) throws IOException
+        {
+            return indexApplier.visitPropertyCommand( command );
+        }
+
+        @Override
+        public boolean visitSchemaRuleCommand( SchemaRuleCommand command ) throws IOException
+        {
+            return indexApplier.visitSchemaRuleCommand( command );
+        }
+
+        @Override
+        public void close()
+        {
+            indexApplier.transactionApplied();
+        }
+    }
 }
@@ -20,11 +20,17 @@
 package org.neo4j.kernel.impl.api.index;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.kernel.api.exceptions.index.IndexPopulationFailedKernelException;
@@ -33,240 +39,835 @@ import org.neo4j.kernel.api.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexPopulator;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
+import org.neo4j.kernel.api.index.ParallelIndexPopulator;
 import org.neo4j.kernel.api.index.SchemaIndexProvider;
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
 import org.neo4j.kernel.impl.api.UpdateableSchemaState;
+import org.neo4j.kernel.impl.util.JobScheduler;
 import org.neo4j.kernel.impl.util.StringLogger;
 import org.neo4j.kernel.logging.Logging;
 
 import static java.lang.String.format;
 import static java.lang.Thread.currentThread;
 
+import static org.neo4j.helpers.Exceptions.launderedException;
 import static org.neo4j.helpers.FutureAdapter.latchGuardedValue;
 import static org.neo4j.helpers.ValueGetter.NO_VALUE;
+import static org.neo4j.kernel.impl.util.JobScheduler.Group.indexPopulation;
 import static org.neo4j.kernel.impl.api.index.IndexPopulationFailure.failure;
 
 /**
- * Represents one job of initially populating an index over existing data in the database.
- * Scans the store directly.
+ * Represents one job of initially populating one or more indexes over existing data in the database.
+ * Scans the store directly, once, feeding every node to all the indexes interested in it.
+ *
+ * Each index is populated, flipped and failed independently of the others, so a failure or a cancellation
+ * of one index doesn't affect the rest of the indexes populated by the same job.
+ *
+ * If all the indexes have {@link ParallelIndexPopulator parallel populators} and the job is given more than
+ * one worker, the store scan is split up into ranges of node ids, scanned concurrently as separate jobs
+ * on the {@link JobScheduler}.
+ * Updates from concurrent transactions are then applied once all partitions are done, when the indexes flip.
  *
  * @author Mattias Persson
  */
 public class IndexPopulationJob implements Runnable
 {
-    private final IndexStoreView storeView;
-    private final String indexUserDescription;
-
-    // NOTE: unbounded queue expected here
-    private final Queue<NodePropertyUpdate> queue = new ConcurrentLinkedQueue<>();
+    /**
+     * Store scans over fewer nodes than this aren't worth splitting up.
+     */
+    static final long MIN_NODES_PER_PARTITION = 100_000;
 
-    private final IndexDescriptor descriptor;
-    private final FailedIndexProxyFactory failureDelegate;
-    private final IndexPopulator populator;
-    private final FlippableIndexProxy flipper;
+    private final IndexStoreView storeView;
     private final UpdateableSchemaState updateableSchemaState;
     private final StringLogger log;
+    private final JobScheduler scheduler;
+    private final int workers;
+    private final long startDelayMillis;
     private final CountDownLatch doneSignal = new CountDownLatch( 1 );
 
-    private volatile StoreScan<IndexPopulationFailedKernelException> storeScan;
+    private final List<IndexPopulation> populations = new CopyOnWriteArrayList<>();
+    private final List<StoreScan<IndexPopulationFailedKernelException>> storeScans = new CopyOnWriteArrayList<>();
+
     private volatile boolean cancelled;
-    private final SchemaIndexProvider.Descriptor providerDescriptor;
-
-    public IndexPopulationJob(IndexDescriptor descriptor, SchemaIndexProvider.Descriptor providerDescriptor,
-                              String indexUserDescription,
-                              FailedIndexProxyFactory failureDelegateFactory,
-                              IndexPopulator populator, FlippableIndexProxy flipper,
-                              IndexStoreView storeView, UpdateableSchemaState updateableSchemaState,
-                              Logging logging)
+    private boolean started; // guarded by this
+
+    public IndexPopulationJob( IndexStoreView storeView, UpdateableSchemaState updateableSchemaState,
+                               JobScheduler scheduler, int workers, Logging logging )
+    {
+        this( storeView, updateableSchemaState, scheduler, workers, 0, logging );
+    }
+
+    /**
+     * @param scheduler runs the partitions of a split store scan, only needed if {@code workers} is more than one.
+     * @param workers the maximum number of partitions to split the store scan into, if all the indexes
+     * populated by this job allow it.
+     * @param startDelayMillis how long the job waits, once run, before it starts scanning. Indexes created
+     * in the meantime can still be {@link #addPopulation(IndexDescriptor, SchemaIndexProvider.Descriptor, String,
+     * FailedIndexProxyFactory, IndexPopulator, FlippableIndexProxy) added} and share the scan.
+     */
+    public IndexPopulationJob( IndexStoreView storeView, UpdateableSchemaState updateableSchemaState,
+                               JobScheduler scheduler, int workers, long startDelayMillis, Logging logging )
     {
-        this.descriptor = descriptor;
-        this.providerDescriptor = providerDescriptor;
-        this.populator = populator;
-        this.flipper = flipper;
         this.storeView = storeView;
         this.updateableSchemaState = updateableSchemaState;
-        this.indexUserDescription = indexUserDescription;
-        this.failureDelegate = failureDelegateFactory;
+        this.scheduler = scheduler;
+        this.workers = workers;
+        this.startDelayMillis = startDelayMillis;
         this.log = logging.getMessagesLog( getClass() );
     }
 
+    public IndexPopulationJob( IndexDescriptor descriptor, SchemaIndexProvider.Descriptor providerDescriptor,
+                               String indexUserDescription,
+                               FailedIndexProxyFactory failureDelegateFactory,
+                               IndexPopulator populator, FlippableIndexProxy flipper,
+                               IndexStoreView storeView, UpdateableSchemaState updateableSchemaState,
+                               Logging logging )
+    {
+        this( storeView, updateableSchemaState, null, 1, logging );
+        addPopulation( descriptor, providerDescriptor, indexUserDescription, failureDelegateFactory,
+                populator, flipper );
+    }
+
+    /**
+     * Adds an index to be populated by this job, unless the job has already started scanning the store.
+     * The job doesn't start while the caller holds its monitor, so more of the index can be set up
+     * under it once added.
+     *
+     * @return the population of the index, or {@code null} if the job has already started, in which case
+     * the index needs a job of its own.
+     */
+    synchronized IndexPopulation addPopulation( IndexDescriptor descriptor,
+                                                SchemaIndexProvider.Descriptor providerDescriptor,
+                                                String indexUserDescription,
+                                                FailedIndexProxyFactory failureDelegateFactory,
+                                                IndexPopulator populator, FlippableIndexProxy flipper )
+    {
+        if ( started )
+        {
+            return null;
+        }
+        IndexPopulation population = new IndexPopulation( descriptor, providerDescriptor, indexUserDescription,
+                failureDelegateFactory, populator, flipper );
+        populations.add( population );
+        return population;
+    }
+
     @Override
     public void run()
     {
+        awaitStartDelay();
+        List<IndexPopulation> active;
+        synchronized ( this )
+        {
+            started = true;
+            active = new ArrayList<>( populations );
+        }
+
         String oldThreadName = currentThread().getName();
-        currentThread().setName( format( "Index populator on %s [runs on: %s]", indexUserDescription, oldThreadName ) );
-        boolean success = false;
-        Throwable failureCause = null;
+        currentThread().setName( format( "Index populator on %s [runs on: %s]", userDescriptions(), oldThreadName ) );
         try
         {
-            try
+            for ( IndexPopulation population : populations )
             {
-                log.info( format("Index population started: [%s]", indexUserDescription) );
-                log.flush();
-                populator.create();
-
-                indexAllNodes();
-                if ( cancelled )
+                if ( !population.create() )
                 {
-                    // We remain in POPULATING state
-                    return;
+                    active.remove( population );
                 }
-
-                Callable<Void> duringFlip = new Callable<Void>()
-                {
-                    @Override
-                    public Void call() throws Exception
-                    {
-                        populateFromQueueIfAvailable( Long.MAX_VALUE );
-                        populator.close( true );
-                        updateableSchemaState.clear();
-                        return null;
-                    }
-                };
-
-                flipper.flip( duringFlip, failureDelegate );
-                success = true;
-                log.info( format("Index population completed. Index is now online: [%s]", indexUserDescription) );
-                log.flush();
             }
-            catch ( Throwable t )
+
+            indexAllNodes( active );
+            if ( cancelled )
             {
-                // If the cause of index population failure is a conflict in a (unique) index, the conflict is the
-                // failure
-                if ( t instanceof IndexPopulationFailedKernelException )
-                {
-                    Throwable cause = t.getCause();
-                    if ( cause instanceof IndexEntryConflictException )
-                    {
-                        t = cause;
-                    }
-                }
+                // We remain in POPULATING state
+                return;
+            }
 
-                // Index conflicts are expected (for unique indexes) so we don't need to log them.
-                if ( !(t instanceof IndexEntryConflictException) /*TODO: && this is a unique index...*/ )
+            for ( IndexPopulation population : active )
+            {
+                if ( population.verifyDeferredConstraints() )
                 {
-                    log.error( format("Failed to populate index: [%s]", indexUserDescription), t );
-                    log.flush();
+                    population.flip();
                 }
-
-                // Set failure cause to be stored persistently
-                failureCause = t;
-
-                // The flipper will have already flipped to a failed index context here, but
-                // it will not include the cause of failure, so we do another flip to a failed
-                // context that does.
-
-                // The reason for having the flipper transition to the failed index context in the first
-                // place is that we would otherwise introduce a race condition where updates could come
-                // in to the old context, if something failed in the job we send to the flipper.
-                flipper.flipTo( new FailedIndexProxy( descriptor, providerDescriptor, indexUserDescription,
-                                                      populator, failure( t ) ) );
             }
-            finally
+        }
+        catch ( Throwable t )
+        {
+            // The store scan itself failed, which means that none of the remaining indexes can be populated
+            for ( IndexPopulation population : populations )
             {
-                try
-                {
-                    if ( !success )
-                    {
-                        if ( failureCause != null )
-                        {
-                            populator.markAsFailed( failure( failureCause ).asString() );
-                        }
-
-                        populator.close( false );
-                    }
-                }
-                catch ( Throwable e )
-                {
-                    log.error( format("Unable to close failed populator for index: [%s]", indexUserDescription), e );
-                    log.flush();
-                }
+                population.fail( t );
             }
         }
         finally
         {
+            for ( IndexPopulation population : populations )
+            {
+                population.closeIfStillOpen();
+            }
             doneSignal.countDown();
             currentThread().setName( oldThreadName );
         }
     }
 
-    private void indexAllNodes() throws IndexPopulationFailedKernelException
+    private void awaitStartDelay()
     {
-        storeScan = storeView.visitNodesWithPropertyAndLabel( descriptor, new Visitor<NodePropertyUpdate,
-                IndexPopulationFailedKernelException>()
+        if ( startDelayMillis > 0 && !cancelled )
+        {
+            try
+            {
+                Thread.sleep( startDelayMillis );
+            }
+            catch ( InterruptedException e )
+            {
+                currentThread().interrupt();
+            }
+        }
+    }
+
+    private void indexAllNodes( final List<IndexPopulation> active ) throws Exception
+    {
+        if ( active.isEmpty() )
+        {
+            return;
+        }
+
+        int partitions = numberOfPartitions( active );
+        if ( partitions > 1 )
+        {
+            indexAllNodesInPartitions( active, partitions );
+            return;
+        }
+
+        // A scan for a single index only sees the nodes and properties of that index, whereas a shared scan
+        // sees the union of them all, so each update needs to be matched against each index
+        final boolean sharedScan = active.size() > 1;
+        Visitor<NodePropertyUpdate, IndexPopulationFailedKernelException> visitor =
+                new Visitor<NodePropertyUpdate, IndexPopulationFailedKernelException>()
         {
             @Override
-            public boolean visit( NodePropertyUpdate update ) throws IndexPopulationFailedKernelException
+            public boolean visit( NodePropertyUpdate update )
             {
-                try
+                Iterator<IndexPopulation> populationIterator = active.iterator();
+                while ( populationIterator.hasNext() )
                 {
-                    populator.add( update.getNodeId(), update.getValueAfter() );
-                    populateFromQueueIfAvailable( update.getNodeId() );
+                    IndexPopulation population = populationIterator.next();
+                    if ( population.isCancelled() )
+                    {
+                        population.closeIfStillOpen();
+                        populationIterator.remove();
+                    }
+                    else if ( population.isInterestedIn( update, sharedScan ) && !population.add( update ) )
+                    {
+                        populationIterator.remove();
+                    }
                 }
-                catch ( IndexEntryConflictException | IOException conflict )
+                if ( active.isEmpty() )
                 {
-                    throw new IndexPopulationFailedKernelException( descriptor, indexUserDescription, conflict );
+                    stopScans();
                 }
                 return false;
             }
-        });
-        storeScan.run();
-        try
+        };
+
+        StoreScan<IndexPopulationFailedKernelException> storeScan;
+        if ( !sharedScan )
         {
-            populator.verifyDeferredConstraints( storeView );
+            storeScan = storeView.visitNodesWithPropertyAndLabel( active.get( 0 ).descriptor, visitor );
         }
-        catch ( Exception conflict )
+        else
         {
-            throw new IndexPopulationFailedKernelException( descriptor, indexUserDescription, conflict );
+            storeScan = storeView.visitNodes( labelIds( active ), propertyKeyIds( active ), visitor,
+                    new Visitor<NodeLabelUpdate, IndexPopulationFailedKernelException>()
+                    {
+                        @Override
+                        public boolean visit( NodeLabelUpdate element )
+                        {
+                            return false;
+                        }
+                    } );
+        }
+        storeScans.add( storeScan );
+        if ( !cancelled )
+        {
+            storeScan.run();
         }
+        removeCancelled( active );
     }
 
-    private void populateFromQueueIfAvailable( final long highestIndexedNodeId )
-            throws IndexEntryConflictException, IOException
+    private int numberOfPartitions( List<IndexPopulation> active )
     {
-        if ( !queue.isEmpty() )
+        if ( workers <= 1 || scheduler == null )
         {
-            try ( IndexUpdater updater = populator.newPopulatingUpdater( storeView ) )
+            return 1;
+        }
+        for ( IndexPopulation population : active )
+        {
+            if ( !(population.populator instanceof ParallelIndexPopulator) )
             {
-                for ( NodePropertyUpdate update : queue )
-                {
-                    if ( update.getNodeId() <= highestIndexedNodeId )
-                    {
-                        updater.process( update );
-                    }
-                }
+                return 1;
             }
         }
+        long nodes = storeView.nodeHighId();
+        return (int) Math.max( 1, Math.min( workers, nodes / MIN_NODES_PER_PARTITION ) );
     }
 
-    public Future<Void> cancel()
+    /**
+     * Splits the node id space into ranges, one per partition, and has each partition scanned by a separate
+     * worker, feeding the {@link ParallelIndexPopulator populators} concurrently.
+     */
+    private void indexAllNodesInPartitions( List<IndexPopulation> active, int numberOfPartitions ) throws Exception
     {
-        // Stop the population
-        if ( storeScan != null )
+        long highId = storeView.nodeHighId();
+        long partitionSize = (highId + numberOfPartitions - 1) / numberOfPartitions;
+        int[] labelIds = labelIds( active );
+        int[] propertyKeyIds = propertyKeyIds( active );
+        log.info( format( "Index population on %s split into %d partitions of %d nodes each",
+                userDescriptions(), numberOfPartitions, partitionSize ) );
+
+        List<Partition> partitions = new ArrayList<>( numberOfPartitions );
+        for ( int i = 0; i < numberOfPartitions; i++ )
         {
-            cancelled = true;
-            storeScan.stop();
+            long from = i * partitionSize;
+            Partition partition = new Partition( i, numberOfPartitions, from, Math.min( from + partitionSize, highId ),
+                    active );
+            partition.storeScan = storeView.visitNodesInRange( labelIds, propertyKeyIds, partition.fromNodeId,
+                    partition.toNodeId, partition );
+            storeScans.add( partition.storeScan );
+            partitions.add( partition );
+        }
+
+        List<Future<Void>> results = new ArrayList<>( numberOfPartitions );
+        for ( Partition partition : partitions )
+        {
+            FutureTask<Void> result = new FutureTask<>( partition );
+            scheduler.schedule( indexPopulation, result );
+            results.add( result );
+        }
+        for ( Future<Void> result : results )
+        {
+            try
+            {
+                result.get();
+            }
+            catch ( ExecutionException e )
+            {
+                // One partition failing means that the scan is incomplete for all the indexes.
+                // Wait for the other partitions to stop before failing, they still feed the populators.
+                stopScans();
+                awaitAll( results );
+                throw launderedException( Exception.class, e.getCause() );
+            }
+        }
+
+        // Partitions only drop the populations they see fail, the ones failed by other partitions
+        // or cancelled are dropped here
+        Iterator<IndexPopulation> populationIterator = active.iterator();
+        while ( populationIterator.hasNext() )
+        {
+            IndexPopulation population = populationIterator.next();
+            if ( population.isCancelled() )
+            {
+                population.closeIfStillOpen();
+                populationIterator.remove();
+            }
+            else if ( population.isClosed() )
+            {
+                populationIterator.remove();
+            }
+        }
+    }
+
+    private static void awaitAll( List<Future<Void>> results ) throws InterruptedException
+    {
+        for ( Future<Void> result : results )
+        {
+            try
+            {
+                result.get();
+            }
+            catch ( ExecutionException e )
+            {
+                // Already failing because of the first failed partition
+            }
         }
+    }
+
+    private void stopScans()
+    {
+        for ( StoreScan<IndexPopulationFailedKernelException> scan : storeScans )
+        {
+            scan.stop();
+        }
+    }
 
+    private void removeCancelled( List<IndexPopulation> active )
+    {
+        Iterator<IndexPopulation> populationIterator = active.iterator();
+        while ( populationIterator.hasNext() )
+        {
+            IndexPopulation population = populationIterator.next();
+            if ( population.isCancelled() )
+            {
+                population.closeIfStillOpen();
+                populationIterator.remove();
+            }
+        }
+    }
+
+    private static int[] labelIds( List<IndexPopulation> populations )
+    {
+        int[] labelIds = new int[populations.size()];
+        for ( int i = 0; i < labelIds.length; i++ )
+        {
+            labelIds[i] = populations.get( i ).descriptor.getLabelId();
+        }
+        return labelIds;
+    }
+
+    private static int[] propertyKeyIds( List<IndexPopulation> populations )
+    {
+        int[] propertyKeyIds = new int[populations.size()];
+        for ( int i = 0; i < propertyKeyIds.length; i++ )
+        {
+            propertyKeyIds[i] = populations.get( i ).descriptor.getPropertyKeyId();
+        }
+        return propertyKeyIds;
+    }
+
+    /**
+     * Cancels the population of all indexes in this job.
+     */
+    public Future<Void> cancel()
+    {
+        for ( IndexPopulation population : populations )
+        {
+            population.cancelled = true;
+        }
+        stopScanIfAllCancelled();
         return latchGuardedValue( NO_VALUE, doneSignal );
     }
 
+    private void stopScanIfAllCancelled()
+    {
+        for ( IndexPopulation population : populations )
+        {
+            if ( !population.isCancelled() )
+            {
+                return;
+            }
+        }
+
+        // Stop the population
+        cancelled = true;
+        stopScans();
+    }
+
     /**
      * A transaction happened that produced the given updates. Let this job incorporate its data,
-     * feeding it to the {@link IndexPopulator}.
+     * feeding it to the {@link IndexPopulator populators} of the indexes it concerns.
      */
     public void update( NodePropertyUpdate update )
     {
-        queue.add( update );
+        for ( IndexPopulation population : populations )
+        {
+            if ( population.concerns( update ) )
+            {
+                population.update( update );
+            }
+        }
+    }
+
+    private String userDescriptions()
+    {
+        StringBuilder descriptions = new StringBuilder();
+        for ( IndexPopulation population : populations )
+        {
+            descriptions.append( descriptions.length() == 0 ? "" : ", " ).append( population.indexUserDescription );
+        }
+        return descriptions.toString();
     }
 
     @Override
     public String toString()
     {
-        return getClass().getSimpleName() + "[populator:" + populator + ", descriptor:" + indexUserDescription + "]";
+        StringBuilder builder = new StringBuilder( getClass().getSimpleName() ).append( "[" );
+        for ( IndexPopulation population : populations )
+        {
+            builder.append( population.toString() );
+        }
+        return builder.append( "]" ).toString();
     }
 
     public void awaitCompletion() throws InterruptedException
     {
         doneSignal.await();
     }
+
+    /**
+     * One range of node ids in a partitioned store scan. Each partition feeds the populations it still considers
+     * active, and reports its progress when done.
+     */
+    private class Partition implements Callable<Void>, Visitor<NodePropertyUpdate, IndexPopulationFailedKernelException>
+    {
+        private final int number;
+        private final int numberOfPartitions;
+        private final long fromNodeId;
+        private final long toNodeId;
+        private final List<IndexPopulation> active;
+        private StoreScan<IndexPopulationFailedKernelException> storeScan;
+        private long entries;
+
+        Partition( int number, int numberOfPartitions, long fromNodeId, long toNodeId, List<IndexPopulation> active )
+        {
+            this.number = number;
+            this.numberOfPartitions = numberOfPartitions;
+            this.fromNodeId = fromNodeId;
+            this.toNodeId = toNodeId;
+            this.active = new ArrayList<>( active );
+        }
+
+        @Override
+        public Void call() throws IndexPopulationFailedKernelException
+        {
+            if ( !cancelled )
+            {
+                storeScan.run();
+            }
+            log.info( format( "Index population partition %d/%d %s of nodes [%d-%d) on %s, %d entries added",
+                    number + 1, numberOfPartitions, cancelled ? "cancelled" : "completed", fromNodeId, toNodeId,
+                    userDescriptions(), entries ) );
+            return null;
+        }
+
+        @Override
+        public boolean visit( NodePropertyUpdate update )
+        {
+            Iterator<IndexPopulation> populationIterator = active.iterator();
+            while ( populationIterator.hasNext() )
+            {
+                IndexPopulation population = populationIterator.next();
+                if ( population.isCancelled() || population.isClosed() )
+                {
+                    // Closed by the job thread, or failed by another partition
+                    populationIterator.remove();
+                }
+                else if ( population.isInterestedIn( update, true ) )
+                {
+                    if ( population.addConcurrently( update ) )
+                    {
+                        entries++;
+                    }
+                    else
+                    {
+                        populationIterator.remove();
+                    }
+                }
+            }
+            if ( active.isEmpty() )
+            {
+                storeScan.stop();
+            }
+            return false;
+        }
+
+        @Override
+        public String toString()
+        {
+            return format( "Partition[%d/%d, nodes:[%d-%d), entries:%d]", number + 1, numberOfPartitions,
+                    fromNodeId, toNodeId, entries );
+        }
+    }
+
+    /**
+     * The population of one of the indexes in an {@link IndexPopulationJob}. All methods apart from
+     * {@link #update(NodePropertyUpdate)}, {@link #cancel()} and {@link #awaitCompletion()} are called
+     * by the thread running the job.
+     */
+    class IndexPopulation
+    {
+        private final IndexDescriptor descriptor;
+        private final SchemaIndexProvider.Descriptor providerDescriptor;
+        private final String indexUserDescription;
+        private final FailedIndexProxyFactory failureDelegate;
+        private final IndexPopulator populator;
+        private final FlippableIndexProxy flipper;
+        private final CountDownLatch doneSignal = new CountDownLatch( 1 );
+
+        // NOTE: unbounded queue expected here
+        private final Queue<NodePropertyUpdate> queue = new ConcurrentLinkedQueue<>();
+
+        private volatile boolean cancelled;
+        private volatile boolean closed;
+
+        IndexPopulation( IndexDescriptor descriptor, SchemaIndexProvider.Descriptor providerDescriptor,
+                         String indexUserDescription, FailedIndexProxyFactory failureDelegate,
+                         IndexPopulator populator, FlippableIndexProxy flipper )
+        {
+            this.descriptor = descriptor;
+            this.providerDescriptor = providerDescriptor;
+            this.indexUserDescription = indexUserDescription;
+            this.failureDelegate = failureDelegate;
+            this.populator = populator;
+            this.flipper = flipper;
+        }
+
+        boolean create()
+        {
+            try
+            {
+                log.info( format( "Index population started: [%s]", indexUserDescription ) );
+                log.flush();
+                populator.create();
+                return !isCancelled();
+            }
+            catch ( Throwable t )
+            {
+                fail( t );
+                return false;
+            }
+        }
+
+        boolean isInterestedIn( NodePropertyUpdate update, boolean sharedScan )
+        {
+            return !sharedScan || update.getPropertyKeyId() == descriptor.getPropertyKeyId() &&
+                   update.forLabel( descriptor.getLabelId() );
+        }
+
+        boolean concerns( NodePropertyUpdate update )
+        {
+            if ( update.getPropertyKeyId() != descriptor.getPropertyKeyId() )
+            {
+                return false;
+            }
+            int labelId = descriptor.getLabelId();
+            for ( int i = 0; i < update.getNumberOfLabelsBefore(); i++ )
+            {
+                if ( update.getLabelBefore( i ) == labelId )
+                {
+                    return true;
+                }
+            }
+            for ( int i = 0; i < update.getNumberOfLabelsAfter(); i++ )
+            {
+                if ( update.getLabelAfter( i ) == labelId )
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return {@code false} if this population failed and should receive no more updates.
+         */
+        boolean add( NodePropertyUpdate update )
+        {
+            try
+            {
+                populator.add( update.getNodeId(), update.getValueAfter() );
+                populateFromQueueIfAvailable( update.getNodeId() );
+                return true;
+            }
+            catch ( Throwable t )
+            {
+                fail( new IndexPopulationFailedKernelException( descriptor, indexUserDescription, t ) );
+                return false;
+            }
+        }
+
+        /**
+         * Like {@link #add(NodePropertyUpdate)}, but called by several partitions at the same time. Queued
+         * updates are left for the {@link #flip() flip}, since the partitions don't advance in node id order.
+         *
+         * @return {@code false} if this population failed and should receive no more updates.
+         */
+        boolean addConcurrently( NodePropertyUpdate update )
+        {
+            try
+            {
+                populator.add( update.getNodeId(), update.getValueAfter() );
+                return true;
+            }
+            catch ( Throwable t )
+            {
+                fail( new IndexPopulationFailedKernelException( descriptor, indexUserDescription, t ) );
+                return false;
+            }
+        }
+
+        boolean verifyDeferredConstraints()
+        {
+            try
+            {
+                populator.verifyDeferredConstraints( storeView );
+                return true;
+            }
+            catch ( Throwable t )
+            {
+                fail( new IndexPopulationFailedKernelException( descriptor, indexUserDescription, t ) );
+                return false;
+            }
+        }
+
+        void flip()
+        {
+            try
+            {
+                Callable<Void> duringFlip = new Callable<Void>()
+                {
+                    @Override
+                    public Void call() throws Exception
+                    {
+                        populateFromQueueIfAvailable( Long.MAX_VALUE );
+                        populator.close( true );
+                        updateableSchemaState.clear();
+                        return null;
+                    }
+                };
+
+                flipper.flip( duringFlip, failureDelegate );
+                markClosed();
+                log.info( format( "Index population completed. Index is now online: [%s]", indexUserDescription ) );
+                log.flush();
+            }
+            catch ( Throwable t )
+            {
+                fail( t );
+            }
+        }
+
+        synchronized void fail( Throwable t )
+        {
+            if ( closed )
+            {
+                return;
+            }
+
+            // If the cause of index population failure is a conflict in a (unique) index, the conflict is the
+            // failure
+            if ( t instanceof IndexPopulationFailedKernelException )
+            {
+                Throwable cause = t.getCause();
+                if ( cause instanceof IndexEntryConflictException )
+                {
+                    t = cause;
+                }
+            }
+
+            // Index conflicts are expected (for unique indexes) so we don't need to log them.
+            if ( !(t instanceof IndexEntryConflictException) /*TODO: && this is a unique index...*/ )
+            {
+                log.error( format( "Failed to populate index: [%s]", indexUserDescription ), t );
+                log.flush();
+            }
+
+            // The flipper will have already flipped to a failed index context here, but
+            // it will not include the cause of failure, so we do another flip to a failed
+            // context that does.
+
+            // The reason for having the flipper transition to the failed index context in the first
+            // place is that we would otherwise introduce a race condition where updates could come
+            // in to the old context, if something failed in the job we send to the flipper.
+            flipper.flipTo( new FailedIndexProxy( descriptor, providerDescriptor, indexUserDescription,
+                                                  populator, failure( t ) ) );
+
+            try
+            {
+                // Set failure cause to be stored persistently
+                populator.markAsFailed( failure( t ).asString() );
+            }
+            catch ( Throwable e )
+            {
+                log.error( format( "Unable to mark index as failed: [%s]", indexUserDescription ), e );
+                log.flush();
+            }
+            closeIfStillOpen();
+        }
+
+        synchronized void closeIfStillOpen()
+        {
+            if ( closed )
+            {
+                return;
+            }
+            try
+            {
+                populator.close( false );
+            }
+            catch ( Throwable e )
+            {
+                log.error( format( "Unable to close failed populator for index: [%s]", indexUserDescription ), e );
+                log.flush();
+            }
+            finally
+            {
+                markClosed();
+            }
+        }
+
+        private void markClosed()
+        {
+            closed = true;
+            doneSignal.countDown();
+        }
+
+        private void populateFromQueueIfAvailable( final long highestIndexedNodeId )
+                throws IndexEntryConflictException, IOException
+        {
+            if ( !queue.isEmpty() )
+            {
+                try ( IndexUpdater updater = populator.newPopulatingUpdater( storeView ) )
+                {
+                    for ( NodePropertyUpdate update : queue )
+                    {
+                        if ( update.getNodeId() <= highestIndexedNodeId )
+                        {
+                            updater.process( update );
+                        }
+                    }
+                }
+            }
+        }
+
+        boolean isCancelled()
+        {
+            return cancelled;
+        }
+
+        boolean isClosed()
+        {
+            return closed;
+        }
+
+        /**
+         * Cancels the population of this index only. The other indexes in the job continue to be populated,
+         * unless this was the last one.
+         */
+        Future<Void> cancel()
+        {
+            cancelled = true;
+            stopScanIfAllCancelled();
+            return latchGuardedValue( NO_VALUE, doneSignal );
+        }
+
+        /**
+         * A transaction happened that produced the given update. Let this population incorporate its data,
+         * feeding it to the {@link IndexPopulator}.
+         */
+        void update( NodePropertyUpdate update )
+        {
+            queue.add( update );
+        }
+
+        void awaitCompletion() throws InterruptedException
+        {
+            doneSignal.await();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "[populator:" + populator + ", descriptor:" + indexUserDescription + "]";
+        }
+    }
 }
@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
+import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexReader;
+import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.InternalIndexState;
+import org.neo4j.kernel.impl.util.StringLogger;
+
+/**
+ * Keeps the latest {@link IndexSample sample} of each online index, together with the number of updates applied
+ * to the index since it was sampled. Indexes without a sample, or with more updates than the configured
+ * percentage of their size, are sampled again when {@link #sampleIndexes(Iterable, boolean)} runs, which the
+ * {@link IndexingService} schedules in the background.
+ */
+public class IndexSamplingController
+{
+    private final ConcurrentMap<IndexDescriptor, IndexSample> samples = new ConcurrentHashMap<>();
+    private final ConcurrentMap<IndexDescriptor, AtomicLong> updates = new ConcurrentHashMap<>();
+    private final boolean backgroundSampling;
+    private final int updatePercentage;
+    private final StringLogger logger;
+
+    public IndexSamplingController( boolean backgroundSampling, int updatePercentage, StringLogger logger )
+    {
+        this.backgroundSampling = backgroundSampling;
+        this.updatePercentage = updatePercentage;
+        this.logger = logger;
+    }
+
+    public boolean isBackgroundSamplingEnabled()
+    {
+        return backgroundSampling;
+    }
+
+    /**
+     * Called for every update applied to an index. Must be cheap, since it's on the commit path.
+     * Only indexes that have been sampled are counted, so that updates racing with the index being
+     * {@link #forget(IndexDescriptor) forgotten} don't leave a counter behind. Indexes without a sample
+     * are sampled regardless of their updates anyway.
+     */
+    public void updated( IndexDescriptor descriptor )
+    {
+        AtomicLong counter = updates.get( descriptor );
+        if ( counter != null )
+        {
+            counter.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return the latest sample of the index, or {@code null} if it hasn't been sampled yet.
+     */
+    public IndexSample sample( IndexDescriptor descriptor )
+    {
+        return samples.get( descriptor );
+    }
+
+    public long updatesSinceSample( IndexDescriptor descriptor )
+    {
+        AtomicLong counter = updates.get( descriptor );
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * Samples the online indexes among the given ones that need it, or all of them if {@code force} is set.
+     * Sampling runs one index at a time, using a reader that sees a consistent view of the index.
+     */
+    public synchronized void sampleIndexes( Iterable<IndexProxy> indexes, boolean force )
+    {
+        for ( IndexProxy index : indexes )
+        {
+            IndexDescriptor descriptor = index.getDescriptor();
+            if ( index.getState() != InternalIndexState.ONLINE || !(force || needsSampling( descriptor )) )
+            {
+                continue;
+            }
+
+            long updatesBeforeSampling = updatesSinceSample( descriptor );
+            try ( IndexReader reader = index.newReader() )
+            {
+                samples.put( descriptor, reader.sampleIndex() );
+            }
+            catch ( IndexNotFoundKernelException | RuntimeException e )
+            {
+                // The index may have been dropped or closed while we were looking at it, try again next time
+                logger.debug( "Unable to sample index " + descriptor, e );
+                continue;
+            }
+            // Updates that happened while sampling may or may not be part of the sample, count them as not
+            updateCounter( descriptor ).addAndGet( -updatesBeforeSampling );
+        }
+    }
+
+    public void forget( IndexDescriptor descriptor )
+    {
+        samples.remove( descriptor );
+        updates.remove( descriptor );
+    }
+
+    private boolean needsSampling( IndexDescriptor descriptor )
+    {
+        IndexSample sample = samples.get( descriptor );
+        if ( sample == null )
+        {
+            return true;
+        }
+        long threshold = Math.max( 1, sample.indexSize() * updatePercentage / 100 );
+        return updatesSinceSample( descriptor ) >= threshold;
+    }
+
+    private AtomicLong updateCounter( IndexDescriptor descriptor )
+    {
+        AtomicLong counter = updates.get( descriptor );
+        if ( counter == null )
+        {
+            AtomicLong existing = updates.putIfAbsent( descriptor, counter = new AtomicLong() );
+            if ( existing != null )
+            {
+                counter = existing;
+            }
+        }
+        return counter;
+    }
+}
@@ -46,5 +46,20 @@ public interface IndexStoreView extends PropertyAccessor
             Visitor<NodePropertyUpdate, FAILURE> propertyUpdateVisitor,
             Visitor<NodeLabelUpdate, FAILURE> labelUpdateVisitor );
 
+    /**
+     * Retrieve the nodes with ids in the range {@code [fromNodeId, toNodeId)} which has got one or more of
+     * the given labels AND one or more of the given property key ids. Scans over separate ranges may run
+     * concurrently.
+     *
+     * @return a {@link StoreScan} to start and to stop the scan.
+     */
+    <FAILURE extends Exception> StoreScan<FAILURE> visitNodesInRange( int[] labelIds, int[] propertyKeyIds,
+            long fromNodeId, long toNodeId, Visitor<NodePropertyUpdate, FAILURE> propertyUpdateVisitor );
+
+    /**
+     * @return the exclusive upper bound of the node ids currently in the store.
+     */
+    long nodeHighId();
+
     Iterable<NodePropertyUpdate> nodeAsUpdates( long nodeId );
 }
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Future;
@@ -42,6 +43,7 @@ import org.neo4j.kernel.api.index.IndexConfiguration;
 import org.neo4j.kernel.api.index.IndexDescriptor;
 import org.neo4j.kernel.api.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.IndexSample;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.InternalIndexState;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
@@ -57,10 +59,12 @@ import org.neo4j.kernel.logging.Logging;
 
 import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 import static org.neo4j.helpers.Exceptions.launderedException;
 import static org.neo4j.helpers.collection.Iterables.concatResourceIterators;
 import static org.neo4j.kernel.impl.api.index.IndexPopulationFailure.failure;
+import static org.neo4j.kernel.impl.util.JobScheduler.Group.indexPopulation;
 
 /**
  * Manages the indexes that were introduced in 2.0. These indexes depend on the normal neo4j logical log for
@@ -76,9 +80,18 @@ import static org.neo4j.kernel.impl.api.index.IndexPopulationFailure.failure;
  * <p/>
  * If, however, it is {@link org.neo4j.kernel.api.index.InternalIndexState#ONLINE}, the index provider is required to
  * also guarantee that the index had been flushed to disk.
+ * <p/>
+ * <h3>Sampling</h3>
+ * <p/>
+ * Online indexes are sampled in the background by the {@link IndexSamplingController}, to tell the planner how
+ * selective they are. An index is sampled when it comes online, and again when enough of it has been updated.
  */
 public class IndexingService extends LifecycleAdapter
 {
+    private static final long BACKGROUND_SAMPLING_INTERVAL_SECONDS = 10;
+    // Indexes created within this time of each other are populated in one scan over the store
+    private static final long POPULATION_START_DELAY_MILLIS = 50;
+
     private final IndexMapReference indexMapReference = new IndexMapReference();
 
     private final JobScheduler scheduler;
@@ -91,6 +104,10 @@ public class IndexingService extends LifecycleAdapter
     private final UpdateableSchemaState updateableSchemaState;
     private final Set<Long> recoveredNodeIds = new HashSet<>();
     private final Monitor monitor;
+    private final IndexSamplingController samplingController;
+    private final int populationWorkers;
+    private volatile JobScheduler.JobHandle samplingJob;
+    private IndexPopulationJob pendingPopulationJob; // guarded by this
 
     enum State
     {
@@ -133,7 +150,9 @@ public class IndexingService extends LifecycleAdapter
                             TokenNameLookup tokenNameLookup,
                             UpdateableSchemaState updateableSchemaState,
                             Iterable<IndexRule> indexRules,
-                            Logging logging, Monitor monitor )
+                            Logging logging, Monitor monitor,
+                            IndexSamplingController samplingController,
+                            int populationWorkers )
     {
         this.scheduler = scheduler;
         this.providerMap = providerMap;
@@ -141,6 +160,8 @@ public class IndexingService extends LifecycleAdapter
         this.indexRules = indexRules;
         this.logging = logging;
         this.monitor = monitor;
+        this.samplingController = samplingController;
+        this.populationWorkers = populationWorkers;
         this.logger = logging.getMessagesLog( getClass() );
         this.updateableSchemaState = updateableSchemaState;
         this.tokenNameLookup = tokenNameLookup;
@@ -240,7 +261,8 @@ public class IndexingService extends LifecycleAdapter
         // Drop placeholder proxies for indexes that need to be rebuilt
         dropRecoveringIndexes( indexMap, rebuildingDescriptors );
 
-        // Rebuild indexes by recreating and repopulating them
+        // Rebuild indexes by recreating and repopulating them, all in one scan over the store
+        IndexPopulationJob populationJob = newIndexPopulationJob( 0 );
         for ( Map.Entry<Long, Pair<IndexDescriptor, SchemaIndexProvider.Descriptor>> entry :
                 rebuildingDescriptors.entrySet() )
         {
@@ -255,22 +277,61 @@ public class IndexingService extends LifecycleAdapter
              * be in a state where they didn't finish populating, and despite the fact that we re-create them here,
              * they will get dropped as soon as recovery is completed by the constraint system.
              */
-            IndexProxy indexProxy =
-                createAndStartPopulatingIndexProxy( indexId, indexDescriptor, providerDescriptor, false );
+            IndexProxy indexProxy = createAndStartPopulatingIndexProxy( populationJob, indexId, indexDescriptor,
+                    providerDescriptor, false );
             indexMap.putIndexProxy( indexId, indexProxy );
         }
 
         indexMapReference.setIndexMap( indexMap );
+        if ( !rebuildingDescriptors.isEmpty() )
+        {
+            scheduler.schedule( indexPopulation, populationJob );
+        }
         state = State.RUNNING;
+
+        if ( samplingController.isBackgroundSamplingEnabled() )
+        {
+            samplingJob = scheduler.scheduleRecurring( JobScheduler.Group.indexSampling, new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    samplingController.sampleIndexes( indexMapReference.getAllIndexProxies(), false );
+                }
+            }, BACKGROUND_SAMPLING_INTERVAL_SECONDS, SECONDS );
+        }
     }
 
     @Override
     public void stop()
     {
         state = State.STOPPED;
+        JobScheduler.JobHandle job = samplingJob;
+        if ( job != null )
+        {
+            job.cancel( false );
+            samplingJob = null;
+        }
         closeAllIndexes();
     }
 
+    /**
+     * @return the latest sample of the index, or {@code null} if it hasn't been sampled yet.
+     */
+    public IndexSample indexSample( IndexDescriptor descriptor )
+    {
+        return samplingController.sample( descriptor );
+    }
+
+    /**
+     * Samples the online indexes in the calling thread, all of them if {@code force} is set, otherwise only those
+     * that would have been sampled by the next background run.
+     */
+    public void triggerIndexSampling( boolean force )
+    {
+        samplingController.sampleIndexes( indexMapReference.getAllIndexProxies(), force );
+    }
+
     public IndexProxy getProxyForRule( long indexId ) throws IndexNotFoundKernelException
     {
         IndexProxy indexProxy = indexMapReference.getIndexProxy( indexId );
@@ -289,37 +350,60 @@ public class IndexingService extends LifecycleAdapter
      * will shut down.
      */
     public void createIndex( IndexRule rule )
+    {
+        createIndexes( rule );
+    }
+
+    /*
+     * Creates indexes, populating all of them, if needed, in one single scan over the store. Indexes created
+     * by separate calls share that scan too, as long as it hasn't started yet.
+     *
+     * This code is called from the transaction infrastructure during transaction commits, which means that
+     * it is *vital* that it is stable, and handles errors very well. Failing here means that the entire db
+     * will shut down.
+     */
+    public void createIndexes( IndexRule... rules )
     {
         IndexMap indexMap = indexMapReference.getIndexMapCopy();
+        List<IndexPopulationJob> newPopulationJobs = new ArrayList<>( 1 );
 
-        long ruleId = rule.getId();
-        IndexProxy index = indexMap.getIndexProxy( ruleId );
-        if (index != null)
-        {
-            // We already have this index
-            return;
-        }
-        final IndexDescriptor descriptor = createDescriptor( rule );
-        SchemaIndexProvider.Descriptor providerDescriptor = rule.getProviderDescriptor();
-        boolean constraint = rule.isConstraintIndex();
-        if ( state == State.RUNNING )
+        for ( IndexRule rule : rules )
         {
-            try
+            long ruleId = rule.getId();
+            IndexProxy index = indexMap.getIndexProxy( ruleId );
+            if ( index != null )
             {
-                index = createAndStartPopulatingIndexProxy( ruleId, descriptor, providerDescriptor, constraint );
+                // We already have this index
+                continue;
             }
-            catch ( IOException e )
+            final IndexDescriptor descriptor = createDescriptor( rule );
+            SchemaIndexProvider.Descriptor providerDescriptor = rule.getProviderDescriptor();
+            boolean constraint = rule.isConstraintIndex();
+            if ( state == State.RUNNING )
             {
-                throw new RuntimeException( e );
+                try
+                {
+                    index = createAndStartPopulatingIndexProxy( ruleId, descriptor, providerDescriptor, constraint,
+                            newPopulationJobs );
+                }
+                catch ( IOException e )
+                {
+                    throw new RuntimeException( e );
+                }
             }
-        }
-        else
-        {
-            index = createAndStartRecoveringIndexProxy( descriptor, providerDescriptor );
+            else
+            {
+                index = createAndStartRecoveringIndexProxy( descriptor, providerDescriptor );
+            }
+
+            indexMap.putIndexProxy( rule.getId(), index );
         }
 
-        indexMap.putIndexProxy( rule.getId(), index );
         indexMapReference.setIndexMap( indexMap );
+        for ( IndexPopulationJob populationJob : newPopulationJobs )
+        {
+            scheduler.schedule( indexPopulation, populationJob );
+        }
     }
 
     private String indexUserDescription( final IndexDescriptor descriptor,
@@ -329,6 +413,15 @@ public class IndexingService extends LifecycleAdapter
         return String.format( "%s [provider: %s]", userDescription, providerDescriptor.toString() );
     }
 
+    /**
+     * @return {@code true} if updates given to {@link #updateIndexes(IndexUpdates)} are applied to the indexes
+     * right away, {@code false} if only the changed node ids are noted down, as is the case during recovery.
+     */
+    public boolean isRunning()
+    {
+        return state == State.RUNNING;
+    }
+
     public void updateIndexes( IndexUpdates updates )
     {
         if ( state == State.RUNNING )
@@ -441,6 +534,7 @@ public class IndexingService extends LifecycleAdapter
             if ( null != updater )
             {
                 updater.process( update );
+                samplingController.updated( descriptor );
             }
         }
         catch ( IOException | IndexEntryConflictException e )
@@ -453,6 +547,7 @@ public class IndexingService extends LifecycleAdapter
     {
         long indexId = rule.getId();
         IndexProxy index = indexMapReference.removeIndexProxy( indexId );
+        samplingController.forget( createDescriptor( rule ) );
         if ( state == State.RUNNING )
         {
             assert index != null : "Index " + rule + " doesn't exists";
@@ -468,7 +563,41 @@ public class IndexingService extends LifecycleAdapter
         }
     }
 
-    private IndexProxy createAndStartPopulatingIndexProxy( final long ruleId,
+    private IndexPopulationJob newIndexPopulationJob( long startDelayMillis )
+    {
+        return new IndexPopulationJob( storeView, updateableSchemaState, scheduler, populationWorkers,
+                startDelayMillis, logging );
+    }
+
+    /**
+     * Adds the index to the pending population job, if it hasn't started yet, or else to a new job,
+     * which is added to {@code newPopulationJobs} for the caller to schedule.
+     */
+    private synchronized IndexProxy createAndStartPopulatingIndexProxy( long ruleId, IndexDescriptor descriptor,
+            SchemaIndexProvider.Descriptor providerDescriptor, boolean constraint,
+            List<IndexPopulationJob> newPopulationJobs ) throws IOException
+    {
+        IndexProxy index = null;
+        if ( pendingPopulationJob != null )
+        {
+            index = createAndStartPopulatingIndexProxy( pendingPopulationJob, ruleId, descriptor,
+                    providerDescriptor, constraint );
+        }
+        if ( index == null )
+        {
+            pendingPopulationJob = newIndexPopulationJob( POPULATION_START_DELAY_MILLIS );
+            newPopulationJobs.add( pendingPopulationJob );
+            index = createAndStartPopulatingIndexProxy( pendingPopulationJob, ruleId, descriptor,
+                    providerDescriptor, constraint );
+        }
+        return index;
+    }
+
+    /**
+     * @return the populating index, or {@code null} if the job has already started and can't populate it.
+     */
+    private IndexProxy createAndStartPopulatingIndexProxy( IndexPopulationJob populationJob,
+                                                           final long ruleId,
                                                            final IndexDescriptor descriptor,
                                                            final SchemaIndexProvider.Descriptor providerDescriptor,
                                                            final boolean constraint ) throws IOException
@@ -483,12 +612,6 @@ public class IndexingService extends LifecycleAdapter
         FailedIndexProxyFactory failureDelegateFactory =
             new FailedPopulatingIndexProxyFactory( descriptor, providerDescriptor, populator, indexUserDescription );
 
-        PopulatingIndexProxy populatingIndex =
-            new PopulatingIndexProxy( scheduler, descriptor, providerDescriptor,
-                    failureDelegateFactory, populator, flipper, storeView,
-                indexUserDescription, updateableSchemaState, logging );
-        flipper.flipTo( populatingIndex );
-
         // Prepare for flipping to online mode
         flipper.setFlipTarget( new IndexProxyFactory()
         {
@@ -515,9 +638,23 @@ public class IndexingService extends LifecycleAdapter
             }
         } );
 
-        IndexProxy result = contractCheckedProxy( flipper, false );
-        result.start();
-        return result;
+        // The job doesn't start while we hold its monitor, so the index is fully set up by the time it does
+        synchronized ( populationJob )
+        {
+            IndexPopulationJob.IndexPopulation population = populationJob.addPopulation( descriptor,
+                    providerDescriptor, indexUserDescription, failureDelegateFactory, populator, flipper );
+            if ( population == null )
+            {
+                return null;
+            }
+            PopulatingIndexProxy populatingIndex =
+                new PopulatingIndexProxy( descriptor, providerDescriptor, populationJob, population );
+            flipper.flipTo( populatingIndex );
+
+            IndexProxy result = contractCheckedProxy( flipper, false );
+            result.start();
+            return result;
+        }
     }
 
     private IndexProxy createAndStartOnlineIndexProxy( long ruleId,
@@ -30,48 +30,40 @@ import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
 import org.neo4j.kernel.api.exceptions.index.IndexPopulationFailedKernelException;
 import org.neo4j.kernel.api.index.IndexDescriptor;
 import org.neo4j.kernel.api.index.IndexEntryConflictException;
-import org.neo4j.kernel.api.index.IndexPopulator;
 import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.InternalIndexState;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
 import org.neo4j.kernel.api.index.SchemaIndexProvider;
-import org.neo4j.kernel.impl.api.UpdateableSchemaState;
-import org.neo4j.kernel.impl.util.JobScheduler;
-import org.neo4j.kernel.logging.Logging;
 
 import static org.neo4j.helpers.collection.IteratorUtil.emptyIterator;
-import static org.neo4j.kernel.impl.util.JobScheduler.Group.indexPopulation;
 
 
 public class PopulatingIndexProxy implements IndexProxy
 {
-    private final JobScheduler scheduler;
     private final IndexDescriptor descriptor;
     private final SchemaIndexProvider.Descriptor providerDescriptor;
     private final IndexPopulationJob job;
+    private final IndexPopulationJob.IndexPopulation population;
 
-    public PopulatingIndexProxy( JobScheduler scheduler,
-                                 final IndexDescriptor descriptor,
-                                 final SchemaIndexProvider.Descriptor providerDescriptor,
-                                 final FailedIndexProxyFactory failureDelegateFactory,
-                                 final IndexPopulator writer,
-                                 FlippableIndexProxy flipper,
-                                 IndexStoreView storeView, final String indexUserDescription,
-                                 UpdateableSchemaState updateableSchemaState, Logging logging )
+    /**
+     * @param job the, possibly shared, job populating this index. It is scheduled by whoever created it,
+     * once all its indexes have been added to it.
+     * @param population the population of this index in that job.
+     */
+    PopulatingIndexProxy( IndexDescriptor descriptor, SchemaIndexProvider.Descriptor providerDescriptor,
+                          IndexPopulationJob job, IndexPopulationJob.IndexPopulation population )
     {
-        this.scheduler  = scheduler;
         this.descriptor = descriptor;
         this.providerDescriptor = providerDescriptor;
-        this.job  = new IndexPopulationJob( descriptor, providerDescriptor,
-                indexUserDescription, failureDelegateFactory, writer, flipper, storeView,
-                updateableSchemaState, logging );
+        this.job = job;
+        this.population = population;
     }
 
     @Override
     public void start()
     {
-        scheduler.schedule( indexPopulation, job );
+        // The population job is scheduled once for all the indexes it populates
     }
 
     @Override
@@ -85,7 +77,7 @@ public class PopulatingIndexProxy implements IndexProxy
                 switch( mode )
                 {
                     case ONLINE:
-                        job.update( update );
+                        population.update( update );
                         break;
 
                     case RECOVERY:
@@ -112,7 +104,7 @@ public class PopulatingIndexProxy implements IndexProxy
     @Override
     public Future<Void> drop()
     {
-        return job.cancel();
+        return population.cancel();
     }
 
     @Override
@@ -142,7 +134,7 @@ public class PopulatingIndexProxy implements IndexProxy
     @Override
     public Future<Void> close()
     {
-        return job.cancel();
+        return population.cancel();
     }
     
     @Override
@@ -154,7 +146,7 @@ public class PopulatingIndexProxy implements IndexProxy
     @Override
     public boolean awaitStoreScanCompleted() throws IndexPopulationFailedKernelException, InterruptedException
     {
-        job.awaitCompletion();
+        population.awaitCompletion();
         return true;
     }
 
@@ -57,6 +57,24 @@ public interface EntityReadOperations
     PrimitiveLongIterator nodesGetFromIndexLookup( KernelStatement state, IndexDescriptor index, Object value )
             throws IndexNotFoundKernelException;
 
+    /**
+     * Returns an iterable with the nodes that have values in the given range.
+     *
+     * @throws IndexNotFoundKernelException if no such index found.
+     */
+    PrimitiveLongIterator nodesGetFromIndexRangeSeek( KernelStatement state, IndexDescriptor index,
+                                                      Object lower, boolean includeLower,
+                                                      Object upper, boolean includeUpper )
+            throws IndexNotFoundKernelException;
+
+    /**
+     * Returns an iterable with the nodes that have string values starting with the given prefix.
+     *
+     * @throws IndexNotFoundKernelException if no such index found.
+     */
+    PrimitiveLongIterator nodesGetFromIndexPrefixSeek( KernelStatement state, IndexDescriptor index, String prefix )
+            throws IndexNotFoundKernelException;
+
     /**
      * Returns an iterable with the matched node.
      *
@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.api.state;
 
 import java.util.Map;
 
+import org.neo4j.helpers.Predicate;
 import org.neo4j.kernel.impl.util.DiffSets;
 import org.neo4j.kernel.impl.util.VersionedHashMap;
 
@@ -48,6 +49,38 @@ public class PropertyChanges
         return DiffSets.emptyDiffSets();
     }
 
+    /**
+     * Merges the changes of all values matching the given predicate. Removals are applied before additions, so
+     * an entity that changed from one matching value to another ends up as neither added nor removed.
+     */
+    public DiffSets<Long> changesForPropertyMatching( int propertyKeyId, Predicate<Object> valuePredicate )
+    {
+        if(changes != null)
+        {
+            Map<Object, DiffSets<Long>> keyChanges = changes.get( propertyKeyId );
+            if(keyChanges != null)
+            {
+                DiffSets<Long> merged = new DiffSets<>();
+                for ( Map.Entry<Object, DiffSets<Long>> valueChanges : keyChanges.entrySet() )
+                {
+                    if ( valuePredicate.accept( valueChanges.getKey() ) )
+                    {
+                        merged.removeAll( valueChanges.getValue().getRemoved().iterator() );
+                    }
+                }
+                for ( Map.Entry<Object, DiffSets<Long>> valueChanges : keyChanges.entrySet() )
+                {
+                    if ( valuePredicate.accept( valueChanges.getKey() ) )
+                    {
+                        merged.addAll( valueChanges.getValue().getAdded().iterator() );
+                    }
+                }
+                return merged;
+            }
+        }
+        return DiffSets.emptyDiffSets();
+    }
+
     public void changeProperty( long entityId, int propertyKeyId, Object oldValue, Object newValue )
     {
         Map<Object, DiffSets<Long>> keyChanges = keyChanges( propertyKeyId );
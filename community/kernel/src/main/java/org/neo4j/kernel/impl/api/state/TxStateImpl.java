@@ -700,6 +700,14 @@ public final class TxStateImpl implements TxState
                 DiffSets.<Long>emptyDiffSets();
     }
 
+    @Override
+    public DiffSets<Long> nodesWithChangedPropertyMatching( int propertyKeyId, Predicate<Object> valuePredicate )
+    {
+        return propertyChangesForNodes != null ?
+                propertyChangesForNodes.changesForPropertyMatching( propertyKeyId, valuePredicate ) :
+                DiffSets.<Long>emptyDiffSets();
+    }
+
     @Override
     public DiffSets<Long> addedAndRemovedNodes()
     {
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.statistics;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.api.heuristics.StatisticsData;
+import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.impl.api.index.IndexingService;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsStore;
+
+/**
+ * Answers label and relationship type distributions and degrees from the exact counts kept by the
+ * {@link CountsStore}, leaving only node liveness to the sampled statistics. Index selectivity comes from the
+ * index samples of the {@link IndexingService}.
+ */
+public class CountsStatisticsData implements StatisticsData
+{
+    private final StatisticsData sampled;
+    private final CountsStore counts;
+    private final IndexingService indexes;
+
+    public CountsStatisticsData( StatisticsData sampled, CountsStore counts, IndexingService indexes )
+    {
+        this.sampled = sampled;
+        this.counts = counts;
+        this.indexes = indexes;
+    }
+
+    @Override
+    public double labelDistribution( int labelId )
+    {
+        return ratio( counts.nodeCount( labelId ), counts.nodeCount( ANY ) );
+    }
+
+    @Override
+    public double relationshipTypeDistribution( int relType )
+    {
+        return ratio( counts.relationshipCount( ANY, relType, ANY ), counts.relationshipCount( ANY, ANY, ANY ) );
+    }
+
+    /** Average degree of the nodes with the label, or of all nodes for {@link #ANY}; loops count in both directions */
+    @Override
+    public double degree( int labelId, int relType, Direction direction )
+    {
+        long nodes = counts.nodeCount( labelId );
+        switch ( direction )
+        {
+            case OUTGOING:
+                return ratio( counts.relationshipCount( labelId, relType, ANY ), nodes );
+            case INCOMING:
+                return ratio( counts.relationshipCount( ANY, relType, labelId ), nodes );
+            default:
+                return ratio( counts.relationshipCount( labelId, relType, ANY ) +
+                              counts.relationshipCount( ANY, relType, labelId ), nodes );
+        }
+    }
+
+    @Override
+    public double liveNodesRatio()
+    {
+        return sampled.liveNodesRatio();
+    }
+
+    @Override
+    public long maxAddressableNodes()
+    {
+        return sampled.maxAddressableNodes();
+    }
+
+    @Override
+    public long nodeCount( int labelId )
+    {
+        return counts.nodeCount( labelId );
+    }
+
+    /** Exact if at most one label is bound, with both bound it assumes the labels to be independent */
+    @Override
+    public long relationshipCount( int startLabelId, int relType, int endLabelId )
+    {
+        if ( startLabelId == ANY || endLabelId == ANY )
+        {
+            return counts.relationshipCount( startLabelId, relType, endLabelId );
+        }
+        long all = counts.relationshipCount( ANY, relType, ANY );
+        return all == 0 ? 0 : Math.round( (double) counts.relationshipCount( startLabelId, relType, ANY ) *
+                                          counts.relationshipCount( ANY, relType, endLabelId ) / all );
+    }
+
+    /**
+     * Assumes the values to be evenly distributed, and scales by the part of the labeled nodes that have the
+     * property, as only those are in the index.
+     */
+    @Override
+    public double indexSelectivity( int labelId, int propertyKeyId )
+    {
+        IndexSample sample = indexes.indexSample( new IndexDescriptor( labelId, propertyKeyId ) );
+        if ( sample == null )
+        {
+            return NOT_SAMPLED;
+        }
+        long labeled = counts.nodeCount( labelId );
+        double indexed = Math.min( 1.0, ratio( sample.indexSize(), labeled ) );
+        return indexed * sample.uniqueValueSelectivity();
+    }
+
+    private static double ratio( long count, long total )
+    {
+        return total == 0 ? 0.0 : (double) count / total;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.statistics;
+
+import org.neo4j.kernel.api.heuristics.StatisticsData;
+import org.neo4j.kernel.impl.api.index.IndexingService;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsStore;
+
+/**
+ * Exposes the statistics of another service, with counts, distributions and degrees taken from the exact
+ * counts of the {@link CountsStore}, and index selectivity from the samples kept by the {@link IndexingService}.
+ */
+public class CountsStatisticsService implements StatisticsService
+{
+    private final StatisticsService delegate;
+    private final CountsStore counts;
+    private final IndexingService indexes;
+
+    public CountsStatisticsService( StatisticsService delegate, CountsStore counts, IndexingService indexes )
+    {
+        this.delegate = delegate;
+        this.counts = counts;
+        this.indexes = indexes;
+    }
+
+    @Override
+    public StatisticsData statistics()
+    {
+        return new CountsStatisticsData( delegate.statistics(), counts, indexes );
+    }
+
+    @Override
+    public void init() throws Throwable
+    {
+        delegate.init();
+    }
+
+    @Override
+    public void start() throws Throwable
+    {
+        delegate.start();
+    }
+
+    @Override
+    public void stop() throws Throwable
+    {
+        delegate.stop();
+    }
+
+    @Override
+    public void shutdown() throws Throwable
+    {
+        delegate.shutdown();
+    }
+}
@@ -112,6 +112,32 @@ public class StatisticsCollectedData implements StatisticsData, Serializable
         return nodeLivenessData.highestNodeId();
     }
 
+    /** Estimated from the sampled label distribution */
+    @Override
+    public long nodeCount( int labelId )
+    {
+        double nodes = liveNodesRatio() * maxAddressableNodes();
+        return Math.round( labelId == ANY ? nodes : nodes * labelDistribution( labelId ) );
+    }
+
+    /** Estimated from the sampled degrees, which are only kept per relationship type */
+    @Override
+    public long relationshipCount( int startLabelId, int relType, int endLabelId )
+    {
+        if ( startLabelId != ANY || endLabelId == ANY )
+        {
+            return Math.round( nodeCount( startLabelId ) * degree( startLabelId, relType, Direction.OUTGOING ) );
+        }
+        return Math.round( nodeCount( endLabelId ) * degree( endLabelId, relType, Direction.INCOMING ) );
+    }
+
+    /** Index values are not part of the store sampling */
+    @Override
+    public double indexSelectivity( int labelId, int propertyKeyId )
+    {
+        return NOT_SAMPLED;
+    }
+
     public void recordLabels( List<Integer> nodeLabels )
     {
         labels.record( nodeLabels );
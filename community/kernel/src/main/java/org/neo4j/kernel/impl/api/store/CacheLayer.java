@@ -348,6 +348,24 @@ public class CacheLayer implements StoreReadLayer
         return diskLayer.nodesGetFromIndexLookup( state, schemaCache.indexId( index ), value );
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeek( KernelStatement state, IndexDescriptor index,
+                                                             Object lower, boolean includeLower,
+                                                             Object upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        return diskLayer.nodesGetFromIndexRangeSeek( state, schemaCache.indexId( index ), lower, includeLower,
+                upper, includeUpper );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexPrefixSeek( KernelStatement state, IndexDescriptor index,
+                                                              String prefix )
+            throws IndexNotFoundKernelException
+    {
+        return diskLayer.nodesGetFromIndexPrefixSeek( state, schemaCache.indexId( index ), prefix );
+    }
+
     @Override
     public IndexDescriptor indexesGetForLabelAndPropertyKey( int labelId, int propertyKey )
             throws SchemaRuleNotFoundException
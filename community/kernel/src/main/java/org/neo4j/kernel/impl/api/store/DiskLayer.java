@@ -291,6 +291,23 @@ public class DiskLayer implements StoreReadLayer
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeek( KernelStatement state, IndexDescriptor index,
+                                                             Object lower, boolean includeLower,
+                                                             Object upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexPrefixSeek( KernelStatement state, IndexDescriptor index,
+                                                              String prefix )
+            throws IndexNotFoundKernelException
+    {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public IndexDescriptor indexesGetForLabelAndPropertyKey( int labelId, int propertyKey )
             throws SchemaRuleNotFoundException
@@ -593,6 +610,20 @@ public class DiskLayer implements StoreReadLayer
         return state.getIndexReader( index ).lookup( value );
     }
 
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeek( KernelStatement state, long index,
+                                                             Object lower, boolean includeLower,
+                                                             Object upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        return state.getIndexReader( index ).rangeSeek( lower, includeLower, upper, includeUpper );
+    }
+
+    public PrimitiveLongIterator nodesGetFromIndexPrefixSeek( KernelStatement state, long index, String prefix )
+            throws IndexNotFoundKernelException
+    {
+        return state.getIndexReader( index ).prefixSeek( prefix );
+    }
+
     private Iterator<DefinedProperty> loadAllPropertiesOf( PrimitiveRecord primitiveRecord )
     {
         Collection<PropertyRecord> records = propertyStore.getPropertyRecordChain( primitiveRecord.getNextProp() );
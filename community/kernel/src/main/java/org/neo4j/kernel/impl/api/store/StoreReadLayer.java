@@ -128,6 +128,14 @@ public interface StoreReadLayer
     PrimitiveLongIterator nodesGetFromIndexLookup( KernelStatement state, IndexDescriptor index, Object value )
                                                             throws IndexNotFoundKernelException;
 
+    PrimitiveLongIterator nodesGetFromIndexRangeSeek( KernelStatement state, IndexDescriptor index,
+                                                      Object lower, boolean includeLower,
+                                                      Object upper, boolean includeUpper )
+                                                            throws IndexNotFoundKernelException;
+
+    PrimitiveLongIterator nodesGetFromIndexPrefixSeek( KernelStatement state, IndexDescriptor index, String prefix )
+                                                            throws IndexNotFoundKernelException;
+
     IndexDescriptor indexesGetForLabelAndPropertyKey( int labelId, int propertyKey )
                                                                     throws SchemaRuleNotFoundException;
 
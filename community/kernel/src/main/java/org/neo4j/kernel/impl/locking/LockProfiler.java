@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.neo4j.kernel.info.ContendedLockInfo;
+import org.neo4j.kernel.info.LockStatisticsInfo;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Collects lock statistics per {@link Locks.ResourceType resource type}: number of acquired locks, time spent
+ * waiting for them, a histogram of those wait times and number of detected deadlocks. Resources that clients wait
+ * at least a threshold for to lock are tracked separately, to be able to tell which resources are the most
+ * contended.
+ *
+ * This is meant to be cheap enough to always be enabled. Uncontended acquisitions only update a couple of counters,
+ * which are striped by thread to not make acquiring locks in different threads contend on the counters instead.
+ * Only contended acquisitions, which have waited anyway, synchronize to track the contended resource.
+ */
+public class LockProfiler
+{
+    public static final int WAIT_TIME_BUCKETS = 32;
+    public static final int DEFAULT_TRACKED_CONTENDED_RESOURCES = 20;
+
+    private static final int STRIPES = 16;
+    private static final int SHARED = 0;
+    private static final int EXCLUSIVE = 1;
+    private static final int WAIT_TIME = 2;
+    private static final int FIRST_BUCKET = 3;
+    // Pad each stripe to a multiple of a cache line of 64 bytes
+    private static final int STRIPE_SIZE = ((FIRST_BUCKET + WAIT_TIME_BUCKETS + 7) / 8) * 8;
+
+    private final Locks.ResourceType[] resourceTypes;
+    private final AtomicLongArray[] counters;
+    private final AtomicLong[] deadlocks;
+    private final long contentionThresholdNanos;
+    private final ContendedResources contendedResources;
+
+    /**
+     * @param contentionThreshold minimum time, in milliseconds, a client must wait for a lock for its resource
+     * to be tracked as contended.
+     * @param trackedContendedResources number of most contended resources to keep track of.
+     */
+    public LockProfiler( Locks.ResourceType[] resourceTypes, long contentionThreshold, int trackedContendedResources )
+    {
+        int maxTypeId = 0;
+        for ( Locks.ResourceType type : resourceTypes )
+        {
+            maxTypeId = Math.max( maxTypeId, type.typeId() );
+        }
+        this.resourceTypes = new Locks.ResourceType[maxTypeId + 1];
+        this.counters = new AtomicLongArray[maxTypeId + 1];
+        this.deadlocks = new AtomicLong[maxTypeId + 1];
+        for ( Locks.ResourceType type : resourceTypes )
+        {
+            this.resourceTypes[type.typeId()] = type;
+            this.counters[type.typeId()] = new AtomicLongArray( STRIPES * STRIPE_SIZE );
+            this.deadlocks[type.typeId()] = new AtomicLong();
+        }
+        this.contentionThresholdNanos = contentionThreshold * 1_000_000;
+        this.contendedResources = new ContendedResources( trackedContendedResources );
+    }
+
+    public void lockAcquired( Locks.ResourceType type, long resourceId, boolean exclusive, long waitNanos )
+    {
+        AtomicLongArray typeCounters = counters[type.typeId()];
+        int stripe = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * STRIPE_SIZE;
+        typeCounters.incrementAndGet( stripe + (exclusive ? EXCLUSIVE : SHARED) );
+        long waitMicros = NANOSECONDS.toMicros( waitNanos );
+        typeCounters.incrementAndGet( stripe + FIRST_BUCKET + bucket( waitMicros ) );
+        if ( waitMicros > 0 )
+        {
+            typeCounters.addAndGet( stripe + WAIT_TIME, waitMicros );
+            if ( waitNanos >= contentionThresholdNanos )
+            {
+                contendedResources.waited( type, resourceId, waitMicros );
+            }
+        }
+    }
+
+    public void deadlockDetected( Locks.ResourceType type )
+    {
+        deadlocks[type.typeId()].incrementAndGet();
+    }
+
+    public long deadlocks()
+    {
+        long total = 0;
+        for ( AtomicLong count : deadlocks )
+        {
+            total += count != null ? count.get() : 0;
+        }
+        return total;
+    }
+
+    /**
+     * @return statistics for each resource type. Counters are read one at a time while locks are being acquired,
+     * so the numbers may be slightly inconsistent with each other.
+     */
+    public List<LockStatisticsInfo> statistics()
+    {
+        List<LockStatisticsInfo> result = new ArrayList<>();
+        for ( Locks.ResourceType type : resourceTypes )
+        {
+            if ( type == null )
+            {
+                continue;
+            }
+
+            AtomicLongArray typeCounters = counters[type.typeId()];
+            long shared = 0, exclusive = 0, waitTime = 0;
+            long[] histogram = new long[WAIT_TIME_BUCKETS];
+            for ( int stripe = 0; stripe < STRIPES * STRIPE_SIZE; stripe += STRIPE_SIZE )
+            {
+                shared += typeCounters.get( stripe + SHARED );
+                exclusive += typeCounters.get( stripe + EXCLUSIVE );
+                waitTime += typeCounters.get( stripe + WAIT_TIME );
+                for ( int bucket = 0; bucket < WAIT_TIME_BUCKETS; bucket++ )
+                {
+                    histogram[bucket] += typeCounters.get( stripe + FIRST_BUCKET + bucket );
+                }
+            }
+            result.add( new LockStatisticsInfo( type.toString(), shared, exclusive,
+                    deadlocks[type.typeId()].get(), waitTime, histogram ) );
+        }
+        return result;
+    }
+
+    /**
+     * @return the most contended resources, most contended first.
+     */
+    public List<ContendedLockInfo> mostContended()
+    {
+        return contendedResources.mostContended();
+    }
+
+    static int bucket( long waitMicros )
+    {
+        int bucket = 64 - Long.numberOfLeadingZeros( waitMicros );
+        return Math.min( bucket, WAIT_TIME_BUCKETS - 1 );
+    }
+
+    /**
+     * Keeps a bounded number of resources using the space saving algorithm: when full, the least contended
+     * resource is replaced by the new one, which inherits its count. Resources that are contended more often than
+     * the least tracked one are thereby guaranteed to be tracked, with over estimated counts at worst.
+     */
+    private static class ContendedResources
+    {
+        private final int capacity;
+        private final Map<Resource, long[]> resources = new HashMap<>();
+
+        ContendedResources( int capacity )
+        {
+            this.capacity = capacity;
+        }
+
+        synchronized void waited( Locks.ResourceType type, long resourceId, long waitMicros )
+        {
+            Resource resource = new Resource( type, resourceId );
+            long[] counts = resources.get( resource );
+            if ( counts == null )
+            {
+                counts = new long[2];
+                if ( resources.size() >= capacity )
+                {
+                    counts[0] = evictLeastContended()[0];
+                }
+                resources.put( resource, counts );
+            }
+            counts[0]++;
+            counts[1] += waitMicros;
+        }
+
+        private long[] evictLeastContended()
+        {
+            Iterator<Map.Entry<Resource, long[]>> entries = resources.entrySet().iterator();
+            Map.Entry<Resource, long[]> least = entries.next();
+            while ( entries.hasNext() )
+            {
+                Map.Entry<Resource, long[]> entry = entries.next();
+                if ( entry.getValue()[0] < least.getValue()[0] )
+                {
+                    least = entry;
+                }
+            }
+            return resources.remove( least.getKey() );
+        }
+
+        synchronized List<ContendedLockInfo> mostContended()
+        {
+            List<ContendedLockInfo> result = new ArrayList<>( resources.size() );
+            for ( Map.Entry<Resource, long[]> entry : resources.entrySet() )
+            {
+                Resource resource = entry.getKey();
+                result.add( new ContendedLockInfo( resource.type.toString(), resource.id,
+                        entry.getValue()[0], entry.getValue()[1] ) );
+            }
+            Collections.sort( result, new Comparator<ContendedLockInfo>()
+            {
+                @Override
+                public int compare( ContendedLockInfo o1, ContendedLockInfo o2 )
+                {
+                    return Long.compare( o2.getContendedAcquisitions(), o1.getContendedAcquisitions() );
+                }
+            } );
+            return result;
+        }
+    }
+
+    private static class Resource
+    {
+        private final Locks.ResourceType type;
+        private final long id;
+
+        Resource( Locks.ResourceType type, long id )
+        {
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            if ( this == o )
+            {
+                return true;
+            }
+            if ( o == null || getClass() != o.getClass() )
+            {
+                return false;
+            }
+            Resource resource = (Resource) o;
+            return id == resource.id && type.typeId() == resource.type.typeId();
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * type.typeId() + (int) (id ^ (id >>> 32));
+        }
+    }
+}
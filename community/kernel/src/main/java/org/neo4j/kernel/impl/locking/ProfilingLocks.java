@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking;
+
+import org.neo4j.kernel.DeadlockDetectedException;
+
+import static java.lang.System.nanoTime;
+
+/**
+ * Decorates a {@link Locks} implementation, recording lock acquisitions, wait times and deadlocks of its clients
+ * in a {@link LockProfiler}. Acquiring multiple resources in one call is recorded, and delegated, one resource at
+ * a time, so that the time spent waiting is attributed to the right resource.
+ */
+public class ProfilingLocks implements Locks
+{
+    private final Locks delegate;
+    private final LockProfiler profiler;
+
+    public ProfilingLocks( Locks delegate, LockProfiler profiler )
+    {
+        this.delegate = delegate;
+        this.profiler = profiler;
+    }
+
+    /**
+     * @return the decorated lock manager.
+     */
+    public Locks delegate()
+    {
+        return delegate;
+    }
+
+    @Override
+    public Client newClient()
+    {
+        return new ProfilingClient( delegate.newClient() );
+    }
+
+    @Override
+    public void accept( Visitor visitor )
+    {
+        delegate.accept( visitor );
+    }
+
+    @Override
+    public void init() throws Throwable
+    {
+        delegate.init();
+    }
+
+    @Override
+    public void start() throws Throwable
+    {
+        delegate.start();
+    }
+
+    @Override
+    public void stop() throws Throwable
+    {
+        delegate.stop();
+    }
+
+    @Override
+    public void shutdown() throws Throwable
+    {
+        delegate.shutdown();
+    }
+
+    private class ProfilingClient implements Client
+    {
+        private final Client client;
+
+        ProfilingClient( Client client )
+        {
+            this.client = client;
+        }
+
+        @Override
+        public void acquireShared( ResourceType resourceType, long... resourceIds ) throws AcquireLockTimeoutException
+        {
+            for ( long resourceId : resourceIds )
+            {
+                long startTime = nanoTime();
+                try
+                {
+                    client.acquireShared( resourceType, resourceId );
+                }
+                catch ( DeadlockDetectedException e )
+                {
+                    profiler.deadlockDetected( resourceType );
+                    throw e;
+                }
+                profiler.lockAcquired( resourceType, resourceId, false, nanoTime() - startTime );
+            }
+        }
+
+        @Override
+        public void acquireExclusive( ResourceType resourceType, long... resourceIds )
+                throws AcquireLockTimeoutException
+        {
+            for ( long resourceId : resourceIds )
+            {
+                long startTime = nanoTime();
+                try
+                {
+                    client.acquireExclusive( resourceType, resourceId );
+                }
+                catch ( DeadlockDetectedException e )
+                {
+                    profiler.deadlockDetected( resourceType );
+                    throw e;
+                }
+                profiler.lockAcquired( resourceType, resourceId, true, nanoTime() - startTime );
+            }
+        }
+
+        @Override
+        public boolean tryExclusiveLock( ResourceType resourceType, long... resourceIds )
+        {
+            if ( client.tryExclusiveLock( resourceType, resourceIds ) )
+            {
+                for ( long resourceId : resourceIds )
+                {
+                    profiler.lockAcquired( resourceType, resourceId, true, 0 );
+                }
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean trySharedLock( ResourceType resourceType, long... resourceIds )
+        {
+            if ( client.trySharedLock( resourceType, resourceIds ) )
+            {
+                for ( long resourceId : resourceIds )
+                {
+                    profiler.lockAcquired( resourceType, resourceId, false, 0 );
+                }
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void releaseShared( ResourceType resourceType, long... resourceIds )
+        {
+            client.releaseShared( resourceType, resourceIds );
+        }
+
+        @Override
+        public void releaseExclusive( ResourceType resourceType, long... resourceIds )
+        {
+            client.releaseExclusive( resourceType, resourceIds );
+        }
+
+        @Override
+        public void releaseAllShared()
+        {
+            client.releaseAllShared();
+        }
+
+        @Override
+        public void releaseAllExclusive()
+        {
+            client.releaseAllExclusive();
+        }
+
+        @Override
+        public void releaseAll()
+        {
+            client.releaseAll();
+        }
+
+        @Override
+        public void close()
+        {
+            client.close();
+        }
+
+        @Override
+        public long getIdentifier()
+        {
+            return client.getIdentifier();
+        }
+    }
+}
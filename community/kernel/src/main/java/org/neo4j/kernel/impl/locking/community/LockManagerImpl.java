@@ -19,7 +19,9 @@
  */
 package org.neo4j.kernel.impl.locking.community;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.neo4j.helpers.collection.Visitor;
@@ -105,7 +107,8 @@ public class LockManagerImpl implements LockManager
     }
 
     /**
-     * Visit all locks.
+     * Visit all locks. The locks are visited after the lock map has been released, so that describing them
+     * doesn't block clients acquiring and releasing other locks meanwhile.
      *
      * The supplied visitor may not block.
      *
@@ -113,14 +116,16 @@ public class LockManagerImpl implements LockManager
      */
     public void accept( Visitor<RWLock, RuntimeException> visitor )
     {
+        List<RWLock> locks;
         synchronized ( resourceLockMap )
         {
-            for ( RWLock lock : resourceLockMap.values() )
+            locks = new ArrayList<>( resourceLockMap.values() );
+        }
+        for ( RWLock lock : locks )
+        {
+            if ( visitor.visit( lock ) )
             {
-                if ( visitor.visit( lock ) )
-                {
-                    break;
-                }
+                break;
             }
         }
     }
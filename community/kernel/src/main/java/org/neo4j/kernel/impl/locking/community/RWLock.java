@@ -484,15 +484,17 @@ class RWLock implements Visitor<LineLogger, RuntimeException>
 
     public synchronized long maxWaitTime()
     {
-        long max = 0l;
+        if ( waitingThreadList.isEmpty() )
+        {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        long oldest = now;
         for ( WaitElement thread : waitingThreadList )
         {
-            if ( thread.since < max )
-            {
-                max = thread.since;
-            }
+            oldest = Math.min( oldest, thread.since );
         }
-        return System.currentTimeMillis() - max;
+        return now - oldest;
     }
 
     @Override
@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.nioneo.store;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -61,6 +62,13 @@ import static org.neo4j.io.fs.FileUtils.truncateFile;
  * same file. There can only be one id generator instance per id generator file.
  * <p>
  * In case of disk/file I/O failure an <CODE>IOException</CODE> is thrown.
+ * <p>
+ * {@link #nextId()} and {@link #freeId(long)} don't synchronize on the generator in the common case.
+ * New ids are handed out from the high id using compare-and-set. Threads grab defragged ids in small
+ * batches into a buffer picked by thread id, out of a fixed number of buffers, and also buffer the ids
+ * they free there, merging them into the shared lists (and from there into the id file) when the buffer
+ * fills up and on {@link #close()}. Threads picking the same buffer share it, so ids buffered by a thread
+ * that dies are used by the others.
  */
 public class IdGeneratorImpl implements IdGenerator
 {
@@ -74,6 +82,12 @@ public class IdGeneratorImpl implements IdGenerator
 
     public static final long INTEGER_MINUS_ONE = 0xFFFFFFFFL;  // 4294967295L;
 
+    // upper bound of the number of defragged/freed ids buffered per buffer
+    private static final int LOCAL_BUFFER_SIZE = 64;
+    // number of buffers threads spread over, a power of two
+    private static final int LOCAL_BUFFERS =
+            Integer.highestOneBit( Runtime.getRuntime().availableProcessors() * 2 - 1 ) << 1;
+
     // number of defragged ids to grab from file in batch (also used for write)
     private int grabSize = -1;
     private final AtomicLong highId = new AtomicLong( -1 );
@@ -82,11 +96,12 @@ public class IdGeneratorImpl implements IdGenerator
     // marks how much this session is allowed to read from previously released id batches.
     private long maxReadPosition = HEADER_SIZE;
     // used to calculate number of ids actually in use
-    private long defraggedIdCount = -1;
+    private final AtomicLong defraggedIdCount = new AtomicLong( -1 );
 
     private final File fileName;
     private final FileSystemAbstraction fs;
     private StoreChannel fileChannel = null;
+    private volatile boolean closed;
     // defragged ids read from file (freed in a previous session).
     private final LinkedList<Long> idsReadFromFile = new LinkedList<>();
     // ids freed in this session that haven't been flushed to disk yet
@@ -95,6 +110,11 @@ public class IdGeneratorImpl implements IdGenerator
     private final long max;
     private final boolean aggressiveReuse;
 
+    // hint telling threads with empty local buffers whether or not it's worth looking at the shared lists
+    private volatile boolean hasDefraggedIds;
+    private final int localBufferSize;
+    private final LocalIds[] allLocalIds = new LocalIds[LOCAL_BUFFERS];
+
     /**
      * Opens the id generator represented by <CODE>fileName</CODE>. The
      * <CODE>grabSize</CODE> means how many defragged ids we should keep in
@@ -133,6 +153,11 @@ public class IdGeneratorImpl implements IdGenerator
         this.max = max;
         this.fileName = fileName;
         this.grabSize = grabSize;
+        this.localBufferSize = Math.min( grabSize, LOCAL_BUFFER_SIZE );
+        for ( int i = 0; i < allLocalIds.length; i++ )
+        {
+            allLocalIds[i] = new LocalIds( localBufferSize );
+        }
         initGenerator();
         this.highId.set( max( this.highId.get(), highId ) );
     }
@@ -149,25 +174,98 @@ public class IdGeneratorImpl implements IdGenerator
      * @throws IllegalStateException if this id generator has been closed
      */
     @Override
-    public synchronized long nextId()
+    public long nextId()
     {
         assertStillOpen();
-        long nextDefragId = nextIdFromDefragList();
-        if ( nextDefragId != -1 )
+        LocalIds ids = localIds();
+        if ( aggressiveReuse )
         {
-            return nextDefragId;
+            long id = ids.pollFreed();
+            if ( id != -1 )
+            {
+                defraggedIdCount.decrementAndGet();
+                return id;
+            }
         }
 
-        long id = highId.get();
-        if ( id == INTEGER_MINUS_ONE )
+        long id = ids.pollDefragged();
+        if ( id != -1 )
         {
-            // Skip the integer -1 (0xFFFFFFFF) because it represents
-            // special values, f.ex. the end of a relationships/property chain.
-            id = highId.incrementAndGet();
+            return id;
         }
-        assertIdWithinCapacity( id );
-        highId.incrementAndGet();
-        return id;
+
+        if ( hasDefraggedIds )
+        {
+            long[] batch = grabDefraggedIds( localBufferSize );
+            if ( batch.length > 0 )
+            {
+                if ( !ids.offerDefragged( batch, 1 ) )
+                {
+                    // Another thread sharing the buffer filled it in the meantime
+                    returnDefraggedIds( batch, 1 );
+                }
+                return batch[0];
+            }
+        }
+        return nextHighId();
+    }
+
+    private long nextHighId()
+    {
+        while ( true )
+        {
+            long id = highId.get();
+            if ( id == INTEGER_MINUS_ONE )
+            {
+                // Skip the integer -1 (0xFFFFFFFF) because it represents
+                // special values, f.ex. the end of a relationships/property chain.
+                highId.compareAndSet( id, id + 1 );
+                continue;
+            }
+            assertIdWithinCapacity( id );
+            if ( highId.compareAndSet( id, id + 1 ) )
+            {
+                return id;
+            }
+        }
+    }
+
+    private synchronized long[] grabDefraggedIds( int count )
+    {
+        assertStillOpen();
+        long[] ids = new long[count];
+        int grabbed = 0;
+        while ( grabbed < count )
+        {
+            long id = nextIdFromDefragList();
+            if ( id == -1 )
+            {
+                break;
+            }
+            ids[grabbed++] = id;
+        }
+        updateDefraggedIdsHint();
+        return grabbed == count ? ids : Arrays.copyOf( ids, grabbed );
+    }
+
+    private synchronized void returnDefraggedIds( long[] ids, int from )
+    {
+        for ( int i = ids.length - 1; i >= from; i-- )
+        {
+            idsReadFromFile.addFirst( ids[i] );
+        }
+        updateDefraggedIdsHint();
+    }
+
+    private LocalIds localIds()
+    {
+        return allLocalIds[(int) Thread.currentThread().getId() & (allLocalIds.length - 1)];
+    }
+
+    private void updateDefraggedIdsHint()
+    {
+        hasDefraggedIds = !idsReadFromFile.isEmpty() || canReadMoreIdBatches() ||
+                (aggressiveReuse && !releasedIdList.isEmpty());
     }
 
     private void assertIdWithinCapacity( long id )
@@ -190,7 +288,7 @@ public class IdGeneratorImpl implements IdGenerator
             Long id = releasedIdList.poll();
             if ( id != null )
             {
-                defraggedIdCount--;
+                defraggedIdCount.decrementAndGet();
                 return id;
             }
         }
@@ -202,7 +300,7 @@ public class IdGeneratorImpl implements IdGenerator
                 readIdBatch();
             }
             long id = idsReadFromFile.removeFirst();
-            defraggedIdCount--;
+            defraggedIdCount.decrementAndGet();
             return id;
         }
         return -1;
@@ -210,7 +308,7 @@ public class IdGeneratorImpl implements IdGenerator
 
     private void assertStillOpen()
     {
-        if ( fileChannel == null )
+        if ( closed )
         {
             throw new IllegalStateException( "Closed id generator " + fileName );
         }
@@ -240,8 +338,14 @@ public class IdGeneratorImpl implements IdGenerator
         System.arraycopy( tmpArray, 0, defragIds, 0, count );
 
         int sizeLeftForRange = size - count;
-        long start = highId.get();
-        setHighId( start + sizeLeftForRange );
+        long start;
+        do
+        {
+            start = highId.get();
+            assertIdWithinCapacity( start + sizeLeftForRange );
+        }
+        while ( !highId.compareAndSet( start, start + sizeLeftForRange ) );
+        updateDefraggedIdsHint();
         return new IdRange( defragIds, start, sizeLeftForRange );
     }
 
@@ -291,14 +395,14 @@ public class IdGeneratorImpl implements IdGenerator
      *            The id to be made available again
      */
     @Override
-    public synchronized void freeId( long id )
+    public void freeId( long id )
     {
         if ( id == INTEGER_MINUS_ONE )
         {
             return;
         }
 
-        if ( fileChannel == null )
+        if ( closed )
         {
             throw new IllegalStateException( "Generator closed " + fileName );
         }
@@ -306,12 +410,47 @@ public class IdGeneratorImpl implements IdGenerator
         {
             throw new IllegalArgumentException( "Illegal id[" + id + "]" );
         }
-        releasedIdList.add( id );
-        defraggedIdCount++;
+        defraggedIdCount.incrementAndGet();
+        long[] full = localIds().free( id );
+        if ( full != null )
+        {
+            releaseIds( full );
+        }
+    }
+
+    private synchronized void releaseIds( long[] ids )
+    {
+        assertStillOpen();
+        for ( long id : ids )
+        {
+            releasedIdList.add( id );
+        }
         if ( releasedIdList.size() >= grabSize )
         {
             writeIdBatch( ByteBuffer.allocate( grabSize*8 ) );
         }
+        updateDefraggedIdsHint();
+    }
+
+    /**
+     * Moves ids buffered by threads back into the shared lists. Freed ids go to the end of
+     * the released list and defragged ids not yet handed out go back to the front of the list
+     * they were grabbed from, so that the order in which ids are reused stays the same.
+     */
+    private void mergeLocalIds()
+    {
+        for ( LocalIds ids : allLocalIds )
+        {
+            for ( long id : ids.drainFreed() )
+            {
+                releasedIdList.add( id );
+            }
+            long[] defragged = ids.drainDefragged();
+            for ( int i = defragged.length - 1; i >= 0; i-- )
+            {
+                idsReadFromFile.addFirst( defragged[i] );
+            }
+        }
     }
 
     /**
@@ -331,6 +470,9 @@ public class IdGeneratorImpl implements IdGenerator
             return;
         }
 
+        closed = true;
+        mergeLocalIds();
+
         // write out lists
         ByteBuffer writeBuffer = ByteBuffer.allocate( grabSize*8 );
         if ( !releasedIdList.isEmpty() )
@@ -468,8 +610,9 @@ public class IdGeneratorImpl implements IdGenerator
 
             fileChannel.position( HEADER_SIZE );
             maxReadPosition = fileChannel.size();
-            defraggedIdCount = (int) (maxReadPosition - HEADER_SIZE) / 8;
+            defraggedIdCount.set( (int) (maxReadPosition - HEADER_SIZE) / 8 );
             readIdBatch();
+            updateDefraggedIdsHint();
         }
         catch ( IOException e )
         {
@@ -525,7 +668,7 @@ public class IdGeneratorImpl implements IdGenerator
             readBuffer.flip();
             assert (bytesRead % 8) == 0;
             int idsRead = bytesRead / 8;
-            defraggedIdCount -= idsRead;
+            defraggedIdCount.addAndGet( -idsRead );
             for ( int i = 0; i < idsRead; i++ )
             {
                 long id = readBuffer.getLong();
@@ -609,22 +752,28 @@ public class IdGeneratorImpl implements IdGenerator
     }
 
     @Override
-    public synchronized long getNumberOfIdsInUse()
+    public long getNumberOfIdsInUse()
     {
-        return highId.get() - defraggedIdCount;
+        return highId.get() - defraggedIdCount.get();
     }
 
     @Override
     public long getDefragCount()
     {
-        return defraggedIdCount;
+        return defraggedIdCount.get();
     }
 
-    public void clearFreeIds()
+    public synchronized void clearFreeIds()
     {
+        for ( LocalIds ids : allLocalIds )
+        {
+            ids.drainFreed();
+            ids.drainDefragged();
+        }
         releasedIdList.clear();
         idsReadFromFile.clear();
-        defraggedIdCount = -1;
+        defraggedIdCount.set( -1 );
+        hasDefraggedIds = false;
         try
         {
             truncateFile( fileChannel, HEADER_SIZE );
@@ -654,4 +803,82 @@ public class IdGeneratorImpl implements IdGenerator
         return "IdGeneratorImpl " + hashCode() + " [highId=" + highId + ", defragged=" + defraggedIdCount + ", fileName="
                 + fileName + ", max=" + max + ", aggressive=" + aggressiveReuse + "]";
     }
+
+    /**
+     * Ids buffered by the threads picking this buffer. With enough buffers to go around the monitor is
+     * mostly uncontended, but {@link IdGeneratorImpl#close()} drains them from the closing thread.
+     * The monitor of the generator is never acquired while holding the monitor of a {@link LocalIds}.
+     */
+    private static class LocalIds
+    {
+        private static final long[] NO_IDS = new long[0];
+
+        private final long[] defragged;
+        private int defraggedStart, defraggedEnd;
+        private final long[] freed;
+        private int freedCount;
+
+        LocalIds( int size )
+        {
+            this.defragged = new long[size];
+            this.freed = new long[size];
+        }
+
+        synchronized long pollDefragged()
+        {
+            return defraggedStart < defraggedEnd ? defragged[defraggedStart++] : -1;
+        }
+
+        synchronized long pollFreed()
+        {
+            return freedCount > 0 ? freed[--freedCount] : -1;
+        }
+
+        /**
+         * @return {@code false} if the buffer still holds defragged ids, in which case nothing is added.
+         */
+        synchronized boolean offerDefragged( long[] ids, int from )
+        {
+            if ( defraggedStart < defraggedEnd )
+            {
+                return false;
+            }
+            int count = ids.length - from;
+            System.arraycopy( ids, from, defragged, 0, count );
+            defraggedStart = 0;
+            defraggedEnd = count;
+            return true;
+        }
+
+        /**
+         * @return all buffered freed ids if the buffer became full by freeing this id, otherwise {@code null}.
+         */
+        synchronized long[] free( long id )
+        {
+            freed[freedCount++] = id;
+            return freedCount == freed.length ? drainFreed() : null;
+        }
+
+        synchronized long[] drainFreed()
+        {
+            if ( freedCount == 0 )
+            {
+                return NO_IDS;
+            }
+            long[] ids = Arrays.copyOf( freed, freedCount );
+            freedCount = 0;
+            return ids;
+        }
+
+        synchronized long[] drainDefragged()
+        {
+            if ( defraggedStart == defraggedEnd )
+            {
+                return NO_IDS;
+            }
+            long[] ids = Arrays.copyOfRange( defragged, defraggedStart, defraggedEnd );
+            defraggedStart = defraggedEnd = 0;
+            return ids;
+        }
+    }
 }
@@ -33,6 +33,7 @@ import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.kernel.IdGeneratorFactory;
 import org.neo4j.kernel.IdType;
 import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsStore;
 import org.neo4j.kernel.impl.transaction.xaframework.LogVersionRepository;
 import org.neo4j.kernel.impl.util.Bits;
 import org.neo4j.kernel.impl.util.StringLogger;
@@ -90,6 +91,7 @@ public class NeoStore extends AbstractStore implements TransactionIdStore, LogVe
     private LabelTokenStore labelTokenStore;
     private SchemaStore schemaStore;
     private RelationshipGroupStore relGroupStore;
+    private CountsStore countsStore;
 
     // Fields the neostore keeps cached and must be initialized on startup
     private volatile long creationTimeField = FIELD_NOT_INITIALIZED;
@@ -112,7 +114,8 @@ public class NeoStore extends AbstractStore implements TransactionIdStore, LogVe
             FileSystemAbstraction fileSystemAbstraction, StringLogger stringLogger,
             RelationshipTypeTokenStore relTypeStore, LabelTokenStore labelTokenStore, PropertyStore propStore,
             RelationshipStore relStore, NodeStore nodeStore, SchemaStore schemaStore,
-            RelationshipGroupStore relGroupStore, StoreVersionMismatchHandler versionMismatchHandler, Monitors monitors )
+            RelationshipGroupStore relGroupStore, CountsStore countsStore,
+            StoreVersionMismatchHandler versionMismatchHandler, Monitors monitors )
     {
         super( fileName, conf, IdType.NEOSTORE_BLOCK, idGeneratorFactory, pageCache, fileSystemAbstraction,
                 stringLogger, versionMismatchHandler, monitors );
@@ -123,6 +126,7 @@ public class NeoStore extends AbstractStore implements TransactionIdStore, LogVe
         this.nodeStore = nodeStore;
         this.schemaStore = schemaStore;
         this.relGroupStore = relGroupStore;
+        this.countsStore = countsStore;
         relGrabSize = conf.get( Configuration.relationship_grab_size );
         /* [MP:2012-01-03] Fix for the problem in 1.5.M02 where store version got upgraded but
          * corresponding store version record was not added. That record was added in the release
@@ -286,6 +290,7 @@ public class NeoStore extends AbstractStore implements TransactionIdStore, LogVe
             relGroupStore.close();
             relGroupStore = null;
         }
+        countsStore = null;
     }
 
     @Override
@@ -300,6 +305,7 @@ public class NeoStore extends AbstractStore implements TransactionIdStore, LogVe
         {
             throw new UnderlyingStorageException( "Failed to flush", e );
         }
+        countsStore.flush();
     }
 
     public void flushNeoStoreOnly()
@@ -710,6 +716,14 @@ public class NeoStore extends AbstractStore implements TransactionIdStore, LogVe
         return relGroupStore;
     }
 
+    /**
+     * @return the {@link CountsStore}
+     */
+    public CountsStore getCountsStore()
+    {
+        return countsStore;
+    }
+
     @Override
     public void makeStoreOk()
     {
@@ -34,6 +34,7 @@ import org.neo4j.kernel.DefaultIdGeneratorFactory;
 import org.neo4j.kernel.IdGeneratorFactory;
 import org.neo4j.kernel.IdType;
 import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsStore;
 import org.neo4j.kernel.impl.util.StringLogger;
 import org.neo4j.kernel.monitoring.Monitors;
 
@@ -79,6 +80,7 @@ public class StoreFactory
     public static final String LABEL_TOKEN_NAMES_STORE_NAME = LABEL_TOKEN_STORE_NAME + NAMES_PART;
     public static final String SCHEMA_STORE_NAME = ".schemastore.db";
     public static final String RELATIONSHIP_GROUP_STORE_NAME = ".relationshipgroupstore.db";
+    public static final String COUNTS_STORE_NAME = ".counts.db";
     private final StoreVersionMismatchHandler versionMismatchHandler;
     private final File neoStoreFileName;
     private final Monitors monitors;
@@ -136,6 +138,7 @@ public class StoreFactory
                 // We don't need any particular upgrade when we add the schema store
                 newSchemaStore(),
                 newRelationshipGroupStore(),
+                newCountsStore(),
                 versionMismatchHandler, monitors );
     }
 
@@ -200,6 +203,11 @@ public class StoreFactory
                 pageCache, fileSystemAbstraction, stringLogger, nameStore, versionMismatchHandler, monitors );
     }
 
+    public CountsStore newCountsStore()
+    {
+        return new CountsStore( fileSystemAbstraction, storeFileName( COUNTS_STORE_NAME ), stringLogger );
+    }
+
     public RelationshipStore newRelationshipStore()
     {
         return new RelationshipStore( storeFileName( RELATIONSHIP_STORE_NAME ), config,
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.nioneo.store.counts;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.neo4j.kernel.impl.nioneo.store.counts.CountsKey.ANY;
+import static org.neo4j.kernel.impl.nioneo.store.counts.CountsKey.nodeKey;
+import static org.neo4j.kernel.impl.nioneo.store.counts.CountsKey.relationshipKey;
+
+/**
+ * Sums up changes to counts, for the nodes and relationships changed by a transaction or for a whole store when
+ * rebuilding the {@link CountsStore}. A relationship is counted under the combinations of its type and the labels
+ * of its start and end node that bind at most one label, since those are the ones that can be maintained exactly
+ * without looking at the neighbours of a node whose labels change.
+ */
+public class CountsAccumulator
+{
+    private final Map<CountsKey, long[]> deltas = new HashMap<>();
+
+    public void node( long[] labels, long delta )
+    {
+        add( nodeKey( ANY ), delta );
+        for ( long label : labels )
+        {
+            add( nodeKey( (int) label ), delta );
+        }
+    }
+
+    /**
+     * Accounts for labels being added to or removed from an existing node.
+     */
+    public void labels( long[] labels, long delta )
+    {
+        for ( long label : labels )
+        {
+            add( nodeKey( (int) label ), delta );
+        }
+    }
+
+    public void relationship( long[] startLabels, int typeId, long[] endLabels, long delta )
+    {
+        add( relationshipKey( ANY, ANY, ANY ), delta );
+        add( relationshipKey( ANY, typeId, ANY ), delta );
+        for ( long label : startLabels )
+        {
+            add( relationshipKey( (int) label, ANY, ANY ), delta );
+            add( relationshipKey( (int) label, typeId, ANY ), delta );
+        }
+        for ( long label : endLabels )
+        {
+            add( relationshipKey( ANY, ANY, (int) label ), delta );
+            add( relationshipKey( ANY, typeId, (int) label ), delta );
+        }
+    }
+
+    /**
+     * Accounts for a label being added to or removed from a node that has the given number of outgoing and
+     * incoming relationships of a type, which are unaffected by the label change themselves.
+     */
+    public void labelOnRelationships( int labelId, int typeId, long outgoing, long incoming, long sign )
+    {
+        if ( outgoing != 0 )
+        {
+            add( relationshipKey( labelId, ANY, ANY ), sign * outgoing );
+            add( relationshipKey( labelId, typeId, ANY ), sign * outgoing );
+        }
+        if ( incoming != 0 )
+        {
+            add( relationshipKey( ANY, ANY, labelId ), sign * incoming );
+            add( relationshipKey( ANY, typeId, labelId ), sign * incoming );
+        }
+    }
+
+    private void add( CountsKey key, long delta )
+    {
+        long[] count = deltas.get( key );
+        if ( count == null )
+        {
+            deltas.put( key, count = new long[1] );
+        }
+        count[0] += delta;
+    }
+
+    /**
+     * @return the non-zero changes, ordered by key.
+     */
+    public SortedMap<CountsKey, Long> changes()
+    {
+        SortedMap<CountsKey, Long> result = new TreeMap<>();
+        for ( Map.Entry<CountsKey, long[]> entry : deltas.entrySet() )
+        {
+            if ( entry.getValue()[0] != 0 )
+            {
+                result.put( entry.getKey(), entry.getValue()[0] );
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.nioneo.store.counts;
+
+import org.neo4j.kernel.impl.nioneo.store.NeoStore;
+import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
+import org.neo4j.kernel.impl.nioneo.store.NodeStore;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipStore;
+
+import static org.neo4j.kernel.impl.nioneo.store.labels.NodeLabelsField.parseLabelsField;
+
+/**
+ * Computes all counts by scanning the node and the relationship store, used to rebuild the {@link CountsStore}
+ * when it has no valid persisted state.
+ */
+public class CountsComputer
+{
+    private static final long[] NO_LABELS = new long[0];
+
+    private final NodeStore nodeStore;
+    private final RelationshipStore relationshipStore;
+
+    public CountsComputer( NeoStore neoStore )
+    {
+        this.nodeStore = neoStore.getNodeStore();
+        this.relationshipStore = neoStore.getRelationshipStore();
+    }
+
+    public void rebuild( CountsStore counts, long lastCommittedTxId )
+    {
+        counts.rebuild( compute().changes(), lastCommittedTxId );
+    }
+
+    public CountsAccumulator compute()
+    {
+        CountsAccumulator accumulator = new CountsAccumulator();
+        long highNodeId = nodeStore.getHighId();
+        for ( long id = 0; id < highNodeId; id++ )
+        {
+            NodeRecord node = nodeStore.forceGetRecord( id );
+            if ( node.inUse() )
+            {
+                accumulator.node( labelsOf( node ), 1 );
+            }
+        }
+        long highRelationshipId = relationshipStore.getHighId();
+        for ( long id = 0; id < highRelationshipId; id++ )
+        {
+            RelationshipRecord relationship = relationshipStore.forceGetRecord( id );
+            if ( relationship.inUse() )
+            {
+                accumulator.relationship( labelsOf( relationship.getFirstNode() ), relationship.getType(),
+                        labelsOf( relationship.getSecondNode() ), 1 );
+            }
+        }
+        return accumulator;
+    }
+
+    private long[] labelsOf( long nodeId )
+    {
+        NodeRecord node = nodeStore.forceGetRecord( nodeId );
+        return node.inUse() ? labelsOf( node ) : NO_LABELS;
+    }
+
+    private long[] labelsOf( NodeRecord node )
+    {
+        return parseLabelsField( node ).get( nodeStore );
+    }
+}
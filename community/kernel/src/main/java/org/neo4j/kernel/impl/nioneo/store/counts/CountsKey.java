@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.nioneo.store.counts;
+
+/**
+ * Identifies one counter in the {@link CountsStore}. A node key counts the nodes carrying a label,
+ * a relationship key counts the relationships of a type between a start and an end label. {@link #ANY} is used
+ * as wildcard for labels and types.
+ */
+public final class CountsKey implements Comparable<CountsKey>
+{
+    public static final int ANY = -1;
+
+    static final byte NODE = 1;
+    static final byte RELATIONSHIP = 2;
+
+    private final byte kind;
+    private final int startLabelId;
+    private final int typeId;
+    private final int endLabelId;
+
+    private CountsKey( byte kind, int startLabelId, int typeId, int endLabelId )
+    {
+        this.kind = kind;
+        this.startLabelId = startLabelId;
+        this.typeId = typeId;
+        this.endLabelId = endLabelId;
+    }
+
+    public static CountsKey nodeKey( int labelId )
+    {
+        return new CountsKey( NODE, labelId, ANY, ANY );
+    }
+
+    public static CountsKey relationshipKey( int startLabelId, int typeId, int endLabelId )
+    {
+        return new CountsKey( RELATIONSHIP, startLabelId, typeId, endLabelId );
+    }
+
+    public static CountsKey read( byte kind, int startLabelId, int typeId, int endLabelId )
+    {
+        if ( kind != NODE && kind != RELATIONSHIP )
+        {
+            throw new IllegalArgumentException( "Unknown counts key kind " + kind );
+        }
+        return new CountsKey( kind, startLabelId, typeId, endLabelId );
+    }
+
+    public boolean isNodeKey()
+    {
+        return kind == NODE;
+    }
+
+    public byte kind()
+    {
+        return kind;
+    }
+
+    /**
+     * @return the label of a node key, or the label of the start node of a relationship key.
+     */
+    public int startLabelId()
+    {
+        return startLabelId;
+    }
+
+    public int typeId()
+    {
+        return typeId;
+    }
+
+    public int endLabelId()
+    {
+        return endLabelId;
+    }
+
+    @Override
+    public int compareTo( CountsKey other )
+    {
+        int result = Byte.compare( kind, other.kind );
+        if ( result == 0 )
+        {
+            result = Integer.compare( startLabelId, other.startLabelId );
+        }
+        if ( result == 0 )
+        {
+            result = Integer.compare( typeId, other.typeId );
+        }
+        if ( result == 0 )
+        {
+            result = Integer.compare( endLabelId, other.endLabelId );
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        CountsKey that = (CountsKey) o;
+        return kind == that.kind && startLabelId == that.startLabelId && typeId == that.typeId &&
+                endLabelId == that.endLabelId;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = kind;
+        result = 31 * result + startLabelId;
+        result = 31 * result + typeId;
+        result = 31 * result + endLabelId;
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        if ( isNodeKey() )
+        {
+            return String.format( "CountsKey[(%s)]", token( startLabelId ) );
+        }
+        return String.format( "CountsKey[(%s)-[%s]->(%s)]",
+                token( startLabelId ), token( typeId ), token( endLabelId ) );
+    }
+
+    private static String token( int id )
+    {
+        return id == ANY ? "" : String.valueOf( id );
+    }
+}
@@ -0,0 +1,394 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.nioneo.store.counts;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.nioneo.store.UnderlyingStorageException;
+import org.neo4j.kernel.impl.util.StringLogger;
+
+/**
+ * Exact counts of nodes per label and of relationships per (start label, type, end label), see {@link CountsKey}.
+ * <p/>
+ * Counts are kept in memory and updated as transactions are applied, through the counts command that every
+ * transaction carries in the log. Reads are a single hash lookup.
+ * <p/>
+ * The counts are persisted when the store is flushed, alternating between two files so that a crash while
+ * writing one of them always leaves the other one intact. Each file starts with a header holding the id of the
+ * last transaction such that it and all transactions before it are reflected in its counts, and ends with a
+ * trailer; a file without a trailer is ignored. Transactions are applied exactly once each, but not necessarily
+ * in transaction id order, since transactions committed together may be applied by their committing threads in
+ * any order. Therefore the file also lists the ids of the transactions applied after a gap. During recovery,
+ * transactions at or below the header transaction id, or listed in the file, are skipped. Transactions are
+ * applied and persisted mutually exclusively, so a file never holds part of a transaction.
+ * <p/>
+ * If no valid file is found the store is marked as requiring a rebuild, which is done by scanning the
+ * node and relationship stores once recovery has completed, see {@link CountsComputer}.
+ */
+public class CountsStore
+{
+    public static final String ALPHA = ".a";
+    public static final String BETA = ".b";
+
+    private static final long MAGIC = 0x436F756E74730002L; // "Counts" + format version
+    private static final int HEADER_SIZE = 8 /*magic*/ + 8 /*last tx id*/ + 4 /*entries*/ + 4 /*tx ids after gap*/;
+    private static final int ENTRY_SIZE = 1 /*kind*/ + 4 /*start label*/ + 4 /*type*/ + 4 /*end label*/ + 8 /*count*/;
+    private static final int TX_ID_SIZE = 8;
+    private static final int TRAILER_SIZE = 8 /*magic*/;
+
+    private final FileSystemAbstraction fs;
+    private final File alphaFile;
+    private final File betaFile;
+    private final StringLogger logger;
+    private final ConcurrentMap<CountsKey, AtomicLong> counts = new ConcurrentHashMap<>();
+
+    // Transactions are applied holding the read lock, whereas the counts are persisted, rebuilt or cleared
+    // holding the write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private File lastWrittenFile;
+    // Id of the last transaction such that it and all transactions before it are included in the counts,
+    // guarded by appliedAfterGap
+    private long lastGapFreeTxId;
+    // Ids of the transactions included in the counts that are above a gap
+    private final TreeSet<Long> appliedAfterGap = new TreeSet<>();
+    private volatile boolean rebuildRequired;
+
+    public CountsStore( FileSystemAbstraction fs, File fileName, StringLogger logger )
+    {
+        this.fs = fs;
+        this.alphaFile = new File( fileName.getPath() + ALPHA );
+        this.betaFile = new File( fileName.getPath() + BETA );
+        this.logger = logger;
+        load();
+    }
+
+    public long nodeCount( int labelId )
+    {
+        return get( CountsKey.nodeKey( labelId ) );
+    }
+
+    public long relationshipCount( int startLabelId, int typeId, int endLabelId )
+    {
+        return get( CountsKey.relationshipKey( startLabelId, typeId, endLabelId ) );
+    }
+
+    public long get( CountsKey key )
+    {
+        AtomicLong count = counts.get( key );
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Applies the counts changes of a transaction. Transactions may be applied concurrently and in any order,
+     * only those already part of the counts are skipped, which is the case for transactions replayed during
+     * recovery. Every transaction must be applied, also those not changing any counts, for the counts store to
+     * know which transactions it includes.
+     *
+     * @return {@code true} if the changes were applied, {@code false} if they were already part of the counts,
+     * or will be computed by a pending rebuild.
+     */
+    public boolean apply( long txId, CountsKey[] keys, long[] deltas )
+    {
+        lock.readLock().lock();
+        try
+        {
+            if ( rebuildRequired || !markAsApplied( txId ) )
+            {
+                return false;
+            }
+            for ( int i = 0; i < keys.length; i++ )
+            {
+                increment( keys[i], deltas[i] );
+            }
+            return true;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean markAsApplied( long txId )
+    {
+        synchronized ( appliedAfterGap )
+        {
+            if ( txId <= lastGapFreeTxId || !appliedAfterGap.add( txId ) )
+            {
+                return false;
+            }
+            while ( !appliedAfterGap.isEmpty() && appliedAfterGap.first() == lastGapFreeTxId + 1 )
+            {
+                lastGapFreeTxId = appliedAfterGap.pollFirst();
+            }
+            return true;
+        }
+    }
+
+    private void increment( CountsKey key, long delta )
+    {
+        AtomicLong count = counts.get( key );
+        if ( count == null )
+        {
+            AtomicLong existing = counts.putIfAbsent( key, count = new AtomicLong() );
+            if ( existing != null )
+            {
+                count = existing;
+            }
+        }
+        count.addAndGet( delta );
+    }
+
+    /**
+     * @return the highest id of the transactions included in the counts.
+     */
+    public long lastTxId()
+    {
+        synchronized ( appliedAfterGap )
+        {
+            return appliedAfterGap.isEmpty() ? lastGapFreeTxId : appliedAfterGap.last();
+        }
+    }
+
+    /**
+     * @return whether the counts must be recomputed from the store, because no valid counts file was found,
+     * or because the counts reflect transactions the store doesn't know about.
+     */
+    public boolean isRebuildRequired( long lastCommittedTxId )
+    {
+        return rebuildRequired || lastTxId() > lastCommittedTxId;
+    }
+
+    /**
+     * Replaces all counts with the given ones, computed from the store as of the given transaction.
+     */
+    public void rebuild( Map<CountsKey, Long> computed, long txId )
+    {
+        lock.writeLock().lock();
+        try
+        {
+            counts.clear();
+            for ( Map.Entry<CountsKey, Long> entry : computed.entrySet() )
+            {
+                counts.put( entry.getKey(), new AtomicLong( entry.getValue() ) );
+            }
+            setLastGapFreeTxId( txId );
+            rebuildRequired = false;
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the counts as no longer reflecting the store, for example after the store has been modified
+     * bypassing the transaction log. Stale counts are not persisted, which makes the next startup rebuild them.
+     */
+    public void markAsStale()
+    {
+        lock.writeLock().lock();
+        try
+        {
+            rebuildRequired = true;
+            counts.clear();
+            fs.deleteFile( alphaFile );
+            fs.deleteFile( betaFile );
+            lastWrittenFile = null;
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the counts to the file not written last, so that the other one stays valid until this write has
+     * been forced. Transactions being applied concurrently are either entirely part of the written counts,
+     * or not at all.
+     */
+    public void flush()
+    {
+        lock.writeLock().lock();
+        try
+        {
+            if ( rebuildRequired )
+            {
+                return;
+            }
+            write( alphaFile.equals( lastWrittenFile ) ? betaFile : alphaFile );
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write( File target )
+    {
+        SortedMap<CountsKey, Long> snapshot = new TreeMap<>();
+        for ( Map.Entry<CountsKey, AtomicLong> entry : counts.entrySet() )
+        {
+            long count = entry.getValue().get();
+            if ( count != 0 )
+            {
+                snapshot.put( entry.getKey(), count );
+            }
+        }
+        ByteBuffer buffer;
+        synchronized ( appliedAfterGap )
+        {
+            buffer = ByteBuffer.allocate( HEADER_SIZE + snapshot.size() * ENTRY_SIZE +
+                    appliedAfterGap.size() * TX_ID_SIZE + TRAILER_SIZE );
+            buffer.putLong( MAGIC ).putLong( lastGapFreeTxId ).putInt( snapshot.size() )
+                  .putInt( appliedAfterGap.size() );
+            for ( Map.Entry<CountsKey, Long> entry : snapshot.entrySet() )
+            {
+                CountsKey key = entry.getKey();
+                buffer.put( key.kind() ).putInt( key.startLabelId() ).putInt( key.typeId() )
+                      .putInt( key.endLabelId() ).putLong( entry.getValue() );
+            }
+            for ( long txId : appliedAfterGap )
+            {
+                buffer.putLong( txId );
+            }
+        }
+        buffer.putLong( MAGIC );
+        buffer.flip();
+        try ( StoreChannel channel = fs.open( target, "rw" ) )
+        {
+            channel.truncate( 0 );
+            channel.writeAll( buffer, 0 );
+            channel.force( false );
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( "Unable to write counts store " + target, e );
+        }
+        lastWrittenFile = target;
+    }
+
+    private void load()
+    {
+        long alphaTxId = readTxId( alphaFile );
+        long betaTxId = readTxId( betaFile );
+        File source = alphaTxId >= betaTxId ? alphaFile : betaFile;
+        if ( Math.max( alphaTxId, betaTxId ) == -1 || !read( source ) )
+        {
+            logger.info( "No valid counts store found at " + alphaFile.getParentFile() + ", it will be rebuilt" );
+            counts.clear();
+            rebuildRequired = true;
+            setLastGapFreeTxId( -1 );
+            return;
+        }
+        lastWrittenFile = source;
+    }
+
+    private void setLastGapFreeTxId( long txId )
+    {
+        synchronized ( appliedAfterGap )
+        {
+            lastGapFreeTxId = txId;
+            appliedAfterGap.clear();
+        }
+    }
+
+    private long readTxId( File file )
+    {
+        if ( !fs.fileExists( file ) )
+        {
+            return -1;
+        }
+        try ( StoreChannel channel = fs.open( file, "r" ) )
+        {
+            ByteBuffer header = ByteBuffer.allocate( HEADER_SIZE );
+            if ( channel.read( header, 0 ) != HEADER_SIZE )
+            {
+                return -1;
+            }
+            header.flip();
+            if ( header.getLong() != MAGIC )
+            {
+                return -1;
+            }
+            long txId = header.getLong();
+            int entries = header.getInt();
+            int txIdsAfterGap = header.getInt();
+            long trailerPosition = HEADER_SIZE + (long) entries * ENTRY_SIZE + (long) txIdsAfterGap * TX_ID_SIZE;
+            ByteBuffer trailer = ByteBuffer.allocate( TRAILER_SIZE );
+            if ( entries < 0 || txIdsAfterGap < 0 || channel.read( trailer, trailerPosition ) != TRAILER_SIZE )
+            {
+                return -1;
+            }
+            trailer.flip();
+            return trailer.getLong() == MAGIC ? txId : -1;
+        }
+        catch ( IOException e )
+        {
+            logger.warn( "Unable to read counts store " + file, e );
+            return -1;
+        }
+    }
+
+    private boolean read( File file )
+    {
+        try ( StoreChannel channel = fs.open( file, "r" ) )
+        {
+            ByteBuffer buffer = ByteBuffer.allocate( (int) channel.size() );
+            while ( buffer.hasRemaining() && channel.read( buffer ) != -1 )
+            {
+                // read the whole file, it's small
+            }
+            buffer.flip();
+            buffer.getLong();
+            long txId = buffer.getLong();
+            int entries = buffer.getInt();
+            int txIdsAfterGap = buffer.getInt();
+            for ( int i = 0; i < entries; i++ )
+            {
+                CountsKey key = CountsKey.read( buffer.get(), buffer.getInt(), buffer.getInt(), buffer.getInt() );
+                counts.put( key, new AtomicLong( buffer.getLong() ) );
+            }
+            setLastGapFreeTxId( txId );
+            for ( int i = 0; i < txIdsAfterGap; i++ )
+            {
+                markAsApplied( buffer.getLong() );
+            }
+            return true;
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            logger.warn( "Unable to read counts store " + file, e );
+            return false;
+        }
+    }
+}
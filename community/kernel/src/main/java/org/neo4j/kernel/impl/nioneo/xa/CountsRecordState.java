@@ -0,0 +1,317 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.nioneo.xa;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.neo4j.kernel.impl.nioneo.store.NeoStore;
+import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
+import org.neo4j.kernel.impl.nioneo.store.NodeStore;
+import org.neo4j.kernel.impl.nioneo.store.Record;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipStore;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsAccumulator;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsKey;
+import org.neo4j.kernel.impl.nioneo.xa.RecordChanges.RecordChange;
+import org.neo4j.kernel.impl.nioneo.xa.command.Command;
+
+import static org.neo4j.kernel.impl.nioneo.store.labels.NodeLabelsField.parseLabelsField;
+
+/**
+ * Computes the changes a transaction makes to the counts of nodes and relationships, from the node and
+ * relationship records it changed. The state before the transaction is read from the store, which hasn't been
+ * touched by this transaction yet at the time its commands are extracted.
+ * <p/>
+ * Created relationships are counted under the labels their nodes have after the transaction, deleted ones under
+ * the labels their nodes had before it. When labels are added to or removed from a node that survives the
+ * transaction, the relationships of that node that also survive it are moved between the affected counts.
+ */
+class CountsRecordState
+{
+    private static final long[] NO_LABELS = new long[0];
+    private static final int OUTGOING = 0;
+    private static final int INCOMING = 1;
+
+    private final NodeStore nodeStore;
+    private final RelationshipStore relationshipStore;
+    private final RelationshipGroupStore relationshipGroupStore;
+    private final NeoStoreTransactionContext context;
+    private final Map<Long, long[]> labelsBefore = new HashMap<>();
+    private final CountsAccumulator counts = new CountsAccumulator();
+
+    CountsRecordState( NeoStore neoStore, NeoStoreTransactionContext context )
+    {
+        this.nodeStore = neoStore.getNodeStore();
+        this.relationshipStore = neoStore.getRelationshipStore();
+        this.relationshipGroupStore = neoStore.getRelationshipGroupStore();
+        this.context = context;
+    }
+
+    /**
+     * @return the command carrying the counts changes of the transaction, or {@code null} if it changes no counts.
+     */
+    Command.CountsCommand extractCommand()
+    {
+        for ( RecordChange<Long, RelationshipRecord, Void> change : context.getRelRecords().changes() )
+        {
+            RelationshipRecord record = change.forReadingLinkage();
+            if ( change.isCreated() && record.inUse() )
+            {
+                counts.relationship( labelsAfter( record.getFirstNode() ), record.getType(),
+                        labelsAfter( record.getSecondNode() ), 1 );
+            }
+            else if ( !change.isCreated() && !record.inUse() )
+            {
+                counts.relationship( labelsBefore( record.getFirstNode() ), record.getType(),
+                        labelsBefore( record.getSecondNode() ), -1 );
+            }
+        }
+
+        for ( RecordChange<Long, NodeRecord, Void> change : context.getNodeRecords().changes() )
+        {
+            long nodeId = change.forReadingLinkage().getId();
+            boolean inUseBefore = change.getBefore().inUse();
+            boolean inUseAfter = change.forReadingLinkage().inUse();
+            if ( !inUseBefore && inUseAfter )
+            {
+                counts.node( labelsAfter( nodeId, change ), 1 );
+            }
+            else if ( inUseBefore && !inUseAfter )
+            {
+                counts.node( labelsBefore( nodeId, change ), -1 );
+            }
+            else if ( inUseBefore )
+            {
+                long[] before = labelsBefore( nodeId, change );
+                long[] after = labelsAfter( nodeId, change );
+                long[] added = difference( after, before );
+                long[] removed = difference( before, after );
+                if ( added.length > 0 || removed.length > 0 )
+                {
+                    counts.labels( added, 1 );
+                    counts.labels( removed, -1 );
+                    moveSurvivingRelationships( nodeId, added, removed );
+                }
+            }
+        }
+
+        SortedMap<CountsKey, Long> changes = counts.changes();
+        if ( changes.isEmpty() )
+        {
+            return null;
+        }
+        CountsKey[] keys = new CountsKey[changes.size()];
+        long[] deltas = new long[changes.size()];
+        int i = 0;
+        for ( Map.Entry<CountsKey, Long> entry : changes.entrySet() )
+        {
+            keys[i] = entry.getKey();
+            deltas[i++] = entry.getValue();
+        }
+        return new Command.CountsCommand().init( keys, deltas );
+    }
+
+    private void moveSurvivingRelationships( long nodeId, long[] added, long[] removed )
+    {
+        Map<Integer, long[]> degrees = degreesBefore( nodeId );
+        if ( degrees.isEmpty() )
+        {
+            return;
+        }
+        for ( RecordChange<Long, RelationshipRecord, Void> change : context.getRelRecords().changes() )
+        {
+            RelationshipRecord record = change.forReadingLinkage();
+            boolean connected = record.getFirstNode() == nodeId || record.getSecondNode() == nodeId;
+            if ( connected && !change.isCreated() && !record.inUse() )
+            {   // Deleted by this transaction, and already counted under the labels from before it
+                long[] degree = degrees.get( record.getType() );
+                if ( record.getFirstNode() == nodeId )
+                {
+                    degree[OUTGOING]--;
+                }
+                if ( record.getSecondNode() == nodeId )
+                {
+                    degree[INCOMING]--;
+                }
+            }
+        }
+        for ( Map.Entry<Integer, long[]> entry : degrees.entrySet() )
+        {
+            long[] degree = entry.getValue();
+            for ( long label : added )
+            {
+                counts.labelOnRelationships( (int) label, entry.getKey(), degree[OUTGOING], degree[INCOMING], 1 );
+            }
+            for ( long label : removed )
+            {
+                counts.labelOnRelationships( (int) label, entry.getKey(), degree[OUTGOING], degree[INCOMING], -1 );
+            }
+        }
+    }
+
+    /**
+     * @return relationship type -> outgoing and incoming degree of the node in the store, where loops count
+     * in both directions.
+     */
+    private Map<Integer, long[]> degreesBefore( long nodeId )
+    {
+        Map<Integer, long[]> degrees = new HashMap<>();
+        NodeRecord node = nodeStore.forceGetRecord( nodeId );
+        long next = node.getNextRel();
+        if ( node.isDense() )
+        {
+            while ( next != Record.NO_NEXT_RELATIONSHIP.intValue() )
+            {
+                RelationshipGroupRecord group = relationshipGroupStore.getRecord( next );
+                long loops = chainLength( nodeId, group.getFirstLoop() );
+                degrees.put( group.getType(), new long[]{
+                        chainLength( nodeId, group.getFirstOut() ) + loops,
+                        chainLength( nodeId, group.getFirstIn() ) + loops} );
+                next = group.getNext();
+            }
+            return degrees;
+        }
+
+        while ( next != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        {
+            RelationshipRecord relationship = relationshipStore.getRecord( next );
+            long[] degree = degrees.get( relationship.getType() );
+            if ( degree == null )
+            {
+                degrees.put( relationship.getType(), degree = new long[2] );
+            }
+            if ( relationship.getFirstNode() == nodeId )
+            {
+                degree[OUTGOING]++;
+            }
+            if ( relationship.getSecondNode() == nodeId )
+            {
+                degree[INCOMING]++;
+            }
+            next = relationship.getFirstNode() == nodeId ?
+                    relationship.getFirstNextRel() : relationship.getSecondNextRel();
+        }
+        return degrees;
+    }
+
+    private long chainLength( long nodeId, long firstRelationship )
+    {   // The length of a chain is kept in the prev field of its first record
+        if ( firstRelationship == Record.NO_NEXT_RELATIONSHIP.intValue() )
+        {
+            return 0;
+        }
+        return RelationshipChainLoader.relCount( nodeId, relationshipStore.getRecord( firstRelationship ) );
+    }
+
+    private long[] labelsBefore( long nodeId )
+    {
+        return labelsBefore( nodeId, changeOf( nodeId ) );
+    }
+
+    /**
+     * @param change the change of the node in this transaction, or {@code null} if it isn't changed.
+     */
+    private long[] labelsBefore( long nodeId, RecordChange<Long, NodeRecord, Void> change )
+    {
+        long[] labels = labelsBefore.get( nodeId );
+        if ( labels == null )
+        {
+            NodeRecord before = change != null ? change.getBefore() : null;
+            if ( before != null && !before.inUse() )
+            {
+                labels = NO_LABELS;
+            }
+            else
+            {
+                labels = before != null ? parseLabelsField( before ).getIfLoaded() : null;
+                if ( labels == null )
+                {
+                    // A fresh record, so that loading its dynamic label records doesn't affect the transaction
+                    NodeRecord node = nodeStore.forceGetRecord( nodeId );
+                    labels = node.inUse() ? parseLabelsField( node ).get( nodeStore ) : NO_LABELS;
+                }
+            }
+            labelsBefore.put( nodeId, labels );
+        }
+        return labels;
+    }
+
+    private long[] labelsAfter( long nodeId )
+    {
+        return labelsAfter( nodeId, changeOf( nodeId ) );
+    }
+
+    /**
+     * @param change the change of the node in this transaction, or {@code null} if it isn't changed.
+     */
+    private long[] labelsAfter( long nodeId, RecordChange<Long, NodeRecord, Void> change )
+    {
+        if ( change == null )
+        {
+            return labelsBefore( nodeId, null );
+        }
+        NodeRecord node = change.forReadingLinkage();
+        if ( !node.inUse() )
+        {
+            return NO_LABELS;
+        }
+        // Labels are only changed through records loaded with their dynamic label records,
+        // so labels that are not loaded are the ones from before the transaction
+        long[] labels = parseLabelsField( node ).getIfLoaded();
+        return labels != null ? labels : labelsBefore( nodeId, change );
+    }
+
+    private RecordChange<Long, NodeRecord, Void> changeOf( long nodeId )
+    {
+        RecordChange<Long, NodeRecord, Void> change = context.getNodeRecords().getIfLoaded( nodeId );
+        return change != null && change.isChanged() ? change : null;
+    }
+
+    private static long[] difference( long[] labels, long[] toRemove )
+    {
+        long[] result = new long[labels.length];
+        int size = 0;
+        for ( long label : labels )
+        {
+            if ( !contains( toRemove, label ) )
+            {
+                result[size++] = label;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf( result, size );
+    }
+
+    private static boolean contains( long[] labels, long label )
+    {
+        for ( long candidate : labels )
+        {
+            if ( candidate == label )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
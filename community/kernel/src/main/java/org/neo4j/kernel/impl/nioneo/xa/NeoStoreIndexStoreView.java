@@ -19,6 +19,9 @@
  */
 package org.neo4j.kernel.impl.nioneo.xa;
 
+import static java.lang.Math.max;
+
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.range;
 import static org.neo4j.kernel.api.index.NodePropertyUpdate.EMPTY_LONG_ARRAY;
 import static org.neo4j.kernel.api.labelscan.NodeLabelUpdate.labelChanges;
 import static org.neo4j.kernel.impl.nioneo.store.labels.NodeLabelsField.parseLabelsField;
@@ -150,6 +153,57 @@ public class NeoStoreIndexStoreView implements IndexStoreView
         };
     }
 
+    @Override
+    public <FAILURE extends Exception> StoreScan<FAILURE> visitNodesInRange(
+            final int[] labelIds, final int[] propertyKeyIds, final long fromNodeId, final long toNodeId,
+            final Visitor<NodePropertyUpdate, FAILURE> propertyUpdateVisitor )
+    {
+        return new NodeStoreScan<List<NodePropertyUpdate>, FAILURE>()
+        {
+            @Override
+            protected PrimitiveLongIterator nodeIds()
+            {
+                return range( max( fromNodeId, nodeStore.getNumberOfReservedLowIds() ), toNodeId - 1 );
+            }
+
+            @Override
+            protected List<NodePropertyUpdate> read( NodeRecord node )
+            {
+                long[] labels = parseLabelsField( node ).get( nodeStore );
+                if ( !containsAnyLabel( labelIds, labels ) )
+                {
+                    return null;
+                }
+                List<NodePropertyUpdate> updates = new ArrayList<>();
+                for ( PropertyBlock property : properties( node ) )
+                {
+                    int propertyKeyId = property.getKeyIndexId();
+                    if ( containsPropertyKey( propertyKeyIds, propertyKeyId ) )
+                    {
+                        updates.add( NodePropertyUpdate.add( node.getId(), propertyKeyId, valueOf( property ),
+                                labels ) );
+                    }
+                }
+                return updates;
+            }
+
+            @Override
+            protected void process( List<NodePropertyUpdate> updates ) throws FAILURE
+            {
+                for ( NodePropertyUpdate update : updates )
+                {
+                    propertyUpdateVisitor.visit( update );
+                }
+            }
+        };
+    }
+
+    @Override
+    public long nodeHighId()
+    {
+        return nodeStore.getHighId();
+    }
+
     @Override
     public Iterable<NodePropertyUpdate> nodeAsUpdates( long nodeId )
     {
@@ -247,6 +301,18 @@ public class NeoStoreIndexStoreView implements IndexStoreView
         return false;
     }
 
+    private static boolean containsPropertyKey( int[] soughtIds, int propertyKeyId )
+    {
+        for ( int soughtId : soughtIds )
+        {
+            if ( soughtId == propertyKeyId )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static class Update implements Iterable<NodePropertyUpdate>
     {
         private final NodeLabelUpdate labels;
@@ -313,10 +379,15 @@ public class NeoStoreIndexStoreView implements IndexStoreView
 
         protected abstract void process( RESULT result ) throws FAILURE;
 
+        protected PrimitiveLongIterator nodeIds()
+        {
+            return new StoreIdIterator( nodeStore );
+        }
+
         @Override
         public void run() throws FAILURE
         {
-            PrimitiveLongIterator nodeIds = new StoreIdIterator( nodeStore );
+            PrimitiveLongIterator nodeIds = nodeIds();
             continueScanning = true;
             while ( continueScanning && nodeIds.hasNext() )
             {
@@ -63,9 +63,11 @@ import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionHooks;
 import org.neo4j.kernel.impl.api.TransactionRepresentationStoreApplier;
 import org.neo4j.kernel.impl.api.UpdateableSchemaState;
+import org.neo4j.kernel.impl.api.index.IndexSamplingController;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider;
 import org.neo4j.kernel.impl.api.state.ConstraintIndexCreator;
+import org.neo4j.kernel.impl.api.statistics.CountsStatisticsService;
 import org.neo4j.kernel.impl.api.statistics.StatisticsService;
 import org.neo4j.kernel.impl.api.statistics.StatisticsServiceRepository;
 import org.neo4j.kernel.impl.api.store.CacheLayer;
@@ -98,6 +100,8 @@ import org.neo4j.kernel.impl.nioneo.store.SchemaStorage;
 import org.neo4j.kernel.impl.nioneo.store.StoreFactory;
 import org.neo4j.kernel.impl.nioneo.store.StoreId;
 import org.neo4j.kernel.impl.nioneo.store.TransactionIdStore;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsComputer;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsStore;
 import org.neo4j.kernel.impl.storemigration.StoreUpgrader;
 import org.neo4j.kernel.impl.transaction.KernelHealth;
 import org.neo4j.kernel.impl.transaction.xaframework.LogFile;
@@ -396,9 +400,13 @@ public class NeoStoreXaDataSource implements NeoStoreProvider, Lifecycle, LogRot
                 persistenceCache );
         try
         {
+            IndexSamplingController samplingController = new IndexSamplingController(
+                    config.get( GraphDatabaseSettings.index_background_sampling_enabled ),
+                    config.get( GraphDatabaseSettings.index_sampling_update_percentage ),
+                    logging.getMessagesLog( IndexSamplingController.class ) );
             indexingService = new IndexingService( scheduler, providerMap, new NeoStoreIndexStoreView(
                     lockService, neoStore ), tokenNameLookup, updateableSchemaState, indexRuleLoader(), logging,
-                    indexingServiceMonitor ); // TODO 2.2-future What index rules should be
+                    indexingServiceMonitor, samplingController, indexPopulationWorkers() ); // TODO 2.2-future What index rules should be
             final IntegrityValidator integrityValidator = new IntegrityValidator( neoStore, indexingService );
             labelScanStore = dependencyResolver.resolveDependency( LabelScanStoreProvider.class,
                     LabelScanStoreProvider.HIGHEST_PRIORITIZED ).getLabelScanStore();
@@ -428,8 +436,9 @@ public class NeoStoreXaDataSource implements NeoStoreProvider, Lifecycle, LogRot
 
             LegacyPropertyTrackers legacyPropertyTrackers = new LegacyPropertyTrackers( propertyKeyTokenHolder,
                     nodeManager.getNodePropertyTrackers(), nodeManager.getRelationshipPropertyTrackers(), nodeManager );
-            StatisticsService statisticsService =
-                    new StatisticsServiceRepository( fs, config, storeLayer, scheduler ).loadStatistics();
+            StatisticsService statisticsService = new CountsStatisticsService(
+                    new StatisticsServiceRepository( fs, config, storeLayer, scheduler ).loadStatistics(),
+                    neoStore.getCountsStore(), indexingService );
             final NeoStoreTransactionContextSupplier neoStoreTransactionContextSupplier =
                     new NeoStoreTransactionContextSupplier( neoStore );
 
@@ -480,7 +489,9 @@ public class NeoStoreXaDataSource implements NeoStoreProvider, Lifecycle, LogRot
 
             final LogicalTransactionStore logicalTransactionStore = dependencies.satisfyDependency(
                     LogicalTransactionStore.class, new PhysicalLogicalTransactionStore( logFile, txIdGenerator,
-                            transactionMetadataCache, neoStore ));
+                            transactionMetadataCache, neoStore,
+                            config.get( GraphDatabaseSettings.group_commit_max_batch_size ),
+                            config.get( GraphDatabaseSettings.group_commit_max_wait ), transactionMonitor ));
 
             TransactionCommitProcess transactionCommitProcess = dependencies.satisfyDependency( TransactionCommitProcess.class,
                                         commitProcessFactory.create( logicalTransactionStore, kernelHealth,
@@ -534,6 +545,7 @@ public class NeoStoreXaDataSource implements NeoStoreProvider, Lifecycle, LogRot
                 @Override
                 public void start()
                 {
+                    rebuildCountsIfRequired();
                     neoStore.makeStoreOk();
                 }
             } );
@@ -569,6 +581,18 @@ public class NeoStoreXaDataSource implements NeoStoreProvider, Lifecycle, LogRot
         }
     }
 
+    private void rebuildCountsIfRequired()
+    {
+        CountsStore counts = neoStore.getCountsStore();
+        long lastCommittedTxId = neoStore.getLastCommittedTransactionId();
+        if ( counts.isRebuildRequired( lastCommittedTxId ) )
+        {
+            msgLog.info( "Rebuilding counts store as of transaction " + lastCommittedTxId );
+            new CountsComputer( neoStore ).rebuild( counts, lastCommittedTxId );
+            msgLog.info( "Counts store rebuilt" );
+        }
+    }
+
     private void loadSchemaCache()
     {
         schemaCache.clear();
@@ -578,6 +602,12 @@ public class NeoStoreXaDataSource implements NeoStoreProvider, Lifecycle, LogRot
         }
     }
 
+    private int indexPopulationWorkers()
+    {
+        Integer workers = config.get( GraphDatabaseSettings.index_population_workers );
+        return workers != null ? workers : Runtime.getRuntime().availableProcessors();
+    }
+
     private Iterable<IndexRule> indexRuleLoader()
     {
         return new Iterable<IndexRule>()
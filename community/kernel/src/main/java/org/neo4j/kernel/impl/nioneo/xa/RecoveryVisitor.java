@@ -21,6 +21,8 @@ package org.neo4j.kernel.impl.nioneo.xa;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.helpers.collection.Visitor;
@@ -28,11 +30,19 @@ import org.neo4j.kernel.impl.api.TransactionRepresentationStoreApplier;
 import org.neo4j.kernel.impl.nioneo.store.TransactionIdStore;
 import org.neo4j.kernel.impl.transaction.xaframework.CommittedTransactionRepresentation;
 
+/**
+ * Applies recovered transactions to the store. Transactions are applied in batches of {@link #BATCH_SIZE},
+ * so that index updates are done once per batch rather than once per transaction. What's left of the last
+ * batch is applied on {@link #close()}.
+ */
 public class RecoveryVisitor implements Visitor<CommittedTransactionRepresentation, IOException>, Closeable
 {
+    public static final int BATCH_SIZE = 100;
+
     private final TransactionIdStore store;
     private final TransactionRepresentationStoreApplier storeApplier;
     private final AtomicInteger recoveredCount;
+    private List<CommittedTransactionRepresentation> batch = new ArrayList<>( BATCH_SIZE );
 
     private long lastTransactionIdApplied = -1;
 
@@ -48,16 +58,29 @@ public class RecoveryVisitor implements Visitor<CommittedTransactionRepresentati
     @Override
     public boolean visit( CommittedTransactionRepresentation transaction ) throws IOException
     {
-        long txId = transaction.getCommitEntry().getTxId();
-        storeApplier.apply( transaction.getTransactionRepresentation(), txId, true );
-        recoveredCount.incrementAndGet();
-        lastTransactionIdApplied = txId;
+        batch.add( transaction );
+        if ( batch.size() >= BATCH_SIZE )
+        {
+            applyBatch();
+        }
         return true;
     }
 
+    private void applyBatch() throws IOException
+    {
+        storeApplier.apply( batch, true );
+        recoveredCount.addAndGet( batch.size() );
+        lastTransactionIdApplied = batch.get( batch.size() - 1 ).getCommitEntry().getTxId();
+        batch = new ArrayList<>( BATCH_SIZE );
+    }
+
     @Override
     public void close() throws IOException
     {
+        if ( !batch.isEmpty() )
+        {
+            applyBatch();
+        }
         if ( lastTransactionIdApplied != -1 )
         {
             store.setLastCommittedAndClosedTransactionId( lastTransactionIdApplied );
@@ -127,6 +127,7 @@ public class TransactionRecordState
     {
     	assert !prepared : "Transaction has already been prepared";
 
+        Command.CountsCommand countsCommand = new CountsRecordState( neoStore, context ).extractCommand();
         int noOfCommands = context.getNodeRecords().changeSize() +
                            context.getRelRecords().changeSize() +
                            context.getPropertyRecords().changeSize() +
@@ -135,7 +136,8 @@ public class TransactionRecordState
                            context.getLabelTokenRecords().changeSize() +
                            context.getRelationshipTypeTokenRecords().changeSize() +
                            context.getRelGroupRecords().changeSize() +
-                           (neoStoreRecord != null ? neoStoreRecord.changeSize() : 0);
+                           (neoStoreRecord != null ? neoStoreRecord.changeSize() : 0) +
+                           (countsCommand != null ? 1 : 0);
 
         List<Command> commands = new ArrayList<>( noOfCommands );
         for ( RecordProxy<Integer, LabelTokenRecord, Void> record : context.getLabelTokenRecords().changes() )
@@ -216,6 +218,10 @@ public class TransactionRecordState
             command.init( change.getBefore(), change.forChangingData(), change.getAdditionalData() );
             commands.add( command );
         }
+        if ( countsCommand != null )
+        {
+            commands.add( countsCommand );
+        }
         assert commands.size() == noOfCommands : "Expected " + noOfCommands + " final commands, got "
                 + commands.size() + " instead";
 
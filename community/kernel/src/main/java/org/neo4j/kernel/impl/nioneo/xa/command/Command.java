@@ -34,6 +34,7 @@ import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.nioneo.store.SchemaRule;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsKey;
 import org.neo4j.kernel.impl.nioneo.xa.PropertyRecordChange;
 
 import static java.util.Collections.unmodifiableCollection;
@@ -549,4 +550,54 @@ public abstract class Command
             return recordsBefore;
         }
     }
+
+    /**
+     * The changes a transaction makes to the {@link org.neo4j.kernel.impl.nioneo.store.counts.CountsStore counts},
+     * as computed when the transaction was committed. There is at most one such command per transaction.
+     */
+    public static class CountsCommand extends Command
+    {
+        private CountsKey[] keys;
+        private long[] deltas;
+
+        public CountsCommand init( CountsKey[] keys, long[] deltas )
+        {
+            setup( 0, Mode.UPDATE );
+            this.keys = keys;
+            this.deltas = deltas;
+            return this;
+        }
+
+        @Override
+        public void accept( CommandRecordVisitor visitor )
+        {   // not a record
+        }
+
+        @Override
+        public String toString()
+        {
+            StringBuilder result = new StringBuilder( "Counts[" );
+            for ( int i = 0; i < keys.length; i++ )
+            {
+                result.append( i == 0 ? "" : ", " ).append( keys[i] ).append( '=' ).append( deltas[i] );
+            }
+            return result.append( ']' ).toString();
+        }
+
+        @Override
+        public boolean handle( NeoCommandHandler handler ) throws IOException
+        {
+            return handler.visitCountsCommand( this );
+        }
+
+        public CountsKey[] getKeys()
+        {
+            return keys;
+        }
+
+        public long[] getDeltas()
+        {
+            return deltas;
+        }
+    }
 }
@@ -28,6 +28,7 @@ import org.neo4j.kernel.impl.index.IndexCommand.CreateCommand;
 import org.neo4j.kernel.impl.index.IndexCommand.DeleteCommand;
 import org.neo4j.kernel.impl.index.IndexCommand.RemoveCommand;
 import org.neo4j.kernel.impl.index.IndexDefineCommand;
+import org.neo4j.kernel.impl.nioneo.xa.command.Command.CountsCommand;
 import org.neo4j.kernel.impl.nioneo.xa.command.Command.LabelTokenCommand;
 import org.neo4j.kernel.impl.nioneo.xa.command.Command.NeoStoreCommand;
 import org.neo4j.kernel.impl.nioneo.xa.command.Command.NodeCommand;
@@ -57,6 +58,7 @@ public interface NeoCommandHandler extends AutoCloseable
     boolean visitPropertyKeyTokenCommand( Command.PropertyKeyTokenCommand command ) throws IOException;
     boolean visitSchemaRuleCommand( Command.SchemaRuleCommand command ) throws IOException;
     boolean visitNeoStoreCommand( Command.NeoStoreCommand command ) throws IOException;
+    boolean visitCountsCommand( Command.CountsCommand command ) throws IOException;
 
     // Index commands
     boolean visitIndexAddNodeCommand( AddNodeCommand command ) throws IOException;
@@ -125,6 +127,12 @@ public interface NeoCommandHandler extends AutoCloseable
             return true;
         }
 
+        @Override
+        public boolean visitCountsCommand( CountsCommand command ) throws IOException
+        {
+            return true;
+        }
+
         @Override
         public boolean visitIndexAddNodeCommand( AddNodeCommand command ) throws IOException
         {
@@ -42,4 +42,6 @@ public interface NeoCommandType
     public static final byte INDEX_DELETE_COMMAND = (byte) 14;
     public static final byte INDEX_CREATE_COMMAND = (byte) 15;
 
+    public static final byte COUNTS_COMMAND = (byte) 16;
+
 }
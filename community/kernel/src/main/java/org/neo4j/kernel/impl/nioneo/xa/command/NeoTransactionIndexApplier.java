@@ -24,11 +24,16 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.neo4j.kernel.api.index.NodePropertyUpdate;
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.impl.api.index.IndexUpdates;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.core.CacheAccessBackDoor;
 import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
@@ -41,6 +46,7 @@ import org.neo4j.kernel.impl.nioneo.xa.LazyIndexUpdates;
 import org.neo4j.kernel.impl.nioneo.xa.PropertyLoader;
 import org.neo4j.kernel.impl.nioneo.xa.command.Command.NodeCommand;
 import org.neo4j.kernel.impl.nioneo.xa.command.Command.PropertyCommand;
+import org.neo4j.kernel.impl.nioneo.xa.command.Command.SchemaRuleCommand;
 import org.neo4j.unsafe.batchinsert.LabelScanWriter;
 
 import static org.neo4j.kernel.impl.nioneo.store.labels.NodeLabelsField.parseLabelsField;
@@ -48,6 +54,11 @@ import static org.neo4j.kernel.impl.nioneo.store.labels.NodeLabelsField.parseLab
 /**
  * Gather node and property changes, converting them into logical updates to the indexes.
  * {@link #close()} will actually apply to the indexes.
+ *
+ * An applier can also span a batch of transactions, where {@link #transactionApplied()} is called after the
+ * commands of each transaction have been applied to the store. Index updates are then gathered per transaction,
+ * while the store still reflects that transaction, but applied to the label scan store and the schema indexes
+ * together for the whole batch on {@link #close()}.
  */
 public class NeoTransactionIndexApplier extends NeoCommandHandler.Adapter
 {
@@ -60,9 +71,11 @@ public class NeoTransactionIndexApplier extends NeoCommandHandler.Adapter
         }
     };
 
-    private final Map<Long, NodeCommand> nodeCommands = new HashMap<>();
-    private final Map<Long, List<PropertyCommand>> propertyCommands = new HashMap<>();
+    private Map<Long, NodeCommand> nodeCommands = new HashMap<>();
+    private Map<Long, List<PropertyCommand>> propertyCommands = new HashMap<>();
     private final List<NodeLabelUpdate> labelUpdates = new ArrayList<>();
+    private List<NodeLabelUpdate> batchedLabelUpdates = new ArrayList<>();
+    private BatchedIndexUpdates batchedIndexUpdates = new BatchedIndexUpdates();
 
     private final IndexingService indexingService;
     private final NodeStore nodeStore;
@@ -86,26 +99,71 @@ public class NeoTransactionIndexApplier extends NeoCommandHandler.Adapter
     @Override
     public void close()
     {
-        if ( !labelUpdates.isEmpty() )
+        if ( batchedIndexUpdates.isEmpty() )
+        {
+            // No index updates from earlier transactions, so the ones from this transaction can be gathered lazily
+            batchedLabelUpdates.addAll( labelUpdates );
+            applyBatchedUpdates();
+            if ( !nodeCommands.isEmpty() || !propertyCommands.isEmpty() )
+            {
+                indexingService.updateIndexes( new LazyIndexUpdates(
+                        nodeStore, propertyStore, propertyCommands, nodeCommands, propertyLoader ) );
+            }
+        }
+        else
+        {
+            transactionApplied();
+            applyBatchedUpdates();
+        }
+    }
+
+    /**
+     * Marks the end of the commands of one transaction in a batch. Index updates of that transaction are
+     * gathered now, since they're derived partly from the current contents of the store, which subsequent
+     * transactions in the batch will change.
+     */
+    public void transactionApplied()
+    {
+        batchedLabelUpdates.addAll( labelUpdates );
+        labelUpdates.clear();
+        if ( nodeCommands.isEmpty() && propertyCommands.isEmpty() )
+        {
+            return;
+        }
+
+        LazyIndexUpdates updates = new LazyIndexUpdates(
+                nodeStore, propertyStore, propertyCommands, nodeCommands, propertyLoader );
+        // When not running the indexing service only cares about which nodes changed, so don't bother
+        // reading the actual updates from the store
+        batchedIndexUpdates.add( updates, indexingService.isRunning() );
+        nodeCommands = new HashMap<>();
+        propertyCommands = new HashMap<>();
+    }
+
+    private void applyBatchedUpdates()
+    {
+        if ( !batchedLabelUpdates.isEmpty() )
         {
             updateLabelScanStore();
-            cacheAccess.applyLabelUpdates( labelUpdates );
+            cacheAccess.applyLabelUpdates( batchedLabelUpdates );
+            batchedLabelUpdates = new ArrayList<>();
         }
 
-        if ( !nodeCommands.isEmpty() || !propertyCommands.isEmpty() )
+        if ( !batchedIndexUpdates.isEmpty() )
         {
-            indexingService.updateIndexes( new LazyIndexUpdates(
-                    nodeStore, propertyStore, propertyCommands, nodeCommands, propertyLoader ) );
+            indexingService.updateIndexes( batchedIndexUpdates );
+            batchedIndexUpdates = new BatchedIndexUpdates();
         }
     }
 
     private void updateLabelScanStore()
     {
-        Collections.sort(labelUpdates, nodeLabelUpdateComparator );
+        // The sort is stable, so updates to the same node from different transactions keep their order
+        Collections.sort( batchedLabelUpdates, nodeLabelUpdateComparator );
 
         try ( LabelScanWriter writer = labelScanStore.newWriter() )
         {
-            for ( NodeLabelUpdate update : labelUpdates )
+            for ( NodeLabelUpdate update : batchedLabelUpdates )
             {
                 writer.write( update );
             }
@@ -158,4 +216,51 @@ public class NeoTransactionIndexApplier extends NeoCommandHandler.Adapter
         }
         return true;
     }
+
+    @Override
+    public boolean visitSchemaRuleCommand( SchemaRuleCommand command ) throws IOException
+    {
+        // A schema change may start populating an index, which must not see updates from earlier transactions
+        // in this batch a second time, so apply those before the schema change is applied to the store
+        applyBatchedUpdates();
+        return true;
+    }
+
+    /**
+     * Index updates gathered from multiple transactions, in transaction order.
+     */
+    private static class BatchedIndexUpdates implements IndexUpdates
+    {
+        private final List<NodePropertyUpdate> updates = new ArrayList<>();
+        private final Set<Long> changedNodeIds = new HashSet<>();
+
+        void add( IndexUpdates transactionUpdates, boolean includeUpdates )
+        {
+            changedNodeIds.addAll( transactionUpdates.changedNodeIds() );
+            if ( includeUpdates )
+            {
+                for ( NodePropertyUpdate update : transactionUpdates )
+                {
+                    updates.add( update );
+                }
+            }
+        }
+
+        boolean isEmpty()
+        {
+            return changedNodeIds.isEmpty();
+        }
+
+        @Override
+        public Set<Long> changedNodeIds()
+        {
+            return changedNodeIds;
+        }
+
+        @Override
+        public Iterator<NodePropertyUpdate> iterator()
+        {
+            return updates.iterator();
+        }
+    }
 }
@@ -39,11 +39,15 @@ import org.neo4j.kernel.impl.nioneo.store.NeoStore;
 import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 import org.neo4j.kernel.impl.nioneo.store.UniquenessConstraintRule;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsKey;
 import org.neo4j.kernel.impl.nioneo.xa.command.Command.Mode;
 import org.neo4j.kernel.impl.nioneo.xa.command.Command.NodeCommand;
 
 public class NeoTransactionStoreApplier extends NeoCommandHandler.Adapter
 {
+    private static final CountsKey[] NO_COUNTS_KEYS = new CountsKey[0];
+    private static final long[] NO_COUNTS_DELTAS = new long[0];
+
     private final NeoStore neoStore;
     private final IndexingService indexes;
     private final boolean recovery;
@@ -51,6 +55,7 @@ public class NeoTransactionStoreApplier extends NeoCommandHandler.Adapter
     private final LockService lockService;
     private final LockGroup lockGroup;
     private final long transactionId;
+    private boolean countsApplied;
 
     public NeoTransactionStoreApplier( NeoStore store, IndexingService indexes, CacheAccessBackDoor cacheAccess,
             LockService lockService, long transactionId, boolean recovery )
@@ -317,6 +322,15 @@ public class NeoTransactionStoreApplier extends NeoCommandHandler.Adapter
         return true;
     }
 
+    @Override
+    public boolean visitCountsCommand( Command.CountsCommand command ) throws IOException
+    {
+        // During recovery, transactions already reflected in the persisted counts are skipped by the counts store
+        neoStore.getCountsStore().apply( transactionId, command.getKeys(), command.getDeltas() );
+        countsApplied = true;
+        return true;
+    }
+
     private void invalidateCache( Command command ) {
         invalidateCache( command, false );
     }
@@ -332,6 +346,10 @@ public class NeoTransactionStoreApplier extends NeoCommandHandler.Adapter
     @Override
     public void close()
     {
+        if ( !countsApplied )
+        {   // The counts store keeps track of which transactions it includes, also those not changing any counts
+            neoStore.getCountsStore().apply( transactionId, NO_COUNTS_KEYS, NO_COUNTS_DELTAS );
+        }
     	if ( recovery )
     	{
     		neoStore.updateIdGenerators();
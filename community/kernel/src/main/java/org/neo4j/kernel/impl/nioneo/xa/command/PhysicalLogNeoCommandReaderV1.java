@@ -48,6 +48,7 @@ import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.nioneo.store.SchemaRule;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsKey;
 import org.neo4j.kernel.impl.nioneo.xa.CommandReader;
 import org.neo4j.kernel.impl.nioneo.xa.CommandReaderFactory.DynamicRecordAdder;
 import org.neo4j.kernel.impl.transaction.xaframework.ReadPastEndException;
@@ -156,6 +157,11 @@ public class PhysicalLogNeoCommandReaderV1 implements CommandReader
             command = new IndexCommand.CreateCommand();
             break;
         }
+        case NeoCommandType.COUNTS_COMMAND:
+        {
+            command = new Command.CountsCommand();
+            break;
+        }
         case NeoCommandType.NONE:
         {
             command = null;
@@ -400,6 +406,21 @@ public class PhysicalLogNeoCommandReaderV1 implements CommandReader
             return true;
         }
 
+        @Override
+        public boolean visitCountsCommand( Command.CountsCommand command ) throws IOException
+        {
+            int size = channel.getInt();
+            CountsKey[] keys = new CountsKey[size];
+            long[] deltas = new long[size];
+            for ( int i = 0; i < size; i++ )
+            {
+                keys[i] = CountsKey.read( channel.get(), channel.getInt(), channel.getInt(), channel.getInt() );
+                deltas[i] = channel.getLong();
+            }
+            command.init( keys, deltas );
+            return true;
+        }
+
         private NodeRecord readNodeRecord( long id ) throws IOException
         {
             byte inUseFlag = channel.get();
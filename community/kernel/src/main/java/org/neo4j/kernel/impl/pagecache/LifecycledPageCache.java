@@ -24,6 +24,7 @@ import java.io.IOException;
 
 import org.neo4j.helpers.Settings;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCacheCounters;
 import org.neo4j.io.pagecache.PageCacheMonitor;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
@@ -40,6 +41,7 @@ import static org.neo4j.graphdb.factory.GraphDatabaseSettings.mapped_memory_tota
 public class LifecycledPageCache extends LifecycleAdapter implements PageCache
 {
     private final RunnablePageCache pageCache;
+    private final PageCacheCounters counters;
     private final JobScheduler scheduler;
     private volatile JobScheduler.JobHandle pageEvictionJobHandle;
 
@@ -51,12 +53,12 @@ public class LifecycledPageCache extends LifecycleAdapter implements PageCache
             Monitors monitors )
     {
         this.scheduler = scheduler;
-        PageCacheMonitor monitor = monitors.newMonitor( PageCacheMonitor.class );
+        this.counters = new PageCacheCounters( monitors.newMonitor( PageCacheMonitor.class ) );
         this.pageCache = pageCacheFactory.createPageCache(
                 swapperFactory,
                 calculateMaxPages( config ),
                 calculatePageSize( config ),
-                monitor );
+                counters );
     }
 
     private static int calculateMaxPages( Config config )
@@ -140,4 +142,9 @@ public class LifecycledPageCache extends LifecycleAdapter implements PageCache
     {
         return pageCache;
     }
+
+    public PageCacheCounters getCounters()
+    {
+        return counters;
+    }
 }
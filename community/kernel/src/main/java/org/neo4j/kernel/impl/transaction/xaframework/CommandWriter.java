@@ -40,6 +40,7 @@ import org.neo4j.kernel.impl.nioneo.store.Record;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsKey;
 import org.neo4j.kernel.impl.nioneo.xa.command.Command;
 import org.neo4j.kernel.impl.nioneo.xa.command.NeoCommandHandler;
 import org.neo4j.kernel.impl.nioneo.xa.command.NeoCommandType;
@@ -195,6 +196,20 @@ public class CommandWriter implements NeoCommandHandler
         return true;
     }
 
+    @Override
+    public boolean visitCountsCommand( Command.CountsCommand command ) throws IOException
+    {
+        CountsKey[] keys = command.getKeys();
+        long[] deltas = command.getDeltas();
+        channel.put( NeoCommandType.COUNTS_COMMAND ).putInt( keys.length );
+        for ( int i = 0; i < keys.length; i++ )
+        {
+            channel.put( keys[i].kind() ).putInt( keys[i].startLabelId() ).putInt( keys[i].typeId() )
+                   .putInt( keys[i].endLabelId() ).putLong( deltas[i] );
+        }
+        return true;
+    }
+
     @Override
     public boolean visitIndexAddNodeCommand( AddNodeCommand command ) throws IOException
     {
@@ -32,4 +32,13 @@ public interface LogicalTransactionStore extends Lifecycle
 
     TransactionMetadataCache.TransactionMetadata getMetadataFor( long transactionId )
             throws NoSuchTransactionException, IOException;
+
+    /**
+     * Waits until a transaction with an id higher than {@code transactionId} has been appended to this store,
+     * or until {@code timeoutMillis} has passed.
+     *
+     * @return {@code true} if there are transactions after {@code transactionId}, {@code false} if the timeout
+     * passed before any such transaction was appended.
+     */
+    boolean awaitTransactionsAfter( long transactionId, long timeoutMillis ) throws InterruptedException;
 }
@@ -40,22 +40,41 @@ public class PhysicalLogicalTransactionStore extends LifecycleAdapter implements
     private final TxIdGenerator txIdGenerator;
     private TransactionAppender appender;
     private final TransactionIdStore transactionIdStore;
+    private final int maxBatchSize;
+    private final long maxBatchWaitMillis;
+    private final TransactionMonitor transactionMonitor;
+    // Threads waiting in awaitTransactionsAfter wait on this and get notified after each appended batch
+    private final Object appendedSignal = new Object();
+    // Only written while holding the monitor of appendedSignal, read by the appender to see if it needs to notify
+    private volatile int waitingForAppends;
 
     public PhysicalLogicalTransactionStore( LogFile logFile, TxIdGenerator txIdGenerator,
             TransactionMetadataCache transactionMetadataCache,
             TransactionIdStore transactionIdStore )
+    {
+        this( logFile, txIdGenerator, transactionMetadataCache, transactionIdStore,
+                PhysicalTransactionAppender.DEFAULT_MAX_BATCH_SIZE, 0, new TransactionCounters() );
+    }
+
+    public PhysicalLogicalTransactionStore( LogFile logFile, TxIdGenerator txIdGenerator,
+            TransactionMetadataCache transactionMetadataCache,
+            TransactionIdStore transactionIdStore, int maxBatchSize, long maxBatchWaitMillis,
+            TransactionMonitor transactionMonitor )
     {
         this.logFile = logFile;
         this.txIdGenerator = txIdGenerator;
         this.transactionMetadataCache = transactionMetadataCache;
         this.transactionIdStore = transactionIdStore;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchWaitMillis = maxBatchWaitMillis;
+        this.transactionMonitor = transactionMonitor;
     }
 
     @Override
     public void init() throws Throwable
     {
         this.appender = new PhysicalTransactionAppender( logFile, txIdGenerator, transactionMetadataCache,
-                transactionIdStore );
+                transactionIdStore, maxBatchSize, maxBatchWaitMillis, new AppendSignallingMonitor() );
     }
 
     @Override
@@ -64,6 +83,33 @@ public class PhysicalLogicalTransactionStore extends LifecycleAdapter implements
         return appender;
     }
 
+    @Override
+    public boolean awaitTransactionsAfter( long transactionId, long timeoutMillis ) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized ( appendedSignal )
+        {
+            waitingForAppends++;
+            try
+            {
+                while ( transactionIdStore.getLastCommittedTransactionId() <= transactionId )
+                {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if ( remaining <= 0 )
+                    {
+                        return false;
+                    }
+                    appendedSignal.wait( remaining );
+                }
+                return true;
+            }
+            finally
+            {
+                waitingForAppends--;
+            }
+        }
+    }
+
     @Override
     public IOCursor<CommittedTransactionRepresentation> getTransactions( final long transactionIdToStartFrom )
             throws IOException
@@ -130,6 +176,44 @@ public class PhysicalLogicalTransactionStore extends LifecycleAdapter implements
         return transactionMetadata;
     }
 
+    /**
+     * Wakes up threads in {@link #awaitTransactionsAfter(long, long)} when the appender has written and forced
+     * a batch of transactions, at which point the last committed transaction id covers that batch.
+     */
+    private class AppendSignallingMonitor implements TransactionMonitor
+    {
+        @Override
+        public void transactionStarted()
+        {
+            transactionMonitor.transactionStarted();
+        }
+
+        @Override
+        public void transactionFinished( boolean successful )
+        {
+            transactionMonitor.transactionFinished( successful );
+        }
+
+        @Override
+        public void transactionTerminated()
+        {
+            transactionMonitor.transactionTerminated();
+        }
+
+        @Override
+        public void transactionsAppended( int batchSize )
+        {
+            transactionMonitor.transactionsAppended( batchSize );
+            if ( waitingForAppends > 0 )
+            {
+                synchronized ( appendedSignal )
+                {
+                    appendedSignal.notifyAll();
+                }
+            }
+        }
+    }
+
     public static class TransactionPositionLocator implements LogFile.LogFileVisitor
     {
         private final long startTransactionId;
@@ -20,37 +20,84 @@
 package org.neo4j.kernel.impl.transaction.xaframework;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.neo4j.helpers.FutureAdapter;
 import org.neo4j.kernel.impl.nioneo.store.TransactionIdStore;
 import org.neo4j.kernel.impl.transaction.xaframework.log.entry.LogEntryStart;
 import org.neo4j.kernel.impl.transaction.xaframework.log.entry.LogEntryWriterv1;
 
+/**
+ * Appends transactions to the {@link LogFile} using group commit. Committing threads put their transactions
+ * in a queue and then compete for the right to write. The winner drains the queue, writes all those
+ * transactions and forces the channel once for the whole batch, after which every transaction in the batch
+ * is considered appended. The others wait on their own transaction, not on the right to write, so a thread
+ * whose transaction was appended by someone else returns without waiting for the next batch, or for a log
+ * rotation, which in turn awaits that thread closing its transaction. Whoever gives up the right to write
+ * wakes up the thread of the next transaction in the queue, to have it write the next batch.
+ */
 public class PhysicalTransactionAppender implements TransactionAppender
 {
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
     private final WritableLogChannel channel;
     private final TxIdGenerator txIdGenerator;
     private final TransactionMetadataCache transactionMetadataCache;
     private final LogFile logFile;
     private final TransactionIdStore transactionIdStore;
     private final TransactionLogWriter transactionLogWriter;
+    private final TransactionMonitor transactionMonitor;
     private final LogPositionMarker positionMarker = new LogPositionMarker();
+    private final int maxBatchSize;
+    private final long maxBatchWaitNanos;
+    private final BlockingQueue<Ticket> pendingTransactions = new LinkedBlockingQueue<>();
+    // The right to write to the log
+    private final Lock writeLock = new ReentrantLock();
+    // Only accessed while holding the write lock
+    private final List<Ticket> batch = new ArrayList<>();
 
     public PhysicalTransactionAppender( LogFile logFile, TxIdGenerator txIdGenerator,
             TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore )
     {
+        this( logFile, txIdGenerator, transactionMetadataCache, transactionIdStore, DEFAULT_MAX_BATCH_SIZE, 0,
+                new TransactionCounters() );
+    }
+
+    /**
+     * @param maxBatchSize maximum number of transactions to write and force together.
+     * @param maxBatchWaitMillis time the writing thread may wait for more transactions to arrive before
+     * writing a batch that is smaller than {@code maxBatchSize}. {@code 0} means that only transactions already
+     * queued up will be part of a batch, i.e. no additional latency is introduced.
+     */
+    public PhysicalTransactionAppender( LogFile logFile, TxIdGenerator txIdGenerator,
+            TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore,
+            int maxBatchSize, long maxBatchWaitMillis, TransactionMonitor transactionMonitor )
+    {
+        if ( maxBatchSize < 1 )
+        {
+            throw new IllegalArgumentException( "Max batch size must be at least 1, was " + maxBatchSize );
+        }
         this.logFile = logFile;
         this.transactionIdStore = transactionIdStore;
         this.channel = logFile.getWriter();
         this.txIdGenerator = txIdGenerator;
         this.transactionMetadataCache = transactionMetadataCache;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchWaitNanos = TimeUnit.MILLISECONDS.toNanos( maxBatchWaitMillis );
+        this.transactionMonitor = transactionMonitor;
 
         LogEntryWriterv1 logEntryWriter = new LogEntryWriterv1( channel, new CommandWriter( channel ) );
         this.transactionLogWriter = new TransactionLogWriter( logEntryWriter );
     }
 
-    private void append( TransactionRepresentation transaction, long transactionId ) throws IOException
+    private void write( TransactionRepresentation transaction, long transactionId ) throws IOException
     {
         channel.getCurrentPosition( positionMarker );
         LogPosition logPosition = positionMarker.newPosition();
@@ -60,39 +107,296 @@ public class PhysicalTransactionAppender implements TransactionAppender
         transactionMetadataCache.cacheTransactionMetadata( transactionId, logPosition, transaction.getMasterId(),
                 transaction.getAuthorId(), LogEntryStart.checksum( transaction.additionalHeader(),
                         transaction.getMasterId(), transaction.getAuthorId() ) );
+    }
+
+    @Override
+    public Future<Long> append( TransactionRepresentation transaction ) throws IOException
+    {
+        Ticket ticket = new Ticket( transaction );
+        pendingTransactions.add( ticket );
+        while ( !ticket.isDone() )
+        {
+            if ( writeLock.tryLock() )
+            {
+                try
+                {
+                    // Whoever wrote before us may already have appended our transaction as part of its batch,
+                    // otherwise we write the next batch, which may or may not be the one including ours.
+                    if ( !ticket.isDone() )
+                    {
+                        appendBatch();
+                    }
+                }
+                finally
+                {
+                    unlockAndWakeUpNext();
+                }
+            }
+            else
+            {
+                // Someone else is writing, which either appends our transaction or wakes us up afterwards
+                ticket.awaitDoneOrWokenUp();
+            }
+        }
+        return FutureAdapter.present( ticket.transactionId() );
+    }
+
+    private void unlockAndWakeUpNext()
+    {
+        writeLock.unlock();
+        Ticket next = pendingTransactions.peek();
+        if ( next != null )
+        {
+            next.wakeUp();
+        }
+    }
+
+    private void appendBatch()
+    {
+        batch.clear();
+        pendingTransactions.drainTo( batch, maxBatchSize );
+        awaitMoreTransactions();
+        try
+        {
+            // We put log rotation check here, once per batch, since it must happen before we generate
+            // the next transaction id. It cannot happen between transactions of the same batch since rotation
+            // awaits all committed transactions to be closed and those in this batch have not been released yet.
+            logFile.checkRotation();
+            for ( Ticket ticket : batch )
+            {
+                long transactionId;
+                try
+                {
+                    transactionId = txIdGenerator.generate( ticket.transaction );
+                }
+                catch ( RuntimeException e )
+                {   // Only this transaction failed to get an id, the others in the batch are fine
+                    ticket.failed( e );
+                    continue;
+                }
+                write( ticket.transaction, transactionId );
+                ticket.transactionId = transactionId;
+            }
+            channel.force();
+            for ( Ticket ticket : batch )
+            {
+                ticket.appended();
+            }
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            for ( Ticket ticket : batch )
+            {
+                if ( !ticket.isDone() )
+                {
+                    ticket.failed( e );
+                }
+            }
+        }
+        transactionMonitor.transactionsAppended( batch.size() );
+        batch.clear();
+    }
+
+    private void awaitMoreTransactions()
+    {
+        if ( maxBatchWaitNanos == 0 )
+        {
+            return;
+        }
 
-        channel.force();
+        long deadline = System.nanoTime() + maxBatchWaitNanos;
+        try
+        {
+            long remaining;
+            while ( batch.size() < maxBatchSize && (remaining = deadline - System.nanoTime()) > 0 )
+            {
+                Ticket ticket = pendingTransactions.poll( remaining, TimeUnit.NANOSECONDS );
+                if ( ticket == null )
+                {
+                    break;
+                }
+                batch.add( ticket );
+                pendingTransactions.drainTo( batch, maxBatchSize - batch.size() );
+            }
+        }
+        catch ( InterruptedException e )
+        {   // Just write what we've got
+            Thread.currentThread().interrupt();
+        }
     }
 
     @Override
-    public synchronized Future<Long> append( TransactionRepresentation transaction ) throws IOException
+    public boolean append( CommittedTransactionRepresentation transaction ) throws IOException
     {
-        // We put log rotation check outside the private append method since it must happen before
-        // we generate the next transaction id
-        logFile.checkRotation();
-        long transactionId = txIdGenerator.generate( transaction );
-        append( transaction, transactionId );
-        return FutureAdapter.present( transactionId );
+        writeLock.lock();
+        try
+        {
+            logFile.checkRotation();
+            long txId = transaction.getCommitEntry().getTxId();
+            long lastCommittedTxId = transactionIdStore.getLastCommittedTransactionId();
+            if ( txId <= lastCommittedTxId )
+            {
+                return false;
+            }
+            assertNoGap( txId, lastCommittedTxId );
+            writeCommitted( transaction );
+            channel.force();
+            transactionMonitor.transactionsAppended( 1 );
+            return true;
+        }
+        finally
+        {
+            unlockAndWakeUpNext();
+        }
     }
 
     @Override
-    public synchronized boolean append( CommittedTransactionRepresentation transaction )
-            throws IOException
+    public int append( List<CommittedTransactionRepresentation> transactions ) throws IOException
+    {
+        writeLock.lock();
+        try
+        {
+            // Same reasoning as for the group commit batches, rotation cannot happen in the middle of a batch
+            logFile.checkRotation();
+            int first = firstToAppend( transactions );
+            int appended = 0;
+            try
+            {
+                for ( int i = first; i < transactions.size(); i++ )
+                {
+                    writeCommitted( transactions.get( i ) );
+                    appended++;
+                }
+            }
+            finally
+            {
+                // Transactions written before a failure are committed as well, so they're forced all the same
+                if ( appended > 0 )
+                {
+                    channel.force();
+                    transactionMonitor.transactionsAppended( appended );
+                }
+            }
+            return appended;
+        }
+        finally
+        {
+            unlockAndWakeUpNext();
+        }
+    }
+
+    /**
+     * Checks the whole batch before anything is written, so that a gap doesn't leave the transactions before it
+     * written, but not forced.
+     *
+     * @return index of the first transaction in the batch not already appended.
+     */
+    private int firstToAppend( List<CommittedTransactionRepresentation> transactions ) throws IOException
     {
-        logFile.checkRotation();
-        long txId = transaction.getCommitEntry().getTxId();
         long lastCommittedTxId = transactionIdStore.getLastCommittedTransactionId();
-        if ( lastCommittedTxId + 1 == txId )
+        int first = 0;
+        while ( first < transactions.size() &&
+                transactions.get( first ).getCommitEntry().getTxId() <= lastCommittedTxId )
         {
-            txIdGenerator.generate( transaction.getTransactionRepresentation() );
-            append( transaction.getTransactionRepresentation(), txId );
-            return true;
+            first++;
+        }
+        for ( int i = first; i < transactions.size(); i++, lastCommittedTxId++ )
+        {
+            assertNoGap( transactions.get( i ).getCommitEntry().getTxId(), lastCommittedTxId );
         }
-        else if ( lastCommittedTxId + 1 < txId )
+        return first;
+    }
+
+    private void assertNoGap( long txId, long lastCommittedTxId ) throws IOException
+    {
+        if ( lastCommittedTxId + 1 != txId )
         {
             throw new IOException( "Tried to apply transaction with txId=" + txId +
                     " but last committed txId=" + lastCommittedTxId );
         }
-        return false;
+    }
+
+    private void writeCommitted( CommittedTransactionRepresentation transaction ) throws IOException
+    {
+        // The transaction id is only handed out once the transaction has been written, so that
+        // the last committed transaction id tells which transactions have been written if writing fails
+        write( transaction.getTransactionRepresentation(), transaction.getCommitEntry().getTxId() );
+        txIdGenerator.generate( transaction.getTransactionRepresentation() );
+    }
+
+    /**
+     * A transaction waiting to be appended. The transaction id is only accessed while holding the write lock,
+     * until the ticket is done, which is signalled through the monitor of the ticket.
+     */
+    private static class Ticket
+    {
+        private final TransactionRepresentation transaction;
+        private long transactionId;
+        private Throwable failure;
+        private boolean done;
+        private boolean wokenUp;
+
+        Ticket( TransactionRepresentation transaction )
+        {
+            this.transaction = transaction;
+        }
+
+        synchronized void appended()
+        {
+            done = true;
+            notifyAll();
+        }
+
+        synchronized void failed( Throwable failure )
+        {
+            this.failure = failure;
+            done = true;
+            notifyAll();
+        }
+
+        synchronized boolean isDone()
+        {
+            return done;
+        }
+
+        synchronized void wakeUp()
+        {
+            wokenUp = true;
+            notifyAll();
+        }
+
+        synchronized void awaitDoneOrWokenUp()
+        {
+            boolean interrupted = false;
+            while ( !done && !wokenUp )
+            {
+                try
+                {
+                    wait();
+                }
+                catch ( InterruptedException e )
+                {   // The transaction is committed and needs to be appended regardless
+                    interrupted = true;
+                }
+            }
+            wokenUp = false;
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized long transactionId() throws IOException
+        {
+            if ( failure instanceof IOException )
+            {
+                throw (IOException) failure;
+            }
+            if ( failure instanceof RuntimeException )
+            {
+                throw (RuntimeException) failure;
+            }
+            return transactionId;
+        }
     }
 }
@@ -85,6 +85,12 @@ public class ReadOnlyTransactionStore extends LifecycleAdapter implements Logica
         return physicalStore.getMetadataFor( transactionId );
     }
 
+    @Override
+    public boolean awaitTransactionsAfter( long transactionId, long timeoutMillis ) throws InterruptedException
+    {
+        return physicalStore.awaitTransactionsAfter( transactionId, timeoutMillis );
+    }
+
     @Override
     public void init() throws Throwable
     {
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.transaction.xaframework;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.Future;
 
 /**
@@ -61,4 +62,18 @@ public interface TransactionAppender
      * of the supplied transaction was {@code <=} last committed transaction id.
      */
     boolean append( CommittedTransactionRepresentation transaction ) throws IOException;
+
+    /**
+     * Appends a batch of transactions which already have transaction ids assigned to them, forcing the log
+     * only once for the whole batch. Transactions in the batch that have already been appended are skipped,
+     * in the same way as {@link #append(CommittedTransactionRepresentation)} does for a single transaction.
+     * @param transactions transactions to write, ordered by transaction id.
+     * A gap between the last committed transaction id and the transaction ids in the batch is detected before
+     * anything is written. If writing fails partway, the transactions written before the failure are forced,
+     * and committed, nevertheless; they are those up to the last committed transaction id.
+     * @return the number of transactions that were appended. Those are always the last ones in the batch.
+     * @throws IOException if there was a problem writing the transactions, or if there's a gap between
+     * the last committed transaction id and the transaction ids in the batch.
+     */
+    int append( List<CommittedTransactionRepresentation> transactions ) throws IOException;
 }
@@ -20,13 +20,22 @@
 package org.neo4j.kernel.impl.transaction.xaframework;
 
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 public class TransactionCounters implements TransactionMonitor
 {
+    /**
+     * Number of buckets in the append batch size distribution, see {@link #getAppendBatchSizeDistribution()}.
+     */
+    public static final int APPEND_BATCH_SIZE_BUCKETS = 16;
+
     private final AtomicLong startedTransactionCount = new AtomicLong();
     private final AtomicLong activeTransactionCount = new AtomicLong();
     private final AtomicLong rolledBackTransactionCount = new AtomicLong();
     private final AtomicLong terminatedTransactionCount = new AtomicLong();
+    private final AtomicLong appendedBatchCount = new AtomicLong();
+    private final AtomicLong appendedTransactionCount = new AtomicLong();
+    private final AtomicLongArray appendBatchSizes = new AtomicLongArray( APPEND_BATCH_SIZE_BUCKETS );
     private long peakTransactionCount; // hard to have absolutely atomic, and it doesn't need to be.
 
     @Override
@@ -55,6 +64,28 @@ public class TransactionCounters implements TransactionMonitor
         terminatedTransactionCount.incrementAndGet();
     }
 
+    @Override
+    public void transactionsAppended( int batchSize )
+    {
+        if ( batchSize == 0 )
+        {
+            return;
+        }
+        appendedBatchCount.incrementAndGet();
+        appendedTransactionCount.addAndGet( batchSize );
+        appendBatchSizes.incrementAndGet( batchSizeBucket( batchSize ) );
+    }
+
+    /**
+     * Bucket {@code 0} holds batches of size {@code 1}, bucket {@code i} batches of size
+     * {@code (2^(i-1), 2^i]}, the last bucket also holds everything bigger than that.
+     */
+    static int batchSizeBucket( int batchSize )
+    {
+        int bucket = Integer.SIZE - Integer.numberOfLeadingZeros( batchSize - 1 );
+        return Math.min( bucket, APPEND_BATCH_SIZE_BUCKETS - 1 );
+    }
+
     public long getNumberOfActiveTransactions()
     {
         return activeTransactionCount.get();
@@ -87,4 +118,29 @@ public class TransactionCounters implements TransactionMonitor
     {
         return rolledBackTransactionCount.get();
     }
+
+    public long getNumberOfAppendedBatches()
+    {
+        return appendedBatchCount.get();
+    }
+
+    public double getAverageAppendBatchSize()
+    {
+        long batches = appendedBatchCount.get();
+        return batches == 0 ? 0 : (double) appendedTransactionCount.get() / batches;
+    }
+
+    /**
+     * @return number of appended batches per batch size bucket, where index {@code 0} counts batches of a single
+     * transaction and index {@code i} counts batches of size {@code (2^(i-1), 2^i]}.
+     */
+    public long[] getAppendBatchSizeDistribution()
+    {
+        long[] distribution = new long[APPEND_BATCH_SIZE_BUCKETS];
+        for ( int i = 0; i < distribution.length; i++ )
+        {
+            distribution[i] = appendBatchSizes.get( i );
+        }
+        return distribution;
+    }
 }
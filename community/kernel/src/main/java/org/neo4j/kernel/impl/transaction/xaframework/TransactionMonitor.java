@@ -26,4 +26,11 @@ public interface TransactionMonitor
     void transactionFinished( boolean successful );
 
     void transactionTerminated();
+
+    /**
+     * Called when a batch of transactions have been written and forced to the log together.
+     *
+     * @param batchSize number of transactions in the batch.
+     */
+    void transactionsAppended( int batchSize );
 }
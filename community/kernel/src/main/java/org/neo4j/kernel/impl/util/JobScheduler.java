@@ -38,6 +38,7 @@ public interface JobScheduler extends Lifecycle
     enum Group
     {
         indexPopulation,
+        indexSampling,
         masterTransactionPushing,
         serverTransactionTimeout,
         pullUpdates,
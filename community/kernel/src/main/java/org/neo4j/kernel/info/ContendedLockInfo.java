@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.info;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * A resource that clients have had to wait for to lock, as recorded by
+ * {@link org.neo4j.kernel.impl.locking.LockProfiler}.
+ */
+public final class ContendedLockInfo
+{
+    private final String resourceType;
+    private final long resourceId;
+    private final long contendedAcquisitions;
+    private final long totalWaitTime;
+
+    @ConstructorProperties( { "resourceType", "resourceId", "contendedAcquisitions", "totalWaitTime" } )
+    public ContendedLockInfo( String resourceType, long resourceId, long contendedAcquisitions, long totalWaitTime )
+    {
+        this.resourceType = resourceType;
+        this.resourceId = resourceId;
+        this.contendedAcquisitions = contendedAcquisitions;
+        this.totalWaitTime = totalWaitTime;
+    }
+
+    public String getResourceType()
+    {
+        return resourceType;
+    }
+
+    public long getResourceId()
+    {
+        return resourceId;
+    }
+
+    /**
+     * @return estimated number of times a client has waited for this resource, the estimate may be too high
+     * for resources that have only recently become contended.
+     */
+    public long getContendedAcquisitions()
+    {
+        return contendedAcquisitions;
+    }
+
+    /**
+     * @return time spent waiting for this resource, in microseconds.
+     */
+    public long getTotalWaitTime()
+    {
+        return totalWaitTime;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format( "%s(%d){contended=%d, waitTime=%dus}", resourceType, resourceId,
+                contendedAcquisitions, totalWaitTime );
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.info;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Lock statistics of one resource type, as recorded by {@link org.neo4j.kernel.impl.locking.LockProfiler}.
+ */
+public final class LockStatisticsInfo
+{
+    private final String resourceType;
+    private final long sharedAcquisitions;
+    private final long exclusiveAcquisitions;
+    private final long deadlocks;
+    private final long totalWaitTime;
+    private final long[] waitTimeHistogram;
+
+    @ConstructorProperties( { "resourceType", "sharedAcquisitions", "exclusiveAcquisitions", "deadlocks",
+            "totalWaitTime", "waitTimeHistogram" } )
+    public LockStatisticsInfo( String resourceType, long sharedAcquisitions, long exclusiveAcquisitions,
+            long deadlocks, long totalWaitTime, long[] waitTimeHistogram )
+    {
+        this.resourceType = resourceType;
+        this.sharedAcquisitions = sharedAcquisitions;
+        this.exclusiveAcquisitions = exclusiveAcquisitions;
+        this.deadlocks = deadlocks;
+        this.totalWaitTime = totalWaitTime;
+        this.waitTimeHistogram = waitTimeHistogram;
+    }
+
+    public String getResourceType()
+    {
+        return resourceType;
+    }
+
+    public long getSharedAcquisitions()
+    {
+        return sharedAcquisitions;
+    }
+
+    public long getExclusiveAcquisitions()
+    {
+        return exclusiveAcquisitions;
+    }
+
+    public long getDeadlocks()
+    {
+        return deadlocks;
+    }
+
+    /**
+     * @return total time spent waiting for locks, in microseconds.
+     */
+    public long getTotalWaitTime()
+    {
+        return totalWaitTime;
+    }
+
+    /**
+     * @return number of acquisitions per wait time, where the first bucket counts acquisitions that did not wait
+     * a full microsecond and each following bucket {@code i} counts waits from {@code 2^(i-1)} up to {@code 2^i}
+     * microseconds. The last bucket also counts all longer waits.
+     */
+    public long[] getWaitTimeHistogram()
+    {
+        return waitTimeHistogram;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format( "%s{shared=%d, exclusive=%d, deadlocks=%d, waitTime=%dus}", resourceType,
+                sharedAcquisitions, exclusiveAcquisitions, deadlocks, totalWaitTime );
+    }
+}
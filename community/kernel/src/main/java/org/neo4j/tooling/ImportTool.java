@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.tooling;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.helpers.Args;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.kernel.logging.SystemOutLogging;
+import org.neo4j.unsafe.impl.batchimport.BatchImporter;
+import org.neo4j.unsafe.impl.batchimport.Configuration;
+import org.neo4j.unsafe.impl.batchimport.ParallelBatchImporter;
+import org.neo4j.unsafe.impl.batchimport.cache.EncodingIdMapper;
+import org.neo4j.unsafe.impl.batchimport.cache.IdMapper;
+import org.neo4j.unsafe.impl.batchimport.input.csv.CsvConfiguration;
+import org.neo4j.unsafe.impl.batchimport.input.csv.CsvInput;
+import org.neo4j.unsafe.impl.batchimport.input.csv.IdType;
+import org.neo4j.unsafe.impl.batchimport.staging.CoarseUnboundedProgressExecutionMonitor;
+
+/**
+ * Command line tool for importing nodes and relationships from CSV files into a new store,
+ * using the {@link ParallelBatchImporter}. See {@link CsvInput} for the format of the files.
+ */
+public class ImportTool
+{
+    static final String INTO = "into";
+    static final String NODES = "nodes";
+    static final String RELATIONSHIPS = "relationships";
+    static final String DELIMITER = "delimiter";
+    static final String ARRAY_DELIMITER = "array-delimiter";
+    static final String QUOTE = "quote";
+    static final String ID_TYPE = "id-type";
+    static final String PARSERS = "parsers";
+
+    public static void main( String[] incomingArguments ) throws IOException
+    {
+        Args args = new Args( incomingArguments );
+        String storeDir = args.get( INTO, null );
+        String nodes = args.get( NODES, null );
+        if ( storeDir == null || nodes == null )
+        {
+            printUsage();
+            System.exit( 1 );
+            return;
+        }
+
+        CsvInput input = new CsvInput( files( nodes ), files( args.get( RELATIONSHIPS, "" ) ),
+                args.getEnum( IdType.class, ID_TYPE, IdType.STRING ), csvConfiguration( args ) );
+        BatchImporter importer = new ParallelBatchImporter( storeDir, new DefaultFileSystemAbstraction(),
+                Configuration.DEFAULT, new SystemOutLogging(),
+                new CoarseUnboundedProgressExecutionMonitor( 10_000, System.out ) );
+        IdMapper idMapper = input.idMapper();
+        try
+        {
+            importer.doImport( input.nodes(), input.relationships(), idMapper );
+        }
+        finally
+        {
+            importer.shutdown();
+        }
+
+        if ( idMapper instanceof EncodingIdMapper )
+        {
+            EncodingIdMapper encodingIdMapper = (EncodingIdMapper) idMapper;
+            if ( encodingIdMapper.numberOfUnresolvedReferences() > 0 )
+            {
+                System.out.println( "Skipped " + encodingIdMapper.numberOfUnresolvedReferences() +
+                        " relationships referring to missing nodes, some of which were: " +
+                        encodingIdMapper.unresolvedReferences() );
+            }
+        }
+    }
+
+    private static void printUsage()
+    {
+        System.out.println( Args.jarUsage( ImportTool.class,
+                "--" + INTO + " <store-dir>",
+                "--" + NODES + " <file1,file2,...>",
+                "[--" + RELATIONSHIPS + " <file1,file2,...>]",
+                "[--" + DELIMITER + " <char or TAB>]",
+                "[--" + ARRAY_DELIMITER + " <char>]",
+                "[--" + QUOTE + " <char>]",
+                "[--" + ID_TYPE + " <STRING|INTEGER|ACTUAL>]",
+                "[--" + PARSERS + " <number of parser threads>]" ) );
+        System.out.println( "Files ending with .gz are read as gzip compressed. The first line of each file " +
+                "is a header, e.g. ':ID,name,age:int,:LABEL' or ':START_ID,:END_ID,:TYPE,since:long'" );
+    }
+
+    private static List<File> files( String commaSeparated )
+    {
+        List<File> files = new ArrayList<>();
+        for ( String name : commaSeparated.split( "," ) )
+        {
+            if ( !name.trim().isEmpty() )
+            {
+                files.add( new File( name.trim() ) );
+            }
+        }
+        return files;
+    }
+
+    private static CsvConfiguration csvConfiguration( Args args )
+    {
+        final char delimiter = character( args.get( DELIMITER, "," ) );
+        final char arrayDelimiter = character( args.get( ARRAY_DELIMITER, ";" ) );
+        final char quote = character( args.get( QUOTE, "\"" ) );
+        final int parsers = args.getNumber( PARSERS, CsvConfiguration.COMMAS.numberOfParsers() ).intValue();
+        return new CsvConfiguration.Default()
+        {
+            @Override
+            public char delimiter()
+            {
+                return delimiter;
+            }
+
+            @Override
+            public char arrayDelimiter()
+            {
+                return arrayDelimiter;
+            }
+
+            @Override
+            public char quotationCharacter()
+            {
+                return quote;
+            }
+
+            @Override
+            public int numberOfParsers()
+            {
+                return parsers;
+            }
+        };
+    }
+
+    private static char character( String value )
+    {
+        if ( value.equalsIgnoreCase( "TAB" ) || value.equals( "\\t" ) )
+        {
+            return '\t';
+        }
+        if ( value.length() != 1 )
+        {
+            throw new IllegalArgumentException( "'" + value + "' is not a single character" );
+        }
+        return value.charAt( 0 );
+    }
+}
@@ -108,6 +108,8 @@ import org.neo4j.kernel.impl.nioneo.store.SchemaStore;
 import org.neo4j.kernel.impl.nioneo.store.StoreFactory;
 import org.neo4j.kernel.impl.nioneo.store.UnderlyingStorageException;
 import org.neo4j.kernel.impl.nioneo.store.UniquenessConstraintRule;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsComputer;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsStore;
 import org.neo4j.kernel.impl.nioneo.store.labels.NodeLabels;
 import org.neo4j.kernel.impl.nioneo.xa.DefaultSchemaIndexProviderMap;
 import org.neo4j.kernel.impl.nioneo.xa.NeoStoreIndexStoreView;
@@ -260,6 +262,8 @@ public class BatchInserterImpl implements BatchInserter
             throw new IllegalStateException( storeDir + " store is not cleanly shutdown." );
         }
         neoStore.makeStoreOk();
+        // Changes made here bypass the transaction log, so the counts are recomputed on shutdown
+        neoStore.getCountsStore().markAsStale();
         Token[] indexes = getPropertyKeyTokenStore().getTokens( 10000 );
         propertyKeyTokens = new BatchTokenHolder( indexes );
         labelTokens = new BatchTokenHolder( neoStore.getLabelTokenStore().getTokens( Integer.MAX_VALUE ) );
@@ -785,6 +789,13 @@ public class BatchInserterImpl implements BatchInserter
         return Collections.emptyMap();
     }
 
+    private void rebuildCounts()
+    {
+        CountsStore counts = neoStore.getCountsStore();
+        new CountsComputer( neoStore ).rebuild( counts, neoStore.getLastCommittedTransactionId() );
+        counts.flush();
+    }
+
     @Override
     public void shutdown()
     {
@@ -804,6 +815,7 @@ public class BatchInserterImpl implements BatchInserter
         {
             throw new RuntimeException( e );
         }
+        rebuildCounts();
         neoStore.close();
 
         try
@@ -58,6 +58,13 @@ public interface Configuration
      */
     int numberOfIoThreads();
 
+    /**
+     * Max number of threads processing batches, in total for all steps of the stages executing at any
+     * given time. Steps able to process batches concurrently are assigned more threads as they are found
+     * to be bottlenecks, up to this number.
+     */
+    int maxNumberOfProcessors();
+
     public static class Default implements Configuration
     {
         private static final int OPTIMAL_FILE_CHANNEL_CHUNK_SIZE = 1024 * 4;
@@ -102,6 +109,12 @@ public interface Configuration
         {
             return max( 2, Runtime.getRuntime().availableProcessors()/3 );
         }
+
+        @Override
+        public int maxNumberOfProcessors()
+        {
+            return Runtime.getRuntime().availableProcessors();
+        }
     }
 
     public static final Configuration DEFAULT = new Default();
@@ -151,6 +164,12 @@ public interface Configuration
         {
             return defaults.numberOfIoThreads();
         }
+
+        @Override
+        public int maxNumberOfProcessors()
+        {
+            return defaults.maxNumberOfProcessors();
+        }
     }
 
     // TODO Add Configuration option "calibrate()" which probes the hardware and returns optimal values.
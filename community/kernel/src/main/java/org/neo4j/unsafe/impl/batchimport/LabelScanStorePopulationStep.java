@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import java.io.IOException;
+
+import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
+import org.neo4j.kernel.impl.nioneo.store.UnderlyingStorageException;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsAccumulator;
+import org.neo4j.unsafe.batchinsert.LabelScanWriter;
+import org.neo4j.unsafe.impl.batchimport.cache.NodeLabelsCache;
+import org.neo4j.unsafe.impl.batchimport.staging.ExecutorServiceStep;
+import org.neo4j.unsafe.impl.batchimport.staging.StageControl;
+
+import static org.neo4j.kernel.api.labelscan.NodeLabelUpdate.labelChanges;
+import static org.neo4j.kernel.impl.nioneo.store.labels.NodeLabelsField.parseLabelsField;
+
+/**
+ * Writes the labels of the {@link NodeRecord nodes} passing through to the label scan store, counts nodes per
+ * label and caches the labels of each node for {@link RelationshipCountsStep}. Batches arrive in order,
+ * and so in ascending node id order, which is what the label scan store expects.
+ */
+public class LabelScanStorePopulationStep extends ExecutorServiceStep<RecordBatch<NodeRecord>>
+{
+    private static final long[] NO_LABELS = new long[0];
+
+    private final LabelScanWriter writer;
+    private final CountsAccumulator counts;
+    private final NodeLabelsCache nodeLabelsCache;
+
+    public LabelScanStorePopulationStep( StageControl control, int workAheadSize, LabelScanWriter writer,
+            CountsAccumulator counts, NodeLabelsCache nodeLabelsCache )
+    {
+        super( control, "LABEL SCAN", workAheadSize, 1 );
+        this.writer = writer;
+        this.counts = counts;
+        this.nodeLabelsCache = nodeLabelsCache;
+    }
+
+    @Override
+    protected Object process( long ticket, RecordBatch<NodeRecord> batch )
+    {
+        for ( NodeRecord node : batch.getEntityRecords() )
+        {
+            // Labels are either inlined or in dynamic records created by the encoder, unless given as
+            // a label field pointing to dynamic records not part of this import
+            long[] labels = parseLabelsField( node ).getIfLoaded();
+            nodeLabelsCache.put( node.getId(), node.getLabelField(), labels );
+            if ( labels == null )
+            {
+                if ( writer != LabelScanWriter.EMPTY )
+                {
+                    throw new IllegalStateException( "Labels of " + node + " not known, unable to populate " +
+                            "the label scan store" );
+                }
+                continue;
+            }
+
+            counts.node( labels, 1 );
+            if ( labels.length > 0 )
+            {
+                try
+                {
+                    writer.write( labelChanges( node.getId(), NO_LABELS, labels ) );
+                }
+                catch ( IOException e )
+                {
+                    throw new UnderlyingStorageException( e );
+                }
+            }
+        }
+        return batch;
+    }
+
+    @Override
+    protected void done()
+    {
+        try
+        {
+            writer.close();
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+        super.done();
+    }
+}
@@ -41,7 +41,7 @@ import static org.neo4j.unsafe.impl.batchimport.Utils.propertyKeysAndValues;
 
 /**
  * Creates {@link NodeRecord nodes} with properties and labels from input. Emits {@link RecordBatch batches}
- * downstream.
+ * downstream. Batches can be processed concurrently by up to {@code maxProcessors} threads.
  */
 public final class NodeEncoderStep extends ExecutorServiceStep<List<InputNode>>
 {
@@ -51,11 +51,12 @@ public final class NodeEncoderStep extends ExecutorServiceStep<List<InputNode>>
     private final PropertyCreator propertyCreator;
 
     public NodeEncoderStep( StageControl control, String name, int workAheadSize, int numberOfExecutors,
+            int maxProcessors,
             BatchingTokenRepository<?> propertyKeyHolder,
             BatchingTokenRepository<?> labelHolder,
             NodeStore nodeStore, PropertyStore propertyStore )
     {
-        super( control, name, workAheadSize, numberOfExecutors );
+        super( control, name, workAheadSize, numberOfExecutors, maxProcessors );
         this.nodeStore = nodeStore;
         this.propertyKeyHolder = propertyKeyHolder;
         this.labelHolder = labelHolder;
@@ -23,22 +23,29 @@ import java.io.IOException;
 import java.util.Iterator;
 
 import org.neo4j.helpers.Exceptions;
+import org.neo4j.helpers.Service;
+import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.extension.KernelExtensionFactory;
 import org.neo4j.kernel.impl.nioneo.store.NodeStore;
 import org.neo4j.kernel.impl.nioneo.store.PropertyStore;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipStore;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsAccumulator;
 import org.neo4j.kernel.impl.util.StringLogger;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.kernel.logging.Logging;
 import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.unsafe.impl.batchimport.cache.IdMapper;
 import org.neo4j.unsafe.impl.batchimport.cache.LongArrayFactory;
+import org.neo4j.unsafe.impl.batchimport.cache.NodeLabelsCache;
 import org.neo4j.unsafe.impl.batchimport.cache.NodeRelationshipLink;
 import org.neo4j.unsafe.impl.batchimport.cache.NodeRelationshipLinkImpl;
 import org.neo4j.unsafe.impl.batchimport.input.InputNode;
 import org.neo4j.unsafe.impl.batchimport.input.InputRelationship;
+import org.neo4j.unsafe.impl.batchimport.staging.DynamicProcessorAssigner;
 import org.neo4j.unsafe.impl.batchimport.staging.ExecutionMonitor;
 import org.neo4j.unsafe.impl.batchimport.staging.IteratorBatcherStep;
+import org.neo4j.unsafe.impl.batchimport.staging.MultiExecutionMonitor;
 import org.neo4j.unsafe.impl.batchimport.staging.Stage;
 import org.neo4j.unsafe.impl.batchimport.staging.StageExecution;
 import org.neo4j.unsafe.impl.batchimport.store.BatchingNeoStore;
@@ -67,28 +74,55 @@ public class ParallelBatchImporter implements BatchImporter
     private final LifeSupport life = new LifeSupport();
     private final Monitors monitors;
     private final WriterFactory writerFactory;
+    private final Iterable<KernelExtensionFactory<?>> kernelExtensions;
 
     ParallelBatchImporter( String storeDir, FileSystemAbstraction fileSystem, Configuration config,
-            Logging logging, ExecutionMonitor executionMonitor, WriterFactory writerFactory )
+            Logging logging, ExecutionMonitor executionMonitor, WriterFactory writerFactory,
+            Iterable<KernelExtensionFactory<?>> kernelExtensions )
     {
         this.storeDir = storeDir;
         this.fileSystem = fileSystem;
         this.config = config;
         this.logging = logging;
         this.logger = logging.getMessagesLog( getClass() );
-        this.executionMonitor = executionMonitor;
+        this.executionMonitor = new MultiExecutionMonitor( executionMonitor, new DynamicProcessorAssigner( config ) );
         this.monitors = new Monitors();
         this.writeMonitor = new IoMonitor();
         this.writerFactory = writerFactory;
+        this.kernelExtensions = kernelExtensions;
 
         life.start();
     }
 
+    ParallelBatchImporter( String storeDir, FileSystemAbstraction fileSystem, Configuration config,
+            Logging logging, ExecutionMonitor executionMonitor, WriterFactory writerFactory )
+    {
+        this( storeDir, fileSystem, config, logging, executionMonitor, writerFactory, loadKernelExtensions() );
+    }
+
     public ParallelBatchImporter( String storeDir, FileSystemAbstraction fileSystem,
                                   Configuration config, Logging logging, ExecutionMonitor executionMonitor )
+    {
+        this( storeDir, fileSystem, config, logging, executionMonitor, loadKernelExtensions() );
+    }
+
+    /**
+     * @param kernelExtensions kernel extensions to find a {@link org.neo4j.kernel.api.labelscan.LabelScanStore}
+     * from, which will be populated during the import. If none is found the label scan store will be
+     * rebuilt when the database starts.
+     */
+    public ParallelBatchImporter( String storeDir, FileSystemAbstraction fileSystem,
+                                  Configuration config, Logging logging, ExecutionMonitor executionMonitor,
+                                  Iterable<KernelExtensionFactory<?>> kernelExtensions )
     {
         this( storeDir, fileSystem, config, logging, executionMonitor,
-                new IoQueue( config.numberOfIoThreads(), SYNCHRONOUS ) );
+                new IoQueue( config.numberOfIoThreads(), SYNCHRONOUS ), kernelExtensions );
+    }
+
+    private static Iterable<KernelExtensionFactory<?>> loadKernelExtensions()
+    {
+        return Iterables.<KernelExtensionFactory<?>,KernelExtensionFactory>cast(
+                Service.load( KernelExtensionFactory.class ) );
     }
 
     @Override
@@ -99,21 +133,43 @@ public class ParallelBatchImporter implements BatchImporter
 
         long startTime = currentTimeMillis();
         try ( BatchingNeoStore neoStore = new BatchingNeoStore( fileSystem, storeDir, config,
-                writeMonitor, logging, monitors, writerFactory ) )
+                writeMonitor, logging, monitors, writerFactory, kernelExtensions ) )
         {
-            // Stage 1 -- nodes, properties, labels
-            NodeStage nodeStage = new NodeStage( idMapper.wrapNodes( nodes.iterator() ), neoStore );
+            CountsAccumulator counts = new CountsAccumulator();
+            NodeLabelsCache nodeLabelsCache = new NodeLabelsCache( LongArrayFactory.AUTO, config.batchSize() * 100 );
+
+            // Stage 1 -- nodes, properties, labels, label scan store
+            NodeStage nodeStage = new NodeStage( idMapper.wrapNodes( nodes.iterator() ), neoStore,
+                    counts, nodeLabelsCache );
 
             // Stage 2 -- calculate dense node threshold
             NodeRelationshipLink nodeRelationshipLink = new NodeRelationshipLinkImpl(
                     LongArrayFactory.AUTO, config.denseNodeThreshold() );
-            CalculateDenseNodesStage calculateDenseNodesStage = new CalculateDenseNodesStage(
-                    relationships.iterator(), nodeRelationshipLink );
-            executeStages( nodeStage, calculateDenseNodesStage );
+            if ( idMapper.needsPreparation() )
+            {
+                // Relationships can't be resolved until all nodes have been seen
+                executeStages( nodeStage );
+                idMapper.prepare();
+                executeStages( new CalculateDenseNodesStage(
+                        idMapper.wrapRelationships( relationships.iterator() ), nodeRelationshipLink ) );
+            }
+            else
+            {
+                executeStages( nodeStage, new CalculateDenseNodesStage(
+                        idMapper.wrapRelationships( relationships.iterator() ), nodeRelationshipLink ) );
+            }
 
-            // Stage 3 -- relationships, properties
+            // Stage 3 -- relationships, properties, counts
             executeStages( new RelationshipStage( idMapper.wrapRelationships( relationships.iterator() ),
-                    neoStore, nodeRelationshipLink ) );
+                    neoStore, nodeRelationshipLink, counts, nodeLabelsCache ) );
+            if ( nodeLabelsCache.isComplete() )
+            {
+                neoStore.setCounts( counts );
+            }
+            else
+            {
+                logger.info( "Labels of some nodes not known during import, counts will be rebuilt on startup" );
+            }
 
             // Switch to reverse updating mode
             writerFactory.awaitEverythingWritten();
@@ -163,15 +219,18 @@ public class ParallelBatchImporter implements BatchImporter
 
     public class NodeStage extends Stage
     {
-        public NodeStage( Iterator<InputNode> input, BatchingNeoStore neoStore )
+        public NodeStage( Iterator<InputNode> input, BatchingNeoStore neoStore, CountsAccumulator counts,
+                NodeLabelsCache nodeLabelsCache )
         {
             super( logging, "Nodes", config );
             input( new IteratorBatcherStep<>( control(), "INPUT", config.batchSize(), input ) );
 
             NodeStore nodeStore = neoStore.getNodeStore();
             PropertyStore propertyStore = neoStore.getPropertyStore();
-            add( new NodeEncoderStep( control(), "ENCODER", config.workAheadSize(), 1,
+            add( new NodeEncoderStep( control(), "ENCODER", config.workAheadSize(), 1, config.maxNumberOfProcessors(),
                     neoStore.getPropertyKeyRepository(), neoStore.getLabelRepository(), nodeStore, propertyStore ) );
+            add( new LabelScanStorePopulationStep( control(), config.workAheadSize(), neoStore.newLabelScanWriter(),
+                    counts, nodeLabelsCache ) );
             add( new EntityStoreUpdaterStep<>( control(), "WRITER", nodeStore, propertyStore, writeMonitor ) );
         }
     }
@@ -190,7 +249,8 @@ public class ParallelBatchImporter implements BatchImporter
     public class RelationshipStage extends Stage
     {
         public RelationshipStage( Iterator<InputRelationship> input, BatchingNeoStore neoStore,
-                                  NodeRelationshipLink nodeRelationshipLink )
+                                  NodeRelationshipLink nodeRelationshipLink, CountsAccumulator counts,
+                                  NodeLabelsCache nodeLabelsCache )
         {
             super( logging, "Relationships", config );
             input( new IteratorBatcherStep<>( control(), "INPUT", config.batchSize(), input ) );
@@ -198,8 +258,11 @@ public class ParallelBatchImporter implements BatchImporter
             RelationshipStore relationshipStore = neoStore.getRelationshipStore();
             PropertyStore propertyStore = neoStore.getPropertyStore();
             add( new RelationshipEncoderStep( control(), "ENCODER", config.workAheadSize(), 1,
-                    neoStore.getPropertyKeyRepository(), neoStore.getRelationshipTypeRepository(),
-                    relationshipStore, propertyStore, nodeRelationshipLink ) );
+                    config.maxNumberOfProcessors(), neoStore.getPropertyKeyRepository(),
+                    neoStore.getRelationshipTypeRepository(), propertyStore ) );
+            add( new RelationshipLinkforwardStep( control(), config.workAheadSize(), relationshipStore,
+                    nodeRelationshipLink ) );
+            add( new RelationshipCountsStep( control(), config.workAheadSize(), counts, nodeLabelsCache ) );
             add( new EntityStoreUpdaterStep<>( control(), "WRITER", relationshipStore, propertyStore, writeMonitor ) );
         }
     }
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsAccumulator;
+import org.neo4j.unsafe.impl.batchimport.cache.NodeLabelsCache;
+import org.neo4j.unsafe.impl.batchimport.staging.ExecutorServiceStep;
+import org.neo4j.unsafe.impl.batchimport.staging.StageControl;
+
+/**
+ * Counts the {@link RelationshipRecord relationships} passing through per type and labels of their start
+ * and end nodes, where the node labels come from the {@link NodeLabelsCache} populated while importing nodes.
+ */
+public class RelationshipCountsStep extends ExecutorServiceStep<RecordBatch<RelationshipRecord>>
+{
+    private final CountsAccumulator counts;
+    private final NodeLabelsCache nodeLabelsCache;
+
+    public RelationshipCountsStep( StageControl control, int workAheadSize, CountsAccumulator counts,
+            NodeLabelsCache nodeLabelsCache )
+    {
+        super( control, "COUNTS", workAheadSize, 1 );
+        this.counts = counts;
+        this.nodeLabelsCache = nodeLabelsCache;
+    }
+
+    @Override
+    protected Object process( long ticket, RecordBatch<RelationshipRecord> batch )
+    {
+        for ( RelationshipRecord relationship : batch.getEntityRecords() )
+        {
+            counts.relationship( nodeLabelsCache.get( relationship.getFirstNode() ), relationship.getType(),
+                    nodeLabelsCache.get( relationship.getSecondNode() ), 1 );
+        }
+        return batch;
+    }
+}
@@ -25,45 +25,36 @@ import java.util.List;
 import org.neo4j.kernel.impl.nioneo.store.PropertyStore;
 import org.neo4j.kernel.impl.nioneo.store.Record;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
-import org.neo4j.kernel.impl.nioneo.store.RelationshipStore;
 import org.neo4j.kernel.impl.nioneo.xa.PropertyCreator;
-import org.neo4j.unsafe.impl.batchimport.cache.NodeRelationshipLink;
 import org.neo4j.unsafe.impl.batchimport.input.InputRelationship;
 import org.neo4j.unsafe.impl.batchimport.staging.ExecutorServiceStep;
 import org.neo4j.unsafe.impl.batchimport.staging.StageControl;
 import org.neo4j.unsafe.impl.batchimport.store.BatchingPropertyRecordAccess;
 import org.neo4j.unsafe.impl.batchimport.store.BatchingTokenRepository;
 
-import static org.neo4j.graphdb.Direction.INCOMING;
 import static org.neo4j.unsafe.impl.batchimport.Utils.propertyKeysAndValues;
 
 /**
- * Creates batches of relationship records with their properties, and with the "next" relationship
- * pointers set to the next relationships (previously created) in their respective chains. The previous
- * relationship ids are kept in {@link NodeRelationshipLink node cache}, which is a point of scalability issues,
- * although mitigated using multi-pass techniques.
+ * Creates batches of relationship records with their properties. Batches can be processed concurrently
+ * by up to {@code maxProcessors} threads. The "next" relationship pointers are set downstream by
+ * {@link RelationshipLinkforwardStep}, which needs to see the relationships in order.
  */
 public class RelationshipEncoderStep extends ExecutorServiceStep<List<InputRelationship>>
 {
     private final BatchingTokenRepository<?> propertyKeyRepository;
     private final BatchingTokenRepository<?> relationshipTypeRepository;
-    private final RelationshipStore relationshipStore;
     private final PropertyCreator propertyCreator;
-    private final NodeRelationshipLink nodeRelationshipLink;
 
     public RelationshipEncoderStep( StageControl control, String name,
-            int workAheadSize, int numberOfExecutors,
+            int workAheadSize, int numberOfExecutors, int maxProcessors,
             BatchingTokenRepository<?> propertyKeyRepository,
             BatchingTokenRepository<?> relationshipTypeRepository,
-            RelationshipStore relationshipStore, PropertyStore propertyStore,
-            NodeRelationshipLink nodeRelationshipLink )
+            PropertyStore propertyStore )
     {
-        super( control, name, workAheadSize, numberOfExecutors );
+        super( control, name, workAheadSize, numberOfExecutors, maxProcessors );
         this.propertyKeyRepository = propertyKeyRepository;
         this.relationshipTypeRepository = relationshipTypeRepository;
-        this.relationshipStore = relationshipStore;
         this.propertyCreator = new PropertyCreator( propertyStore, null );
-        this.nodeRelationshipLink = nodeRelationshipLink;
     }
 
     @Override
@@ -74,27 +65,12 @@ public class RelationshipEncoderStep extends ExecutorServiceStep<List<InputRelat
         for ( InputRelationship batchRelationship : batch )
         {
             long relationshipId = batchRelationship.id();
-            relationshipStore.setHighId( relationshipId+1 );
             int typeId = batchRelationship.hasTypeId() ? batchRelationship.typeId() :
                     relationshipTypeRepository.getOrCreateId( batchRelationship.type() );
             RelationshipRecord relationshipRecord = new RelationshipRecord( relationshipId,
                     batchRelationship.startNode(), batchRelationship.endNode(), typeId );
             relationshipRecord.setInUse( true );
 
-            // Set first/second next rel
-            long firstNextRel = nodeRelationshipLink.getAndPutRelationship(
-                    batchRelationship.startNode(), typeId, batchRelationship.startDirection(), relationshipId, true );
-            relationshipRecord.setFirstNextRel( firstNextRel );
-            if ( batchRelationship.isLoop() )
-            {
-                relationshipRecord.setSecondNextRel( firstNextRel );
-            }
-            else
-            {
-                relationshipRecord.setSecondNextRel( nodeRelationshipLink.getAndPutRelationship(
-                        batchRelationship.endNode(), typeId, INCOMING, relationshipId, true ) );
-            }
-
             // Most rels will not be first in chain
             relationshipRecord.setFirstInFirstChain( false );
             relationshipRecord.setFirstInSecondChain( false );
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipStore;
+import org.neo4j.unsafe.impl.batchimport.cache.NodeRelationshipLink;
+import org.neo4j.unsafe.impl.batchimport.staging.ExecutorServiceStep;
+import org.neo4j.unsafe.impl.batchimport.staging.StageControl;
+
+import static org.neo4j.graphdb.Direction.BOTH;
+import static org.neo4j.graphdb.Direction.INCOMING;
+import static org.neo4j.graphdb.Direction.OUTGOING;
+
+/**
+ * Sets the "next" relationship pointers of relationship records to the next relationships (previously
+ * created) in their respective chains. The previous relationship ids are kept in {@link NodeRelationshipLink
+ * node cache}, which is a point of scalability issues, although mitigated using multi-pass techniques.
+ * Relationships must be linked in order of their ids, which is why this is a single threaded step.
+ */
+public class RelationshipLinkforwardStep extends ExecutorServiceStep<RecordBatch<RelationshipRecord>>
+{
+    private final RelationshipStore relationshipStore;
+    private final NodeRelationshipLink nodeRelationshipLink;
+
+    public RelationshipLinkforwardStep( StageControl control, int workAheadSize,
+            RelationshipStore relationshipStore, NodeRelationshipLink nodeRelationshipLink )
+    {
+        super( control, "LINKER", workAheadSize, 1 );
+        this.relationshipStore = relationshipStore;
+        this.nodeRelationshipLink = nodeRelationshipLink;
+    }
+
+    @Override
+    protected Object process( long ticket, RecordBatch<RelationshipRecord> batch )
+    {
+        for ( RelationshipRecord relationshipRecord : batch.getEntityRecords() )
+        {
+            long relationshipId = relationshipRecord.getId();
+            relationshipStore.setHighId( relationshipId+1 );
+            long startNode = relationshipRecord.getFirstNode();
+            long endNode = relationshipRecord.getSecondNode();
+            int typeId = relationshipRecord.getType();
+            boolean isLoop = startNode == endNode;
+
+            // Set first/second next rel
+            long firstNextRel = nodeRelationshipLink.getAndPutRelationship(
+                    startNode, typeId, isLoop ? BOTH : OUTGOING, relationshipId, true );
+            relationshipRecord.setFirstNextRel( firstNextRel );
+            if ( isLoop )
+            {
+                relationshipRecord.setSecondNextRel( firstNextRel );
+            }
+            else
+            {
+                relationshipRecord.setSecondNextRel( nodeRelationshipLink.getAndPutRelationship(
+                        endNode, typeId, INCOMING, relationshipId, true ) );
+            }
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.cache;
+
+/**
+ * Encodes input ids into longs, for {@link EncodingIdMapper} to store and sort. Equal input ids must
+ * encode into equal longs.
+ */
+public interface Encoder
+{
+    long encode( Object value );
+
+    /**
+     * @return whether different input ids always encode into different longs. If not, the input ids
+     * themselves are kept, in their string form, and compared whenever their encodings are equal.
+     */
+    boolean isExact();
+}
@@ -0,0 +1,376 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.helpers.collection.IteratorWrapper;
+import org.neo4j.helpers.collection.PrefetchingIterator;
+import org.neo4j.unsafe.impl.batchimport.input.InputNode;
+import org.neo4j.unsafe.impl.batchimport.input.InputRelationship;
+
+import static java.lang.String.format;
+
+/**
+ * Maps arbitrary {@link InputNode#inputId() input ids}, for example strings or sparse longs, to node ids.
+ * Node ids are handed out in the order nodes come in and the input id of each node is {@link Encoder encoded}
+ * into a long, kept in a {@link LongArray} at the index of its node id. When all nodes have been seen,
+ * {@link #prepare()} sorts an index of node ids by their encoded input ids, which is then binary searched
+ * to resolve the start and end nodes of relationships. That's 16 bytes per node, kept off-heap if
+ * the {@link LongArrayFactory} so decides.
+ *
+ * If the {@link Encoder#isExact() encoding isn't exact}, different input ids may encode into the same long.
+ * The input ids are then also kept, as {@link StringValues} plus another 8 bytes per node, and compared
+ * wherever encodings are equal: in {@link #prepare()} to tell actual duplicates from collisions, and in
+ * {@link #get(Object)} to find the node among those with the same encoding, if any.
+ *
+ * Nodes with equal input ids are reported as duplicates by {@link #prepare()}.
+ * Relationships referring to input ids which no node has are left out and reported by
+ * {@link #numberOfUnresolvedReferences()} and {@link #unresolvedReferences()}.
+ */
+public class EncodingIdMapper implements IdMapper
+{
+    /**
+     * Number of unresolved references to keep around for reporting. The rest are only counted.
+     */
+    static final int MAX_KEPT_UNRESOLVED_REFERENCES = 1000;
+    private static final long CHUNK_SIZE = 1 << 20;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    private static final long NOT_FOUND = -1;
+
+    private final LongArrayFactory arrayFactory;
+    private final Encoder encoder;
+    private final LongArray data;
+    // References into inputIds for every node, only if the encoding isn't exact
+    private final StringValues inputIds;
+    private final LongArray inputIdReferences;
+    private LongArray sortedIndex;
+    private long nodeCount;
+
+    private final List<Object> unresolvedReferences = new ArrayList<>();
+    private long numberOfUnresolvedReferences;
+
+    public EncodingIdMapper( LongArrayFactory arrayFactory, Encoder encoder )
+    {
+        this.arrayFactory = arrayFactory;
+        this.encoder = encoder;
+        this.data = arrayFactory.newDynamicLongArray( CHUNK_SIZE );
+        this.inputIds = encoder.isExact() ? null : new StringValues();
+        this.inputIdReferences = encoder.isExact() ? null : arrayFactory.newDynamicLongArray( CHUNK_SIZE );
+    }
+
+    @Override
+    public Iterator<InputNode> wrapNodes( Iterator<InputNode> nodes )
+    {
+        return new IteratorWrapper<InputNode, InputNode>( nodes )
+        {
+            @Override
+            protected InputNode underlyingObjectToObject( InputNode node )
+            {
+                if ( sortedIndex != null )
+                {
+                    throw new IllegalStateException( "Cannot add more nodes after having been prepared" );
+                }
+                long nodeId = nodeCount++;
+                data.set( nodeId, encoder.encode( node.inputId() ) );
+                if ( inputIds != null )
+                {
+                    inputIdReferences.set( nodeId, inputIds.add( node.inputId().toString() ) );
+                }
+                return new InputNode( nodeId, node.properties(),
+                        node.hasFirstPropertyId() ? node.firstPropertyId() : null,
+                        node.labels(), node.labelField() );
+            }
+        };
+    }
+
+    @Override
+    public boolean needsPreparation()
+    {
+        return true;
+    }
+
+    /**
+     * Sorts the node ids by encoded input id and verifies that there are no duplicate input ids.
+     *
+     * @throws IllegalStateException if two nodes have the same input id.
+     */
+    @Override
+    public void prepare()
+    {
+        sortedIndex = arrayFactory.newLongArray( nodeCount );
+        for ( long i = 0; i < nodeCount; i++ )
+        {
+            sortedIndex.set( i, i );
+        }
+        sort( 0, nodeCount );
+
+        for ( long from = 0, to; from < nodeCount; from = to )
+        {
+            to = endOfRun( from );
+            if ( to - from > 1 )
+            {
+                verifyNoDuplicates( from, to );
+            }
+        }
+    }
+
+    /**
+     * @return the end, exclusive, of the run of equal encodings starting at {@code from} in the sorted index.
+     */
+    private long endOfRun( long from )
+    {
+        long key = key( from );
+        long to = from + 1;
+        while ( to < nodeCount && key( to ) == key )
+        {
+            to++;
+        }
+        return to;
+    }
+
+    private void verifyNoDuplicates( long from, long to )
+    {
+        if ( inputIds == null )
+        {   // An exact encoding means that equal encodings are equal input ids
+            throw duplicate( sortedIndex.get( from ), sortedIndex.get( from + 1 ) );
+        }
+
+        Map<String, Long> seen = new HashMap<>();
+        for ( long i = from; i < to; i++ )
+        {
+            long nodeId = sortedIndex.get( i );
+            Long other = seen.put( inputId( nodeId ), nodeId );
+            if ( other != null )
+            {
+                throw duplicate( other, nodeId );
+            }
+        }
+    }
+
+    private static IllegalStateException duplicate( long nodeId, long otherNodeId )
+    {
+        return new IllegalStateException( format( "Nodes %d and %d have the same input id",
+                Math.min( nodeId, otherNodeId ), Math.max( nodeId, otherNodeId ) ) );
+    }
+
+    private String inputId( long nodeId )
+    {
+        return inputIds.get( inputIdReferences.get( nodeId ) );
+    }
+
+    /**
+     * Each call starts a new pass over the relationships, so the unresolved references kept are those of
+     * the latest pass.
+     */
+    @Override
+    public Iterator<InputRelationship> wrapRelationships( final Iterator<InputRelationship> relationships )
+    {
+        if ( sortedIndex == null )
+        {
+            throw new IllegalStateException( "Must be prepared before relationships can be resolved" );
+        }
+
+        unresolvedReferences.clear();
+        numberOfUnresolvedReferences = 0;
+        return new PrefetchingIterator<InputRelationship>()
+        {
+            @Override
+            protected InputRelationship fetchNextOrNull()
+            {
+                while ( relationships.hasNext() )
+                {
+                    InputRelationship relationship = relationships.next();
+                    long startNode = resolve( relationship.startNodeInputId() );
+                    long endNode = resolve( relationship.endNodeInputId() );
+                    if ( startNode != NOT_FOUND && endNode != NOT_FOUND )
+                    {
+                        return new InputRelationship( relationship.id(), relationship.properties(),
+                                relationship.hasFirstPropertyId() ? relationship.firstPropertyId() : null,
+                                startNode, endNode, relationship.type(),
+                                relationship.hasTypeId() ? relationship.typeId() : null );
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * @return the node id of the node with the given input id, or {@code -1} if there's no such node.
+     */
+    public long get( Object inputId )
+    {
+        long key = encoder.encode( inputId );
+        long low = 0;
+        long high = nodeCount - 1;
+        while ( low <= high )
+        {
+            long mid = (low + high) >>> 1;
+            long midKey = key( mid );
+            if ( midKey < key )
+            {
+                low = mid + 1;
+            }
+            else if ( midKey > key )
+            {
+                high = mid - 1;
+            }
+            else
+            {
+                return inputIds == null ? sortedIndex.get( mid ) : findAmongEqualEncodings( mid, key, inputId );
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private long findAmongEqualEncodings( long index, long key, Object inputId )
+    {
+        String value = inputId.toString();
+        long from = index;
+        while ( from > 0 && key( from - 1 ) == key )
+        {
+            from--;
+        }
+        for ( long i = from; i < nodeCount && key( i ) == key; i++ )
+        {
+            long nodeId = sortedIndex.get( i );
+            if ( inputId( nodeId ).equals( value ) )
+            {
+                return nodeId;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * @return number of references to input ids which no node had, in the latest pass over the relationships.
+     */
+    public long numberOfUnresolvedReferences()
+    {
+        return numberOfUnresolvedReferences;
+    }
+
+    /**
+     * @return the first {@value #MAX_KEPT_UNRESOLVED_REFERENCES} input ids which no node had,
+     * in the latest pass over the relationships.
+     */
+    public Collection<Object> unresolvedReferences()
+    {
+        return unresolvedReferences;
+    }
+
+    private long resolve( Object inputId )
+    {
+        long nodeId = get( inputId );
+        if ( nodeId == NOT_FOUND )
+        {
+            numberOfUnresolvedReferences++;
+            if ( unresolvedReferences.size() < MAX_KEPT_UNRESOLVED_REFERENCES )
+            {
+                unresolvedReferences.add( inputId );
+            }
+        }
+        return nodeId;
+    }
+
+    private long key( long index )
+    {
+        return data.get( sortedIndex.get( index ) );
+    }
+
+    /**
+     * Quicksort of the index in {@code [from, to)}, recursing into the smaller half so that the depth
+     * stays logarithmic.
+     */
+    private void sort( long from, long to )
+    {
+        while ( to - from > INSERTION_SORT_THRESHOLD )
+        {
+            long pivot = partition( from, to );
+            if ( pivot - from < to - pivot )
+            {
+                sort( from, pivot );
+                from = pivot + 1;
+            }
+            else
+            {
+                sort( pivot + 1, to );
+                to = pivot;
+            }
+        }
+        insertionSort( from, to );
+    }
+
+    private long partition( long from, long to )
+    {
+        long last = to - 1;
+        long mid = (from + last) >>> 1;
+        // Median of three as pivot, placed last
+        if ( key( mid ) < key( from ) )
+        {
+            swap( mid, from );
+        }
+        if ( key( last ) < key( from ) )
+        {
+            swap( last, from );
+        }
+        if ( key( mid ) < key( last ) )
+        {
+            swap( mid, last );
+        }
+
+        long pivotKey = key( last );
+        long store = from;
+        for ( long i = from; i < last; i++ )
+        {
+            if ( key( i ) < pivotKey )
+            {
+                swap( i, store++ );
+            }
+        }
+        swap( store, last );
+        return store;
+    }
+
+    private void insertionSort( long from, long to )
+    {
+        for ( long i = from + 1; i < to; i++ )
+        {
+            for ( long j = i; j > from && key( j ) < key( j - 1 ); j-- )
+            {
+                swap( j, j - 1 );
+            }
+        }
+    }
+
+    private void swap( long a, long b )
+    {
+        if ( a != b )
+        {
+            sortedIndex.swap( a, b, 1 );
+        }
+    }
+}
@@ -32,5 +32,16 @@ public interface IdMapper
 {
     Iterator<InputNode> wrapNodes( Iterator<InputNode> nodes );
 
+    /**
+     * @return whether or not {@link #prepare()} needs to be called after all nodes have passed through
+     * {@link #wrapNodes(Iterator)} and before any relationships are {@link #wrapRelationships(Iterator) wrapped}.
+     */
+    boolean needsPreparation();
+
+    /**
+     * Called when all nodes have been seen, to get ready for resolving the start and end nodes of relationships.
+     */
+    void prepare();
+
     Iterator<InputRelationship> wrapRelationships( Iterator<InputRelationship> relationships );
 }
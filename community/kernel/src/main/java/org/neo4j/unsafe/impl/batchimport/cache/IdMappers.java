@@ -35,6 +35,23 @@ public class IdMappers
         return new ActualIdMapper();
     }
 
+    /**
+     * An {@link IdMapper} for input where nodes are identified by arbitrary strings, see {@link EncodingIdMapper}.
+     */
+    public static IdMapper strings()
+    {
+        return new EncodingIdMapper( LongArrayFactory.AUTO, new StringEncoder() );
+    }
+
+    /**
+     * An {@link IdMapper} for input where nodes are identified by longs which aren't necessarily dense
+     * or ascending, see {@link EncodingIdMapper}.
+     */
+    public static IdMapper longs()
+    {
+        return new EncodingIdMapper( LongArrayFactory.AUTO, new LongEncoder() );
+    }
+
     public static class ActualIdMapper implements IdMapper
     {
         @Override
@@ -58,6 +75,17 @@ public class IdMappers
             };
         }
 
+        @Override
+        public boolean needsPreparation()
+        {
+            return false;
+        }
+
+        @Override
+        public void prepare()
+        {   // No need, the input ids are the actual ids
+        }
+
         @Override
         public Iterator<InputRelationship> wrapRelationships( Iterator<InputRelationship> relationships )
         {
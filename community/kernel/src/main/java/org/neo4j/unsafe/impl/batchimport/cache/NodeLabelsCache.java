@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.kernel.impl.nioneo.store.labels.InlineNodeLabels;
+
+import static org.neo4j.kernel.impl.nioneo.store.labels.NodeLabelsField.fieldPointsToDynamicRecordOfLabels;
+
+/**
+ * Caches the label ids of each node, so that relationships can be counted per label of their start and
+ * end nodes without reading node records back from the store. Labels inlined in the label field of a node
+ * record are kept as that field, 8 bytes per node, while the few nodes with more labels than fit inlined
+ * have their label ids kept separately.
+ */
+public class NodeLabelsCache
+{
+    private static final long[] NO_LABELS = new long[0];
+
+    private final LongArray fields;
+    private final Map<Long,long[]> dynamicLabels = new HashMap<>();
+    private boolean complete = true;
+
+    public NodeLabelsCache( LongArrayFactory arrayFactory, int chunkSize )
+    {
+        this.fields = arrayFactory.newDynamicLongArray( chunkSize );
+        this.fields.setAll( 0 ); // an inlined label field without labels
+    }
+
+    /**
+     * @param labelField the label field of the node record.
+     * @param labels the label ids of the node, or {@code null} if not known.
+     */
+    public void put( long nodeId, long labelField, long[] labels )
+    {
+        if ( labels == null )
+        {
+            complete = false;
+            return;
+        }
+        if ( fieldPointsToDynamicRecordOfLabels( labelField ) )
+        {
+            dynamicLabels.put( nodeId, labels );
+        }
+        fields.set( nodeId, labelField );
+    }
+
+    public long[] get( long nodeId )
+    {
+        long field = fields.get( nodeId );
+        if ( fieldPointsToDynamicRecordOfLabels( field ) )
+        {
+            long[] labels = dynamicLabels.get( nodeId );
+            return labels != null ? labels : NO_LABELS;
+        }
+        return InlineNodeLabels.parseInlined( field );
+    }
+
+    /**
+     * @return whether or not the labels of all nodes were known when {@link #put(long, long, long[]) put}.
+     */
+    public boolean isComplete()
+    {
+        return complete;
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.cache;
+
+/**
+ * {@link Encoder} for string input ids, encoded as two different 32-bit hashes of the string side by side.
+ * Different strings may still, with very low probability, encode into the same long, which is why this encoding
+ * isn't {@link #isExact() exact}.
+ */
+public class StringEncoder implements Encoder
+{
+    private static final int FNV_OFFSET_BASIS = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    @Override
+    public long encode( Object value )
+    {
+        String string = value.toString();
+        int hash = FNV_OFFSET_BASIS;
+        for ( int i = 0; i < string.length(); i++ )
+        {
+            hash ^= string.charAt( i );
+            hash *= FNV_PRIME;
+        }
+        return ((long) string.hashCode() << 32) | (hash & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public boolean isExact()
+    {
+        return false;
+    }
+}
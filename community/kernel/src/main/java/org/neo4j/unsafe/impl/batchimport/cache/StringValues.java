@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.kernel.impl.util.Charsets;
+
+/**
+ * Strings kept as UTF-8 bytes back to back in chunks of heap memory, each one prefixed with its length.
+ * A string is referred to by the long {@link #add(String) returned when adding it}, the index of its chunk
+ * in the high 32 bits and its offset in that chunk in the low 32 bits.
+ */
+public class StringValues
+{
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final int LENGTH_SIZE = 4;
+
+    private final List<byte[]> chunks = new ArrayList<>();
+    private byte[] current;
+    private int position;
+
+    public long add( String value )
+    {
+        byte[] bytes = value.getBytes( Charsets.UTF_8 );
+        int size = LENGTH_SIZE + bytes.length;
+        if ( current == null || position + size > current.length )
+        {
+            current = new byte[Math.max( CHUNK_SIZE, size )];
+            chunks.add( current );
+            position = 0;
+        }
+        long reference = ((long) (chunks.size() - 1) << 32) | position;
+        writeInt( current, position, bytes.length );
+        System.arraycopy( bytes, 0, current, position + LENGTH_SIZE, bytes.length );
+        position += size;
+        return reference;
+    }
+
+    public String get( long reference )
+    {
+        byte[] chunk = chunks.get( (int) (reference >>> 32) );
+        int offset = (int) reference;
+        return new String( chunk, offset + LENGTH_SIZE, readInt( chunk, offset ), Charsets.UTF_8 );
+    }
+
+    private static void writeInt( byte[] chunk, int offset, int value )
+    {
+        chunk[offset] = (byte) (value >>> 24);
+        chunk[offset + 1] = (byte) (value >>> 16);
+        chunk[offset + 2] = (byte) (value >>> 8);
+        chunk[offset + 3] = (byte) value;
+    }
+
+    private static int readInt( byte[] chunk, int offset )
+    {
+        return (chunk[offset] & 0xFF) << 24 | (chunk[offset + 1] & 0xFF) << 16 |
+               (chunk[offset + 2] & 0xFF) << 8 | (chunk[offset + 3] & 0xFF);
+    }
+}
@@ -23,6 +23,7 @@ import java.util.Arrays;
 import java.util.Collection;
 
 import org.neo4j.helpers.Pair;
+import org.neo4j.unsafe.impl.batchimport.cache.IdMapper;
 
 /**
  * Represents a node from an input source, for example a .csv file.
@@ -31,6 +32,7 @@ public class InputNode extends InputEntity
 {
     private final String[] labels;
     private final Long labelField;
+    private final String stringId;
 
     /**
      * @param id
@@ -43,6 +45,28 @@ public class InputNode extends InputEntity
         super( id, properties, firstPropertyId );
         this.labels = labels;
         this.labelField = labelField;
+        this.stringId = null;
+    }
+
+    /**
+     * For input where nodes are identified by strings, which an {@link IdMapper} maps to node ids.
+     * {@link #id()} isn't known until then.
+     */
+    public InputNode( String id, Object[] properties, Long firstPropertyId, String[] labels, Long labelField )
+    {
+        super( -1, properties, firstPropertyId );
+        this.labels = labels;
+        this.labelField = labelField;
+        this.stringId = id;
+    }
+
+    /**
+     * @return the id which identifies this node in the input, and which relationships refer to it by.
+     * Either a {@link String} or a {@link Long}.
+     */
+    public Object inputId()
+    {
+        return stringId != null ? stringId : id();
     }
 
     public String[] labels()
@@ -64,6 +88,10 @@ public class InputNode extends InputEntity
     protected void toStringFields( Collection<Pair<String, ?>> fields )
     {
         super.toStringFields( fields );
+        if ( stringId != null )
+        {
+            fields.add( Pair.of( "inputId", stringId ) );
+        }
         if ( hasLabelField() )
         {
             fields.add( Pair.of( "labelField", labelField ) );
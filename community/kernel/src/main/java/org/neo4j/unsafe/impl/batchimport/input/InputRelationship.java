@@ -23,6 +23,7 @@ import java.util.Collection;
 
 import org.neo4j.graphdb.Direction;
 import org.neo4j.helpers.Pair;
+import org.neo4j.unsafe.impl.batchimport.cache.IdMapper;
 
 /**
  * Represents a relationship from an input source, for example a .csv file.
@@ -33,6 +34,8 @@ public class InputRelationship extends InputEntity
     private final long endNode;
     private final String type;
     private final Integer typeId;
+    private final String startNodeStringId;
+    private final String endNodeStringId;
 
     public InputRelationship( long id, Object[] properties, Long firstPropertyId, long startNode, long endNode,
             String type, Integer typeId )
@@ -42,6 +45,40 @@ public class InputRelationship extends InputEntity
         this.endNode = endNode;
         this.type = type;
         this.typeId = typeId;
+        this.startNodeStringId = null;
+        this.endNodeStringId = null;
+    }
+
+    /**
+     * For input where nodes are identified by strings, which an {@link IdMapper} maps to node ids.
+     * {@link #startNode()} and {@link #endNode()} aren't known until then.
+     */
+    public InputRelationship( long id, Object[] properties, Long firstPropertyId, String startNode, String endNode,
+            String type, Integer typeId )
+    {
+        super( id, properties, firstPropertyId );
+        this.startNode = -1;
+        this.endNode = -1;
+        this.type = type;
+        this.typeId = typeId;
+        this.startNodeStringId = startNode;
+        this.endNodeStringId = endNode;
+    }
+
+    /**
+     * @return the {@link InputNode#inputId() input id} of the start node.
+     */
+    public Object startNodeInputId()
+    {
+        return startNodeStringId != null ? startNodeStringId : startNode;
+    }
+
+    /**
+     * @return the {@link InputNode#inputId() input id} of the end node.
+     */
+    public Object endNodeInputId()
+    {
+        return endNodeStringId != null ? endNodeStringId : endNode;
     }
 
     public long startNode()
@@ -83,8 +120,8 @@ public class InputRelationship extends InputEntity
     protected void toStringFields( Collection<Pair<String, ?>> fields )
     {
         super.toStringFields( fields );
-        fields.add( Pair.of( "startNode", startNode ) );
-        fields.add( Pair.of( "endNode", endNode ) );
+        fields.add( Pair.of( "startNode", startNodeInputId() ) );
+        fields.add( Pair.of( "endNode", endNodeInputId() ) );
         if ( hasTypeId() )
         {
             fields.add( Pair.of( "typeId", typeId ) );
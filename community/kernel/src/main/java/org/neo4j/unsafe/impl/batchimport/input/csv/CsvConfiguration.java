@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.input.csv;
+
+/**
+ * Configuration for reading CSV files with {@link CsvInput}.
+ */
+public interface CsvConfiguration
+{
+    /**
+     * @return character separating the fields of a line.
+     */
+    char delimiter();
+
+    /**
+     * @return character separating the items of an array value, and multiple labels.
+     */
+    char arrayDelimiter();
+
+    /**
+     * @return character used for quoting values, which may then contain delimiters and new lines.
+     */
+    char quotationCharacter();
+
+    /**
+     * @return number of characters read into one chunk. Each chunk is parsed by a single parser thread.
+     */
+    int bufferSize();
+
+    /**
+     * @return number of threads parsing chunks concurrently.
+     */
+    int numberOfParsers();
+
+    public static class Default implements CsvConfiguration
+    {
+        @Override
+        public char delimiter()
+        {
+            return ',';
+        }
+
+        @Override
+        public char arrayDelimiter()
+        {
+            return ';';
+        }
+
+        @Override
+        public char quotationCharacter()
+        {
+            return '"';
+        }
+
+        @Override
+        public int bufferSize()
+        {
+            return 4 * 1024 * 1024;
+        }
+
+        @Override
+        public int numberOfParsers()
+        {
+            return Math.max( 1, Runtime.getRuntime().availableProcessors() - 1 );
+        }
+    }
+
+    public static final CsvConfiguration COMMAS = new Default();
+
+    public static final CsvConfiguration TABS = new Default()
+    {
+        @Override
+        public char delimiter()
+        {
+            return '\t';
+        }
+    };
+}
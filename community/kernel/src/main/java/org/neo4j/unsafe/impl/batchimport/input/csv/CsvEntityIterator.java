@@ -0,0 +1,285 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.input.csv;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+import org.neo4j.helpers.NamedThreadFactory;
+import org.neo4j.helpers.collection.PrefetchingIterator;
+
+import static org.neo4j.helpers.Exceptions.launderedException;
+
+/**
+ * Streams entities from a sequence of CSV files, each one starting with its own {@link Header} line.
+ * Files are read in chunks of {@link CsvConfiguration#bufferSize()} characters, cut at record boundaries,
+ * and the chunks are parsed in parallel by {@link CsvConfiguration#numberOfParsers()} threads while
+ * the order of the records is kept. Files ending with {@code .gz} are decompressed on the fly.
+ */
+class CsvEntityIterator<ENTITY> extends PrefetchingIterator<ENTITY>
+{
+    private static final Charset UTF_8 = Charset.forName( "UTF-8" );
+
+    private final Iterator<File> files;
+    private final CsvConfiguration config;
+    private final Deserializer.Factory<ENTITY> deserializers;
+    private final Deque<Future<List<ENTITY>>> pending = new ArrayDeque<>();
+    private final CsvParser scanner = new CsvParser();
+    private ExecutorService parsers;
+    private Iterator<ENTITY> current = Collections.emptyIterator();
+    private long nextId;
+
+    // State of the file currently being read
+    private Reader reader;
+    private Deserializer<ENTITY> deserializer;
+    private char[] buffer;
+    private int carried;
+    private boolean endOfFile;
+    private int recordsInChunk;
+
+    CsvEntityIterator( Iterator<File> files, CsvConfiguration config, Deserializer.Factory<ENTITY> deserializers )
+    {
+        this.files = files;
+        this.config = config;
+        this.deserializers = deserializers;
+    }
+
+    @Override
+    protected ENTITY fetchNextOrNull()
+    {
+        try
+        {
+            while ( !current.hasNext() )
+            {
+                fillPending();
+                Future<List<ENTITY>> next = pending.poll();
+                if ( next == null )
+                {
+                    close();
+                    return null;
+                }
+                current = next.get().iterator();
+            }
+            return current.next();
+        }
+        catch ( ExecutionException e )
+        {
+            close();
+            throw launderedException( e.getCause() );
+        }
+        catch ( IOException | InterruptedException e )
+        {
+            close();
+            throw launderedException( e );
+        }
+    }
+
+    /**
+     * Reads chunks and hands them to the parsers, keeping a couple of chunks per parser queued up.
+     */
+    private void fillPending() throws IOException
+    {
+        while ( pending.size() < config.numberOfParsers() * 2 )
+        {
+            if ( reader == null && !openNextFile() )
+            {
+                return;
+            }
+
+            final String chunk = nextChunk();
+            if ( chunk == null )
+            {
+                closeReader();
+                continue;
+            }
+
+            final long firstId = nextId;
+            final Deserializer<ENTITY> chunkDeserializer = deserializer;
+            nextId += recordsInChunk;
+            pending.add( parsers().submit( new Callable<List<ENTITY>>()
+            {
+                @Override
+                public List<ENTITY> call()
+                {
+                    List<String[]> records = CsvParser.parse( chunk, config );
+                    List<ENTITY> entities = new ArrayList<>( records.size() );
+                    long id = firstId;
+                    for ( String[] record : records )
+                    {
+                        entities.add( chunkDeserializer.deserialize( record, id++ ) );
+                    }
+                    return entities;
+                }
+            } ) );
+        }
+    }
+
+    private boolean openNextFile() throws IOException
+    {
+        while ( files.hasNext() )
+        {
+            File file = files.next();
+            BufferedReader fileReader = new BufferedReader( open( file ) );
+            String headerLine = fileReader.readLine();
+            if ( headerLine == null )
+            {   // Empty file
+                fileReader.close();
+                continue;
+            }
+
+            reader = fileReader;
+            deserializer = deserializers.create( Header.parse( headerLine, config ) );
+            buffer = new char[config.bufferSize()];
+            carried = 0;
+            endOfFile = false;
+            return true;
+        }
+        return false;
+    }
+
+    private static Reader open( File file ) throws IOException
+    {
+        InputStream in = new FileInputStream( file );
+        try
+        {
+            if ( file.getName().endsWith( ".gz" ) )
+            {
+                in = new GZIPInputStream( in, 1024 * 64 );
+            }
+            return new InputStreamReader( in, UTF_8 );
+        }
+        catch ( IOException e )
+        {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the next chunk of complete records, or {@code null} if the current file has been fully read.
+     */
+    private String nextChunk() throws IOException
+    {
+        while ( true )
+        {
+            int length = carried;
+            while ( !endOfFile && length < buffer.length )
+            {
+                int read = reader.read( buffer, length, buffer.length - length );
+                if ( read == -1 )
+                {
+                    endOfFile = true;
+                }
+                else
+                {
+                    length += read;
+                }
+            }
+            if ( length == 0 )
+            {
+                return null;
+            }
+
+            int end;
+            if ( endOfFile )
+            {
+                recordsInChunk = scanner.countRecords( buffer, length, config );
+                end = length;
+            }
+            else
+            {
+                end = scanner.endOfLastRecord( buffer, length, config );
+                recordsInChunk = scanner.records();
+            }
+
+            if ( end == 0 )
+            {   // A single record larger than the buffer, grow it and read more
+                buffer = Arrays.copyOf( buffer, buffer.length * 2 );
+                carried = length;
+                continue;
+            }
+
+            String chunk = new String( buffer, 0, end );
+            carried = length - end;
+            System.arraycopy( buffer, end, buffer, 0, carried );
+            return chunk;
+        }
+    }
+
+    private ExecutorService parsers()
+    {
+        if ( parsers == null )
+        {
+            parsers = Executors.newFixedThreadPool( config.numberOfParsers(),
+                    new NamedThreadFactory( "CSV parser" ).setDaemon( true ) );
+        }
+        return parsers;
+    }
+
+    private void closeReader() throws IOException
+    {
+        if ( reader != null )
+        {
+            reader.close();
+            reader = null;
+            buffer = null;
+        }
+    }
+
+    private void close()
+    {
+        for ( Future<List<ENTITY>> future : pending )
+        {
+            future.cancel( true );
+        }
+        pending.clear();
+        if ( parsers != null )
+        {
+            parsers.shutdown();
+            parsers = null;
+        }
+        try
+        {
+            closeReader();
+        }
+        catch ( IOException e )
+        {   // We're done with this file either way
+        }
+    }
+}
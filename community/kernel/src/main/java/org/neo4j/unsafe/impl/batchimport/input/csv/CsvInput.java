@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.input.csv;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.neo4j.unsafe.impl.batchimport.cache.IdMapper;
+import org.neo4j.unsafe.impl.batchimport.input.InputNode;
+import org.neo4j.unsafe.impl.batchimport.input.InputRelationship;
+
+import static org.neo4j.unsafe.impl.batchimport.input.csv.Header.Type.END_ID;
+import static org.neo4j.unsafe.impl.batchimport.input.csv.Header.Type.ID;
+import static org.neo4j.unsafe.impl.batchimport.input.csv.Header.Type.START_ID;
+import static org.neo4j.unsafe.impl.batchimport.input.csv.Header.Type.TYPE;
+
+/**
+ * Input for the parallel batch importer read from CSV files, nodes and relationships in separate files.
+ * Every file starts with a {@link Header} line. Node files must have an {@link Header.Type#ID} column,
+ * relationship files {@link Header.Type#START_ID}, {@link Header.Type#END_ID} and {@link Header.Type#TYPE}
+ * columns, where the ids are interpreted according to the {@link IdType}. Relationships get their ids
+ * in the order they appear in the input.
+ *
+ * The iterables can be iterated multiple times, each time reading the files from the start.
+ */
+public class CsvInput
+{
+    private final Iterable<File> nodeFiles;
+    private final Iterable<File> relationshipFiles;
+    private final IdType idType;
+    private final CsvConfiguration config;
+
+    public CsvInput( Iterable<File> nodeFiles, Iterable<File> relationshipFiles, IdType idType,
+            CsvConfiguration config )
+    {
+        this.nodeFiles = nodeFiles;
+        this.relationshipFiles = relationshipFiles;
+        this.idType = idType;
+        this.config = config;
+    }
+
+    public Iterable<InputNode> nodes()
+    {
+        return new Iterable<InputNode>()
+        {
+            @Override
+            public Iterator<InputNode> iterator()
+            {
+                return new CsvEntityIterator<>( nodeFiles.iterator(), config, new Deserializer.Factory<InputNode>()
+                {
+                    @Override
+                    public Deserializer<InputNode> create( Header header )
+                    {
+                        return new NodeDeserializer( header );
+                    }
+                } );
+            }
+        };
+    }
+
+    public Iterable<InputRelationship> relationships()
+    {
+        return new Iterable<InputRelationship>()
+        {
+            @Override
+            public Iterator<InputRelationship> iterator()
+            {
+                return new CsvEntityIterator<>( relationshipFiles.iterator(), config,
+                        new Deserializer.Factory<InputRelationship>()
+                {
+                    @Override
+                    public Deserializer<InputRelationship> create( Header header )
+                    {
+                        return new RelationshipDeserializer( header );
+                    }
+                } );
+            }
+        };
+    }
+
+    /**
+     * @return a new {@link IdMapper} suitable for the {@link IdType} of this input.
+     */
+    public IdMapper idMapper()
+    {
+        return idType.idMapper();
+    }
+
+    private static void requireColumns( Header header, Header.Type... types )
+    {
+        for ( Header.Type type : types )
+        {
+            if ( !header.has( type ) )
+            {
+                throw new IllegalArgumentException( "Header is missing a :" + type + " column" );
+            }
+        }
+    }
+
+    private static Object[] properties( List<Object> properties )
+    {
+        return properties.toArray( new Object[properties.size()] );
+    }
+
+    private class NodeDeserializer implements Deserializer<InputNode>
+    {
+        private final Header.Entry[] entries;
+
+        NodeDeserializer( Header header )
+        {
+            requireColumns( header, ID );
+            this.entries = header.entries();
+        }
+
+        @Override
+        public InputNode deserialize( String[] fields, long recordId )
+        {
+            String id = null;
+            List<String> labels = new ArrayList<>();
+            List<Object> properties = new ArrayList<>();
+            for ( int i = 0; i < entries.length && i < fields.length; i++ )
+            {
+                Header.Entry entry = entries[i];
+                String value = fields[i];
+                switch ( entry.type() )
+                {
+                case ID:
+                    id = value;
+                    if ( entry.name() != null && !value.isEmpty() )
+                    {
+                        properties.add( entry.name() );
+                        properties.add( value );
+                    }
+                    break;
+                case LABEL:
+                    for ( String label : CsvParser.split( value, config.arrayDelimiter() ) )
+                    {
+                        if ( !label.isEmpty() )
+                        {
+                            labels.add( label );
+                        }
+                    }
+                    break;
+                case PROPERTY:
+                    if ( !value.isEmpty() )
+                    {
+                        properties.add( entry.name() );
+                        properties.add( entry.parse( value, config.arrayDelimiter() ) );
+                    }
+                    break;
+                default:
+                    break;
+                }
+            }
+
+            if ( id == null || id.isEmpty() )
+            {
+                throw new IllegalArgumentException( "Node record " + recordId + " is missing its id" );
+            }
+            String[] labelArray = labels.toArray( new String[labels.size()] );
+            return idType == IdType.STRING
+                    ? new InputNode( id, properties( properties ), null, labelArray, null )
+                    : new InputNode( Long.parseLong( id.trim() ), properties( properties ), null, labelArray, null );
+        }
+    }
+
+    private class RelationshipDeserializer implements Deserializer<InputRelationship>
+    {
+        private final Header.Entry[] entries;
+
+        RelationshipDeserializer( Header header )
+        {
+            requireColumns( header, START_ID, END_ID, TYPE );
+            this.entries = header.entries();
+        }
+
+        @Override
+        public InputRelationship deserialize( String[] fields, long id )
+        {
+            String startNode = null;
+            String endNode = null;
+            String type = null;
+            List<Object> properties = new ArrayList<>();
+            for ( int i = 0; i < entries.length && i < fields.length; i++ )
+            {
+                Header.Entry entry = entries[i];
+                String value = fields[i];
+                switch ( entry.type() )
+                {
+                case START_ID:
+                    startNode = value;
+                    break;
+                case END_ID:
+                    endNode = value;
+                    break;
+                case TYPE:
+                    type = value;
+                    break;
+                case PROPERTY:
+                    if ( !value.isEmpty() )
+                    {
+                        properties.add( entry.name() );
+                        properties.add( entry.parse( value, config.arrayDelimiter() ) );
+                    }
+                    break;
+                default:
+                    break;
+                }
+            }
+
+            if ( startNode == null || endNode == null || type == null || type.isEmpty() )
+            {
+                throw new IllegalArgumentException( "Relationship record " + id +
+                        " is missing its start node, end node or type" );
+            }
+            return idType == IdType.STRING
+                    ? new InputRelationship( id, properties( properties ), null, startNode, endNode, type, null )
+                    : new InputRelationship( id, properties( properties ), null,
+                            Long.parseLong( startNode.trim() ), Long.parseLong( endNode.trim() ), type, null );
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.input.csv;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits chunks of CSV data into records and fields. A record is a non-empty line, where quoted values
+ * may contain delimiters, new lines and, doubled, quotation characters. Record boundaries are found using
+ * the same rules by {@link #endOfLastRecord(char[], int, CsvConfiguration)}, so that chunks can be cut on
+ * the reading side and parsed independently of each other.
+ */
+class CsvParser
+{
+    private int records;
+
+    /**
+     * Finds where the last complete record in {@code data} ends, i.e. right after the last new line
+     * not within quotes. The number of records up to that point is available in {@link #records()} afterwards.
+     *
+     * @return index after the last complete record, or {@code 0} if there's no complete record.
+     */
+    int endOfLastRecord( char[] data, int length, CsvConfiguration config )
+    {
+        char quote = config.quotationCharacter();
+        boolean quoted = false;
+        boolean lineHasContent = false;
+        int end = 0;
+        records = 0;
+        for ( int i = 0; i < length; i++ )
+        {
+            char c = data[i];
+            if ( c == quote )
+            {
+                quoted = !quoted;
+                lineHasContent = true;
+            }
+            else if ( !quoted && c == '\n' )
+            {
+                if ( lineHasContent )
+                {
+                    records++;
+                }
+                lineHasContent = false;
+                end = i + 1;
+            }
+            else if ( c != '\r' )
+            {
+                lineHasContent = true;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Counts the records of data which is known to end at a record boundary, e.g. at end of file.
+     */
+    int countRecords( char[] data, int length, CsvConfiguration config )
+    {
+        int end = endOfLastRecord( data, length, config );
+        for ( int i = end; i < length; i++ )
+        {
+            if ( data[i] != '\r' && data[i] != '\n' )
+            {
+                records++;
+                break;
+            }
+        }
+        return records;
+    }
+
+    int records()
+    {
+        return records;
+    }
+
+    static List<String[]> parse( String data, CsvConfiguration config )
+    {
+        char delimiter = config.delimiter();
+        char quote = config.quotationCharacter();
+        List<String[]> records = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean lineHasContent = false;
+        int length = data.length();
+        for ( int i = 0; i < length; i++ )
+        {
+            char c = data.charAt( i );
+            if ( quoted )
+            {
+                if ( c != quote )
+                {
+                    field.append( c );
+                }
+                else if ( i + 1 < length && data.charAt( i + 1 ) == quote )
+                {
+                    field.append( quote );
+                    i++;
+                }
+                else
+                {
+                    quoted = false;
+                }
+            }
+            else if ( c == quote )
+            {
+                quoted = true;
+                lineHasContent = true;
+            }
+            else if ( c == delimiter )
+            {
+                fields.add( field.toString() );
+                field.setLength( 0 );
+                lineHasContent = true;
+            }
+            else if ( c == '\n' )
+            {
+                if ( lineHasContent )
+                {
+                    fields.add( field.toString() );
+                    records.add( fields.toArray( new String[fields.size()] ) );
+                }
+                fields.clear();
+                field.setLength( 0 );
+                lineHasContent = false;
+            }
+            else if ( c != '\r' )
+            {
+                field.append( c );
+                lineHasContent = true;
+            }
+        }
+        if ( lineHasContent )
+        {
+            fields.add( field.toString() );
+            records.add( fields.toArray( new String[fields.size()] ) );
+        }
+        return records;
+    }
+
+    static String[] split( String value, char delimiter )
+    {
+        List<String> items = new ArrayList<>();
+        int start = 0;
+        for ( int i = 0; i < value.length(); i++ )
+        {
+            if ( value.charAt( i ) == delimiter )
+            {
+                items.add( value.substring( start, i ) );
+                start = i + 1;
+            }
+        }
+        items.add( value.substring( start ) );
+        return items.toArray( new String[items.size()] );
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.input.csv;
+
+import java.util.List;
+
+/**
+ * Header of a CSV file, i.e. its first line, declaring what each column contains. Each column is specified
+ * as {@code name:type} where type is one of the special {@link Type types} or a property type, optionally
+ * an array of it, e.g. {@code name}, {@code age:int}, {@code emails:string[]}, {@code :ID} or {@code :LABEL}.
+ * Columns without type are string properties.
+ */
+public class Header
+{
+    public enum Type
+    {
+        ID,
+        START_ID,
+        END_ID,
+        TYPE,
+        LABEL,
+        PROPERTY,
+        IGNORE
+    }
+
+    public static class Entry
+    {
+        private final String name;
+        private final Type type;
+        private final PropertyType propertyType;
+        private final boolean array;
+
+        Entry( String name, Type type, PropertyType propertyType, boolean array )
+        {
+            this.name = name;
+            this.type = type;
+            this.propertyType = propertyType;
+            this.array = array;
+        }
+
+        /**
+         * @return name of this column, or {@code null} if not named.
+         */
+        public String name()
+        {
+            return name;
+        }
+
+        public Type type()
+        {
+            return type;
+        }
+
+        Object parse( String value, char arrayDelimiter )
+        {
+            return array ? propertyType.parseArray( value, arrayDelimiter ) : propertyType.parse( value );
+        }
+
+        @Override
+        public String toString()
+        {
+            return (name != null ? name : "") + ":" + (type == Type.PROPERTY
+                    ? propertyType.name().toLowerCase() + (array ? "[]" : "")
+                    : type.name());
+        }
+    }
+
+    private final Entry[] entries;
+
+    Header( Entry[] entries )
+    {
+        this.entries = entries;
+    }
+
+    public Entry[] entries()
+    {
+        return entries;
+    }
+
+    public boolean has( Type type )
+    {
+        for ( Entry entry : entries )
+        {
+            if ( entry.type == type )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses a header line.
+     *
+     * @throws IllegalArgumentException if any of the columns have an unknown type.
+     */
+    public static Header parse( String line, CsvConfiguration config )
+    {
+        List<String[]> records = CsvParser.parse( line, config );
+        if ( records.isEmpty() )
+        {
+            throw new IllegalArgumentException( "Empty header" );
+        }
+        String[] columns = records.get( 0 );
+        Entry[] entries = new Entry[columns.length];
+        for ( int i = 0; i < columns.length; i++ )
+        {
+            entries[i] = parseEntry( columns[i].trim() );
+        }
+        return new Header( entries );
+    }
+
+    private static Entry parseEntry( String column )
+    {
+        int typeIndex = column.lastIndexOf( ':' );
+        String name = typeIndex == -1 ? column : column.substring( 0, typeIndex );
+        name = name.isEmpty() ? null : name;
+        if ( typeIndex == -1 )
+        {
+            return new Entry( name, Type.PROPERTY, PropertyType.STRING, false );
+        }
+
+        String typeSpec = column.substring( typeIndex + 1 );
+        for ( Type type : Type.values() )
+        {
+            if ( type != Type.PROPERTY && type.name().equalsIgnoreCase( typeSpec ) )
+            {
+                return new Entry( name, type, PropertyType.STRING, false );
+            }
+        }
+
+        boolean array = typeSpec.endsWith( "[]" );
+        PropertyType propertyType = PropertyType.forName(
+                array ? typeSpec.substring( 0, typeSpec.length() - 2 ) : typeSpec );
+        if ( propertyType == null || name == null )
+        {
+            throw new IllegalArgumentException( "Invalid header column '" + column + "'" );
+        }
+        return new Entry( name, Type.PROPERTY, propertyType, array );
+    }
+}
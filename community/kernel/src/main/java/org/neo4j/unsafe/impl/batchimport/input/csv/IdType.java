@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.input.csv;
+
+import org.neo4j.unsafe.impl.batchimport.cache.IdMapper;
+import org.neo4j.unsafe.impl.batchimport.cache.IdMappers;
+
+/**
+ * How the values of id columns, i.e. {@link Header.Type#ID}, {@link Header.Type#START_ID} and
+ * {@link Header.Type#END_ID}, are interpreted.
+ */
+public enum IdType
+{
+    /**
+     * Ids are arbitrary strings, mapped to node ids during import.
+     */
+    STRING
+    {
+        @Override
+        public IdMapper idMapper()
+        {
+            return IdMappers.strings();
+        }
+    },
+    /**
+     * Ids are arbitrary, possibly sparse, long values, mapped to node ids during import.
+     */
+    INTEGER
+    {
+        @Override
+        public IdMapper idMapper()
+        {
+            return IdMappers.longs();
+        }
+    },
+    /**
+     * Ids are the actual node ids to use, which must be in ascending order starting at 0.
+     */
+    ACTUAL
+    {
+        @Override
+        public IdMapper idMapper()
+        {
+            return IdMappers.actualIds();
+        }
+    };
+
+    public abstract IdMapper idMapper();
+}
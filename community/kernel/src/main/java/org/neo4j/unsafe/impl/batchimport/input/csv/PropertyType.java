@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.input.csv;
+
+import java.lang.reflect.Array;
+
+/**
+ * Types of property values that can be declared in a {@link Header}, e.g. {@code age:int} or
+ * {@code emails:string[]}.
+ */
+enum PropertyType
+{
+    STRING( String.class )
+    {
+        @Override
+        Object parse( String value )
+        {
+            return value;
+        }
+    },
+    INT( int.class )
+    {
+        @Override
+        Object parse( String value )
+        {
+            return Integer.valueOf( value.trim() );
+        }
+    },
+    LONG( long.class )
+    {
+        @Override
+        Object parse( String value )
+        {
+            return Long.valueOf( value.trim() );
+        }
+    },
+    FLOAT( float.class )
+    {
+        @Override
+        Object parse( String value )
+        {
+            return Float.valueOf( value.trim() );
+        }
+    },
+    DOUBLE( double.class )
+    {
+        @Override
+        Object parse( String value )
+        {
+            return Double.valueOf( value.trim() );
+        }
+    },
+    BOOLEAN( boolean.class )
+    {
+        @Override
+        Object parse( String value )
+        {
+            return Boolean.valueOf( value.trim() );
+        }
+    },
+    BYTE( byte.class )
+    {
+        @Override
+        Object parse( String value )
+        {
+            return Byte.valueOf( value.trim() );
+        }
+    },
+    SHORT( short.class )
+    {
+        @Override
+        Object parse( String value )
+        {
+            return Short.valueOf( value.trim() );
+        }
+    },
+    CHAR( char.class )
+    {
+        @Override
+        Object parse( String value )
+        {
+            if ( value.length() != 1 )
+            {
+                throw new IllegalArgumentException( "'" + value + "' is not a single character" );
+            }
+            return Character.valueOf( value.charAt( 0 ) );
+        }
+    };
+
+    private final Class<?> componentType;
+
+    private PropertyType( Class<?> componentType )
+    {
+        this.componentType = componentType;
+    }
+
+    abstract Object parse( String value );
+
+    Object parseArray( String value, char delimiter )
+    {
+        String[] items = CsvParser.split( value, delimiter );
+        Object array = Array.newInstance( componentType, items.length );
+        for ( int i = 0; i < items.length; i++ )
+        {
+            Array.set( array, i, parse( items[i] ) );
+        }
+        return array;
+    }
+
+    static PropertyType forName( String name )
+    {
+        for ( PropertyType type : values() )
+        {
+            if ( type.name().equalsIgnoreCase( name ) )
+            {
+                return type;
+            }
+        }
+        return null;
+    }
+}
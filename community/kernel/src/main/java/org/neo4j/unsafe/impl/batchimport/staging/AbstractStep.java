@@ -60,6 +60,18 @@ public abstract class AbstractStep<T> implements Step<T>
         return name;
     }
 
+    @Override
+    public int numberOfProcessors()
+    {
+        return 1;
+    }
+
+    @Override
+    public boolean incrementNumberOfProcessors()
+    {
+        return false;
+    }
+
     @Override
     public void receivePanic( Throwable cause )
     {
@@ -179,7 +191,7 @@ public abstract class AbstractStep<T> implements Step<T>
         checkNotifyEndDownstream();
     }
 
-    protected void checkNotifyEndDownstream()
+    protected synchronized void checkNotifyEndDownstream()
     {
         if ( !stillWorking() && !isCompleted() )
         {
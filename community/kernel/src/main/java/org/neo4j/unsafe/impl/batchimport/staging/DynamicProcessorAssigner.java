@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.staging;
+
+import org.neo4j.unsafe.impl.batchimport.Configuration;
+import org.neo4j.unsafe.impl.batchimport.stats.Keys;
+import org.neo4j.unsafe.impl.batchimport.stats.StepStats;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Monitors the {@link StepStats stats} of the steps in executing stages and assigns more processors to the
+ * bottleneck step, i.e. the step with the highest average processing time per batch, divided by its current
+ * number of processors. One processor is added per poll, which gives the stats time to reflect the change
+ * before the next decision.
+ */
+public class DynamicProcessorAssigner extends PollingExecutionMonitor
+{
+    private final int availableProcessors;
+
+    public DynamicProcessorAssigner( Configuration config )
+    {
+        super( SECONDS.toMillis( 1 ) );
+        this.availableProcessors = config.maxNumberOfProcessors();
+    }
+
+    @Override
+    protected void poll( StageExecution[] executions )
+    {
+        int processorsInUse = 0;
+        for ( StageExecution execution : executions )
+        {
+            for ( Step<?> step : execution.steps() )
+            {
+                processorsInUse += step.numberOfProcessors();
+            }
+        }
+        if ( processorsInUse >= availableProcessors )
+        {
+            return;
+        }
+
+        for ( StageExecution execution : executions )
+        {
+            Step<?> bottleneck = bottleneck( execution );
+            if ( bottleneck != null )
+            {
+                bottleneck.incrementNumberOfProcessors();
+            }
+        }
+    }
+
+    private Step<?> bottleneck( StageExecution execution )
+    {
+        Step<?> bottleneck = null;
+        long highestCost = 0;
+        for ( Step<?> step : execution.steps() )
+        {
+            StepStats stats = step.stats();
+            if ( !stats.stillWorking() )
+            {
+                continue;
+            }
+
+            long cost = stats.stat( Keys.avg_processing_time ).asLong() / step.numberOfProcessors();
+            if ( cost > highestCost )
+            {
+                highestCost = cost;
+                bottleneck = step;
+            }
+        }
+        return bottleneck;
+    }
+
+    @Override
+    public void done( long totalTimeMillis )
+    {   // Nothing to do
+    }
+}
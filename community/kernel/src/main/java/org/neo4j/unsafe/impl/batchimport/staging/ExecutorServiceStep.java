@@ -20,33 +20,50 @@
 package org.neo4j.unsafe.impl.batchimport.staging;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.helpers.NamedThreadFactory;
 
 import static java.lang.System.currentTimeMillis;
-import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * {@link Step} that uses {@link ExecutorService} as a queue and execution mechanism.
- * Supports an arbitrary number of threads to execute batches.
+ * Supports an arbitrary number of threads to execute batches, a number which can be
+ * {@link #incrementNumberOfProcessors() increased} while executing, up to a max. Batches processed
+ * concurrently are still sent downstream in the order they were received.
  */
 public abstract class ExecutorServiceStep<T> extends AbstractStep<T>
 {
-    private final ExecutorService executor;
+    private final ThreadPoolExecutor executor;
     private final int workAheadSize;
+    private final int maxProcessors;
+    private volatile int numberOfProcessors;
 
     // Stats
     private final AtomicLong lastBatchEndTime = new AtomicLong();
 
     protected ExecutorServiceStep( StageControl control, String name, int workAheadSize, int numberOfExecutors )
+    {
+        this( control, name, workAheadSize, numberOfExecutors, numberOfExecutors );
+    }
+
+    /**
+     * @param numberOfExecutors initial number of threads processing batches.
+     * @param maxProcessors max number of threads processing batches, after {@link #incrementNumberOfProcessors()}.
+     * Only steps able to {@link #process(long, Object) process} batches concurrently should specify more than 1.
+     */
+    protected ExecutorServiceStep( StageControl control, String name, int workAheadSize, int numberOfExecutors,
+            int maxProcessors )
     {
         super( control, name );
         this.workAheadSize = workAheadSize;
-        NamedThreadFactory threadFactory = new NamedThreadFactory( name );
-        this.executor = numberOfExecutors == 1 ? newSingleThreadExecutor( threadFactory ) :
-            Executors.newFixedThreadPool( numberOfExecutors, threadFactory );
+        this.numberOfProcessors = numberOfExecutors;
+        this.maxProcessors = Math.max( numberOfExecutors, maxProcessors );
+        this.executor = new ThreadPoolExecutor( numberOfExecutors, numberOfExecutors, 0, MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory( name ) );
     }
 
     @Override
@@ -70,8 +87,11 @@ public abstract class ExecutorServiceStep<T> extends AbstractStep<T>
                     Object result = process( ticket, batch );
                     endProcessingTimer( startTime );
 
-                    doneBatches.incrementAndGet();
+                    // Batches may have been processed out of order, but are sent downstream in order
+                    awaitTurnToSendDownstream( ticket );
                     sendDownstream( ticket, result );
+                    doneBatches.incrementAndGet();
+                    checkNotifyEndDownstream();
                 }
                 catch ( Throwable e )
                 {
@@ -84,6 +104,35 @@ public abstract class ExecutorServiceStep<T> extends AbstractStep<T>
         return idleTime;
     }
 
+    private void awaitTurnToSendDownstream( long ticket )
+    {
+        while ( doneBatches.get() != ticket-1 )
+        {
+            assertHealthy();
+            waitSome();
+        }
+    }
+
+    @Override
+    public int numberOfProcessors()
+    {
+        return numberOfProcessors;
+    }
+
+    @Override
+    public synchronized boolean incrementNumberOfProcessors()
+    {
+        if ( numberOfProcessors >= maxProcessors )
+        {
+            return false;
+        }
+
+        numberOfProcessors++;
+        executor.setMaximumPoolSize( numberOfProcessors );
+        executor.setCorePoolSize( numberOfProcessors );
+        return true;
+    }
+
     private long startProcessingTimer()
     {
         long startTime = currentTimeMillis();
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.staging;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ExecutionMonitor} which lets multiple monitors monitor the same executions. The first monitor
+ * runs in the calling thread, the others in threads of their own.
+ */
+public class MultiExecutionMonitor implements ExecutionMonitor
+{
+    private final ExecutionMonitor[] monitors;
+
+    public MultiExecutionMonitor( ExecutionMonitor... monitors )
+    {
+        this.monitors = monitors;
+    }
+
+    @Override
+    public void monitor( final StageExecution... executions )
+    {
+        List<Thread> threads = new ArrayList<>();
+        for ( int i = 1; i < monitors.length; i++ )
+        {
+            final ExecutionMonitor monitor = monitors[i];
+            Thread thread = new Thread( monitor.getClass().getSimpleName() )
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        monitor.monitor( executions );
+                    }
+                    catch ( RuntimeException e )
+                    {   // A panic in any of the executions, which the first monitor will surface
+                    }
+                }
+            };
+            thread.setDaemon( true );
+            thread.start();
+            threads.add( thread );
+        }
+
+        try
+        {
+            monitors[0].monitor( executions );
+        }
+        finally
+        {
+            for ( Thread thread : threads )
+            {
+                try
+                {
+                    thread.join();
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void done( long totalTimeMillis )
+    {
+        for ( ExecutionMonitor monitor : monitors )
+        {
+            monitor.done( totalTimeMillis );
+        }
+    }
+}
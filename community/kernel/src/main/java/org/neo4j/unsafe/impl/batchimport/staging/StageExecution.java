@@ -84,6 +84,11 @@ public class StageExecution implements StageControl
         return config;
     }
 
+    public Iterable<Step<?>> steps()
+    {
+        return pipeline;
+    }
+
     public Iterable<StepStats> stats()
     {
         return new IterableWrapper<StepStats, Step<?>>( pipeline )
@@ -69,6 +69,19 @@ public interface Step<T>
      */
     void setDownstream( Step<?> downstreamStep );
 
+    /**
+     * @return number of threads currently processing batches in this step.
+     */
+    int numberOfProcessors();
+
+    /**
+     * Adds one more thread processing batches in this step, if the step supports processing batches
+     * concurrently and hasn't reached its max number of processors.
+     *
+     * @return {@code true} if a processor was added, otherwise {@code false}.
+     */
+    boolean incrementNumberOfProcessors();
+
     /**
      * Receives a panic, asking to shut down as soon as possible.
      * @param cause cause for the panic.
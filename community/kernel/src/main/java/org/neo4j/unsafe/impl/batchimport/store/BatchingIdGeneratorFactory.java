@@ -22,6 +22,7 @@ package org.neo4j.unsafe.impl.batchimport.store;
 import java.io.File;
 import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.kernel.IdGeneratorFactory;
 import org.neo4j.kernel.IdType;
@@ -63,7 +64,7 @@ public class BatchingIdGeneratorFactory implements IdGeneratorFactory
 
     private static class BatchingIdGenerator implements IdGenerator
     {
-        private long highId;
+        private final AtomicLong highId;
         private final FileSystemAbstraction fs;
         private final File fileName;
 
@@ -71,20 +72,14 @@ public class BatchingIdGeneratorFactory implements IdGeneratorFactory
         {
             this.fs = fs;
             this.fileName = fileName;
-            this.highId = highId;
+            this.highId = new AtomicLong( highId );
         }
 
         @Override
         public long nextId()
         {
-            try
-            {
-                return highId;
-            }
-            finally
-            {
-                highId++;
-            }
+            // Encoder steps may allocate ids concurrently
+            return highId.getAndIncrement();
         }
 
         @Override
@@ -96,13 +91,13 @@ public class BatchingIdGeneratorFactory implements IdGeneratorFactory
         @Override
         public void setHighId( long id )
         {
-            highId = id;
+            highId.set( id );
         }
 
         @Override
         public long getHighId()
         {
-            return highId;
+            return highId.get();
         }
 
         @Override
@@ -115,13 +110,13 @@ public class BatchingIdGeneratorFactory implements IdGeneratorFactory
         public void close()
         {
             fs.deleteFile( fileName );
-            createGenerator( fs, fileName, highId );
+            createGenerator( fs, fileName, highId.get() );
         }
 
         @Override
         public long getNumberOfIdsInUse()
         {
-            return highId;
+            return highId.get();
         }
 
         @Override
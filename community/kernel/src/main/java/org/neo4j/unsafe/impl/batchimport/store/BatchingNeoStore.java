@@ -21,19 +21,29 @@ package org.neo4j.unsafe.impl.batchimport.store;
 
 import java.io.File;
 
+import org.neo4j.graphdb.DependencyResolver;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.extension.KernelExtensionFactory;
+import org.neo4j.kernel.extension.KernelExtensions;
+import org.neo4j.kernel.extension.UnsatisfiedDependencyStrategies;
+import org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider;
 import org.neo4j.kernel.impl.nioneo.store.NeoStore;
 import org.neo4j.kernel.impl.nioneo.store.NodeStore;
 import org.neo4j.kernel.impl.nioneo.store.PropertyStore;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipStore;
 import org.neo4j.kernel.impl.nioneo.store.StoreFactory;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsAccumulator;
+import org.neo4j.kernel.impl.nioneo.xa.NeoStoreProvider;
 import org.neo4j.kernel.impl.util.StringLogger;
+import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.kernel.logging.Logging;
 import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.unsafe.batchinsert.LabelScanWriter;
 import org.neo4j.unsafe.impl.batchimport.Configuration;
 import org.neo4j.unsafe.impl.batchimport.store.BatchingPageCache.WriterFactory;
 import org.neo4j.unsafe.impl.batchimport.store.BatchingTokenRepository.BatchingLabelTokenRepository;
@@ -52,10 +62,13 @@ import static org.neo4j.unsafe.impl.batchimport.store.BatchingPageCache.Mode.UPD
 /**
  * Creator and accessor of {@link NeoStore} with some logic to provide very batch friendly services to the
  * {@link NeoStore} when instantiating it. Different services for specific purposes.
+ * Also provides the {@link LabelScanStore} of the highest prioritized {@link LabelScanStoreProvider} found among
+ * the kernel extensions, if any, so that it can be populated during import.
  */
 public class BatchingNeoStore implements AutoCloseable
 {
     private final FileSystemAbstraction fileSystem;
+    private final Logging logging;
     private final Monitors monitors;
     private final BatchingPropertyKeyTokenRepository propertyKeyRepository;
     private final BatchingLabelTokenRepository labelRepository;
@@ -65,12 +78,16 @@ public class BatchingNeoStore implements AutoCloseable
     private final BatchingPageCache pageCacheFactory;
     private final NeoStore neoStore;
     private final WriterFactory writerFactory;
+    private final LifeSupport life = new LifeSupport();
+    private final LabelScanStore labelScanStore;
 
     public BatchingNeoStore( FileSystemAbstraction fileSystem, String storeDir,
                              Configuration config, Monitor writeMonitor, Logging logging,
-                             Monitors monitors, WriterFactory writerFactory )
+                             Monitors monitors, WriterFactory writerFactory,
+                             Iterable<KernelExtensionFactory<?>> kernelExtensions )
     {
         this.fileSystem = fileSystem;
+        this.logging = logging;
         this.monitors = monitors;
         this.writerFactory = writerFactory;
         this.logger = logging.getMessagesLog( getClass() );
@@ -86,6 +103,24 @@ public class BatchingNeoStore implements AutoCloseable
         this.labelRepository = new BatchingLabelTokenRepository( neoStore.getLabelTokenStore() );
         this.relationshipTypeRepository =
                 new BatchingRelationshipTypeTokenRepository( neoStore.getRelationshipTypeTokenStore() );
+        this.labelScanStore = startLabelScanStore( kernelExtensions );
+    }
+
+    private LabelScanStore startLabelScanStore( Iterable<KernelExtensionFactory<?>> kernelExtensions )
+    {
+        KernelExtensions extensions = life.add( new KernelExtensions( kernelExtensions, neo4jConfig,
+                new DependencyResolverImpl(), UnsatisfiedDependencyStrategies.ignore() ) );
+        life.start();
+        try
+        {
+            return life.add( extensions.resolveDependency( LabelScanStoreProvider.class,
+                    LabelScanStoreProvider.HIGHEST_PRIORITIZED ).getLabelScanStore() );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            logger.info( "No label scan store available, it will be rebuilt when the database starts" );
+            return null;
+        }
     }
 
     private NeoStore newNeoStore( PageCache pageCache )
@@ -130,6 +165,24 @@ public class BatchingNeoStore implements AutoCloseable
         return neoStore.getRelationshipGroupStore();
     }
 
+    /**
+     * @return a writer for the {@link LabelScanStore}, or {@link LabelScanWriter#EMPTY} if there's none.
+     * Updates must be written in ascending node id order.
+     */
+    public LabelScanWriter newLabelScanWriter()
+    {
+        return labelScanStore != null ? labelScanStore.newWriter() : LabelScanWriter.EMPTY;
+    }
+
+    /**
+     * Sets the counts of the store to the given counts, computed during import, so that they don't need to
+     * be rebuilt when the database starts.
+     */
+    public void setCounts( CountsAccumulator counts )
+    {
+        neoStore.getCountsStore().rebuild( counts.changes(), neoStore.getLastCommittedTransactionId() );
+    }
+
     public void switchToUpdateMode()
     {
         pageCacheFactory.setMode( UPDATE );
@@ -147,7 +200,40 @@ public class BatchingNeoStore implements AutoCloseable
         // Await those to be written
         writerFactory.awaitEverythingWritten();
 
-        // Close the neo store
+        // Close the label scan store and the neo store
+        life.shutdown();
         neoStore.close();
     }
+
+    private class DependencyResolverImpl extends DependencyResolver.Adapter
+    {
+        @Override
+        public <T> T resolveDependency( Class<T> type, SelectionStrategy selector ) throws IllegalArgumentException
+        {
+            if ( type.isInstance( fileSystem ) )
+            {
+                return type.cast( fileSystem );
+            }
+            if ( type.isInstance( neo4jConfig ) )
+            {
+                return type.cast( neo4jConfig );
+            }
+            if ( type.isInstance( logging ) )
+            {
+                return type.cast( logging );
+            }
+            if ( NeoStoreProvider.class.isAssignableFrom( type ) )
+            {
+                return type.cast( new NeoStoreProvider()
+                {
+                    @Override
+                    public NeoStore evaluate()
+                    {
+                        return neoStore;
+                    }
+                } );
+            }
+            throw new IllegalArgumentException( "Unknown dependency " + type );
+        }
+    }
 }
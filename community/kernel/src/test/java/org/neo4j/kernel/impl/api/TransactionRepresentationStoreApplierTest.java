@@ -20,7 +20,9 @@
 package org.neo4j.kernel.impl.api;
 
 import java.io.IOException;
+import java.util.Arrays;
 
+import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Matchers;
 
@@ -31,12 +33,16 @@ import org.neo4j.kernel.impl.core.CacheAccessBackDoor;
 import org.neo4j.kernel.impl.index.IndexConfigStore;
 import org.neo4j.kernel.impl.locking.LockService;
 import org.neo4j.kernel.impl.nioneo.store.NeoStore;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsStore;
 import org.neo4j.kernel.impl.nioneo.xa.command.Command;
+import org.neo4j.kernel.impl.transaction.xaframework.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.xaframework.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.xaframework.log.entry.OnePhaseCommit;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class TransactionRepresentationStoreApplierTest
 {
@@ -53,6 +59,12 @@ public class TransactionRepresentationStoreApplierTest
 
     private final int transactionId = 12;
 
+    @Before
+    public void setup()
+    {
+        when( neoStore.getCountsStore() ).thenReturn( mock( CountsStore.class ) );
+    }
+
     @Test
     public void transactionRepresentationShouldAcceptApplierVisitor() throws IOException
     {
@@ -79,4 +91,23 @@ public class TransactionRepresentationStoreApplierTest
         verify( transaction, times( 1 ) ).accept( Matchers.<Visitor<Command, IOException>>any() );
         verify( neoStore, times( 1 ) ).updateIdGenerators();
     }
+
+    @Test
+    public void shouldApplyEachTransactionInBatch() throws IOException
+    {
+        TransactionRepresentationStoreApplier applier = new TransactionRepresentationStoreApplier( indexService,
+                labelScanStore, neoStore, cacheAccess, lockService, legacyIndexProviderLookup, indexConfigStore );
+
+        TransactionRepresentation first = mock( TransactionRepresentation.class );
+        TransactionRepresentation second = mock( TransactionRepresentation.class );
+
+        applier.apply( Arrays.asList(
+                new CommittedTransactionRepresentation( null, first, new OnePhaseCommit( transactionId, 0 ) ),
+                new CommittedTransactionRepresentation( null, second, new OnePhaseCommit( transactionId + 1, 0 ) ) ),
+                true );
+
+        verify( first, times( 1 ) ).accept( Matchers.<Visitor<Command, IOException>>any() );
+        verify( second, times( 1 ) ).accept( Matchers.<Visitor<Command, IOException>>any() );
+        verify( neoStore, times( 2 ) ).updateIdGenerators();
+    }
 }
@@ -31,6 +31,8 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import org.neo4j.graphdb.DynamicLabel;
 import org.neo4j.graphdb.Label;
@@ -47,6 +49,7 @@ import org.neo4j.kernel.api.index.IndexPopulator;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.InternalIndexState;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
+import org.neo4j.kernel.api.index.ParallelIndexPopulator;
 import org.neo4j.kernel.api.index.PreexistingIndexEntryConflictException;
 import org.neo4j.kernel.api.index.PropertyAccessor;
 import org.neo4j.kernel.impl.api.KernelSchemaStateStore;
@@ -54,6 +57,7 @@ import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
 import org.neo4j.kernel.impl.locking.LockService;
 import org.neo4j.kernel.impl.nioneo.xa.NeoStoreIndexStoreView;
 import org.neo4j.kernel.impl.nioneo.xa.NeoStoreProvider;
+import org.neo4j.kernel.impl.util.Neo4jJobScheduler;
 import org.neo4j.kernel.impl.util.StringLogger;
 import org.neo4j.kernel.impl.util.TestLogger;
 import org.neo4j.kernel.logging.SingleLoggingService;
@@ -68,14 +72,17 @@ import static java.lang.String.format;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.RETURNS_MOCKS;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import static org.neo4j.helpers.collection.IteratorUtil.asSet;
@@ -110,6 +117,122 @@ public class IndexPopulationJobTest
         verifyNoMoreInteractions( populator );
     }
 
+    @Test
+    public void shouldPopulateMultipleIndexesInOneScan() throws Exception
+    {
+        // GIVEN
+        String value = "Mattias";
+        long node1 = createNode( map( name, value ), FIRST );
+        long node2 = createNode( map( name, value, age, 31 ), SECOND );
+        long node3 = createNode( map( age, 35, name, value ), FIRST );
+        IndexPopulator secondPopulator = mock( IndexPopulator.class );
+        IndexPopulator agePopulator = mock( IndexPopulator.class );
+        IndexPopulationJob job = newIndexPopulationJob( FIRST, name, populator, new FlippableIndexProxy() );
+        addPopulation( job, SECOND, name, secondPopulator );
+        addPopulation( job, FIRST, age, agePopulator );
+
+        // WHEN
+        job.run();
+
+        // THEN
+        verify( populator ).create();
+        verify( populator ).add( node1, value );
+        verify( populator ).add( node3, value );
+        verify( populator ).verifyDeferredConstraints( indexStoreView );
+        verify( populator ).close( true );
+        verifyNoMoreInteractions( populator );
+
+        verify( secondPopulator ).create();
+        verify( secondPopulator ).add( node2, value );
+        verify( secondPopulator ).verifyDeferredConstraints( indexStoreView );
+        verify( secondPopulator ).close( true );
+        verifyNoMoreInteractions( secondPopulator );
+
+        verify( agePopulator ).create();
+        verify( agePopulator ).add( node3, 35 );
+        verify( agePopulator ).verifyDeferredConstraints( indexStoreView );
+        verify( agePopulator ).close( true );
+        verifyNoMoreInteractions( agePopulator );
+    }
+
+    @Test
+    public void shouldNotAddPopulationsOnceStarted() throws Exception
+    {
+        // GIVEN
+        createNode( map( name, "Mattias", age, 31 ), FIRST );
+        IndexPopulator latePopulator = mock( IndexPopulator.class );
+        IndexPopulationJob job = newIndexPopulationJob( FIRST, name, populator, new FlippableIndexProxy() );
+        job.run();
+
+        // WHEN
+        IndexPopulationJob.IndexPopulation population = addPopulation( job, FIRST, age, latePopulator );
+
+        // THEN
+        assertNull( population );
+        verifyZeroInteractions( latePopulator );
+    }
+
+    @Test
+    public void shouldKeepPopulatingOtherIndexesWhenOneOfThemFails() throws Exception
+    {
+        // GIVEN
+        String value = "Mattias";
+        long node1 = createNode( map( name, value, age, 31 ), FIRST );
+        long node2 = createNode( map( name, value, age, 35 ), FIRST );
+        IndexPopulator failingPopulator = mock( IndexPopulator.class );
+        doThrow( new IllegalStateException( "not able to populate" ) ).when( failingPopulator ).add( node1, 31 );
+        FlippableIndexProxy failingIndex = new FlippableIndexProxy();
+        IndexPopulationJob job = newIndexPopulationJob( FIRST, name, populator, new FlippableIndexProxy() );
+        addPopulation( job, FIRST, age, failingPopulator, failingIndex );
+
+        // WHEN
+        job.run();
+
+        // THEN
+        verify( populator ).add( node1, value );
+        verify( populator ).add( node2, value );
+        verify( populator ).close( true );
+        verify( failingPopulator, never() ).add( node2, 35 );
+        verify( failingPopulator ).close( false );
+        assertThat( failingIndex.getState(), equalTo( InternalIndexState.FAILED ) );
+    }
+
+    @Test
+    public void shouldSplitStoreScanIntoPartitionsForParallelPopulators() throws Exception
+    {
+        // GIVEN
+        createNode( map( name, "Mattias" ), FIRST );
+        long highId = 2 * IndexPopulationJob.MIN_NODES_PER_PARTITION;
+        IndexStoreView storeView = mock( IndexStoreView.class );
+        when( storeView.nodeHighId() ).thenReturn( highId );
+        when( storeView.visitNodesInRange( any( int[].class ), any( int[].class ), anyLong(), anyLong(),
+                Matchers.<Visitor<NodePropertyUpdate, RuntimeException>>any() ) ).thenAnswer( new RangeScan() );
+        ParallelIndexPopulator parallelPopulator = mock( ParallelIndexPopulator.class );
+        Neo4jJobScheduler scheduler = new Neo4jJobScheduler();
+        scheduler.init();
+        IndexPopulationJob job = new IndexPopulationJob( storeView, stateHolder, scheduler, 4,
+                new SingleLoggingService( StringLogger.DEV_NULL ) );
+        addPopulation( job, FIRST, name, parallelPopulator );
+
+        // WHEN
+        try
+        {
+            job.run();
+        }
+        finally
+        {
+            scheduler.shutdown();
+        }
+
+        // THEN
+        verify( parallelPopulator ).create();
+        verify( parallelPopulator ).add( 0, "from 0" );
+        verify( parallelPopulator ).add( highId / 2, "from " + highId / 2 );
+        verify( parallelPopulator ).verifyDeferredConstraints( storeView );
+        verify( parallelPopulator ).close( true );
+        verifyNoMoreInteractions( parallelPopulator );
+    }
+
     @Test
     public void shouldFlushSchemaStateAfterPopulation() throws Exception
     {
@@ -377,6 +500,37 @@ public class IndexPopulationJobTest
         }
     }
 
+    /**
+     * Feeds one update per range, for the first node in it.
+     */
+    private static class RangeScan implements Answer<StoreScan<RuntimeException>>
+    {
+        @Override
+        public StoreScan<RuntimeException> answer( InvocationOnMock invocation ) throws Throwable
+        {
+            final long fromNodeId = (Long) invocation.getArguments()[2];
+            final int propertyKeyId = ((int[]) invocation.getArguments()[1])[0];
+            final long labelId = ((int[]) invocation.getArguments()[0])[0];
+            @SuppressWarnings( "unchecked" )
+            final Visitor<NodePropertyUpdate, RuntimeException> visitor =
+                    (Visitor<NodePropertyUpdate, RuntimeException>) invocation.getArguments()[4];
+            return new StoreScan<RuntimeException>()
+            {
+                @Override
+                public void run()
+                {
+                    visitor.visit( NodePropertyUpdate.add( fromNodeId, propertyKeyId, "from " + fromNodeId,
+                            new long[]{labelId} ) );
+                }
+
+                @Override
+                public void stop()
+                {
+                }
+            };
+        }
+    }
+
     private class NodeChangingWriter extends IndexPopulator.Adapter
     {
         private final Set<Pair<Long, Object>> added = new HashSet<>();
@@ -577,24 +731,42 @@ public class IndexPopulationJobTest
                                                       FlippableIndexProxy flipper, IndexStoreView storeView,
                                                       StringLogger logger )
     {
-        IndexDescriptor descriptor;
-        try ( Transaction tx = db.beginTx() )
-        {
-            ReadOperations statement = ctxProvider.instance().readOperations();
-            descriptor = new IndexDescriptor( statement.labelGetForName( label.name() ),
-                    statement.propertyKeyGetForName( propertyKey ) );
-            tx.success();
-        }
-
         flipper.setFlipTarget( mock( IndexProxyFactory.class ) );
         return new IndexPopulationJob(
-                descriptor, PROVIDER_DESCRIPTOR,
+                indexDescriptor( label, propertyKey ), PROVIDER_DESCRIPTOR,
                 format( ":%s(%s)", label.name(), propertyKey ),
                 failureDelegateFactory,
                 populator, flipper, storeView,
                 stateHolder, new SingleLoggingService( logger ) );
     }
 
+    private IndexPopulationJob.IndexPopulation addPopulation( IndexPopulationJob job, Label label, String propertyKey,
+                                                              IndexPopulator populator )
+    {
+        return addPopulation( job, label, propertyKey, populator, new FlippableIndexProxy() );
+    }
+
+    private IndexPopulationJob.IndexPopulation addPopulation( IndexPopulationJob job, Label label, String propertyKey,
+                                                              IndexPopulator populator, FlippableIndexProxy flipper )
+    {
+        flipper.setFlipTarget( mock( IndexProxyFactory.class ) );
+        return job.addPopulation( indexDescriptor( label, propertyKey ), PROVIDER_DESCRIPTOR,
+                format( ":%s(%s)", label.name(), propertyKey ), mock( FailedIndexProxyFactory.class ),
+                populator, flipper );
+    }
+
+    private IndexDescriptor indexDescriptor( Label label, String propertyKey )
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            ReadOperations statement = ctxProvider.instance().readOperations();
+            IndexDescriptor descriptor = new IndexDescriptor( statement.labelGetForName( label.name() ),
+                    statement.propertyKeyGetForName( propertyKey ) );
+            tx.success();
+            return descriptor;
+        }
+    }
+
     private long createNode( Map<String, Object> properties, Label... labels )
     {
         try ( Transaction tx = db.beginTx() )
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
+import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexReader;
+import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.impl.util.StringLogger;
+
+import static java.util.Arrays.asList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static org.neo4j.kernel.api.index.InternalIndexState.ONLINE;
+import static org.neo4j.kernel.api.index.InternalIndexState.POPULATING;
+
+public class IndexSamplingControllerTest
+{
+    private final IndexDescriptor descriptor = new IndexDescriptor( 1, 2 );
+    private final IndexSamplingController controller =
+            new IndexSamplingController( true, 10, StringLogger.DEV_NULL );
+    private IndexProxy index;
+    private IndexReader reader;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        index = mock( IndexProxy.class );
+        reader = mock( IndexReader.class );
+        when( index.getDescriptor() ).thenReturn( descriptor );
+        when( index.getState() ).thenReturn( ONLINE );
+        when( index.newReader() ).thenReturn( reader );
+    }
+
+    @Test
+    public void shouldSampleOnlineIndexWithoutSample() throws Exception
+    {
+        // given
+        IndexSample sample = new IndexSample( 100, 10, 100 );
+        when( reader.sampleIndex() ).thenReturn( sample );
+
+        // when
+        controller.sampleIndexes( asList( index ), false );
+
+        // then
+        assertEquals( sample, controller.sample( descriptor ) );
+        verify( reader ).close();
+    }
+
+    @Test
+    public void shouldNotSampleIndexThatIsNotOnline() throws Exception
+    {
+        // given
+        when( index.getState() ).thenReturn( POPULATING );
+
+        // when
+        controller.sampleIndexes( asList( index ), true );
+
+        // then
+        assertNull( controller.sample( descriptor ) );
+        verify( index, never() ).newReader();
+    }
+
+    @Test
+    public void shouldResampleOnlyWhenEnoughOfTheIndexHasBeenUpdated() throws Exception
+    {
+        // given
+        IndexSample first = new IndexSample( 100, 10, 100 ), second = new IndexSample( 110, 20, 110 );
+        when( reader.sampleIndex() ).thenReturn( first, second );
+        controller.sampleIndexes( asList( index ), false );
+
+        // when
+        updates( 9 );
+        controller.sampleIndexes( asList( index ), false );
+
+        // then
+        assertEquals( first, controller.sample( descriptor ) );
+        assertEquals( 9, controller.updatesSinceSample( descriptor ) );
+
+        // when
+        updates( 1 );
+        controller.sampleIndexes( asList( index ), false );
+
+        // then
+        assertEquals( second, controller.sample( descriptor ) );
+        assertEquals( 0, controller.updatesSinceSample( descriptor ) );
+    }
+
+    @Test
+    public void shouldForgetSampleOfDroppedIndex() throws Exception
+    {
+        // given
+        when( reader.sampleIndex() ).thenReturn( new IndexSample( 1, 1, 1 ) );
+        controller.sampleIndexes( asList( index ), true );
+        updates( 3 );
+
+        // when
+        controller.forget( descriptor );
+
+        // then
+        assertNull( controller.sample( descriptor ) );
+        assertEquals( 0, controller.updatesSinceSample( descriptor ) );
+    }
+
+    @Test
+    public void shouldIgnoreUpdatesOfForgottenIndex() throws Exception
+    {
+        // given
+        when( reader.sampleIndex() ).thenReturn( new IndexSample( 1, 1, 1 ) );
+        controller.sampleIndexes( asList( index ), true );
+        controller.forget( descriptor );
+
+        // when
+        updates( 3 );
+
+        // then
+        assertEquals( 0, controller.updatesSinceSample( descriptor ) );
+    }
+
+    @Test
+    public void shouldNotCountUpdatesOfIndexThatFailedToBeSampled() throws Exception
+    {
+        // given
+        when( index.newReader() ).thenThrow( new IndexNotFoundKernelException( "dropped" ) );
+        controller.sampleIndexes( asList( index ), true );
+
+        // when
+        updates( 3 );
+
+        // then
+        assertNull( controller.sample( descriptor ) );
+        assertEquals( 0, controller.updatesSinceSample( descriptor ) );
+    }
+
+    private void updates( int count )
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            controller.updated( descriptor );
+        }
+    }
+}
@@ -282,7 +282,7 @@ public class IndexingServiceTest
                 mock( IndexStoreView.class ),
                 mockLookup,
                 mock( UpdateableSchemaState.class ), asList( onlineIndex, populatingIndex, failedIndex ),
-                mockLogging( logger ), IndexingService.NO_MONITOR ));
+                mockLogging( logger ), IndexingService.NO_MONITOR, noBackgroundSampling(), 1 ));
 
 
         when( provider.getInitialState( onlineIndex.getId() ) ).thenReturn( ONLINE );
@@ -325,7 +325,7 @@ public class IndexingServiceTest
                 mock( IndexStoreView.class ),
                 mockLookup,
                 mock( UpdateableSchemaState.class ), asList( onlineIndex, populatingIndex, failedIndex ),
-                mockLogging( logger ), IndexingService.NO_MONITOR );
+                mockLogging( logger ), IndexingService.NO_MONITOR, noBackgroundSampling(), 1 );
 
         when( provider.getInitialState( onlineIndex.getId() ) ).thenReturn( ONLINE );
         when( provider.getInitialState( populatingIndex.getId() ) ).thenReturn( InternalIndexState.POPULATING );
@@ -503,7 +503,12 @@ public class IndexingServiceTest
         return life.add( new IndexingService(
                 life.add( new Neo4jJobScheduler() ), new DefaultSchemaIndexProviderMap( indexProvider ),
                 storeView, mock( TokenNameLookup.class ), schemaState, loop( rules ), mockLogging( logger ),
-                IndexingService.NO_MONITOR ) );
+                IndexingService.NO_MONITOR, noBackgroundSampling(), 1 ) );
+    }
+
+    private static IndexSamplingController noBackgroundSampling()
+    {
+        return new IndexSamplingController( false, 5, StringLogger.DEV_NULL );
     }
 
     private DataUpdates withData( NodePropertyUpdate... updates )
@@ -28,6 +28,8 @@ import java.util.Set;
 
 import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.helpers.Predicate;
+import org.neo4j.kernel.api.index.IndexSample;
 
 import static org.neo4j.collection.primitive.PrimitiveLongCollections.toPrimitiveIterator;
 
@@ -54,6 +56,20 @@ class HashBasedIndex extends InMemoryIndexImplementation
         return nodes == null ? PrimitiveLongCollections.emptyIterator() : toPrimitiveIterator( nodes.iterator() );
     }
 
+    @Override
+    PrimitiveLongIterator doSeek( Predicate<Object> predicate )
+    {
+        Set<Long> nodes = new HashSet<>();
+        for ( Map.Entry<Object, Set<Long>> entry : data.entrySet() )
+        {
+            if ( predicate.accept( entry.getKey() ) )
+            {
+                nodes.addAll( entry.getValue() );
+            }
+        }
+        return toPrimitiveIterator( nodes.iterator() );
+    }
+
     @Override
     void doAdd( Object propertyValue, long nodeId, boolean applyIdempotently )
     {
@@ -133,4 +149,19 @@ class HashBasedIndex extends InMemoryIndexImplementation
         Set<Long> canditates = data.get( propertyValue );
         return canditates != null && canditates.contains( nodeId );
     }
+
+    @Override
+    public IndexSample sampleIndex()
+    {
+        long uniqueValues = 0, size = 0;
+        for ( Set<Long> nodes : data.values() )
+        {
+            if ( !nodes.isEmpty() )
+            {
+                uniqueValues++;
+                size += nodes.size();
+            }
+        }
+        return new IndexSample( size, uniqueValues, size );
+    }
 }
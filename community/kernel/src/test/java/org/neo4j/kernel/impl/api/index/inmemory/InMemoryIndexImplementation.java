@@ -22,8 +22,10 @@ package org.neo4j.kernel.impl.api.index.inmemory;
 import java.util.Set;
 
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.helpers.Predicate;
 import org.neo4j.kernel.api.direct.BoundedIterable;
 import org.neo4j.kernel.api.index.ArrayEncoder;
+import org.neo4j.kernel.api.index.IndexQueryPredicates;
 import org.neo4j.kernel.api.index.IndexReader;
 
 abstract class InMemoryIndexImplementation implements IndexReader, BoundedIterable<Long>
@@ -36,6 +38,19 @@ abstract class InMemoryIndexImplementation implements IndexReader, BoundedIterab
         return doLookup( encode( value ) );
     }
 
+    @Override
+    public final PrimitiveLongIterator rangeSeek( Object lower, boolean includeLower, Object upper,
+                                                  boolean includeUpper )
+    {
+        return doSeek( IndexQueryPredicates.range( lower, includeLower, upper, includeUpper ) );
+    }
+
+    @Override
+    public final PrimitiveLongIterator prefixSeek( String prefix )
+    {
+        return doSeek( IndexQueryPredicates.prefix( prefix ) );
+    }
+
     final void add( long nodeId, Object propertyValue, boolean applyIdempotently )
     {
         doAdd( encode( propertyValue ), nodeId, applyIdempotently );
@@ -48,6 +63,12 @@ abstract class InMemoryIndexImplementation implements IndexReader, BoundedIterab
 
     abstract PrimitiveLongIterator doLookup( Object propertyValue );
 
+    /**
+     * @param predicate matching the encoded values, which are the same as the property values for numbers
+     * and strings, the only values that can be seeked for.
+     */
+    abstract PrimitiveLongIterator doSeek( Predicate<Object> predicate );
+
     abstract void doAdd( Object propertyValue, long nodeId, boolean applyIdempotently );
 
     abstract void doRemove( Object propertyValue, long nodeId );
@@ -59,6 +59,7 @@ import static org.neo4j.helpers.collection.IteratorUtil.asSet;
 import static org.neo4j.helpers.collection.IteratorUtil.iterator;
 import static org.neo4j.helpers.collection.IteratorUtil.resourceIterator;
 import static org.neo4j.kernel.api.StatementConstants.NO_SUCH_NODE;
+import static org.neo4j.kernel.api.properties.Property.intProperty;
 import static org.neo4j.kernel.api.properties.Property.noNodeProperty;
 import static org.neo4j.kernel.api.properties.Property.stringProperty;
 
@@ -298,6 +299,50 @@ public class IndexQueryTransactionStateTest
         assertNoSuchNode( result );
     }
 
+    @Test
+    public void shouldIncludeAddedAndExcludeChangedNodesInRangeSeek() throws Exception
+    {
+        // Given
+        when( store.nodesGetFromIndexRangeSeek( state, indexDescriptor, 10, true, 20, false ) )
+                .then( answerAsPrimitiveLongIteratorFrom( asList( 2l, 3l ) ) );
+        when( store.nodeHasLabel( 1l, labelId ) ).thenReturn( true );
+        when( store.nodeHasLabel( 2l, labelId ) ).thenReturn( true );
+
+        state.txState().nodeDoReplaceProperty( 1l, noNodeProperty( 1l, propertyKeyId ),
+                intProperty( propertyKeyId, 15 ) );
+        state.txState().nodeDoReplaceProperty( 2l, intProperty( propertyKeyId, 12 ),
+                intProperty( propertyKeyId, 100 ) );
+
+        // When
+        PrimitiveLongIterator result = txContext.nodesGetFromIndexRangeSeek( state, indexDescriptor,
+                10, true, 20, false );
+
+        // Then
+        assertThat( asSet( result ), equalTo( asSet( 1l, 3l ) ) );
+    }
+
+    @Test
+    public void shouldIncludeExistingNodesWithMatchingPrefixAfterAddingLabel() throws Exception
+    {
+        // Given
+        when( store.nodesGetFromIndexPrefixSeek( state, indexDescriptor, "My" ) )
+                .then( answerAsPrimitiveLongIteratorFrom( asList( 2l, 3l ) ) );
+
+        when( store.nodeHasLabel( 1l, labelId ) ).thenReturn( false );
+        DefinedProperty stringProperty = stringProperty( propertyKeyId, value );
+        when( store.nodeGetProperty( 1l, propertyKeyId ) ).thenReturn( stringProperty );
+        when( store.nodeGetAllProperties( anyLong() ) ).thenReturn( iterator( stringProperty ) );
+
+        txContext.nodeAddLabel( state, 1l, labelId );
+        txContext.nodeDelete( state, 3l );
+
+        // When
+        PrimitiveLongIterator result = txContext.nodesGetFromIndexPrefixSeek( state, indexDescriptor, "My" );
+
+        // Then
+        assertThat( asSet( result ), equalTo( asSet( 1l, 2l ) ) );
+    }
+
     // exists
     int labelId = 2;
     int propertyKeyId = 3;
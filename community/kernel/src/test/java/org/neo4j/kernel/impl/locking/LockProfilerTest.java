@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import org.neo4j.kernel.impl.locking.community.CommunityLockManger;
+import org.neo4j.kernel.info.ContendedLockInfo;
+import org.neo4j.kernel.info.LockStatisticsInfo;
+
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import static org.neo4j.kernel.impl.locking.ResourceTypes.NODE;
+import static org.neo4j.kernel.impl.locking.ResourceTypes.RELATIONSHIP;
+
+public class LockProfilerTest
+{
+    @Test
+    public void shouldCountAcquiredLocksPerResourceType() throws Exception
+    {
+        // Given a threshold no uncontended acquisition will reach
+        LockProfiler profiler = new LockProfiler( ResourceTypes.values(), 60_000, 10 );
+        Locks locks = new ProfilingLocks( new CommunityLockManger(), profiler );
+
+        // When
+        try ( Locks.Client client = locks.newClient() )
+        {
+            client.acquireShared( NODE, 1, 2 );
+            client.acquireExclusive( NODE, 3 );
+            client.acquireExclusive( RELATIONSHIP, 4 );
+            client.trySharedLock( RELATIONSHIP, 5 );
+        }
+
+        // Then
+        LockStatisticsInfo nodes = statistics( profiler, NODE );
+        assertEquals( 2, nodes.getSharedAcquisitions() );
+        assertEquals( 1, nodes.getExclusiveAcquisitions() );
+        LockStatisticsInfo relationships = statistics( profiler, RELATIONSHIP );
+        assertEquals( 1, relationships.getSharedAcquisitions() );
+        assertEquals( 1, relationships.getExclusiveAcquisitions() );
+        assertEquals( 0, profiler.mostContended().size() );
+    }
+
+    @Test
+    public void shouldRecordWaitTimes() throws Exception
+    {
+        // Given
+        LockProfiler profiler = new LockProfiler( ResourceTypes.values(), 1, 10 );
+
+        // When
+        profiler.lockAcquired( NODE, 1, true, 0 );
+        profiler.lockAcquired( NODE, 1, true, 1_500 );
+        profiler.lockAcquired( NODE, 1, true, MILLISECONDS.toNanos( 3 ) );
+
+        // Then
+        LockStatisticsInfo nodes = statistics( profiler, NODE );
+        assertEquals( 3, nodes.getExclusiveAcquisitions() );
+        assertEquals( 3_001, nodes.getTotalWaitTime() );
+        long[] histogram = nodes.getWaitTimeHistogram();
+        assertEquals( 1, histogram[0] );
+        assertEquals( 1, histogram[1] );
+        assertEquals( 1, histogram[LockProfiler.bucket( 3_000 )] );
+        assertEquals( 12, LockProfiler.bucket( 3_000 ) );
+    }
+
+    @Test
+    public void shouldTrackMostContendedResources() throws Exception
+    {
+        // Given
+        LockProfiler profiler = new LockProfiler( ResourceTypes.values(), 1, 2 );
+        long wait = MILLISECONDS.toNanos( 2 );
+
+        // When
+        for ( int i = 0; i < 5; i++ )
+        {
+            profiler.lockAcquired( NODE, 10, true, wait );
+        }
+        profiler.lockAcquired( NODE, 11, true, wait );
+        profiler.lockAcquired( RELATIONSHIP, 10, true, wait );
+        profiler.lockAcquired( NODE, 12, true, MILLISECONDS.toNanos( 1 ) / 2 );
+
+        // Then the relationship replaced the least contended node, taking over its count
+        List<ContendedLockInfo> contended = profiler.mostContended();
+        assertEquals( 2, contended.size() );
+        assertEquals( "NODE", contended.get( 0 ).getResourceType() );
+        assertEquals( 10, contended.get( 0 ).getResourceId() );
+        assertEquals( 5, contended.get( 0 ).getContendedAcquisitions() );
+        assertEquals( 10_000, contended.get( 0 ).getTotalWaitTime() );
+        assertEquals( "RELATIONSHIP", contended.get( 1 ).getResourceType() );
+        assertEquals( 2, contended.get( 1 ).getContendedAcquisitions() );
+    }
+
+    @Test
+    public void shouldCountDeadlocks() throws Exception
+    {
+        // Given
+        LockProfiler profiler = new LockProfiler( ResourceTypes.values(), 1, 10 );
+
+        // When
+        profiler.deadlockDetected( NODE );
+        profiler.deadlockDetected( RELATIONSHIP );
+
+        // Then
+        assertEquals( 2, profiler.deadlocks() );
+        assertEquals( 1, statistics( profiler, NODE ).getDeadlocks() );
+    }
+
+    @Test
+    public void shouldAddLittleOverheadToUncontendedLocking() throws Exception
+    {
+        // Given
+        Locks plain = new CommunityLockManger();
+        Locks profiled = new ProfilingLocks( new CommunityLockManger(),
+                new LockProfiler( ResourceTypes.values(), MILLISECONDS.toNanos( 1 ), 20 ) );
+
+        // When taking the fastest of a number of rounds, alternating between the two, to even out noise
+        long plainTime = Long.MAX_VALUE, profiledTime = Long.MAX_VALUE;
+        for ( int round = 0; round < 50; round++ )
+        {
+            plainTime = min( plainTime, timeLocking( plain ) );
+            profiledTime = min( profiledTime, timeLocking( profiled ) );
+        }
+
+        // Then
+        assertTrue( "Profiling took " + profiledTime + "ns where locking alone took " + plainTime + "ns",
+                profiledTime < plainTime * 3 / 2 );
+    }
+
+    private static long timeLocking( Locks locks )
+    {
+        long startTime = nanoTime();
+        try ( Locks.Client client = locks.newClient() )
+        {
+            for ( long id = 0; id < 10_000; id++ )
+            {
+                client.acquireExclusive( NODE, id );
+                client.acquireShared( RELATIONSHIP, id );
+            }
+        }
+        return nanoTime() - startTime;
+    }
+
+    private LockStatisticsInfo statistics( LockProfiler profiler, Locks.ResourceType type )
+    {
+        for ( LockStatisticsInfo info : profiler.statistics() )
+        {
+            if ( info.getResourceType().equals( type.toString() ) )
+            {
+                return info;
+            }
+        }
+        throw new AssertionError( "No statistics for " + type );
+    }
+}
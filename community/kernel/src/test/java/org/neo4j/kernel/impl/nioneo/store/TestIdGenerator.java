@@ -23,11 +23,14 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Before;
 import org.junit.ClassRule;
@@ -740,4 +743,115 @@ public class TestIdGenerator
             }
         }
     }
+
+    @Test
+    public void idsFreedByThreadsThatDiedAreReusedByOtherThreads() throws Exception
+    {
+        IdGeneratorImpl.createGenerator( fs, idGeneratorFile() );
+        final IdGenerator idGenerator = new IdGeneratorImpl( fs, idGeneratorFile(), 16, 100_000, true, 0 );
+        final Set<Long> freed = new HashSet<>();
+        Thread freeing = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                for ( int i = 0; i < 3; i++ )
+                {
+                    freed.add( idGenerator.nextId() );
+                }
+                for ( long id : freed )
+                {
+                    idGenerator.freeId( id );
+                }
+            }
+        };
+        freeing.start();
+        freeing.join();
+
+        // Threads that come after share buffers with the one that died, which gives the freed ids out again
+        final Set<Long> handedOut = Collections.newSetFromMap( new ConcurrentHashMap<Long,Boolean>() );
+        for ( int t = 0; t < 1_000 && !handedOut.containsAll( freed ); t++ )
+        {
+            Thread allocating = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    handedOut.add( idGenerator.nextId() );
+                }
+            };
+            allocating.start();
+            allocating.join();
+        }
+        assertTrue( handedOut.containsAll( freed ) );
+        closeIdGenerator( idGenerator );
+    }
+
+    @Test
+    public void concurrentAllocationNeverHandsOutTheSameIdTwice() throws Exception
+    {
+        IdGeneratorImpl.createGenerator( fs, idGeneratorFile() );
+        final IdGenerator idGenerator = new IdGeneratorImpl( fs, idGeneratorFile(), 16, 100_000, true, 0 );
+        final Set<Long> inUse = Collections.newSetFromMap( new ConcurrentHashMap<Long,Boolean>() );
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[4];
+        for ( int t = 0; t < threads.length; t++ )
+        {
+            final java.util.Random random = new java.util.Random( t );
+            threads[t] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        List<Long> mine = new ArrayList<>();
+                        for ( int i = 0; i < 10_000; i++ )
+                        {
+                            if ( !mine.isEmpty() && random.nextBoolean() )
+                            {
+                                long id = mine.remove( random.nextInt( mine.size() ) );
+                                assertTrue( inUse.remove( id ) );
+                                idGenerator.freeId( id );
+                            }
+                            else
+                            {
+                                long id = idGenerator.nextId();
+                                assertTrue( "Id " + id + " handed out twice", inUse.add( id ) );
+                                mine.add( id );
+                            }
+                        }
+                    }
+                    catch ( Throwable e )
+                    {
+                        failure.set( e );
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for ( Thread thread : threads )
+        {
+            thread.join();
+        }
+        if ( failure.get() != null )
+        {
+            throw new AssertionError( failure.get() );
+        }
+        long highId = idGenerator.getHighId();
+        closeIdGenerator( idGenerator );
+
+        // every id that isn't in use anymore should be handed out again, exactly once, after a restart
+        IdGenerator reopened = new IdGeneratorImpl( fs, idGeneratorFile(), 16, 100_000, true, 0 );
+        Set<Long> reused = new HashSet<>();
+        for ( long i = 0; i < highId - inUse.size(); i++ )
+        {
+            long id = reopened.nextId();
+            assertFalse( inUse.contains( id ) );
+            assertTrue( reused.add( id ) );
+            assertTrue( id < highId );
+        }
+        assertEquals( highId, reopened.nextId() );
+        closeIdGenerator( reopened );
+    }
 }
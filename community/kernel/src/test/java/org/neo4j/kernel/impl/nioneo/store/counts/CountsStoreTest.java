@@ -0,0 +1,352 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.nioneo.store.counts;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.kernel.impl.util.StringLogger;
+import org.neo4j.test.EphemeralFileSystemRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import static org.neo4j.kernel.impl.nioneo.store.counts.CountsKey.ANY;
+import static org.neo4j.kernel.impl.nioneo.store.counts.CountsKey.nodeKey;
+import static org.neo4j.kernel.impl.nioneo.store.counts.CountsKey.relationshipKey;
+
+public class CountsStoreTest
+{
+    @Rule
+    public final EphemeralFileSystemRule fsRule = new EphemeralFileSystemRule();
+    private EphemeralFileSystemAbstraction fs;
+    private final File storeDir = new File( "dir" );
+    private final File fileName = new File( storeDir, "neostore.counts.db" );
+
+    @Before
+    public void createDirectory() throws Exception
+    {
+        fs = fsRule.get();
+        fs.mkdirs( storeDir );
+    }
+
+    @Test
+    public void shouldRequireRebuildWhenThereIsNoFile() throws Exception
+    {
+        // when
+        CountsStore counts = newCountsStore();
+
+        // then
+        assertTrue( counts.isRebuildRequired( 0 ) );
+        assertFalse( counts.apply( 1, new CountsKey[]{nodeKey( ANY )}, new long[]{1} ) );
+        assertEquals( 0, counts.nodeCount( ANY ) );
+    }
+
+    @Test
+    public void shouldApplyChangesOfTransactions() throws Exception
+    {
+        // given
+        CountsStore counts = newCountsStore();
+        counts.rebuild( new CountsAccumulator().changes(), 1 );
+
+        // when
+        CountsAccumulator changes = new CountsAccumulator();
+        changes.node( new long[]{1}, 2 );
+        changes.relationship( new long[]{1}, 7, new long[]{2}, 1 );
+        apply( counts, 2, changes );
+
+        // then
+        assertEquals( 2, counts.nodeCount( ANY ) );
+        assertEquals( 2, counts.nodeCount( 1 ) );
+        assertEquals( 0, counts.nodeCount( 2 ) );
+        assertEquals( 1, counts.relationshipCount( ANY, ANY, ANY ) );
+        assertEquals( 1, counts.relationshipCount( 1, 7, ANY ) );
+        assertEquals( 1, counts.relationshipCount( ANY, 7, 2 ) );
+        assertEquals( 0, counts.relationshipCount( 2, 7, ANY ) );
+        assertEquals( 2, counts.lastTxId() );
+    }
+
+    @Test
+    public void shouldPersistCountsAndSkipTransactionsAlreadyIncluded() throws Exception
+    {
+        // given
+        CountsStore counts = newCountsStore();
+        counts.rebuild( new CountsAccumulator().changes(), 1 );
+        CountsAccumulator changes = new CountsAccumulator();
+        changes.node( new long[]{3}, 1 );
+        apply( counts, 2, changes );
+        counts.flush();
+
+        // when
+        counts = newCountsStore();
+
+        // then
+        assertFalse( counts.isRebuildRequired( 2 ) );
+        assertEquals( 2, counts.lastTxId() );
+        assertEquals( 1, counts.nodeCount( 3 ) );
+        assertFalse( apply( counts, 2, changes ) );
+        assertTrue( apply( counts, 3, changes ) );
+        assertEquals( 2, counts.nodeCount( 3 ) );
+    }
+
+    @Test
+    public void shouldApplyTransactionsAppliedOutOfOrder() throws Exception
+    {
+        // given
+        CountsStore counts = newCountsStore();
+        counts.rebuild( new CountsAccumulator().changes(), 1 );
+        CountsAccumulator changes = new CountsAccumulator();
+        changes.node( new long[]{3}, 1 );
+
+        // when
+        assertTrue( apply( counts, 3, changes ) );
+        assertTrue( apply( counts, 2, changes ) );
+
+        // then
+        assertEquals( 2, counts.nodeCount( 3 ) );
+        assertEquals( 3, counts.lastTxId() );
+    }
+
+    @Test
+    public void shouldPersistTransactionsAppliedAfterGap() throws Exception
+    {
+        // given
+        CountsStore counts = newCountsStore();
+        counts.rebuild( new CountsAccumulator().changes(), 1 );
+        CountsAccumulator changes = new CountsAccumulator();
+        changes.node( new long[]{3}, 1 );
+        apply( counts, 3, changes );
+        counts.flush();
+
+        // when
+        counts = newCountsStore();
+
+        // then
+        assertFalse( counts.isRebuildRequired( 3 ) );
+        assertEquals( 3, counts.lastTxId() );
+        assertFalse( apply( counts, 3, changes ) );
+        assertTrue( apply( counts, 2, changes ) );
+        assertEquals( 2, counts.nodeCount( 3 ) );
+    }
+
+    @Test
+    public void shouldPersistWholeTransactionsWhileApplyingConcurrently() throws Exception
+    {
+        // given
+        final CountsStore counts = newCountsStore();
+        counts.rebuild( new CountsAccumulator().changes(), 1 );
+        final CountsAccumulator changes = new CountsAccumulator();
+        changes.node( new long[]{3, 4}, 1 );
+        final int threads = 4, transactionsPerThread = 1_000;
+        final AtomicLong nextTxId = new AtomicLong( 2 );
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        List<Future<?>> committers = new ArrayList<>();
+        for ( int i = 0; i < threads; i++ )
+        {
+            committers.add( executor.submit( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    for ( int j = 0; j < transactionsPerThread; j++ )
+                    {
+                        apply( counts, nextTxId.getAndIncrement(), changes );
+                    }
+                }
+            } ) );
+        }
+
+        // when
+        try
+        {
+            for ( Future<?> committer : committers )
+            {
+                while ( !committer.isDone() )
+                {
+                    counts.flush();
+
+                    // then the persisted counts recover to the same counts as if no flush had happened
+                    CountsStore recovered = newCountsStore();
+                    assertEquals( recovered.nodeCount( 3 ), recovered.nodeCount( 4 ) );
+                    for ( long txId = 2; txId < 2 + threads * transactionsPerThread; txId++ )
+                    {
+                        apply( recovered, txId, changes );
+                    }
+                    assertEquals( threads * transactionsPerThread, recovered.nodeCount( 3 ) );
+                }
+                committer.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldApplyTransactionsFromConcurrentCommitters() throws Exception
+    {
+        // given
+        final CountsStore counts = newCountsStore();
+        counts.rebuild( new CountsAccumulator().changes(), 1 );
+        final CountsAccumulator changes = new CountsAccumulator();
+        changes.node( new long[]{3}, 1 );
+        final int threads = 4, transactionsPerThread = 1_000;
+        final AtomicLong nextTxId = new AtomicLong( 2 );
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        List<Future<?>> committers = new ArrayList<>();
+
+        // when
+        for ( int i = 0; i < threads; i++ )
+        {
+            committers.add( executor.submit( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    for ( int j = 0; j < transactionsPerThread; j++ )
+                    {
+                        assertTrue( apply( counts, nextTxId.getAndIncrement(), changes ) );
+                    }
+                }
+            } ) );
+        }
+        try
+        {
+            for ( Future<?> committer : committers )
+            {
+                committer.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        // then
+        assertEquals( threads * transactionsPerThread, counts.nodeCount( 3 ) );
+        assertEquals( 1 + threads * transactionsPerThread, counts.lastTxId() );
+    }
+
+    @Test
+    public void shouldFallBackToPreviousFileIfLastWriteWasIncomplete() throws Exception
+    {
+        // given
+        CountsStore counts = newCountsStore();
+        counts.rebuild( new CountsAccumulator().changes(), 1 );
+        CountsAccumulator changes = new CountsAccumulator();
+        changes.node( new long[0], 1 );
+        apply( counts, 2, changes );
+        counts.flush(); // alpha
+        apply( counts, 3, changes );
+        counts.flush(); // beta
+
+        // when
+        File beta = new File( fileName.getPath() + CountsStore.BETA );
+        try ( StoreChannel channel = fs.open( beta, "rw" ) )
+        {
+            channel.truncate( channel.size() - 1 );
+        }
+        counts = newCountsStore();
+
+        // then
+        assertEquals( 2, counts.lastTxId() );
+        assertEquals( 1, counts.nodeCount( ANY ) );
+    }
+
+    @Test
+    public void shouldRequireRebuildIfCountsAreAheadOfTheStore() throws Exception
+    {
+        // given
+        CountsStore counts = newCountsStore();
+        counts.rebuild( new CountsAccumulator().changes(), 5 );
+        counts.flush();
+
+        // when
+        counts = newCountsStore();
+
+        // then
+        assertFalse( counts.isRebuildRequired( 5 ) );
+        assertTrue( counts.isRebuildRequired( 4 ) );
+    }
+
+    @Test
+    public void shouldNotPersistStaleCounts() throws Exception
+    {
+        // given
+        CountsStore counts = newCountsStore();
+        counts.rebuild( new CountsAccumulator().changes(), 1 );
+        counts.flush();
+
+        // when
+        counts.markAsStale();
+        counts.flush();
+
+        // then
+        assertTrue( newCountsStore().isRebuildRequired( 1 ) );
+    }
+
+    @Test
+    public void shouldIgnoreFileWithBadMagic() throws Exception
+    {
+        // given
+        CountsStore counts = newCountsStore();
+        counts.rebuild( new CountsAccumulator().changes(), 1 );
+        counts.flush();
+
+        // when
+        try ( StoreChannel channel = fs.open( new File( fileName.getPath() + CountsStore.ALPHA ), "rw" ) )
+        {
+            channel.writeAll( ByteBuffer.wrap( new byte[]{1, 2, 3} ), 0 );
+        }
+
+        // then
+        assertTrue( newCountsStore().isRebuildRequired( 1 ) );
+    }
+
+    private CountsStore newCountsStore()
+    {
+        return new CountsStore( fs, fileName, StringLogger.DEV_NULL );
+    }
+
+    private static boolean apply( CountsStore counts, long txId, CountsAccumulator changes )
+    {
+        CountsKey[] keys = changes.changes().keySet().toArray( new CountsKey[0] );
+        long[] deltas = new long[keys.length];
+        for ( int i = 0; i < keys.length; i++ )
+        {
+            deltas[i] = changes.changes().get( keys[i] );
+        }
+        return counts.apply( txId, keys, deltas );
+    }
+}
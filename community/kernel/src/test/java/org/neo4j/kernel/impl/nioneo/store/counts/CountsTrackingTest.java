@@ -0,0 +1,263 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.nioneo.store.counts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.neo4j.graphdb.DynamicLabel;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseBuilder;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.kernel.impl.nioneo.store.NeoStore;
+import org.neo4j.kernel.impl.nioneo.xa.NeoStoreProvider;
+import org.neo4j.test.DatabaseRule;
+import org.neo4j.test.ImpermanentDatabaseRule;
+
+import static org.junit.Assert.assertEquals;
+
+import static org.neo4j.kernel.impl.nioneo.store.counts.CountsKey.ANY;
+
+public class CountsTrackingTest
+{
+    private static final int DENSE_NODE_THRESHOLD = 5;
+    // token ids are handed out in order of first use, which the assertions below rely on
+    private static final Label PERSON = DynamicLabel.label( "Person" );
+    private static final Label CITY = DynamicLabel.label( "City" );
+    private static final RelationshipType LIVES_IN = DynamicRelationshipType.withName( "LIVES_IN" );
+    private static final RelationshipType KNOWS = DynamicRelationshipType.withName( "KNOWS" );
+
+    public final @Rule DatabaseRule dbRule = new ImpermanentDatabaseRule()
+    {
+        @Override
+        protected void configure( GraphDatabaseBuilder builder )
+        {
+            builder.setConfig( GraphDatabaseSettings.dense_node_threshold, String.valueOf( DENSE_NODE_THRESHOLD ) );
+        }
+    };
+
+    @Test
+    public void shouldTrackNodesAndRelationships() throws Exception
+    {
+        // given
+        GraphDatabaseService db = dbRule.getGraphDatabaseService();
+        Node alice, malmo;
+        try ( Transaction tx = db.beginTx() )
+        {
+            alice = db.createNode( PERSON );
+            Node bob = db.createNode( PERSON );
+            malmo = db.createNode( CITY );
+            db.createNode();
+            alice.createRelationshipTo( malmo, LIVES_IN );
+            bob.createRelationshipTo( malmo, LIVES_IN );
+            alice.createRelationshipTo( bob, KNOWS );
+            tx.success();
+        }
+
+        // then
+        CountsStore counts = neoStore().getCountsStore();
+        assertEquals( 4, counts.nodeCount( ANY ) );
+        assertEquals( 2, counts.nodeCount( 0 ) );
+        assertEquals( 1, counts.nodeCount( 1 ) );
+        assertEquals( 3, counts.relationshipCount( ANY, ANY, ANY ) );
+        assertEquals( 2, counts.relationshipCount( ANY, 0, ANY ) );
+        assertEquals( 2, counts.relationshipCount( 0, 0, ANY ) );
+        assertEquals( 2, counts.relationshipCount( ANY, 0, 1 ) );
+        assertEquals( 1, counts.relationshipCount( ANY, 1, 0 ) );
+        assertEquals( 0, counts.relationshipCount( 1, ANY, ANY ) );
+        assertCountsMatchStore();
+
+        // when
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( Relationship relationship : alice.getRelationships() )
+            {
+                relationship.delete();
+            }
+            alice.delete();
+            tx.success();
+        }
+
+        // then
+        assertEquals( 3, counts.nodeCount( ANY ) );
+        assertEquals( 1, counts.nodeCount( 0 ) );
+        assertEquals( 1, counts.relationshipCount( ANY, ANY, ANY ) );
+        assertEquals( 0, counts.relationshipCount( ANY, 1, ANY ) );
+        assertCountsMatchStore();
+    }
+
+    @Test
+    public void shouldTrackNodesCreatedByConcurrentTransactions() throws Exception
+    {
+        // given
+        final GraphDatabaseService db = dbRule.getGraphDatabaseService();
+        final int threads = 8, transactionsPerThread = 100;
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        List<Future<?>> committers = new ArrayList<>();
+
+        // when
+        for ( int i = 0; i < threads; i++ )
+        {
+            committers.add( executor.submit( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    for ( int j = 0; j < transactionsPerThread; j++ )
+                    {
+                        try ( Transaction tx = db.beginTx() )
+                        {
+                            Node person = db.createNode( PERSON );
+                            person.createRelationshipTo( db.createNode(), KNOWS );
+                            tx.success();
+                        }
+                    }
+                }
+            } ) );
+        }
+        try
+        {
+            for ( Future<?> committer : committers )
+            {
+                committer.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        // then
+        CountsStore counts = neoStore().getCountsStore();
+        assertEquals( 2 * threads * transactionsPerThread, counts.nodeCount( ANY ) );
+        assertEquals( threads * transactionsPerThread, counts.nodeCount( 0 ) );
+        assertEquals( threads * transactionsPerThread, counts.relationshipCount( 0, ANY, ANY ) );
+        assertCountsMatchStore();
+    }
+
+    @Test
+    public void shouldMoveRelationshipCountsWhenLabelsChange() throws Exception
+    {
+        // given
+        GraphDatabaseService db = dbRule.getGraphDatabaseService();
+        Node person, city;
+        try ( Transaction tx = db.beginTx() )
+        {
+            person = db.createNode( PERSON );
+            city = db.createNode();
+            person.createRelationshipTo( city, LIVES_IN );
+            person.createRelationshipTo( person, KNOWS );
+            tx.success();
+        }
+
+        // when
+        try ( Transaction tx = db.beginTx() )
+        {
+            city.addLabel( CITY );
+            person.removeLabel( PERSON );
+            tx.success();
+        }
+
+        // then
+        CountsStore counts = neoStore().getCountsStore();
+        assertEquals( 0, counts.nodeCount( 0 ) );
+        assertEquals( 1, counts.nodeCount( 1 ) );
+        assertEquals( 0, counts.relationshipCount( 0, ANY, ANY ) );
+        assertEquals( 1, counts.relationshipCount( ANY, 0, 1 ) );
+        assertEquals( 1, counts.relationshipCount( ANY, ANY, 1 ) );
+        assertCountsMatchStore();
+    }
+
+    @Test
+    public void shouldTrackLabelChangesOnDenseNodes() throws Exception
+    {
+        // given
+        GraphDatabaseService db = dbRule.getGraphDatabaseService();
+        Node hub;
+        try ( Transaction tx = db.beginTx() )
+        {
+            hub = db.createNode();
+            for ( int i = 0; i < DENSE_NODE_THRESHOLD * 2; i++ )
+            {
+                hub.createRelationshipTo( db.createNode(), i % 2 == 0 ? KNOWS : LIVES_IN );
+                db.createNode( PERSON ).createRelationshipTo( hub, KNOWS );
+            }
+            hub.createRelationshipTo( hub, KNOWS );
+            tx.success();
+        }
+
+        // when
+        try ( Transaction tx = db.beginTx() )
+        {
+            hub.addLabel( CITY );
+            tx.success();
+        }
+
+        // then
+        CountsStore counts = neoStore().getCountsStore();
+        assertEquals( 1, counts.nodeCount( 1 ) );
+        assertEquals( 11, counts.relationshipCount( 1, ANY, ANY ) );
+        assertEquals( 6, counts.relationshipCount( 1, 0, ANY ) );
+        assertEquals( 11, counts.relationshipCount( ANY, 0, 1 ) );
+        assertCountsMatchStore();
+
+        // when
+        try ( Transaction tx = db.beginTx() )
+        {
+            hub.getRelationships().iterator().next().delete();
+            hub.removeLabel( CITY );
+            tx.success();
+        }
+
+        // then
+        assertEquals( 0, counts.relationshipCount( 1, ANY, ANY ) );
+        assertEquals( 0, counts.relationshipCount( ANY, ANY, 1 ) );
+        assertCountsMatchStore();
+    }
+
+    private void assertCountsMatchStore()
+    {
+        NeoStore neoStore = neoStore();
+        CountsStore counts = neoStore.getCountsStore();
+        for ( Map.Entry<CountsKey, Long> entry : new CountsComputer( neoStore ).compute().changes().entrySet() )
+        {
+            assertEquals( entry.getKey().toString(), entry.getValue().longValue(), counts.get( entry.getKey() ) );
+        }
+    }
+
+    private NeoStore neoStore()
+    {
+        return dbRule.getGraphDatabaseAPI().getDependencyResolver().resolveDependency(
+                NeoStoreProvider.class ).evaluate();
+    }
+}
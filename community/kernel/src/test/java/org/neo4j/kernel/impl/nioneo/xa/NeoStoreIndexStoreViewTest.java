@@ -102,6 +102,33 @@ public class NeoStoreIndexStoreViewTest
             ), visitor.getUpdates() );
     }
 
+    @Test
+    public void shouldScanOnlyNodesInTheGivenRange() throws Exception
+    {
+        // given
+        NodeUpdateCollectingVisitor firstRange = new NodeUpdateCollectingVisitor();
+        NodeUpdateCollectingVisitor secondRange = new NodeUpdateCollectingVisitor();
+        int[] labelIds = new int[] { labelId };
+        int[] propertyKeyIds = new int[] { propertyKeyId };
+        StoreScan<Exception> firstScan =
+                storeView.visitNodesInRange( labelIds, propertyKeyIds, 0, stefan.getId(), firstRange );
+        StoreScan<Exception> secondScan =
+                storeView.visitNodesInRange( labelIds, propertyKeyIds, stefan.getId(), storeView.nodeHighId(),
+                        secondRange );
+
+        // when
+        firstScan.run();
+        secondScan.run();
+
+        // then
+        assertEquals(
+            asSet( NodePropertyUpdate.add( alistair.getId(), propertyKeyId, "Alistair", new long[] { labelId } ) ),
+            firstRange.getUpdates() );
+        assertEquals(
+            asSet( NodePropertyUpdate.add( stefan.getId(), propertyKeyId, "Stefan", new long[] { labelId } ) ),
+            secondRange.getUpdates() );
+    }
+
     @Test
     public void shouldIgnoreDeletedNodesDuringScan() throws Exception
     {
@@ -63,6 +63,7 @@ import org.neo4j.kernel.impl.api.CommandApplierFacade;
 import org.neo4j.kernel.impl.api.KernelSchemaStateStore;
 import org.neo4j.kernel.impl.api.TransactionRepresentationCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionRepresentationStoreApplier;
+import org.neo4j.kernel.impl.api.index.IndexSamplingController;
 import org.neo4j.kernel.impl.api.index.IndexUpdates;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.core.CacheAccessBackDoor;
@@ -1385,7 +1386,8 @@ public class NeoStoreTransactionTest
                     new NeoStoreIndexStoreView( locks, neoStore ),
                     null,
                     new KernelSchemaStateStore(), Collections.<IndexRule>emptyList(),
-                    new SingleLoggingService( DEV_NULL ), IndexingService.NO_MONITOR
+                    new SingleLoggingService( DEV_NULL ), IndexingService.NO_MONITOR,
+                    new IndexSamplingController( false, 5, DEV_NULL ), 1
                 );
         }
 
@@ -20,7 +20,9 @@
 package org.neo4j.kernel.impl.nioneo.xa;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
@@ -77,11 +79,42 @@ public class RecoveryVisitorTest
         final boolean result = visitor.visit( transaction );
 
         assertTrue( result );
-        verify( storeApplier, times( 1 ) ).apply( representation, commitEntry.getTxId(), true );
-        assertEquals( 1l, recoveredCount.get() );
 
         visitor.close();
 
+        verify( storeApplier, times( 1 ) ).apply( Collections.singletonList( transaction ), true );
+        assertEquals( 1l, recoveredCount.get() );
         verify( store, times( 1 ) ).setLastCommittedAndClosedTransactionId( commitEntry.getTxId() );
     }
+
+    @Test
+    public void shouldApplyTransactionsInBatches() throws IOException
+    {
+        final RecoveryVisitor visitor = new RecoveryVisitor( store, storeApplier, recoveredCount );
+
+        List<CommittedTransactionRepresentation> firstBatch = new ArrayList<>();
+        for ( int i = 0; i < RecoveryVisitor.BATCH_SIZE; i++ )
+        {
+            CommittedTransactionRepresentation transaction = transaction( i + 1 );
+            firstBatch.add( transaction );
+            visitor.visit( transaction );
+        }
+
+        verify( storeApplier, times( 1 ) ).apply( firstBatch, true );
+        assertEquals( RecoveryVisitor.BATCH_SIZE, recoveredCount.get() );
+
+        CommittedTransactionRepresentation last = transaction( RecoveryVisitor.BATCH_SIZE + 1 );
+        visitor.visit( last );
+        visitor.close();
+
+        verify( storeApplier, times( 1 ) ).apply( Collections.singletonList( last ), true );
+        assertEquals( RecoveryVisitor.BATCH_SIZE + 1, recoveredCount.get() );
+        verify( store, times( 1 ) ).setLastCommittedAndClosedTransactionId( RecoveryVisitor.BATCH_SIZE + 1 );
+    }
+
+    private CommittedTransactionRepresentation transaction( long txId )
+    {
+        return new CommittedTransactionRepresentation( startEntry,
+                new PhysicalTransactionRepresentation( Collections.<Command>emptySet() ), new OnePhaseCommit( txId, 0 ) );
+    }
 }
@@ -31,6 +31,7 @@ import org.mockito.Matchers;
 
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.impl.api.index.IndexUpdates;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.core.CacheAccessBackDoor;
 import org.neo4j.kernel.impl.nioneo.store.DynamicRecord;
@@ -123,6 +124,42 @@ public class NeoTransactionIndexApplierTest
         verify( indexingService, times( 1 ) ).updateIndexes( eq( expectedUpdates ) );
     }
 
+    @Test
+    public void shouldApplyLabelAndIndexUpdatesOfBatchedTransactionsTogether() throws IOException
+    {
+        // given
+        final NeoTransactionIndexApplier applier = new NeoTransactionIndexApplier( indexingService, labelScanStore,
+                nodeStore, propertyStore, cacheAccess, propertyLoader );
+        when( labelScanStore.newWriter() ).thenReturn( mock( LabelScanWriter.class ) );
+
+        final Command.NodeCommand first = labelChangeCommand( 11 );
+        final Command.NodeCommand second = labelChangeCommand( 10 );
+
+        // when
+        applier.visitNodeCommand( first );
+        applier.transactionApplied();
+        applier.visitNodeCommand( second );
+        applier.transactionApplied();
+        applier.close();
+
+        // then
+        verify( labelScanStore, times( 1 ) ).newWriter();
+        final Collection<NodeLabelUpdate> labelUpdates = Arrays.asList(
+                NodeLabelUpdate.labelChanges( second.getKey(), new long[]{}, new long[]{} ),
+                NodeLabelUpdate.labelChanges( first.getKey(), new long[]{}, new long[]{} ) );
+        verify( cacheAccess, times( 1 ) ).applyLabelUpdates( eq( labelUpdates ) );
+        verify( indexingService, times( 1 ) ).updateIndexes( Matchers.<IndexUpdates>any() );
+    }
+
+    private Command.NodeCommand labelChangeCommand( long nodeId )
+    {
+        final NodeRecord before = new NodeRecord( nodeId );
+        before.setLabelField( 17, Collections.<DynamicRecord>emptySet() );
+        final NodeRecord after = new NodeRecord( nodeId );
+        after.setLabelField( 18, Collections.<DynamicRecord>emptySet() );
+        return new Command.NodeCommand().init( before, after );
+    }
+
     @Test
     public void shouldUpdateIndexesOnPropertyCommandsWhenThePropertyIsOnANode() throws IOException
     {
@@ -57,6 +57,7 @@ import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenStore;
 import org.neo4j.kernel.impl.nioneo.store.SchemaStore;
 import org.neo4j.kernel.impl.nioneo.store.UniquenessConstraintRule;
+import org.neo4j.kernel.impl.nioneo.store.counts.CountsStore;
 
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -85,6 +86,7 @@ public class NeoTransactionStoreApplierTest
     private final PropertyKeyTokenStore propertyKeyTokenStore = mock( PropertyKeyTokenStore.class );
     private final SchemaStore schemaStore = mock( SchemaStore.class );
     private final DynamicArrayStore dynamicLabelStore = mock( DynamicArrayStore.class );
+    private final CountsStore countsStore = mock( CountsStore.class );
 
     private final int transactionId = 55555;
     private final DynamicRecord one = DynamicRecord.dynamicRecord( 1, true );
@@ -102,6 +104,7 @@ public class NeoTransactionStoreApplierTest
         when( neoStore.getLabelTokenStore() ).thenReturn( labelTokenStore );
         when( neoStore.getPropertyKeyTokenStore() ).thenReturn( propertyKeyTokenStore );
         when( neoStore.getSchemaStore() ).thenReturn( schemaStore );
+        when( neoStore.getCountsStore() ).thenReturn( countsStore );
         when( nodeStore.getDynamicLabelStore() ).thenReturn( dynamicLabelStore );
         when( lockService.acquireNodeLock( anyLong(), Matchers.<LockService.LockType>any() ) ).
                 thenReturn( LockService.NO_LOCK );
@@ -23,6 +23,11 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
@@ -43,6 +48,8 @@ import org.neo4j.test.TargetDirectory;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
@@ -225,6 +232,53 @@ public class PhysicalLogicalTransactionStoreTest
         }
     }
 
+    @Test
+    public void shouldWakeUpThreadsAwaitingTransactionsWhenOneIsAppended() throws Exception
+    {
+        // GIVEN
+        final TransactionIdStore transactionIdStore = new DeadSimpleTransactionIdStore( 0l );
+        TransactionMetadataCache positionCache = new TransactionMetadataCache( 10, 1000 );
+        LifeSupport life = new LifeSupport();
+        PhysicalLogFiles logFiles = new PhysicalLogFiles( testDir, DEFAULT_NAME, fs );
+        Monitor monitor = new Monitors().newMonitor( PhysicalLogFile.Monitor.class );
+        LogFile logFile = life.add( new PhysicalLogFile( fs, logFiles, 1000, NO_PRUNING,
+                transactionIdStore, mock( LogVersionRepository.class), monitor, mock( LogRotationControl.class ),
+                positionCache, noRecoveryAsserter() ) );
+        TxIdGenerator txIdGenerator = new DefaultTxIdGenerator( singletonProvider( transactionIdStore ) );
+        final LogicalTransactionStore store = life.add( new PhysicalLogicalTransactionStore( logFile,
+                txIdGenerator, positionCache, transactionIdStore ) );
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        life.start();
+        try
+        {
+            final long lastCommittedTxId = transactionIdStore.getLastCommittedTransactionId();
+            assertFalse( store.awaitTransactionsAfter( lastCommittedTxId, 10 ) );
+            Future<Boolean> waiter = executor.submit( new Callable<Boolean>()
+            {
+                @Override
+                public Boolean call() throws Exception
+                {
+                    return store.awaitTransactionsAfter( lastCommittedTxId, TimeUnit.MINUTES.toMillis( 1 ) );
+                }
+            } );
+
+            // WHEN
+            PhysicalTransactionRepresentation transaction =
+                    new PhysicalTransactionRepresentation( singleCreateNodeCommand() );
+            transaction.setHeader( new byte[0], 1, 1, 0, lastCommittedTxId, 1 );
+            store.getAppender().append( transaction );
+
+            // THEN
+            assertTrue( waiter.get( 10, TimeUnit.SECONDS ) );
+            assertTrue( store.awaitTransactionsAfter( lastCommittedTxId, 0 ) );
+        }
+        finally
+        {
+            executor.shutdown();
+            life.shutdown();
+        }
+    }
+
     private void addATransactionAndRewind( LogFile logFile, TxIdGenerator txIdGenerator,
                                            TransactionMetadataCache positionCache, TransactionIdStore transactionIdStore,
                                            byte[] additionalHeader, int masterId, int authorId, long timeStarted,
@@ -22,8 +22,16 @@ package org.neo4j.kernel.impl.transaction.xaframework;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
 import org.neo4j.kernel.impl.nioneo.store.TransactionIdStore;
@@ -33,10 +41,19 @@ import org.neo4j.kernel.impl.transaction.xaframework.log.entry.LogEntryStart;
 import org.neo4j.kernel.impl.transaction.xaframework.log.entry.OnePhaseCommit;
 import org.neo4j.kernel.impl.transaction.xaframework.log.entry.VersionAwareLogEntryReader;
 
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 public class PhysicalTransactionAppenderTest
@@ -167,6 +184,377 @@ public class PhysicalTransactionAppenderTest
 
     }
 
+    @Test
+    public void shouldAppendBatchOfCommittedTransactionsWithSingleForceSkippingAlreadyAppendedOnes()
+            throws Exception
+    {
+        // GIVEN
+        LogFile logFile = mock( LogFile.class );
+        final AtomicInteger forces = new AtomicInteger();
+        InMemoryLogChannel channel = new InMemoryLogChannel()
+        {
+            @Override
+            public void force() throws IOException
+            {
+                forces.incrementAndGet();
+            }
+        };
+        when( logFile.getWriter() ).thenReturn( channel );
+        final AtomicLong lastCommittedTxId = new AtomicLong( 10 );
+        TxIdGenerator txIdGenerator = mock( TxIdGenerator.class );
+        when( txIdGenerator.generate( any( TransactionRepresentation.class ) ) ).thenAnswer( new Answer<Long>()
+        {
+            @Override
+            public Long answer( InvocationOnMock invocation ) throws Throwable
+            {
+                return lastCommittedTxId.incrementAndGet();
+            }
+        } );
+        TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenAnswer( new Answer<Long>()
+        {
+            @Override
+            public Long answer( InvocationOnMock invocation ) throws Throwable
+            {
+                return lastCommittedTxId.get();
+            }
+        } );
+        TransactionMetadataCache positionCache = new TransactionMetadataCache( 10, 100 );
+        TransactionAppender appender = new PhysicalTransactionAppender(
+                logFile, txIdGenerator, positionCache, transactionIdStore );
+
+        // WHEN
+        List<CommittedTransactionRepresentation> batch = new ArrayList<>();
+        for ( long txId = 9; txId <= 13; txId++ )
+        {
+            batch.add( committedTransaction( txId ) );
+        }
+        int appended = appender.append( batch );
+
+        // THEN
+        assertEquals( 3, appended );
+        assertEquals( 1, forces.get() );
+        assertEquals( 13, lastCommittedTxId.get() );
+        PhysicalTransactionCursor reader = new PhysicalTransactionCursor( channel, new VersionAwareLogEntryReader() );
+        for ( long txId = 11; txId <= 13; txId++ )
+        {
+            assertTrue( reader.next() );
+            assertEquals( txId, reader.get().getCommitEntry().getTxId() );
+        }
+    }
+
+    @Test
+    public void shouldNotWriteAnyTransactionOfBatchWithGap() throws Exception
+    {
+        // GIVEN
+        LogFile logFile = mock( LogFile.class );
+        final AtomicInteger forces = new AtomicInteger();
+        InMemoryLogChannel channel = new InMemoryLogChannel()
+        {
+            @Override
+            public void force() throws IOException
+            {
+                forces.incrementAndGet();
+            }
+        };
+        when( logFile.getWriter() ).thenReturn( channel );
+        TxIdGenerator txIdGenerator = mock( TxIdGenerator.class );
+        TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenReturn( 10l );
+        TransactionAppender appender = new PhysicalTransactionAppender(
+                logFile, txIdGenerator, new TransactionMetadataCache( 10, 100 ), transactionIdStore );
+
+        // WHEN
+        List<CommittedTransactionRepresentation> batch = new ArrayList<>();
+        batch.add( committedTransaction( 11 ) );
+        batch.add( committedTransaction( 12 ) );
+        batch.add( committedTransaction( 14 ) );
+        try
+        {
+            appender.append( batch );
+            fail( "should have thrown" );
+        }
+        catch ( IOException e )
+        {
+            assertEquals( "Tried to apply transaction with txId=14 but last committed txId=12", e.getMessage() );
+        }
+
+        // THEN
+        verifyZeroInteractions( txIdGenerator );
+        assertEquals( 0, forces.get() );
+        assertFalse( new PhysicalTransactionCursor( channel, new VersionAwareLogEntryReader() ).next() );
+    }
+
+    @Test
+    public void shouldForceTransactionsWrittenBeforeFailureToWriteBatch() throws Exception
+    {
+        // GIVEN
+        LogFile logFile = mock( LogFile.class );
+        final AtomicInteger forces = new AtomicInteger();
+        InMemoryLogChannel channel = new InMemoryLogChannel()
+        {
+            @Override
+            public void force() throws IOException
+            {
+                forces.incrementAndGet();
+            }
+        };
+        when( logFile.getWriter() ).thenReturn( channel );
+        final AtomicLong lastCommittedTxId = new AtomicLong( 10 );
+        TxIdGenerator txIdGenerator = mock( TxIdGenerator.class );
+        when( txIdGenerator.generate( any( TransactionRepresentation.class ) ) ).thenAnswer( new Answer<Long>()
+        {
+            @Override
+            public Long answer( InvocationOnMock invocation ) throws Throwable
+            {
+                return lastCommittedTxId.incrementAndGet();
+            }
+        } );
+        TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenReturn( 10l );
+        final RuntimeException failure = new RuntimeException( "Failed to write" );
+        TransactionMetadataCache positionCache = new TransactionMetadataCache( 10, 100 )
+        {
+            @Override
+            public TransactionMetadata cacheTransactionMetadata( long txId, LogPosition position, int masterId,
+                    int authorId, long checksum )
+            {
+                if ( txId == 12 )
+                {
+                    throw failure;
+                }
+                return super.cacheTransactionMetadata( txId, position, masterId, authorId, checksum );
+            }
+        };
+        TransactionAppender appender = new PhysicalTransactionAppender(
+                logFile, txIdGenerator, positionCache, transactionIdStore );
+
+        // WHEN
+        List<CommittedTransactionRepresentation> batch = new ArrayList<>();
+        for ( long txId = 11; txId <= 13; txId++ )
+        {
+            batch.add( committedTransaction( txId ) );
+        }
+        try
+        {
+            appender.append( batch );
+            fail( "should have thrown" );
+        }
+        catch ( RuntimeException e )
+        {
+            assertEquals( failure, e );
+        }
+
+        // THEN only the transaction written before the failure is committed, and forced
+        assertEquals( 11, lastCommittedTxId.get() );
+        assertEquals( 1, forces.get() );
+    }
+
+    @Test
+    public void shouldAppendConcurrentTransactionsInOneBatchWithSingleForce() throws Exception
+    {
+        // GIVEN
+        LogFile logFile = mock( LogFile.class );
+        final CountDownLatch firstForceStarted = new CountDownLatch( 1 );
+        final CountDownLatch releaseFirstForce = new CountDownLatch( 1 );
+        final AtomicInteger forces = new AtomicInteger();
+        InMemoryLogChannel channel = new InMemoryLogChannel()
+        {
+            @Override
+            public void force() throws IOException
+            {
+                if ( forces.getAndIncrement() == 0 )
+                {
+                    firstForceStarted.countDown();
+                    awaitUninterruptibly( releaseFirstForce );
+                }
+            }
+        };
+        when( logFile.getWriter() ).thenReturn( channel );
+        TxIdGenerator txIdGenerator = mock( TxIdGenerator.class );
+        final AtomicLong nextTxId = new AtomicLong( 1 );
+        when( txIdGenerator.generate( any( TransactionRepresentation.class ) ) ).thenAnswer( new Answer<Long>()
+        {
+            @Override
+            public Long answer( InvocationOnMock invocation ) throws Throwable
+            {
+                return nextTxId.getAndIncrement();
+            }
+        } );
+        TransactionMetadataCache positionCache = new TransactionMetadataCache( 10, 100 );
+        TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+        TransactionMonitor monitor = mock( TransactionMonitor.class );
+        final TransactionAppender appender = new PhysicalTransactionAppender(
+                logFile, txIdGenerator, positionCache, transactionIdStore, 10, 0, monitor );
+
+        // WHEN
+        Thread first = appendInThread( appender );
+        firstForceStarted.await();
+        Thread[] others = new Thread[3];
+        for ( int i = 0; i < others.length; i++ )
+        {
+            others[i] = appendInThread( appender );
+        }
+        for ( Thread other : others )
+        {
+            while ( other.getState() != Thread.State.WAITING )
+            {
+                Thread.sleep( 1 );
+            }
+        }
+        releaseFirstForce.countDown();
+        first.join();
+        for ( Thread other : others )
+        {
+            other.join();
+        }
+
+        // THEN
+        assertEquals( 2, forces.get() );
+        assertEquals( 5, nextTxId.get() );
+        InOrder inOrder = inOrder( monitor );
+        inOrder.verify( monitor ).transactionsAppended( 1 );
+        inOrder.verify( monitor ).transactionsAppended( 3 );
+    }
+
+    @Test
+    public void shouldNotDeadlockWhenRotatingLogWhileCommittersAreWaiting() throws Exception
+    {
+        // GIVEN a log rotating every few batches, awaiting all transactions appended so far to be closed,
+        // like the real rotation does
+        LogFile logFile = mock( LogFile.class );
+        final InMemoryLogChannel channel = new InMemoryLogChannel();
+        when( logFile.getWriter() ).thenReturn( channel );
+        final AtomicLong lastGeneratedTxId = new AtomicLong();
+        final AtomicLong closedTransactions = new AtomicLong();
+        final AtomicInteger rotationChecks = new AtomicInteger();
+        final AtomicInteger rotations = new AtomicInteger();
+        doAnswer( new Answer<Void>()
+        {
+            @Override
+            public Void answer( InvocationOnMock invocation ) throws Throwable
+            {
+                // The channel only has room for a few batches and what was written isn't interesting here
+                channel.reset();
+                if ( rotationChecks.incrementAndGet() % 5 == 0 )
+                {
+                    long deadline = System.currentTimeMillis() + SECONDS.toMillis( 30 );
+                    while ( closedTransactions.get() < lastGeneratedTxId.get() )
+                    {
+                        if ( System.currentTimeMillis() > deadline )
+                        {
+                            throw new IOException( "Rotation timed out awaiting transactions to be closed" );
+                        }
+                        Thread.sleep( 1 );
+                    }
+                    rotations.incrementAndGet();
+                }
+                return null;
+            }
+        } ).when( logFile ).checkRotation();
+        TxIdGenerator txIdGenerator = mock( TxIdGenerator.class );
+        when( txIdGenerator.generate( any( TransactionRepresentation.class ) ) ).thenAnswer( new Answer<Long>()
+        {
+            @Override
+            public Long answer( InvocationOnMock invocation ) throws Throwable
+            {
+                return lastGeneratedTxId.incrementAndGet();
+            }
+        } );
+        final TransactionAppender appender = new PhysicalTransactionAppender( logFile, txIdGenerator,
+                new TransactionMetadataCache( 10, 100 ), mock( TransactionIdStore.class ), 5, 0,
+                mock( TransactionMonitor.class ) );
+
+        // WHEN committers append and close their transactions concurrently
+        final int threads = 8, transactionsPerThread = 200;
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] committers = new Thread[threads];
+        for ( int i = 0; i < threads; i++ )
+        {
+            committers[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        for ( int j = 0; j < transactionsPerThread; j++ )
+                        {
+                            PhysicalTransactionRepresentation transaction =
+                                    new PhysicalTransactionRepresentation( singleCreateNodeCommand() );
+                            transaction.setHeader( new byte[0], 1, 1, 0, 0, 0 );
+                            appender.append( transaction ).get();
+                            closedTransactions.incrementAndGet();
+                        }
+                    }
+                    catch ( Throwable e )
+                    {
+                        failure.set( e );
+                    }
+                }
+            };
+            committers[i].start();
+        }
+        for ( Thread committer : committers )
+        {
+            committer.join( MINUTES.toMillis( 1 ) );
+            assertFalse( "Committer still running, probably deadlocked", committer.isAlive() );
+        }
+
+        // THEN
+        if ( failure.get() != null )
+        {
+            throw new AssertionError( failure.get() );
+        }
+        assertEquals( threads * transactionsPerThread, lastGeneratedTxId.get() );
+        assertTrue( rotations.get() > 0 );
+    }
+
+    private Thread appendInThread( final TransactionAppender appender )
+    {
+        Thread thread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                PhysicalTransactionRepresentation transaction =
+                        new PhysicalTransactionRepresentation( singleCreateNodeCommand() );
+                transaction.setHeader( new byte[0], 1, 1, 0, 0, 0 );
+                try
+                {
+                    appender.append( transaction );
+                }
+                catch ( IOException e )
+                {
+                    throw new RuntimeException( e );
+                }
+            }
+        };
+        thread.start();
+        return thread;
+    }
+
+    private CommittedTransactionRepresentation committedTransaction( long txId )
+    {
+        PhysicalTransactionRepresentation transaction =
+                new PhysicalTransactionRepresentation( singleCreateNodeCommand() );
+        transaction.setHeader( new byte[0], 1, 1, 0, txId - 1, 0 );
+        LogEntryStart start = new LogEntryStart( 1, 1, 0l, txId - 1, new byte[0], LogPosition.UNSPECIFIED );
+        return new CommittedTransactionRepresentation( start, transaction, new OnePhaseCommit( txId, 0l ) );
+    }
+
+    private static void awaitUninterruptibly( CountDownLatch latch )
+    {
+        try
+        {
+            latch.await();
+        }
+        catch ( InterruptedException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
     private Collection<Command> singleCreateNodeCommand()
     {
         Collection<Command> commands = new ArrayList<>();
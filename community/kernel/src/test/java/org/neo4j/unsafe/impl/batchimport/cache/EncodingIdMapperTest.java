@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.neo4j.unsafe.impl.batchimport.input.InputNode;
+import org.neo4j.unsafe.impl.batchimport.input.InputRelationship;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import static org.neo4j.helpers.collection.IteratorUtil.asList;
+
+public class EncodingIdMapperTest
+{
+    private static final Object[] NO_PROPERTIES = new Object[0];
+    private static final String[] NO_LABELS = new String[0];
+
+    @Test
+    public void shouldMapStringIdsToNodeIds() throws Exception
+    {
+        // GIVEN
+        EncodingIdMapper idMapper = new EncodingIdMapper( LongArrayFactory.AUTO, new StringEncoder() );
+        List<String> ids = new ArrayList<>();
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            ids.add( "node-" + i + "@example.com" );
+        }
+        Collections.shuffle( ids, new Random( 1234 ) );
+
+        // WHEN
+        List<InputNode> nodes = asList( idMapper.wrapNodes( stringNodes( ids ) ) );
+        idMapper.prepare();
+
+        // THEN
+        for ( int i = 0; i < nodes.size(); i++ )
+        {
+            assertEquals( i, nodes.get( i ).id() );
+            assertEquals( i, idMapper.get( ids.get( i ) ) );
+        }
+        assertEquals( -1, idMapper.get( "missing" ) );
+    }
+
+    @Test
+    public void shouldMapSparseLongIdsToNodeIds() throws Exception
+    {
+        // GIVEN
+        EncodingIdMapper idMapper = new EncodingIdMapper( LongArrayFactory.AUTO, new LongEncoder() );
+        long[] ids = new long[] { 5_000_000_000L, -12, 7, 123_456_789, 0 };
+
+        // WHEN
+        Iterator<InputNode> nodes = idMapper.wrapNodes( longNodes( ids ) );
+        for ( int i = 0; nodes.hasNext(); i++ )
+        {
+            assertEquals( i, nodes.next().id() );
+        }
+        idMapper.prepare();
+
+        // THEN
+        for ( int i = 0; i < ids.length; i++ )
+        {
+            assertEquals( i, idMapper.get( ids[i] ) );
+        }
+    }
+
+    @Test
+    public void shouldResolveRelationshipEndpointsAndCollectUnresolvedReferences() throws Exception
+    {
+        // GIVEN
+        EncodingIdMapper idMapper = new EncodingIdMapper( LongArrayFactory.AUTO, new StringEncoder() );
+        asList( idMapper.wrapNodes( stringNodes( Arrays.asList( "alice", "bob", "carol" ) ) ) );
+        idMapper.prepare();
+
+        // WHEN
+        List<InputRelationship> relationships = asList( idMapper.wrapRelationships( Arrays.asList(
+                relationship( 0, "alice", "bob" ),
+                relationship( 1, "bob", "dave" ),
+                relationship( 2, "carol", "alice" ) ).iterator() ) );
+
+        // THEN
+        assertEquals( 2, relationships.size() );
+        assertEquals( 0, relationships.get( 0 ).startNode() );
+        assertEquals( 1, relationships.get( 0 ).endNode() );
+        assertEquals( 2, relationships.get( 1 ).startNode() );
+        assertEquals( 0, relationships.get( 1 ).endNode() );
+        assertEquals( 1, idMapper.numberOfUnresolvedReferences() );
+        assertEquals( Arrays.<Object>asList( "dave" ), new ArrayList<>( idMapper.unresolvedReferences() ) );
+    }
+
+    @Test
+    public void shouldDetectDuplicateInputIds() throws Exception
+    {
+        // GIVEN
+        EncodingIdMapper idMapper = new EncodingIdMapper( LongArrayFactory.AUTO, new StringEncoder() );
+        asList( idMapper.wrapNodes( stringNodes( Arrays.asList( "alice", "bob", "carol", "bob" ) ) ) );
+
+        // WHEN
+        try
+        {
+            idMapper.prepare();
+            fail( "Should have detected the duplicate" );
+        }
+        catch ( IllegalStateException e )
+        {
+            // THEN
+            assertTrue( e.getMessage(), e.getMessage().contains( "1 and 3" ) );
+        }
+    }
+
+    @Test
+    public void shouldTellInputIdsWithEqualEncodingsApart() throws Exception
+    {
+        // GIVEN
+        EncodingIdMapper idMapper = new EncodingIdMapper( LongArrayFactory.AUTO, new LengthEncoder() );
+        List<String> ids = Arrays.asList( "alice", "bob", "carol", "dave", "eve", "frank" );
+
+        // WHEN
+        asList( idMapper.wrapNodes( stringNodes( ids ) ) );
+        idMapper.prepare();
+
+        // THEN
+        for ( int i = 0; i < ids.size(); i++ )
+        {
+            assertEquals( i, idMapper.get( ids.get( i ) ) );
+        }
+        assertEquals( -1, idMapper.get( "oscar" ) );
+        assertEquals( -1, idMapper.get( "al" ) );
+    }
+
+    @Test
+    public void shouldDetectDuplicateInputIdsAmongEqualEncodings() throws Exception
+    {
+        // GIVEN
+        EncodingIdMapper idMapper = new EncodingIdMapper( LongArrayFactory.AUTO, new LengthEncoder() );
+        asList( idMapper.wrapNodes( stringNodes( Arrays.asList( "alice", "bob", "carol", "eve", "carol" ) ) ) );
+
+        // WHEN
+        try
+        {
+            idMapper.prepare();
+            fail( "Should have detected the duplicate" );
+        }
+        catch ( IllegalStateException e )
+        {
+            // THEN
+            assertTrue( e.getMessage(), e.getMessage().contains( "2 and 4" ) );
+        }
+    }
+
+    @Test
+    public void shouldNotNeedPreparationForActualIds() throws Exception
+    {
+        assertFalse( IdMappers.actualIds().needsPreparation() );
+        assertTrue( IdMappers.strings().needsPreparation() );
+    }
+
+    private static Iterator<InputNode> stringNodes( List<String> ids )
+    {
+        List<InputNode> nodes = new ArrayList<>();
+        for ( String id : ids )
+        {
+            nodes.add( new InputNode( id, NO_PROPERTIES, null, NO_LABELS, null ) );
+        }
+        return nodes.iterator();
+    }
+
+    private static Iterator<InputNode> longNodes( long[] ids )
+    {
+        List<InputNode> nodes = new ArrayList<>();
+        for ( long id : ids )
+        {
+            nodes.add( new InputNode( id, NO_PROPERTIES, null, NO_LABELS, null ) );
+        }
+        return nodes.iterator();
+    }
+
+    /**
+     * Encodes strings by their length, so that many of them encode into the same long.
+     */
+    private static class LengthEncoder implements Encoder
+    {
+        @Override
+        public long encode( Object value )
+        {
+            return value.toString().length();
+        }
+
+        @Override
+        public boolean isExact()
+        {
+            return false;
+        }
+    }
+
+    private static InputRelationship relationship( long id, String startNode, String endNode )
+    {
+        return new InputRelationship( id, NO_PROPERTIES, null, startNode, endNode, "KNOWS", null );
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.cache;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import org.neo4j.kernel.impl.nioneo.store.DynamicRecord;
+import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
+import org.neo4j.kernel.impl.nioneo.store.labels.InlineNodeLabels;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import static org.neo4j.kernel.impl.nioneo.store.labels.DynamicNodeLabels.dynamicPointer;
+
+public class NodeLabelsCacheTest
+{
+    @Test
+    public void shouldGetInlinedAndDynamicLabels() throws Exception
+    {
+        // GIVEN
+        NodeLabelsCache cache = new NodeLabelsCache( LongArrayFactory.AUTO, 10 );
+        long[] inlinedLabels = new long[] {1, 3};
+        long[] dynamicLabels = new long[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+        // WHEN
+        cache.put( 2, inlinedLabelField( inlinedLabels ), inlinedLabels );
+        cache.put( 25, dynamicPointer( Arrays.asList( new DynamicRecord( 7 ) ) ), dynamicLabels );
+
+        // THEN
+        assertArrayEquals( inlinedLabels, cache.get( 2 ) );
+        assertArrayEquals( dynamicLabels, cache.get( 25 ) );
+        assertArrayEquals( new long[0], cache.get( 3 ) );
+        assertTrue( cache.isComplete() );
+    }
+
+    @Test
+    public void shouldNotBeCompleteIfLabelsOfSomeNodeNotKnown() throws Exception
+    {
+        // GIVEN
+        NodeLabelsCache cache = new NodeLabelsCache( LongArrayFactory.AUTO, 10 );
+
+        // WHEN
+        cache.put( 0, dynamicPointer( Arrays.asList( new DynamicRecord( 7 ) ) ), null );
+
+        // THEN
+        assertFalse( cache.isComplete() );
+    }
+
+    private long inlinedLabelField( long[] labels )
+    {
+        NodeRecord node = new NodeRecord( 0 );
+        new InlineNodeLabels( node.getLabelField(), node ).put( labels, null, null );
+        return node.getLabelField();
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.input.csv;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+import org.neo4j.test.TargetDirectory;
+import org.neo4j.unsafe.impl.batchimport.input.InputNode;
+import org.neo4j.unsafe.impl.batchimport.input.InputRelationship;
+
+import static java.util.Arrays.asList;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class CsvInputTest
+{
+    private final File directory = TargetDirectory.forTest( getClass() ).cleanDirectory( "csv" );
+
+    @Test
+    public void shouldReadNodesWithLabelsAndTypedProperties() throws Exception
+    {
+        // GIVEN
+        File file = file( "nodes.csv", false,
+                ":ID,name,age:int,scores:long[],:LABEL",
+                "abc,Alice,42,1;2;3,Person;Employee",
+                "def,Bob,,,Person" );
+        CsvInput input = new CsvInput( asList( file ), asList( new File[0] ), IdType.STRING, CsvConfiguration.COMMAS );
+
+        // WHEN
+        Iterator<InputNode> nodes = input.nodes().iterator();
+
+        // THEN
+        InputNode alice = nodes.next();
+        assertEquals( "abc", alice.inputId() );
+        assertArrayEquals( new Object[] {"name", "Alice", "age", 42, "scores", new long[] {1, 2, 3}},
+                alice.properties() );
+        assertArrayEquals( new String[] {"Person", "Employee"}, alice.labels() );
+        InputNode bob = nodes.next();
+        assertEquals( "def", bob.inputId() );
+        assertArrayEquals( new Object[] {"name", "Bob"}, bob.properties() );
+        assertArrayEquals( new String[] {"Person"}, bob.labels() );
+        assertFalse( nodes.hasNext() );
+    }
+
+    @Test
+    public void shouldReadQuotedValuesContainingDelimitersAndNewLines() throws Exception
+    {
+        // GIVEN
+        File file = file( "nodes.csv", false,
+                ":ID,description",
+                "1,\"one, \"\"two\"\"\nthree\"" );
+        CsvInput input = new CsvInput( asList( file ), asList( new File[0] ), IdType.ACTUAL, CsvConfiguration.COMMAS );
+
+        // WHEN
+        Iterator<InputNode> nodes = input.nodes().iterator();
+
+        // THEN
+        InputNode node = nodes.next();
+        assertEquals( 1L, node.id() );
+        assertArrayEquals( new Object[] {"description", "one, \"two\"\nthree"}, node.properties() );
+        assertFalse( nodes.hasNext() );
+    }
+
+    @Test
+    public void shouldGiveRelationshipsSequentialIdsAcrossChunksAndFiles() throws Exception
+    {
+        // GIVEN
+        int count = 1_000;
+        String[] lines = new String[count + 1];
+        lines[0] = ":START_ID\t:END_ID\t:TYPE\tindex:int";
+        for ( int i = 0; i < count; i++ )
+        {
+            lines[i + 1] = i + "\t" + (i + 1) + "\tKNOWS\t" + i;
+        }
+        File first = file( "relationships1.csv", false, lines );
+        File second = file( "relationships2.csv.gz", true, lines );
+        CsvInput input = new CsvInput( asList( new File[0] ), asList( first, second ), IdType.INTEGER,
+                smallChunks( CsvConfiguration.TABS ) );
+
+        // WHEN
+        Iterator<InputRelationship> relationships = input.relationships().iterator();
+
+        // THEN
+        for ( int i = 0; i < count * 2; i++ )
+        {
+            InputRelationship relationship = relationships.next();
+            assertEquals( i, relationship.id() );
+            assertEquals( (long) (i % count), relationship.startNodeInputId() );
+            assertEquals( (long) (i % count + 1), relationship.endNodeInputId() );
+            assertEquals( "KNOWS", relationship.type() );
+            assertArrayEquals( new Object[] {"index", i % count}, relationship.properties() );
+        }
+        assertFalse( relationships.hasNext() );
+    }
+
+    @Test
+    public void shouldFailOnNodeHeaderWithoutIdColumn() throws Exception
+    {
+        // GIVEN
+        File file = file( "nodes.csv", false, "name,age:int", "Alice,42" );
+        CsvInput input = new CsvInput( asList( file ), asList( new File[0] ), IdType.STRING, CsvConfiguration.COMMAS );
+
+        // WHEN
+        try
+        {
+            input.nodes().iterator().next();
+            fail( "Should have failed" );
+        }
+        catch ( IllegalArgumentException e )
+        {   // THEN good
+        }
+    }
+
+    private CsvConfiguration smallChunks( final CsvConfiguration config )
+    {
+        return new CsvConfiguration.Default()
+        {
+            @Override
+            public char delimiter()
+            {
+                return config.delimiter();
+            }
+
+            @Override
+            public int bufferSize()
+            {
+                return 100;
+            }
+
+            @Override
+            public int numberOfParsers()
+            {
+                return 3;
+            }
+        };
+    }
+
+    private File file( String name, boolean gzip, String... lines ) throws IOException
+    {
+        File file = new File( directory, name );
+        OutputStream out = new FileOutputStream( file );
+        if ( gzip )
+        {
+            out = new GZIPOutputStream( out );
+        }
+        try ( Writer writer = new OutputStreamWriter( out, "UTF-8" ) )
+        {
+            for ( String line : lines )
+            {
+                writer.write( line );
+                writer.write( '\n' );
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.staging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ExecutorServiceStepTest
+{
+    @Test
+    public void shouldSendBatchesDownstreamInOrderEvenIfProcessedConcurrently() throws Exception
+    {
+        // GIVEN
+        final Random random = new Random();
+        RecordingStep downstream = new RecordingStep();
+        ExecutorServiceStep<Integer> step = new ExecutorServiceStep<Integer>(
+                mock( StageControl.class ), "test", 100, 4, 4 )
+        {
+            @Override
+            protected Object process( long ticket, Integer batch )
+            {
+                LockSupport.parkNanos( MILLISECONDS.toNanos( random.nextInt( 5 ) ) );
+                return batch;
+            }
+        };
+        step.setDownstream( downstream );
+
+        // WHEN
+        int batches = 100;
+        for ( int i = 1; i <= batches; i++ )
+        {
+            step.receive( i, i );
+        }
+        step.endOfUpstream();
+        while ( !step.isCompleted() )
+        {
+            Thread.sleep( 10 );
+        }
+
+        // THEN
+        List<Integer> expected = new ArrayList<>();
+        for ( int i = 1; i <= batches; i++ )
+        {
+            expected.add( i );
+        }
+        assertEquals( expected, downstream.received );
+        assertTrue( downstream.endOfUpstream );
+    }
+
+    @Test
+    public void shouldIncrementNumberOfProcessorsUpToMax() throws Exception
+    {
+        // GIVEN
+        ExecutorServiceStep<Integer> step = new ExecutorServiceStep<Integer>(
+                mock( StageControl.class ), "test", 10, 1, 2 )
+        {
+            @Override
+            protected Object process( long ticket, Integer batch )
+            {
+                return null;
+            }
+        };
+
+        // WHEN/THEN
+        assertEquals( 1, step.numberOfProcessors() );
+        assertTrue( step.incrementNumberOfProcessors() );
+        assertEquals( 2, step.numberOfProcessors() );
+        assertFalse( step.incrementNumberOfProcessors() );
+        assertEquals( 2, step.numberOfProcessors() );
+        step.endOfUpstream();
+    }
+
+    private static class RecordingStep extends AbstractStep<Integer>
+    {
+        private final List<Integer> received = Collections.synchronizedList( new ArrayList<Integer>() );
+        private volatile boolean endOfUpstream;
+
+        RecordingStep()
+        {
+            super( mock( StageControl.class ), "downstream" );
+        }
+
+        @Override
+        public long receive( long ticket, Integer batch )
+        {
+            received.add( batch );
+            return 0;
+        }
+
+        @Override
+        public void endOfUpstream()
+        {
+            endOfUpstream = true;
+        }
+    }
+}
@@ -43,6 +43,7 @@ import org.neo4j.kernel.api.index.IndexDescriptor;
 import org.neo4j.kernel.api.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
+import org.neo4j.kernel.api.index.ParallelIndexPopulator;
 import org.neo4j.kernel.api.index.PreexistingIndexEntryConflictException;
 import org.neo4j.kernel.api.index.PropertyAccessor;
 import org.neo4j.kernel.api.index.util.FailureStorage;
@@ -51,6 +52,7 @@ import org.neo4j.kernel.api.properties.Property;
 import static org.neo4j.kernel.api.impl.index.LuceneDocumentStructure.NODE_ID_KEY;
 
 class DeferredConstraintVerificationUniqueLuceneIndexPopulator extends LuceneIndexPopulator
+        implements ParallelIndexPopulator
 {
     private final IndexDescriptor descriptor;
     private SearcherManager searcherManager;
@@ -24,8 +24,10 @@ import org.apache.lucene.document.Field;
 import org.apache.lucene.document.Fieldable;
 import org.apache.lucene.index.FieldInfo.IndexOptions;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TermRangeQuery;
 import org.apache.lucene.util.NumericUtils;
 
 import org.neo4j.kernel.api.index.ArrayEncoder;
@@ -205,6 +207,51 @@ public class LuceneDocumentStructure
         throw new IllegalArgumentException( format( "Unable to create newQuery for %s", value ) );
     }
 
+    /**
+     * Range query over numbers or strings. Numbers are indexed in their sortable prefix coded form, so a term
+     * range over the number field is a numeric range. A {@code null} bound leaves that end of the range open, and
+     * with no bounds at all every number matches.
+     */
+    public Query newRangeQuery( Object lower, boolean includeLower, Object upper, boolean includeUpper )
+    {
+        if ( isNumberOrNull( lower ) && isNumberOrNull( upper ) )
+        {
+            return new TermRangeQuery( ValueEncoding.Number.key(), encodedNumber( lower ), encodedNumber( upper ),
+                    includeLower, includeUpper );
+        }
+        if ( isStringOrNull( lower ) && isStringOrNull( upper ) )
+        {
+            return new TermRangeQuery( ValueEncoding.String.key(), (String) lower, (String) upper,
+                    includeLower, includeUpper );
+        }
+        throw new IllegalArgumentException( format( "Unable to create range query for %s to %s", lower, upper ) );
+    }
+
+    public Query newPrefixQuery( String prefix )
+    {
+        return new PrefixQuery( new Term( ValueEncoding.String.key(), prefix ) );
+    }
+
+    private static boolean isNumberOrNull( Object bound )
+    {
+        return bound == null || bound instanceof Number;
+    }
+
+    private static boolean isStringOrNull( Object bound )
+    {
+        return bound == null || bound instanceof String;
+    }
+
+    private static String encodedNumber( Object value )
+    {
+        return value == null ? null : NumericUtils.doubleToPrefixCoded( ((Number) value).doubleValue() );
+    }
+
+    boolean isValueField( String fieldName )
+    {
+        return !NODE_ID_KEY.equals( fieldName );
+    }
+
     public Term newQueryForChangeOrRemove( long nodeId )
     {
         return new Term( NODE_ID_KEY, "" + nodeId );
@@ -21,6 +21,7 @@ package org.neo4j.kernel.api.impl.index;
 
 import java.io.IOException;
 
+import org.apache.lucene.index.TermEnum;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.IndexSearcher;
@@ -31,6 +32,7 @@ import org.apache.lucene.search.TermQuery;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.index.impl.lucene.Hits;
 import org.neo4j.kernel.api.index.IndexReader;
+import org.neo4j.kernel.api.index.IndexSample;
 
 class LuceneIndexAccessorReader implements IndexReader
 {
@@ -47,10 +49,27 @@ class LuceneIndexAccessorReader implements IndexReader
 
     @Override
     public PrimitiveLongIterator lookup( Object value )
+    {
+        return query( documentLogic.newQuery( value ) );
+    }
+
+    @Override
+    public PrimitiveLongIterator rangeSeek( Object lower, boolean includeLower, Object upper, boolean includeUpper )
+    {
+        return query( documentLogic.newRangeQuery( lower, includeLower, upper, includeUpper ) );
+    }
+
+    @Override
+    public PrimitiveLongIterator prefixSeek( String prefix )
+    {
+        return query( documentLogic.newPrefixQuery( prefix ) );
+    }
+
+    private PrimitiveLongIterator query( Query query )
     {
         try
         {
-            Hits hits = new Hits( searcher, documentLogic.newQuery( value ), null );
+            Hits hits = new Hits( searcher, query, null );
             return new HitsPrimitiveLongIterator( hits, documentLogic );
         }
         catch ( IOException e )
@@ -79,6 +98,41 @@ class LuceneIndexAccessorReader implements IndexReader
         }
     }
 
+    @Override
+    public IndexSample sampleIndex()
+    {
+        // Every value is a term in one of the value fields, so walking the term dictionary gives the number
+        // of distinct values without visiting the documents themselves.
+        org.apache.lucene.index.IndexReader reader = searcher.getIndexReader();
+        long uniqueValues = 0, sampleSize = 0;
+        try
+        {
+            TermEnum terms = reader.terms();
+            try
+            {
+                while ( terms.next() )
+                {
+                    if ( documentLogic.isValueField( terms.term().field() ) )
+                    {
+                        uniqueValues++;
+                        sampleSize += terms.docFreq();
+                    }
+                }
+            }
+            finally
+            {
+                terms.close();
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+        // The document frequencies include deleted documents not yet merged away, so the sample may be
+        // slightly larger than the number of live documents.
+        return new IndexSample( reader.numDocs(), uniqueValues, sampleSize );
+    }
+
     @Override
     public void close()
     {
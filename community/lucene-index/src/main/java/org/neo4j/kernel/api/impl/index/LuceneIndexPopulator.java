@@ -29,6 +29,11 @@ import org.apache.lucene.store.Directory;
 import org.neo4j.kernel.api.index.IndexPopulator;
 import org.neo4j.kernel.api.index.util.FailureStorage;
 
+/**
+ * Lucene {@link IndexWriter index writers} are thread safe, so subclasses that add documents straight to
+ * the writer, without keeping any state of their own, can declare themselves
+ * {@link org.neo4j.kernel.api.index.ParallelIndexPopulator parallel}.
+ */
 public abstract class LuceneIndexPopulator implements IndexPopulator
 {
     protected final LuceneDocumentStructure documentStructure;
@@ -27,10 +27,11 @@ import java.util.List;
 import org.neo4j.kernel.api.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
+import org.neo4j.kernel.api.index.ParallelIndexPopulator;
 import org.neo4j.kernel.api.index.PropertyAccessor;
 import org.neo4j.kernel.api.index.util.FailureStorage;
 
-class NonUniqueLuceneIndexPopulator extends LuceneIndexPopulator
+class NonUniqueLuceneIndexPopulator extends LuceneIndexPopulator implements ParallelIndexPopulator
 {
     static final int DEFAULT_QUEUE_THRESHOLD = 10000;
     private final int queueThreshold;
@@ -28,6 +28,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.neo4j.kernel.api.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexReader;
+import org.neo4j.kernel.api.index.IndexSample;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
@@ -120,6 +121,63 @@ public class LuceneIndexAccessorTest
         reader.close();
     }
 
+    @Test
+    public void shouldSampleDistinctValues() throws Exception
+    {
+        // GIVEN
+        updateAndCommit( asList(
+                add( nodeId, value ),
+                add( nodeId2, value ),
+                add( 3, value2 ) ) );
+
+        // WHEN
+        IndexReader reader = accessor.newReader();
+        IndexSample sample = reader.sampleIndex();
+        reader.close();
+
+        // THEN
+        assertEquals( new IndexSample( 3, 2, 3 ), sample );
+    }
+
+    @Test
+    public void shouldRangeSeekNumbers() throws Exception
+    {
+        // GIVEN
+        updateAndCommit( asList(
+                add( 1, -5 ),
+                add( 2, 10L ),
+                add( 3, 20.5d ),
+                add( 4, "30" ) ) );
+        IndexReader reader = accessor.newReader();
+
+        // THEN
+        assertEquals( asSet( 2L, 3L ), asUniqueSet( reader.rangeSeek( 10, true, 20.5f, true ) ) );
+        assertEquals( asSet( 3L ), asUniqueSet( reader.rangeSeek( 10, false, 20.5f, true ) ) );
+        assertEquals( asSet( 1L, 2L ), asUniqueSet( reader.rangeSeek( null, false, 20.5, false ) ) );
+        assertEquals( asSet( 2L, 3L ), asUniqueSet( reader.rangeSeek( -5, false, null, false ) ) );
+        reader.close();
+    }
+
+    @Test
+    public void shouldRangeSeekAndPrefixSeekStrings() throws Exception
+    {
+        // GIVEN
+        updateAndCommit( asList(
+                add( 1, "apa" ),
+                add( 2, "apple" ),
+                add( 3, "banana" ),
+                add( 4, 7 ) ) );
+        IndexReader reader = accessor.newReader();
+
+        // THEN
+        assertEquals( asSet( 1L, 2L ), asUniqueSet( reader.rangeSeek( "a", true, "b", false ) ) );
+        assertEquals( asSet( 2L, 3L ), asUniqueSet( reader.rangeSeek( "apa", false, null, false ) ) );
+        assertEquals( asSet( 1L, 2L ), asUniqueSet( reader.prefixSeek( "ap" ) ) );
+        assertEquals( asSet( 2L ), asUniqueSet( reader.prefixSeek( "app" ) ) );
+        assertEquals( emptySetOf( Long.class ), asUniqueSet( reader.prefixSeek( "c" ) ) );
+        reader.close();
+    }
+
     private final long nodeId = 1, nodeId2 = 2;
     private final Object value = "value", value2 = 40;
     private final LuceneDocumentStructure documentLogic = new LuceneDocumentStructure();
@@ -44,6 +44,7 @@ import org.neo4j.server.web.Jetty9WebServer;
 import org.neo4j.server.web.WebServer;
 import org.neo4j.server.webadmin.rest.AdvertisableService;
 import org.neo4j.server.webadmin.rest.JmxService;
+import org.neo4j.server.webadmin.rest.LockProfilingService;
 import org.neo4j.server.webadmin.rest.MonitorService;
 import org.neo4j.server.webadmin.rest.console.ConsoleService;
 
@@ -98,10 +99,11 @@ public class CommunityNeoServer extends AbstractNeoServer
     @Override
     public Iterable<AdvertisableService> getServices()
     {
-        List<AdvertisableService> toReturn = new ArrayList<>( 3 );
+        List<AdvertisableService> toReturn = new ArrayList<>( 4 );
         toReturn.add( new ConsoleService( null, null, logging, null ) );
         toReturn.add( new JmxService( null, null ) );
         toReturn.add( new MonitorService( null, null ) );
+        toReturn.add( new LockProfilingService( null, null ) );
 
         return toReturn;
     }
@@ -29,6 +29,7 @@ import org.neo4j.kernel.logging.Logging;
 import org.neo4j.server.configuration.Configurator;
 import org.neo4j.server.web.WebServer;
 import org.neo4j.server.webadmin.rest.JmxService;
+import org.neo4j.server.webadmin.rest.LockProfilingService;
 import org.neo4j.server.webadmin.rest.MonitorService;
 import org.neo4j.server.webadmin.rest.RootService;
 import org.neo4j.server.webadmin.rest.VersionAndEditionService;
@@ -64,7 +65,8 @@ public class ManagementApiModule implements ServerModule
                 MonitorService.class.getName(),
                 RootService.class.getName(),
                 ConsoleService.class.getName(),
-                VersionAndEditionService.class.getName() );
+                VersionAndEditionService.class.getName(),
+                LockProfilingService.class.getName() );
     }
 
     @Override
@@ -28,6 +28,7 @@ import java.util.List;
 import org.apache.commons.configuration.Configuration;
 
 import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.pagecache.PageCacheCounters;
 import org.neo4j.kernel.GraphDatabaseAPI;
 import org.neo4j.kernel.InternalAbstractGraphDatabase;
 import org.neo4j.kernel.configuration.Config;
@@ -38,6 +39,7 @@ import org.neo4j.kernel.logging.Logging;
 import org.neo4j.server.database.Database;
 import org.neo4j.server.database.RrdDbWrapper;
 import org.neo4j.server.rrd.sampler.NodeIdsInUseSampleable;
+import org.neo4j.server.rrd.sampler.PageCacheHitRatioSampleable;
 import org.neo4j.server.rrd.sampler.PropertyCountSampleable;
 import org.neo4j.server.rrd.sampler.RelationshipCountSampleable;
 
@@ -84,14 +86,19 @@ public class RrdFactory
                 new RelationshipCountSampleable( neoStore )
         };
 
-        Sampleable[] usage = {};
+        PageCacheCounters pageCacheCounters =
+                db.getGraph().getDependencyResolver().resolveDependency( PageCacheCounters.class );
+        Sampleable[] usage = {
+                new PageCacheHitRatioSampleable( pageCacheCounters )
+        };
 
         final String rrdPath = config.getString( RRDB_LOCATION_PROPERTY_KEY,
                 getDefaultRrdFile( db.getGraph() ) );
-        final RrdDbWrapper rrdb = createRrdb( rrdPath, isEphemereal( db.getGraph() ), join( primitives, usage ) );
+        final Sampleable[] sampleables = join( primitives, usage );
+        final RrdDbWrapper rrdb = createRrdb( rrdPath, isEphemereal( db.getGraph() ), sampleables );
 
         scheduler.scheduleAtFixedRate(
-                new RrdJob( new RrdSamplerImpl( rrdb.get(), primitives ) ),
+                new RrdJob( new RrdSamplerImpl( rrdb.get(), sampleables ) ),
                 RRD_THREAD_NAME + "[primitives]",
                 SECONDS.toMillis( 0 ),
                 SECONDS.toMillis( 3 )
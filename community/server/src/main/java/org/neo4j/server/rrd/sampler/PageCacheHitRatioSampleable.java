@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.rrd.sampler;
+
+import org.neo4j.io.pagecache.PageCacheCounters;
+import org.neo4j.server.rrd.Sampleable;
+import org.rrd4j.DsType;
+
+/**
+ * Samples the percentage of page cache pins that found their page in the cache, since the previous sample.
+ */
+public class PageCacheHitRatioSampleable implements Sampleable
+{
+    private final PageCacheCounters counters;
+    private long lastPins;
+    private long lastHits;
+
+    public PageCacheHitRatioSampleable( PageCacheCounters counters )
+    {
+        if ( counters == null )
+        {
+            throw new RuntimeException( "Page cache sampler needs the page cache counters to work, was given null." );
+        }
+        this.counters = counters;
+    }
+
+    @Override
+    public String getName()
+    {
+        return "page_cache_hit_percent";
+    }
+
+    @Override
+    public synchronized double getValue()
+    {
+        long pins = counters.getPins();
+        long hits = counters.getHits();
+        long newPins = pins - lastPins;
+        long newHits = hits - lastHits;
+        lastPins = pins;
+        lastHits = hits;
+        if ( newPins <= 0 )
+        {
+            return 100.0;
+        }
+        return Math.floor( 100.0 * Math.min( newHits, newPins ) / newPins );
+    }
+
+    @Override
+    public DsType getType()
+    {
+        return DsType.GAUGE;
+    }
+}
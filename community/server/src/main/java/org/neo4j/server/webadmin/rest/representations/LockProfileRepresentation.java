@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.webadmin.rest.representations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.kernel.impl.locking.LockProfiler;
+import org.neo4j.kernel.info.ContendedLockInfo;
+import org.neo4j.kernel.info.LockStatisticsInfo;
+import org.neo4j.server.rest.repr.ListRepresentation;
+import org.neo4j.server.rest.repr.MappingRepresentation;
+import org.neo4j.server.rest.repr.MappingSerializer;
+
+public class LockProfileRepresentation extends MappingRepresentation
+{
+    private final LockProfiler profiler;
+
+    public LockProfileRepresentation( LockProfiler profiler )
+    {
+        super( "lockProfile" );
+        this.profiler = profiler;
+    }
+
+    @Override
+    protected void serialize( MappingSerializer serializer )
+    {
+        serializer.putNumber( "deadlocks", profiler.deadlocks() );
+
+        List<MappingRepresentation> statistics = new ArrayList<>();
+        for ( final LockStatisticsInfo info : profiler.statistics() )
+        {
+            statistics.add( new MappingRepresentation( "lockStatistics" )
+            {
+                @Override
+                protected void serialize( MappingSerializer serializer )
+                {
+                    serializer.putString( "resource_type", info.getResourceType() );
+                    serializer.putNumber( "shared_acquisitions", info.getSharedAcquisitions() );
+                    serializer.putNumber( "exclusive_acquisitions", info.getExclusiveAcquisitions() );
+                    serializer.putNumber( "deadlocks", info.getDeadlocks() );
+                    serializer.putNumber( "total_wait_time_us", info.getTotalWaitTime() );
+                    serializer.putList( "wait_time_histogram", ListRepresentation.numbers(
+                            info.getWaitTimeHistogram() ) );
+                }
+            } );
+        }
+        serializer.putList( "statistics", new ListRepresentation( "lockStatistics", statistics ) );
+
+        List<MappingRepresentation> contended = new ArrayList<>();
+        for ( final ContendedLockInfo info : profiler.mostContended() )
+        {
+            contended.add( new MappingRepresentation( "contendedLock" )
+            {
+                @Override
+                protected void serialize( MappingSerializer serializer )
+                {
+                    serializer.putString( "resource_type", info.getResourceType() );
+                    serializer.putNumber( "resource_id", info.getResourceId() );
+                    serializer.putNumber( "contended_acquisitions", info.getContendedAcquisitions() );
+                    serializer.putNumber( "total_wait_time_us", info.getTotalWaitTime() );
+                }
+            } );
+        }
+        serializer.putList( "most_contended", new ListRepresentation( "contendedLock", contended ) );
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.rrd;
+
+import java.io.File;
+
+import org.junit.Test;
+
+import org.neo4j.io.pagecache.PageCacheCounters;
+import org.neo4j.io.pagecache.PageCacheMonitor;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.server.rrd.sampler.PageCacheHitRatioSampleable;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.mock;
+
+public class PageCacheHitRatioSampleableTest
+{
+    private final PageCacheCounters counters = new PageCacheCounters();
+    private final PageCacheHitRatioSampleable sampleable = new PageCacheHitRatioSampleable( counters );
+
+    @Test
+    public void idlePageCacheHasFullHitRatio()
+    {
+        assertThat( sampleable.getValue(), is( 100d ) );
+    }
+
+    @Test
+    public void hitRatioIsSampledSinceThePreviousSample()
+    {
+        PageCacheMonitor monitor = counters.mappedFile( new File( "neostore.nodestore.db" ) );
+        PageSwapper swapper = mock( PageSwapper.class );
+
+        monitor.pinned( false, 0, swapper );
+        monitor.pageFaulted( 0, swapper, 10 );
+        assertThat( sampleable.getValue(), is( 0d ) );
+
+        monitor.pinned( false, 0, swapper );
+        monitor.pinned( false, 0, swapper );
+        assertThat( sampleable.getValue(), is( 100d ) );
+
+        monitor.pinned( false, 0, swapper );
+        monitor.pinned( false, 1, swapper );
+        monitor.pageFaulted( 1, swapper, 10 );
+        assertThat( sampleable.getValue(), is( 50d ) );
+    }
+}
@@ -63,5 +63,7 @@ public class RootServiceDocTest
                 .toString(), containsString( String.format( "%sserver/jmx", uri.toString() ) ) );
         assertThat( result.get( "monitor" )
                 .toString(), containsString( String.format( "%sserver/monitor", uri.toString() ) ) );
+        assertThat( result.get( "locks" )
+                .toString(), containsString( String.format( "%sserver/locks", uri.toString() ) ) );
     }
 }
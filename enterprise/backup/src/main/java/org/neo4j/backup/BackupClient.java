@@ -40,9 +40,15 @@ import static org.neo4j.backup.BackupServer.PROTOCOL_VERSION;
 class BackupClient extends Client<TheBackupInterface> implements TheBackupInterface
 {
     public BackupClient( String hostNameOrIp, int port, Logging logging, Monitors monitors, StoreId storeId )
+    {
+        this( hostNameOrIp, port, logging, monitors, storeId, false );
+    }
+
+    public BackupClient( String hostNameOrIp, int port, Logging logging, Monitors monitors, StoreId storeId,
+            boolean compressChunks )
     {
         super( hostNameOrIp, port, logging, monitors, storeId, FRAME_LENGTH, PROTOCOL_VERSION, 40 * 1000,
-                Client.DEFAULT_MAX_NUMBER_OF_CONCURRENT_CHANNELS_PER_CLIENT, FRAME_LENGTH );
+                Client.DEFAULT_MAX_NUMBER_OF_CONCURRENT_CHANNELS_PER_CLIENT, FRAME_LENGTH, compressChunks );
     }
 
     @Override
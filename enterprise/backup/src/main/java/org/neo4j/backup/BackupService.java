@@ -116,6 +116,7 @@ class BackupService
         {
             throw new RuntimeException( targetDirectory + " already contains a database" );
         }
+        final boolean compressChunks = tuningConfiguration.get( OnlineBackupSettings.online_backup_compression );
         Map<String, String> params = tuningConfiguration.getParams();
         params.put( GraphDatabaseSettings.store_dir.name(), targetDirectory );
         tuningConfiguration.applyChanges( params );
@@ -135,7 +136,7 @@ class BackupService
                 public Response<?> copyStore( StoreWriter writer )
                 {
                     client = new BackupClient( sourceHostNameOrIp, sourcePort, new DevNullLoggingService(),
-                            new Monitors(), null );
+                            new Monitors(), null, compressChunks );
                     client.start();
                     return client.fullBackup( writer );
                 }
@@ -182,6 +183,12 @@ class BackupService
 
     BackupOutcome doIncrementalBackup( String sourceHostNameOrIp, int sourcePort, String targetDirectory,
             boolean verification ) throws IncrementalBackupNotPossibleException
+    {
+        return incrementalBackup( sourceHostNameOrIp, sourcePort, targetDirectory, false );
+    }
+
+    private BackupOutcome incrementalBackup( String sourceHostNameOrIp, int sourcePort, String targetDirectory,
+            boolean compressChunks ) throws IncrementalBackupNotPossibleException
     {
         if ( !directoryContainsDb( targetDirectory ) )
         {
@@ -201,7 +208,8 @@ class BackupService
         BackupOutcome outcome = null;
         try
         {
-            outcome = doIncrementalBackup( sourceHostNameOrIp, sourcePort, targetDb );
+            outcome = incrementalWithContext( sourceHostNameOrIp, sourcePort, targetDb, slaveContextOf( targetDb ),
+                    compressChunks );
         }
         finally
         {
@@ -220,7 +228,8 @@ class BackupService
         }
         try
         {
-            return doIncrementalBackup( sourceHostNameOrIp, sourcePort, targetDirectory, verification );
+            return incrementalBackup( sourceHostNameOrIp, sourcePort, targetDirectory,
+                    config.get( OnlineBackupSettings.online_backup_compression ) );
         }
         catch ( IncrementalBackupNotPossibleException e )
         {
@@ -244,7 +253,7 @@ class BackupService
     BackupOutcome doIncrementalBackup( String sourceHostNameOrIp, int sourcePort, GraphDatabaseAPI targetDb )
             throws IncrementalBackupNotPossibleException
     {
-        return incrementalWithContext( sourceHostNameOrIp, sourcePort, targetDb, slaveContextOf( targetDb ) );
+        return incrementalWithContext( sourceHostNameOrIp, sourcePort, targetDb, slaveContextOf( targetDb ), false );
     }
 
     private RequestContext slaveContextOf( GraphDatabaseAPI graphDb )
@@ -284,15 +293,17 @@ class BackupService
      *
      * @param targetDb           The database that contains a previous full copy
      * @param context            The context, containing transaction id to start streaming transaction from
+     * @param compressChunks     Whether or not to ask the backup server to compress what it streams
      * @return A backup context, ready to perform
      */
     private BackupOutcome incrementalWithContext( String sourceHostNameOrIp, int sourcePort,
-            GraphDatabaseAPI targetDb, RequestContext context ) throws IncrementalBackupNotPossibleException
+            GraphDatabaseAPI targetDb, RequestContext context, boolean compressChunks )
+            throws IncrementalBackupNotPossibleException
     {
         DependencyResolver resolver = targetDb.getDependencyResolver();
         BackupClient client = new BackupClient( sourceHostNameOrIp, sourcePort,
                 resolver.resolveDependency( Logging.class ),
-                resolver.resolveDependency( Monitors.class ), targetDb.storeId() );
+                resolver.resolveDependency( Monitors.class ), targetDb.storeId(), compressChunks );
         client.start();
         boolean consistent = false;
         ProgressTxHandler handler = new ProgressTxHandler();
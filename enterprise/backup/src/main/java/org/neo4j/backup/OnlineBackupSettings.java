@@ -20,6 +20,7 @@
 package org.neo4j.backup;
 
 import static org.neo4j.helpers.Settings.BOOLEAN;
+import static org.neo4j.helpers.Settings.FALSE;
 import static org.neo4j.helpers.Settings.HOSTNAME_PORT;
 import static org.neo4j.helpers.Settings.TRUE;
 import static org.neo4j.helpers.Settings.setting;
@@ -40,4 +41,9 @@ public class OnlineBackupSettings
     @Description("Listening server for online backups")
     public static final Setting<HostnamePort> online_backup_server = setting( "online_backup_server", HOSTNAME_PORT,
             "0.0.0.0:6362-6372" );
+
+    @Description("Whether or not to ask the backup server to compress the data it streams when taking a backup. " +
+            "Trades CPU for bandwidth. Requires the backup server to be of a version supporting it")
+    public static final Setting<Boolean> online_backup_compression = setting( "online_backup_compression", BOOLEAN,
+            FALSE );
 }
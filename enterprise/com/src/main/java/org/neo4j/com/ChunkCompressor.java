@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+
+import org.neo4j.com.monitor.ChunkCompressionMonitor;
+
+/**
+ * Compresses chunks written by {@link ChunkingChannelBuffer} and decompresses them again in
+ * {@link DechunkingChannelBuffer} and {@link Server}, using {@link LZ4BlockCodec}.
+ * <p>
+ * A chunk sent over a connection that has compression enabled has {@link ChunkingChannelBuffer#COMPRESSION}
+ * set in its header and its payload is framed like this:
+ * <pre>
+ * [mmmm,mmmm] m: method, {@link #STORED} or {@link #LZ4}
+ * [llll,llll][llll,llll][llll,llll][llll,llll] l: uncompressed payload length, only for {@link #LZ4}
+ * payload
+ * </pre>
+ * Chunks that wouldn't get any smaller are sent {@link #STORED}, so that incompressible data, f.ex. already
+ * compressed files in a store copy, only costs the time of trying. The side receiving a request with
+ * {@link ChunkingChannelBuffer#COMPRESSION} set will compress its response as well.
+ * <p>
+ * Instances not knowing about compression ignore {@link ChunkingChannelBuffer#COMPRESSION}, so compressed
+ * chunks also carry an internal protocol version of their own, see {@link #internalProtocolVersion(byte)}.
+ * Sending compressed chunks to such an instance fails with an {@link IllegalProtocolVersionException}
+ * rather than having it read them as plain chunks.
+ */
+public class ChunkCompressor
+{
+    static final byte STORED = 0;
+    static final byte LZ4 = 1;
+    private static final int HEADER_SIZE = 2;
+    private static final int METHOD_SIZE = 1;
+    private static final int LENGTH_SIZE = 4;
+    // Far enough from the plain versions to not collide with one for a good number of version bumps
+    private static final int COMPRESSED_VERSION_OFFSET = 16;
+    // The internal protocol version has five bits in the header
+    private static final int VERSION_MASK = 0x1F;
+
+    private final ChunkCompressionMonitor monitor;
+    private final int maxChunkLength;
+
+    /**
+     * @param maxChunkLength the frame length of the connection, which no chunk can decompress beyond.
+     */
+    public ChunkCompressor( ChunkCompressionMonitor monitor, int maxChunkLength )
+    {
+        this.monitor = monitor;
+        this.maxChunkLength = maxChunkLength;
+    }
+
+    /**
+     * @return the internal protocol version of compressed chunks, given that of plain chunks.
+     */
+    static byte internalProtocolVersion( byte plainInternalProtocolVersion )
+    {
+        return (byte) ((plainInternalProtocolVersion + COMPRESSED_VERSION_OFFSET) & VERSION_MASK);
+    }
+
+    /**
+     * @param chunk a chunk, starting with its header at its reader index.
+     * @return a new buffer containing the compressed chunk, with {@link ChunkingChannelBuffer#COMPRESSION}
+     * set in its header.
+     */
+    public ChannelBuffer compress( ChannelBuffer chunk )
+    {
+        int headerIndex = chunk.readerIndex();
+        int payloadLength = chunk.readableBytes() - HEADER_SIZE;
+        int payloadStart = HEADER_SIZE + METHOD_SIZE + LENGTH_SIZE;
+        byte[] compressed = new byte[payloadStart + LZ4BlockCodec.maxCompressedLength( payloadLength )];
+        compressed[0] = (byte) (chunk.getByte( headerIndex ) | ChunkingChannelBuffer.COMPRESSION);
+        compressed[1] = chunk.getByte( headerIndex + 1 );
+
+        byte[] payload;
+        int payloadOffset;
+        if ( chunk.hasArray() )
+        {
+            payload = chunk.array();
+            payloadOffset = chunk.arrayOffset() + headerIndex + HEADER_SIZE;
+        }
+        else
+        {
+            payload = new byte[payloadLength];
+            payloadOffset = 0;
+            chunk.getBytes( headerIndex + HEADER_SIZE, payload );
+        }
+
+        long startTime = System.nanoTime();
+        int compressedLength = LZ4BlockCodec.compress( payload, payloadOffset, payloadLength,
+                compressed, payloadStart );
+        monitor.chunkCompressed( payloadLength, compressedLength, System.nanoTime() - startTime );
+
+        if ( compressedLength + LENGTH_SIZE >= payloadLength )
+        {   // Didn't pay off, send it as is. The compressed array has room for it since it's worst case sized
+            compressed[HEADER_SIZE] = STORED;
+            System.arraycopy( payload, payloadOffset, compressed, HEADER_SIZE + METHOD_SIZE, payloadLength );
+            return ChannelBuffers.wrappedBuffer( compressed, 0, HEADER_SIZE + METHOD_SIZE + payloadLength );
+        }
+        compressed[HEADER_SIZE] = LZ4;
+        compressed[HEADER_SIZE + 1] = (byte) (payloadLength >>> 24);
+        compressed[HEADER_SIZE + 2] = (byte) (payloadLength >>> 16);
+        compressed[HEADER_SIZE + 3] = (byte) (payloadLength >>> 8);
+        compressed[HEADER_SIZE + 4] = (byte) payloadLength;
+        return ChannelBuffers.wrappedBuffer( compressed, 0, payloadStart + compressedLength );
+    }
+
+    /**
+     * @param payload the payload of a chunk with {@link ChunkingChannelBuffer#COMPRESSION} set,
+     * i.e. what follows its header.
+     * @return the decompressed payload.
+     */
+    public ChannelBuffer decompress( ChannelBuffer payload )
+    {
+        byte method = payload.readByte();
+        if ( method == STORED )
+        {
+            return payload;
+        }
+        if ( method != LZ4 )
+        {
+            throw new ComException( "Unknown chunk compression method " + method );
+        }
+
+        int uncompressedLength = payload.readInt();
+        if ( uncompressedLength < 0 || uncompressedLength > maxChunkLength )
+        {
+            throw new ComException( "Illegal uncompressed chunk length " + uncompressedLength +
+                    ", expected at most " + maxChunkLength );
+        }
+        int compressedLength = payload.readableBytes();
+        byte[] compressed = new byte[compressedLength];
+        payload.readBytes( compressed );
+        byte[] uncompressed = new byte[uncompressedLength];
+
+        long startTime = System.nanoTime();
+        int length = LZ4BlockCodec.decompress( compressed, 0, compressedLength, uncompressed, 0, uncompressedLength );
+        monitor.chunkDecompressed( compressedLength, uncompressedLength, System.nanoTime() - startTime );
+        if ( length != uncompressedLength )
+        {
+            throw new ComException( "Expected chunk to decompress into " + uncompressedLength +
+                    " bytes, but got " + length );
+        }
+        return ChannelBuffers.wrappedBuffer( uncompressed );
+    }
+}
@@ -55,6 +55,9 @@ import org.jboss.netty.channel.ChannelFutureListener;
  * MAX_WRITE_AHEAD_CHUNKS are left pending - in such a case the write process
  * sleeps until some acknowledgment comes back from the other side that chunks
  * have been read.
+ * <p>
+ * If given a {@link ChunkCompressor}, each chunk is compressed before being written, see
+ * {@link ChunkCompressor} for how compressed chunks are framed.
  */
 public class ChunkingChannelBuffer implements ChannelBuffer, ChannelFutureListener
 {
@@ -62,6 +65,7 @@ public class ChunkingChannelBuffer implements ChannelBuffer, ChannelFutureListen
     static final byte CONTINUATION_MORE = 1;
     static final byte OUTCOME_SUCCESS = 0;
     static final byte OUTCOME_FAILURE = 1;
+    static final byte COMPRESSION = (byte) 0x80;
     private static final int MAX_WRITE_AHEAD_CHUNKS = 5;
 
     private ChannelBuffer buffer;
@@ -72,14 +76,26 @@ public class ChunkingChannelBuffer implements ChannelBuffer, ChannelFutureListen
     private volatile boolean failure;
     private final byte applicationProtocolVersion;
     private final byte internalProtocolVersion;
+    private final ChunkCompressor compressor;
 
     public ChunkingChannelBuffer( ChannelBuffer buffer, Channel channel, int capacity,
             byte internalProtocolVersion, byte applicationProtocolVersion )
+    {
+        this( buffer, channel, capacity, internalProtocolVersion, applicationProtocolVersion, null );
+    }
+
+    /**
+     * @param compressor compresses each chunk before it's written, or {@code null} for no compression.
+     */
+    public ChunkingChannelBuffer( ChannelBuffer buffer, Channel channel, int capacity,
+            byte internalProtocolVersion, byte applicationProtocolVersion, ChunkCompressor compressor )
     {
         this.buffer = buffer;
+        this.compressor = compressor;
         this.channel = channel;
         this.capacity = capacity;
-        this.internalProtocolVersion = internalProtocolVersion;
+        this.internalProtocolVersion = compressor == null ? internalProtocolVersion :
+                ChunkCompressor.internalProtocolVersion( internalProtocolVersion );
         this.applicationProtocolVersion = applicationProtocolVersion;
         addRoomForContinuationHeader();
     }
@@ -87,7 +103,7 @@ public class ChunkingChannelBuffer implements ChannelBuffer, ChannelFutureListen
     private void addRoomForContinuationHeader()
     {
         continuationPosition = writerIndex();
-        // byte 0: [pppp,ppoc] p: internal protocol version, o: outcome, c: continuation
+        // byte 0: [zppp,ppoc] z: compression, p: internal protocol version, o: outcome, c: continuation
         // byte 1: [aaaa,aaaa] a: application protocol version
         buffer.writeBytes( header( CONTINUATION_LAST ) );
     }
@@ -547,7 +563,7 @@ public class ChunkingChannelBuffer implements ChannelBuffer, ChannelFutureListen
             throw new ComException( "Channel has been closed, so no need to try to write to it anymore. Client closed it?" );
 
         waitForClientToCatchUpOnReadingChunks();
-        ChannelFuture future = channel.write( buffer );
+        ChannelFuture future = channel.write( compressor == null ? buffer : compressor.compress( buffer ) );
         future.addListener( this );
         writeAheadCounter.incrementAndGet();
     }
@@ -43,6 +43,7 @@ import org.jboss.netty.channel.Channels;
 import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
 import org.jboss.netty.handler.queue.BlockingReadHandler;
 
+import org.neo4j.com.monitor.ChunkCompressionMonitor;
 import org.neo4j.com.monitor.RequestMonitor;
 import org.neo4j.helpers.Exceptions;
 import org.neo4j.helpers.NamedThreadFactory;
@@ -92,6 +93,19 @@ public abstract class Client<T> extends LifecycleAdapter implements ChannelPipel
                    StoreId storeId, int frameLength,
                    byte applicationProtocolVersion, long readTimeout,
                    int maxConcurrentChannels, int chunkSize )
+    {
+        this( hostNameOrIp, port, logging, monitors, storeId, frameLength, applicationProtocolVersion, readTimeout,
+                maxConcurrentChannels, chunkSize, false );
+    }
+
+    /**
+     * @param compressChunks whether or not to compress the chunks of requests, and with that ask the server
+     * to compress the chunks of its responses too. Only servers of a version supporting it can be asked.
+     */
+    public Client( String hostNameOrIp, int port, Logging logging, Monitors monitors,
+                   StoreId storeId, int frameLength,
+                   byte applicationProtocolVersion, long readTimeout,
+                   int maxConcurrentChannels, int chunkSize, boolean compressChunks )
     {
         assertChunkSizeIsWithinFrameSize( chunkSize, frameLength );
 
@@ -103,7 +117,9 @@ public abstract class Client<T> extends LifecycleAdapter implements ChannelPipel
         this.maxUnusedChannels = maxConcurrentChannels;
         this.mismatchingVersionHandlers = new ArrayList<>( 2 );
         this.address = new InetSocketAddress( hostNameOrIp, port );
-        this.protocol = new Protocol( chunkSize, applicationProtocolVersion, getInternalProtocolVersion() );
+        this.protocol = new Protocol( chunkSize, applicationProtocolVersion, getInternalProtocolVersion(),
+                compressChunks ? new ChunkCompressor( monitors.newMonitor( ChunkCompressionMonitor.class,
+                        getClass() ), frameLength ) : null );
 
         msgLog.info( getClass().getSimpleName() + " communication channel created towards " + hostNameOrIp + ":" +
                 port );
@@ -48,11 +48,22 @@ public class DechunkingChannelBuffer implements ChannelBuffer
     private boolean failure;
     private final byte applicationProtocolVersion;
     private final byte internalProtocolVersion;
+    private final ChunkCompressor compressor;
 
     DechunkingChannelBuffer( BlockingReadHandler<ChannelBuffer> reader, long timeoutMillis, byte internalProtocolVersion,
             byte applicationProtocolVersion )
+    {
+        this( reader, timeoutMillis, internalProtocolVersion, applicationProtocolVersion, null );
+    }
+
+    /**
+     * @param compressor decompresses chunks marked as compressed, or {@code null} if none are expected.
+     */
+    DechunkingChannelBuffer( BlockingReadHandler<ChannelBuffer> reader, long timeoutMillis, byte internalProtocolVersion,
+            byte applicationProtocolVersion, ChunkCompressor compressor )
     {
         this.reader = reader;
+        this.compressor = compressor;
         this.timeoutMillis = timeoutMillis;
         this.internalProtocolVersion = internalProtocolVersion;
         this.applicationProtocolVersion = applicationProtocolVersion;
@@ -95,13 +106,22 @@ public class DechunkingChannelBuffer implements ChannelBuffer
         /* Header layout:
          * [    ,    ][    ,   x] 0: last chunk in message, 1: there a more chunks after this one
          * [    ,    ][    ,  x ] 0: success, 1: failure
-         * [    ,    ][xxxx,xx  ] internal protocol version
+         * [    ,    ][ xxx,xx  ] internal protocol version
+         * [    ,    ][x   ,    ] 0: plain payload, 1: compressed payload
          * [xxxx,xxxx][    ,    ] application protocol version */
         byte[] header = new byte[2];
         readBuffer.readBytes( header );
         more = (header[0] & 0x1) != 0;
         failure = (header[0] & 0x2) != 0;
         assertSameProtocolVersion( header, internalProtocolVersion, applicationProtocolVersion );
+        if ( (header[0] & ChunkingChannelBuffer.COMPRESSION) != 0 )
+        {
+            if ( compressor == null )
+            {
+                throw new ComException( "Got a compressed chunk without having asked for compression" );
+            }
+            readBuffer = compressor.decompress( readBuffer );
+        }
 
         if ( !more && buffer == null )
         {
@@ -124,17 +144,19 @@ public class DechunkingChannelBuffer implements ChannelBuffer
 
     static void assertSameProtocolVersion( byte[] header, byte internalProtocolVersion, byte applicationProtocolVersion )
     {
-        /* [aaaa,aaaa][pppp,ppoc]
-         * Only 6 bits for internal protocol version, yielding 64 values. It's ok to wrap around because
+        /* [aaaa,aaaa][zppp,ppoc]
+         * Only 5 bits for internal protocol version, yielding 32 values. It's ok to wrap around because
          * It's highly unlikely that instances that are so far apart in versions will communicate
-         * with each other.
+         * with each other. Compressed chunks have a version of their own.
          */
+        byte expectedInternalProtocolVersion = (header[0] & ChunkingChannelBuffer.COMPRESSION) != 0 ?
+                ChunkCompressor.internalProtocolVersion( internalProtocolVersion ) : internalProtocolVersion;
         byte readInternalProtocolVersion = (byte) ((header[0] & 0x7C) >>> 2);
-        if ( readInternalProtocolVersion != internalProtocolVersion )
+        if ( readInternalProtocolVersion != expectedInternalProtocolVersion )
         {
-            throw new IllegalProtocolVersionException( internalProtocolVersion, readInternalProtocolVersion,
+            throw new IllegalProtocolVersionException( expectedInternalProtocolVersion, readInternalProtocolVersion,
                     "Unexpected internal protocol version " + readInternalProtocolVersion +
-                    ", expected " + internalProtocolVersion + ". Header:" + numbersToBitString( header ) );
+                    ", expected " + expectedInternalProtocolVersion + ". Header:" + numbersToBitString( header ) );
         }
         if ( header[1] != applicationProtocolVersion )
         {
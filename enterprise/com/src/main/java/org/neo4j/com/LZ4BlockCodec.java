@@ -0,0 +1,247 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com;
+
+/**
+ * A pure Java block compressor using the LZ4 block format: a sequence of literal runs, each followed by a back
+ * reference into the previously decompressed bytes. It trades compression ratio for speed, which is what we want
+ * when compressing chunks on their way over the network.
+ * <p>
+ * Sequence layout:
+ * <pre>
+ * [llll,mmmm] token, l: literal length, m: match length - 4, 15 meaning that more length bytes follow
+ * [xxxx,xxxx]* additional literal length bytes, 255 meaning that another one follows
+ * literals
+ * [oooo,oooo][oooo,oooo] little endian offset back to the start of the match
+ * [xxxx,xxxx]* additional match length bytes, 255 meaning that another one follows
+ * </pre>
+ * The last sequence only consists of literals and is at least {@link #LAST_LITERALS} long.
+ */
+public class LZ4BlockCodec
+{
+    private static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MATCH_FIND_LIMIT = 12;
+    private static final int MAX_DISTANCE = 0xFFFF;
+    private static final int HASH_LOG = 12;
+    private static final int SKIP_STRENGTH = 6;
+    private static final int RUN_MASK = 0xF;
+
+    private LZ4BlockCodec()
+    {
+    }
+
+    /**
+     * @return the number of bytes {@link #compress(byte[], int, int, byte[], int) compressing} {@code length}
+     * bytes may produce in the worst case, i.e. when the data isn't compressible at all.
+     */
+    public static int maxCompressedLength( int length )
+    {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compresses {@code length} bytes of {@code src} into {@code dest}, which must have room for at least
+     * {@link #maxCompressedLength(int)} bytes from {@code destOffset}.
+     *
+     * @return the number of bytes written to {@code dest}.
+     */
+    public static int compress( byte[] src, int srcOffset, int length, byte[] dest, int destOffset )
+    {
+        int srcEnd = srcOffset + length;
+        int matchLimit = srcEnd - LAST_LITERALS;
+        int matchFindLimit = srcEnd - MATCH_FIND_LIMIT;
+        int anchor = srcOffset;
+        int op = destOffset;
+
+        if ( length >= MATCH_FIND_LIMIT )
+        {
+            int[] hashTable = new int[1 << HASH_LOG];
+            hashTable[hash( src, srcOffset )] = srcOffset;
+            int ip = srcOffset + 1;
+            while ( ip < matchFindLimit )
+            {
+                int hash = hash( src, ip );
+                int ref = hashTable[hash];
+                hashTable[hash] = ip;
+                if ( ref < srcOffset || ref >= ip || ip - ref > MAX_DISTANCE ||
+                        readInt( src, ref ) != readInt( src, ip ) )
+                {   // Step faster through data that doesn't seem to compress
+                    ip += 1 + ((ip - anchor) >>> SKIP_STRENGTH);
+                    continue;
+                }
+
+                // Extend the match backwards over literals not yet emitted and then forwards as far as it goes
+                while ( ip > anchor && ref > srcOffset && src[ip - 1] == src[ref - 1] )
+                {
+                    ip--;
+                    ref--;
+                }
+                int matchLength = MIN_MATCH;
+                while ( ip + matchLength < matchLimit && src[ip + matchLength] == src[ref + matchLength] )
+                {
+                    matchLength++;
+                }
+
+                op = writeSequence( src, anchor, ip - anchor, ip - ref, matchLength, dest, op );
+                ip += matchLength;
+                anchor = ip;
+            }
+        }
+
+        return writeLastLiterals( src, anchor, srcEnd - anchor, dest, op ) - destOffset;
+    }
+
+    /**
+     * Decompresses {@code length} bytes of {@code src}, produced by
+     * {@link #compress(byte[], int, int, byte[], int)}, into {@code dest}.
+     *
+     * @return the number of bytes written to {@code dest}.
+     * @throws ComException if the data is malformed or wouldn't fit in {@code maxDestLength} bytes.
+     */
+    public static int decompress( byte[] src, int srcOffset, int length, byte[] dest, int destOffset,
+            int maxDestLength )
+    {
+        int ip = srcOffset;
+        int srcEnd = srcOffset + length;
+        int op = destOffset;
+        int destEnd = destOffset + maxDestLength;
+        try
+        {
+            while ( ip < srcEnd )
+            {
+                int token = src[ip++] & 0xFF;
+
+                int literalLength = token >>> 4;
+                if ( literalLength == RUN_MASK )
+                {
+                    int b;
+                    do
+                    {
+                        b = src[ip++] & 0xFF;
+                        literalLength += b;
+                    }
+                    while ( b == 255 );
+                }
+                if ( ip + literalLength > srcEnd || op + literalLength > destEnd )
+                {
+                    throw malformed( ip );
+                }
+                System.arraycopy( src, ip, dest, op, literalLength );
+                ip += literalLength;
+                op += literalLength;
+                if ( ip == srcEnd )
+                {   // The last sequence has no match
+                    break;
+                }
+
+                int offset = (src[ip] & 0xFF) | ((src[ip + 1] & 0xFF) << 8);
+                ip += 2;
+                int matchLength = token & RUN_MASK;
+                if ( matchLength == RUN_MASK )
+                {
+                    int b;
+                    do
+                    {
+                        b = src[ip++] & 0xFF;
+                        matchLength += b;
+                    }
+                    while ( b == 255 );
+                }
+                matchLength += MIN_MATCH;
+                int ref = op - offset;
+                if ( offset == 0 || ref < destOffset || op + matchLength > destEnd )
+                {
+                    throw malformed( ip );
+                }
+                if ( offset >= matchLength )
+                {
+                    System.arraycopy( dest, ref, dest, op, matchLength );
+                    op += matchLength;
+                }
+                else
+                {   // Overlapping match, i.e. a repeating pattern, must be copied byte by byte
+                    for ( int i = 0; i < matchLength; i++ )
+                    {
+                        dest[op++] = dest[ref++];
+                    }
+                }
+            }
+        }
+        catch ( ArrayIndexOutOfBoundsException e )
+        {
+            throw malformed( ip );
+        }
+        return op - destOffset;
+    }
+
+    private static int writeSequence( byte[] src, int literalOffset, int literalLength, int matchOffset,
+            int matchLength, byte[] dest, int op )
+    {
+        int tokenPosition = op++;
+        int token = (Math.min( literalLength, RUN_MASK ) << 4) | Math.min( matchLength - MIN_MATCH, RUN_MASK );
+        dest[tokenPosition] = (byte) token;
+        op = writeLength( literalLength, dest, op );
+        System.arraycopy( src, literalOffset, dest, op, literalLength );
+        op += literalLength;
+        dest[op++] = (byte) matchOffset;
+        dest[op++] = (byte) (matchOffset >>> 8);
+        return writeLength( matchLength - MIN_MATCH, dest, op );
+    }
+
+    private static int writeLastLiterals( byte[] src, int literalOffset, int literalLength, byte[] dest, int op )
+    {
+        dest[op++] = (byte) (Math.min( literalLength, RUN_MASK ) << 4);
+        op = writeLength( literalLength, dest, op );
+        System.arraycopy( src, literalOffset, dest, op, literalLength );
+        return op + literalLength;
+    }
+
+    private static int writeLength( int length, byte[] dest, int op )
+    {
+        if ( length >= RUN_MASK )
+        {
+            int remaining = length - RUN_MASK;
+            while ( remaining >= 255 )
+            {
+                dest[op++] = (byte) 255;
+                remaining -= 255;
+            }
+            dest[op++] = (byte) remaining;
+        }
+        return op;
+    }
+
+    private static int hash( byte[] src, int offset )
+    {
+        return (readInt( src, offset ) * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    private static int readInt( byte[] src, int offset )
+    {
+        return (src[offset] & 0xFF) | ((src[offset + 1] & 0xFF) << 8) |
+                ((src[offset + 2] & 0xFF) << 16) | ((src[offset + 3] & 0xFF) << 24);
+    }
+
+    private static ComException malformed( int position )
+    {
+        return new ComException( "Malformed compressed data at position " + position );
+    }
+}
@@ -61,12 +61,24 @@ public class Protocol
     private final int chunkSize;
     private final byte applicationProtocolVersion;
     private final byte internalProtocolVersion;
+    private final ChunkCompressor compressor;
 
     public Protocol( int chunkSize, byte applicationProtocolVersion, byte internalProtocolVersion )
+    {
+        this( chunkSize, applicationProtocolVersion, internalProtocolVersion, null );
+    }
+
+    /**
+     * @param compressor compresses requests, which also makes the server compress its responses,
+     * or {@code null} for no compression.
+     */
+    public Protocol( int chunkSize, byte applicationProtocolVersion, byte internalProtocolVersion,
+            ChunkCompressor compressor )
     {
         this.chunkSize = chunkSize;
         this.applicationProtocolVersion = applicationProtocolVersion;
         this.internalProtocolVersion = internalProtocolVersion;
+        this.compressor = compressor;
     }
 
     public void serializeRequest( Channel channel, ChannelBuffer buffer, RequestType<?> type, RequestContext ctx,
@@ -74,7 +86,7 @@ public class Protocol
     {
         buffer.clear();
         ChunkingChannelBuffer chunkingBuffer = new ChunkingChannelBuffer( buffer,
-                channel, chunkSize, internalProtocolVersion, applicationProtocolVersion );
+                channel, chunkSize, internalProtocolVersion, applicationProtocolVersion, compressor );
         chunkingBuffer.writeByte( type.id() );
         writeContext( ctx, chunkingBuffer );
         payload.write( chunkingBuffer );
@@ -86,7 +98,7 @@ public class Protocol
             ResourceReleaser channelReleaser) throws IOException
     {
         final DechunkingChannelBuffer dechunkingBuffer = new DechunkingChannelBuffer( reader, timeout,
-                internalProtocolVersion, applicationProtocolVersion );
+                internalProtocolVersion, applicationProtocolVersion, compressor );
 
         PAYLOAD response = payloadDeserializer.read( dechunkingBuffer, input );
         StoreId storeId = readStoreId( dechunkingBuffer, input );
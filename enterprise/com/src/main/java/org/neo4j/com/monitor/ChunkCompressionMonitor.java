@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com.monitor;
+
+/**
+ * Gets notified about chunks being compressed and decompressed when compression has been
+ * enabled for a connection.
+ */
+public interface ChunkCompressionMonitor
+{
+    /**
+     * @param uncompressedBytes size of the chunk payload before compression.
+     * @param compressedBytes size of the chunk payload after compression.
+     * @param nanos time spent compressing.
+     */
+    void chunkCompressed( int uncompressedBytes, int compressedBytes, long nanos );
+
+    /**
+     * @param compressedBytes size of the received chunk payload.
+     * @param uncompressedBytes size of the chunk payload after decompression.
+     * @param nanos time spent decompressing.
+     */
+    void chunkDecompressed( int compressedBytes, int uncompressedBytes, long nanos );
+}
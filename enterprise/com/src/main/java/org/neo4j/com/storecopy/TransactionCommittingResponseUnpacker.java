@@ -20,6 +20,8 @@
 package org.neo4j.com.storecopy;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.neo4j.com.Response;
 import org.neo4j.graphdb.DependencyResolver;
@@ -32,8 +34,14 @@ import org.neo4j.kernel.impl.transaction.xaframework.TransactionAppender;
 import org.neo4j.kernel.impl.transaction.xaframework.TransactionMonitor;
 import org.neo4j.kernel.lifecycle.Lifecycle;
 
+/**
+ * Appends and applies transactions received in a {@link Response}. Transactions are handled in batches of
+ * up to {@link #MAX_BATCH_SIZE}, each batch appended to the log with a single force and applied to the store
+ * with a single round of index updates, which matters a lot when catching up on many transactions.
+ */
 public class TransactionCommittingResponseUnpacker extends ResponseUnpacker.Adapter implements Lifecycle
 {
+    public static final int MAX_BATCH_SIZE = 100;
     private static final int NO_SERVER_ID = -1;
 
     private final DependencyResolver resolver;
@@ -58,48 +66,113 @@ public class TransactionCommittingResponseUnpacker extends ResponseUnpacker.Adap
     @Override
     public <T> T unpackResponse( Response<T> response, final TxHandler handler ) throws IOException
     {
+        final List<CommittedTransactionRepresentation> batch = new ArrayList<>();
         response.accept( new Visitor<CommittedTransactionRepresentation, IOException>()
         {
             @Override
             public boolean visit( CommittedTransactionRepresentation transaction ) throws IOException
             {
-                // synchronized is needed here:
-                // read all about it at TransactionAppender#append(CommittedTransactionRepresentation)
-                synchronized ( appender )
+                batch.add( transaction );
+                if ( batch.size() >= MAX_BATCH_SIZE )
                 {
-                    if ( appender.append( transaction ) )
-                    {
-                        final boolean isMyTx = serverId != NO_SERVER_ID &&
-                                serverId == transaction.getTransactionRepresentation().getAuthorId();
-                        final long transactionId = transaction.getCommitEntry().getTxId();
-                        if ( !isMyTx )
-                        {
-                            transactionMonitor.transactionStarted();
-                        }
-                        boolean success = false;
-                        try
-                        {
-                            // TODO recovery=true needed?
-                            storeApplier.apply( transaction.getTransactionRepresentation(), transactionId, true );
-                            handler.accept( transaction );
-                            success = true;
-                        }
-                        finally
-                        {
-                            transactionIdStore.transactionClosed( transactionId );
-                            if ( !isMyTx )
-                            {
-                                transactionMonitor.transactionFinished( success );
-                            }
-                        }
-                    }
+                    applyBatch( batch, handler );
                 }
                 return true;
             }
         } );
+        applyBatch( batch, handler );
         return response.response();
     }
 
+    private void applyBatch( List<CommittedTransactionRepresentation> batch, TxHandler handler ) throws IOException
+    {
+        if ( batch.isEmpty() )
+        {
+            return;
+        }
+
+        // synchronized is needed here:
+        // read all about it at TransactionAppender#append(CommittedTransactionRepresentation)
+        synchronized ( appender )
+        {
+            long lastCommittedTxIdBefore = transactionIdStore.getLastCommittedTransactionId();
+            int appended;
+            try
+            {
+                appended = appender.append( batch );
+            }
+            catch ( IOException e )
+            {
+                // Transactions written before the failure have been committed nevertheless
+                apply( committedSince( batch, lastCommittedTxIdBefore ), handler );
+                throw e;
+            }
+            apply( batch.subList( batch.size() - appended, batch.size() ), handler );
+        }
+        batch.clear();
+    }
+
+    private List<CommittedTransactionRepresentation> committedSince( List<CommittedTransactionRepresentation> batch,
+            long lastCommittedTxIdBefore )
+    {
+        long lastCommittedTxId = transactionIdStore.getLastCommittedTransactionId();
+        List<CommittedTransactionRepresentation> committed = new ArrayList<>();
+        for ( CommittedTransactionRepresentation transaction : batch )
+        {
+            long txId = transaction.getCommitEntry().getTxId();
+            if ( txId > lastCommittedTxIdBefore && txId <= lastCommittedTxId )
+            {
+                committed.add( transaction );
+            }
+        }
+        return committed;
+    }
+
+    private void apply( List<CommittedTransactionRepresentation> transactions, TxHandler handler )
+            throws IOException
+    {
+        for ( CommittedTransactionRepresentation transaction : transactions )
+        {
+            if ( !isMyTx( transaction ) )
+            {
+                transactionMonitor.transactionStarted();
+            }
+        }
+        boolean applied = false;
+        boolean success = false;
+        try
+        {
+            // TODO recovery=true needed?
+            storeApplier.apply( transactions, true );
+            applied = true;
+            for ( CommittedTransactionRepresentation transaction : transactions )
+            {
+                handler.accept( transaction );
+            }
+            success = true;
+        }
+        finally
+        {
+            for ( CommittedTransactionRepresentation transaction : transactions )
+            {
+                // A batch failing to apply may have been applied partly, so none of its transactions are closed
+                if ( applied )
+                {
+                    transactionIdStore.transactionClosed( transaction.getCommitEntry().getTxId() );
+                }
+                if ( !isMyTx( transaction ) )
+                {
+                    transactionMonitor.transactionFinished( success );
+                }
+            }
+        }
+    }
+
+    private boolean isMyTx( CommittedTransactionRepresentation transaction )
+    {
+        return serverId != NO_SERVER_ID && serverId == transaction.getTransactionRepresentation().getAuthorId();
+    }
+
     @Override
     public void init() throws Throwable
     {
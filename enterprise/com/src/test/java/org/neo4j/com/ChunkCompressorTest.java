@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.junit.Test;
+
+import org.neo4j.com.monitor.ChunkCompressionMonitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import static org.neo4j.com.DechunkingChannelBuffer.assertSameProtocolVersion;
+
+public class ChunkCompressorTest
+{
+    private static final byte INTERNAL_PROTOCOL_VERSION = 2;
+    private static final byte APPLICATION_PROTOCOL_VERSION = 1;
+    private static final int MAX_CHUNK_LENGTH = 1024;
+
+    private final ChunkCompressor compressor = new ChunkCompressor( new ChunkCompressionMonitor()
+    {
+        @Override
+        public void chunkCompressed( int uncompressedBytes, int compressedBytes, long nanos )
+        {
+        }
+
+        @Override
+        public void chunkDecompressed( int compressedBytes, int uncompressedBytes, long nanos )
+        {
+        }
+    }, MAX_CHUNK_LENGTH );
+
+    @Test
+    public void shouldRoundTripChunks() throws Exception
+    {
+        // GIVEN
+        ChannelBuffer chunk = ChannelBuffers.dynamicBuffer();
+        chunk.writeBytes( new byte[]{(byte) (INTERNAL_PROTOCOL_VERSION << 2), APPLICATION_PROTOCOL_VERSION} );
+        for ( int i = 0; i < MAX_CHUNK_LENGTH / 4; i++ )
+        {
+            chunk.writeInt( i % 10 );
+        }
+
+        // WHEN
+        ChannelBuffer compressed = compressor.compress( chunk );
+        compressed.skipBytes( 2 );
+        ChannelBuffer decompressed = compressor.decompress( compressed );
+
+        // THEN
+        for ( int i = 0; i < MAX_CHUNK_LENGTH / 4; i++ )
+        {
+            assertEquals( i % 10, decompressed.readInt() );
+        }
+        assertEquals( 0, decompressed.readableBytes() );
+    }
+
+    @Test
+    public void shouldRejectNegativeUncompressedLength() throws Exception
+    {
+        assertIllegalUncompressedLength( -1 );
+    }
+
+    @Test
+    public void shouldRejectUncompressedLengthBeyondMaxChunkLength() throws Exception
+    {
+        assertIllegalUncompressedLength( MAX_CHUNK_LENGTH + 1 );
+    }
+
+    @Test
+    public void peersUnawareOfCompressionShouldSeeAnotherInternalProtocolVersion() throws Exception
+    {
+        // GIVEN a header of a compressed chunk, as seen by a peer that ignores the compression bit
+        byte[] header = {(byte) (ChunkCompressor.internalProtocolVersion( INTERNAL_PROTOCOL_VERSION ) << 2),
+                APPLICATION_PROTOCOL_VERSION};
+
+        // THEN
+        try
+        {
+            assertSameProtocolVersion( header, INTERNAL_PROTOCOL_VERSION, APPLICATION_PROTOCOL_VERSION );
+            fail( "Shouldn't accept a compressed chunk as a plain one" );
+        }
+        catch ( IllegalProtocolVersionException e )
+        {   // Good
+        }
+
+        // and peers aware of it accept it
+        header[0] |= ChunkingChannelBuffer.COMPRESSION;
+        assertSameProtocolVersion( header, INTERNAL_PROTOCOL_VERSION, APPLICATION_PROTOCOL_VERSION );
+    }
+
+    private void assertIllegalUncompressedLength( int length )
+    {
+        ChannelBuffer payload = ChannelBuffers.dynamicBuffer();
+        payload.writeByte( ChunkCompressor.LZ4 );
+        payload.writeInt( length );
+        payload.writeBytes( new byte[16] );
+        try
+        {
+            compressor.decompress( payload );
+            fail( "Should have rejected uncompressed length " + length );
+        }
+        catch ( ComException e )
+        {   // Good
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LZ4BlockCodecTest
+{
+    @Test
+    public void shouldRoundTripRepetitiveData() throws Exception
+    {
+        // GIVEN
+        byte[] data = new byte[100_000];
+        for ( int i = 0; i < data.length; i++ )
+        {
+            data[i] = (byte) (i % 10);
+        }
+
+        // WHEN
+        byte[] compressed = compress( data );
+
+        // THEN
+        assertTrue( "Expected " + compressed.length + " to be much smaller than " + data.length,
+                compressed.length < data.length / 10 );
+        assertArrayEquals( data, decompress( compressed, data.length ) );
+    }
+
+    @Test
+    public void shouldRoundTripIncompressibleData() throws Exception
+    {
+        // GIVEN
+        byte[] data = new byte[100_000];
+        new Random( 1234 ).nextBytes( data );
+
+        // WHEN
+        byte[] compressed = compress( data );
+
+        // THEN
+        assertTrue( compressed.length <= LZ4BlockCodec.maxCompressedLength( data.length ) );
+        assertArrayEquals( data, decompress( compressed, data.length ) );
+    }
+
+    @Test
+    public void shouldRoundTripDataOfAllSmallLengths() throws Exception
+    {
+        Random random = new Random( 4321 );
+        for ( int length = 0; length < 300; length++ )
+        {
+            // GIVEN some partly repetitive data
+            byte[] data = new byte[length];
+            for ( int i = 0; i < length; i++ )
+            {
+                data[i] = (byte) (random.nextInt( 4 ) == 0 ? random.nextInt() : i % 7);
+            }
+
+            // WHEN/THEN
+            assertArrayEquals( "length " + length, data, decompress( compress( data ), length ) );
+        }
+    }
+
+    @Test
+    public void shouldCompressFromAndDecompressIntoOffsets() throws Exception
+    {
+        // GIVEN
+        byte[] data = "prefix-abcabcabcabcabcabcabcabcabcabcabcabc-suffix".getBytes( "UTF-8" );
+        byte[] compressed = new byte[10 + LZ4BlockCodec.maxCompressedLength( data.length - 14 )];
+
+        // WHEN
+        int compressedLength = LZ4BlockCodec.compress( data, 7, data.length - 14, compressed, 10 );
+        byte[] decompressed = new byte[5 + data.length - 14];
+        int length = LZ4BlockCodec.decompress( compressed, 10, compressedLength, decompressed, 5,
+                data.length - 14 );
+
+        // THEN
+        assertEquals( data.length - 14, length );
+        assertArrayEquals( Arrays.copyOfRange( data, 7, data.length - 7 ),
+                Arrays.copyOfRange( decompressed, 5, decompressed.length ) );
+    }
+
+    @Test
+    public void shouldFailOnDataNotFittingInDestination() throws Exception
+    {
+        // GIVEN
+        byte[] data = new byte[1000];
+        byte[] compressed = compress( data );
+
+        // WHEN
+        try
+        {
+            decompress( compressed, data.length - 1 );
+            fail( "Should have failed" );
+        }
+        catch ( ComException e )
+        {   // THEN good
+        }
+    }
+
+    @Test
+    public void shouldFailOnTruncatedData() throws Exception
+    {
+        // GIVEN
+        byte[] data = new byte[1000];
+        for ( int i = 0; i < data.length; i++ )
+        {
+            data[i] = (byte) (i % 3);
+        }
+        byte[] compressed = compress( data );
+
+        // WHEN
+        try
+        {
+            decompress( Arrays.copyOf( compressed, compressed.length - 3 ), data.length );
+            fail( "Should have failed" );
+        }
+        catch ( ComException e )
+        {   // THEN good
+        }
+    }
+
+    private byte[] compress( byte[] data )
+    {
+        byte[] compressed = new byte[LZ4BlockCodec.maxCompressedLength( data.length )];
+        int length = LZ4BlockCodec.compress( data, 0, data.length, compressed, 0 );
+        return Arrays.copyOf( compressed, length );
+    }
+
+    private byte[] decompress( byte[] compressed, int length )
+    {
+        byte[] data = new byte[length];
+        assertEquals( length, LZ4BlockCodec.decompress( compressed, 0, compressed.length, data, 0, length ) );
+        return data;
+    }
+}
@@ -43,11 +43,17 @@ public class MadeUpClient extends Client<MadeUpCommunicationInterface> implement
 
     public MadeUpClient( int port, StoreId storeIdToExpect,
             byte internalProtocolVersion, byte applicationProtocolVersion, int chunkSize )
+    {
+        this( port, storeIdToExpect, internalProtocolVersion, applicationProtocolVersion, chunkSize, false );
+    }
+
+    public MadeUpClient( int port, StoreId storeIdToExpect,
+            byte internalProtocolVersion, byte applicationProtocolVersion, int chunkSize, boolean compressChunks )
     {
         super( localhost(), port, new DevNullLoggingService(), new Monitors(), storeIdToExpect, FRAME_LENGTH,
                 applicationProtocolVersion, Client.DEFAULT_READ_RESPONSE_TIMEOUT_SECONDS * 1000,
                 Client.DEFAULT_MAX_NUMBER_OF_CONCURRENT_CHANNELS_PER_CLIENT,
-                chunkSize );
+                chunkSize, compressChunks );
         this.internalProtocolVersion = internalProtocolVersion;
     }
 
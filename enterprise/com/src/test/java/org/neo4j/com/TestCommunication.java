@@ -126,6 +126,19 @@ public class TestCommunication
         client.fetchDataStream( new ToAssertionWriter(), FRAME_LENGTH*3 );
     }
 
+    @Test
+    public void makeSureCompressingClientCanStreamBigData() throws Throwable
+    {
+        MadeUpServer server = builder.chunkSize( 1024 ).server();
+        MadeUpClient client = builder.chunkSize( 1024 ).compressingClient();
+        life.add( server );
+        life.add( client );
+        life.start();
+
+        assertEquals( (Integer) 50, client.multiply( 10, 5 ).response() );
+        client.fetchDataStream( new ToAssertionWriter(), FRAME_LENGTH*3 );
+    }
+
     @Test
     public void clientThrowsServerSideErrorMidwayThroughStreaming() throws Throwable
     {
@@ -454,6 +467,12 @@ public class TestCommunication
             return new MadeUpClient( port, storeId, internalProtocolVersion, applicationProtocolVersion, chunkSize );
         }
 
+        public MadeUpClient compressingClient()
+        {
+            return new MadeUpClient( port, storeId, internalProtocolVersion, applicationProtocolVersion, chunkSize,
+                    true );
+        }
+
         public ServerInterface serverInOtherJvm()
         {
             ServerInterface server = new MadeUpServerProcess().start( new StartupData(
@@ -28,11 +28,13 @@ import org.neo4j.io.pagecache.PageSwapper;
 public class MonitoredPageSwapper implements PageSwapper
 {
     private final PageSwapper pageSwapper;
+    private final int filePageSize;
     private final PageCacheMonitor monitor;
 
-    public MonitoredPageSwapper( PageSwapper pageSwapper, PageCacheMonitor monitor )
+    public MonitoredPageSwapper( PageSwapper pageSwapper, int filePageSize, PageCacheMonitor monitor )
     {
         this.pageSwapper = pageSwapper;
+        this.filePageSize = filePageSize;
         this.monitor = monitor;
     }
 
@@ -45,14 +47,28 @@ public class MonitoredPageSwapper implements PageSwapper
     @Override
     public void write( long filePageId, Page page ) throws IOException
     {
+        long startNanos = System.nanoTime();
         pageSwapper.write( filePageId, page );
-        monitor.flushed(filePageId, pageSwapper);
+        monitor.flushed( filePageId, pageSwapper, filePageSize, System.nanoTime() - startNanos );
+    }
+
+    @Override
+    public void write( long startFilePageId, Page[] pages, int length ) throws IOException
+    {
+        long startNanos = System.nanoTime();
+        pageSwapper.write( startFilePageId, pages, length );
+        long nanosPerPage = (System.nanoTime() - startNanos) / Math.max( 1, length );
+        for ( int i = 0; i < length; i++ )
+        {
+            monitor.flushed( startFilePageId + i, pageSwapper, filePageSize, nanosPerPage );
+        }
     }
 
     @Override
     public void evicted( long pageId )
     {
         pageSwapper.evicted( pageId );
+        monitor.evicted( pageId, this );
     }
 
     @Override
@@ -61,7 +61,8 @@ final class MuninnPage extends StampedLock implements Page
 
     private PageSwapper swapper;
     private long filePageId = PageCursor.UNBOUND_PAGE_ID;
-    private boolean dirty;
+    // Volatile so that flushes see pages made dirty before they started, without locking every page to find them
+    private volatile boolean dirty;
 
     public MuninnPage( int cachePageSize )
     {
@@ -259,17 +260,25 @@ final class MuninnPage extends StampedLock implements Page
     public void swapOut( StoreChannel channel, long offset, int length ) throws IOException
     {
         assert isReadLocked() || isWriteLocked() : "swapOut requires lock";
+        channel.writeAll( asByteBuffer( length ), offset );
+    }
+
+    /**
+     * NOTE: This method must be called while holding at least the page read lock,
+     * and the buffer must not be used after the lock has been released.
+     * This method assumes that initBuffer() has already been called at least once.
+     */
+    @Override
+    public ByteBuffer asByteBuffer( int length ) throws IOException
+    {
+        assert checkBounds( length );
         try
         {
             ByteBuffer bufferProxy = (ByteBuffer) directBufferCtor.newInstance(
                     pointer, cachePageSize );
             bufferProxy.clear();
             bufferProxy.limit( length );
-            channel.writeAll( bufferProxy, offset );
-        }
-        catch ( IOException e )
-        {
-            throw e;
+            return bufferProxy;
         }
         catch ( Exception e )
         {
@@ -308,6 +317,25 @@ final class MuninnPage extends StampedLock implements Page
         dirty = true;
     }
 
+    /**
+     * NOTE: This method must be called while holding a pessimistic lock on the page,
+     * and only after its contents have been written to the file it is bound to.
+     */
+    public void markAsClean()
+    {
+        dirty = false;
+    }
+
+    /**
+     * The answer is only reliable while holding a pessimistic lock on the page. Without one, the page may be
+     * flushed or written to concurrently, but a page marked as dirty before this call is never reported as clean
+     * unless it has since been flushed.
+     */
+    public boolean isDirty()
+    {
+        return dirty;
+    }
+
     /**
      * NOTE: This method MUST be called while holding the page write lock.
      */
@@ -316,13 +344,28 @@ final class MuninnPage extends StampedLock implements Page
             long filePageId ) throws IOException
     {
         assert isWriteLocked(): "Cannot fault page without write-lock";
+        bind( swapper, filePageId );
+        swapper.read( filePageId, this );
+    }
+
+    /**
+     * Bind this page to the given file page without reading in its contents. Used when the whole page is
+     * going to be overwritten anyway. The memory of a free page is always zeroed, because it was either
+     * freshly allocated, or cleared when the page was evicted.
+     *
+     * NOTE: This method MUST be called while holding the page write lock.
+     */
+    public void bind(
+            PageSwapper swapper,
+            long filePageId )
+    {
+        assert isWriteLocked(): "Cannot bind page without write-lock";
         if ( this.swapper != null || this.filePageId != PageCursor.UNBOUND_PAGE_ID )
         {
             throw new IllegalStateException( "Cannot fault on bound page" );
         }
         this.swapper = swapper;
         this.filePageId = filePageId;
-        swapper.read( filePageId, this );
     }
 
     /**
@@ -21,15 +21,20 @@ package org.neo4j.io.enterprise.pagecache.impl.muninn;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.LockSupport;
 
+import org.neo4j.helpers.NamedThreadFactory;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCacheMonitor;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.PerFilePageCacheMonitor;
 import org.neo4j.io.pagecache.RunnablePageCache;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 
@@ -90,6 +95,30 @@ public class MuninnPageCache implements RunnablePageCache
     private static final int pagesToKeepFree = Integer.getInteger(
             "org.neo4j.io.pagecache.impl.muninn.pagesToKeepFree", 30 );
 
+    // Number of threads that load pages ahead of cursors opened with PF_READ_AHEAD.
+    // The threads are started on demand and stop again once they have been idle for a while.
+    private static final int readAheadThreads = Integer.getInteger(
+            "org.neo4j.io.pagecache.impl.muninn.readAheadThreads", 2 );
+
+    // Maximum number of read-ahead requests waiting for a read-ahead thread. Requests are dropped
+    // beyond this point, since read-ahead is only a hint.
+    private static final int readAheadQueueSize = Integer.getInteger(
+            "org.neo4j.io.pagecache.impl.muninn.readAheadQueueSize", 64 );
+
+    // Dirty pages are continuously written out in the background, while the eviction thread is running,
+    // so that eviction and checkpoints mostly find clean pages. Set this to false to disable it.
+    private static final boolean backgroundFlush = Boolean.parseBoolean( System.getProperty(
+            "org.neo4j.io.pagecache.impl.muninn.backgroundFlush", "true" ) );
+
+    // The maximum number of pages per second that the background flushing will write,
+    // to avoid competing with page faults for IO bandwidth.
+    private static final long backgroundFlushPagesPerSecond = Long.getLong(
+            "org.neo4j.io.pagecache.impl.muninn.backgroundFlushPagesPerSecond", 10000 );
+
+    // How long the background flushing waits before looking for dirty pages again, after finding none.
+    private static final long backgroundFlushIdleMillis = Long.getLong(
+            "org.neo4j.io.pagecache.impl.muninn.backgroundFlushIdleMillis", 100 );
+
     // Set this to true, to disable the Java version check in verifyHacks:
     private static final boolean allowAllJavaVersions = Boolean.getBoolean(
             "org.neo4j.io.pagecache.impl.muninn.allowAllJavaVersions" );
@@ -97,6 +126,7 @@ public class MuninnPageCache implements RunnablePageCache
     private final PageSwapperFactory swapperFactory;
     private final int cachePageSize;
     private final PageCacheMonitor monitor;
+    private final ThreadPoolExecutor readAheadExecutor;
     final MuninnPage[] pages;
 
     // Linked list of free pages
@@ -145,6 +175,13 @@ public class MuninnPageCache implements RunnablePageCache
             pageList = page;
         }
         freelist = new AtomicReference<>( pageList );
+
+        readAheadExecutor = new ThreadPoolExecutor(
+                readAheadThreads, readAheadThreads, 10, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>( readAheadQueueSize ),
+                new NamedThreadFactory( "MuninnPageCache-ReadAhead" ).setDaemon( true ),
+                new ThreadPoolExecutor.DiscardPolicy() );
+        readAheadExecutor.allowCoreThreadTimeOut( true );
     }
 
     static void verifyHacks()
@@ -213,13 +250,15 @@ public class MuninnPageCache implements RunnablePageCache
         }
 
         // there was no existing mapping
+        PageCacheMonitor fileMonitor = monitor instanceof PerFilePageCacheMonitor ?
+                ((PerFilePageCacheMonitor) monitor).mappedFile( file ) : monitor;
         MuninnPagedFile pagedFile = new MuninnPagedFile(
                 file,
                 this,
                 filePageSize,
                 swapperFactory,
                 freelist,
-                monitor );
+                fileMonitor );
         pagedFile.incrementRefCount();
         current = new FileMapping( file, pagedFile );
         current.next = mappedFiles;
@@ -269,17 +308,30 @@ public class MuninnPageCache implements RunnablePageCache
 
     private void flushAllPages() throws IOException
     {
+        // Flush file by file, so that the dirty pages are written in file page order,
+        // and adjacent pages are written together.
+        FileMapping current = mappedFiles;
+        while ( current != null )
+        {
+            current.pagedFile.flushDirtyPages();
+            current = current.next;
+        }
+
+        // Then catch any dirty page that was not reachable through the translation tables.
         for ( int i = 0; i < pages.length; i++ )
         {
             MuninnPage page = pages[i];
-            long stamp = page.writeLock();
-            try
-            {
-                page.flush();
-            }
-            finally
+            if ( page.isDirty() )
             {
-                page.unlockWrite( stamp );
+                long stamp = page.writeLock();
+                try
+                {
+                    page.flush();
+                }
+                finally
+                {
+                    page.unlockWrite( stamp );
+                }
             }
         }
     }
@@ -299,6 +351,7 @@ public class MuninnPageCache implements RunnablePageCache
         }
 
         closed = true;
+        readAheadExecutor.shutdownNow();
 
         for ( int i = 0; i < pages.length; i++ )
         {
@@ -342,6 +395,22 @@ public class MuninnPageCache implements RunnablePageCache
         }
     }
 
+    void readAhead( MuninnPagedFile pagedFile, long startFilePageId, int pageCount )
+    {
+        if ( closed )
+        {
+            return;
+        }
+        try
+        {
+            readAheadExecutor.execute( new ReadAhead( pagedFile, startFilePageId, pageCount ) );
+        }
+        catch ( RejectedExecutionException e )
+        {
+            // We raced with close(). Fine, we didn't need those pages anyway.
+        }
+    }
+
     /**
      * Runs the eviction algorithm. Must be run in a dedicated thread.
      */
@@ -354,6 +423,7 @@ public class MuninnPageCache implements RunnablePageCache
         // Once we have enough free pages, we park our thread. Page-faulting will
         // unpark our thread as needed.
         evictorThread = Thread.currentThread();
+        Thread flusherThread = backgroundFlush ? startBackgroundFlusher() : null;
         try
         {
             continuouslySweepPages();
@@ -362,6 +432,56 @@ public class MuninnPageCache implements RunnablePageCache
         {
             evictorException = e;
         }
+        finally
+        {
+            if ( flusherThread != null )
+            {
+                flusherThread.interrupt();
+            }
+        }
+    }
+
+    private Thread startBackgroundFlusher()
+    {
+        Thread thread = new Thread( "MuninnPageCache-BackgroundFlusher" )
+        {
+            @Override
+            public void run()
+            {
+                continuouslyFlushPages();
+            }
+        };
+        thread.setDaemon( true );
+        thread.start();
+        return thread;
+    }
+
+    private void continuouslyFlushPages()
+    {
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos( backgroundFlushIdleMillis );
+        Thread currentThread = Thread.currentThread();
+        while ( !currentThread.isInterrupted() && !closed )
+        {
+            long pagesWritten = 0;
+            FileMapping current = mappedFiles;
+            while ( current != null && !currentThread.isInterrupted() )
+            {
+                try
+                {
+                    pagesWritten += current.pagedFile.flushInBackground( backgroundFlushPagesPerSecond );
+                }
+                catch ( IOException e )
+                {
+                    // The file might have been unmapped underneath us. Otherwise the pages are still dirty,
+                    // so the problem will be reported by whoever flushes or evicts them next.
+                }
+                current = current.next;
+            }
+            if ( pagesWritten == 0 )
+            {
+                LockSupport.parkNanos( idleNanos );
+            }
+        }
     }
 
     private void continuouslySweepPages() throws IOException
@@ -442,8 +562,8 @@ public class MuninnPageCache implements RunnablePageCache
                     {
                         page.unlockWrite( stamp );
                     }
+                    // The swapper of the file reports the eviction to the monitor of the file
                     swapper.evicted( filePageId );
-                    monitor.evicted(filePageId, swapper);
 
                     MuninnPage next;
                     do
@@ -459,4 +579,40 @@ public class MuninnPageCache implements RunnablePageCache
         }
         return clockArm;
     }
+
+    /**
+     * Loads a range of pages of a file into free pages of the cache, ahead of a sequentially scanning cursor.
+     */
+    private static class ReadAhead implements Runnable
+    {
+        private final MuninnPagedFile pagedFile;
+        private final long startFilePageId;
+        private final int pageCount;
+
+        ReadAhead( MuninnPagedFile pagedFile, long startFilePageId, int pageCount )
+        {
+            this.pagedFile = pagedFile;
+            this.startFilePageId = startFilePageId;
+            this.pageCount = pageCount;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                long filePageId = startFilePageId;
+                long end = startFilePageId + pageCount;
+                while ( filePageId < end && pagedFile.prefetch( filePageId ) )
+                {
+                    filePageId++;
+                }
+            }
+            catch ( IOException | IllegalStateException e )
+            {
+                // Either the page cache or the file was closed underneath us, or the read failed.
+                // The cursor will run into the same problem, if it's a real one, and report it.
+            }
+        }
+    }
 }
@@ -25,8 +25,10 @@ import org.neo4j.io.pagecache.PageCursor;
 
 abstract class MuninnPageCursor implements PageCursor
 {
-    static final boolean monitorPinUnpin = Boolean.getBoolean(
-            "org.neo4j.io.pagecache.impl.muninn.MuninnPageCursor.monitorPinUnpin" );
+    // Pins are counted by the PageCacheCounters to compute hit ratios. That is cheap, since the counters don't pass
+    // the pin events on to the Monitors framework, but it can still be turned off for monitors that aren't as cheap.
+    static final boolean monitorPinUnpin = Boolean.parseBoolean( System.getProperty(
+            "org.neo4j.io.pagecache.impl.muninn.MuninnPageCursor.monitorPinUnpin", "true" ) );
 
     private final MuninnCursorFreelist freelist;
     public MuninnPageCursor nextFree;
@@ -19,20 +19,19 @@
  */
 package org.neo4j.io.enterprise.pagecache.impl.muninn;
 
-import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
 import org.neo4j.io.pagecache.PageEvictionCallback;
 import org.neo4j.io.enterprise.pagecache.impl.muninn.jsr166e.StampedLock;
 
 public class MuninnPageEvictionCallback implements PageEvictionCallback
 {
-    private final PrimitiveLongObjectMap<MuninnPage>[] translationTables;
+    private final TranslationTable translationTable;
     private final StampedLock[] translationTableLocks;
 
     public MuninnPageEvictionCallback(
-            PrimitiveLongObjectMap<MuninnPage>[] translationTables,
+            TranslationTable translationTable,
             StampedLock[] translationTableLocks )
     {
-        this.translationTables = translationTables;
+        this.translationTable = translationTable;
         this.translationTableLocks = translationTableLocks;
     }
 
@@ -41,7 +40,6 @@ public class MuninnPageEvictionCallback implements PageEvictionCallback
     {
         int stripe = (int) (pageId & MuninnPagedFile.translationTableStripeMask);
         StampedLock translationTableLock = translationTableLocks[stripe];
-        PrimitiveLongObjectMap<MuninnPage> translationTable = translationTables[stripe];
 
         // We use tryWriteLock here, because this call is in the way of
         // releasing new pages to the freelist. This means that threads might
@@ -53,7 +51,7 @@ public class MuninnPageEvictionCallback implements PageEvictionCallback
         // discover that a translation table has gone stale. In that case they
         // will do a page fault, and fix the translation table themselves.
         // As such, doing this clean up on eviction is not strictly necessary,
-        // though it helps keep the tables small.
+        // though it saves pinning threads from looking at evicted pages.
         long stamp = translationTableLock.tryWriteLock();
         if ( stamp != 0 )
         {
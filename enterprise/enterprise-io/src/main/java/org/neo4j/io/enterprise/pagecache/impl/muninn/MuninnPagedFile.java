@@ -23,8 +23,6 @@ import java.io.File;
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicReference;
 
-import org.neo4j.collection.primitive.Primitive;
-import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
 import org.neo4j.io.pagecache.PageCacheMonitor;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageEvictionCallback;
@@ -52,7 +50,7 @@ class MuninnPagedFile implements PagedFile
     final AtomicReference<MuninnPage> freelist;
     final PageCacheMonitor monitor;
 
-    final PrimitiveLongObjectMap<MuninnPage>[] translationTables;
+    final TranslationTable translationTable;
     final StampedLock[] translationTableLocks;
 
     final PageSwapper swapper;
@@ -77,22 +75,22 @@ class MuninnPagedFile implements PagedFile
         this.freelist = freelist;
         this.monitor = monitor;
 
-        // The translation table and its locks are striped to reduce lock
-        // contention.
+        // Looking up pages in the translation table takes no locks, but
+        // modifying it does. The locks are striped to reduce lock contention.
         // This is important as both eviction and page faulting will grab
         // these locks, and will hold them for the duration of their respective
         // operation.
-        translationTables = new PrimitiveLongObjectMap[translationTableStripeLevel];
+        translationTable = new TranslationTable();
         translationTableLocks = new StampedLock[translationTableStripeLevel];
         for ( int i = 0; i < translationTableStripeLevel; i++ )
         {
-            translationTables[i] = Primitive.longObjectMap( 32 );
             translationTableLocks[i] = new StampedLock();
         }
         PageEvictionCallback onEviction = new MuninnPageEvictionCallback(
-                translationTables, translationTableLocks );
-        swapper = new MonitoredPageSwapper( swapperFactory.createPageSwapper( file, pageSize, onEviction ), monitor );
-        flusher = new PageFlusher( swapper );
+                translationTable, translationTableLocks );
+        swapper = new MonitoredPageSwapper(
+                swapperFactory.createPageSwapper( file, pageSize, onEviction ), pageSize, monitor );
+        flusher = new PageFlusher( swapper, translationTable );
         initialiseLastPageId( swapper.getLastPageId() );
 
         readCursors = new MuninnCursorFreelist()
@@ -163,24 +161,29 @@ class MuninnPagedFile implements PagedFile
     @Override
     public void flush() throws IOException
     {
-        for ( int i = 0; i < translationTableStripeLevel; i++ )
-        {
-            PrimitiveLongObjectMap<MuninnPage> translationTable = translationTables[i];
-            StampedLock translationTableLock = translationTableLocks[i];
-
-            long stamp = translationTableLock.readLock();
-            try
-            {
-                translationTable.visitEntries( flusher );
-            }
-            finally
-            {
-                translationTableLock.unlockRead( stamp );
-            }
-        }
+        flushDirtyPages();
         force();
     }
 
+    /**
+     * Write all dirty pages of this file, in file page order, without forcing the file.
+     */
+    void flushDirtyPages() throws IOException
+    {
+        flusher.flush( true, 0 );
+    }
+
+    /**
+     * Write the dirty pages of this file that are not currently locked, at no more than the given rate,
+     * in file page order.
+     *
+     * @return the number of pages written.
+     */
+    long flushInBackground( long maxPagesPerSecond ) throws IOException
+    {
+        return flusher.flush( false, maxPagesPerSecond );
+    }
+
     @Override
     public void force() throws IOException
     {
@@ -241,4 +244,97 @@ class MuninnPagedFile implements PagedFile
     {
         pageCache.unparkEvictor();
     }
+
+    /**
+     * Ask the page cache to asynchronously load the given range of file pages, for a cursor that is
+     * scanning this file sequentially.
+     */
+    void readAhead( long startFilePageId, int pageCount )
+    {
+        pageCache.readAhead( this, startFilePageId, pageCount );
+    }
+
+    /**
+     * Load the given file page into a free page, unless it is already in the cache. This is only a
+     * hint, so rather than waiting for locks or free pages, we give up.
+     *
+     * @return {@code false} if there's no point in prefetching any more pages right now, because the file
+     * has been unmapped, we're beyond the end of the file, or we've run out of free pages.
+     */
+    boolean prefetch( long filePageId ) throws IOException
+    {
+        if ( getRefCount() == 0 || filePageId > lastPageId )
+        {
+            return false;
+        }
+
+        int stripe = (int) (filePageId & translationTableStripeMask);
+        StampedLock translationTableLock = translationTableLocks[stripe];
+
+        // Faulting cursors and the eviction callback takes these locks as well. We don't want to stand in their
+        // way, so if we cannot get the lock right away, then we just skip this page.
+        long stamp = translationTableLock.tryWriteLock();
+        if ( stamp == 0 )
+        {
+            return true;
+        }
+        try
+        {
+            MuninnPage page = translationTable.get( filePageId );
+            // Pages can only be bound to this file page while holding the translation table write lock,
+            // which we do, so a stale read here can only mean that the page is being evicted.
+            if ( page != null && page.isBoundTo( swapper, filePageId ) )
+            {
+                return true;
+            }
+
+            page = freelist.get();
+            while ( page != null && !freelist.compareAndSet( page, page.nextFree ) )
+            {
+                page = freelist.get();
+            }
+            if ( page == null )
+            {
+                pageCache.unparkEvictor();
+                return false;
+            }
+
+            long pageStamp = page.writeLock();
+            long startNanos = System.nanoTime();
+            try
+            {
+                page.initBuffer();
+                page.fault( swapper, filePageId );
+            }
+            catch ( IOException e )
+            {
+                page.evict();
+                page.unlockWrite( pageStamp );
+                returnFreePage( page );
+                throw e;
+            }
+            page.unlockWrite( pageStamp );
+            translationTable.put( filePageId, page );
+            // Give it one usage, so that it survives until the scanning cursor gets to it. Unlike faults by
+            // cursors there is no fault-bonus, so pages that are read ahead but never used go away quickly.
+            page.incrementUsage();
+            monitor.prefetched( filePageId, swapper, System.nanoTime() - startNanos );
+            return true;
+        }
+        finally
+        {
+            translationTableLock.unlockWrite( stamp );
+        }
+    }
+
+    private void returnFreePage( MuninnPage page )
+    {
+        MuninnPage next;
+        do
+        {
+            next = freelist.get();
+            page.nextFree = next;
+        }
+        while ( !freelist.compareAndSet( next, page ) );
+    }
 }
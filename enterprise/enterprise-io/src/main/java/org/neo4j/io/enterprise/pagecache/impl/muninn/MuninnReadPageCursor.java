@@ -22,19 +22,41 @@ package org.neo4j.io.enterprise.pagecache.impl.muninn;
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicReference;
 
-import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.enterprise.pagecache.impl.muninn.jsr166e.StampedLock;
 
 class MuninnReadPageCursor extends MuninnPageCursor
 {
+    // The read-ahead window starts out at this many pages, and doubles for every window of pages that are
+    // scanned sequentially, up to the max. Any non-sequential move resets it.
+    private static final int initialReadAheadWindow = Integer.getInteger(
+            "org.neo4j.io.pagecache.impl.muninn.MuninnReadPageCursor.initialReadAheadWindow", 8 );
+    private static final int maxReadAheadWindow = Integer.getInteger(
+            "org.neo4j.io.pagecache.impl.muninn.MuninnReadPageCursor.maxReadAheadWindow", 256 );
+
     private boolean optimisticLock;
 
+    // Read-ahead state, only used if the cursor was opened with PF_READ_AHEAD
+    private long previousPageId;
+    private long readAheadUpTo;
+    private int readAheadWindow;
+
     public MuninnReadPageCursor( MuninnCursorFreelist freelist )
     {
         super( freelist );
     }
 
+    @Override
+    public void rewind() throws IOException
+    {
+        super.rewind();
+        // Consider the first page as part of a sequential scan.
+        previousPageId = pageId - 1;
+        readAheadUpTo = pageId;
+        readAheadWindow = initialReadAheadWindow;
+    }
+
     @Override
     protected void unpinCurrentPage()
     {
@@ -74,35 +96,51 @@ class MuninnReadPageCursor extends MuninnPageCursor
         pin( nextPageId );
         currentPageId = nextPageId;
         nextPageId++;
+        if ( (pf_flags & PagedFile.PF_READ_AHEAD) != 0 )
+        {
+            readAhead();
+        }
         return true;
     }
 
+    private void readAhead()
+    {
+        if ( currentPageId != previousPageId + 1 )
+        {
+            // We jumped somewhere else in the file, so start over with a small window from here on.
+            readAheadWindow = initialReadAheadWindow;
+            readAheadUpTo = currentPageId + 1;
+        }
+        else if ( readAheadUpTo - currentPageId <= readAheadWindow / 2 )
+        {
+            // We've used up half of the pages we asked for, so ask for the next window, and grow it since
+            // we're evidently scanning sequentially.
+            long start = Math.max( readAheadUpTo, currentPageId + 1 );
+            long end = Math.min( currentPageId + 1 + readAheadWindow, lastPageId + 1 );
+            if ( start < end )
+            {
+                pagedFile.readAhead( start, (int) (end - start) );
+                readAheadUpTo = end;
+            }
+            readAheadWindow = Math.min( readAheadWindow * 2, maxReadAheadWindow );
+        }
+        previousPageId = currentPageId;
+    }
+
     private void pin( long filePageId ) throws IOException
     {
         int stripe = (int) (filePageId & MuninnPagedFile.translationTableStripeMask);
         StampedLock translationTableLock = pagedFile.translationTableLocks[stripe];
-        PrimitiveLongObjectMap<MuninnPage> translationTable = pagedFile.translationTables[stripe];
+        TranslationTable translationTable = pagedFile.translationTable;
         PageSwapper swapper = pagedFile.swapper;
         AtomicReference<MuninnPage> freelist = pagedFile.freelist;
-        MuninnPage page;
+        long stamp;
 
-        long stamp = translationTableLock.tryOptimisticRead();
-        page = translationTable.get( filePageId );
-        if ( !translationTableLock.validate( stamp ) )
-        {
-            // The optimistic lock failed... Try again with a proper read lock.
-            stamp = translationTableLock.readLock();
-            try
-            {
-                page = translationTable.get( filePageId );
-            }
-            finally
-            {
-                translationTableLock.unlockRead( stamp );
-            }
-        }
+        // Looking up the page doesn't need the translation table lock, but
+        // changing the table does.
+        MuninnPage page = translationTable.get( filePageId );
 
-        // The PrimitiveLongObjectMap returns null for unmapped keys, so in that case we
+        // The translation table returns null for unmapped pages, so in that case we
         // know with high probability that we are going to page fault.
         // The only reason this might not happen, is that we are racing on the same
         // exact fault with another thread, and that thread ends up winning the race.
@@ -206,7 +244,7 @@ class MuninnReadPageCursor extends MuninnPageCursor
      */
     void pageFault(
             long filePageId,
-            PrimitiveLongObjectMap<MuninnPage> translationTable,
+            TranslationTable translationTable,
             AtomicReference<MuninnPage> freelist,
             PageSwapper swapper ) throws IOException
     {
@@ -232,7 +270,9 @@ class MuninnReadPageCursor extends MuninnPageCursor
         // either be 1) free, 2) bound to our file, or 3) the page is write locked.
         lockStamp = page.writeLock();
         page.initBuffer();
+        long startNanos = System.nanoTime();
         page.fault( swapper, filePageId );
+        long faultNanos = System.nanoTime() - startNanos;
         long stamp = page.tryConvertToReadLock( lockStamp );
         assert stamp != 0: "Converting a write lock to a read lock should always succeed";
         lockStamp = stamp;
@@ -240,7 +280,7 @@ class MuninnReadPageCursor extends MuninnPageCursor
         translationTable.put( filePageId, page );
         pinCursorToPage( page, filePageId, swapper );
         page.incrementUsage(); // Add a second usage increment as a fault-bonus.
-        pagedFile.monitor.pageFaulted(filePageId, swapper);
+        pagedFile.monitor.pageFaulted( filePageId, swapper, faultNanos );
     }
 
     @Override
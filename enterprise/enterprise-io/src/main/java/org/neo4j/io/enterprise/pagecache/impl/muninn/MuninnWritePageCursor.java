@@ -22,7 +22,6 @@ package org.neo4j.io.enterprise.pagecache.impl.muninn;
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicReference;
 
-import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.enterprise.pagecache.impl.muninn.jsr166e.StampedLock;
@@ -80,28 +79,16 @@ class MuninnWritePageCursor extends MuninnPageCursor
     {
         int stripe = (int) (filePageId & MuninnPagedFile.translationTableStripeMask);
         StampedLock translationTableLock = pagedFile.translationTableLocks[stripe];
-        PrimitiveLongObjectMap<MuninnPage> translationTable = pagedFile.translationTables[stripe];
+        TranslationTable translationTable = pagedFile.translationTable;
         PageSwapper swapper = pagedFile.swapper;
         AtomicReference<MuninnPage> freelist = pagedFile.freelist;
-        MuninnPage page;
+        long stamp;
 
-        long stamp = translationTableLock.tryOptimisticRead();
-        page = translationTable.get( filePageId );
-        if ( !translationTableLock.validate( stamp ) )
-        {
-            // The optimistic lock failed... Try again with a proper read lock.
-            stamp = translationTableLock.readLock();
-            try
-            {
-                page = translationTable.get( filePageId );
-            }
-            finally
-            {
-                translationTableLock.unlockRead( stamp );
-            }
-        }
+        // Looking up the page doesn't need the translation table lock, but
+        // changing the table does.
+        MuninnPage page = translationTable.get( filePageId );
 
-        // The PrimitiveLongObjectMap returns null for unmapped keys, so in that case we
+        // The translation table returns null for unmapped pages, so in that case we
         // know with high probability that we are going to page fault.
         // The only reason this might not happen, is that we are racing on the same
         // exact fault with another thread, and that thread ends up winning the race.
@@ -205,7 +192,7 @@ class MuninnWritePageCursor extends MuninnPageCursor
      */
     void pageFault(
             long filePageId,
-            PrimitiveLongObjectMap<MuninnPage> translationTable,
+            TranslationTable translationTable,
             AtomicReference<MuninnPage> freelist,
             PageSwapper swapper ) throws IOException
     {
@@ -231,10 +218,20 @@ class MuninnWritePageCursor extends MuninnPageCursor
         // either be 1) free, 2) bound to our file, or 3) the page is write locked.
         lockStamp = page.writeLock();
         page.initBuffer();
+        if ( (pf_flags & PagedFile.PF_NO_FAULT) != 0 )
+        {
+            // The page is going to be overwritten in full, so there's no point in reading it in first.
+            page.bind( swapper, filePageId );
+            translationTable.put( filePageId, page );
+            pinCursorToPage( page, filePageId, swapper );
+            return;
+        }
+        long startNanos = System.nanoTime();
         page.fault( swapper, filePageId );
+        long faultNanos = System.nanoTime() - startNanos;
         translationTable.put( filePageId, page );
         pinCursorToPage( page, filePageId, swapper );
-        pagedFile.monitor.pageFaulted(filePageId, swapper);
+        pagedFile.monitor.pageFaulted( filePageId, swapper, faultNanos );
     }
 
     @Override
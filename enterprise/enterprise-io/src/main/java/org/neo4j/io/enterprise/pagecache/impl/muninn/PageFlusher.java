@@ -20,35 +20,166 @@
 package org.neo4j.io.enterprise.pagecache.impl.muninn;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import org.neo4j.collection.primitive.PrimitiveLongObjectVisitor;
 import org.neo4j.io.pagecache.PageSwapper;
 
+/**
+ * Flushes the dirty pages of a file in the order of their file page ids, and writes runs of adjacent dirty
+ * pages with a single vectored write. This turns what would otherwise be random single page writes into
+ * mostly sequential IO.
+ */
 public class PageFlusher implements PrimitiveLongObjectVisitor<MuninnPage>
 {
+    // Upper bound on the number of pages written by a single vectored write.
+    private static final int maxPagesPerWrite = Integer.getInteger(
+            "org.neo4j.io.pagecache.impl.muninn.PageFlusher.maxPagesPerWrite", 64 );
+
     private final PageSwapper swapper;
+    private final TranslationTable translationTable;
 
-    public PageFlusher( PageSwapper swapper )
+    // The state below is only accessed while holding the monitor of this flusher
+    private long[] dirtyPageIds = new long[32];
+    private MuninnPage[] dirtyPages = new MuninnPage[32];
+    private int dirtyPageCount;
+    private final MuninnPage[] run = new MuninnPage[maxPagesPerWrite];
+    private final long[] runStamps = new long[maxPagesPerWrite];
+    private int runLength;
+    private long runStartFilePageId;
+
+    public PageFlusher( PageSwapper swapper, TranslationTable translationTable )
     {
         this.swapper = swapper;
+        this.translationTable = translationTable;
+    }
+
+    /**
+     * Write the dirty pages of the file, but don't force the file.
+     *
+     * @param blocking whether to wait for page locks or not. A blocking flush writes every page that is dirty
+     * when this method is called. A non-blocking flush skips pages that are locked, because those are likely
+     * to be written to again soon anyway.
+     * @param maxPagesPerSecond the maximum rate at which to write pages, or {@code 0} for no limit.
+     * A rate limited flush stops early if the thread is interrupted.
+     * @return the number of pages written.
+     */
+    public synchronized long flush( boolean blocking, long maxPagesPerSecond ) throws IOException
+    {
+        collectDirtyPages();
+        long startTime = System.nanoTime();
+        long pagesWritten = 0;
+        try
+        {
+            for ( int i = 0; i < dirtyPageCount; i++ )
+            {
+                long filePageId = dirtyPageIds[i];
+                if ( runLength > 0 && (runLength == maxPagesPerWrite || filePageId != runStartFilePageId + runLength) )
+                {
+                    pagesWritten += writeRun();
+                    if ( maxPagesPerSecond > 0 && !throttle( startTime, pagesWritten, maxPagesPerSecond ) )
+                    {
+                        return pagesWritten;
+                    }
+                }
+                addToRun( filePageId, dirtyPages[i], blocking );
+            }
+            pagesWritten += writeRun();
+            return pagesWritten;
+        }
+        finally
+        {
+            unlockRun();
+            Arrays.fill( dirtyPages, 0, dirtyPageCount, null );
+        }
+    }
+
+    private void collectDirtyPages()
+    {
+        // The translation table visits its entries in file page id order, so the dirty pages come out sorted
+        dirtyPageCount = 0;
+        translationTable.visitEntries( this );
     }
 
     @Override
     public void visited( long filePageId, MuninnPage page )
     {
-        long stamp = page.readLock();
-        try
+        // This is only a hint, which we'll check again once we have the page lock
+        if ( page.isDirty() && page.isBoundTo( swapper, filePageId ) )
         {
-            page.flush( swapper, filePageId );
+            if ( dirtyPageCount == dirtyPageIds.length )
+            {
+                dirtyPageIds = Arrays.copyOf( dirtyPageIds, dirtyPageCount * 2 );
+                dirtyPages = Arrays.copyOf( dirtyPages, dirtyPageCount * 2 );
+            }
+            dirtyPageIds[dirtyPageCount] = filePageId;
+            dirtyPages[dirtyPageCount] = page;
+            dirtyPageCount++;
         }
-        catch ( IOException e )
+    }
+
+    private void addToRun( long filePageId, MuninnPage page, boolean blocking )
+    {
+        long stamp = blocking ? page.readLock() : page.tryReadLock();
+        if ( stamp == 0 )
         {
-            // TODO throw something better, here...
-            throw new RuntimeException( e );
+            return;
         }
-        finally
+        if ( !page.isDirty() || !page.isBoundTo( swapper, filePageId ) )
         {
+            // Someone else flushed or evicted it since we collected it
             page.unlockRead( stamp );
+            return;
+        }
+        if ( runLength == 0 )
+        {
+            runStartFilePageId = filePageId;
+        }
+        run[runLength] = page;
+        runStamps[runLength] = stamp;
+        runLength++;
+    }
+
+    private long writeRun() throws IOException
+    {
+        int length = runLength;
+        if ( length == 0 )
+        {
+            return 0;
+        }
+        swapper.write( runStartFilePageId, run, length );
+        for ( int i = 0; i < length; i++ )
+        {
+            run[i].markAsClean();
+        }
+        unlockRun();
+        return length;
+    }
+
+    private void unlockRun()
+    {
+        for ( int i = 0; i < runLength; i++ )
+        {
+            run[i].unlockRead( runStamps[i] );
+            run[i] = null;
+        }
+        runLength = 0;
+    }
+
+    private static boolean throttle( long startTime, long pagesWritten, long maxPagesPerSecond )
+    {
+        long targetTime = startTime + TimeUnit.SECONDS.toNanos( pagesWritten ) / maxPagesPerSecond;
+        long waitNanos;
+        while ( (waitNanos = targetTime - System.nanoTime()) > 0 )
+        {
+            LockSupport.parkNanos( waitNanos );
+            if ( Thread.currentThread().isInterrupted() )
+            {
+                return false;
+            }
         }
+        return true;
     }
 }
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.enterprise.pagecache.impl.muninn;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.neo4j.collection.primitive.PrimitiveLongObjectVisitor;
+
+/**
+ * Translates the file page ids of a mapped file into the cache pages they are bound to.
+ * <p>
+ * The table is an array indexed directly by file page id, split into fixed size chunks that are allocated on
+ * demand, as pages are faulted into the corresponding ranges of the file. The directory of chunks is only ever
+ * replaced with a copy that has one more chunk installed, using compare-and-set, so lookups never take any locks:
+ * a lookup is a volatile read of the directory followed by a volatile read of the entry.
+ * <p>
+ * Entries are hints. A page found in the table must still be checked with {@link MuninnPage#isBoundTo}, under
+ * the page lock, before it can be used, since it might have been evicted and rebound since it was put in the
+ * table. Modifications must happen while holding the translation table lock stripe of the file page id, to make
+ * sure that any given file page is only faulted into one cache page.
+ */
+final class TranslationTable
+{
+    private static final int chunkShift = Integer.getInteger(
+            "org.neo4j.io.pagecache.impl.muninn.TranslationTable.chunkShift", 12 );
+    private static final int chunkSize = 1 << chunkShift;
+    private static final int chunkMask = chunkSize - 1;
+
+    @SuppressWarnings( "unchecked" )
+    private final AtomicReference<AtomicReferenceArray<MuninnPage>[]> directory =
+            new AtomicReference<AtomicReferenceArray<MuninnPage>[]>( new AtomicReferenceArray[0] );
+
+    public MuninnPage get( long filePageId )
+    {
+        AtomicReferenceArray<MuninnPage> chunk = chunk( directory.get(), filePageId );
+        return chunk == null ? null : chunk.get( (int) (filePageId & chunkMask) );
+    }
+
+    public void put( long filePageId, MuninnPage page )
+    {
+        AtomicReferenceArray<MuninnPage> chunk = chunk( directory.get(), filePageId );
+        if ( chunk == null )
+        {
+            chunk = installChunk( filePageId );
+        }
+        chunk.set( (int) (filePageId & chunkMask), page );
+    }
+
+    public void remove( long filePageId )
+    {
+        AtomicReferenceArray<MuninnPage> chunk = chunk( directory.get(), filePageId );
+        if ( chunk != null )
+        {
+            chunk.set( (int) (filePageId & chunkMask), null );
+        }
+    }
+
+    /**
+     * Visit all the entries of the table, in ascending order of file page id. Entries that are put or removed
+     * concurrently with the visit may or may not be seen.
+     */
+    public void visitEntries( PrimitiveLongObjectVisitor<MuninnPage> visitor )
+    {
+        AtomicReferenceArray<MuninnPage>[] chunks = directory.get();
+        for ( int chunkIndex = 0; chunkIndex < chunks.length; chunkIndex++ )
+        {
+            AtomicReferenceArray<MuninnPage> chunk = chunks[chunkIndex];
+            if ( chunk == null )
+            {
+                continue;
+            }
+            long baseFilePageId = ((long) chunkIndex) << chunkShift;
+            for ( int i = 0; i < chunkSize; i++ )
+            {
+                MuninnPage page = chunk.get( i );
+                if ( page != null )
+                {
+                    visitor.visited( baseFilePageId + i, page );
+                }
+            }
+        }
+    }
+
+    private static AtomicReferenceArray<MuninnPage> chunk(
+            AtomicReferenceArray<MuninnPage>[] chunks, long filePageId )
+    {
+        long chunkIndex = filePageId >>> chunkShift;
+        return chunkIndex < chunks.length ? chunks[(int) chunkIndex] : null;
+    }
+
+    private AtomicReferenceArray<MuninnPage> installChunk( long filePageId )
+    {
+        int chunkIndex = (int) (filePageId >>> chunkShift);
+        AtomicReferenceArray<MuninnPage> newChunk = null;
+        for (;;)
+        {
+            AtomicReferenceArray<MuninnPage>[] chunks = directory.get();
+            AtomicReferenceArray<MuninnPage> chunk = chunk( chunks, filePageId );
+            if ( chunk != null )
+            {
+                // Someone else, putting a page for a different stripe, installed it ahead of us.
+                return chunk;
+            }
+            if ( newChunk == null )
+            {
+                newChunk = new AtomicReferenceArray<>( chunkSize );
+            }
+            // Installing a chunk copies the directory, but that only happens once for every chunkSize pages,
+            // and the directory itself is small. Any chunk installed concurrently is part of the copy we CAS
+            // against, so no installation is ever lost.
+            int length = Math.max( chunks.length, chunkIndex + 1 );
+            AtomicReferenceArray<MuninnPage>[] newChunks = Arrays.copyOf( chunks, length );
+            newChunks[chunkIndex] = newChunk;
+            if ( directory.compareAndSet( chunks, newChunks ) )
+            {
+                return newChunk;
+            }
+        }
+    }
+}
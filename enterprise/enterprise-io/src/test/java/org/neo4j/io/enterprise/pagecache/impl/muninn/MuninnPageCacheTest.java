@@ -39,20 +39,24 @@ import org.neo4j.io.pagecache.RecordingPageCacheMonitor;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 import static org.neo4j.io.pagecache.PagedFile.PF_EXCLUSIVE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_LOCK;
 import static org.neo4j.io.pagecache.RecordingPageCacheMonitor.Evict;
 import static org.neo4j.io.pagecache.RecordingPageCacheMonitor.Fault;
+import static org.neo4j.io.pagecache.RecordingPageCacheMonitor.Prefetch;
 
 public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
 {
     static {
-        // This is disabled by default, but we have tests that verify that
-        // pinned and unpinned are called correctly.
+        // This is enabled by default, but we have tests that verify that
+        // pinned and unpinned are called correctly, so make sure it stays on.
         // Setting this property here in the test class should ensure that
         // it is set before the MuninnPageCache classes are loaded, and
         // thus before they check this value.
@@ -250,4 +254,111 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         assertThat( buf.getLong(), is( 42L ) );
         assertThat( buf.getLong(), is( y ) );
     }
+
+    @Test
+    public void mustNotReadPageFromFileWhenPinningWithNoFault() throws Exception
+    {
+        writeInitialDataTo( file );
+        RecordingPageCacheMonitor monitor = new RecordingPageCacheMonitor();
+
+        MuninnPageCache pageCache = new MuninnPageCache( fs, 2, 8, monitor );
+        PagedFile pagedFile = pageCache.map( file, 8 );
+
+        try ( PageCursor cursor = pagedFile.io( 0, PF_EXCLUSIVE_LOCK | PF_NO_FAULT ) )
+        {
+            assertTrue( cursor.next() );
+            assertThat( cursor.getLong(), is( 0L ) );
+            cursor.setOffset( 0 );
+            cursor.putLong( 42L );
+        }
+        assertNull( monitor.tryObserve( Fault.class ) );
+
+        int clockArm = pageCache.evictPages( 1, 0 );
+        assertThat( clockArm, is( 1 ) );
+
+        ByteBuffer buf = ByteBuffer.allocate( 16 );
+        StoreChannel channel = fs.open( file, "r" );
+        channel.read( buf );
+        buf.flip();
+        assertThat( buf.getLong(), is( 42L ) );
+        assertThat( buf.getLong(), is( y ) );
+    }
+
+    @Test( timeout = 10000 )
+    public void mustReadAheadFollowingPagesWhenScanningWithReadAhead() throws Exception
+    {
+        int pageCount = 16;
+        StoreChannel channel = fs.create( file );
+        ByteBuffer buf = ByteBuffer.allocate( 8 * pageCount );
+        for ( int i = 0; i < pageCount; i++ )
+        {
+            buf.putLong( i );
+        }
+        buf.flip();
+        channel.writeAll( buf );
+        channel.close();
+        RecordingPageCacheMonitor monitor = new RecordingPageCacheMonitor();
+
+        MuninnPageCache pageCache = new MuninnPageCache( fs, pageCount * 2, 8, monitor );
+        PagedFile pagedFile = pageCache.map( file, 8 );
+
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_LOCK | PF_READ_AHEAD ) )
+        {
+            assertTrue( cursor.next() );
+            assertThat( monitor.observe( Fault.class ).pageId, is( 0L ) );
+            // The next page gets prefetched by the read-ahead, without the cursor moving there
+            assertThat( monitor.observe( Prefetch.class ).pageId, is( 1L ) );
+
+            long expected = 0;
+            do
+            {
+                long value;
+                do
+                {
+                    cursor.setOffset( 0 );
+                    value = cursor.getLong();
+                }
+                while ( cursor.shouldRetry() );
+                assertThat( value, is( expected ) );
+                expected++;
+            }
+            while ( cursor.next() );
+            assertThat( expected, is( (long) pageCount ) );
+        }
+        pageCache.unmap( file );
+    }
+
+    @Test
+    public void flushMustWriteDirtyPagesInAnyOrderToTheirFilePages() throws Exception
+    {
+        int pageCount = 8;
+        MuninnPageCache pageCache = new MuninnPageCache( fs, pageCount * 2, 8, PageCacheMonitor.NULL );
+        PagedFile pagedFile = pageCache.map( file, 8 );
+
+        // Dirty the pages backwards, and leave a gap, so the flush has to both sort and split the runs
+        for ( int i = pageCount - 1; i >= 0; i-- )
+        {
+            if ( i == 3 )
+            {
+                continue;
+            }
+            try ( PageCursor cursor = pagedFile.io( i, PF_EXCLUSIVE_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+                cursor.putLong( i + 1 );
+            }
+        }
+        pagedFile.flush();
+
+        ByteBuffer buf = ByteBuffer.allocate( 8 * pageCount );
+        StoreChannel channel = fs.open( file, "r" );
+        channel.read( buf );
+        channel.close();
+        buf.flip();
+        for ( int i = 0; i < pageCount; i++ )
+        {
+            assertThat( buf.getLong(), is( i == 3 ? 0L : i + 1L ) );
+        }
+        pageCache.unmap( file );
+    }
 }
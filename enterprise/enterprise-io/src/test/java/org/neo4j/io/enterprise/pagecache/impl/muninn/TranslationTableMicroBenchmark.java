@@ -0,0 +1,317 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.enterprise.pagecache.impl.muninn;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
+import org.neo4j.io.enterprise.pagecache.impl.muninn.jsr166e.StampedLock;
+
+import static java.lang.System.nanoTime;
+
+/**
+ * Compares the lookup throughput of the {@link TranslationTable} with the striped and locked hopscotch maps that
+ * Muninn used to translate file page ids with, under an increasing number of reader threads.
+ * <p>
+ * Run with -DminThreads, -DmaxThreads (doubled for every round, 1 to 64 by default), -Dpages (number of mapped
+ * pages, 1M by default), -Dlookups (lookups per thread, 10M by default) and -Dchurn=true to have a thread
+ * continuously remove and put entries back, like eviction and page faulting would.
+ */
+public class TranslationTableMicroBenchmark
+{
+    public static void main( String... args ) throws Exception
+    {
+        int minThreads = Integer.getInteger( "minThreads", 1 );
+        int maxThreads = Integer.getInteger( "maxThreads", 64 );
+        int pages = Integer.getInteger( "pages", 1_000_000 );
+        int lookups = Integer.getInteger( "lookups", 10_000_000 );
+        boolean churn = Boolean.getBoolean( "churn" );
+
+        for ( Implementation impl : Implementation.values() )
+        {
+            Table table = impl.create();
+            MuninnPage page = new MuninnPage( 8 );
+            for ( long filePageId = 0; filePageId < pages; filePageId++ )
+            {
+                table.put( filePageId, page );
+            }
+            // Warm up
+            execute( table, minThreads, pages, lookups, churn );
+            for ( int threads = minThreads; threads <= maxThreads; threads *= 2 )
+            {
+                double opsPerSecond = execute( table, threads, pages, lookups, churn );
+                System.out.printf( "%s - %s threads: %.1f million lookups/s%n", impl, threads, opsPerSecond / 1e6 );
+            }
+        }
+    }
+
+    enum Implementation
+    {
+        STRIPED_HOPSCOTCH
+                {
+                    @Override
+                    Table create()
+                    {
+                        return new StripedTable();
+                    }
+                },
+        CHUNKED_ARRAY
+                {
+                    @Override
+                    Table create()
+                    {
+                        return new ChunkedTable();
+                    }
+                };
+
+        abstract Table create();
+    }
+
+    interface Table
+    {
+        MuninnPage get( long filePageId );
+
+        void put( long filePageId, MuninnPage page );
+
+        void remove( long filePageId );
+    }
+
+    /**
+     * The translation table design that the {@link TranslationTable} replaces: 256 hopscotch maps, each guarded by
+     * a stamped lock that lookups read optimistically.
+     */
+    static class StripedTable implements Table
+    {
+        private static final int stripes = 256;
+        private final PrimitiveLongObjectMap<MuninnPage>[] maps;
+        private final StampedLock[] locks;
+
+        @SuppressWarnings( "unchecked" )
+        StripedTable()
+        {
+            maps = new PrimitiveLongObjectMap[stripes];
+            locks = new StampedLock[stripes];
+            for ( int i = 0; i < stripes; i++ )
+            {
+                maps[i] = Primitive.longObjectMap( 32 );
+                locks[i] = new StampedLock();
+            }
+        }
+
+        @Override
+        public MuninnPage get( long filePageId )
+        {
+            int stripe = (int) (filePageId & (stripes - 1));
+            StampedLock lock = locks[stripe];
+            PrimitiveLongObjectMap<MuninnPage> map = maps[stripe];
+            long stamp = lock.tryOptimisticRead();
+            MuninnPage page = map.get( filePageId );
+            if ( !lock.validate( stamp ) )
+            {
+                stamp = lock.readLock();
+                try
+                {
+                    page = map.get( filePageId );
+                }
+                finally
+                {
+                    lock.unlockRead( stamp );
+                }
+            }
+            return page;
+        }
+
+        @Override
+        public void put( long filePageId, MuninnPage page )
+        {
+            int stripe = (int) (filePageId & (stripes - 1));
+            long stamp = locks[stripe].writeLock();
+            try
+            {
+                maps[stripe].put( filePageId, page );
+            }
+            finally
+            {
+                locks[stripe].unlockWrite( stamp );
+            }
+        }
+
+        @Override
+        public void remove( long filePageId )
+        {
+            int stripe = (int) (filePageId & (stripes - 1));
+            long stamp = locks[stripe].writeLock();
+            try
+            {
+                maps[stripe].remove( filePageId );
+            }
+            finally
+            {
+                locks[stripe].unlockWrite( stamp );
+            }
+        }
+    }
+
+    /**
+     * The {@link TranslationTable}, with modifications under the same striped locks as in {@link MuninnPagedFile}.
+     */
+    static class ChunkedTable implements Table
+    {
+        private final TranslationTable table = new TranslationTable();
+        private final StampedLock[] locks = new StampedLock[MuninnPagedFile.translationTableStripeLevel];
+
+        ChunkedTable()
+        {
+            for ( int i = 0; i < locks.length; i++ )
+            {
+                locks[i] = new StampedLock();
+            }
+        }
+
+        @Override
+        public MuninnPage get( long filePageId )
+        {
+            return table.get( filePageId );
+        }
+
+        @Override
+        public void put( long filePageId, MuninnPage page )
+        {
+            StampedLock lock = locks[(int) (filePageId & MuninnPagedFile.translationTableStripeMask)];
+            long stamp = lock.writeLock();
+            try
+            {
+                table.put( filePageId, page );
+            }
+            finally
+            {
+                lock.unlockWrite( stamp );
+            }
+        }
+
+        @Override
+        public void remove( long filePageId )
+        {
+            StampedLock lock = locks[(int) (filePageId & MuninnPagedFile.translationTableStripeMask)];
+            long stamp = lock.writeLock();
+            try
+            {
+                table.remove( filePageId );
+            }
+            finally
+            {
+                lock.unlockWrite( stamp );
+            }
+        }
+    }
+
+    private static double execute( final Table table, int threadCount, final int pages, final int lookups,
+                                   boolean churn ) throws InterruptedException
+    {
+        final CountDownLatch start = new CountDownLatch( 1 );
+        final AtomicBoolean stopChurn = new AtomicBoolean();
+        Thread[] readers = new Thread[threadCount];
+        for ( int i = 0; i < threadCount; i++ )
+        {
+            readers[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    ThreadLocalRandom rng = ThreadLocalRandom.current();
+                    int found = 0;
+                    awaitUninterruptibly( start );
+                    for ( int j = 0; j < lookups; j++ )
+                    {
+                        if ( table.get( rng.nextInt( pages ) ) != null )
+                        {
+                            found++;
+                        }
+                    }
+                    if ( found < 0 )
+                    {
+                        // Never true; keeps the JIT from eliminating the lookups
+                        System.out.println( found );
+                    }
+                }
+            };
+            readers[i].start();
+        }
+        Thread churner = null;
+        if ( churn )
+        {
+            churner = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    ThreadLocalRandom rng = ThreadLocalRandom.current();
+                    MuninnPage page = new MuninnPage( 8 );
+                    awaitUninterruptibly( start );
+                    while ( !stopChurn.get() )
+                    {
+                        long filePageId = rng.nextInt( pages );
+                        table.remove( filePageId );
+                        table.put( filePageId, page );
+                    }
+                }
+            };
+            churner.start();
+        }
+
+        long startTime = nanoTime();
+        start.countDown();
+        for ( Thread reader : readers )
+        {
+            reader.join();
+        }
+        long elapsedNanos = nanoTime() - startTime;
+        stopChurn.set( true );
+        if ( churner != null )
+        {
+            churner.join();
+        }
+        return ((double) threadCount) * lookups * 1_000_000_000L / elapsedNanos;
+    }
+
+    private static void awaitUninterruptibly( CountDownLatch latch )
+    {
+        boolean interrupted = false;
+        for (;;)
+        {
+            try
+            {
+                latch.await();
+                break;
+            }
+            catch ( InterruptedException e )
+            {
+                interrupted = true;
+            }
+        }
+        if ( interrupted )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
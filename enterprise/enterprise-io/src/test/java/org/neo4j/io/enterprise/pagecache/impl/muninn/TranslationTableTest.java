@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.enterprise.pagecache.impl.muninn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import org.neo4j.collection.primitive.PrimitiveLongObjectVisitor;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+public class TranslationTableTest
+{
+    @Test
+    public void shouldReturnNullForPagesThatWereNeverPut() throws Exception
+    {
+        TranslationTable table = new TranslationTable();
+        table.put( 3, new MuninnPage( 8 ) );
+
+        assertNull( table.get( 0 ) );
+        assertNull( table.get( 4 ) );
+        assertNull( table.get( 1L << 40 ) );
+    }
+
+    @Test
+    public void shouldGetPagesPutFarApart() throws Exception
+    {
+        TranslationTable table = new TranslationTable();
+        MuninnPage a = new MuninnPage( 8 );
+        MuninnPage b = new MuninnPage( 8 );
+        MuninnPage c = new MuninnPage( 8 );
+
+        table.put( 1_000_000, c );
+        table.put( 0, a );
+        table.put( 4097, b );
+
+        assertThat( table.get( 0 ), sameInstance( a ) );
+        assertThat( table.get( 4097 ), sameInstance( b ) );
+        assertThat( table.get( 1_000_000 ), sameInstance( c ) );
+
+        table.remove( 4097 );
+        assertNull( table.get( 4097 ) );
+        assertThat( table.get( 1_000_000 ), sameInstance( c ) );
+    }
+
+    @Test
+    public void shouldVisitEntriesInFilePageIdOrder() throws Exception
+    {
+        TranslationTable table = new TranslationTable();
+        long[] filePageIds = {70_000, 5, 4096, 1, 12_345};
+        for ( long filePageId : filePageIds )
+        {
+            table.put( filePageId, new MuninnPage( 8 ) );
+        }
+
+        final List<Long> visited = new ArrayList<>();
+        table.visitEntries( new PrimitiveLongObjectVisitor<MuninnPage>()
+        {
+            @Override
+            public void visited( long key, MuninnPage value )
+            {
+                visited.add( key );
+            }
+        } );
+
+        assertThat( visited.toString(), is( "[1, 5, 4096, 12345, 70000]" ) );
+    }
+
+    @Test( timeout = 60000 )
+    public void shouldNotLoseEntriesWhenChunksAreInstalledConcurrently() throws Exception
+    {
+        final TranslationTable table = new TranslationTable();
+        final int threads = 8;
+        final int pagesPerThread = 50_000;
+        final MuninnPage page = new MuninnPage( 8 );
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for ( int i = 0; i < threads; i++ )
+            {
+                final int offset = i;
+                futures.add( executor.submit( new Callable<Void>()
+                {
+                    @Override
+                    public Void call() throws Exception
+                    {
+                        // Interleave the threads, so they all race to install the same chunks
+                        for ( long filePageId = offset; filePageId < threads * pagesPerThread; filePageId += threads )
+                        {
+                            table.put( filePageId, page );
+                        }
+                        return null;
+                    }
+                } ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        for ( long filePageId = 0; filePageId < threads * pagesPerThread; filePageId++ )
+        {
+            assertThat( "filePageId " + filePageId, table.get( filePageId ), sameInstance( page ) );
+        }
+    }
+}
@@ -263,6 +263,17 @@ public enum HaRequestType210 implements RequestType<Master>
         }
     }, INTEGER_SERIALIZER ),
 
+    // ====
+    AWAIT_UPDATES( new TargetCaller<Master, Void>()
+    {
+        @Override
+        public Response<Void> call( Master master, RequestContext context, ChannelBuffer input,
+                ChannelBuffer target )
+        {
+            return master.awaitUpdates( context, input.readLong() );
+        }
+    }, VOID_SERIALIZER ),
+
     ;
 
 
@@ -72,9 +72,26 @@ public class HaSettings
     public static final Setting<Long> com_chunk_size =
             setting( "ha.com_chunk_size", BYTES, "2M", min( 1024L ) );
 
+    @Description( "Whether or not slaves compress the data chunks they exchange with the master. Trades CPU for " +
+            "bandwidth, which pays off on slow networks and with big transactions or store copies. Only enable " +
+            "when all instances in the cluster are of a version supporting it." )
+    public static final Setting<Boolean> com_chunk_compression =
+            setting( "ha.com_chunk_compression", BOOLEAN, Settings.FALSE );
+
     @Description( "Interval of pulling updates from master." )
     public static final Setting<Long> pull_interval = setting( "ha.pull_interval", DURATION, "0s" );
 
+    @Description( "Whether slaves should keep a pull request outstanding at the master, which the master answers " +
+            "as soon as new transactions have been committed, instead of pulling updates every ha.pull_interval. " +
+            "Requires all cluster members to support it, otherwise slaves fall back to pulling at ha.pull_interval." )
+    public static final Setting<Boolean> pull_updates_streaming =
+            setting( "ha.pull_updates_streaming", BOOLEAN, Settings.FALSE );
+
+    @Description( "How long the master holds on to a streaming pull request from a slave that is up to date before " +
+            "answering it without any transactions. Should be lower than ha.lock_read_timeout." )
+    public static final Setting<Long> pull_updates_max_wait =
+            setting( "ha.pull_updates_max_wait", DURATION, "5s" );
+
     @Description( "The amount of slaves the master will ask to replicate a committed transaction. " )
     public static final Setting<Integer> tx_push_factor = setting( "ha.tx_push_factor", INTEGER, "1", min( 0 ) );
 
@@ -308,6 +308,13 @@ public class MasterClient201 extends Client<Master> implements MasterClient
         return sendRequest( HaRequestType201.PULL_UPDATES, context, EMPTY_SERIALIZER, VOID_DESERIALIZER );
     }
 
+    @Override
+    public Response<Void> awaitUpdates( RequestContext context, long maxWaitMillis )
+    {
+        throw new UnsupportedOperationException( "Streaming updates isn't supported by protocol version " +
+                PROTOCOL_VERSION );
+    }
+
     @Override
     public Response<HandshakeResult> handshake( final long txId, StoreId storeId )
     {
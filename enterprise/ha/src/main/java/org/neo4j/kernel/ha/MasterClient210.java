@@ -75,8 +75,24 @@ public class MasterClient210 extends Client<Master> implements MasterClient
     public MasterClient210( String hostNameOrIp, int port, Logging logging, Monitors monitors, StoreId storeId,
                             long readTimeoutSeconds, long lockReadTimeout, int maxConcurrentChannels, int chunkSize )
     {
-        super( hostNameOrIp, port, logging, monitors, storeId, MasterServer.FRAME_LENGTH, PROTOCOL_VERSION,
-                readTimeoutSeconds, maxConcurrentChannels, chunkSize );
+        this( hostNameOrIp, port, logging, monitors, storeId, readTimeoutSeconds, lockReadTimeout,
+                maxConcurrentChannels, chunkSize, false );
+    }
+
+    public MasterClient210( String hostNameOrIp, int port, Logging logging, Monitors monitors, StoreId storeId,
+                            long readTimeoutSeconds, long lockReadTimeout, int maxConcurrentChannels, int chunkSize,
+                            boolean compressChunks )
+    {
+        this( hostNameOrIp, port, logging, monitors, storeId, readTimeoutSeconds, lockReadTimeout,
+                maxConcurrentChannels, chunkSize, compressChunks, PROTOCOL_VERSION );
+    }
+
+    protected MasterClient210( String hostNameOrIp, int port, Logging logging, Monitors monitors, StoreId storeId,
+                               long readTimeoutSeconds, long lockReadTimeout, int maxConcurrentChannels,
+                               int chunkSize, boolean compressChunks, byte protocolVersion )
+    {
+        super( hostNameOrIp, port, logging, monitors, storeId, MasterServer.FRAME_LENGTH, protocolVersion,
+                readTimeoutSeconds, maxConcurrentChannels, chunkSize, compressChunks );
         this.lockReadTimeout = lockReadTimeout;
         this.monitor = monitors.newMonitor( ByteCounterMonitor.class, getClass() );
     }
@@ -89,7 +105,7 @@ public class MasterClient210 extends Client<Master> implements MasterClient
         {
             return lockReadTimeout;
         }
-        if ( specificType == HaRequestType210.COPY_STORE )
+        if ( specificType == HaRequestType210.COPY_STORE || specificType == HaRequestType210.AWAIT_UPDATES )
         {
             return readTimeout * 2;
         }
@@ -249,6 +265,13 @@ public class MasterClient210 extends Client<Master> implements MasterClient
         return sendRequest( HaRequestType210.PULL_UPDATES, context, EMPTY_SERIALIZER, VOID_DESERIALIZER );
     }
 
+    @Override
+    public Response<Void> awaitUpdates( RequestContext context, long maxWaitMillis )
+    {
+        throw new UnsupportedOperationException( "Streaming updates isn't supported by protocol version " +
+                PROTOCOL_VERSION );
+    }
+
     @Override
     public Response<HandshakeResult> handshake( final long txId, StoreId storeId )
     {
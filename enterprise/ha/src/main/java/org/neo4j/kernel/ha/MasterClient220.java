@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.ha;
+
+import java.io.IOException;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+
+import org.neo4j.com.RequestContext;
+import org.neo4j.com.Response;
+import org.neo4j.com.Serializer;
+import org.neo4j.kernel.ha.com.master.Master;
+import org.neo4j.kernel.impl.nioneo.store.StoreId;
+import org.neo4j.kernel.logging.Logging;
+import org.neo4j.kernel.monitoring.Monitors;
+
+import static org.neo4j.com.Protocol.VOID_DESERIALIZER;
+
+/**
+ * The {@link Master} a slave should use to communicate with its master. It
+ * serializes requests and sends them to the master, more specifically
+ * {@link org.neo4j.kernel.ha.com.master.MasterServer} (which delegates to
+ * {@link org.neo4j.kernel.ha.com.master.MasterImpl}
+ * on the master side.
+ */
+public class MasterClient220 extends MasterClient210
+{
+    /* Version 8 adds awaiting updates from the master */
+    public static final byte PROTOCOL_VERSION = 8;
+
+    public MasterClient220( String hostNameOrIp, int port, Logging logging, Monitors monitors, StoreId storeId,
+                            long readTimeoutSeconds, long lockReadTimeout, int maxConcurrentChannels, int chunkSize,
+                            boolean compressChunks )
+    {
+        super( hostNameOrIp, port, logging, monitors, storeId, readTimeoutSeconds, lockReadTimeout,
+                maxConcurrentChannels, chunkSize, compressChunks, PROTOCOL_VERSION );
+    }
+
+    @Override
+    public Response<Void> awaitUpdates( RequestContext context, final long maxWaitMillis )
+    {
+        return sendRequest( HaRequestType210.AWAIT_UPDATES, context, new Serializer()
+        {
+            @Override
+            public void write( ChannelBuffer buffer ) throws IOException
+            {
+                buffer.writeLong( maxWaitMillis );
+            }
+        }, VOID_DESERIALIZER );
+    }
+}
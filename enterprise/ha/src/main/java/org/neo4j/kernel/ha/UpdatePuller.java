@@ -25,6 +25,7 @@ import java.util.concurrent.TimeUnit;
 import org.neo4j.cluster.ClusterSettings;
 import org.neo4j.cluster.InstanceId;
 import org.neo4j.com.ComException;
+import org.neo4j.com.RequestContext;
 import org.neo4j.com.Response;
 import org.neo4j.com.storecopy.TransactionCommittingResponseUnpacker;
 import org.neo4j.helpers.Pair;
@@ -40,6 +41,13 @@ import org.neo4j.kernel.impl.util.JobScheduler;
 import org.neo4j.kernel.impl.util.StringLogger;
 import org.neo4j.kernel.lifecycle.Lifecycle;
 
+/**
+ * Keeps a slave up to date with its master. Either by pulling updates every {@link HaSettings#pull_interval},
+ * or, if {@link HaSettings#pull_updates_streaming} is enabled, by always having a request outstanding at the
+ * master which it answers as soon as there are new transactions, see {@link Master#awaitUpdates(RequestContext, long)}.
+ * Only one such request is outstanding at any given time, so a slave which falls behind catches up by receiving
+ * all transactions it's missing in the next response.
+ */
 public class UpdatePuller implements Lifecycle
 {
     private final HighAvailabilityMemberStateMachine memberStateMachine;
@@ -54,6 +62,10 @@ public class UpdatePuller implements Lifecycle
     private final TransactionCommittingResponseUnpacker unpacker;
     private volatile boolean pullUpdates = false;
     private final UpdatePullerHighAvailabilityMemberListener listener;
+    // Guards changes to pullUpdates and halted which the streaming job waits for
+    private final Object stateChange = new Object();
+    private volatile boolean halted;
+    private volatile boolean streamingSupported = true;
 
     public UpdatePuller( HighAvailabilityMemberStateMachine memberStateMachine, Master master,
                          RequestContextFactory requestContextFactory, AvailabilityGuard availabilityGuard,
@@ -94,11 +106,33 @@ public class UpdatePuller implements Lifecycle
         }
     }
 
+    /**
+     * Asks the master for updates and waits for at most {@code maxWaitMillis} for new transactions to
+     * be committed at the master if there are none already.
+     */
+    public void awaitUpdates( long maxWaitMillis ) throws IOException
+    {
+        if ( availabilityGuard.isAvailable( 5000 ) )
+        {
+            Response<Void> response = master.awaitUpdates( requestContextFactory.newRequestContext( -3 ),
+                    maxWaitMillis );
+
+            unpacker.unpackResponse( response );
+            lastUpdateTime.setLastUpdateTime( System.currentTimeMillis() );
+        }
+    }
+
     @Override
     public void init() throws Throwable
     {
+        halted = false;
         long pullInterval = config.get( HaSettings.pull_interval );
-        if ( pullInterval > 0 )
+        if ( config.get( HaSettings.pull_updates_streaming ) )
+        {
+            scheduler.schedule( JobScheduler.Group.pullUpdates, new UpdateStreamer(
+                    config.get( HaSettings.pull_updates_max_wait ), pullInterval > 0 ? pullInterval : 1000 ) );
+        }
+        else if ( pullInterval > 0 )
         {
             scheduler.scheduleRecurring( JobScheduler.Group.pullUpdates, new Runnable()
             {
@@ -130,20 +164,131 @@ public class UpdatePuller implements Lifecycle
     @Override
     public void start() throws Throwable
     {
-        this.pullUpdates = true;
+        setPullUpdates( true );
         memberStateMachine.addHighAvailabilityMemberListener( listener );
     }
 
     @Override
     public void stop() throws Throwable
     {
-        this.pullUpdates = false;
+        setPullUpdates( false );
         memberStateMachine.removeHighAvailabilityMemberListener( listener );
     }
 
     @Override
     public void shutdown() throws Throwable
     {
+        synchronized ( stateChange )
+        {
+            halted = true;
+            stateChange.notifyAll();
+        }
+    }
+
+    private void setPullUpdates( boolean pullUpdates )
+    {
+        synchronized ( stateChange )
+        {
+            this.pullUpdates = pullUpdates;
+            stateChange.notifyAll();
+        }
+    }
+
+    /**
+     * Waits until updates should be pulled, or until this puller has been shut down.
+     *
+     * @return {@code true} if updates should be pulled, {@code false} if this puller has been shut down.
+     */
+    private boolean awaitPullUpdates() throws InterruptedException
+    {
+        synchronized ( stateChange )
+        {
+            while ( !pullUpdates && !halted )
+            {
+                stateChange.wait();
+            }
+            return !halted;
+        }
+    }
+
+    private void pause( long millis ) throws InterruptedException
+    {
+        synchronized ( stateChange )
+        {
+            if ( !halted )
+            {
+                stateChange.wait( millis );
+            }
+        }
+    }
+
+    /**
+     * Keeps one {@link Master#awaitUpdates(RequestContext, long) await updates} request outstanding at the
+     * master for as long as this instance is a slave. Falls back to ordinary pulling, with {@code retryInterval}
+     * between pulls, if the master doesn't support it or fails to respond to it, until another master becomes
+     * available. After failures it also waits {@code retryInterval} before trying again.
+     */
+    private class UpdateStreamer implements Runnable
+    {
+        private final long maxWait;
+        private final long retryInterval;
+
+        UpdateStreamer( long maxWait, long retryInterval )
+        {
+            this.maxWait = maxWait;
+            this.retryInterval = retryInterval;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                while ( awaitPullUpdates() )
+                {
+                    try
+                    {
+                        if ( streamingSupported )
+                        {
+                            awaitUpdates( maxWait );
+                        }
+                        else
+                        {
+                            pullUpdates();
+                            pause( retryInterval );
+                        }
+                    }
+                    catch ( UnsupportedOperationException e )
+                    {
+                        logger.info( "Master doesn't support streaming updates, will pull updates every " +
+                                retryInterval + "ms instead" );
+                        streamingSupported = false;
+                    }
+                    catch ( ComException e )
+                    {
+                        cappedLogger.event( Pair.of( "Pull updates failed due to network error.", e ) );
+                        if ( streamingSupported )
+                        {
+                            // The master may not understand the request, f.ex. an older master speaking the same
+                            // protocol version, so stick to ordinary pulling until there's a new master
+                            logger.info( "Awaiting updates from master failed, will pull updates every " +
+                                    retryInterval + "ms instead" );
+                            streamingSupported = false;
+                        }
+                        pause( retryInterval );
+                    }
+                    catch ( Exception e )
+                    {
+                        logger.logMessage( "Pull updates failed", e );
+                        pause( retryInterval );
+                    }
+                }
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 
     private class UpdatePullerHighAvailabilityMemberListener extends HighAvailabilityMemberListener.Adapter
@@ -160,8 +305,9 @@ public class UpdatePuller implements Lifecycle
         {
             if ( event.getInstanceId().equals( myInstanceId ) )
             {
-                pullUpdates = false;
+                setPullUpdates( false );
             }
+            streamingSupported = true;
         }
 
         @Override
@@ -169,7 +315,7 @@ public class UpdatePuller implements Lifecycle
         {
             if ( event.getInstanceId().equals( myInstanceId ) )
             {
-                pullUpdates = true;
+                setPullUpdates( true );
             }
         }
     }
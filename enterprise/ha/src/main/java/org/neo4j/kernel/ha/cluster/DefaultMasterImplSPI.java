@@ -156,6 +156,12 @@ class DefaultMasterImplSPI implements MasterImpl.SPI
         return streamer.flushStoresAndStreamStoreFiles( writer );
     }
 
+    @Override
+    public boolean awaitTransactionsAfter( long txId, long timeoutMillis ) throws InterruptedException
+    {
+        return txStore.awaitTransactionsAfter( txId, timeoutMillis );
+    }
+
     @Override
     public <T> Response<T> packResponse( RequestContext context, T response, Predicate<Long> filter )
     {
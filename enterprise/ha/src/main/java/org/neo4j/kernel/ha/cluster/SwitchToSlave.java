@@ -125,7 +125,8 @@ public class SwitchToSlave
                 config.get( HaSettings.read_timeout ).intValue(),
                 config.get( HaSettings.lock_read_timeout ).intValue(),
                 config.get( HaSettings.max_concurrent_channels_per_slave ),
-                config.get( HaSettings.com_chunk_size ).intValue()  );
+                config.get( HaSettings.com_chunk_size ).intValue(),
+                config.get( HaSettings.com_chunk_compression ) );
     }
 
     /**
@@ -75,6 +75,13 @@ public interface Master
 
     Response<Void> pullUpdates( RequestContext context );
 
+    /**
+     * Like {@link #pullUpdates(RequestContext)}, but if there are no transactions after the last one applied
+     * by the slave this will wait for at most {@code maxWaitMillis} for the next transaction to be committed
+     * and respond as soon as it has been.
+     */
+    Response<Void> awaitUpdates( RequestContext context, long maxWaitMillis );
+
     Response<Void> copyStore( RequestContext context, StoreWriter writer );
 
     Response<LockResult> acquireExclusiveLock( RequestContext context, Locks.ResourceType type, long... resourceIds );
@@ -98,6 +98,8 @@ public class MasterImpl extends LifecycleAdapter implements Master
 
         RequestContext flushStoresAndStreamStoreFiles( StoreWriter writer );
 
+        boolean awaitTransactionsAfter( long txId, long timeoutMillis ) throws InterruptedException;
+
         <T> Response<T> packResponse( RequestContext context, T response, Predicate<Long> filter );
 
         int getOrCreateLabel( String name );
@@ -182,6 +184,7 @@ public class MasterImpl extends LifecycleAdapter implements Master
      * o {@link #copyStore(RequestContext, StoreWriter)}
      * o {@link #copyTransactions(RequestContext, String, long, long)}
      * o {@link #pullUpdates(RequestContext)}
+     * o {@link #awaitUpdates(RequestContext, long)}
      *
      * all other methods must have this.
      * @param context the request context containing the epoch the request thinks it's for.
@@ -319,6 +322,22 @@ public class MasterImpl extends LifecycleAdapter implements Master
         return packResponse( context, null );
     }
 
+    @Override
+    public Response<Void> awaitUpdates( RequestContext context, long maxWaitMillis )
+    {
+        // Don't hold on to the request for so long that the server considers the channel silent and closes it
+        long waitMillis = Math.min( maxWaitMillis, config.get( HaSettings.lock_read_timeout ) / 2 );
+        try
+        {
+            spi.awaitTransactionsAfter( context.lastAppliedTransaction(), waitMillis );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+        return packResponse( context, null );
+    }
+
     @Override
     public Response<HandshakeResult> handshake( long txId, StoreId storeId )
     {
@@ -36,7 +36,7 @@ import org.neo4j.com.Server;
 import org.neo4j.com.TransactionNotPresentOnMasterException;
 import org.neo4j.com.TxChecksumVerifier;
 import org.neo4j.kernel.ha.HaRequestType210;
-import org.neo4j.kernel.ha.MasterClient210;
+import org.neo4j.kernel.ha.MasterClient220;
 import org.neo4j.kernel.logging.Logging;
 import org.neo4j.kernel.monitoring.Monitors;
 
@@ -51,7 +51,7 @@ public class MasterServer extends Server<Master, Void>
     public MasterServer( Master requestTarget, Logging logging, Configuration config,
                          TxChecksumVerifier txVerifier, Monitors monitors )
     {
-        super( requestTarget, config, logging, FRAME_LENGTH, MasterClient210.PROTOCOL_VERSION, txVerifier,
+        super( requestTarget, config, logging, FRAME_LENGTH, MasterClient220.PROTOCOL_VERSION, txVerifier,
                 SYSTEM_CLOCK, monitors );
     }
 
@@ -21,7 +21,6 @@ package org.neo4j.kernel.ha.lock.forseti;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentMap;
 
 import org.neo4j.collection.pool.LinkedQueuePool;
 import org.neo4j.collection.primitive.PrimitiveIntIterator;
@@ -45,7 +44,7 @@ public class ForsetiClient implements Locks.Client
     private final int myId;
 
     /** resourceType -> lock map. These are the global lock maps, shared across all clients. */
-    private final ConcurrentMap[] lockMaps;
+    private final LockTable[] lockMaps;
 
     /** resourceType -> wait strategy */
     private final WaitStrategy<AcquireLockTimeoutException>[] waitStrategies;
@@ -79,7 +78,7 @@ public class ForsetiClient implements Locks.Client
     private final ExclusiveLock myExclusiveLock = new ExclusiveLock(this);
 
     public ForsetiClient( int id,
-                          ConcurrentMap[] lockMaps,
+                          LockTable[] lockMaps,
                           WaitStrategy[] waitStrategies,
                           LinkedQueuePool<ForsetiClient> clientPool )
     {
@@ -101,7 +100,7 @@ public class ForsetiClient implements Locks.Client
     public void acquireShared( Locks.ResourceType resourceType, long... resourceIds ) throws AcquireLockTimeoutException
     {
         // Grab the global lock map we will be using
-        ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap  = lockMaps[resourceType.typeId()];
+        LockTable lockMap  = lockMaps[resourceType.typeId()];
 
         // And grab our local lock maps
         Map<Long, Integer> heldShareLocks     = sharedLockCounts[resourceType.typeId()];
@@ -197,7 +196,7 @@ public class ForsetiClient implements Locks.Client
     {
         // For details on how this works, refer to the acquireShared method call, as the two are very similar
 
-        ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+        LockTable lockMap = lockMaps[resourceType.typeId()];
         Map<Long, Integer> heldLocks      = exclusiveLockCounts[resourceType.typeId()];
 
         for ( long resourceId : resourceIds )
@@ -240,7 +239,7 @@ public class ForsetiClient implements Locks.Client
     @Override
     public boolean tryExclusiveLock( Locks.ResourceType resourceType, long... resourceIds )
     {
-        ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+        LockTable lockMap = lockMaps[resourceType.typeId()];
         Map<Long, Integer> heldLocks      = exclusiveLockCounts[resourceType.typeId()];
 
         for ( long resourceId : resourceIds )
@@ -297,7 +296,7 @@ public class ForsetiClient implements Locks.Client
     @Override
     public boolean trySharedLock( Locks.ResourceType resourceType, long... resourceIds )
     {
-        ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap     = lockMaps[resourceType.typeId()];
+        LockTable lockMap     = lockMaps[resourceType.typeId()];
         Map<Long, Integer> heldShareLocks     = sharedLockCounts[resourceType.typeId()];
         Map<Long, Integer> heldExclusiveLocks = exclusiveLockCounts[resourceType.typeId()];
 
@@ -408,7 +407,7 @@ public class ForsetiClient implements Locks.Client
             Map<Long, Integer> localLocks = sharedLockCounts[i];
             if(localLocks != null)
             {
-                ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[i];
+                LockTable lockMap = lockMaps[i];
                 for ( Long resourceId : localLocks.keySet() )
                 {
                     if(!exclusiveLockCounts[i].containsKey( resourceId ))
@@ -429,7 +428,7 @@ public class ForsetiClient implements Locks.Client
             Map<Long, Integer> localLocks = exclusiveLockCounts[i];
             if(localLocks != null)
             {
-                ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[i];
+                LockTable lockMap = lockMaps[i];
                 for ( Long resourceId : localLocks.keySet() )
                 {
                     if(sharedLockCounts[i].containsKey( resourceId ))
@@ -460,7 +459,7 @@ public class ForsetiClient implements Locks.Client
             // re-instated after releasing the exclusive lock).
             if(exclusiveLocks != null)
             {
-                ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[i];
+                LockTable lockMap = lockMaps[i];
                 for ( Long resourceId : exclusiveLocks.keySet() )
                 {
                     releaseGlobalLock( lockMap, resourceId );
@@ -478,7 +477,7 @@ public class ForsetiClient implements Locks.Client
             // Then release all remaining shared locks
             if(sharedLocks != null)
             {
-                ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[i];
+                LockTable lockMap = lockMaps[i];
                 for ( Long resourceId : sharedLocks.keySet() )
                 {
                     releaseGlobalLock( lockMap, resourceId );
@@ -550,7 +549,7 @@ public class ForsetiClient implements Locks.Client
     }
 
     /** Release a lock from the global pool. */
-    private void releaseGlobalLock( ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap, long resourceId )
+    private void releaseGlobalLock( LockTable lockMap, long resourceId )
     {
         ForsetiLockManager.Lock lock = lockMap.get( resourceId );
         if( lock instanceof ExclusiveLock )
@@ -583,7 +582,7 @@ public class ForsetiClient implements Locks.Client
     }
 
     /** Attempt to upgrade a share lock to an exclusive lock, grabbing the share lock if we don't hold it. */
-    private boolean tryUpgradeSharedToExclusive( Locks.ResourceType resourceType, ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap,
+    private boolean tryUpgradeSharedToExclusive( Locks.ResourceType resourceType, LockTable lockMap,
                                                  long resourceId, SharedLock sharedLock ) throws AcquireLockTimeoutException
     {
         int tries = 0;
@@ -623,7 +622,7 @@ public class ForsetiClient implements Locks.Client
     /** Attempt to upgrade a share lock that we hold to an exclusive lock. */
     private boolean tryUpgradeToExclusiveWithShareLockHeld(
             Locks.ResourceType resourceType,
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap,
+            LockTable lockMap,
             long resourceId,
             SharedLock sharedLock,
             int tries ) throws AcquireLockTimeoutException
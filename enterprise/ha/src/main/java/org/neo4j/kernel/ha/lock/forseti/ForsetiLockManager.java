@@ -19,11 +19,8 @@
  */
 package org.neo4j.kernel.ha.lock.forseti;
 
-import java.util.Map;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.collection.pool.LinkedQueuePool;
@@ -90,8 +87,8 @@ import org.neo4j.kernel.lifecycle.LifecycleAdapter;
  * be worth investigating fat locks, or in any case optimize the current way SharedLock adds and removes clients from
  * its holder list.
  *
- * The maps used by forseti should be replaced by faster concurrent maps, perhaps a striped hopscotch map or something
- * similar.
+ * The global lock maps are {@link LockTable striped primitive tables}, which avoid boxing resource ids. The stripes
+ * are still guarded by monitors, a lock-free table may scale better on machines with many more cores.
  */
 public class ForsetiLockManager extends LifecycleAdapter implements Locks
 {
@@ -107,7 +104,7 @@ public class ForsetiLockManager extends LifecycleAdapter implements Locks
     }
 
     /** Pointers to lock maps, one array per resource type. */
-    private final ConcurrentMap[] lockMaps;
+    private final LockTable[] lockMaps;
 
     /** Wait strategies per resource type */
     private final WaitStrategy[] waitStrategies;
@@ -120,13 +117,13 @@ public class ForsetiLockManager extends LifecycleAdapter implements Locks
 
     public ForsetiLockManager( ResourceType... resourceTypes )
     {
-        this.lockMaps = new ConcurrentMap[findMaxResourceId( resourceTypes )];
+        this.lockMaps = new LockTable[findMaxResourceId( resourceTypes )];
         this.waitStrategies = new WaitStrategy[findMaxResourceId( resourceTypes )];
         this.resourceTypes = new ResourceType[findMaxResourceId( resourceTypes )];
 
         for ( ResourceType type : resourceTypes )
         {
-            this.lockMaps[type.typeId()] = new ConcurrentHashMap(16, 0.6f, 512);
+            this.lockMaps[type.typeId()] = new LockTable();
             this.waitStrategies[type.typeId()] = type.waitStrategy();
             this.resourceTypes[type.typeId()] = type;
         }
@@ -148,19 +145,21 @@ public class ForsetiLockManager extends LifecycleAdapter implements Locks
     }
 
     @Override
-    public void accept( Visitor out )
+    public void accept( final Visitor out )
     {
         for ( int i = 0; i < lockMaps.length; i++ )
         {
             if(lockMaps[i] != null)
             {
-                ResourceType type = resourceTypes[i];
-                for ( Object raw : lockMaps[i].entrySet() )
+                final ResourceType type = resourceTypes[i];
+                lockMaps[i].accept( new LockTable.Visitor()
                 {
-                    Map.Entry<Long, Lock> entry = (Map.Entry<Long, Lock>)raw;
-                    Lock lock = entry.getValue();
-                    out.visit( type, entry.getKey(), lock.describeWaitList(), 0 );
-                }
+                    @Override
+                    public void visit( long resourceId, Lock lock )
+                    {
+                        out.visit( type, resourceId, lock.describeWaitList(), 0 );
+                    }
+                } );
             }
         }
     }
@@ -183,10 +182,10 @@ public class ForsetiLockManager extends LifecycleAdapter implements Locks
         /** Re-use ids, forseti uses these in arrays, so we want to keep them low and not loose them. */
         // TODO we could use a synchronised SimpleBitSet instead, since we know that we only care about reusing a very limited set of integers.
         private final Queue<Integer> unusedIds = new ConcurrentLinkedQueue<>();
-        private final ConcurrentMap[] lockMaps;
+        private final LockTable[] lockMaps;
         private final WaitStrategy[] waitStrategies;
 
-        public ForsetiClientFlyweightPool( ConcurrentMap[] lockMaps, WaitStrategy[] waitStrategies )
+        public ForsetiClientFlyweightPool( LockTable[] lockMaps, WaitStrategy[] waitStrategies )
         {
             super( 128, null);
             this.lockMaps = lockMaps;
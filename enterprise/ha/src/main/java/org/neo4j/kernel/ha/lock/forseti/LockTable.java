@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.ha.lock.forseti;
+
+/**
+ * The global map of resource id to {@link ForsetiLockManager.Lock} for one resource type, shared by all
+ * {@link ForsetiClient clients}.
+ *
+ * Resource ids are kept as primitive longs in open addressing tables, so grabbing or releasing a lock neither boxes
+ * the resource id nor allocates any map entry. The table is split into a fixed number of independently synchronized
+ * stripes, selected by the hash of the resource id, such that clients locking different resources rarely contend on
+ * the same stripe. Each stripe only does a handful of probes under its monitor, the actual shared/exclusive
+ * acquisition of a lock is done by CAS-ing {@link ForsetiLockManager.Lock} instances in and out of this table and,
+ * for shared locks, on the {@link SharedLock} itself.
+ *
+ * Any long is a valid resource id, since the resource ids of some resource types are hash codes.
+ */
+class LockTable
+{
+    interface Visitor
+    {
+        void visit( long resourceId, ForsetiLockManager.Lock lock );
+    }
+
+    static final int DEFAULT_STRIPES = 512;
+    private static final int INITIAL_STRIPE_CAPACITY = 16;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int stripeBits;
+
+    LockTable()
+    {
+        this( DEFAULT_STRIPES );
+    }
+
+    /**
+     * @param stripes number of stripes, rounded up to the nearest power of two.
+     */
+    LockTable( int stripes )
+    {
+        int count = Integer.highestOneBit( Math.max( 1, stripes ) - 1 ) << 1;
+        count = Math.max( 1, count );
+        this.stripes = new Stripe[count];
+        this.stripeMask = count - 1;
+        this.stripeBits = Integer.numberOfTrailingZeros( count );
+        for ( int i = 0; i < count; i++ )
+        {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * @return the lock currently in place for the resource, or {@code null} if there is none.
+     */
+    ForsetiLockManager.Lock get( long resourceId )
+    {
+        int hash = hash( resourceId );
+        return stripe( hash ).get( resourceId, hash );
+    }
+
+    /**
+     * Puts the lock in place for the resource, unless there already is one.
+     *
+     * @return the lock already in place for the resource, or {@code null} if the given lock was put.
+     */
+    ForsetiLockManager.Lock putIfAbsent( long resourceId, ForsetiLockManager.Lock lock )
+    {
+        int hash = hash( resourceId );
+        return stripe( hash ).put( resourceId, hash, lock, true );
+    }
+
+    /**
+     * Puts the lock in place for the resource, replacing any existing lock.
+     */
+    void put( long resourceId, ForsetiLockManager.Lock lock )
+    {
+        int hash = hash( resourceId );
+        stripe( hash ).put( resourceId, hash, lock, false );
+    }
+
+    void remove( long resourceId )
+    {
+        int hash = hash( resourceId );
+        stripe( hash ).remove( resourceId, hash );
+    }
+
+    /**
+     * Visits all locks in place. Each stripe is visited while holding its monitor, so the visitor should not
+     * grab or release any locks.
+     */
+    void accept( Visitor visitor )
+    {
+        for ( Stripe stripe : stripes )
+        {
+            stripe.accept( visitor );
+        }
+    }
+
+    private Stripe stripe( int hash )
+    {
+        return stripes[hash & stripeMask];
+    }
+
+    private static int hash( long resourceId )
+    {
+        // Resource ids are often sequential, spread them out over both stripes and slots
+        long h = resourceId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Linear probing table where a slot is free if its lock is {@code null}. Removal shifts following entries
+     * back, so there are no tombstones to clean up.
+     */
+    private final class Stripe
+    {
+        private long[] resourceIds = new long[INITIAL_STRIPE_CAPACITY];
+        private ForsetiLockManager.Lock[] locks = new ForsetiLockManager.Lock[INITIAL_STRIPE_CAPACITY];
+        private int size;
+
+        synchronized ForsetiLockManager.Lock get( long resourceId, int hash )
+        {
+            int slot = find( resourceId, hash );
+            return slot == -1 ? null : locks[slot];
+        }
+
+        synchronized ForsetiLockManager.Lock put( long resourceId, int hash, ForsetiLockManager.Lock lock,
+                boolean onlyIfAbsent )
+        {
+            int mask = locks.length - 1;
+            int slot = firstSlot( hash, mask );
+            while ( locks[slot] != null )
+            {
+                if ( resourceIds[slot] == resourceId )
+                {
+                    ForsetiLockManager.Lock existing = locks[slot];
+                    if ( !onlyIfAbsent )
+                    {
+                        locks[slot] = lock;
+                    }
+                    return existing;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            resourceIds[slot] = resourceId;
+            locks[slot] = lock;
+            if ( ++size > (locks.length >>> 1) + (locks.length >>> 2) )
+            {
+                grow();
+            }
+            return null;
+        }
+
+        synchronized void remove( long resourceId, int hash )
+        {
+            int slot = find( resourceId, hash );
+            if ( slot == -1 )
+            {
+                return;
+            }
+
+            // Shift back entries probed past the removed slot, so that they can still be found
+            int mask = locks.length - 1;
+            int free = slot;
+            int next = (slot + 1) & mask;
+            while ( locks[next] != null )
+            {
+                int home = firstSlot( hash( resourceIds[next] ), mask );
+                if ( ((next - home) & mask) >= ((next - free) & mask) )
+                {
+                    resourceIds[free] = resourceIds[next];
+                    locks[free] = locks[next];
+                    free = next;
+                }
+                next = (next + 1) & mask;
+            }
+            locks[free] = null;
+            size--;
+        }
+
+        synchronized void accept( Visitor visitor )
+        {
+            for ( int i = 0; i < locks.length; i++ )
+            {
+                if ( locks[i] != null )
+                {
+                    visitor.visit( resourceIds[i], locks[i] );
+                }
+            }
+        }
+
+        private int find( long resourceId, int hash )
+        {
+            int mask = locks.length - 1;
+            int slot = firstSlot( hash, mask );
+            while ( locks[slot] != null )
+            {
+                if ( resourceIds[slot] == resourceId )
+                {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void grow()
+        {
+            long[] oldResourceIds = resourceIds;
+            ForsetiLockManager.Lock[] oldLocks = locks;
+            resourceIds = new long[oldLocks.length << 1];
+            locks = new ForsetiLockManager.Lock[oldLocks.length << 1];
+            int mask = locks.length - 1;
+            for ( int i = 0; i < oldLocks.length; i++ )
+            {
+                if ( oldLocks[i] != null )
+                {
+                    int slot = firstSlot( hash( oldResourceIds[i] ), mask );
+                    while ( locks[slot] != null )
+                    {
+                        slot = (slot + 1) & mask;
+                    }
+                    resourceIds[slot] = oldResourceIds[i];
+                    locks[slot] = oldLocks[i];
+                }
+            }
+        }
+
+        private int firstSlot( int hash, int mask )
+        {
+            // The low bits select the stripe, so start with the bits above those within it
+            return Integer.rotateRight( hash, stripeBits ) & mask;
+        }
+    }
+}
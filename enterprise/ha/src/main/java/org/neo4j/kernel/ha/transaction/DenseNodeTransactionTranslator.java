@@ -346,6 +346,12 @@ public class DenseNodeTransactionTranslator implements Function<List<LogEntry>,
             return false;
         }
 
+        @Override
+        public boolean visitCountsCommand( Command.CountsCommand command )
+        {
+            return false;
+        }
+
         @Override
         public boolean visitIndexAddNodeCommand( IndexCommand.AddNodeCommand command ) throws IOException
         {
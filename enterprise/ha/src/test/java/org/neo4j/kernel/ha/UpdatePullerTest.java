@@ -30,6 +30,7 @@ import org.neo4j.cluster.ClusterSettings;
 import org.neo4j.cluster.InstanceId;
 import org.neo4j.cluster.member.ClusterMemberEvents;
 import org.neo4j.cluster.protocol.election.Election;
+import org.neo4j.com.ComException;
 import org.neo4j.com.RequestContext;
 import org.neo4j.com.Response;
 import org.neo4j.com.storecopy.TransactionCommittingResponseUnpacker;
@@ -47,9 +48,14 @@ import org.neo4j.kernel.impl.util.JobScheduler;
 import org.neo4j.kernel.impl.util.StringLogger;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -75,6 +81,7 @@ public class UpdatePullerTest
     public void setup()
     {
         when( config.get( HaSettings.pull_interval ) ).thenReturn( 1000l );
+        when( config.get( HaSettings.pull_updates_streaming ) ).thenReturn( false );
         when( config.get( ClusterSettings.server_id ) ).thenReturn( myId );
         when( availabilityGuard.isAvailable( anyLong() ) ).thenReturn( true );
     }
@@ -292,6 +299,108 @@ public class UpdatePullerTest
         verifyNoMoreInteractions( lastUpdateTime, availabilityGuard, unpacker );
     }
 
+    @Test
+    public void shouldKeepAwaitingUpdatesFromMasterWhenStreaming() throws Throwable
+    {
+        // GIVEN
+        when( config.get( HaSettings.pull_updates_streaming ) ).thenReturn( true );
+        when( config.get( HaSettings.pull_updates_max_wait ) ).thenReturn( 10l );
+        final UpdatePuller puller = new UpdatePuller(
+                stateMachine,
+                master,
+                requestContextFactory,
+                availabilityGuard,
+                lastUpdateTime,
+                config,
+                scheduler,
+                stringLogger,
+                unpacker );
+        puller.init();
+        puller.start();
+
+        // WHEN
+        Thread streamer = new Thread( scheduler.getJob() );
+        streamer.start();
+
+        // THEN
+        verify( master, timeout( 5000 ).atLeast( 2 ) ).awaitUpdates( Matchers.<RequestContext>any(), eq( 10l ) );
+        puller.stop();
+        puller.shutdown();
+        streamer.join( 5000 );
+        assertFalse( streamer.isAlive() );
+        verify( master, never() ).pullUpdates( Matchers.<RequestContext>any() );
+    }
+
+    @Test
+    public void shouldFallBackToPullingUpdatesWhenMasterCannotStream() throws Throwable
+    {
+        // GIVEN
+        when( config.get( HaSettings.pull_updates_streaming ) ).thenReturn( true );
+        when( config.get( HaSettings.pull_updates_max_wait ) ).thenReturn( 10l );
+        when( config.get( HaSettings.pull_interval ) ).thenReturn( 1l );
+        when( master.awaitUpdates( Matchers.<RequestContext>any(), anyLong() ) )
+                .thenThrow( new UnsupportedOperationException() );
+        final UpdatePuller puller = new UpdatePuller(
+                stateMachine,
+                master,
+                requestContextFactory,
+                availabilityGuard,
+                lastUpdateTime,
+                config,
+                scheduler,
+                stringLogger,
+                unpacker );
+        puller.init();
+        puller.start();
+
+        // WHEN
+        Thread streamer = new Thread( scheduler.getJob() );
+        streamer.start();
+
+        // THEN
+        verify( master, timeout( 5000 ).atLeast( 2 ) ).pullUpdates( Matchers.<RequestContext>any() );
+        puller.stop();
+        puller.shutdown();
+        streamer.join( 5000 );
+        assertFalse( streamer.isAlive() );
+        verify( master, times( 1 ) ).awaitUpdates( Matchers.<RequestContext>any(), anyLong() );
+    }
+
+    @Test
+    public void shouldFallBackToPullingUpdatesWhenMasterFailsToStream() throws Throwable
+    {
+        // GIVEN
+        when( config.get( HaSettings.pull_updates_streaming ) ).thenReturn( true );
+        when( config.get( HaSettings.pull_updates_max_wait ) ).thenReturn( 10l );
+        when( config.get( HaSettings.pull_interval ) ).thenReturn( 1l );
+        when( master.awaitUpdates( Matchers.<RequestContext>any(), anyLong() ) )
+                .thenThrow( new ComException( "Unknown request type" ) );
+        final UpdatePuller puller = new UpdatePuller(
+                stateMachine,
+                master,
+                requestContextFactory,
+                availabilityGuard,
+                lastUpdateTime,
+                config,
+                scheduler,
+                stringLogger,
+                unpacker );
+        puller.init();
+        puller.start();
+
+        // WHEN
+        Thread streamer = new Thread( scheduler.getJob() );
+        streamer.start();
+
+        // THEN
+        verify( master, timeout( 5000 ).atLeast( 2 ) ).pullUpdates( Matchers.<RequestContext>any() );
+        puller.stop();
+        puller.shutdown();
+        streamer.join( 5000 );
+        assertFalse( streamer.isAlive() );
+        verify( master, times( 1 ) ).awaitUpdates( Matchers.<RequestContext>any(), anyLong() );
+    }
+
     private static class OnDemandCallScheduler extends LifecycleAdapter implements JobScheduler
     {
         private Runnable job;
@@ -25,6 +25,7 @@ import org.neo4j.graphdb.factory.GraphDatabaseFactory;
 import org.neo4j.kernel.GraphDatabaseAPI;
 import org.neo4j.kernel.InternalAbstractGraphDatabase;
 import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.locking.ProfilingLocks;
 import org.neo4j.kernel.impl.locking.community.CommunityLockManger;
 import org.neo4j.test.TargetDirectory;
 
@@ -43,7 +44,7 @@ public class ForsetiServiceLoadingTest
         GraphDatabaseAPI db = (GraphDatabaseAPI) new GraphDatabaseFactory().newEmbeddedDatabase( dir.absolutePath() );
 
         // Then
-        assertThat( db.getDependencyResolver().resolveDependency( Locks.class ), instanceOf( ForsetiLockManager.class ) );
+        assertThat( lockManager( db ), instanceOf( ForsetiLockManager.class ) );
         db.shutdown();
     }
 
@@ -57,7 +58,14 @@ public class ForsetiServiceLoadingTest
                 .newGraphDatabase();
 
         // Then
-        assertThat( db.getDependencyResolver().resolveDependency( Locks.class ), instanceOf( CommunityLockManger.class ) );
+        assertThat( lockManager( db ), instanceOf( CommunityLockManger.class ) );
         db.shutdown();
     }
+
+    private Locks lockManager( GraphDatabaseAPI db )
+    {
+        Locks locks = db.getDependencyResolver().resolveDependency( Locks.class );
+        // Lock profiling decorates whichever lock manager is used
+        return locks instanceof ProfilingLocks ? ((ProfilingLocks) locks).delegate() : locks;
+    }
 }
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.ha.lock.forseti;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+
+import static java.lang.System.nanoTime;
+
+/**
+ * Compares the {@link LockTable} with the {@link ConcurrentHashMap} previously used by Forseti, doing the same
+ * grab and release map operations as a {@link ForsetiClient} taking exclusive locks on a range of resources.
+ *
+ * Run with for example {@code -Dthreads=8 -DlocksPerThread=1000 -Diterations=2000}.
+ */
+public class LockTableMicroBenchmark
+{
+    public static void main( String... args ) throws Exception
+    {
+        int threads = Integer.getInteger( "threads", Runtime.getRuntime().availableProcessors() );
+        int locksPerThread = Integer.getInteger( "locksPerThread", 1_000 );
+        int iterations = Integer.getInteger( "iterations", 2_000 );
+        int rounds = Integer.getInteger( "rounds", 5 );
+        for ( int round = 0; round < rounds; round++ )
+        {
+            for ( Implementation impl : Implementation.values() )
+            {
+                long time = execute( impl, threads, locksPerThread, iterations );
+                long operations = (long) threads * locksPerThread * iterations;
+                System.out.printf( "%s: %d threads, %.1f ns/lock%n", impl, threads, time / (double) operations );
+            }
+        }
+    }
+
+    private static long execute( Implementation impl, int threadCount, final int locksPerThread,
+            final int iterations ) throws InterruptedException
+    {
+        final Table table = impl.create();
+        final CountDownLatch start = new CountDownLatch( 1 );
+        Thread[] threads = new Thread[threadCount];
+        for ( int i = 0; i < threadCount; i++ )
+        {
+            // Interleave the resources of the threads, as with for example newly created nodes
+            final int offset = i;
+            final int stride = threadCount;
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    ForsetiLockManager.Lock lock = new ExclusiveLock( null );
+                    awaitStart( start );
+                    for ( int iteration = 0; iteration < iterations; iteration++ )
+                    {
+                        for ( long i = 0; i < locksPerThread; i++ )
+                        {
+                            long resourceId = i * stride + offset;
+                            if ( table.putIfAbsent( resourceId, lock ) != null )
+                            {
+                                throw new IllegalStateException( "Resource " + resourceId + " already locked" );
+                            }
+                        }
+                        for ( long i = 0; i < locksPerThread; i++ )
+                        {
+                            long resourceId = i * stride + offset;
+                            table.get( resourceId );
+                            table.remove( resourceId );
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+
+        long time = nanoTime();
+        start.countDown();
+        for ( Thread thread : threads )
+        {
+            thread.join();
+        }
+        return nanoTime() - time;
+    }
+
+    private static void awaitStart( CountDownLatch start )
+    {
+        try
+        {
+            start.await();
+        }
+        catch ( InterruptedException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    interface Table
+    {
+        ForsetiLockManager.Lock putIfAbsent( long resourceId, ForsetiLockManager.Lock lock );
+
+        ForsetiLockManager.Lock get( long resourceId );
+
+        void remove( long resourceId );
+    }
+
+    enum Implementation
+    {
+        CONCURRENT_HASH_MAP
+        {
+            @Override
+            Table create()
+            {
+                final ConcurrentMap<Long, ForsetiLockManager.Lock> map = new ConcurrentHashMap<>( 16, 0.6f, 512 );
+                return new Table()
+                {
+                    @Override
+                    public ForsetiLockManager.Lock putIfAbsent( long resourceId, ForsetiLockManager.Lock lock )
+                    {
+                        return map.putIfAbsent( resourceId, lock );
+                    }
+
+                    @Override
+                    public ForsetiLockManager.Lock get( long resourceId )
+                    {
+                        return map.get( resourceId );
+                    }
+
+                    @Override
+                    public void remove( long resourceId )
+                    {
+                        map.remove( resourceId );
+                    }
+                };
+            }
+        },
+        LOCK_TABLE
+        {
+            @Override
+            Table create()
+            {
+                final LockTable table = new LockTable();
+                return new Table()
+                {
+                    @Override
+                    public ForsetiLockManager.Lock putIfAbsent( long resourceId, ForsetiLockManager.Lock lock )
+                    {
+                        return table.putIfAbsent( resourceId, lock );
+                    }
+
+                    @Override
+                    public ForsetiLockManager.Lock get( long resourceId )
+                    {
+                        return table.get( resourceId );
+                    }
+
+                    @Override
+                    public void remove( long resourceId )
+                    {
+                        table.remove( resourceId );
+                    }
+                };
+            }
+        };
+
+        abstract Table create();
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.ha.lock.forseti;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class LockTableTest
+{
+    @Test
+    public void shouldPutIfAbsentOnlyWhenThereIsNoLock() throws Exception
+    {
+        // Given
+        LockTable table = new LockTable();
+        ForsetiLockManager.Lock first = new ExclusiveLock( null );
+        ForsetiLockManager.Lock second = new ExclusiveLock( null );
+
+        // When
+        assertNull( table.putIfAbsent( 10, first ) );
+        assertSame( first, table.putIfAbsent( 10, second ) );
+
+        // Then
+        assertSame( first, table.get( 10 ) );
+        table.put( 10, second );
+        assertSame( second, table.get( 10 ) );
+        table.remove( 10 );
+        assertNull( table.get( 10 ) );
+    }
+
+    @Test
+    public void shouldHandleAnyResourceId() throws Exception
+    {
+        // Given
+        LockTable table = new LockTable();
+        long[] resourceIds = {0, -1, Long.MIN_VALUE, Long.MAX_VALUE};
+
+        // When
+        for ( long resourceId : resourceIds )
+        {
+            table.put( resourceId, new ExclusiveLock( null ) );
+        }
+
+        // Then
+        for ( long resourceId : resourceIds )
+        {
+            assertEquals( ExclusiveLock.class, table.get( resourceId ).getClass() );
+            table.remove( resourceId );
+            assertNull( table.get( resourceId ) );
+        }
+    }
+
+    @Test
+    public void shouldKeepFindingLocksWhileGrowingAndRemoving() throws Exception
+    {
+        // Given a few small stripes, so that there are plenty of collisions
+        LockTable table = new LockTable( 2 );
+        Map<Long, ForsetiLockManager.Lock> expected = new HashMap<>();
+        Random random = new Random( 1234 );
+
+        // When
+        for ( int i = 0; i < 100_000; i++ )
+        {
+            long resourceId = random.nextInt( 1_000 );
+            if ( random.nextBoolean() )
+            {
+                ForsetiLockManager.Lock lock = new ExclusiveLock( null );
+                ForsetiLockManager.Lock existing = expected.get( resourceId );
+                if ( existing == null )
+                {
+                    expected.put( resourceId, lock );
+                }
+                assertSame( existing, table.putIfAbsent( resourceId, lock ) );
+            }
+            else
+            {
+                expected.remove( resourceId );
+                table.remove( resourceId );
+            }
+        }
+
+        // Then
+        for ( long resourceId = 0; resourceId < 1_000; resourceId++ )
+        {
+            assertSame( expected.get( resourceId ), table.get( resourceId ) );
+        }
+        final Map<Long, ForsetiLockManager.Lock> visited = new HashMap<>();
+        table.accept( new LockTable.Visitor()
+        {
+            @Override
+            public void visit( long resourceId, ForsetiLockManager.Lock lock )
+            {
+                visited.put( resourceId, lock );
+            }
+        } );
+        assertEquals( expected, visited );
+    }
+}